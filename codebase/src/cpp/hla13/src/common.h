@@ -115,6 +115,14 @@
 	#include <sys/time.h>
 #endif
 
+// thread local storage, used to give each thread its own buffer for passing
+// handles and values across the JNI boundary
+#ifdef OS_WINDOWS
+	#define THREAD_LOCAL __declspec(thread)
+#else
+	#define THREAD_LOCAL __thread
+#endif
+
 //#include <stdlib.h>
 //#include <stdio.h>
 
@@ -71,62 +71,118 @@ HLA::AttributeHandleSet* toAHS( JNIEnv *env, jintArray handles )
 	return theSet;
 }
 
+// ints are copied rather than cast in place as they aren't necessarily aligned
+static const char* getInt( const char *position, int32_t *value )
+{
+	memcpy( value, position, sizeof(int32_t) );
+	return position + sizeof(int32_t);
+}
+
+/**
+ * Copies a length-prefixed value out of a buffer into a new char[] of its own, storing the
+ * length. A length of -1 (a null value on the Java side) comes out as an empty value.
+ */
+static const char* getBytes( const char *position, char **value, HLA::ULong *length )
+{
+	int32_t size = 0;
+	position = getInt( position, &size );
+	if( size < 0 )
+		size = 0;
+
+	*value = new char[size];
+	memcpy( *value, position, size );
+	*length = size;
+	return position + size;
+}
+
+/**
+ * Reads the tag that follows the values in a buffer (see toAHVPS) into a new null-terminated
+ * char[], the same as JavaRTI::convertJTag() does with a byte[]. A length of -1 means there
+ * was no tag, in which case NULL is returned.
+ */
+static char* getTag( const char *position )
+{
+	int32_t size = 0;
+	position = getInt( position, &size );
+	if( size < 0 )
+		return NULL;
+
+	char *tag = new char[size+1];
+	memcpy( tag, position, size );
+	tag[size] = '\0';
+	return tag;
+}
+
 /**
- * Converts an incoming int[] (representing attribute handles) and byte[][] (representing attribute
- * values) into an AttributeHandleValuePairSet that can be returned to the FederateAmbassador.
+ * Converts the handles and values packed into a direct buffer by the Java side (see
+ * org.portico.utils.HandleValueBuffer for the layout) into an AttributeHandleValuePairSet that
+ * can be returned to the FederateAmbassador. The tag that follows the values is stored in the
+ * given char*, which the caller must delete.
  */
-HLA::AttributeHandleValuePairSet* toAHVPS( JNIEnv *env, jintArray handles, jobjectArray values )
+HLA::AttributeHandleValuePairSet* toAHVPS( JNIEnv *env, jobject buffer, char **tag )
 {
+	const char *position = (const char*)env->GetDirectBufferAddress( buffer );
+	if( position == NULL )
+	{
+		*tag = NULL;
+		return new portico13::AttributeHandleValuePairSet( 0 );
+	}
+
 	// create the set
-	jsize size = env->GetArrayLength( handles );
+	int32_t size = 0;
+	position = getInt( position, &size );
 	portico13::AttributeHandleValuePairSet *theSet = new portico13::AttributeHandleValuePairSet( size );
-	
+
 	// populate the set
-	jint *content = env->GetIntArrayElements( handles, NULL );
-	for( int i = 0; i < size; ++i )
+	for( int32_t i = 0; i < size; ++i )
 	{
-		// get the value
-		jbyteArray valueArray = (jbyteArray)env->GetObjectArrayElement( values, i );
-		jsize valueSize       = env->GetArrayLength( valueArray );
-		jbyte *valueBuffer    = new jbyte[valueSize];
-		env->GetByteArrayRegion( valueArray, 0, valueSize, valueBuffer );
-		
+		int32_t handle = 0;
+		char *value = NULL;
+		HLA::ULong valueSize = 0;
+		position = getInt( position, &handle );
+		position = getBytes( position, &value, &valueSize );
+
 		// store the handle and value, but tell the set NOT to copy the data, it can have
 		// it and take responsibility for it, we won't delete it
-		theSet->addButDontCopy( content[i], (char*)valueBuffer, valueSize );
-		//delete [] valueBuffer; --naughty!
+		theSet->addButDontCopy( handle, value, valueSize );
 	}
-	
-	env->ReleaseIntArrayElements( handles, content, 0 );
+
+	*tag = getTag( position );
 	return theSet;
 }
 
 /**
- * Converts an incoming int[] (representing attribute handles) and byte[][] (representing attribute
- * values) into an ParameterHandleValuePairSet that can be returned to the FederateAmbassador.
+ * Converts the handles and values packed into a direct buffer by the Java side into a
+ * ParameterHandleValuePairSet that can be returned to the FederateAmbassador. See toAHVPS.
  */
-HLA::ParameterHandleValuePairSet* toPHVPS( JNIEnv *env, jintArray handles, jobjectArray values )
+HLA::ParameterHandleValuePairSet* toPHVPS( JNIEnv *env, jobject buffer, char **tag )
 {
+	const char *position = (const char*)env->GetDirectBufferAddress( buffer );
+	if( position == NULL )
+	{
+		*tag = NULL;
+		return new portico13::ParameterHandleValuePairSet( 0 );
+	}
+
 	// create the set
-	jsize size = env->GetArrayLength( handles );
+	int32_t size = 0;
+	position = getInt( position, &size );
 	portico13::ParameterHandleValuePairSet *theSet = new portico13::ParameterHandleValuePairSet( size );
-	
+
 	// populate the set
-	jint *content = env->GetIntArrayElements( handles, NULL );
-	for( int i = 0; i < size; ++i )
+	for( int32_t i = 0; i < size; ++i )
 	{
-		// get the value
-		jbyteArray valueArray = (jbyteArray)env->GetObjectArrayElement( values, i );
-		jsize valueSize       = env->GetArrayLength( valueArray );
-		jbyte *valueBuffer    = new jbyte[valueSize];
-		env->GetByteArrayRegion( valueArray, 0, valueSize, valueBuffer );
-		
+		int32_t handle = 0;
+		char *value = NULL;
+		HLA::ULong valueSize = 0;
+		position = getInt( position, &handle );
+		position = getBytes( position, &value, &valueSize );
+
 		// store the handle and value
-		theSet->addButDontCopy( content[i], (char*)valueBuffer, valueSize );
-		//delete [] valueBuffer; --naughty as we're calling addButDontCopy!
+		theSet->addButDontCopy( handle, value, valueSize );
 	}
-	
-	env->ReleaseIntArrayElements( handles, content, 0 );
+
+	*tag = getTag( position );
 	return theSet;
 }
 
@@ -536,25 +592,23 @@ Java_org_portico_impl_cpp13_FederateAmbassadorLink_discoverObjectInstance(
 /*
  * Class:     org_portico_impl_cpp13_FederateAmbassadorLink
  * Method:    reflectAttributeValues
- * Signature: (II[I[[B[B)V
+ * Signature: (IILjava/nio/ByteBuffer;)V
  */
 JNIEXPORT void JNICALL
-Java_org_portico_impl_cpp13_FederateAmbassadorLink_reflectAttributeValues__II_3I_3_3B_3B(
+Java_org_portico_impl_cpp13_FederateAmbassadorLink_reflectAttributeValues__IILjava_nio_ByteBuffer_2(
 		JNIEnv *env,
 		jobject jfedamb,
 		jint fedid,
 		jint theObject,
-		jintArray handles,
-		jobjectArray values,
-		jbyteArray tag )
+		jobject values )
 {
 	// get access to the associated JavaRTI instance
 	portico13::JavaRTI *javarti = getRTI( fedid );
 	if( javarti == NULL )
 		return;
 	
-	char *theTag = javarti->convertJTag( tag );
-	HLA::AttributeHandleValuePairSet *attributes = toAHVPS( env, handles, values );
+	char *theTag = NULL;
+	HLA::AttributeHandleValuePairSet *attributes = toAHVPS( env, values, &theTag );
 
 	javarti->fedamb->reflectAttributeValues( theObject, *attributes, theTag );
 	
@@ -567,17 +621,15 @@ Java_org_portico_impl_cpp13_FederateAmbassadorLink_reflectAttributeValues__II_3I
 /*
  * Class:     org_portico_impl_cpp13_FederateAmbassadorLink
  * Method:    reflectAttributeValues
- * Signature: (II[I[[B[BDI)V
+ * Signature: (IILjava/nio/ByteBuffer;DI)V
  */
 JNIEXPORT void JNICALL
-Java_org_portico_impl_cpp13_FederateAmbassadorLink_reflectAttributeValues__II_3I_3_3B_3BDI(
+Java_org_portico_impl_cpp13_FederateAmbassadorLink_reflectAttributeValues__IILjava_nio_ByteBuffer_2DI(
 		JNIEnv *env,
 		jobject jfedamb,
 		jint fedid, 
 		jint theObject, 
-		jintArray handles,
-		jobjectArray values, 
-		jbyteArray tag, 
+		jobject values, 
 		jdouble time, 
 		jint erh )
 {
@@ -586,8 +638,8 @@ Java_org_portico_impl_cpp13_FederateAmbassadorLink_reflectAttributeValues__II_3I
 	if( javarti == NULL )
 		return;
 
-	char *theTag = javarti->convertJTag( tag );
-	HLA::AttributeHandleValuePairSet *attributes = toAHVPS( env, handles, values );
+	char *theTag = NULL;
+	HLA::AttributeHandleValuePairSet *attributes = toAHVPS( env, values, &theTag );
 	HLA::FedTime *fedtime = new RTIfedTime( time );
 
 	javarti->fedamb->reflectAttributeValues( theObject,
@@ -606,25 +658,23 @@ Java_org_portico_impl_cpp13_FederateAmbassadorLink_reflectAttributeValues__II_3I
 /*
  * Class:     org_portico_impl_cpp13_FederateAmbassadorLink
  * Method:    receiveInteraction
- * Signature: (II[I[[B[B)V
+ * Signature: (IILjava/nio/ByteBuffer;)V
  */
 JNIEXPORT void JNICALL
-Java_org_portico_impl_cpp13_FederateAmbassadorLink_receiveInteraction__II_3I_3_3B_3B(
+Java_org_portico_impl_cpp13_FederateAmbassadorLink_receiveInteraction__IILjava_nio_ByteBuffer_2(
 		JNIEnv *env, 
 		jobject jfedamb, 
 		jint fedid, 
 		jint theClass, 
-		jintArray handles, 
-		jobjectArray values, 
-		jbyteArray tag )
+		jobject values )
 {
 	// get access to the associated JavaRTI instance
 	portico13::JavaRTI *javarti = getRTI( fedid );
 	if( javarti == NULL )
 		return;
 
-	char *theTag = javarti->convertJTag( tag );
-	HLA::ParameterHandleValuePairSet *parameters = toPHVPS( env, handles, values );
+	char *theTag = NULL;
+	HLA::ParameterHandleValuePairSet *parameters = toPHVPS( env, values, &theTag );
 
 	javarti->fedamb->receiveInteraction( theClass, *parameters, theTag );
 
@@ -637,17 +687,15 @@ Java_org_portico_impl_cpp13_FederateAmbassadorLink_receiveInteraction__II_3I_3_3
 /*
  * Class:     org_portico_impl_cpp13_FederateAmbassadorLink
  * Method:    receiveInteraction
- * Signature: (II[I[[B[BDI)V
+ * Signature: (IILjava/nio/ByteBuffer;DI)V
  */
 JNIEXPORT void JNICALL
-Java_org_portico_impl_cpp13_FederateAmbassadorLink_receiveInteraction__II_3I_3_3B_3BDI(
+Java_org_portico_impl_cpp13_FederateAmbassadorLink_receiveInteraction__IILjava_nio_ByteBuffer_2DI(
 		JNIEnv *env,
 		jobject jfedamb,
 		jint fedid,
 		jint theClass,
-		jintArray handles,
-		jobjectArray values,
-		jbyteArray tag,
+		jobject values,
 		jdouble time,
 		jint erh )
 {
@@ -656,8 +704,8 @@ Java_org_portico_impl_cpp13_FederateAmbassadorLink_receiveInteraction__II_3I_3_3
 	if( javarti == NULL )
 		return;
 
-	char *theTag = javarti->convertJTag( tag );
-	HLA::ParameterHandleValuePairSet *parameters = toPHVPS( env, handles, values );
+	char *theTag = NULL;
+	HLA::ParameterHandleValuePairSet *parameters = toPHVPS( env, values, &theTag );
 	HLA::FedTime *fedtime = new RTIfedTime( time );
 
 	javarti->fedamb->receiveInteraction( theClass,
@@ -21,6 +21,37 @@ PORTICO13_NS_START
 
 int JavaRTI::rtiCounter = 0;
 
+/*
+ * Each thread gets its own buffer to pack handles and values into before passing them to
+ * Java. The memory is ours, with a java.nio.ByteBuffer wrapped around it (and held as a
+ * global reference) so that it can be passed in a JNI call. It is only replaced when a
+ * bigger one is needed.
+ */
+struct DirectBuffer
+{
+	char*   address;
+	size_t  capacity;
+	jobject jbuffer;
+};
+
+static THREAD_LOCAL DirectBuffer* threadBuffer = NULL;
+
+// ints are copied rather than cast in place as they aren't necessarily aligned
+static char* putInt( char *position, int32_t value )
+{
+	memcpy( position, &value, sizeof(int32_t) );
+	return position + sizeof(int32_t);
+}
+
+static char* putBytes( char *position, const char *data, HLA::ULong length )
+{
+	position = putInt( position, (int32_t)length );
+	if( length > 0 )
+		memcpy( position, data, length );
+
+	return position + length;
+}
+
 //----------------------------------------------------------
 //                      CONSTRUCTORS
 //----------------------------------------------------------
@@ -334,6 +365,127 @@ HVPS JavaRTI::convertPHVPS( const HLA::ParameterHandleValuePairSet& parameters )
 	return hvps;
 }
 
+/*
+ * Returns the address of the calling thread's direct buffer, making sure it can hold at
+ * least the given number of bytes first. The java.nio.ByteBuffer wrapping it is stored in
+ * the given jobject.
+ */
+char* JavaRTI::reserveBuffer( size_t size, jobject *jbuffer )
+{
+	if( threadBuffer == NULL || threadBuffer->capacity < size )
+	{
+		size_t capacity = 4096;
+		while( capacity < size )
+			capacity *= 2;
+
+		JNIEnv *jnienv = this->attachToJVM();
+		if( threadBuffer == NULL )
+		{
+			threadBuffer = new DirectBuffer();
+		}
+		else
+		{
+			jnienv->DeleteGlobalRef( threadBuffer->jbuffer );
+			delete [] threadBuffer->address;
+		}
+
+		threadBuffer->address  = new char[capacity];
+		threadBuffer->capacity = capacity;
+		jobject local = jnienv->NewDirectByteBuffer( threadBuffer->address, (jlong)capacity );
+		threadBuffer->jbuffer = jnienv->NewGlobalRef( local );
+		jnienv->DeleteLocalRef( local );
+	}
+
+	*jbuffer = threadBuffer->jbuffer;
+	return threadBuffer->address;
+}
+
+/*
+ * Packs the given AttributeHandleValuePairSet and tag into the calling thread's direct buffer
+ * so they can be passed over to the Java side in a single argument. The layout is:
+ *
+ *   int count
+ *   count * { int handle, int length, byte[length] value }
+ *   int tagLength
+ *   byte[tagLength] tag
+ *
+ * with all ints in native byte order. This must match org.portico.utils.HandleValueBuffer on
+ * the Java side. As with convertTag(), the null terminator is stripped from the tag, and a
+ * NULL tag is passed as a length of -1. The returned buffer belongs to the thread and is
+ * reused by its next call, so the caller must not hold on to it or release it.
+ */
+jobject JavaRTI::convertAttributes( const HLA::AttributeHandleValuePairSet& attributes,
+                                    const char *tag )
+	throw( HLA::RTIinternalError )
+{
+	if( &attributes == NULL )
+	{
+		throw HLA::RTIinternalError( "AttributeHandleValuePairSet was NULL" );
+	}
+
+	// figure out how much room we need
+	size_t tagLength = (tag == NULL) ? 0 : strlen(tag);
+	size_t size = 4 + 4 + tagLength;
+	for( HLA::ULong i = 0; i < attributes.size(); ++i )
+		size += 8 + attributes.getValueLength(i);
+
+	// pack it all in
+	jobject jbuffer = NULL;
+	char *position = reserveBuffer( size, &jbuffer );
+	position = putInt( position, (int32_t)attributes.size() );
+	for( HLA::ULong i = 0; i < attributes.size(); ++i )
+	{
+		HLA::ULong valueSize = attributes.getValueLength(i);
+		position = putInt( position, (int32_t)attributes.getHandle(i) );
+		position = putBytes( position, attributes.getValuePointer(i,valueSize), valueSize );
+	}
+
+	if( tag == NULL )
+		putInt( position, -1 );
+	else
+		putBytes( position, tag, tagLength );
+
+	return jbuffer;
+}
+
+/*
+ * Packs the given ParameterHandleValuePairSet and tag into the calling thread's direct buffer.
+ * See convertAttributes() for the details.
+ */
+jobject JavaRTI::convertParameters( const HLA::ParameterHandleValuePairSet& parameters,
+                                    const char *tag )
+	throw( HLA::RTIinternalError )
+{
+	if( &parameters == NULL )
+	{
+		throw HLA::RTIinternalError( "ParameterHandleValuePairSet was NULL" );
+	}
+
+	// figure out how much room we need
+	size_t tagLength = (tag == NULL) ? 0 : strlen(tag);
+	size_t size = 4 + 4 + tagLength;
+	for( HLA::ULong i = 0; i < parameters.size(); ++i )
+		size += 8 + parameters.getValueLength(i);
+
+	// pack it all in
+	jobject jbuffer = NULL;
+	char *position = reserveBuffer( size, &jbuffer );
+	position = putInt( position, (int32_t)parameters.size() );
+	for( HLA::ULong i = 0; i < parameters.size(); ++i )
+	{
+		HLA::ULong valueSize = parameters.getValueLength(i);
+		position = putInt( position, (int32_t)parameters.getHandle(i) );
+		position = putBytes( position, parameters.getValuePointer(i,valueSize), valueSize );
+	}
+
+	if( tag == NULL )
+		putInt( position, -1 );
+	else
+		putBytes( position, tag, tagLength );
+
+	return jbuffer;
+}
+
 /*
  * This method will convert the given time into a jdouble that can be sent to the
  * Java side of the interface
@@ -692,10 +844,10 @@ void JavaRTI::cacheMethodIds() throw( HLA::RTIinternalError )
 	// object management
 	cacheMethod( &REGISTER_OBJECT_INSTANCE, "registerObjectInstance", "(I)I" );
 	cacheMethod( &REGISTER_OBJECT_INSTANCE_WITH_NAME, "registerObjectInstance", "(ILjava/lang/String;)I" );
-	cacheMethod( &UPDATE_ATTRIBUTE_VALUES, "updateAttributeValues", "(I[I[[B[B)V" );
-	cacheMethod( &UPDATE_ATTRIBUTE_VALUES_WITH_TIME, "updateAttributeValues", "(I[I[[B[BD)I" );
-	cacheMethod( &SEND_INTERACTION, "sendInteraction", "(I[I[[B[B)V" );
-	cacheMethod( &SEND_INTERACTION_WITH_TIME, "sendInteraction", "(I[I[[B[BD)I" );
+	cacheMethod( &UPDATE_ATTRIBUTE_VALUES, "updateAttributeValues", "(ILjava/nio/ByteBuffer;)V" );
+	cacheMethod( &UPDATE_ATTRIBUTE_VALUES_WITH_TIME, "updateAttributeValues", "(ILjava/nio/ByteBuffer;D)I" );
+	cacheMethod( &SEND_INTERACTION, "sendInteraction", "(ILjava/nio/ByteBuffer;)V" );
+	cacheMethod( &SEND_INTERACTION_WITH_TIME, "sendInteraction", "(ILjava/nio/ByteBuffer;D)I" );
 	cacheMethod( &DELETE_OBJECT_INSTANCE, "deleteObjectInstance", "(I[B)V" );
 	cacheMethod( &DELETE_OBJECT_INSTANCE_WITH_TIME, "deleteObjectInstance", "(I[BD)I" );
 	cacheMethod( &LOCAL_DELETE_OBJECT_INSTANCE, "localDeleteObjectInstance", "(I)V" );
@@ -89,6 +89,14 @@ class JavaRTI
 		HVPS convertPHVPS( const HLA::ParameterHandleValuePairSet& parameters )
 			throw( HLA::RTIinternalError );
 
+		// pack values and tag into this thread's direct buffer (see JavaRTI.cpp)
+		jobject convertAttributes( const HLA::AttributeHandleValuePairSet& attributes,
+		                           const char *tag )
+			throw( HLA::RTIinternalError );
+		jobject convertParameters( const HLA::ParameterHandleValuePairSet& parameters,
+		                           const char *tag )
+			throw( HLA::RTIinternalError );
+
 		void pushException( char *exceptionName, char *reason );
 
 		long currentTimeMillis();
@@ -99,6 +107,7 @@ class JavaRTI
 		// methods to convert to HLA types from Java types
 		HLA::AttributeHandleSet* convertToAHS( jintArray array );
 	private:
+		char* reserveBuffer( size_t size, jobject *jbuffer );
 		JNIEnv* attachToJVM() throw( HLA::RTIinternalError );
 		void initialize() throw( HLA::RTIinternalError );
 		void detachFromJVM(); /* should not be called currently */
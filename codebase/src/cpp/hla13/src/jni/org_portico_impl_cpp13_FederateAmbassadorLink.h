@@ -171,34 +171,34 @@ JNIEXPORT void JNICALL Java_org_portico_impl_cpp13_FederateAmbassadorLink_provid
 /*
  * Class:     org_portico_impl_cpp13_FederateAmbassadorLink
  * Method:    receiveInteraction
- * Signature: (II[I[[B[B)V
+ * Signature: (IILjava/nio/ByteBuffer;)V
  */
-JNIEXPORT void JNICALL Java_org_portico_impl_cpp13_FederateAmbassadorLink_receiveInteraction__II_3I_3_3B_3B
-  (JNIEnv *, jobject, jint, jint, jintArray, jobjectArray, jbyteArray);
+JNIEXPORT void JNICALL Java_org_portico_impl_cpp13_FederateAmbassadorLink_receiveInteraction__IILjava_nio_ByteBuffer_2
+  (JNIEnv *, jobject, jint, jint, jobject);
 
 /*
  * Class:     org_portico_impl_cpp13_FederateAmbassadorLink
  * Method:    receiveInteraction
- * Signature: (II[I[[B[BDI)V
+ * Signature: (IILjava/nio/ByteBuffer;DI)V
  */
-JNIEXPORT void JNICALL Java_org_portico_impl_cpp13_FederateAmbassadorLink_receiveInteraction__II_3I_3_3B_3BDI
-  (JNIEnv *, jobject, jint, jint, jintArray, jobjectArray, jbyteArray, jdouble, jint);
+JNIEXPORT void JNICALL Java_org_portico_impl_cpp13_FederateAmbassadorLink_receiveInteraction__IILjava_nio_ByteBuffer_2DI
+  (JNIEnv *, jobject, jint, jint, jobject, jdouble, jint);
 
 /*
  * Class:     org_portico_impl_cpp13_FederateAmbassadorLink
  * Method:    reflectAttributeValues
- * Signature: (II[I[[B[B)V
+ * Signature: (IILjava/nio/ByteBuffer;)V
  */
-JNIEXPORT void JNICALL Java_org_portico_impl_cpp13_FederateAmbassadorLink_reflectAttributeValues__II_3I_3_3B_3B
-  (JNIEnv *, jobject, jint, jint, jintArray, jobjectArray, jbyteArray);
+JNIEXPORT void JNICALL Java_org_portico_impl_cpp13_FederateAmbassadorLink_reflectAttributeValues__IILjava_nio_ByteBuffer_2
+  (JNIEnv *, jobject, jint, jint, jobject);
 
 /*
  * Class:     org_portico_impl_cpp13_FederateAmbassadorLink
  * Method:    reflectAttributeValues
- * Signature: (II[I[[B[BDI)V
+ * Signature: (IILjava/nio/ByteBuffer;DI)V
  */
-JNIEXPORT void JNICALL Java_org_portico_impl_cpp13_FederateAmbassadorLink_reflectAttributeValues__II_3I_3_3B_3BDI
-  (JNIEnv *, jobject, jint, jint, jintArray, jobjectArray, jbyteArray, jdouble, jint);
+JNIEXPORT void JNICALL Java_org_portico_impl_cpp13_FederateAmbassadorLink_reflectAttributeValues__IILjava_nio_ByteBuffer_2DI
+  (JNIEnv *, jobject, jint, jint, jobject, jdouble, jint);
 
 /*
  * Class:     org_portico_impl_cpp13_FederateAmbassadorLink
@@ -99,9 +99,8 @@ RTI::RTIambassador::updateAttributeValues( RTI::ObjectHandle theObject,
 	       RTI::RTIinternalError )
 {
 	// get java versions of the parameters
-	jbyteArray jTag = privateRefs->rti->convertTag( theTag );
 	jdouble jTime = privateRefs->rti->convertTime( theTime );
-	HVPS values = privateRefs->rti->convertAHVPS( theAttributes );
+	jobject values = privateRefs->rti->convertAttributes( theAttributes, theTag );
 
 	// log the request
 	if( logger->isTraceEnabled() )
@@ -117,15 +116,10 @@ RTI::RTIambassador::updateAttributeValues( RTI::ObjectHandle theObject,
 	env->CallVoidMethod( privateRefs->rti->jproxy,
 	                     privateRefs->rti->UPDATE_ATTRIBUTE_VALUES_WITH_TIME,
 	                     theObject,
-	                     values.handles,
-	                     values.values,
-	                     jTag,
+	                     values,
 	                     jTime );
 	
-	// clean up and run the exception check
-	env->DeleteLocalRef( jTag );
-	env->DeleteLocalRef( values.handles );
-	env->DeleteLocalRef( values.values );
+	// run the exception check (the buffer is reused, there is nothing to release)
 	privateRefs->rti->exceptionCheck();
 
 	logger->trace( "[Finished] updateAttributeValues(TSO): objectHandle=%d", theObject );
@@ -155,22 +149,16 @@ void RTI::RTIambassador::updateAttributeValues( RTI::ObjectHandle theObject,
 	}
 
 	// get java versions of the parameters
-	jbyteArray jTag = privateRefs->rti->convertTag( theTag );
-	HVPS values = privateRefs->rti->convertAHVPS( attributes );
+	jobject values = privateRefs->rti->convertAttributes( attributes, theTag );
 	
 	// call the method
 	JNIEnv *env = privateRefs->rti->getJniEnvironment();
 	env->CallVoidMethod( privateRefs->rti->jproxy,
 	                     privateRefs->rti->UPDATE_ATTRIBUTE_VALUES,
 	                     theObject,
-	                     values.handles,
-	                     values.values,
-	                     jTag );
+	                     values );
 	
-	// clean up and run the exception check
-	env->DeleteLocalRef( jTag );
-	env->DeleteLocalRef( values.handles );
-	env->DeleteLocalRef( values.values );
+	// run the exception check (the buffer is reused, there is nothing to release)
 	privateRefs->rti->exceptionCheck();
 	
 	logger->trace( "[Finished] updateAttributeValues(RO): objectHandle=%d", theObject );
@@ -193,9 +181,8 @@ RTI::RTIambassador::sendInteraction( RTI::InteractionClassHandle theInteraction,
 	       RTI::RTIinternalError )
 {
 	// get java versions of the parameters
-	jbyteArray jTag = privateRefs->rti->convertTag( theTag );
 	jdouble jTime = privateRefs->rti->convertTime( theTime );
-	HVPS values = privateRefs->rti->convertPHVPS( theParameters );
+	jobject values = privateRefs->rti->convertParameters( theParameters, theTag );
 	
 	// log the request
 	if( logger->isTraceEnabled() )
@@ -211,15 +198,10 @@ RTI::RTIambassador::sendInteraction( RTI::InteractionClassHandle theInteraction,
 	env->CallVoidMethod( privateRefs->rti->jproxy,
 	                     privateRefs->rti->SEND_INTERACTION_WITH_TIME,
 	                     theInteraction,
-	                     values.handles,
-	                     values.values,
-	                     jTag,
+	                     values,
 	                     jTime );
 	
-	// clean up and run the exception check
-	env->DeleteLocalRef( jTag );
-	env->DeleteLocalRef( values.handles );
-	env->DeleteLocalRef( values.values );
+	// run the exception check (the buffer is reused, there is nothing to release)
 	privateRefs->rti->exceptionCheck();
 
 	logger->trace( "[Finished] sendInteraction(TSO): classHandle=%d", theInteraction );
@@ -249,22 +231,16 @@ void RTI::RTIambassador::sendInteraction( RTI::InteractionClassHandle theInterac
 	}
 
 	// get java versions of the parameters
-	jbyteArray jTag = privateRefs->rti->convertTag( theTag );
-	HVPS values = privateRefs->rti->convertPHVPS( theParameters );
+	jobject values = privateRefs->rti->convertParameters( theParameters, theTag );
 	
 	// call the method
 	JNIEnv *env = privateRefs->rti->getJniEnvironment();
 	env->CallVoidMethod( privateRefs->rti->jproxy,
 	                     privateRefs->rti->SEND_INTERACTION,
 	                     theInteraction,
-	                     values.handles,
-	                     values.values,
-	                     jTag );
+	                     values );
 	
-	// clean up and run the exception check
-	env->DeleteLocalRef( jTag );
-	env->DeleteLocalRef( values.handles );
-	env->DeleteLocalRef( values.values );
+	// run the exception check (the buffer is reused, there is nothing to release)
 	privateRefs->rti->exceptionCheck();
 	
 	logger->trace( "[Finished] sendInteraction(RO): classHandle=%d", theInteraction );
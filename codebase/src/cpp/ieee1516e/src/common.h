@@ -123,6 +123,14 @@
  	#include <limits.h> // LONG_MAX
 #endif
 
+// thread local storage, used to give each thread its own buffer for passing
+// handles and values across the JNI boundary
+#ifdef OS_WINDOWS
+	#define THREAD_LOCAL __declspec(thread)
+#else
+	#define THREAD_LOCAL __thread
+#endif
+
 // standard library types
 #include <iostream>
 #include <map>
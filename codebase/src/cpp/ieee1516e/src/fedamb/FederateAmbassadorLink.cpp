@@ -669,17 +669,15 @@ Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_discoverObjectInstance__II
 /*
  * Class:     org_portico_impl_cpp1516e_FederateAmbassadorLink
  * Method:    reflectAttributeValues
- * Signature: (II[I[[B[BIII[I)V
+ * Signature: (IILjava/nio/ByteBuffer;III[I)V
  */
 JNIEXPORT void JNICALL
-Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__II_3I_3_3B_3BIII_3I
+Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__IILjava_nio_ByteBuffer_2III_3I
 	( JNIEnv *jnienv,
 	  jobject jfedamb,
 	  jint fedid,
 	  jint objectHandle,
-	  jintArray attributeHandles,
-	  jobjectArray attributeValues,  // byte[][]
-	  jbyteArray tag,
+	  jobject attributeValues,   // values and tag
 	  jint sentOrdering,
 	  jint transport,
 	  jint producingFederate,
@@ -689,10 +687,9 @@ Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__II
 	if( javarti == NULL )
 		return;
 
-	// attributes
-	AttributeHandleValueMap attributes = JniUtils::toAttributeValueMap( jnienv,
-	                                                                    attributeHandles,
-	                                                                    attributeValues );
+	// attributes and tag
+	VariableLengthData tag;
+	AttributeHandleValueMap attributes = JniUtils::toAttributeValueMap( jnienv, attributeValues, tag );
 
 	// additional info
 	SupplementalReflectInfo supplemental = JniUtils::toReflectSupplement( jnienv,
@@ -702,7 +699,7 @@ Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__II
 	// call that thang
 	javarti->fedamb->reflectAttributeValues( JniUtils::toObjectHandle(objectHandle),
 	                                         attributes,
-	                                         JniUtils::toTag(jnienv,tag),
+	                                         tag,
 	                                         JniUtils::toOrder(sentOrdering),
 	                                         JniUtils::toTransport(transport),
 	                                         supplemental );
@@ -711,17 +708,15 @@ Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__II
 /*
  * Class:     org_portico_impl_cpp1516e_FederateAmbassadorLink
  * Method:    reflectAttributeValues
- * Signature: (II[I[[B[BIIDII[I)V
+ * Signature: (IILjava/nio/ByteBuffer;IIDII[I)V
  */
 JNIEXPORT void JNICALL
-Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__II_3I_3_3B_3BIIDJII_3I
+Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__IILjava_nio_ByteBuffer_2IIDII_3I
 	( JNIEnv *jnienv,
 	  jobject jfedamb,
 	  jint fedid,
 	  jint objectHandle,
-	  jintArray attributeHandles,
-	  jobjectArray attributeValues,   // byte[][]
-	  jbyteArray tag,
+	  jobject attributeValues,   // values and tag
 	  jint sentOrdering,
 	  jint transport,
 	  jdouble doubleTime,
@@ -733,10 +728,9 @@ Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__II
 	if( javarti == NULL )
 		return;
 
-	// attributes
-	AttributeHandleValueMap attributes = JniUtils::toAttributeValueMap( jnienv,
-	                                                                    attributeHandles,
-	                                                                    attributeValues );
+	// attributes and tag
+	VariableLengthData tag;
+	AttributeHandleValueMap attributes = JniUtils::toAttributeValueMap( jnienv, attributeValues, tag );
 
 	// additional info
 	SupplementalReflectInfo supplemental = JniUtils::toReflectSupplement( jnienv,
@@ -746,7 +740,7 @@ Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__II
 	// make the call
 	javarti->fedamb->reflectAttributeValues( JniUtils::toObjectHandle(objectHandle),
 	                                         attributes,
-	                                         JniUtils::toTag(jnienv,tag),
+	                                         tag,
 	                                         JniUtils::toOrder(sentOrdering),
 	                                         JniUtils::toTransport(transport),
 	                                         HLAfloat64Time(doubleTime),
@@ -757,17 +751,15 @@ Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__II
 /*
  * Class:     org_portico_impl_cpp1516e_FederateAmbassadorLink
  * Method:    reflectAttributeValues
- * Signature: (II[I[[B[BIIJII[I)V
+ * Signature: (IILjava/nio/ByteBuffer;IIJII[I)V
  */
 JNIEXPORT void JNICALL
-Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__II_3I_3_3B_3BIIJII_3I
+Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__IILjava_nio_ByteBuffer_2IIJII_3I
 	( JNIEnv *jnienv,
 	  jobject jfedamb,
 	  jint fedid,
 	  jint objectHandle,
-	  jintArray attributeHandles,
-	  jobjectArray attributeValues,   // byte[][]
-	  jbyteArray tag,
+	  jobject attributeValues,   // values and tag
 	  jint sentOrdering,
 	  jint transport,
 	  jlong longTime,
@@ -779,10 +771,9 @@ Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__II
 	if( javarti == NULL )
 		return;
 
-	// attributes
-	AttributeHandleValueMap attributes = JniUtils::toAttributeValueMap( jnienv,
-	                                                                    attributeHandles,
-	                                                                    attributeValues );
+	// attributes and tag
+	VariableLengthData tag;
+	AttributeHandleValueMap attributes = JniUtils::toAttributeValueMap( jnienv, attributeValues, tag );
 
 	// additional info
 	SupplementalReflectInfo supplemental = JniUtils::toReflectSupplement( jnienv,
@@ -792,7 +783,7 @@ Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__II
 	// make the call
 	javarti->fedamb->reflectAttributeValues( JniUtils::toObjectHandle(objectHandle),
 	                                         attributes,
-	                                         JniUtils::toTag(jnienv,tag),
+	                                         tag,
 	                                         JniUtils::toOrder(sentOrdering),
 	                                         JniUtils::toTransport(transport),
 	                                         HLAinteger64Time(longTime),
@@ -803,17 +794,15 @@ Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__II
 /*
  * Class:     org_portico_impl_cpp1516e_FederateAmbassadorLink
  * Method:    reflectAttributeValues
- * Signature: (II[I[[B[BIIDIII[I)V
+ * Signature: (IILjava/nio/ByteBuffer;IIDIII[I)V
  */
 JNIEXPORT void JNICALL
-Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__II_3I_3_3B_3BIIDIII_3I
+Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__IILjava_nio_ByteBuffer_2IIDIII_3I
 	( JNIEnv *jnienv,
 	  jobject jfedamb,
 	  jint fedid,
 	  jint objectHandle,
-	  jintArray attributeHandles,
-	  jobjectArray attributeValues,   // byte[][]
-	  jbyteArray tag,
+	  jobject attributeValues,   // values and tag
 	  jint sentOrdering,
 	  jint transport,
 	  jdouble doubleTime,
@@ -826,10 +815,9 @@ Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__II
 	if( javarti == NULL )
 		return;
 
-	// attributes
-	AttributeHandleValueMap attributes = JniUtils::toAttributeValueMap( jnienv,
-	                                                                    attributeHandles,
-	                                                                    attributeValues );
+	// attributes and tag
+	VariableLengthData tag;
+	AttributeHandleValueMap attributes = JniUtils::toAttributeValueMap( jnienv, attributeValues, tag );
 
 	// additional info
 	SupplementalReflectInfo supplemental = JniUtils::toReflectSupplement( jnienv,
@@ -839,7 +827,7 @@ Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__II
 	// make the call
 	javarti->fedamb->reflectAttributeValues( JniUtils::toObjectHandle(objectHandle),
 	                                         attributes,
-	                                         JniUtils::toTag(jnienv,tag),
+	                                         tag,
 	                                         JniUtils::toOrder(sentOrdering),
 	                                         JniUtils::toTransport(transport),
 	                                         HLAfloat64Time(doubleTime),
@@ -851,17 +839,15 @@ Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__II
 /*
  * Class:     org_portico_impl_cpp1516e_FederateAmbassadorLink
  * Method:    reflectAttributeValues
- * Signature: (II[I[[B[BIIJIII[I)V
+ * Signature: (IILjava/nio/ByteBuffer;IIJIII[I)V
  */
 JNIEXPORT void JNICALL
-Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__II_3I_3_3B_3BIIJIII_3I
+Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__IILjava_nio_ByteBuffer_2IIJIII_3I
 	( JNIEnv *jnienv,
 	  jobject jfedamb,
 	  jint fedid,
 	  jint objectHandle,
-	  jintArray attributeHandles,
-	  jobjectArray attributeValues,   // byte[][]
-	  jbyteArray tag,
+	  jobject attributeValues,   // values and tag
 	  jint sentOrdering,
 	  jint transport,
 	  jlong longTime,
@@ -874,10 +860,9 @@ Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__II
 	if( javarti == NULL )
 		return;
 
-	// attributes
-	AttributeHandleValueMap attributes = JniUtils::toAttributeValueMap( jnienv,
-	                                                                    attributeHandles,
-	                                                                    attributeValues );
+	// attributes and tag
+	VariableLengthData tag;
+	AttributeHandleValueMap attributes = JniUtils::toAttributeValueMap( jnienv, attributeValues, tag );
 
 	// additional info
 	SupplementalReflectInfo supplemental = JniUtils::toReflectSupplement( jnienv,
@@ -887,7 +872,7 @@ Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__II
 	// make the call
 	javarti->fedamb->reflectAttributeValues( JniUtils::toObjectHandle(objectHandle),
 	                                         attributes,
-	                                         JniUtils::toTag(jnienv,tag),
+	                                         tag,
 	                                         JniUtils::toOrder(sentOrdering),
 	                                         JniUtils::toTransport(transport),
 	                                         HLAinteger64Time(longTime),
@@ -899,17 +884,15 @@ Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__II
 /*
  * Class:     org_portico_impl_cpp1516e_FederateAmbassadorLink
  * Method:    receiveInteraction
- * Signature: (II[I[[B[BIII[I)V
+ * Signature: (IILjava/nio/ByteBuffer;III[I)V
  */
 JNIEXPORT void JNICALL
-Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__II_3I_3_3B_3BIII_3I
+Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__IILjava_nio_ByteBuffer_2III_3I
 	( JNIEnv *jnienv,
 	  jobject jfedamb,
 	  jint fedid,
 	  jint interactionHandle,
-	  jintArray parameterHandles,
-	  jobjectArray parameterValues,   // byte[][]
-	  jbyteArray tag,
+	  jobject parameterValues,   // values and tag
 	  jint sentOrdering,
 	  jint transport,
 	  jint producingFederate,
@@ -919,10 +902,9 @@ Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__II_3I_
 	if( javarti == NULL )
 		return;
 
-	// attributes
-	ParameterHandleValueMap parameters = JniUtils::toParameterValueMap( jnienv,
-	                                                                    parameterHandles,
-	                                                                    parameterValues );
+	// parameters and tag
+	VariableLengthData tag;
+	ParameterHandleValueMap parameters = JniUtils::toParameterValueMap( jnienv, parameterValues, tag );
 
 	// additional info
 	SupplementalReceiveInfo supplemental = JniUtils::toReceiveSupplement( jnienv,
@@ -932,7 +914,7 @@ Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__II_3I_
 	// call that thang
 	javarti->fedamb->receiveInteraction( JniUtils::toInteractionClassHandle(interactionHandle),
 	                                     parameters,
-	                                     JniUtils::toTag(jnienv,tag),
+	                                     tag,
 	                                     JniUtils::toOrder(sentOrdering),
 	                                     JniUtils::toTransport(transport),
 	                                     supplemental );
@@ -941,17 +923,15 @@ Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__II_3I_
 /*
  * Class:     org_portico_impl_cpp1516e_FederateAmbassadorLink
  * Method:    receiveInteraction
- * Signature: (II[I[[B[BIIDII[I)V
+ * Signature: (IILjava/nio/ByteBuffer;IIDII[I)V
  */
 JNIEXPORT void JNICALL
-Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__II_3I_3_3B_3BIIDII_3I
+Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__IILjava_nio_ByteBuffer_2IIDII_3I
 	( JNIEnv *jnienv,
 	  jobject jfedamb,
 	  jint fedid,
 	  jint interactionHandle,
-	  jintArray parameterHandles,
-	  jobjectArray parameterValues,   // byte[][]
-	  jbyteArray tag,
+	  jobject parameterValues,   // values and tag
 	  jint sentOrdering,
 	  jint transport,
 	  jdouble doubleTime,
@@ -963,10 +943,9 @@ Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__II_3I_
 	if( javarti == NULL )
 		return;
 
-	// attributes
-	ParameterHandleValueMap parameters = JniUtils::toParameterValueMap( jnienv,
-	                                                                    parameterHandles,
-	                                                                    parameterValues );
+	// parameters and tag
+	VariableLengthData tag;
+	ParameterHandleValueMap parameters = JniUtils::toParameterValueMap( jnienv, parameterValues, tag );
 
 	// additional info
 	SupplementalReceiveInfo supplemental = JniUtils::toReceiveSupplement( jnienv,
@@ -976,7 +955,7 @@ Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__II_3I_
 	// call that thang
 	javarti->fedamb->receiveInteraction( JniUtils::toInteractionClassHandle(interactionHandle),
 	                                     parameters,
-	                                     JniUtils::toTag(jnienv,tag),
+	                                     tag,
 	                                     JniUtils::toOrder(sentOrdering),
 	                                     JniUtils::toTransport(transport),
 	                                     HLAfloat64Time(doubleTime),
@@ -987,17 +966,15 @@ Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__II_3I_
 /*
  * Class:     org_portico_impl_cpp1516e_FederateAmbassadorLink
  * Method:    receiveInteraction
- * Signature: (II[I[[B[BIIJII[I)V
+ * Signature: (IILjava/nio/ByteBuffer;IIJII[I)V
  */
 JNIEXPORT void JNICALL
-Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__II_3I_3_3B_3BIIJII_3I
+Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__IILjava_nio_ByteBuffer_2IIJII_3I
 	( JNIEnv *jnienv,
 	  jobject jfedamb,
 	  jint fedid,
 	  jint interactionHandle,
-	  jintArray parameterHandles,
-	  jobjectArray parameterValues,   // byte[][]
-	  jbyteArray tag,
+	  jobject parameterValues,   // values and tag
 	  jint sentOrdering,
 	  jint transport,
 	  jlong longTime,
@@ -1009,10 +986,9 @@ Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__II_3I_
 	if( javarti == NULL )
 		return;
 
-	// attributes
-	ParameterHandleValueMap parameters = JniUtils::toParameterValueMap( jnienv,
-	                                                                    parameterHandles,
-	                                                                    parameterValues );
+	// parameters and tag
+	VariableLengthData tag;
+	ParameterHandleValueMap parameters = JniUtils::toParameterValueMap( jnienv, parameterValues, tag );
 
 	// additional info
 	SupplementalReceiveInfo supplemental = JniUtils::toReceiveSupplement( jnienv,
@@ -1022,7 +998,7 @@ Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__II_3I_
 	// call that thang
 	javarti->fedamb->receiveInteraction( JniUtils::toInteractionClassHandle(interactionHandle),
 	                                     parameters,
-	                                     JniUtils::toTag(jnienv,tag),
+	                                     tag,
 	                                     JniUtils::toOrder(sentOrdering),
 	                                     JniUtils::toTransport(transport),
 	                                     HLAinteger64Time(longTime),
@@ -1033,16 +1009,14 @@ Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__II_3I_
 /*
  * Class:     org_portico_impl_cpp1516e_FederateAmbassadorLink
  * Method:    receiveInteraction
- * Signature: (II[I[[B[BIIDIII[I)V
+ * Signature: (IILjava/nio/ByteBuffer;IIDIII[I)V
  */
-JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__II_3I_3_3B_3BIIDIII_3I
+JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__IILjava_nio_ByteBuffer_2IIDIII_3I
 	( JNIEnv *jnienv,
 	  jobject jfedamb,
 	  jint fedid,
 	  jint interactionHandle,
-	  jintArray parameterHandles,
-	  jobjectArray parameterValues,   // byte[][]
-	  jbyteArray tag,
+	  jobject parameterValues,   // values and tag
 	  jint sentOrdering,
 	  jint transport,
 	  jdouble doubleTime,
@@ -1055,10 +1029,9 @@ JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_rec
 	if( javarti == NULL )
 		return;
 
-	// attributes
-	ParameterHandleValueMap parameters = JniUtils::toParameterValueMap( jnienv,
-	                                                                    parameterHandles,
-	                                                                    parameterValues );
+	// parameters and tag
+	VariableLengthData tag;
+	ParameterHandleValueMap parameters = JniUtils::toParameterValueMap( jnienv, parameterValues, tag );
 
 	// additional info
 	SupplementalReceiveInfo supplemental = JniUtils::toReceiveSupplement( jnienv,
@@ -1068,7 +1041,7 @@ JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_rec
 	// call that thang
 	javarti->fedamb->receiveInteraction( JniUtils::toInteractionClassHandle(interactionHandle),
 	                                     parameters,
-	                                     JniUtils::toTag(jnienv,tag),
+	                                     tag,
 	                                     JniUtils::toOrder(sentOrdering),
 	                                     JniUtils::toTransport(transport),
 	                                     HLAfloat64Time(doubleTime),
@@ -1079,16 +1052,14 @@ JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_rec
 /*
  * Class:     org_portico_impl_cpp1516e_FederateAmbassadorLink
  * Method:    receiveInteraction
- * Signature: (II[I[[B[BIIJIII[I)V
+ * Signature: (IILjava/nio/ByteBuffer;IIJIII[I)V
  */
-JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__II_3I_3_3B_3BIIJIII_3I
+JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__IILjava_nio_ByteBuffer_2IIJIII_3I
 	( JNIEnv *jnienv,
 	  jobject jfedamb,
 	  jint fedid,
 	  jint interactionHandle,
-	  jintArray parameterHandles,
-	  jobjectArray parameterValues,   // byte[][]
-	  jbyteArray tag,
+	  jobject parameterValues,   // values and tag
 	  jint sentOrdering,
 	  jint transport,
 	  jlong longTime,
@@ -1101,10 +1072,9 @@ JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_rec
 	if( javarti == NULL )
 		return;
 
-	// attributes
-	ParameterHandleValueMap parameters = JniUtils::toParameterValueMap( jnienv,
-	                                                                    parameterHandles,
-	                                                                    parameterValues );
+	// parameters and tag
+	VariableLengthData tag;
+	ParameterHandleValueMap parameters = JniUtils::toParameterValueMap( jnienv, parameterValues, tag );
 
 	// additional info
 	SupplementalReceiveInfo supplemental = JniUtils::toReceiveSupplement( jnienv,
@@ -1114,7 +1084,7 @@ JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_rec
 	// call that thang
 	javarti->fedamb->receiveInteraction( JniUtils::toInteractionClassHandle(interactionHandle),
 	                                     parameters,
-	                                     JniUtils::toTag(jnienv,tag),
+	                                     tag,
 	                                     JniUtils::toOrder(sentOrdering),
 	                                     JniUtils::toTransport(transport),
 	                                     HLAinteger64Time(longTime),
@@ -242,82 +242,82 @@ JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_dis
 /*
  * Class:     org_portico_impl_cpp1516e_FederateAmbassadorLink
  * Method:    reflectAttributeValues
- * Signature: (II[I[[B[BIII[I)V
+ * Signature: (IILjava/nio/ByteBuffer;III[I)V
  */
-JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__II_3I_3_3B_3BIII_3I
-  (JNIEnv *, jobject, jint, jint, jintArray, jobjectArray, jbyteArray, jint, jint, jint, jintArray);
+JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__IILjava_nio_ByteBuffer_2III_3I
+  (JNIEnv *, jobject, jint, jint, jobject, jint, jint, jint, jintArray);
 
 /*
  * Class:     org_portico_impl_cpp1516e_FederateAmbassadorLink
  * Method:    reflectAttributeValues
- * Signature: (II[I[[B[BIIDII[I)V
+ * Signature: (IILjava/nio/ByteBuffer;IIDII[I)V
  */
-JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__II_3I_3_3B_3BIIDII_3I
-  (JNIEnv *, jobject, jint, jint, jintArray, jobjectArray, jbyteArray, jint, jint, jdouble, jint, jint, jintArray);
+JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__IILjava_nio_ByteBuffer_2IIDII_3I
+  (JNIEnv *, jobject, jint, jint, jobject, jint, jint, jdouble, jint, jint, jintArray);
 
 /*
  * Class:     org_portico_impl_cpp1516e_FederateAmbassadorLink
  * Method:    reflectAttributeValues
- * Signature: (II[I[[B[BIIJII[I)V
+ * Signature: (IILjava/nio/ByteBuffer;IIJII[I)V
  */
-JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__II_3I_3_3B_3BIIJII_3I
-  (JNIEnv *, jobject, jint, jint, jintArray, jobjectArray, jbyteArray, jint, jint, jlong, jint, jint, jintArray);
+JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__IILjava_nio_ByteBuffer_2IIJII_3I
+  (JNIEnv *, jobject, jint, jint, jobject, jint, jint, jlong, jint, jint, jintArray);
 
 /*
  * Class:     org_portico_impl_cpp1516e_FederateAmbassadorLink
  * Method:    reflectAttributeValues
- * Signature: (II[I[[B[BIIDIII[I)V
+ * Signature: (IILjava/nio/ByteBuffer;IIDIII[I)V
  */
-JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__II_3I_3_3B_3BIIDIII_3I
-  (JNIEnv *, jobject, jint, jint, jintArray, jobjectArray, jbyteArray, jint, jint, jdouble, jint, jint, jint, jintArray);
+JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__IILjava_nio_ByteBuffer_2IIDIII_3I
+  (JNIEnv *, jobject, jint, jint, jobject, jint, jint, jdouble, jint, jint, jint, jintArray);
 
 /*
  * Class:     org_portico_impl_cpp1516e_FederateAmbassadorLink
  * Method:    reflectAttributeValues
- * Signature: (II[I[[B[BIIJIII[I)V
+ * Signature: (IILjava/nio/ByteBuffer;IIJIII[I)V
  */
-JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__II_3I_3_3B_3BIIJIII_3I
-  (JNIEnv *, jobject, jint, jint, jintArray, jobjectArray, jbyteArray, jint, jint, jlong, jint, jint, jint, jintArray);
+JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_reflectAttributeValues__IILjava_nio_ByteBuffer_2IIJIII_3I
+  (JNIEnv *, jobject, jint, jint, jobject, jint, jint, jlong, jint, jint, jint, jintArray);
 
 /*
  * Class:     org_portico_impl_cpp1516e_FederateAmbassadorLink
  * Method:    receiveInteraction
- * Signature: (II[I[[B[BIII[I)V
+ * Signature: (IILjava/nio/ByteBuffer;III[I)V
  */
-JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__II_3I_3_3B_3BIII_3I
-  (JNIEnv *, jobject, jint, jint, jintArray, jobjectArray, jbyteArray, jint, jint, jint, jintArray);
+JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__IILjava_nio_ByteBuffer_2III_3I
+  (JNIEnv *, jobject, jint, jint, jobject, jint, jint, jint, jintArray);
 
 /*
  * Class:     org_portico_impl_cpp1516e_FederateAmbassadorLink
  * Method:    receiveInteraction
- * Signature: (II[I[[B[BIIDII[I)V
+ * Signature: (IILjava/nio/ByteBuffer;IIDII[I)V
  */
-JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__II_3I_3_3B_3BIIDII_3I
-  (JNIEnv *, jobject, jint, jint, jintArray, jobjectArray, jbyteArray, jint, jint, jdouble, jint, jint, jintArray);
+JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__IILjava_nio_ByteBuffer_2IIDII_3I
+  (JNIEnv *, jobject, jint, jint, jobject, jint, jint, jdouble, jint, jint, jintArray);
 
 /*
  * Class:     org_portico_impl_cpp1516e_FederateAmbassadorLink
  * Method:    receiveInteraction
- * Signature: (II[I[[B[BIIJII[I)V
+ * Signature: (IILjava/nio/ByteBuffer;IIJII[I)V
  */
-JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__II_3I_3_3B_3BIIJII_3I
-  (JNIEnv *, jobject, jint, jint, jintArray, jobjectArray, jbyteArray, jint, jint, jlong, jint, jint, jintArray);
+JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__IILjava_nio_ByteBuffer_2IIJII_3I
+  (JNIEnv *, jobject, jint, jint, jobject, jint, jint, jlong, jint, jint, jintArray);
 
 /*
  * Class:     org_portico_impl_cpp1516e_FederateAmbassadorLink
  * Method:    receiveInteraction
- * Signature: (II[I[[B[BIIDIII[I)V
+ * Signature: (IILjava/nio/ByteBuffer;IIDIII[I)V
  */
-JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__II_3I_3_3B_3BIIDIII_3I
-  (JNIEnv *, jobject, jint, jint, jintArray, jobjectArray, jbyteArray, jint, jint, jdouble, jint, jint, jint, jintArray);
+JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__IILjava_nio_ByteBuffer_2IIDIII_3I
+  (JNIEnv *, jobject, jint, jint, jobject, jint, jint, jdouble, jint, jint, jint, jintArray);
 
 /*
  * Class:     org_portico_impl_cpp1516e_FederateAmbassadorLink
  * Method:    receiveInteraction
- * Signature: (II[I[[B[BIIJIII[I)V
+ * Signature: (IILjava/nio/ByteBuffer;IIJIII[I)V
  */
-JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__II_3I_3_3B_3BIIJIII_3I
-  (JNIEnv *, jobject, jint, jint, jintArray, jobjectArray, jbyteArray, jint, jint, jlong, jint, jint, jint, jintArray);
+JNIEXPORT void JNICALL Java_org_portico_impl_cpp1516e_FederateAmbassadorLink_receiveInteraction__IILjava_nio_ByteBuffer_2IIJIII_3I
+  (JNIEnv *, jobject, jint, jint, jobject, jint, jint, jlong, jint, jint, jint, jintArray);
 
 /*
  * Class:     org_portico_impl_cpp1516e_FederateAmbassadorLink
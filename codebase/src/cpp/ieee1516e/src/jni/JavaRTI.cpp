@@ -313,10 +313,10 @@ void JavaRTI::cacheMethodIds() throw( RTIinternalError )
 	cacheMethod( jnienv, &RELEASE_MULTIPLE_NAMES, "releaseMultipleObjectInstanceName", "([Ljava/lang/String;)V" );
 	cacheMethod( jnienv, &REGISTER_OBJECT, "registerObjectInstance", "(I)I" );
 	cacheMethod( jnienv, &REGISTER_OBJECT_WITH_NAME, "registerObjectInstance", "(ILjava/lang/String;)I" );
-	cacheMethod( jnienv, &UPDATE_ATTRIBUTE_VALUES, "updateAttributeValues", "(I[I[[B[B)V" );
-	cacheMethod( jnienv, &UPDATE_ATTRIBUTE_VALUES_WITH_TIME, "updateAttributeValues", "(I[I[[B[BD)I" );
-	cacheMethod( jnienv, &SEND_INTERACTION, "sendInteraction", "(I[I[[B[B)V" );
-	cacheMethod( jnienv, &SEND_INTERACTION_WITH_TIME, "sendInteraction", "(I[I[[B[BD)I" );
+	cacheMethod( jnienv, &UPDATE_ATTRIBUTE_VALUES, "updateAttributeValues", "(ILjava/nio/ByteBuffer;)V" );
+	cacheMethod( jnienv, &UPDATE_ATTRIBUTE_VALUES_WITH_TIME, "updateAttributeValues", "(ILjava/nio/ByteBuffer;D)I" );
+	cacheMethod( jnienv, &SEND_INTERACTION, "sendInteraction", "(ILjava/nio/ByteBuffer;)V" );
+	cacheMethod( jnienv, &SEND_INTERACTION_WITH_TIME, "sendInteraction", "(ILjava/nio/ByteBuffer;D)I" );
 	cacheMethod( jnienv, &DELETE_OBJECT_INSTANCE, "deleteObjectInstance", "(I[B)V" );
 	cacheMethod( jnienv, &DELETE_OBJECT_INSTANCE_WITH_TIME, "deleteObjectInstance", "(I[BD)I" );
 	cacheMethod( jnienv, &LOCAL_DELETE_OBJECT_INSTANCE, "localDeleteObjectInstance", "(I)V" );
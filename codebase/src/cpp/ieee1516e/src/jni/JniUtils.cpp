@@ -24,6 +24,89 @@ PORTICO1516E_NS_START
 // set up our special logger
 Logger* JniUtils::logger = new Logger( "jni" );
 
+//------------------------------------------------------------------------------------------
+//                                  DIRECT BUFFER HELPERS
+//------------------------------------------------------------------------------------------
+/*
+ * Each thread gets its own buffer to pack handles and values into before passing them to
+ * Java. The memory is ours, with a java.nio.ByteBuffer wrapped around it (and held as a
+ * global reference) so that it can be passed in a JNI call. It is only replaced when a
+ * bigger one is needed.
+ */
+struct DirectBuffer
+{
+	char*   address;
+	size_t  capacity;
+	jobject jbuffer;
+};
+
+static THREAD_LOCAL DirectBuffer* threadBuffer = NULL;
+
+/*
+ * Returns the calling thread's buffer, making sure it can hold at least the given number
+ * of bytes first.
+ */
+static DirectBuffer* reserveBuffer( JNIEnv *jnienv, size_t size )
+{
+	if( threadBuffer != NULL && threadBuffer->capacity >= size )
+		return threadBuffer;
+
+	size_t capacity = 4096;
+	while( capacity < size )
+		capacity *= 2;
+
+	if( threadBuffer == NULL )
+	{
+		threadBuffer = new DirectBuffer();
+	}
+	else
+	{
+		jnienv->DeleteGlobalRef( threadBuffer->jbuffer );
+		delete [] threadBuffer->address;
+	}
+
+	threadBuffer->address  = new char[capacity];
+	threadBuffer->capacity = capacity;
+	jobject local = jnienv->NewDirectByteBuffer( threadBuffer->address, (jlong)capacity );
+	threadBuffer->jbuffer = jnienv->NewGlobalRef( local );
+	jnienv->DeleteLocalRef( local );
+	return threadBuffer;
+}
+
+// ints are copied rather than cast in place as they aren't necessarily aligned
+static char* putInt( char *position, int32_t value )
+{
+	memcpy( position, &value, sizeof(int32_t) );
+	return position + sizeof(int32_t);
+}
+
+static char* putBytes( char *position, const VariableLengthData& data )
+{
+	position = putInt( position, (int32_t)data.size() );
+	if( data.size() > 0 )
+		memcpy( position, data.data(), data.size() );
+
+	return position + data.size();
+}
+
+static const char* getInt( const char *position, int32_t *value )
+{
+	memcpy( value, position, sizeof(int32_t) );
+	return position + sizeof(int32_t);
+}
+
+// a length of -1 means the Java side had a null value, which we take as empty
+static const char* getBytes( const char *position, VariableLengthData& data )
+{
+	int32_t length = 0;
+	position = getInt( position, &length );
+	if( length <= 0 )
+		return position;
+
+	data.setData( position, length );
+	return position + length;
+}
+
 //------------------------------------------------------------------------------------------
 //                                      STATIC METHODS
 //------------------------------------------------------------------------------------------
@@ -206,82 +289,70 @@ FederateHandleSet JniUtils::toFederateSet( JNIEnv *jnienv, jintArray handles )
 }
 
 /*
- * Converts the provided jintArray and jobjectArray into a single AttributeHandleValueMap.
- * The int[] is expected to contain the handles, with the values for each handle held at
- * the same index in the jobjectArray (a byte[][] from the Java side). This method will
- * convert the handles into AttributeHandles and will wrap the values in VariableLengthData
- * objects, storing them in the map before returning.
+ * Converts the handles and values packed into a direct buffer by the Java side (see
+ * JniUtils::fromMap() for the layout) into an AttributeHandleValueMap. The tag that is
+ * packed in after the values is stored in the given VariableLengthData.
  */
 AttributeHandleValueMap JniUtils::toAttributeValueMap( JNIEnv *jnienv,
-                                                       jintArray handles,
-                                                       jobjectArray values )
+                                                       jobject buffer,
+                                                       VariableLengthData& tag )
 {
-	// figure out how many elements we have to copy over
-	jsize size = jnienv->GetArrayLength( handles );
-
-	// populate the map
+	const char *position = (const char*)jnienv->GetDirectBufferAddress( buffer );
 	AttributeHandleValueMap valueMap;
-	jint *content = jnienv->GetIntArrayElements( handles, NULL );
-	for( int i = 0; i < size; ++i )
+	if( position == NULL )
 	{
-		// get the byte[] at the appropriate location in the values byte[][]
-		jbyteArray jarray = (jbyteArray)jnienv->GetObjectArrayElement( values, i );
+		logger->error( "Couldn't access attribute values: not a direct buffer" );
+		return valueMap;
+	}
 
-		// get a reference to the java byte[] data. Have to use GetElements as GetRegion copies.
-		// we don't want to do a copy because the VariableLengthData constructor will do that.
-		jbyte *byteArrayContents = jnienv->GetByteArrayElements( jarray, NULL );
-		
-		// dump the contents into a VariableLengthData (which will copy)
-		jsize jarraySize = jnienv->GetArrayLength( jarray );
-		VariableLengthData data( (void*)byteArrayContents, jarraySize );
-		jnienv->ReleaseByteArrayElements( jarray, byteArrayContents, JNI_ABORT );
-		
-		// put the data into the map for return
-		AttributeHandle handle = AttributeHandleFriend::create( content[i] );
-		valueMap[handle] = data;
+	int32_t count = 0;
+	position = getInt( position, &count );
+	for( int32_t i = 0; i < count; i++ )
+	{
+		int32_t handle = 0;
+		position = getInt( position, &handle );
+
+		// the VariableLengthData will copy the value out of the buffer
+		VariableLengthData data;
+		position = getBytes( position, data );
+		valueMap[AttributeHandleFriend::create(handle)] = data;
 	}
-	
-	jnienv->ReleaseIntArrayElements( handles, content, JNI_ABORT );
+
+	getBytes( position, tag );
 	return valueMap;
 }
 
 /*
- * Converts the provided jintArray and jobjectArray into a single ParameterHandleValueMap.
- * The int[] is expected to contain the handles, with the values for each handle held at
- * the same index in the jobjectArray (a byte[][] from the Java side). This method will
- * convert the handles into ParameterHandles and will wrap the values in VariableLengthData
- * objects, storing them in the map before returning.
+ * Converts the handles and values packed into a direct buffer by the Java side (see
+ * JniUtils::fromMap() for the layout) into a ParameterHandleValueMap. The tag that is
+ * packed in after the values is stored in the given VariableLengthData.
  */
 ParameterHandleValueMap JniUtils::toParameterValueMap( JNIEnv *jnienv,
-                                                       jintArray handles,
-                                                       jobjectArray values )
+                                                       jobject buffer,
+                                                       VariableLengthData& tag )
 {
-	// figure out how many elements we have to copy over
-	jsize size = jnienv->GetArrayLength( handles );
-
-	// populate the map
+	const char *position = (const char*)jnienv->GetDirectBufferAddress( buffer );
 	ParameterHandleValueMap valueMap;
-	jint *content = jnienv->GetIntArrayElements( handles, NULL );
-	for( int i = 0; i < size; ++i )
+	if( position == NULL )
 	{
-		// get the byte[] at the appropriate location in the values byte[][]
-		jbyteArray jarray = (jbyteArray)jnienv->GetObjectArrayElement( values, i );
+		logger->error( "Couldn't access parameter values: not a direct buffer" );
+		return valueMap;
+	}
 
-		// get a reference to the java byte[] data. Have to use GetElements as GetRegion copies.
-		// we don't want to do a copy because the VariableLengthData constructor will do that.
-		jbyte *byteArrayContents = jnienv->GetByteArrayElements( jarray, NULL );
-		
-		// dump the contents into a VariableLengthData (which will copy)
-		jsize jarraySize = jnienv->GetArrayLength( jarray );
-		VariableLengthData data( (void*)byteArrayContents, jarraySize );
-		jnienv->ReleaseByteArrayElements( jarray, byteArrayContents, JNI_ABORT );
-		
-		// put the data into the map for return
-		ParameterHandle handle = ParameterHandleFriend::create( content[i] );
-		valueMap[handle] = data;
+	int32_t count = 0;
+	position = getInt( position, &count );
+	for( int32_t i = 0; i < count; i++ )
+	{
+		int32_t handle = 0;
+		position = getInt( position, &handle );
+
+		// the VariableLengthData will copy the value out of the buffer
+		VariableLengthData data;
+		position = getBytes( position, data );
+		valueMap[ParameterHandleFriend::create(handle)] = data;
 	}
-	
-	jnienv->ReleaseIntArrayElements( handles, content, JNI_ABORT );
+
+	getBytes( position, tag );
 	return valueMap;
 }
 
@@ -379,85 +450,66 @@ jintArray JniUtils::fromSet( JNIEnv *jnienv, FederateHandleSet federates )
 }
 
 /**
- * Convert the given AttributeHandleValueMap into a HVPS, which itself has two elements:
- * a jintArray representing the handle in the map, and a jobjectArray representing the
- * various values in the map. This will put the values in a form we can pass over the
- * JNI boundary.
+ * Packs the given AttributeHandleValueMap and tag into the calling thread's direct buffer so
+ * they can be passed over the JNI boundary in a single argument. The layout is:
+ *
+ *   int count
+ *   count * { int handle, int length, byte[length] value }
+ *   int tagLength
+ *   byte[tagLength] tag
+ *
+ * with all ints in native byte order. This must match org.portico.utils.HandleValueBuffer on
+ * the Java side. The returned buffer belongs to the thread and is reused by its next call, so
+ * the caller must not hold on to it or release it.
  */
-HVPS JniUtils::fromMap( JNIEnv *jnienv, AttributeHandleValueMap values )
+jobject JniUtils::fromMap( JNIEnv *jnienv,
+                           const AttributeHandleValueMap& values,
+                           const VariableLengthData& tag )
 {
-	// create the struct to hold the values
-	HVPS hvps = HVPS();
-	hvps.handles = jnienv->NewIntArray( values.size() );
-	hvps.values  = jnienv->NewObjectArray( values.size(), Runtime::JCLASS_BYTE_ARRAY, 0 );
+	// figure out how much space we need
+	size_t size = 8 + tag.size();
+	AttributeHandleValueMap::const_iterator iterator;
+	for( iterator = values.begin(); iterator != values.end(); iterator++ )
+		size += 8 + (*iterator).second.size();
 
-	// get a reference to the underlying memory for the int[] so we can dump stuff in there
-	jint *handlesContent = jnienv->GetIntArrayElements( hvps.handles, NULL );
-
-	// loop through all values in the map and put them into the appropriate location
-	AttributeHandleValueMap::iterator iterator;
-	int i = 0;
-	for( iterator = values.begin(); iterator != values.end(); iterator++, i++ )
+	// pack it all in
+	DirectBuffer *buffer = reserveBuffer( jnienv, size );
+	char *position = putInt( buffer->address, (int32_t)values.size() );
+	for( iterator = values.begin(); iterator != values.end(); iterator++ )
 	{
-		// fetch the underlying int that backs the handle
-		handlesContent[i] = JniUtils::fromHandle( (*iterator).first );
-	
-		// get the underyling byte[] data associated with the handle
-		// we use SetByteArrayRegion as it will copy the contents
-		VariableLengthData data = (*iterator).second;
-		jbyteArray tempArray = jnienv->NewByteArray( data.size() );
-		jnienv->SetByteArrayRegion( tempArray, 0, data.size(), (jbyte*)data.data() );
-		// stuff the byte[] for the handle into the bigger byte[][]
-		jnienv->SetObjectArrayElement( hvps.values, i, tempArray );
-		jnienv->DeleteLocalRef( tempArray );
+		position = putInt( position, JniUtils::fromHandle((*iterator).first) );
+		position = putBytes( position, (*iterator).second );
 	}
 
-	// release the handles array contents pointer
-	jnienv->ReleaseIntArrayElements( hvps.handles, handlesContent, 0 );
-
-	// return the result
-	return hvps;
+	putBytes( position, tag );
+	return buffer->jbuffer;
 }
 
 /**
- * Convert the given ParameterHandleValueMap into a HVPS, which itself has two elements:
- * a jintArray representing the handle in the map, and a jobjectArray representing the
- * various values in the map. This will put the values in a form we can pass over the
- * JNI boundary.
+ * Packs the given ParameterHandleValueMap and tag into the calling thread's direct buffer. See
+ * the AttributeHandleValueMap version of this method for details.
  */
-HVPS JniUtils::fromMap( JNIEnv *jnienv, ParameterHandleValueMap values )
+jobject JniUtils::fromMap( JNIEnv *jnienv,
+                           const ParameterHandleValueMap& values,
+                           const VariableLengthData& tag )
 {
-	// create the struct to hold the values
-	HVPS hvps = HVPS();
-	hvps.handles = jnienv->NewIntArray( values.size() );
-	hvps.values  = jnienv->NewObjectArray( values.size(), Runtime::JCLASS_BYTE_ARRAY, 0 );
-
-	// get a reference to the underlying memory for the int[] so we can dump stuff in there
-	jint *handlesContent = jnienv->GetIntArrayElements( hvps.handles, NULL );
+	// figure out how much space we need
+	size_t size = 8 + tag.size();
+	ParameterHandleValueMap::const_iterator iterator;
+	for( iterator = values.begin(); iterator != values.end(); iterator++ )
+		size += 8 + (*iterator).second.size();
 
-	// loop through all values in the map and put them into the appropriate location
-	ParameterHandleValueMap::iterator iterator;
-	int i = 0;
-	for( iterator = values.begin(); iterator != values.end(); iterator++, i++ )
+	// pack it all in
+	DirectBuffer *buffer = reserveBuffer( jnienv, size );
+	char *position = putInt( buffer->address, (int32_t)values.size() );
+	for( iterator = values.begin(); iterator != values.end(); iterator++ )
 	{
-		// fetch the underlying int that backs the handle
-		handlesContent[i] = JniUtils::fromHandle( (*iterator).first );
-	
-		// get the underyling byte[] data associated with the handle
-		// we use SetByteArrayRegion as it will copy the contents
-		VariableLengthData data = (*iterator).second;
-		jbyteArray tempArray = jnienv->NewByteArray( data.size() );
-		jnienv->SetByteArrayRegion( tempArray, 0, data.size(), (jbyte*)data.data() );
-		// stuff the byte[] for the handle into the bigger byte[][]
-		jnienv->SetObjectArrayElement( hvps.values, i, tempArray );
-		jnienv->DeleteLocalRef( tempArray );
+		position = putInt( position, JniUtils::fromHandle((*iterator).first) );
+		position = putBytes( position, (*iterator).second );
 	}
 
-	// release the handles array contents pointer
-	jnienv->ReleaseIntArrayElements( hvps.handles, handlesContent, 0 );
-
-	// return the result
-	return hvps;
+	putBytes( position, tag );
+	return buffer->jbuffer;
 }
 
 ////////////////////////////////////////////////////////////////////////////////////////////////
@@ -1067,13 +1119,4 @@ void JniUtils::deleteJniArray( JNIEnv *jnienv, jobjectArray array )
 	jnienv->DeleteLocalRef( array );
 }
 
-/**
- * Loops through the HVPS and releases the contains array's contents.
- */
-void JniUtils::deleteHVPS( JNIEnv *jnienv, HVPS hvps )
-{
-	jnienv->DeleteLocalRef( hvps.handles );
-	JniUtils::deleteJniArray( jnienv, hvps.values );
-}
-
 PORTICO1516E_NS_END
@@ -20,13 +20,6 @@
 
 PORTICO1516E_NS_START
 
-// this struct will hold handle value pair-set data
-struct HVPS
-{
-	jintArray    handles; // int[]
-	jobjectArray values;  // byte[][]
-};
-
 /**
  * A set of utility methods to make the handling of common JNI tasks a little less
  * painful than it typically is.
@@ -74,12 +67,13 @@ class JniUtils
 		static AttributeHandleSet toAttributeSet( JNIEnv *jnienv, jintArray handles );
 		static FederateHandleSet toFederateSet( JNIEnv *jnienv, jintArray handles );
 		static RegionHandleSet toRegionSet( JNIEnv *jnienv, jintArray handles );
+		// handle value maps and their tag arrive packed into a direct buffer (see fromMap())
 		static AttributeHandleValueMap toAttributeValueMap( JNIEnv *jnienv,
-		                                                    jintArray handles,
-		                                                    jobjectArray values );
+		                                                    jobject buffer,
+		                                                    VariableLengthData& tag );
 		static ParameterHandleValueMap toParameterValueMap( JNIEnv *jnienv,
-		                                                    jintArray handles,
-		                                                    jobjectArray values );
+		                                                    jobject buffer,
+		                                                    VariableLengthData& tag );
 		
 		// convert into JNI format
 		// note: caller responsible for releasing references held in return array
@@ -87,8 +81,15 @@ class JniUtils
 		static jobjectArray fromSet( JNIEnv *jnienv, set<wstring> stringSet );
 		static jintArray fromSet( JNIEnv *jnienv, AttributeHandleSet attributes );
 		static jintArray fromSet( JNIEnv *jnienv, FederateHandleSet federates );
-		static HVPS fromMap( JNIEnv *jnienv, AttributeHandleValueMap values );
-		static HVPS fromMap( JNIEnv *jnienv, ParameterHandleValueMap values );
+
+		// pack a handle value map and its tag into the calling thread's direct buffer
+		// note: the buffer is reused by the thread's next call, the caller must not release it
+		static jobject fromMap( JNIEnv *jnienv,
+		                        const AttributeHandleValueMap& values,
+		                        const VariableLengthData& tag );
+		static jobject fromMap( JNIEnv *jnienv,
+		                        const ParameterHandleValueMap& values,
+		                        const VariableLengthData& tag );
 
 		///// time conversion methods ///////////////////////////////////////////////////////
 		static MessageRetractionHandle toRetractionHandle( jint handle );
@@ -149,7 +150,6 @@ class JniUtils
 		
 		// loop through the provided array and release all references it contains
 		static void deleteJniArray( JNIEnv *jnienv, jobjectArray array );
-		static void deleteHVPS( JNIEnv *jnienv, HVPS hvps );
 };
 
 PORTICO1516E_NS_END
@@ -261,20 +261,15 @@ void PorticoRtiAmbassador::updateAttributeValues( ObjectInstanceHandle theObject
 
 	// get java versions of the parameters
 	jint jobjectHandle = JniUtils::fromHandle( theObject );
-	HVPS jattributes = JniUtils::fromMap( jnienv, attributes );
-	jbyteArray jtag = JniUtils::fromTag( jnienv, tag );
+	jobject jattributes = JniUtils::fromMap( jnienv, attributes, tag );
 	
 	// call the method
 	jnienv->CallVoidMethod( javarti->jproxy,
 	                        javarti->UPDATE_ATTRIBUTE_VALUES,
 	                        jobjectHandle,
-	                        jattributes.handles,
-	                        jattributes.values,
-	                        jtag );
+	                        jattributes );
 
-	// clean up and run the exception check
-	JniUtils::deleteHVPS( jnienv, jattributes );
-	jnienv->DeleteLocalRef( jtag );
+	// run the exception check (the buffer is reused, there is nothing to release)
 	javarti->exceptionCheck();
 	
 	if( logger->isTraceEnabled() )
@@ -313,22 +308,17 @@ MessageRetractionHandle PorticoRtiAmbassador::updateAttributeValues(
 
 	// get java versions of the parameters
 	jint jobjectHandle = JniUtils::fromHandle( theObject );
-	HVPS jattributes = JniUtils::fromMap( jnienv, attributes );
-	jbyteArray jtag = JniUtils::fromTag( jnienv, tag );
+	jobject jattributes = JniUtils::fromMap( jnienv, attributes, tag );
 	jdouble jtime = JniUtils::fromTime( theTime );
 	
 	// call the method
 	jint retraction = jnienv->CallIntMethod( javarti->jproxy,
 	                                         javarti->UPDATE_ATTRIBUTE_VALUES_WITH_TIME,
 	                                         jobjectHandle,
-	                                         jattributes.handles,
-	                                         jattributes.values,
-	                                         jtag,
+	                                         jattributes,
 	                                         jtime );
 
-	// clean up and run the exception check
-	JniUtils::deleteHVPS( jnienv, jattributes );
-	jnienv->DeleteLocalRef( jtag );
+	// run the exception check (the buffer is reused, there is nothing to release)
 	javarti->exceptionCheck();
 	
 	if( logger->isTraceEnabled() )
@@ -367,20 +357,15 @@ void PorticoRtiAmbassador::sendInteraction( InteractionClassHandle theInteractio
 
 	// get java versions of the parameters
 	jint jinteraction = JniUtils::fromHandle( theInteraction );
-	HVPS jparameters = JniUtils::fromMap( jnienv, parameters );
-	jbyteArray jtag = JniUtils::fromTag( jnienv, tag );
+	jobject jparameters = JniUtils::fromMap( jnienv, parameters, tag );
 
 	// call the method
 	jnienv->CallVoidMethod( javarti->jproxy,
 	                        javarti->SEND_INTERACTION,
 	                        jinteraction,
-	                        jparameters.handles,
-	                        jparameters.values,
-	                        jtag );
+	                        jparameters );
 
-	// clean up and run the exception check
-	JniUtils::deleteHVPS( jnienv, jparameters );
-	jnienv->DeleteLocalRef( jtag );
+	// run the exception check (the buffer is reused, there is nothing to release)
 	javarti->exceptionCheck();
 	
 	if( logger->isTraceEnabled() )
@@ -419,22 +404,17 @@ MessageRetractionHandle PorticoRtiAmbassador::sendInteraction(
 
 	// get java versions of the parameters
 	jint jinteraction = JniUtils::fromHandle( theInteraction );
-	HVPS jparameters = JniUtils::fromMap( jnienv, parameters );
-	jbyteArray jtag = JniUtils::fromTag( jnienv, tag );
+	jobject jparameters = JniUtils::fromMap( jnienv, parameters, tag );
 	jdouble jtime = JniUtils::fromTime( theTime );
 	
 	// call the method
 	jint retraction = jnienv->CallIntMethod( javarti->jproxy,
 	                                         javarti->SEND_INTERACTION_WITH_TIME,
 	                                         jinteraction,
-	                                         jparameters.handles,
-	                                         jparameters.values,
-	                                         jtag,
+	                                         jparameters,
 	                                         jtime );
 
-	// clean up and run the exception check
-	JniUtils::deleteHVPS( jnienv, jparameters );
-	jnienv->DeleteLocalRef( jtag );
+	// run the exception check (the buffer is reused, there is nothing to release)
 	javarti->exceptionCheck();
 	
 	if( logger->isTraceEnabled() )
@@ -303,8 +303,21 @@ double PorticoRtiAmbassador::getUpdateRateValue( const std::wstring& updateRateD
            NotConnected,
            RTIinternalError )
 {
-	logger->error( "[Not Implemented] getUpdateRateValue()" );
-	return 0.0;
+	// Get active environment
+	JNIEnv* jnienv = this->javarti->getJniEnvironment();
+
+	// convert the parameters to java types
+	jstring jdesignator = JniUtils::fromWideString( jnienv, updateRateDesignator );
+
+	// call the method
+	jdouble result = jnienv->CallDoubleMethod( javarti->jproxy,
+	                                           javarti->GET_UPDATE_RATE,
+	                                           jdesignator );
+
+	// clean up and run the exception check
+	jnienv->DeleteLocalRef( jdesignator );
+	javarti->exceptionCheck();
+	return result;
 }
 
 // 10.14
@@ -316,8 +329,22 @@ double PorticoRtiAmbassador::getUpdateRateValueForAttribute( ObjectInstanceHandl
 	       NotConnected,
 	       RTIinternalError )
 {
-	logger->error( "[Not Implemented] getUpdateRateValueForAttribute()" );
-	return 0.0;
+	// Get active environment
+	JNIEnv* jnienv = this->javarti->getJniEnvironment();
+
+	// convert the parameters to java types
+	jint jobjectHandle = JniUtils::fromHandle( theObject );
+	jint jattributeHandle = JniUtils::fromHandle( theAttribute );
+
+	// call the method
+	jdouble result = jnienv->CallDoubleMethod( javarti->jproxy,
+	                                           javarti->GET_UPDATE_RATE_FOR_ATTRIBUTE,
+	                                           jobjectHandle,
+	                                           jattributeHandle );
+
+	// run the exception check
+	javarti->exceptionCheck();
+	return result;
 }
 
 // 10.15
@@ -0,0 +1,196 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.benchmark;
+
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.portico.bindings.jvm.JVMConnection;
+import org.portico.impl.hla1516e.Rti1516eAmbassador;
+import org.portico.lrc.LRC;
+import org.portico.lrc.PorticoConstants;
+
+import hla.rti1516e.CallbackModel;
+import hla.rti1516e.FederateAmbassador;
+import hla.rti1516e.NullFederateAmbassador;
+import hla.rti1516e.RTIambassador;
+import hla.rti1516e.ResignAction;
+import hla.rti1516e.RtiFactoryFactory;
+import hla.rti1516e.exceptions.FederationExecutionAlreadyExists;
+
+/**
+ * Common environment setup for the benchmarks, along the same lines as the setup done for the
+ * test suites. Each benchmark calls {@link #configure()} from its setup method before creating
+ * any RTI ambassadors, which will happen inside the JVM that JMH forks for it.
+ * <p/>
+ * The following system properties are looked at:
+ * <ul>
+ *   <li><code>benchmark.binding</code>: <code>jvm</code> (default) or <code>jgroups</code></li>
+ *   <li><code>benchmark.loglevel</code>: The Portico log level, <code>OFF</code> by default</li>
+ * </ul>
+ */
+public class BenchmarkSetup
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	public static final String BINDING_PROPERTY = "benchmark.binding";
+	public static final String LOGLEVEL_PROPERTY = "benchmark.loglevel";
+
+	/** The 1516e test FOM, found on the classpath in the test-data directory */
+	public static final String FOM_1516E = "fom/ieee1516e/testfom.xml";
+
+	/** The HLA 1.3 test FOM, found on the classpath in the test-data directory */
+	public static final String FOM_13 = "fom/testfom.fed";
+
+	private static final AtomicInteger FEDERATE_COUNT = new AtomicInteger( 0 );
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	private BenchmarkSetup()
+	{
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+	/**
+	 * Set the system properties the RTI needs (connection and logging) from the
+	 * benchmark properties. Safe to call more than once.
+	 */
+	public static void configure()
+	{
+		String loglevel = System.getProperty( LOGLEVEL_PROPERTY, "OFF" );
+		System.setProperty( PorticoConstants.PROPERTY_PORTICO_LOG_LEVEL, loglevel );
+		System.setProperty( PorticoConstants.PROPERTY_CONTAINER_LOG_LEVEL, "FATAL" );
+
+		String binding = System.getProperty( BINDING_PROPERTY, "jvm" );
+		if( binding.equals("jvm") )
+		{
+			System.setProperty( PorticoConstants.PROPERTY_CONNECTION,
+			                    JVMConnection.class.getCanonicalName() );
+		}
+		else if( binding.equals("jgroups") )
+		{
+			System.setProperty( PorticoConstants.PROPERTY_CONNECTION,
+			                    "org.portico.bindings.jgroups.JGroupsConnection" );
+		}
+		else
+		{
+			throw new IllegalArgumentException( "Unknown binding: "+binding );
+		}
+	}
+
+	/**
+	 * Find the resource with the given name on the classpath, failing if it isn't there.
+	 */
+	public static URL getResource( String name )
+	{
+		URL url = ClassLoader.getSystemResource( name );
+		if( url == null )
+			throw new IllegalStateException( "Can't find ["+name+"] on the classpath" );
+
+		return url;
+	}
+
+	/**
+	 * Create an IEEE-1516e ambassador, connect it with the given federate ambassador using the
+	 * evoked callback model, create the federation (if it doesn't exist already) from the test
+	 * FOM and join it. A number is added to the end of the federate name to keep it unique, as
+	 * JMH may create more than one instance of a benchmark state.
+	 */
+	public static RTIambassador join1516e( String federation,
+	                                       String federateName,
+	                                       FederateAmbassador fedamb )
+		throws Exception
+	{
+		RTIambassador rtiamb = RtiFactoryFactory.getRtiFactory().getRtiAmbassador();
+		rtiamb.connect( fedamb, CallbackModel.HLA_EVOKED );
+		try
+		{
+			rtiamb.createFederationExecution( federation, getResource(FOM_1516E) );
+		}
+		catch( FederationExecutionAlreadyExists feae )
+		{
+			// someone else got in first, that's fine
+		}
+
+		rtiamb.joinFederationExecution( federateName+"-"+FEDERATE_COUNT.incrementAndGet(),
+		                                "benchmark",
+		                                federation );
+		return rtiamb;
+	}
+
+	/**
+	 * Same as {@link #join1516e(String, String, FederateAmbassador)} with a federate ambassador
+	 * that ignores all callbacks.
+	 */
+	public static RTIambassador join1516e( String federation, String federateName )
+		throws Exception
+	{
+		return join1516e( federation, federateName, new NullFederateAmbassador() );
+	}
+
+	/**
+	 * Resign the federate, try to destroy the federation and disconnect. Nothing is thrown
+	 * if the federation is still in use by others.
+	 */
+	public static void resign1516e( RTIambassador rtiamb, String federation )
+	{
+		try
+		{
+			rtiamb.resignFederationExecution( ResignAction.DELETE_OBJECTS );
+		}
+		catch( Exception e )
+		{
+			// keep going so that we at least try to clean up the rest
+		}
+
+		try
+		{
+			rtiamb.destroyFederationExecution( federation );
+		}
+		catch( Exception e )
+		{
+			// still in use, the last one out will get it
+		}
+
+		try
+		{
+			rtiamb.disconnect();
+		}
+		catch( Exception e )
+		{
+			// nothing more we can do
+		}
+	}
+
+	/**
+	 * @return The LRC that sits behind the given Portico 1516e ambassador
+	 */
+	public static LRC getLrc( RTIambassador rtiamb )
+	{
+		return ((Rti1516eAmbassador)rtiamb).getHelper().getLrc();
+	}
+}
@@ -0,0 +1,170 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.benchmark;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.portico.lrc.LRCState;
+import org.portico.lrc.model.OCMetadata;
+import org.portico.lrc.model.ObjectModel;
+import org.portico.lrc.services.object.data.InterestManager;
+
+import hla.rti1516e.RTIambassador;
+
+/**
+ * Measures the {@link InterestManager} lookups done for every update and interaction: working
+ * out who subscribes to a class, and what class a federate should discover an object as. The
+ * interest is set up directly in the interest manager of a joined federate, for a number of
+ * made up federate handles (see the <code>subscribers</code> parameter). Half of them subscribe
+ * to <code>HLAobjectRoot.A</code> and <code>HLAinteractionRoot.X</code>, the other half to the
+ * child classes <code>HLAobjectRoot.A.B</code> and <code>HLAinteractionRoot.X.Y.Z</code>, so
+ * the lookups have to walk up the class hierarchy for some of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=5, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class InterestBenchmark
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final String FEDERATION = "InterestBenchmark";
+	private static final int FIRST_FEDERATE = 100;
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	@Param({"2","64"})
+	public int subscribers;
+
+	private RTIambassador rtiamb;
+	private InterestManager interests;
+	private int classA;
+	private int classB;
+	private int classX;
+	private int classZ;
+	private Set<Integer> updated;
+	private int lastFederate;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@Setup
+	public void setup() throws Exception
+	{
+		BenchmarkSetup.configure();
+		this.rtiamb = BenchmarkSetup.join1516e( FEDERATION, "interest" );
+		LRCState state = BenchmarkSetup.getLrc( rtiamb ).getState();
+		this.interests = state.getInterestManager();
+
+		ObjectModel fom = state.getFOM();
+		OCMetadata a = fom.getObjectClass( "HLAobjectRoot.A" );
+		OCMetadata b = fom.getObjectClass( "HLAobjectRoot.A.B" );
+		this.classA = a.getHandle();
+		this.classB = b.getHandle();
+		this.classX = fom.getInteractionClassHandle( "HLAinteractionRoot.X" );
+		this.classZ = fom.getInteractionClassHandle( "HLAinteractionRoot.X.Y.Z" );
+
+		Set<Integer> aAttributes = new HashSet<Integer>();
+		aAttributes.add( a.getAttributeHandle("aa") );
+		aAttributes.add( a.getAttributeHandle("ab") );
+		Set<Integer> bAttributes = new HashSet<Integer>();
+		bAttributes.add( b.getAttributeHandle("ba") );
+
+		for( int i = 0; i < subscribers; i++ )
+		{
+			int federate = FIRST_FEDERATE + i;
+			if( i % 2 == 0 )
+			{
+				interests.subscribeObjectClass( federate, classA, aAttributes );
+				interests.subscribeInteractionClass( federate, classX );
+			}
+			else
+			{
+				interests.subscribeObjectClass( federate, classB, bAttributes );
+				interests.subscribeInteractionClass( federate, classZ );
+			}
+		}
+
+		// an update of B that touches one attribute from each level
+		this.updated = new HashSet<Integer>();
+		updated.add( a.getAttributeHandle("aa") );
+		updated.add( b.getAttributeHandle("ba") );
+
+		// the last federate subscribes to B and Z directly, the first only through parents
+		this.lastFederate = FIRST_FEDERATE + subscribers - 1;
+	}
+
+	@TearDown
+	public void teardown()
+	{
+		BenchmarkSetup.resign1516e( rtiamb, FEDERATION );
+	}
+
+	@Benchmark
+	public Set<Integer> getSubscribersOfAttributes()
+	{
+		return interests.getSubscribersOfAttributes( classB, updated );
+	}
+
+	@Benchmark
+	public Set<Integer> getSubscribersOfInteraction()
+	{
+		return interests.getSubscribersOfInteraction( classZ );
+	}
+
+	@Benchmark
+	public boolean isObjectClassSubscribedThroughParent()
+	{
+		return interests.isObjectClassSubscribed( FIRST_FEDERATE, classB );
+	}
+
+	@Benchmark
+	public OCMetadata getDiscoveryType()
+	{
+		return interests.getDiscoveryType( lastFederate, classB );
+	}
+
+	@Benchmark
+	public boolean isInteractionClassSubscribedThroughParent()
+	{
+		return interests.isInteractionClassSubscribed( FIRST_FEDERATE, classZ );
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -0,0 +1,148 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.benchmark;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.portico.lrc.services.object.msg.DeleteObject;
+import org.portico.lrc.services.object.msg.RegisterObject;
+import org.portico.lrc.services.object.msg.SendInteraction;
+import org.portico.lrc.services.object.msg.UpdateAttributes;
+import org.portico.lrc.services.time.msg.NullMessage;
+import org.portico.lrc.services.time.msg.TimeAdvanceRequest;
+import org.portico.lrc.utils.MessageHelpers;
+import org.portico.utils.messaging.PorticoMessage;
+
+/**
+ * Measures the cost of turning messages into bytes for the wire and back again with
+ * {@link MessageHelpers#deflate(PorticoMessage)} and
+ * {@link MessageHelpers#inflate(byte[], Class)}. Each of the most common message types is
+ * measured separately (see the <code>type</code> parameter), with a payload that looks like
+ * what a federate would actually send.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=5, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class MessageBenchmark
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	@Param({"UpdateAttributes",
+	        "UpdateAttributesTSO",
+	        "SendInteraction",
+	        "RegisterObject",
+	        "DeleteObject",
+	        "TimeAdvanceRequest",
+	        "NullMessage"})
+	public String type;
+
+	/** The number of attributes/parameters in updates and interactions */
+	@Param({"4","32"})
+	public int values;
+
+	/** The size of each attribute/parameter value */
+	@Param({"16"})
+	public int valueSize;
+
+	private PorticoMessage message;
+	private byte[] deflated;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@Setup
+	public void setup()
+	{
+		this.message = createMessage();
+		this.message.setSourceFederate( 1 );
+		this.deflated = MessageHelpers.deflate( message );
+	}
+
+	@Benchmark
+	public byte[] deflate()
+	{
+		return MessageHelpers.deflate( message );
+	}
+
+	@Benchmark
+	public PorticoMessage inflate()
+	{
+		return MessageHelpers.inflate( deflated, PorticoMessage.class );
+	}
+
+	@Benchmark
+	public PorticoMessage roundTrip()
+	{
+		return MessageHelpers.inflate( MessageHelpers.deflate(message), PorticoMessage.class );
+	}
+
+	private PorticoMessage createMessage()
+	{
+		byte[] tag = "benchmark".getBytes();
+		if( type.equals("UpdateAttributes") )
+			return new UpdateAttributes( 1000, tag, createValues() );
+		else if( type.equals("UpdateAttributesTSO") )
+			return new UpdateAttributes( 1000, tag, createValues(), 10.0 );
+		else if( type.equals("SendInteraction") )
+			return new SendInteraction( 12, tag, createValues() );
+		else if( type.equals("RegisterObject") )
+			return new RegisterObject( 10, "benchmark-object" );
+		else if( type.equals("DeleteObject") )
+			return new DeleteObject( 1000, tag );
+		else if( type.equals("TimeAdvanceRequest") )
+			return new TimeAdvanceRequest( 10.0 );
+		else if( type.equals("NullMessage") )
+			return new NullMessage( 10.0 );
+		else
+			throw new IllegalArgumentException( "Unknown message type: "+type );
+	}
+
+	private HashMap<Integer,byte[]> createValues()
+	{
+		HashMap<Integer,byte[]> map = new HashMap<Integer,byte[]>();
+		for( int i = 0; i < values; i++ )
+			map.put( i+1, new byte[valueSize] );
+
+		return map;
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
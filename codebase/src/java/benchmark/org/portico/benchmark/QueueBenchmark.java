@@ -0,0 +1,133 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.benchmark;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.portico.lrc.LRCMessageQueue;
+import org.portico.lrc.services.object.msg.UpdateAttributes;
+import org.portico.utils.messaging.PorticoMessage;
+
+import hla.rti1516e.RTIambassador;
+
+/**
+ * Measures {@link LRCMessageQueue#offer(PorticoMessage)} and {@link LRCMessageQueue#poll()}
+ * on the queue of a joined federate, both on their own and with producer threads (standing in
+ * for the connection delivering messages) racing a consumer thread (standing in for the thread
+ * that ticks).
+ * <p/>
+ * The producers stop adding once there are {@link #MAX_QUEUED} messages waiting, so that the
+ * queue doesn't grow without bound if they are faster than the consumer.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=5, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class QueueBenchmark
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final String FEDERATION = "QueueBenchmark";
+	private static final int MAX_QUEUED = 10000;
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private RTIambassador rtiamb;
+	private LRCMessageQueue queue;
+	private PorticoMessage message;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@Setup(Level.Trial)
+	public void setup() throws Exception
+	{
+		BenchmarkSetup.configure();
+		this.rtiamb = BenchmarkSetup.join1516e( FEDERATION, "queue" );
+		this.queue = BenchmarkSetup.getLrc( rtiamb ).getState().getQueue();
+
+		HashMap<Integer,byte[]> attributes = new HashMap<Integer,byte[]>();
+		attributes.put( 1, new byte[16] );
+		this.message = new UpdateAttributes( 1000, new byte[0], attributes );
+		this.message.setSourceFederate( 2 );
+	}
+
+	@TearDown(Level.Iteration)
+	public void drain()
+	{
+		while( queue.poll() != null );
+	}
+
+	@TearDown(Level.Trial)
+	public void teardown()
+	{
+		BenchmarkSetup.resign1516e( rtiamb, FEDERATION );
+	}
+
+	/** Offer a message and take it straight back off, all on the one thread */
+	@Benchmark
+	@Group("uncontended")
+	public PorticoMessage offerThenPoll()
+	{
+		queue.offer( message );
+		return queue.poll();
+	}
+
+	@Benchmark
+	@Group("contended")
+	@GroupThreads(3)
+	public boolean offer()
+	{
+		if( queue.getSize() >= MAX_QUEUED )
+			return false;
+		else
+			return queue.offer( message );
+	}
+
+	@Benchmark
+	@Group("contended")
+	@GroupThreads(1)
+	public PorticoMessage poll()
+	{
+		return queue.poll();
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -0,0 +1,126 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.portico.lrc.model.Dimension;
+import org.portico.lrc.model.RegionInstance;
+import org.portico.lrc.model.Space;
+
+/**
+ * Measures {@link RegionInstance#overlapsWith(RegionInstance)}, which is used to match update
+ * and subscription regions. The regions have the given number of extents across a space with
+ * the given number of dimensions. The <code>overlap</code> benchmark compares two regions that
+ * only overlap in their last extents (so every pair has to be looked at), and the
+ * <code>disjoint</code> benchmark compares two regions that don't overlap at all.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=5, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class RegionBenchmark
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	@Param({"1","4"})
+	public int extents;
+
+	@Param({"2","4"})
+	public int dimensions;
+
+	private RegionInstance subscription;
+	private RegionInstance overlapping;
+	private RegionInstance disjoint;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@Setup
+	public void setup() throws Exception
+	{
+		Space space = new Space( "BenchmarkSpace", 1 );
+		for( int i = 1; i <= dimensions; i++ )
+			space.addDimension( new Dimension("dimension"+i, i) );
+
+		// the subscription extents sit at [0,10), [100,110), [200,210), ...
+		this.subscription = createRegion( space, 1, 0 );
+
+		// the update extents are shifted so that only the last one lands on the subscription
+		this.overlapping = createRegion( space, 2, 50 );
+		for( int dimension = 1; dimension <= dimensions; dimension++ )
+		{
+			long lower = (extents-1) * 100 + 5;
+			overlapping.setRangeLowerBound( extents-1, dimension, lower );
+			overlapping.setRangeUpperBound( extents-1, dimension, lower+10 );
+		}
+
+		this.disjoint = createRegion( space, 3, 50 );
+	}
+
+	private RegionInstance createRegion( Space space, int token, long offset ) throws Exception
+	{
+		RegionInstance region = new RegionInstance( 1, token, space, extents );
+		for( int extent = 0; extent < extents; extent++ )
+		{
+			long lower = extent * 100 + offset;
+			for( int dimension = 1; dimension <= dimensions; dimension++ )
+			{
+				region.setRangeLowerBound( extent, dimension, lower );
+				region.setRangeUpperBound( extent, dimension, lower+10 );
+			}
+		}
+
+		return region;
+	}
+
+	@Benchmark
+	public boolean overlap()
+	{
+		return subscription.overlapsWith( overlapping );
+	}
+
+	@Benchmark
+	public boolean disjoint()
+	{
+		return subscription.overlapsWith( disjoint );
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -0,0 +1,133 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.portico.lrc.model.Dimension;
+import org.portico.lrc.model.RegionInstance;
+import org.portico.lrc.model.Space;
+import org.portico.lrc.services.object.data.RegionStore;
+
+/**
+ * Measures how long it takes to find the regions that overlap an update region when the routing
+ * space is cut up into a grid of regions (the way a terrain is usually partitioned), both with
+ * {@link RegionStore#getOverlappingRegions(RegionInstance)} and by comparing the update region
+ * with every region directly.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=5, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class RegionStoreBenchmark
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final long CELL_SIZE = 100;
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	/** The number of regions along each side of the grid */
+	@Param({"10","32","100"})
+	public int gridSize;
+
+	private RegionStore store;
+	private List<RegionInstance> regions;
+	private RegionInstance update;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@Setup
+	public void setup() throws Exception
+	{
+		Space space = new Space( "Terrain", 1 );
+		space.addDimension( new Dimension("x",1) );
+		space.addDimension( new Dimension("y",2) );
+
+		this.store = new RegionStore( null );
+		this.regions = new ArrayList<RegionInstance>();
+		int token = 1;
+		for( int x = 0; x < gridSize; x++ )
+		{
+			for( int y = 0; y < gridSize; y++ )
+			{
+				RegionInstance region = createRegion( space, token++, x*CELL_SIZE, y*CELL_SIZE );
+				store.addRegion( region );
+				regions.add( region );
+			}
+		}
+
+		// an update region sitting across the corner of four cells in the middle of the grid
+		long middle = (gridSize/2) * CELL_SIZE - (CELL_SIZE/2);
+		this.update = createRegion( space, token, middle, middle );
+		store.addRegion( update );
+	}
+
+	private RegionInstance createRegion( Space space, int token, long x, long y ) throws Exception
+	{
+		RegionInstance region = new RegionInstance( 1, token, space, 1 );
+		region.setRangeLowerBound( 0, 1, x );
+		region.setRangeUpperBound( 0, 1, x+CELL_SIZE );
+		region.setRangeLowerBound( 0, 2, y );
+		region.setRangeUpperBound( 0, 2, y+CELL_SIZE );
+		return region;
+	}
+
+	@Benchmark
+	public Set<RegionInstance> indexed()
+	{
+		return store.getOverlappingRegions( update );
+	}
+
+	@Benchmark
+	public int direct()
+	{
+		int count = 0;
+		for( RegionInstance region : regions )
+		{
+			if( region.overlapsWith(update) )
+				count++;
+		}
+
+		return count;
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -0,0 +1,172 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hla.rti.AttributeHandleSet;
+import hla.rti.FederateInternalError;
+import hla.rti.FederationExecutionAlreadyExists;
+import hla.rti.ReflectedAttributes;
+import hla.rti.ResignAction;
+import hla.rti.RTIambassador;
+import hla.rti.SuppliedAttributes;
+import hla.rti.jlc.NullFederateAmbassador;
+import hla.rti.jlc.RtiFactory;
+import hla.rti.jlc.RtiFactoryFactory;
+
+/**
+ * The HLA 1.3 version of {@link RoundTrip1516eBenchmark}: the publisher updates an object and
+ * the subscriber ticks until the matching reflection is delivered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=5, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class RoundTrip13Benchmark
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final String FEDERATION = "RoundTrip13Benchmark";
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	/** The size of the value sent for each of the three attributes */
+	@Param({"16","1024"})
+	public int valueSize;
+
+	private RTIambassador publisher;
+	private RTIambassador subscriber;
+	private CountingFederateAmbassador subscriberAmb;
+	private int object;
+	private SuppliedAttributes values;
+	private byte[] tag;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@Setup
+	public void setup() throws Exception
+	{
+		BenchmarkSetup.configure();
+		RtiFactory factory = RtiFactoryFactory.getRtiFactory();
+		this.publisher = factory.createRtiAmbassador();
+		this.subscriber = factory.createRtiAmbassador();
+		try
+		{
+			publisher.createFederationExecution( FEDERATION,
+			                                     BenchmarkSetup.getResource(BenchmarkSetup.FOM_13) );
+		}
+		catch( FederationExecutionAlreadyExists feae )
+		{
+			// left over from a previous run, just use it
+		}
+
+		this.subscriberAmb = new CountingFederateAmbassador();
+		publisher.joinFederationExecution( "publisher", FEDERATION, new NullFederateAmbassador() );
+		subscriber.joinFederationExecution( "subscriber", FEDERATION, subscriberAmb );
+
+		int classHandle = publisher.getObjectClassHandle( "ObjectRoot.A" );
+		int aa = publisher.getAttributeHandle( "aa", classHandle );
+		int ab = publisher.getAttributeHandle( "ab", classHandle );
+		int ac = publisher.getAttributeHandle( "ac", classHandle );
+		AttributeHandleSet attributes = factory.createAttributeHandleSet();
+		attributes.add( aa );
+		attributes.add( ab );
+		attributes.add( ac );
+
+		publisher.publishObjectClass( classHandle, attributes );
+		subscriber.subscribeObjectClassAttributes( classHandle, attributes );
+		this.object = publisher.registerObjectInstance( classHandle );
+		while( subscriberAmb.discovered == 0 )
+			subscriber.tick();
+
+		this.values = factory.createSuppliedAttributes();
+		values.add( aa, new byte[valueSize] );
+		values.add( ab, new byte[valueSize] );
+		values.add( ac, new byte[valueSize] );
+		this.tag = new byte[0];
+	}
+
+	@TearDown
+	public void teardown() throws Exception
+	{
+		subscriber.resignFederationExecution( ResignAction.DELETE_OBJECTS_AND_RELEASE_ATTRIBUTES );
+		publisher.resignFederationExecution( ResignAction.DELETE_OBJECTS_AND_RELEASE_ATTRIBUTES );
+		publisher.destroyFederationExecution( FEDERATION );
+	}
+
+	@Benchmark
+	public int updateToReflect() throws Exception
+	{
+		int expected = subscriberAmb.reflected + 1;
+		publisher.updateAttributeValues( object, values, tag );
+		while( subscriberAmb.reflected < expected )
+			subscriber.tick();
+
+		return subscriberAmb.reflected;
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+
+	///////////////////////////////////////////////////////////////////////////////////////
+	///////////////////////////////// Private Inner Class /////////////////////////////////
+	///////////////////////////////////////////////////////////////////////////////////////
+	/** Only ever called from the thread that ticks, so nothing needs to be volatile */
+	private static class CountingFederateAmbassador extends NullFederateAmbassador
+	{
+		private int discovered = 0;
+		private int reflected = 0;
+
+		@Override
+		public void discoverObjectInstance( int theObject, int theObjectClass, String objectName )
+			throws FederateInternalError
+		{
+			++discovered;
+		}
+
+		@Override
+		public void reflectAttributeValues( int theObject,
+		                                    ReflectedAttributes theAttributes,
+		                                    byte[] userSuppliedTag )
+			throws FederateInternalError
+		{
+			++reflected;
+		}
+	}
+}
@@ -0,0 +1,165 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hla.rti1516e.AttributeHandle;
+import hla.rti1516e.AttributeHandleSet;
+import hla.rti1516e.AttributeHandleValueMap;
+import hla.rti1516e.NullFederateAmbassador;
+import hla.rti1516e.ObjectClassHandle;
+import hla.rti1516e.ObjectInstanceHandle;
+import hla.rti1516e.OrderType;
+import hla.rti1516e.RTIambassador;
+import hla.rti1516e.TransportationTypeHandle;
+import hla.rti1516e.exceptions.FederateInternalError;
+
+/**
+ * Measures an attribute update going all the way from one IEEE-1516e federate to another: the
+ * publisher calls <code>updateAttributeValues()</code>, then the subscriber evokes callbacks
+ * until the matching <code>reflectAttributeValues()</code> arrives. Both federates live in this
+ * JVM, so with the default JVM binding this covers everything except the network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=5, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class RoundTrip1516eBenchmark
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final String FEDERATION = "RoundTrip1516eBenchmark";
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	/** The size of the value sent for each of the three attributes */
+	@Param({"16","1024"})
+	public int valueSize;
+
+	private RTIambassador publisher;
+	private RTIambassador subscriber;
+	private CountingFederateAmbassador subscriberAmb;
+	private ObjectInstanceHandle object;
+	private AttributeHandleValueMap values;
+	private byte[] tag;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@Setup
+	public void setup() throws Exception
+	{
+		BenchmarkSetup.configure();
+		this.publisher = BenchmarkSetup.join1516e( FEDERATION, "publisher" );
+		this.subscriberAmb = new CountingFederateAmbassador();
+		this.subscriber = BenchmarkSetup.join1516e( FEDERATION, "subscriber", subscriberAmb );
+
+		ObjectClassHandle classHandle = publisher.getObjectClassHandle( "HLAobjectRoot.A" );
+		AttributeHandle aa = publisher.getAttributeHandle( classHandle, "aa" );
+		AttributeHandle ab = publisher.getAttributeHandle( classHandle, "ab" );
+		AttributeHandle ac = publisher.getAttributeHandle( classHandle, "ac" );
+		AttributeHandleSet attributes = publisher.getAttributeHandleSetFactory().create();
+		attributes.add( aa );
+		attributes.add( ab );
+		attributes.add( ac );
+
+		publisher.publishObjectClassAttributes( classHandle, attributes );
+		subscriber.subscribeObjectClassAttributes( classHandle, attributes );
+		this.object = publisher.registerObjectInstance( classHandle );
+		while( subscriberAmb.discovered == 0 )
+			subscriber.evokeCallback( 1.0 );
+
+		this.values = publisher.getAttributeHandleValueMapFactory().create( 3 );
+		values.put( aa, new byte[valueSize] );
+		values.put( ab, new byte[valueSize] );
+		values.put( ac, new byte[valueSize] );
+		this.tag = new byte[0];
+	}
+
+	@TearDown
+	public void teardown()
+	{
+		BenchmarkSetup.resign1516e( subscriber, FEDERATION );
+		BenchmarkSetup.resign1516e( publisher, FEDERATION );
+	}
+
+	@Benchmark
+	public int updateToReflect() throws Exception
+	{
+		int expected = subscriberAmb.reflected + 1;
+		publisher.updateAttributeValues( object, values, tag );
+		while( subscriberAmb.reflected < expected )
+			subscriber.evokeCallback( 1.0 );
+
+		return subscriberAmb.reflected;
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+
+	///////////////////////////////////////////////////////////////////////////////////////
+	///////////////////////////////// Private Inner Class /////////////////////////////////
+	///////////////////////////////////////////////////////////////////////////////////////
+	/** Only ever called from the thread evoking callbacks, so nothing needs to be volatile */
+	private static class CountingFederateAmbassador extends NullFederateAmbassador
+	{
+		private int discovered = 0;
+		private int reflected = 0;
+
+		@Override
+		public void discoverObjectInstance( ObjectInstanceHandle theObject,
+		                                    ObjectClassHandle theObjectClass,
+		                                    String objectName )
+			throws FederateInternalError
+		{
+			++discovered;
+		}
+
+		@Override
+		public void reflectAttributeValues( ObjectInstanceHandle theObject,
+		                                    AttributeHandleValueMap theAttributes,
+		                                    byte[] userSuppliedTag,
+		                                    OrderType sentOrdering,
+		                                    TransportationTypeHandle theTransport,
+		                                    SupplementalReflectInfo reflectInfo )
+			throws FederateInternalError
+		{
+			++reflected;
+		}
+	}
+}
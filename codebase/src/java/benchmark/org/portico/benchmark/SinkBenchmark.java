@@ -0,0 +1,128 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.benchmark;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.portico.lrc.services.object.msg.DeleteObject;
+import org.portico.lrc.services.object.msg.RegisterObject;
+import org.portico.lrc.services.object.msg.SendInteraction;
+import org.portico.lrc.services.object.msg.UpdateAttributes;
+import org.portico.utils.messaging.AbstractMessageHandler;
+import org.portico.utils.messaging.MessageContext;
+import org.portico.utils.messaging.MessageSink;
+import org.portico.utils.messaging.MessageSink.Global;
+import org.portico.utils.messaging.PorticoMessage;
+
+/**
+ * Measures the overhead {@link MessageSink#process(MessageContext)} adds on top of the handlers
+ * themselves: running the global pre/post-process chains, looking up the handler for the message
+ * type and dealing with the response. Every handler does nothing except mark the context as a
+ * success, so what's left is the cost of getting the message to them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=5, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class SinkBenchmark
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	/** The number of handlers in each of the global pre and post-process chains */
+	@Param({"0","2"})
+	public int globalHandlers;
+
+	private MessageSink sink;
+	private PorticoMessage message;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@Setup
+	public void setup() throws Exception
+	{
+		this.sink = new MessageSink( "benchmark" );
+		sink.registerHandler( new NoopHandler(), UpdateAttributes.class );
+		sink.registerHandler( new NoopHandler(), SendInteraction.class );
+		sink.registerHandler( new NoopHandler(), RegisterObject.class );
+		sink.registerHandler( new NoopHandler(), DeleteObject.class );
+		for( int i = 0; i < globalHandlers; i++ )
+		{
+			sink.registerGlobalHandler( new NoopHandler("pre"+i), Global.PREPROCESS );
+			sink.registerGlobalHandler( new NoopHandler("post"+i), Global.POSTPROCESS );
+		}
+
+		HashMap<Integer,byte[]> attributes = new HashMap<Integer,byte[]>();
+		attributes.put( 1, new byte[16] );
+		this.message = new UpdateAttributes( 1000, new byte[0], attributes );
+	}
+
+	@Benchmark
+	public MessageContext process() throws Exception
+	{
+		MessageContext context = new MessageContext( message );
+		sink.process( context );
+		return context;
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+
+	///////////////////////////////////////////////////////////////////////////////////////
+	///////////////////////////////// Private Inner Class /////////////////////////////////
+	///////////////////////////////////////////////////////////////////////////////////////
+	private static class NoopHandler extends AbstractMessageHandler
+	{
+		public NoopHandler()
+		{
+			super();
+		}
+
+		public NoopHandler( String name )
+		{
+			super( name );
+		}
+
+		public void process( MessageContext context )
+		{
+			if( context.getResponse() == null )
+				context.success();
+		}
+	}
+}
@@ -14,7 +14,6 @@
  */
 package hla.rti13.java1;
 
-import java.util.HashMap;
 import java.util.Map;
 
 import org.portico.impl.hla13.types.Java1ByteArrayMap;
@@ -37,7 +36,7 @@ public class ReceivedInteraction
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
 
-	public ReceivedInteraction( HashMap<Integer,byte[]> values, RegionInstance region )
+	public ReceivedInteraction( Map<Integer,byte[]> values, RegionInstance region )
 	{
 		this.values = new Java1ByteArrayMap( values );
 		if( region == null )
@@ -15,6 +15,7 @@
 package org.portico.bindings;
 
 import java.util.Map;
+import java.util.Set;
 
 import org.portico.lrc.LRC;
 import org.portico.lrc.compat.JConfigurationException;
@@ -140,16 +141,44 @@ public interface IConnection
 	public void broadcast( PorticoMessage message ) throws Exception;
 	
 	/**
-	 * This method should be used when a message has to be sent and then time for responses to
-	 * be broadcast back is needed before moving on. In this case, the connection will broadcast
-	 * the message and then sleep for an amount of time appropriate based on the underlying
-	 * comms protocol in use. For example, the JVM connection won't sleep for long, but a connection
-	 * sending information over a network should wait longer.
+	 * This method should be used when a message has to be sent and the sender needs to know that
+	 * everyone else has seen it before moving on (for example, when locking a sync point label or
+	 * reserving an object name). The connection will broadcast the message and then block until
+	 * each of the other federates currently joined to the federation has acknowledged it. Federates
+	 * that resign or disconnect while we are waiting are no longer waited on.
+	 * <p/>
+	 * Each remote federate answers with either an acknowledgement or a veto. A veto is raised by
+	 * the incoming handler of the remote federate leaving an error response in its context (see
+	 * {@link org.portico.lrc.LRCMessageQueue#offerAndReport(PorticoMessage)}). Acknowledgements
+	 * are sent in the same stream as any other message from that federate, so anything the remote
+	 * federate sent before acknowledging will have been received by the time this returns.
+	 * <p/>
+	 * If not everyone has answered within a connection-specific timeout, the method will log the
+	 * fact and return anyway, with whatever vetoes it received in that time.
 	 * 
 	 * @param message The message to broadcast
+	 * @return A map of the vetoes that were received, keyed by the handle of the vetoing federate
+	 *         with the reason they gave as the value. Empty if nobody objected. Never null.
 	 * @throws Exception If there was an error when sending the message
 	 */
-	public void broadcastAndSleep( PorticoMessage message ) throws Exception;
+	public Map<Integer,String> broadcastAndWait( PorticoMessage message ) throws Exception;
+
+	/**
+	 * Send the given message only to the federates identified in <code>targets</code>. This is
+	 * used where the LRC knows that only some federates care about a message (such as attribute
+	 * updates or interactions, which only go to federates subscribed to them), so the others
+	 * don't have to receive and then discard it. Like {@link #broadcast(PorticoMessage)}, this
+	 * doesn't wait for any response.
+	 * <p/>
+	 * Messages sent this way must still arrive in order with respect to any broadcast sent by the
+	 * same federate. If <code>targets</code> is empty, nothing is sent. The caller is expected to
+	 * have removed its own handle from the set.
+	 * 
+	 * @param message The message to send
+	 * @param targets The handles of the federates that should receive the message
+	 * @throws Exception If there was an error when sending the message
+	 */
+	public void multicast( PorticoMessage message, Set<Integer> targets ) throws Exception;
 
 	///////////////////////////////////////////////////////////////////////////////////////
 	//////////////////////////////// bootstrapping methods ////////////////////////////////
@@ -189,4 +218,15 @@ public interface IConnection
 	 * be binding-specific. If there is a problem locating this information, throw an exception.
 	 */
 	public String[] listActiveFederations() throws Exception;
+
+	///////////////////////////////////////////////////////////////////////////////////////
+	/////////////////////////////////// metrics methods ///////////////////////////////////
+	///////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Returns the number of messages that have been handed to the connection but have not yet
+	 * gone out on the wire, for the LRC metrics (see {@link org.portico.lrc.metrics.LRCMetrics}).
+	 * This is read from a monitoring thread, so it only has to be a reasonable estimate and it
+	 * must not block. Connections that don't hold on to messages should return 0.
+	 */
+	public int getSendBacklog();
 }
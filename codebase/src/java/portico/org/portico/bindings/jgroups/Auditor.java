@@ -260,17 +260,18 @@ public class Auditor
 			// In rare cases we might now have received & processed the discover call
 			// before an update comes in, so the object may not exist in the store yet
 			int objectHandle = update.getObjectId();
+			int attributeCount = update.getAttributeHandles().size();
 			OCInstance object = getObject( objectHandle );
 			if( object != null )
 			{
 				String className = getClassName( object.getRegisteredClassHandle() );
 				String objectName = object.getName()+"("+objectHandle+")";
 				// return in form "className, objectName(handle), 7 attributes"
-				return className+", "+objectName+", "+update.getAttributes().size()+" attributes";
+				return className+", "+objectName+", "+attributeCount+" attributes";
 			}
 			else
 			{
-				return "UnknownClass, UnknownObject, "+update.getAttributes().size()+" attributes";
+				return "UnknownClass, UnknownObject, "+attributeCount+" attributes";
 			}
 		}
 		else if( message instanceof SendInteraction )
@@ -285,7 +286,7 @@ public class Auditor
 			String className = getFom().getInteractionClass(interactionHandle).getLocalName();
 			
 			// return in form "className, 7 parameters"
-			return className+", "+interaction.getParameters().size()+" parameters";
+			return className+", "+interaction.getParameterHandles().size()+" parameters";
 		}
 		else if( message instanceof DiscoverObject )
 		{
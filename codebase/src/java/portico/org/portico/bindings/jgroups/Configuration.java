@@ -50,6 +50,15 @@ public class Configuration
 	    that there is no existing co-ordinator and appointing ourselves to that lofty title */
 	public static final String PROP_JGROUPS_GMS_TIMEOUT = "portico.jgroups.gms.jointimeout";
 
+	///// data channel settings
+	/** Comma-separated names of the data channels to create. If empty (default), everything
+	    goes over the one channel */
+	public static final String PROP_JGROUPS_DATA_CHANNELS = "portico.jgroups.datachannels";
+
+	/** Prefix for the properties that list the FOM classes carried by each data channel. The
+	    name of the channel is appended, for example "portico.jgroups.datachannel.vehicles" */
+	public static final String PROP_JGROUPS_DATA_CHANNEL_PREFIX = "portico.jgroups.datachannel.";
+
 	///// auditor settings
 	/** Whether or not the auditor is enabled */
 	public static final String PROP_JGROUPS_AUDITOR_ENABLED = "portico.jgroups.auditor.enabled";
@@ -115,6 +124,25 @@ public class Configuration
 		return Boolean.valueOf( System.getProperty(PROP_JGROUPS_DAEMON,"true") );
 	}
 
+	/**
+	 * @return The names of the data channels that have been configured, in the order they were
+	 *         given. Empty if there are none (the default).
+	 */
+	public static List<String> getDataChannelNames()
+	{
+		return explode( System.getProperty(PROP_JGROUPS_DATA_CHANNELS,""), "," );
+	}
+
+	/**
+	 * @return The names of the object and interaction classes that the data channel with the
+	 *         given name should carry. A value of "*" means every class not assigned to any other
+	 *         data channel. Empty if nothing has been configured for the channel.
+	 */
+	public static List<String> getDataChannelClasses( String channelName )
+	{
+		return explode( System.getProperty(PROP_JGROUPS_DATA_CHANNEL_PREFIX+channelName,""), "," );
+	}
+
 	/**
 	 * @return True if the Auditor has been turned on in configuration, false otherwise.
 	 *         Default is false.
@@ -0,0 +1,431 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.bindings.jgroups;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.Logger;
+import org.portico.bindings.jgroups.channel.DataChannel;
+import org.portico.lrc.LRC;
+import org.portico.lrc.LRCMessageQueue;
+import org.portico.lrc.model.ICMetadata;
+import org.portico.lrc.model.OCInstance;
+import org.portico.lrc.model.OCMetadata;
+import org.portico.lrc.model.ObjectModel;
+import org.portico.lrc.services.object.data.Repository;
+import org.portico.lrc.services.object.msg.SendInteraction;
+import org.portico.lrc.services.object.msg.UpdateAttributes;
+import org.portico.utils.messaging.PorticoMessage;
+
+/**
+ * Decides which {@link DataChannel} (if any) a message should go out on. The channels and the
+ * FOM classes each of them carries come from configuration (see
+ * {@link Configuration#getDataChannelNames()}). If no data channels are configured, everything
+ * stays on the main channel, as it always has.
+ * <p/>
+ * Only <b>receive order</b> attribute updates and interactions are ever moved onto a data
+ * channel. Everything else relies on the ordering the main channel gives us:
+ * <ul>
+ *   <li>Timestamped messages have to arrive before any later time advance from the same sender,
+ *       or the receiver could be granted past them. They stay with the time traffic.</li>
+ *   <li>Control messages (joins, sync points, ownership, ...) need to be seen in the order they
+ *       were sent, so they stay on the main channel.</li>
+ * </ul>
+ * Receive order messages carry no such promise across channels, with one exception: an update
+ * for an object that arrives before its discovery is thrown away. Discoveries stay on the main
+ * channel (deletes and timestamped updates for the object travel there too, and must not get
+ * ahead of it), so on the receiving side an update that comes in over a data channel for an
+ * object we haven't had the discovery for yet is held back until the discovery arrives (see
+ * {@link #receive(PorticoMessage, LRC)} and {@link #discoveryReceived(int, LRC)}).
+ * <p/>
+ * A data channel is only used for a message once every joined federate is connected to it. Until
+ * then (for example, while the channels are still connecting, or if another federate wasn't
+ * configured with the same channels) messages fall back to the main channel.
+ */
+public class DataChannelRouter
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	/** Entry in the route cache for a class that isn't carried by any data channel */
+	private static final int NO_CHANNEL = -1;
+
+	/** Name in the class list of a channel that says it carries every class not claimed
+	    by another data channel */
+	private static final String WILDCARD = "*";
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private Logger logger;
+	private Federation federation;
+	private List<DataChannel> channels;
+	private List<List<String>> channelClasses; // FOM class names, by channel index
+	private int wildcardChannel;
+
+	// class handle to channel index, filled in as we see each class for the first time
+	private Map<Integer,Integer> objectRoutes;
+	private Map<Integer,Integer> interactionRoutes;
+
+	// updates received for objects whose discovery hasn't arrived yet, and the objects whose
+	// discovery has arrived but may not have been processed by the LRC yet. Both guarded by this
+	private Map<Integer,HeldUpdates> heldUpdates;
+	private Set<Integer> announced;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	public DataChannelRouter( Federation federation )
+	{
+		this.logger = federation.getLogger();
+		this.federation = federation;
+		this.channels = new ArrayList<DataChannel>();
+		this.channelClasses = new ArrayList<List<String>>();
+		this.wildcardChannel = NO_CHANNEL;
+		this.objectRoutes = new ConcurrentHashMap<Integer,Integer>();
+		this.interactionRoutes = new ConcurrentHashMap<Integer,Integer>();
+		this.heldUpdates = new HashMap<Integer,HeldUpdates>();
+		this.announced = new HashSet<Integer>();
+
+		List<String> names = Configuration.getDataChannelNames();
+		for( int i = 0; i < names.size(); i++ )
+		{
+			String name = names.get( i );
+			List<String> classes = Configuration.getDataChannelClasses( name );
+			if( classes.isEmpty() )
+			{
+				logger.warn( "Data channel ["+name+"] has no classes configured, ignoring it" );
+				continue;
+			}
+
+			if( classes.contains(WILDCARD) )
+				this.wildcardChannel = channels.size();
+
+			this.channels.add( new DataChannel(federation,name,channels.size()+1) );
+			this.channelClasses.add( classes );
+		}
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	/**
+	 * Connect to each of the data channels. This happens in the background as each one can take
+	 * a few seconds if we are the first to arrive, and we don't need them to get going (messages
+	 * use the main channel in the mean time).
+	 */
+	public void connect()
+	{
+		for( final DataChannel channel : channels )
+		{
+			Thread thread = new Thread( "DataChannel["+channel.getChannelName()+"]" )
+			{
+				public void run()
+				{
+					try
+					{
+						channel.connect();
+					}
+					catch( Exception e )
+					{
+						logger.warn( "Couldn't connect data channel ["+channel.getChannelName()+
+						             "], its messages will go over the main channel" );
+					}
+				}
+			};
+
+			thread.setDaemon( true );
+			thread.start();
+		}
+	}
+
+	public void disconnect()
+	{
+		for( DataChannel channel : channels )
+			channel.disconnect();
+	}
+
+	/**
+	 * Forget which channel each class was assigned to, along with any updates being held for
+	 * objects from the last federation. Called when we join a federation, as the FOM (and so the
+	 * class handles) may not be the same as last time.
+	 */
+	public void clearRoutes()
+	{
+		objectRoutes.clear();
+		interactionRoutes.clear();
+		synchronized( this )
+		{
+			heldUpdates.clear();
+			announced.clear();
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if any data channel is connected, and as such, messages sent
+	 *         by this federate may not arrive in the order they were sent
+	 */
+	public boolean isActive()
+	{
+		for( DataChannel channel : channels )
+		{
+			if( channel.isConnected() )
+				return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * @return The number of messages waiting to be sent across all the data channels
+	 */
+	public int getSendBacklog()
+	{
+		int backlog = 0;
+		for( DataChannel channel : channels )
+			backlog += channel.getSendBacklog();
+
+		return backlog;
+	}
+
+	/**
+	 * Figure out which data channel the given message should be sent on.
+	 *
+	 * @return The channel to use, or <code>null</code> if the message should go on the main
+	 *         channel
+	 */
+	public DataChannel route( PorticoMessage message )
+	{
+		if( channels.isEmpty() || message.isTimestamped() )
+			return null;
+
+		LRC lrc = federation.joinedLRC;
+		if( lrc == null )
+			return null;
+
+		int index = NO_CHANNEL;
+		if( message instanceof UpdateAttributes )
+		{
+			int objectHandle = ((UpdateAttributes)message).getObjectId();
+			OCInstance instance = lrc.getState().getRepository().getInstance( objectHandle );
+			if( instance == null )
+				return null;
+
+			index = routeObjectClass( lrc.getState().getFOM(), instance.getRegisteredClassHandle() );
+		}
+		else if( message instanceof SendInteraction )
+		{
+			int classHandle = ((SendInteraction)message).getInteractionId();
+			index = routeInteractionClass( lrc.getState().getFOM(), classHandle );
+		}
+
+		if( index == NO_CHANNEL )
+			return null;
+
+		// only use the channel if everyone is there to hear it
+		DataChannel channel = channels.get( index );
+		if( channel.isConnected() == false )
+			return null; // still connecting, or it couldn't connect at all
+		else if( channel.hasMembers(federation.getManifest().getFederateUUIDs()) )
+			return channel;
+		else
+			return null;
+	}
+
+	/**
+	 * A message has come in over a data channel. Pass it on to the LRC, unless it is an update
+	 * for an object that we haven't received the discovery for. Those are held until the
+	 * discovery arrives on the main channel, at which point they go in right behind it.
+	 * <p/>
+	 * The discovery should never be far behind. If the updates for an object have been waiting
+	 * longer than {@link Configuration#RESPONSE_TIMEOUT}, they are let through anyway the next
+	 * time one arrives, and the LRC discards them as it would have without the data channel.
+	 */
+	public void receive( PorticoMessage message, LRC lrc )
+	{
+		LRCMessageQueue queue = lrc.getState().getQueue();
+		if( message instanceof UpdateAttributes == false )
+		{
+			queue.offer( message );
+			return;
+		}
+
+		int objectHandle = ((UpdateAttributes)message).getObjectId();
+		Repository repository = lrc.getState().getRepository();
+		boolean known = repository.getDiscoveredOrUndiscovered( objectHandle ) != null;
+		synchronized( this )
+		{
+			HeldUpdates held = heldUpdates.get( objectHandle );
+			if( held == null && (known || announced.contains(objectHandle)) )
+			{
+				// the LRC already has the discovery, it has to be processed before this
+				if( known )
+					announced.remove( objectHandle );
+
+				queue.offer( message );
+				return;
+			}
+
+			if( held == null )
+			{
+				held = new HeldUpdates();
+				heldUpdates.put( objectHandle, held );
+			}
+
+			held.updates.add( message );
+			if( System.currentTimeMillis() - held.since > Configuration.RESPONSE_TIMEOUT )
+			{
+				logger.warn( "No discovery received for object [%d], passing on %d held updates",
+				             objectHandle, held.updates.size() );
+				release( objectHandle, queue );
+			}
+		}
+	}
+
+	/**
+	 * A discovery for the given object has just been given to the LRC. Let any updates we have
+	 * been holding for it through, and don't hold any more.
+	 */
+	public synchronized void discoveryReceived( int objectHandle, LRC lrc )
+	{
+		if( channels.isEmpty() )
+			return;
+
+		announced.add( objectHandle );
+		release( objectHandle, lrc.getState().getQueue() );
+	}
+
+	/**
+	 * The given object has been deleted, there is no discovery to wait for any more.
+	 */
+	public synchronized void deleteReceived( int objectHandle )
+	{
+		if( channels.isEmpty() )
+			return;
+
+		announced.remove( objectHandle );
+	}
+
+	/**
+	 * @return The number of updates being held while waiting for their object to be discovered
+	 */
+	public synchronized int getHeldUpdateCount()
+	{
+		int count = 0;
+		for( HeldUpdates held : heldUpdates.values() )
+			count += held.updates.size();
+
+		return count;
+	}
+
+	/** Must be called while holding the lock on this router */
+	private void release( int objectHandle, LRCMessageQueue queue )
+	{
+		HeldUpdates held = heldUpdates.remove( objectHandle );
+		if( held == null )
+			return;
+
+		// offered in the order they arrived, and while we still hold the lock so that
+		// nothing received after the discovery can get in front of them
+		for( PorticoMessage update : held.updates )
+			queue.offer( update );
+	}
+
+	int routeObjectClass( ObjectModel fom, int classHandle )
+	{
+		Integer cached = objectRoutes.get( classHandle );
+		if( cached != null )
+			return cached;
+
+		// look for the closest class in the hierarchy that has been assigned a channel
+		int index = NO_CHANNEL;
+		for( OCMetadata clazz = fom.getObjectClass(classHandle);
+		     clazz != null && index == NO_CHANNEL;
+		     clazz = clazz.getParent() )
+		{
+			for( int i = 0; i < channelClasses.size() && index == NO_CHANNEL; i++ )
+			{
+				for( String name : channelClasses.get(i) )
+				{
+					OCMetadata configured = fom.getObjectClass( name );
+					if( configured != null && configured.getHandle() == clazz.getHandle() )
+					{
+						index = i;
+						break;
+					}
+				}
+			}
+		}
+
+		if( index == NO_CHANNEL )
+			index = wildcardChannel;
+
+		objectRoutes.put( classHandle, index );
+		return index;
+	}
+
+	int routeInteractionClass( ObjectModel fom, int classHandle )
+	{
+		Integer cached = interactionRoutes.get( classHandle );
+		if( cached != null )
+			return cached;
+
+		// look for the closest class in the hierarchy that has been assigned a channel
+		int index = NO_CHANNEL;
+		for( ICMetadata clazz = fom.getInteractionClass(classHandle);
+		     clazz != null && index == NO_CHANNEL;
+		     clazz = clazz.getParent() )
+		{
+			for( int i = 0; i < channelClasses.size() && index == NO_CHANNEL; i++ )
+			{
+				for( String name : channelClasses.get(i) )
+				{
+					ICMetadata configured = fom.getInteractionClass( name );
+					if( configured != null && configured.getHandle() == clazz.getHandle() )
+					{
+						index = i;
+						break;
+					}
+				}
+			}
+		}
+
+		if( index == NO_CHANNEL )
+			index = wildcardChannel;
+
+		interactionRoutes.put( classHandle, index );
+		return index;
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+
+	//////////////////////////////////////////////////////////////////////////////////////////
+	/////////////////////////////////// Private Inner Class //////////////////////////////////
+	//////////////////////////////////////////////////////////////////////////////////////////
+	/** The updates held for a single object, and when we started holding them */
+	private static class HeldUpdates
+	{
+		private long since = System.currentTimeMillis();
+		private List<PorticoMessage> updates = new ArrayList<PorticoMessage>();
+	}
+}
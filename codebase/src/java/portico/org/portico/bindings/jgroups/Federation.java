@@ -14,13 +14,20 @@
  */
 package org.portico.bindings.jgroups;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jgroups.util.Util;
 import org.portico.bindings.jgroups.channel.Channel;
+import org.portico.bindings.jgroups.channel.DataChannel;
 import org.portico.bindings.jgroups.channel.Manifest;
+import org.portico.bindings.jgroups.channel.TargetHeader;
 import org.portico.bindings.jgroups.wan.local.Gateway;
 import org.portico.lrc.LRC;
 import org.portico.lrc.PorticoConstants;
@@ -32,7 +39,10 @@ import org.portico.lrc.compat.JRTIinternalError;
 import org.portico.lrc.compat.JResignAction;
 import org.portico.lrc.model.ObjectModel;
 import org.portico.lrc.services.federation.msg.ResignFederation;
+import org.portico.lrc.services.object.msg.DeleteObject;
+import org.portico.lrc.services.object.msg.DiscoverObject;
 import org.portico.lrc.utils.MessageHelpers;
+import org.portico.utils.bithelpers.BitHelpers;
 import org.portico.utils.messaging.ErrorResponse;
 import org.portico.utils.messaging.MessageContext;
 import org.portico.utils.messaging.PorticoMessage;
@@ -71,6 +81,7 @@ public class Federation
 	
 	// Local Connection
 	private Channel channel;
+	private DataChannelRouter router;
 	
 	// WAN properties
 	private boolean wanEnabled;
@@ -79,6 +90,10 @@ public class Federation
 	// write metadata about incoming/outgoing message flow
 	private Auditor auditor;
 
+	// requests sent through sendAndWait() that are still waiting on acks
+	private AtomicInteger requestCounter;
+	private Map<Integer,PendingRequest> pendingRequests;
+
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
@@ -97,6 +112,7 @@ public class Federation
 		
 		// Local Connection
 		this.channel = null;
+		this.router = null;
 		
 		// WAN properties
 		this.wanEnabled = Configuration.isWanEnabled();
@@ -104,6 +120,9 @@ public class Federation
 
 		// create this, but leave as disabled for now - gets turned on in joinFederation
 		this.auditor = new Auditor();
+
+		this.requestCounter = new AtomicInteger( 0 );
+		this.pendingRequests = new ConcurrentHashMap<Integer,PendingRequest>();
 	}
 
 	//----------------------------------------------------------
@@ -122,6 +141,14 @@ public class Federation
 		this.channel = new Channel( this );
 		this.channel.connect();
 		
+		// connect any data channels we have been configured to use. These don't get forwarded
+		// across the WAN, so they are left off in WAN mode
+		this.router = new DataChannelRouter( this );
+		if( this.wanEnabled )
+			logger.debug( "WAN mode enabled, data channels will not be used" );
+		else
+			this.router.connect();
+
 		// create the WAN gateway - but don't enable it unless we need it
 		this.gateway = new Gateway( this );
 		if( this.wanEnabled )
@@ -146,6 +173,7 @@ public class Federation
 			return;
 		
 		this.channel.disconnect();
+		this.router.disconnect();
 		if( this.gateway != null )
 			this.gateway.disconnect();
 
@@ -196,10 +224,154 @@ public class Federation
 		if( auditor.isRecording() )
 			auditor.sent( message, payload.length );
 
-		// Send the message
-		channel.send( payload );
+		// record the send for the LRC metrics
+		LRC lrc = this.joinedLRC;
+		if( lrc != null )
+			lrc.getMetrics().messageSent( message, payload.length );
+
+		// Send the message, on a data channel if it belongs on one
+		transmit( message, payload, null );
 	}
 	
+	/**
+	 * Sends the message to the given federates only. If that happens to be everyone else in the
+	 * federation it goes out as a regular message. Otherwise a {@link TargetHeader} is attached
+	 * so that everyone else can discard it without having to inflate it first. It is still sent
+	 * to the whole channel, as JGroups only keeps messages from a sender in order within either
+	 * the multicast or unicast stream, not across them. If there are no targets, nothing is sent.
+	 */
+	public final void multicast( PorticoMessage message, Set<Integer> targets )
+		throws JRTIinternalError
+	{
+		if( targets.isEmpty() )
+			return;
+
+		// turn the PorticoMessage into a JGroups Message
+		byte[] payload = MessageHelpers.deflate( message );
+
+		// Log an audit message for the send
+		if( auditor.isRecording() )
+			auditor.sent( message, payload.length );
+
+		// record the send for the LRC metrics
+		LRC lrc = this.joinedLRC;
+		if( lrc != null )
+			lrc.getMetrics().messageSent( message, payload.length );
+
+		// if everyone else is a target, don't bother with the header
+		Set<Integer> everyone = manifest.getFederateHandles();
+		everyone.remove( manifest.getLocalFederateHandle() );
+		if( targets.containsAll(everyone) )
+		{
+			transmit( message, payload, null );
+			return;
+		}
+
+		int[] handles = new int[targets.size()];
+		int index = 0;
+		for( Integer target : targets )
+			handles[index++] = target;
+
+		transmit( message, payload, handles );
+	}
+
+	/**
+	 * Put the payload of the given message on the wire. It goes out on a data channel if the
+	 * {@link DataChannelRouter} says it belongs on one, or on the main channel otherwise, and
+	 * without reliability if the message {@link PorticoMessage#isBestEffort() allows it}.
+	 * 
+	 * @param targets The federates that should process the message, or <code>null</code> for all
+	 */
+	private void transmit( PorticoMessage message, byte[] payload, int[] targets )
+		throws JRTIinternalError
+	{
+		DataChannel dataChannel = router.route( message );
+		if( message.isBestEffort() )
+		{
+			if( dataChannel == null )
+				channel.sendBestEffort( payload, targets );
+			else
+				dataChannel.sendBestEffort( payload, targets );
+		}
+		else if( targets == null )
+		{
+			if( dataChannel == null )
+				channel.send( payload );
+			else
+				dataChannel.send( payload );
+		}
+		else
+		{
+			if( dataChannel == null )
+				channel.send( payload, targets );
+			else
+				dataChannel.send( payload, targets );
+		}
+	}
+
+	/**
+	 * Sends the message out and then blocks until every other joined federate has acknowledged
+	 * it, or until {@link Configuration#RESPONSE_TIMEOUT} has passed. The message goes out as an
+	 * "AckRequest" control message, the payload of which is the id we are tracking the request
+	 * under followed by the message itself. As each federate processes it, they respond with an
+	 * "Ack" that says whether they vetoed it (see {@link #receiveAckRequest(UUID, byte[])}).
+	 * <p/>
+	 * If we time out, a warning is logged and we just carry on with whatever we heard back.
+	 * 
+	 * @return The reasons given by any federates that vetoed the message, keyed by their handle
+	 */
+	public Map<Integer,String> sendAndWait( PorticoMessage message ) throws JRTIinternalError
+	{
+		// figure out who we need to hear back from
+		Set<Integer> awaiting = manifest.getFederateHandles();
+		awaiting.remove( manifest.getLocalFederateHandle() );
+
+		int requestId = requestCounter.incrementAndGet();
+		PendingRequest request = new PendingRequest( requestId, awaiting );
+		pendingRequests.put( requestId, request );
+
+		try
+		{
+			// turn the PorticoMessage into a JGroups Message, prefixed with the request id
+			byte[] deflated = MessageHelpers.deflate( message );
+			byte[] payload = new byte[4+deflated.length];
+			BitHelpers.putIntBE( requestId, payload, 0 );
+			BitHelpers.putByteArray( deflated, payload, 4 );
+
+			// Log an audit message for the send
+			if( auditor.isRecording() )
+				auditor.sent( message, payload.length );
+
+			// record the send for the LRC metrics
+			LRC lrc = this.joinedLRC;
+			if( lrc != null )
+				lrc.getMetrics().messageSent( message, payload.length );
+
+			channel.sendAckRequest( payload );
+
+			if( request.await(Configuration.RESPONSE_TIMEOUT) == false )
+			{
+				logger.warn( "Timed out waiting for acknowledgement of ["+message.getIdentifier()+
+				             "] from federates "+request.getAwaiting()+", continuing anyway" );
+			}
+
+			return request.getVetoes();
+		}
+		catch( JRTIinternalError rtie )
+		{
+			throw rtie;
+		}
+		catch( Exception e )
+		{
+			throw new JRTIinternalError( "Problem sending message: channel="+fedname+
+			                             ", error message="+e.getMessage(), e );
+		}
+		finally
+		{
+			pendingRequests.remove( requestId );
+		}
+	}
+
 	//////////////////////////////////////////////////////////////////////////////
 	/// Federation Lifecycle Methods  ////////////////////////////////////////////
 	//////////////////////////////////////////////////////////////////////////////
@@ -280,6 +452,7 @@ public class Federation
 
 		// store the LRC locally so that we can route incoming messages to it
 		this.joinedLRC = lrc;
+		this.router.clearRoutes(); // the FOM may be different to last time
 
 		// Enable the auditor if we are configured to use it
 		if( Configuration.isAuditorEnabled() )
@@ -376,26 +549,57 @@ public class Federation
 	//////////////////////////////////////////////////////////////////////////////
 	public final void receiveAsynchronous( byte[] payload )
 	{
-		if( this.joinedLRC == null )
+		receive( payload, false );
+	}
+
+	/**
+	 * A regular message has come in over one of the data channels. Unlike those from the main
+	 * channel, these can get ahead of the discovery for the object they are about, so they go
+	 * through the {@link DataChannelRouter} which holds them back until it arrives.
+	 */
+	public final void receiveData( byte[] payload )
+	{
+		receive( payload, true );
+	}
+
+	private void receive( byte[] payload, boolean fromDataChannel )
+	{
+		LRC joinedLRC = this.joinedLRC;
+		if( joinedLRC == null )
 			return;
 		
 		try
 		{
 			// fetch the payload from the message
-			PorticoMessage message = MessageHelpers.inflate( payload,
-			                                                 PorticoMessage.class,
-			                                                 joinedLRC );
-			
-			// if we get null back, it means we should stop processing now
-			if( message == null )
-					return;
+			PorticoMessage message = MessageHelpers.inflate( payload, PorticoMessage.class );
 			
 			// log an audit entry for the reception
 			if( auditor.isRecording() )
 				auditor.received( message, payload.length );
+
+			// count it for the LRC metrics
+			joinedLRC.getMetrics().messageReceived( message, payload.length );
 			
 			// shove into our queue for later processing
-			joinedLRC.getState().getQueue().offer( message );
+			if( fromDataChannel )
+			{
+				router.receive( message, joinedLRC );
+			}
+			else
+			{
+				joinedLRC.getState().getQueue().offer( message );
+
+				// let through any updates that came over a data channel ahead of this
+				if( message instanceof DiscoverObject )
+				{
+					int objectHandle = ((DiscoverObject)message).getObjectHandle();
+					router.discoveryReceived( objectHandle, joinedLRC );
+				}
+				else if( message instanceof DeleteObject )
+				{
+					router.deleteReceived( ((DeleteObject)message).getObjectHandle() );
+				}
+			}
 		}
 		catch( Exception e )
 		{
@@ -403,7 +607,7 @@ public class Federation
 			// the time we came to use it, it became null (due to resignation). Roll with
 			// if and just skip over. No point worring about being unable to process a
 			// message from a federate we just resigned from anyway.
-			if( joinedLRC == null )
+			if( this.joinedLRC == null )
 				return;
 			else
 				logger.error( "Error processing received message: " + e.getMessage()+", size="+payload.length, e );
@@ -424,6 +628,9 @@ public class Federation
     		if( auditor.isRecording() )
     			auditor.received( message, payload.length );
 
+    		// count it for the LRC metrics
+    		joinedLRC.getMetrics().messageReceived( message, payload.length );
+
 			MessageContext context = new org.portico.utils.messaging.MessageContext( message );
 			joinedLRC.getIncomingSink().process( context );
 			return context.getResponse();
@@ -537,11 +744,92 @@ public class Federation
 		// log the resignation of the federate with the manifest
 		// process is still a member of the channel, just no longer part of the federation
 		String federateName = manifest.getFederateName( sender );
+		if( manifest.isJoinedFederate(sender) )
+		{
+			// don't leave anyone waiting on an ack that is never going to come
+			int federateHandle = manifest.getFederateHandle( sender );
+			for( PendingRequest request : pendingRequests.values() )
+				request.federateDeparted( federateHandle );
+		}
+
 		manifest.federateResigned( sender );
 		logger.info( "Federate ["+federateName+"] has resigned from ["+fedname+"]" );
 
 	}
 	
+	/**
+	 * Someone has sent a message they want everyone to acknowledge. Process it, and then send
+	 * back an "Ack" saying whether we vetoed it. The ack is targeted at the requesting federate,
+	 * but goes out in the same stream as everything else we send, so anything we sent before it
+	 * reaches the requester first. Its payload is the UUID of the requester (so it can still be
+	 * picked out if it is relayed over the WAN), the request id, and then the UTF-8 reason for
+	 * the veto (empty if we accepted it).
+	 */
+	public void receiveAckRequest( UUID sender, byte[] payload )
+	{
+		if( this.joinedLRC == null )
+			return;
+
+		try
+		{
+			int requestId = BitHelpers.readIntBE( payload, 0 );
+			PorticoMessage message = MessageHelpers.inflate( payload,
+			                                                 4,
+			                                                 payload.length-4,
+			                                                 PorticoMessage.class );
+
+			// log an audit entry for the reception
+			if( auditor.isRecording() )
+				auditor.received( message, payload.length );
+
+			// count it for the LRC metrics
+			joinedLRC.getMetrics().messageReceived( message, payload.length );
+
+			String veto = joinedLRC.getState().getQueue().offerAndReport( message );
+
+			// we don't wait on ourselves, and there's no one to answer if the requester has gone
+			if( sender.equals(this.uuid) || manifest.isJoinedFederate(sender) == false )
+				return;
+
+			byte[] reason = veto == null ? new byte[0] : veto.getBytes( StandardCharsets.UTF_8 );
+			byte[] ack = new byte[20+reason.length];
+			BitHelpers.putUUID( sender, ack, 0 );
+			BitHelpers.putIntBE( requestId, ack, 16 );
+			BitHelpers.putByteArray( reason, ack, 20 );
+			channel.sendAck( manifest.getFederateHandle(sender), ack );
+		}
+		catch( Exception e )
+		{
+			// see receiveAsynchronous()
+			if( joinedLRC == null )
+				return;
+			else
+				logger.error( "Error processing ack request: "+e.getMessage()+", size="+payload.length, e );
+		}
+	}
+
+	/**
+	 * A federate has acknowledged a message sent via {@link #sendAndWait(PorticoMessage)}. If it
+	 * was one of ours, let the pending request know.
+	 */
+	public void receiveAck( UUID sender, byte[] payload )
+	{
+		UUID requester = BitHelpers.readUUID( payload, 0 );
+		if( requester.equals(this.uuid) == false )
+			return;
+
+		int requestId = BitHelpers.readIntBE( payload, 16 );
+		PendingRequest request = pendingRequests.get( requestId );
+		if( request == null || manifest.isJoinedFederate(sender) == false )
+			return; // timed out and gave up already, or they're gone
+
+		String veto = null;
+		if( payload.length > 20 )
+			veto = new String( payload, 20, payload.length-20, StandardCharsets.UTF_8 );
+
+		request.acknowledged( manifest.getFederateHandle(sender), veto );
+	}
+
 	public void receiveDestroyFederation( UUID sender, byte[] payload )
 	{
 		// tell our Manifest that a federate has destroyed the federation
@@ -662,6 +950,14 @@ public class Federation
 	{
 		return this.manifest;
 	}
+
+	/**
+	 * @return <code>true</code> if the local federate is one of the targets in the given header
+	 */
+	public boolean isTargetOf( TargetHeader header )
+	{
+		return manifest != null && header.contains( manifest.getLocalFederateHandle() );
+	}
 	
 	public boolean isWanEnabled()
 	{
@@ -688,6 +984,19 @@ public class Federation
 		return this.gateway;
 	}
 
+	/**
+	 * @return The number of messages we have sent that are still waiting to go out, either in
+	 *         the JGroups bundlers of our channels or in the WAN gateway
+	 */
+	public int getSendBacklog()
+	{
+		int backlog = channel.getSendBacklog() + router.getSendBacklog();
+		if( gateway != null )
+			backlog += gateway.getSendBacklog();
+
+		return backlog;
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -16,6 +16,7 @@ package org.portico.bindings.jgroups;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -156,20 +157,32 @@ public class JGroupsConnection implements IConnection
 	}
 	
 	/**
-	 * This method should be used when a message has to be sent and then time for responses to
-	 * be broadcast back is needed before moving on. In this case, the connection will broadcast
-	 * the message and then sleep for an amount of time appropriate based on the underlying
-	 * comms protocol in use. For example, the JVM connection won't sleep for long, but a connection
-	 * sending information over a network should wait longer.
+	 * Sends the message and then blocks until every other federate in the federation has either
+	 * acknowledged or vetoed it, or until {@link Configuration#RESPONSE_TIMEOUT} has passed. See
+	 * {@link Federation#sendAndWait(PorticoMessage)} for the details.
 	 * 
 	 * @param message The message to broadcast
+	 * @return The reasons given by any federates that vetoed the message, keyed by their handle
 	 * @throws Exception If there was an error when sending the message
 	 */
-	public void broadcastAndSleep( PorticoMessage message ) throws Exception
+	public Map<Integer,String> broadcastAndWait( PorticoMessage message ) throws Exception
 	{
 		validateConnected();
-		joinedFederation.send( message );
-		PorticoConstants.sleep( Configuration.RESPONSE_TIMEOUT );
+		return joinedFederation.sendAndWait( message );
+	}
+
+	/**
+	 * Send the message to the identified federates only. See
+	 * {@link Federation#multicast(PorticoMessage, Set)} for how this works.
+	 * 
+	 * @param message The message to send
+	 * @param targets The handles of the federates that should receive it
+	 * @throws Exception If there was an error when sending the message
+	 */
+	public void multicast( PorticoMessage message, Set<Integer> targets ) throws Exception
+	{
+		validateConnected();
+		joinedFederation.multicast( message, targets );
 	}
 
 	/**
@@ -359,6 +372,16 @@ public class JGroupsConnection implements IConnection
 	{
 		return new String[]{};
 	}
+
+	/**
+	 * The number of messages waiting to go out on the channels of the federation we are joined
+	 * to, including any waiting to go over the WAN. 0 if we aren't joined to one.
+	 */
+	public int getSendBacklog()
+	{
+		Federation federation = this.joinedFederation;
+		return federation == null ? 0 : federation.getSendBacklog();
+	}
 	
 	//----------------------------------------------------------
 	//                     STATIC METHODS
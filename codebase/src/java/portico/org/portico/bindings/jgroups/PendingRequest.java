@@ -0,0 +1,164 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.bindings.jgroups;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tracks a message sent through {@link Federation#sendAndWait(org.portico.utils.messaging.PorticoMessage)}
+ * while we wait for the other federates to acknowledge it. Acks arrive on the JGroups receiver
+ * threads and are handed to {@link #acknowledged(int, String)}, the sending thread blocks in
+ * {@link #await(long)} until there is no one left to hear from.
+ * <p/>
+ * If a federate resigns (or crashes) while we're waiting on it, {@link #federateDeparted(int)}
+ * takes it out of the set so we don't sit there until the timeout.
+ */
+public class PendingRequest
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private int requestId;
+	private Set<Integer> awaiting;
+	private Map<Integer,String> vetoes;
+
+	private Lock lock;
+	private Condition condition;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	public PendingRequest( int requestId, Set<Integer> awaiting )
+	{
+		this.requestId = requestId;
+		this.awaiting = new HashSet<Integer>( awaiting );
+		this.vetoes = new HashMap<Integer,String>();
+
+		this.lock = new ReentrantLock();
+		this.condition = this.lock.newCondition();
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	/**
+	 * The given federate has processed the request. If it objected to it, the reason will be
+	 * provided in <code>veto</code>, otherwise it will be <code>null</code>.
+	 */
+	public void acknowledged( int federate, String veto )
+	{
+		lock.lock();
+		try
+		{
+			if( awaiting.remove(federate) && veto != null )
+				vetoes.put( federate, veto );
+
+			if( awaiting.isEmpty() )
+				condition.signalAll();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * The given federate has left the federation, there is no point waiting to hear from it.
+	 */
+	public void federateDeparted( int federate )
+	{
+		acknowledged( federate, null );
+	}
+
+	/**
+	 * Block until every federate we are waiting on has acknowledged the request, or until the
+	 * given timeout has passed.
+	 *
+	 * @return <code>true</code> if everyone responded, <code>false</code> if we timed out
+	 */
+	public boolean await( long timeoutMillis ) throws InterruptedException
+	{
+		long remaining = TimeUnit.MILLISECONDS.toNanos( timeoutMillis );
+		lock.lock();
+		try
+		{
+			while( awaiting.isEmpty() == false )
+			{
+				if( remaining <= 0 )
+					return false;
+
+				remaining = condition.awaitNanos( remaining );
+			}
+
+			return true;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	public int getRequestId()
+	{
+		return this.requestId;
+	}
+
+	/**
+	 * @return A copy of the vetoes received so far, keyed by the handle of the vetoing federate
+	 */
+	public Map<Integer,String> getVetoes()
+	{
+		lock.lock();
+		try
+		{
+			return new HashMap<Integer,String>( vetoes );
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return A copy of the set of federates we are still waiting to hear from
+	 */
+	public Set<Integer> getAwaiting()
+	{
+		lock.lock();
+		try
+		{
+			return new HashSet<Integer>( awaiting );
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
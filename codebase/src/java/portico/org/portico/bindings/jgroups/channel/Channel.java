@@ -22,6 +22,7 @@ import org.jgroups.Address;
 import org.jgroups.JChannel;
 import org.jgroups.Message;
 import org.jgroups.Message.Flag;
+import org.jgroups.protocols.Bundler;
 import org.jgroups.util.DefaultThreadFactory;
 import org.portico.bindings.jgroups.Configuration;
 import org.portico.bindings.jgroups.Federation;
@@ -45,6 +46,9 @@ public class Channel
 	{
 		// we need this to get around a problem with JGroups and IPv6 on a Linux/Java 5 combo
 		System.setProperty( "java.net.preferIPv4Stack", "true" );
+		
+		// we may receive targeted messages without ever having sent one
+		TargetHeader.register();
 	}
 
 	//----------------------------------------------------------
@@ -139,9 +143,9 @@ public class Channel
 	
 	/**
 	 * This method constructs the channel, including any nitty-gritty details (such as thread pool
-	 * details or the like).
+	 * details or the like). The {@link DataChannel}s are built the same way.
 	 */
-	private JChannel constructChannel() throws Exception
+	static JChannel constructChannel() throws Exception
 	{
 		// create a different channel depending on whether we are trying to use the WAN
 		// or local network infrastructure
@@ -182,6 +186,7 @@ public class Channel
 	public String getChannelName() { return this.channelName; }
 	public boolean isConnected() { return this.connected; }
 	public Address getChannelAddress() { return this.jchannel.getAddress(); }
+	public int getSendBacklog() { return getSendBacklog( this.jchannel ); }
 
 	/**
 	 * This method will send the provided message to all federates connected to the same JGroups
@@ -208,6 +213,55 @@ public class Channel
 		}
 	}
 	
+	/**
+	 * Same as {@link #send(byte[])}, except that a {@link TargetHeader} holding the given federate
+	 * handles is attached. The message still goes to the whole channel (so that it stays in order
+	 * with everything else we send), but only those federates will process it.
+	 * 
+	 * @param payload The message to be sent
+	 * @param targets Handles of the federates that should process the message
+	 * @throws JRTIinternalError If there is a problem sending the message
+	 */
+	public void send( byte[] payload, int[] targets ) throws JRTIinternalError
+	{
+		try
+		{
+			Message message = new Message( null /*destination*/, payload );
+			message.putHeader( TargetHeader.HEADER, new TargetHeader(targets) );
+			jchannel.send( message );
+		}
+		catch( Exception e )
+		{
+			throw new JRTIinternalError( "Problem sending message: channel="+channelName+
+			                             ", error message="+e.getMessage(), e );
+		}
+	}
+	
+	/**
+	 * Send the given payload on a best-effort basis. The message is flagged so that the
+	 * reliability protocols (NAKACK2 and UNICAST3) pass it straight through without a sequence
+	 * number, so it is never retransmitted if lost, and so that flow control doesn't hold it up
+	 * waiting for credits. As it has no sequence number it isn't kept in order with the regular
+	 * messages we send either, so only use this for messages where that doesn't matter.
+	 * 
+	 * @param payload The message to be sent
+	 * @param targets Handles of the federates that should process the message, or
+	 *                <code>null</code> if everyone should (see {@link #send(byte[], int[])})
+	 * @throws JRTIinternalError If there is a problem sending the message
+	 */
+	public void sendBestEffort( byte[] payload, int[] targets ) throws JRTIinternalError
+	{
+		try
+		{
+			jchannel.send( newBestEffortMessage(payload,targets) );
+		}
+		catch( Exception e )
+		{
+			throw new JRTIinternalError( "Problem sending message: channel="+channelName+
+			                             ", error message="+e.getMessage(), e );
+		}
+	}
+
 	//////////////////////////////////////////////////////////////////////////////////////
 	//////////////////////////// Federation Lifecycle Methods ////////////////////////////
 	//////////////////////////////////////////////////////////////////////////////////////
@@ -250,6 +304,28 @@ public class Channel
 		sendSyncControlMessage( ControlHeader.newDestroyHeader(), payload );
 	}
 	
+	/**
+	 * Sends a message that every other federate must acknowledge (or veto) with an "Ack" once
+	 * they have processed it. This does NOT block, the {@link org.portico.bindings.jgroups.Federation}
+	 * takes care of waiting for the acks. It isn't sent OOB so that it is still delivered in order
+	 * with the regular messages we have sent.
+	 */
+	public void sendAckRequest( byte[] payload ) throws Exception
+	{
+		sendAsyncControlMessage( ControlHeader.newAckRequestHeader(), payload );
+	}
+
+	/**
+	 * Sends the reply to an incoming "AckRequest". Like {@link #send(byte[], int[])} it goes to
+	 * the whole channel with a {@link TargetHeader} naming the requesting federate, rather than
+	 * point-to-point, so that it stays in order with everything else we have sent. The payload
+	 * also identifies the requester so that it can be picked out if relayed over the WAN.
+	 */
+	public void sendAck( int requester, byte[] payload ) throws Exception
+	{
+		sendAsyncControlMessage( null, ControlHeader.newAckHeader(), payload, new int[]{requester} );
+	}
+
 	public void sendCrashedFederate( UUID crashed ) throws Exception
 	{
 		sendAsyncControlMessage( crashed, ControlHeader.goodbye(), new byte[]{} );
@@ -264,6 +340,20 @@ public class Channel
 	/** Sends without the RSVP header and thus will not block waiting for responses */
 	private void sendAsyncControlMessage( UUID sender, ControlHeader header, byte[] payload )
 		throws Exception
+	{
+		sendAsyncControlMessage( sender, header, payload, null );
+	}
+
+	/**
+	 * Sends without the RSVP header and thus will not block waiting for responses. If targets
+	 * are given, a {@link TargetHeader} holding them is attached so that only those federates
+	 * will process the message.
+	 */
+	private void sendAsyncControlMessage( UUID sender,
+	                                      ControlHeader header,
+	                                      byte[] payload,
+	                                      int[] targets )
+		throws Exception
 	{
 		if( sender == null )
 			sender = federation.getLocalUUID();
@@ -271,6 +361,8 @@ public class Channel
 		Message message = new Message();
 		message.putHeader( ControlHeader.HEADER, header );
 		message.putHeader( UUIDHeader.HEADER, new UUIDHeader(sender) );
+		if( targets != null )
+			message.putHeader( TargetHeader.HEADER, new TargetHeader(targets) );
 		message.setBuffer( payload );
 		message.setFlag( Flag.DONT_BUNDLE );
 		message.setFlag( Flag.NO_FC );
@@ -318,4 +410,31 @@ public class Channel
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
+	/**
+	 * Create a message for the given payload with the flags set for best-effort delivery. See
+	 * {@link #sendBestEffort(byte[], int[])}.
+	 */
+	static Message newBestEffortMessage( byte[] payload, int[] targets )
+	{
+		Message message = new Message( null /*destination*/, payload );
+		message.setFlag( Flag.NO_RELIABILITY );
+		message.setFlag( Flag.NO_FC );
+		if( targets != null )
+			message.putHeader( TargetHeader.HEADER, new TargetHeader(targets) );
+
+		return message;
+	}
+
+	/**
+	 * @return The number of messages waiting in the bundler of the given channel's transport
+	 *         to be sent, or 0 if the channel isn't connected
+	 */
+	static int getSendBacklog( JChannel jchannel )
+	{
+		if( jchannel == null || jchannel.isConnected() == false )
+			return 0;
+
+		Bundler bundler = jchannel.getProtocolStack().getTransport().getBundler();
+		return bundler == null ? 0 : bundler.size();
+	}
 }
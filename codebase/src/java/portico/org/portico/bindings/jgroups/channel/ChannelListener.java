@@ -167,8 +167,11 @@ public class ChannelListener implements MessageListener, MembershipListener, Rec
 		ControlHeader header = (ControlHeader)message.getHeader( ControlHeader.HEADER );
 		if( header == null )
 		{
-			// just a regular message, hand it off to our receiver
-			federation.receiveAsynchronous( message.getBuffer() );
+			// just a regular message, hand it off to our receiver unless it was only
+			// meant for some other federates
+			TargetHeader targets = (TargetHeader)message.getHeader( TargetHeader.HEADER );
+			if( targets == null || federation.isTargetOf(targets) )
+				federation.receiveAsynchronous( message.getBuffer() );
 		}
 		else
 		{
@@ -201,6 +204,15 @@ public class ChannelListener implements MessageListener, MembershipListener, Rec
 					logger.debug( "(GMS) destroyFederation("+message.getSrc()+")" );
 					federation.receiveDestroyFederation( sender, message.getBuffer() );
 					break;
+				case ControlHeader.ACK_REQUEST:
+					federation.receiveAckRequest( sender, message.getBuffer() );
+					break;
+				case ControlHeader.ACK:
+					// acks go to everyone to keep them in order, but are only for the requester
+					TargetHeader requester = (TargetHeader)message.getHeader( TargetHeader.HEADER );
+					if( requester == null || federation.isTargetOf(requester) )
+						federation.receiveAck( sender, message.getBuffer() );
+					break;
 				case ControlHeader.GOODBYE:
 					logger.debug( "(GMS) goodbye("+message.getSrc()+")" );
 					federation.receiveGoodbye( sender, message.getBuffer() );
@@ -42,6 +42,9 @@ public class ControlHeader extends Header
 	public static final short JOIN_FEDERATION        = 4;
 	public static final short RESIGN_FEDERATION      = 5;
 	public static final short DESTROY_FEDERATION     = 6;
+
+	public static final short ACK_REQUEST            = 7; // message that others must ack
+	public static final short ACK                    = 8; // sent in reply to ACK_REQUEST
 	
 	public static final short GOODBYE                = 100; // sent when disconnecting from channel
 
@@ -123,6 +126,10 @@ public class ControlHeader extends Header
 				return "ResignFederation";
 			case DESTROY_FEDERATION:
 				return "DestroyFederation";
+			case ACK_REQUEST:
+				return "AckRequest";
+			case ACK:
+				return "Ack";
 			case GOODBYE:
 				return "Goodbye";
 			default:
@@ -163,6 +170,16 @@ public class ControlHeader extends Header
 		return new ControlHeader( DESTROY_FEDERATION );
 	}
 	
+	public static ControlHeader newAckRequestHeader()
+	{
+		return new ControlHeader( ACK_REQUEST );
+	}
+
+	public static ControlHeader newAckHeader()
+	{
+		return new ControlHeader( ACK );
+	}
+
 	public static ControlHeader goodbye()
 	{
 		return new ControlHeader( GOODBYE );
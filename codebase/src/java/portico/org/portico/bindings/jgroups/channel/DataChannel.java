@@ -0,0 +1,259 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.bindings.jgroups.channel;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jgroups.Address;
+import org.jgroups.JChannel;
+import org.jgroups.Message;
+import org.jgroups.ReceiverAdapter;
+import org.jgroups.View;
+import org.jgroups.protocols.UDP;
+import org.jgroups.stack.Protocol;
+import org.portico.bindings.jgroups.Federation;
+import org.portico.lrc.compat.JRTIinternalError;
+
+/**
+ * A secondary channel that carries attribute updates and interactions for some subset of the
+ * FOM, as configured through the <code>portico.jgroups.datachannel.*</code> properties. Each
+ * data channel is a separate JGroups cluster with its own multicast port and its own set of
+ * protocol threads, so a flood of updates for one group of classes doesn't hold up messages on
+ * the main {@link Channel} (time advances in particular) or on any other data channel.
+ * <p/>
+ * Data channels only ever carry regular messages. Everything to do with membership stays on the
+ * main channel. To relate members of this channel back to federates, the address we connect
+ * with is derived from the UUID of the {@link Federation}, which lets the sender check that
+ * every joined federate is listening here before using it (see {@link #hasMembers(Collection)}).
+ */
+public class DataChannel
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	protected Logger logger;
+	private Federation federation;
+	private String channelName;
+	private int portOffset;
+
+	private JChannel jchannel;
+	private volatile boolean connected;
+	private volatile Set<UUID> members; // replaced (not modified) on each view change
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	/**
+	 * @param federation The federation this channel belongs to
+	 * @param name The configured name of the data channel
+	 * @param portOffset Added to the multicast port of the main channel to get the port for this
+	 *                   one, so each data channel gets its own socket
+	 */
+	public DataChannel( Federation federation, String name, int portOffset )
+	{
+		this.logger = LogManager.getFormatterLogger( "portico.lrc.jgroups" );
+		this.federation = federation;
+		this.channelName = federation.getFederationName()+"/"+name;
+		this.portOffset = portOffset;
+
+		this.jchannel = null;
+		this.connected = false;
+		this.members = Collections.emptySet();
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	/**
+	 * Create the underlying JGroups channel and connect to it. Failures are thrown back as
+	 * a {@link JRTIinternalError}.
+	 */
+	public void connect() throws JRTIinternalError
+	{
+		if( this.connected )
+			return;
+
+		try
+		{
+			logger.trace( "ATTEMPT Connecting to data channel ["+channelName+"]" );
+
+			this.jchannel = Channel.constructChannel();
+			Protocol transport = jchannel.getProtocolStack().getTransport();
+			if( transport instanceof UDP )
+			{
+				UDP udp = (UDP)transport;
+				udp.setMulticastPort( udp.getMulticastPort()+portOffset );
+			}
+
+			// use our federation UUID as our address so others can tell who we are
+			final UUID uuid = federation.getLocalUUID();
+			final long msb = uuid.getMostSignificantBits();
+			final long lsb = uuid.getLeastSignificantBits();
+			jchannel.addAddressGenerator( () -> new org.jgroups.util.UUID(msb,lsb) );
+			jchannel.setReceiver( new Listener() );
+			jchannel.connect( channelName );
+
+			this.connected = true;
+			logger.debug( "SUCCESS Connected to data channel ["+channelName+"]" );
+		}
+		catch( Exception e )
+		{
+			logger.error( "ERROR Failed to connect to data channel ["+channelName+"]: "+
+			              e.getMessage(), e );
+			throw new JRTIinternalError( e.getMessage(), e );
+		}
+	}
+
+	public void disconnect()
+	{
+		if( this.jchannel == null )
+			return;
+
+		this.connected = false;
+		this.members = Collections.emptySet();
+		this.jchannel.disconnect();
+		this.jchannel.close();
+		logger.debug( "Connection closed to data channel ["+channelName+"]" );
+	}
+
+	public boolean isConnected()
+	{
+		return this.connected;
+	}
+
+	/**
+	 * @return <code>true</code> if each of the federation members identified by the given UUIDs
+	 *         is currently connected to this channel
+	 */
+	public boolean hasMembers( Collection<UUID> federates )
+	{
+		return connected && members.containsAll( federates );
+	}
+
+	/**
+	 * Send the given payload to everyone on the channel. See {@link Channel#send(byte[])}.
+	 */
+	public void send( byte[] payload ) throws JRTIinternalError
+	{
+		try
+		{
+			jchannel.send( new Message(null /*destination*/,payload) );
+		}
+		catch( Exception e )
+		{
+			throw new JRTIinternalError( "Problem sending message: channel="+channelName+
+			                             ", error message="+e.getMessage(), e );
+		}
+	}
+
+	/**
+	 * Send the given payload, but only have it processed by the identified federates. See
+	 * {@link Channel#send(byte[], int[])}.
+	 */
+	public void send( byte[] payload, int[] targets ) throws JRTIinternalError
+	{
+		try
+		{
+			Message message = new Message( null /*destination*/, payload );
+			message.putHeader( TargetHeader.HEADER, new TargetHeader(targets) );
+			jchannel.send( message );
+		}
+		catch( Exception e )
+		{
+			throw new JRTIinternalError( "Problem sending message: channel="+channelName+
+			                             ", error message="+e.getMessage(), e );
+		}
+	}
+
+	/**
+	 * Send the given payload without retransmission or flow control. See
+	 * {@link Channel#sendBestEffort(byte[], int[])}.
+	 */
+	public void sendBestEffort( byte[] payload, int[] targets ) throws JRTIinternalError
+	{
+		try
+		{
+			jchannel.send( Channel.newBestEffortMessage(payload,targets) );
+		}
+		catch( Exception e )
+		{
+			throw new JRTIinternalError( "Problem sending message: channel="+channelName+
+			                             ", error message="+e.getMessage(), e );
+		}
+	}
+
+	public String getChannelName()
+	{
+		return this.channelName;
+	}
+
+	/**
+	 * @return The number of messages waiting to be sent on this channel
+	 */
+	public int getSendBacklog()
+	{
+		return Channel.getSendBacklog( this.jchannel );
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+	/**
+	 * Hands regular messages off to the federation (unless targeted at someone else) and keeps
+	 * track of who is connected.
+	 */
+	private class Listener extends ReceiverAdapter
+	{
+		@Override
+		public void receive( Message message )
+		{
+			if( logger.isTraceEnabled() )
+			{
+				logger.trace( "(incoming) asynchronous, channel="+channelName+", size="+
+				              message.getLength()+", source="+message.getSrc() );
+			}
+
+			TargetHeader targets = (TargetHeader)message.getHeader( TargetHeader.HEADER );
+			if( targets == null || federation.isTargetOf(targets) )
+				federation.receiveData( message.getBuffer() );
+		}
+
+		@Override
+		public void viewAccepted( View view )
+		{
+			Set<UUID> current = new HashSet<UUID>();
+			for( Address address : view.getMembers() )
+			{
+				if( address instanceof org.jgroups.util.UUID )
+				{
+					org.jgroups.util.UUID id = (org.jgroups.util.UUID)address;
+					current.add( new UUID(id.getMostSignificantBits(),id.getLeastSignificantBits()) );
+				}
+			}
+
+			members = current;
+		}
+	}
+}
@@ -15,11 +15,12 @@
 package org.portico.bindings.jgroups.channel;
 
 import java.io.Serializable;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.portico.lrc.model.ObjectModel;
 
@@ -45,6 +46,8 @@ public class Manifest implements Serializable
 	private int highestHandle;
 
 	// channel members - each is assigned a number
+	// (members and federates are changed by the channel thread, but read by the federate's
+	//  own thread when it picks who to send to, so they are safe to iterate while changing)
 	private Map<UUID,Integer> members;
 	
 	// federation information
@@ -61,11 +64,11 @@ public class Manifest implements Serializable
 		this.localUUID = localUUID;
 		this.coordinator = null;  // set after creation
 		this.highestHandle = 0;
-		this.members = new HashMap<UUID,Integer>();
+		this.members = new ConcurrentHashMap<UUID,Integer>();
 		
 		// federation information
 		this.fom = null; // set when someone creates a federation
-		this.federates = new HashMap<UUID,FederateInfo>();
+		this.federates = new ConcurrentHashMap<UUID,FederateInfo>();
 		
 		// record the fact that we have joined
 		memberConnectedToChannel( localUUID );
@@ -146,6 +149,14 @@ public class Manifest implements Serializable
 		return handleSet;
 	}
 
+	/**
+	 * @return A read-only view of the UUIDs of all joined federates
+	 */
+	public Set<UUID> getFederateUUIDs()
+	{
+		return Collections.unmodifiableSet( federates.keySet() );
+	}
+
 	public ObjectModel getFom()
 	{
 		return this.fom;
@@ -0,0 +1,140 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.bindings.jgroups.channel;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import org.jgroups.Global;
+import org.jgroups.Header;
+import org.jgroups.conf.ClassConfigurator;
+
+/**
+ * Attached to regular (non-control) messages that are only meant for some of the federates in
+ * the federation, such as attribute updates that only subscribed federates care about. It holds
+ * the handles of the federates that should process the message.
+ * <p/>
+ * These messages are still multicast to the whole channel rather than sent point-to-point, as
+ * JGroups doesn't keep unicast messages in order with multicasts from the same sender. Federates
+ * that aren't in the list drop the message as soon as it arrives, before trying to inflate it.
+ */
+public class TargetHeader extends Header
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	// P = 16, Message 03
+	public static final short HEADER = 1603;
+	static
+	{
+		// register the header type
+		ClassConfigurator.add( HEADER, TargetHeader.class );
+	}
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private int[] targets;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	public TargetHeader()
+	{
+		this.targets = new int[0];
+	}
+
+	public TargetHeader( int[] targets )
+	{
+		this.targets = targets;
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	/**
+	 * @return <code>true</code> if the federate with the given handle is one of the targets
+	 */
+	public boolean contains( int federateHandle )
+	{
+		for( int target : targets )
+		{
+			if( target == federateHandle )
+				return true;
+		}
+
+		return false;
+	}
+
+	public int[] getTargets()
+	{
+		return this.targets;
+	}
+
+	@Override
+	public int serializedSize()
+	{
+		return Global.INT_SIZE + (Global.INT_SIZE * targets.length);
+	}
+
+	@Override
+	public short getMagicId()
+	{
+		return HEADER;
+	}
+
+	@Override
+	public Supplier<? extends Header> create()
+	{
+		return TargetHeader::new;
+	}
+
+	public void writeTo( DataOutput out ) throws IOException
+	{
+		out.writeInt( targets.length );
+		for( int target : targets )
+			out.writeInt( target );
+	}
+
+	public void readFrom( DataInput in ) throws IOException,
+	                                            IllegalAccessException,
+	                                            InstantiationException
+	{
+		int count = in.readInt();
+		this.targets = new int[count];
+		for( int i = 0; i < count; i++ )
+			this.targets[i] = in.readInt();
+	}
+
+	public String toString()
+	{
+		return "Targets"+Arrays.toString( targets );
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+	/**
+	 * Does nothing except make sure the class is loaded and the header type registered with
+	 * JGroups. A federate may never send a targeted message itself, but it still needs to be
+	 * able to read the header when one arrives.
+	 */
+	public static void register()
+	{
+	}
+}
@@ -28,6 +28,8 @@ public class Header
 	public static final byte JOIN_FEDERATION    = 7;
 	public static final byte RESIGN_FEDERATION  = 8;
 	public static final byte DESTROY_FEDERATION = 9;
+	public static final byte ACK_REQUEST        = 10;
+	public static final byte ACK                = 11;
 	
 	public static final byte BUNDLE             = 127;
 
@@ -62,6 +64,8 @@ public class Header
 			case 7: return "JOIN_FEDERATION";
 			case 8: return "RESIGN_FEDERATION";
 			case 9: return "DESTROY_FEDERATION";
+			case 10: return "ACK_REQUEST";
+			case 11: return "ACK";
 			case 127: return "BUNDLE";
 			default: return "UNKNOWN";
 		}
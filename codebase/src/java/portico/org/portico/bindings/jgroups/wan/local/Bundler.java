@@ -74,7 +74,7 @@ public class Bundler
 	private int sizeLimit;          // max bytes to hold onto before release
 	private int timeLimit;          // max amount of time to hold onto messages before release
 	private ByteBuffer buffer;      // store incoming messages here prior to flush
-	private int queuedMessages;     // number of messages we currently have queued
+	private volatile int queuedMessages; // number of messages we currently have queued
 	private long oldestMessage;     // time (millis) when first message turned up in queue
 
 	// output writing
@@ -318,6 +318,14 @@ public class Bundler
 		logger.debug( "Bundler has been shut down" );
 	}
 
+	/**
+	 * @return The number of messages that have been submitted but not yet flushed to the router
+	 */
+	public int getQueuedMessageCount()
+	{
+		return this.queuedMessages;
+	}
+
 	public long getSentMessageCount()
 	{
 		return this.totalMessagesSent;
@@ -257,6 +257,14 @@ public class Gateway
 		this.connected = false;
 	}
 
+	/**
+	 * @return The number of messages waiting to be sent over the WAN, 0 if we aren't connected
+	 */
+	public int getSendBacklog()
+	{
+		return connected ? bundler.getQueuedMessageCount() : 0;
+	}
+
 	//////////////////////////////////////////////////////////////////////////////////////
 	/// Forwarding TO WAN Methods  ///////////////////////////////////////////////////////
 	//////////////////////////////////////////////////////////////////////////////////////
@@ -300,6 +308,8 @@ public class Gateway
 			case ControlHeader.JOIN_FEDERATION:    return Header.JOIN_FEDERATION;
 			case ControlHeader.RESIGN_FEDERATION:  return Header.RESIGN_FEDERATION;
 			case ControlHeader.DESTROY_FEDERATION: return Header.DESTROY_FEDERATION;
+			case ControlHeader.ACK_REQUEST:        return Header.ACK_REQUEST;
+			case ControlHeader.ACK:                return Header.ACK;
 			case ControlHeader.GOODBYE:            return -1; // don't log, but don't process
 			default:                               // drop through
 		}
@@ -416,6 +426,12 @@ public class Gateway
 					case Header.DESTROY_FEDERATION:
 						receiveDestroyFederation( payload );
 						break;
+					case Header.ACK_REQUEST:
+						receiveAckRequest( payload );
+						break;
+					case Header.ACK:
+						receiveAck( payload );
+						break;
 					default:
 						logger.warn( "Unknown message type received: "+Header.toString(header) );
 						break;
@@ -487,6 +503,20 @@ public class Gateway
 			byte[] remainder = BitHelpers.readByteArray( payload, 16, payload.length-16 );
 			forwardToChannel( ControlHeader.newDestroyHeader(), sender, remainder );
 		}
+
+		private void receiveAckRequest( byte[] payload ) throws Exception
+		{
+			UUID sender = BitHelpers.readUUID( payload, 0 );
+			byte[] remainder = BitHelpers.readByteArray( payload, 16, payload.length-16 );
+			forwardToChannel( ControlHeader.newAckRequestHeader(), sender, remainder );
+		}
+
+		private void receiveAck( byte[] payload ) throws Exception
+		{
+			UUID sender = BitHelpers.readUUID( payload, 0 );
+			byte[] remainder = BitHelpers.readByteArray( payload, 16, payload.length-16 );
+			forwardToChannel( ControlHeader.newAckHeader(), sender, remainder );
+		}
 		
 		/**
 		 * Forwards the given message to the local JGroups cluster.
@@ -14,18 +14,27 @@
  */
 package org.portico.bindings.jvm;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
 
 import org.portico.lrc.LRC;
+import org.portico.lrc.LRCMessageQueue;
 import org.portico.lrc.PorticoConstants;
 import org.portico.lrc.compat.JFederateAlreadyExecutionMember;
 import org.portico.lrc.compat.JFederateNotExecutionMember;
 import org.portico.lrc.compat.JInconsistentFDD;
 import org.portico.lrc.compat.JRTIinternalError;
+import org.portico.lrc.metrics.LRCMetrics;
 import org.portico.lrc.model.ModelMerger;
 import org.portico.lrc.model.ObjectModel;
 import org.portico.utils.messaging.PorticoMessage;
@@ -35,6 +44,19 @@ import org.portico.utils.messaging.PorticoMessage;
  * number of {@link JVMConnection}s can register themselves with the broadcaster (assuming they
  * each use a unique name). It is the Broadcasters responsibility to relay messages to each of the
  * connections associated with the federation.
+ * <p/>
+ * Sending doesn't lock the broadcaster. Joins and resigns replace an array of the joined
+ * connections, and senders work off whatever array was current when they started. Messages
+ * that say they are safe to share (see {@link PorticoMessage#isShareable()}) are given to every
+ * federate as is, all others are cloned for each federate so that they can change it without
+ * affecting the others.
+ * <p/>
+ * By default, messages are put into each federate's queue by the sending thread. If the
+ * {@link JVMConnection#PROP_JVM_ASYNC_DELIVERY} property is set, each federate gets its own
+ * delivery thread instead, and the sender just hands the message over to it. Messages from any
+ * one sender still arrive in the order they were sent. A sender can still be working off an
+ * array that has a federate in it that has since resigned, so anything it hands over after that
+ * federate's thread has been shut down is dropped.
  */
 public class Broadcaster
 {
@@ -45,8 +67,10 @@ public class Broadcaster
 	//----------------------------------------------------------
 	//                   INSTANCE VARIABLES
 	//----------------------------------------------------------
-	private Map<FederateInfo,JVMConnection> joinedConnections;
+	private Map<FederateInfo,Receiver> joinedConnections;
+	private volatile Receiver[] roster;
 	private ObjectModel fom;
+	private boolean asyncDelivery;
 	private volatile int FEDERATE_HANDLES = 0;
 
 	//----------------------------------------------------------
@@ -56,13 +80,16 @@ public class Broadcaster
 	public Broadcaster( ObjectModel fom )
 	{
 		this.fom = fom;
-		this.joinedConnections = new HashMap<FederateInfo,JVMConnection>();
+		this.joinedConnections = new HashMap<FederateInfo,Receiver>();
+		this.roster = new Receiver[0];
+		this.asyncDelivery =
+			Boolean.parseBoolean( System.getProperty(JVMConnection.PROP_JVM_ASYNC_DELIVERY,"false") );
 	}
 
 	//----------------------------------------------------------
 	//                    INSTANCE METHODS
 	//----------------------------------------------------------
-	private synchronized JVMConnection getConnection( String federateName )
+	private synchronized Receiver getConnection( String federateName )
 	{
 		for( FederateInfo info : joinedConnections.keySet() )
 		{
@@ -73,7 +100,7 @@ public class Broadcaster
 		return null;
 	}
 	
-	private synchronized JVMConnection removeConnection( String federateName )
+	private synchronized Receiver removeConnection( String federateName )
 	{
 		FederateInfo targetInfo = null;
 		for( FederateInfo temp : joinedConnections.keySet() )
@@ -108,7 +135,9 @@ public class Broadcaster
 		
 		int federateHandle = ++FEDERATE_HANDLES;
 		FederateInfo federateInfo = new FederateInfo( federateHandle, name );
-		this.joinedConnections.put( federateInfo, (JVMConnection)lrc.getConnection() );
+		Receiver receiver = new Receiver( (JVMConnection)lrc.getConnection(), federateHandle, name );
+		this.joinedConnections.put( federateInfo, receiver );
+		this.roster = joinedConnections.values().toArray( new Receiver[0] );
 		return federateHandle;
 	}
 
@@ -118,25 +147,70 @@ public class Broadcaster
 	 */
 	public synchronized void removeLrc( String name ) throws JFederateNotExecutionMember
 	{
-		if( removeConnection(name) == null )
+		Receiver receiver = removeConnection( name );
+		if( receiver == null )
 			throw new JFederateNotExecutionMember( "federate not member: "+name );
+
+		this.roster = joinedConnections.values().toArray( new Receiver[0] );
+		receiver.shutdown();
 	}
 
 	/**
-	 * Sends the given message to the federation. A clone of the message will be produced and
-	 * passed to each federate registered with the broadcaster.
+	 * Sends the given message to the federation. Each federate registered with the broadcaster
+	 * is given the message, or a clone of it if the message can't be shared.
+	 */
+	public void broadcast( PorticoMessage message ) throws Exception
+	{
+		for( Receiver receiver : roster )
+			receiver.deliver( message );
+	}
+	
+	/**
+	 * Same as {@link #broadcast(PorticoMessage)}, except that the reason any federate gives for
+	 * vetoing the message is collected and returned, keyed by the handle of that federate. The
+	 * sender doesn't get to veto its own message. Every other federate has acknowledged the
+	 * message by the time this call returns, so there is no need to wait around for anything.
 	 */
-	public synchronized void broadcast( PorticoMessage message ) throws Exception
+	public Map<Integer,String> broadcastAndCollect( PorticoMessage message ) throws Exception
 	{
-		for( JVMConnection connection : joinedConnections.values() )
+		Receiver[] receivers = this.roster;
+		List<Future<String>> pending = new ArrayList<Future<String>>( receivers.length );
+		for( Receiver receiver : receivers )
 		{
-			// FIX PORT-693: Clone the request so that each kernel can modify it without
-			//               having to worry about affecting others
-			PorticoMessage clone = message.clone( PorticoMessage.class );
-			connection.lrc.getState().getQueue().offer( clone );
+			if( receiver.federateHandle == message.getSourceFederate() )
+				receiver.deliver( message );
+			else
+				pending.add( receiver.deliverAndReport(message) );
 		}
+
+		Map<Integer,String> vetoes = new HashMap<Integer,String>();
+		int index = 0;
+		for( Receiver receiver : receivers )
+		{
+			if( receiver.federateHandle == message.getSourceFederate() )
+				continue;
+
+			String reason = pending.get(index++).get();
+			if( reason != null )
+				vetoes.put( receiver.federateHandle, reason );
+		}
+		
+		return vetoes;
 	}
-	
+
+	/**
+	 * Same as {@link #broadcast(PorticoMessage)}, except that only the federates whose handles
+	 * are in the given set are sent the message.
+	 */
+	public void multicast( PorticoMessage message, Set<Integer> targets ) throws Exception
+	{
+		for( Receiver receiver : roster )
+		{
+			if( targets.contains(receiver.federateHandle) )
+				receiver.deliver( message );
+		}
+	}
+
 	/**
 	 * Returns <code>true</code> if no federates have been registered with the broadcaster
 	 */
@@ -171,8 +245,8 @@ public class Broadcaster
 	public Set<Integer> getFederateHandles()
 	{
 		Set<Integer> handles = new HashSet<Integer>();
-		for( JVMConnection connection : joinedConnections.values() )
-			handles.add( connection.localHandle );
+		for( Receiver receiver : roster )
+			handles.add( receiver.federateHandle );
 		
 		return handles;
 	}
@@ -180,6 +254,113 @@ public class Broadcaster
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
+
+	///////////////////////////////////////////////////////////////////////////////////////
+	///////////////////////////////// Private Inner Class /////////////////////////////////
+	///////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * A joined connection along with the thread that delivers messages to it (if asynchronous
+	 * delivery is turned on). The handle is kept here as the connection doesn't get told what
+	 * it is until after it has joined.
+	 */
+	private class Receiver
+	{
+		private final int federateHandle;
+		private final LRCMessageQueue queue;
+		private final LRCMetrics metrics;
+		private final ExecutorService executor;
+
+		public Receiver( JVMConnection connection, int federateHandle, String federateName )
+		{
+			this.federateHandle = federateHandle;
+			this.queue = connection.lrc.getState().getQueue();
+			this.metrics = connection.lrc.getMetrics();
+			if( asyncDelivery )
+			{
+				final String threadName = "jvm-delivery-"+federateName;
+				this.executor = Executors.newSingleThreadExecutor( new ThreadFactory()
+				{
+					public Thread newThread( Runnable runnable )
+					{
+						Thread thread = new Thread( runnable, threadName );
+						thread.setDaemon( true );
+						return thread;
+					}
+				});
+			}
+			else
+			{
+				this.executor = null;
+			}
+		}
+
+		/**
+		 * Put the message into the queue of this federate, sharing it if we can. If the federate
+		 * has resigned since the sender got hold of it, the message is dropped.
+		 */
+		public void deliver( PorticoMessage message ) throws JRTIinternalError
+		{
+			final PorticoMessage copy = copyFor( message );
+			metrics.messageReceived( copy, 0 );
+			if( executor == null )
+			{
+				queue.offer( copy );
+				return;
+			}
+
+			try
+			{
+				executor.execute( () -> queue.offer(copy) );
+			}
+			catch( RejectedExecutionException ree )
+			{
+				// the federate has gone, there is nothing to deliver to
+			}
+		}
+
+		/**
+		 * Same as {@link #deliver(PorticoMessage)}, except that the result will be the reason the
+		 * federate vetoed the message, or null if it was accepted. A federate that has resigned
+		 * doesn't get a say.
+		 */
+		public Future<String> deliverAndReport( PorticoMessage message ) throws JRTIinternalError
+		{
+			final PorticoMessage copy = copyFor( message );
+			metrics.messageReceived( copy, 0 );
+			if( executor == null )
+				return CompletableFuture.completedFuture( queue.offerAndReport(copy) );
+
+			try
+			{
+				return executor.submit( () -> queue.offerAndReport(copy) );
+			}
+			catch( RejectedExecutionException ree )
+			{
+				// the federate has gone, so it can't veto anything
+				return CompletableFuture.completedFuture( null );
+			}
+		}
+
+		/**
+		 * Let anything already handed to the delivery thread finish, then let it die
+		 */
+		public void shutdown()
+		{
+			if( executor != null )
+				executor.shutdown();
+		}
+
+		private PorticoMessage copyFor( PorticoMessage message ) throws JRTIinternalError
+		{
+			// FIX PORT-693: Clone the request so that each kernel can modify it without
+			//               having to worry about affecting others, unless it says it's safe
+			if( message.isShareable() )
+				return message;
+			else
+				return message.clone( PorticoMessage.class );
+		}
+	}
+
 	private class FederateInfo
 	{
 		public int federateHandle;
@@ -16,6 +16,7 @@ package org.portico.bindings.jvm;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -53,6 +54,9 @@ public class JVMConnection implements IConnection
 	/** The timeout value for the connection to wait for responses */
 	public static final long CONNECTION_TIMEOUT = 100;
 
+	/** If true, each federate gets its own thread that puts messages into its queue */
+	public static final String PROP_JVM_ASYNC_DELIVERY = "portico.jvm.asyncDelivery";
+
 	private static Map<String,Broadcaster> FEDERATIONS = new HashMap<String,Broadcaster>();
 	private static int JVM_CONNECTION_IDS = 0;
 
@@ -121,18 +125,32 @@ public class JVMConnection implements IConnection
 	 */
 	public void broadcast( PorticoMessage message ) throws Exception
 	{
+		lrc.getMetrics().messageSent( message, 0 );
 		federation.broadcast( message );
 	}
 
 	/**
 	 * Sends the request to all other federates associated with the same {@link Broadcaster}
-	 * as this connection and then sleeps for a period defined in {@link #CONNECTION_TIMEOUT}
-	 * milliseconds.
+	 * as this connection. Delivery within the JVM is direct, so each federate has had its say
+	 * by the time the broadcaster returns and no waiting is required.
 	 */
-	public void broadcastAndSleep( PorticoMessage message ) throws Exception
+	public Map<Integer,String> broadcastAndWait( PorticoMessage message ) throws Exception
 	{
-		federation.broadcast( message );
-		PorticoConstants.sleep( CONNECTION_TIMEOUT );
+		lrc.getMetrics().messageSent( message, 0 );
+		return federation.broadcastAndCollect( message );
+	}
+
+	/**
+	 * Sends the request to those federates associated with the same {@link Broadcaster} as this
+	 * connection that are identified in the given set, and then returns.
+	 */
+	public void multicast( PorticoMessage message, Set<Integer> targets ) throws Exception
+	{
+		if( targets.isEmpty() == false )
+		{
+			lrc.getMetrics().messageSent( message, 0 );
+			federation.multicast( message, targets );
+		}
 	}
 
 	///////////////////////////////////////////////////////////////////////////////////////
@@ -227,6 +245,15 @@ public class JVMConnection implements IConnection
 		return FEDERATIONS.keySet().toArray( new String[0] );
 	}
 
+	/**
+	 * Messages are handed straight to the queues of the other federates, so there is never
+	 * anything waiting to be sent.
+	 */
+	public int getSendBacklog()
+	{
+		return 0;
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
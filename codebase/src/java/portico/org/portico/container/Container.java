@@ -15,6 +15,8 @@
 package org.portico.container;
 
 import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -138,9 +140,9 @@ public class Container
 	 * This method will do all the container initialization. This includes:
 	 * <ul>
 	 *   <li>Configuring the logging framework</li>
-	 *   <li>Loading all the libraries in the plugins directory and extending the classpath.
-	 *       This will just store the library information and extend the classpath, it will
-	 *       not load the plugin data yet.</li>
+	 *   <li>Scanning the plugin directories for any additional handler modules and adding
+	 *       them to the {@link HandlerRegistry}. The handlers that come with Portico are
+	 *       registered directly by the registry, so only plugin locations are scanned.</li>
 	 * </ul>
 	 */
 	private void initializeContainer()
@@ -161,6 +163,9 @@ public class Container
 			logger.info( "[RID] Unable to locate a RID file, skipping..." );
 		}
 
+		// find any handlers that live in plugin directories
+		loadPluginModules();
+
 		// Print some information about the loaded Daemons and Handlers
 		logger.info( "Located the following plugins:" );
 		for( IDaemon daemon : daemonManager.getAllDaemons() )
@@ -199,6 +204,39 @@ public class Container
 	////////////////////////////////////////////////////////////////////////////////////////////
 	///////////////////////////////// Container Plugin Methods /////////////////////////////////
 	////////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Scan each of the locations on the plugin path (see {@link #getContainerPluginPath()}) for
+	 * message handlers and add any that are found to the handler registry. The jar files in each
+	 * location (and the location itself, for loose class files) are loaded through a class loader
+	 * that sits on top of the one that loaded Portico, so a plugin jar that happens to contain
+	 * classes we already have won't result in the same handler being registered twice.
+	 * <p/>
+	 * If there are no plugin locations (the normal case) nothing is scanned at all.
+	 */
+	private void loadPluginModules() throws JConfigurationException
+	{
+		for( File location : getContainerPluginPath() )
+		{
+			List<URL> urls = new ArrayList<URL>();
+			urls.add( toURL(location) );
+			File[] contents = location.listFiles();
+			if( contents != null )
+			{
+				for( File file : contents )
+				{
+					if( file.getName().endsWith(".jar") )
+						urls.add( toURL(file) );
+				}
+			}
+
+			logger.debug( "Scanning plugin location ["+location+"] for message handlers" );
+			ClassLoader loader = new URLClassLoader( urls.toArray(new URL[urls.size()]),
+			                                         Container.class.getClassLoader() );
+			// scanning the directory also scans the jar files inside it
+			handlerRegistry.addModules( Module.findModules(urls.get(0),loader) );
+		}
+	}
+
 	/**
 	 * Returns all the user specified locations to search for plugins. This method will extract
 	 * this path from the system propery {@link PorticoConstants#PROPERTY_PLUGIN_PATH} (typically
@@ -206,7 +244,7 @@ public class Container
 	 * <p/>
 	 * Note that if the environment variable RTI_HOME is set, the location RTI_HOME/plugins
 	 * will always be added to the search path (after a test to ensure it exists). If a location on
-	 * the provided path doesn't exist or can't be read, an exception will be thrown.
+	 * the provided path doesn't exist or can't be read, a warning is logged and it is skipped.
 	 * <p/>
 	 * <b>NOTE:</b> The directory $RTI_HOME/plugins will ALWAYS be added to the search path (if,
 	 *              it exists) regardless of whether another path is specified or not.
@@ -222,7 +260,7 @@ public class Container
 		// We don't use the real default location here for two reasons:
 		//  1) we want to make sure we ALWAYS check for the default location (not just when
 		//     the system property isn't set)
-		//  2) we want bad paths to cause an exception EXCEPT when it is the default path,
+		//  2) we want bad paths to be reported EXCEPT when it is the default path,
 		//     which we are happy to allow not to exist
 		// For these reasons, we'll only check for/validate the existence of the default
 		// path if it is explicitly provided in the system property, otherwise we'll do a
@@ -236,9 +274,9 @@ public class Container
 			// check to see if the given path is a valid file
 			File location = new File( tokenizer.nextToken() );
 			if( location.exists() == false )
-				throw new JConfigurationException("(PluginPath) location doesn't exist: "+location);
+				logger.warn( "(PluginPath) location doesn't exist, skipping: "+location );
 			else if( location.canRead() == false )
-				throw new JConfigurationException("(PluginPath) location can't be read: "+location);
+				logger.warn( "(PluginPath) location can't be read, skipping: "+location );
 			else
 				paths.add( getCanonicalFile(location) );
 		}
@@ -251,7 +289,7 @@ public class Container
 		String rtiHome = System.getenv( "RTI_HOME" );
 		if( rtiHome != null )
 		{
-			File defaultLocation = new File( rtiHome + pathSeparator + "plugins" );
+			File defaultLocation = new File( rtiHome, "plugins" );
 			if( defaultLocation.exists() && defaultLocation.canRead() )
 				paths.add( getCanonicalFile(defaultLocation) );
 		}
@@ -276,6 +314,21 @@ public class Container
 			throw new JConfigurationException( "Problem finding canonical file path", ioex );
 		}
 	}
+
+	/**
+	 * Same as {@link #getCanonicalFile(File)}, but for turning a file into a URL.
+	 */
+	private URL toURL( File file ) throws JConfigurationException
+	{
+		try
+		{
+			return file.toURI().toURL();
+		}
+		catch( Exception e )
+		{
+			throw new JConfigurationException( "Problem converting file to URL: "+file, e );
+		}
+	}
 	
 	//----------------------------------------------------------
 	//                     STATIC METHODS
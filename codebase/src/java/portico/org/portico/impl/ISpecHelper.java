@@ -36,4 +36,23 @@ public interface ISpecHelper
 	//                    INSTANCE METHODS
 	//----------------------------------------------------------
 	public HLAVersion getHlaVersion();
+
+	/**
+	 * Called by the LRC before it starts processing a batch of callback messages that it has taken
+	 * from the queue together (see {@link LRC#setTickBatchSize(int)}). Callbacks generated while
+	 * in a batch may be held and delivered to the federate together, as long as that happens by
+	 * the time {@link #callbackBatchComplete()} returns. Does nothing by default.
+	 */
+	public default void callbackBatchStarted()
+	{
+	}
+
+	/**
+	 * Called by the LRC once it has finished processing a batch of callback messages. Any
+	 * callbacks being held for the batch must be delivered before this returns. Does nothing by
+	 * default.
+	 */
+	public default void callbackBatchComplete() throws Exception
+	{
+	}
 }
@@ -14,6 +14,8 @@
  */
 package org.portico.impl.cpp13;
 
+import java.nio.ByteBuffer;
+
 public class FederateAmbassadorLink
 {
 	//----------------------------------------------------------
@@ -83,31 +85,25 @@ public class FederateAmbassadorLink
 
 	public native void provideAttributeValueUpdate( int id, int theObject, int[] handles );
 
+	// the handles, values and tag for reflections and interactions are packed into a single
+	// buffer (see org.portico.utils.HandleValueBuffer)
 	public native void receiveInteraction( int id,
 	                                       int interactionClass,
-	                                       int[] handles,
-	                                       byte[][] values,
-	                                       byte[] userSuppliedTag );
+	                                       ByteBuffer values );
 
 	public native void receiveInteraction( int id,
 	                                       int interactionClass,
-	                                       int[] handles,
-	                                       byte[][] values,
-	                                       byte[] userSuppliedTag,
+	                                       ByteBuffer values,
 	                                       double theTime,
 	                                       int eventRetractionHandle );
 
 	public native void reflectAttributeValues( int id,
 	                                           int theObject,
-	                                           int[] handles,
-	                                           byte[][] values,
-	                                           byte[] userSuppliedTag );
+	                                           ByteBuffer values );
 
 	public native void reflectAttributeValues( int id,
 	                                           int theObject,
-	                                           int[] handles,
-	                                           byte[][] values,
-	                                           byte[] userSuppliedTag,
+	                                           ByteBuffer values,
 	                                           double theTime,
 	                                           int retractionHandle );
 
@@ -14,10 +14,10 @@
  */
 package org.portico.impl.cpp13;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.ByteBuffer;
 
 import org.portico.impl.hla13.types.DoubleTime;
+import org.portico.utils.HandleValueBuffer;
 
 import hla.rti.ArrayIndexOutOfBounds;
 import hla.rti.AttributeHandleSet;
@@ -74,54 +74,68 @@ public class ProxyFederateAmbassador implements FederateAmbassador
 		return handles;
 	}
 
-	private List<Object> fromInteraction( ReceivedInteraction interaction )
+	/**
+	 * Pack the parameters and tag into the buffer they are passed over to the C++ side in
+	 */
+	private ByteBuffer fromInteraction( ReceivedInteraction interaction, byte[] tag )
 	{
-		int[] handles = new int[interaction.size()];
-		byte[][] values = new byte[interaction.size()][];
 		try
 		{
-			for( int i = 0 ; i < interaction.size() ; ++i )
+			int size = interaction.size();
+			int valueBytes = 0;
+			for( int i = 0; i < size; i++ )
+				valueBytes += interaction.getValueLength( i );
+
+			ByteBuffer buffer = HandleValueBuffer.begin( size,
+			                                             HandleValueBuffer.sizeOf(size,valueBytes,tag) );
+			for( int i = 0; i < size; i++ )
 			{
-				handles[i] = interaction.getParameterHandle(i);
-				values[i]  = interaction.getValue(i);
+				HandleValueBuffer.putValue( buffer,
+				                            interaction.getParameterHandle(i),
+				                            interaction.getValueReference(i) );
 			}
+
+			return HandleValueBuffer.putTag( buffer, tag );
 		}
 		catch( ArrayIndexOutOfBounds aioob )
 		{
 			// this should never happen, just print it so at we can at least track it down
 			aioob.printStackTrace();
+			ByteBuffer empty = HandleValueBuffer.begin( 0, HandleValueBuffer.sizeOf(0,0,tag) );
+			return HandleValueBuffer.putTag( empty, tag );
 		}
-
-		// package the information for return
-		ArrayList<Object> list = new ArrayList<Object>();
-		list.add( handles );
-		list.add( values );
-		return list;
 	}
 	
-	private List<Object> fromReflection( ReflectedAttributes attributes )
+	/**
+	 * Pack the attributes and tag into the buffer they are passed over to the C++ side in
+	 */
+	private ByteBuffer fromReflection( ReflectedAttributes attributes, byte[] tag )
 	{
-		int[] handles = new int[attributes.size()];
-		byte[][] values = new byte[attributes.size()][];
 		try
 		{
-			for( int i = 0 ; i < attributes.size() ; ++i )
+			int size = attributes.size();
+			int valueBytes = 0;
+			for( int i = 0; i < size; i++ )
+				valueBytes += attributes.getValueLength( i );
+
+			ByteBuffer buffer = HandleValueBuffer.begin( size,
+			                                             HandleValueBuffer.sizeOf(size,valueBytes,tag) );
+			for( int i = 0; i < size; i++ )
 			{
-				handles[i] = attributes.getAttributeHandle(i);
-				values[i]  = attributes.getValue(i);
+				HandleValueBuffer.putValue( buffer,
+				                            attributes.getAttributeHandle(i),
+				                            attributes.getValueReference(i) );
 			}
+
+			return HandleValueBuffer.putTag( buffer, tag );
 		}
 		catch( ArrayIndexOutOfBounds aioob )
 		{
 			// this should never happen, just print it so at we can at least track it down
 			aioob.printStackTrace();
+			ByteBuffer empty = HandleValueBuffer.begin( 0, HandleValueBuffer.sizeOf(0,0,tag) );
+			return HandleValueBuffer.putTag( empty, tag );
 		}
-
-		// package the information for return
-		ArrayList<Object> list = new ArrayList<Object>();
-		list.add( handles );
-		list.add( values );
-		return list;
 	}
 
 	////////////////////////////////////////////////////////////////////////////////////////
@@ -264,11 +278,8 @@ public class ProxyFederateAmbassador implements FederateAmbassador
 
 	public void receiveInteraction( int arg0, ReceivedInteraction arg1, byte[] arg2 )
 	{
-		List<Object> converted = fromInteraction( arg1 );
-		int[] handles   = (int[])converted.get(0);
-		byte[][] values = (byte[][])converted.get(1);
-		
-		this.tocpp.receiveInteraction( ambassadorId, arg0, handles, values, arg2 );
+		ByteBuffer values = fromInteraction( arg1, arg2 );
+		this.tocpp.receiveInteraction( ambassadorId, arg0, values );
 	}
 
 	public void receiveInteraction( int arg0,
@@ -277,21 +288,16 @@ public class ProxyFederateAmbassador implements FederateAmbassador
 	                                LogicalTime arg3,
 	                                EventRetractionHandle arg4 )
 	{
-		List<Object> converted = fromInteraction( arg1 );
-		int[] handles   = (int[])converted.get(0);
-		byte[][] values = (byte[][])converted.get(1);
+		ByteBuffer values = fromInteraction( arg1, arg2 );
 		double theTime = ((DoubleTime)arg3).getTime();
 		
-		this.tocpp.receiveInteraction( ambassadorId, arg0, handles, values, arg2, theTime, 0 );
+		this.tocpp.receiveInteraction( ambassadorId, arg0, values, theTime, 0 );
 	}
 
 	public void reflectAttributeValues( int arg0, ReflectedAttributes arg1, byte[] arg2 )
 	{
-		List<Object> converted = fromReflection( arg1 );
-		int[] handles   = (int[])converted.get(0);
-		byte[][] values = (byte[][])converted.get(1);
-
-		this.tocpp.reflectAttributeValues( ambassadorId, arg0, handles, values, arg2 );
+		ByteBuffer values = fromReflection( arg1, arg2 );
+		this.tocpp.reflectAttributeValues( ambassadorId, arg0, values );
 	}
 
 	public void reflectAttributeValues( int arg0,
@@ -300,12 +306,10 @@ public class ProxyFederateAmbassador implements FederateAmbassador
 	                                    LogicalTime arg3,
 	                                    EventRetractionHandle arg4 )
 	{
-		List<Object> converted = fromReflection( arg1 );
-		int[] handles   = (int[])converted.get(0);
-		byte[][] values = (byte[][])converted.get(1);
+		ByteBuffer values = fromReflection( arg1, arg2 );
 		double theTime = ((DoubleTime)arg3).getTime();
 		
-		this.tocpp.reflectAttributeValues( ambassadorId, arg0, handles, values, arg2, theTime, 0 );
+		this.tocpp.reflectAttributeValues( ambassadorId, arg0, values, theTime, 0 );
 	}
 
 	public void removeObjectInstance( int arg0, byte[] arg1 )
@@ -19,6 +19,7 @@ import static org.portico.lrc.PorticoConstants.*;
 import java.io.File;
 import java.io.FileInputStream;
 import java.lang.String;
+import java.nio.ByteBuffer;
 import java.util.Properties;
 
 import org.apache.logging.log4j.LogManager;
@@ -30,6 +31,8 @@ import org.portico.impl.hla13.types.HLA13AttributeHandleSet;
 import org.portico.impl.hla13.types.HLA13FederateHandleSet;
 import org.portico.impl.hla13.types.HLA13SuppliedAttributes;
 import org.portico.impl.hla13.types.HLA13SuppliedParameters;
+import org.portico.utils.HandleValueBuffer;
+import org.portico.utils.HandleValueMap;
 
 import hla.rti.CouldNotOpenFED;
 import hla.rti.EventRetractionHandle;
@@ -131,6 +134,17 @@ public class ProxyRtiAmbassador
 		return theAttributes;
 	}
 
+	/**
+	 * Converts the values packed into a buffer by the C++ side into the form expected by the java
+	 * side of the bindings. The values are read out of the buffer, which the C++ side will reuse
+	 * (see {@link HandleValueBuffer}). The tag that follows them is left for
+	 * {@link HandleValueBuffer#readTag(ByteBuffer)}.
+	 */
+	private HandleValueMap convertValues( ByteBuffer buffer )
+	{
+		return HandleValueBuffer.readValues( buffer );
+	}
+
 	/**
 	 * Converts the form that attribute handles are sent over from C++ in into the form expected
 	 * by the java side of the bindings
@@ -648,19 +662,22 @@ public class ProxyRtiAmbassador
 		}
 	}
 
-	public void updateAttributeValues( int theObject, int[] handles, byte[][] values, byte[] tag )
+	public void updateAttributeValues( int theObject, ByteBuffer buffer )
 	{
+		HandleValueMap values = convertValues( buffer );
+		byte[] tag = HandleValueBuffer.readTag( buffer );
+
 		// log the request
 		if( logger.isTraceEnabled() )
 		{
 			logger.trace( "[Request] updateAttributeValues(RO): objectId=" + theObject +
-			              ", attributes=" + arrayToStringWithSizes(handles, values) );
+			              ", attributes=" + mapToStringWithSizes(values) );
 		}
 		
 		try
 		{
 			this.rtiamb.updateAttributeValues( theObject,
-			                                   convertAttributes(handles,values),
+			                                   new HLA13SuppliedAttributes(values),
 			                                   convertTag(tag) );
 		}
 		catch( Exception e )
@@ -669,17 +686,16 @@ public class ProxyRtiAmbassador
 		}
 	}
 
-	public int updateAttributeValues( int oHandle,
-	                                  int[] handles,
-	                                  byte[][] values,
-	                                  byte[] tag,
-	                                  double time )
+	public int updateAttributeValues( int oHandle, ByteBuffer buffer, double time )
 	{
+		HandleValueMap values = convertValues( buffer );
+		byte[] tag = HandleValueBuffer.readTag( buffer );
+
 		// log the request
 		if( logger.isTraceEnabled() )
 		{
 			logger.trace( "[Request] updateAttributeValues(TSO): objectId=" + oHandle +
-			              ", attributes=" + arrayToStringWithSizes(handles, values) +
+			              ", attributes=" + mapToStringWithSizes(values) +
 			              ", time=" + time );
 		}
 		
@@ -687,7 +703,7 @@ public class ProxyRtiAmbassador
 		{
     		LogicalTime jTime = new DoubleTime( time );
     		this.rtiamb.updateAttributeValues( oHandle,
-    		                                   convertAttributes(handles,values),
+    		                                   new HLA13SuppliedAttributes(values),
     		                                   convertTag(tag),
     		                                   jTime );
 		}
@@ -699,19 +715,22 @@ public class ProxyRtiAmbassador
 		return -1;
 	}
 
-	public void sendInteraction( int theInteraction, int[] handles, byte[][] values, byte[] tag )
+	public void sendInteraction( int theInteraction, ByteBuffer buffer )
 	{
+		HandleValueMap values = convertValues( buffer );
+		byte[] tag = HandleValueBuffer.readTag( buffer );
+
 		// log the request
 		if( logger.isTraceEnabled() )
 		{
 			logger.trace( "[Request] sendInteraction(RO): class=" + theInteraction +
-			              ", parameters=" + arrayToStringWithSizes(handles, values) );
+			              ", parameters=" + mapToStringWithSizes(values) );
 		}
 		
 		try
 		{
 			this.rtiamb.sendInteraction( theInteraction,
-			                             convertParameters(handles,values),
+			                             new HLA13SuppliedParameters(values),
 			                             convertTag(tag) );
 		}
 		catch( Exception e )
@@ -720,13 +739,16 @@ public class ProxyRtiAmbassador
 		}
 	}
 
-	public int sendInteraction( int iHan, int[] handles, byte[][] values, byte[] tag, double time )
+	public int sendInteraction( int iHan, ByteBuffer buffer, double time )
 	{
+		HandleValueMap values = convertValues( buffer );
+		byte[] tag = HandleValueBuffer.readTag( buffer );
+
 		// log the request
 		if( logger.isTraceEnabled() )
 		{
 			logger.trace( "[Request] sendInteraction(TSO): class=" + iHan +
-			              ", parameters=" + arrayToStringWithSizes(handles, values) + 
+			              ", parameters=" + mapToStringWithSizes(values) + 
 			              ", time=" + time );
 		}
 		
@@ -735,7 +757,7 @@ public class ProxyRtiAmbassador
     		LogicalTime jTime = new DoubleTime( time );
     
     		this.rtiamb.sendInteraction( iHan,
-    		                             convertParameters(handles,values),
+    		                             new HLA13SuppliedParameters(values),
     		                             convertTag(tag),
     		                             jTime );
 		}
@@ -14,6 +14,8 @@
  */
 package org.portico.impl.cpp1516e;
 
+import java.nio.ByteBuffer;
+
 /**
  * This class provides a set of native methods that allow the RTI to call back to
  * C++ based federate ambassadors. For each C++ federate, we create an intermediate
@@ -156,18 +158,15 @@ public class FederateAmbassadorLink
 	                                           int producingFederate );
 
 	// 6.7
-	// intValueMap expanded into:
-	//    -> int[] attributeHandles
-	//    -> byte[][] attributeValues
+	// intValueMap and tag packed into:
+	//    -> ByteBuffer attributeValues (see org.portico.utils.HandleValueBuffer)
 	//
 	// SupplementalReflectInfo expanded into:
 	//    -> int producingFederate (-1 indicates not provided)
 	//    -> int[] regionHandle (0-length array indicates not provided)
 	public native void reflectAttributeValues( int id,
 	                                           int theObject,
-	                                           int[] attributeHandles,   //intValueMap
-	                                           byte[][] attributeValues, //intValueMap
-	                                           byte[] tag,
+	                                           ByteBuffer attributeValues, //intValueMap + tag
 	                                           int sentOrdering,         //OrderType
 	                                           int theTransport,         //int
 	                                           int producingFederate,    //SupplementalReflectInfo
@@ -178,9 +177,7 @@ public class FederateAmbassadorLink
 	//////////////////////////////////////////////////////////
 	public native void reflectAttributeValues( int id,
 	                                           int theObject,
-	                                           int[] attributeHandles,   //intValueMap
-	                                           byte[][] attributeValues, //intValueMap
-	                                           byte[] tag,
+	                                           ByteBuffer attributeValues, //intValueMap + tag
 	                                           int sentOrdering,         //OrderType
 	                                           int theTransport,         //TransportationTypeHandle
 	                                           double doubleTime,        //LogicalTime     
@@ -190,9 +187,7 @@ public class FederateAmbassadorLink
 
 	public native void reflectAttributeValues( int id,
 	                                           int theObject,
-	                                           int[] attributeHandles,   //intValueMap
-	                                           byte[][] attributeValues, //intValueMap
-	                                           byte[] tag,
+	                                           ByteBuffer attributeValues, //intValueMap + tag
 	                                           int sentOrdering,         //OrderType
 	                                           int theTransport,         //TransportationTypeHandle
 	                                           long longTime,            //LogicalTime
@@ -206,9 +201,7 @@ public class FederateAmbassadorLink
 	//////////////////////////////////////////////////////////
 	public native void reflectAttributeValues( int id,
 	                                           int theObject,
-	                                           int[] attributeHandles,   //intValueMap
-	                                           byte[][] attributeValues, //intValueMap
-	                                           byte[] tag,
+	                                           ByteBuffer attributeValues, //intValueMap + tag
 	                                           int sentOrdering,         //OrderType
 	                                           int theTransport,         //TransportationTypeHandle
 	                                           double doubleTime,        //LogicalTime
@@ -219,9 +212,7 @@ public class FederateAmbassadorLink
 
 	public native void reflectAttributeValues( int id,
 	                                           int theObject,
-	                                           int[] attributeHandles,   //intValueMap
-	                                           byte[][] attributeValues, //intValueMap
-	                                           byte[] tag,
+	                                           ByteBuffer attributeValues, //intValueMap + tag
 	                                           int sentOrdering,         //OrderType
 	                                           int theTransport,         //TransportationTypeHandle
 	                                           long longTime,            //LogicalTime
@@ -231,18 +222,15 @@ public class FederateAmbassadorLink
 	                                           int[] regionHandles );    //SupplementalReflectInfo
 
 	// 6.9
-	// intValueMap expaanded into:
-	//    -> int[] parameterHandles
-	//    -> byte[][] parameterValues
+	// intValueMap and tag packed into:
+	//    -> ByteBuffer parameterValues (see org.portico.utils.HandleValueBuffer)
 	//
 	// SupplementalReceiveInfo expanded into:
 	//    -> int producingFederate (-1 indicates not provided)
 	//    -> int[] regionHandle (0-length array indicates not provided)
 	public native void receiveInteraction( int id,
 	                                       int interactionClass,
-	                                       int[] parameterHandles,       //intValueMap
-	                                       byte[][] parameterValues,     //intValueMap
-	                                       byte[] tag,
+	                                       ByteBuffer parameterValues,   //intValueMap + tag
 	                                       int sentOrdering,             //OrderType
 	                                       int theTransport,             //TransportationTypeHandle
 	                                       int producingFederate,        //SupplementalReceiveInfo
@@ -253,9 +241,7 @@ public class FederateAmbassadorLink
 	//////////////////////////////////////////////////////////
 	public native void receiveInteraction( int id,
 	                                       int interactionClass,
-	                                       int[] parameterHandles,       //intValueMap
-	                                       byte[][] parameterValues,     //intValueMap
-	                                       byte[] tag,
+	                                       ByteBuffer parameterValues,   //intValueMap + tag
 	                                       int sentOrdering,             //OrderType
 	                                       int theTransport,             //TransportationTypeHandle
 	                                       double doubleTime,            //LogicalTime
@@ -265,9 +251,7 @@ public class FederateAmbassadorLink
 
 	public native void receiveInteraction( int id,
 	                                       int interactionClass,
-	                                       int[] parameterHandles,       //intValueMap
-	                                       byte[][] parameterValues,     //intValueMap
-	                                       byte[] tag,
+	                                       ByteBuffer parameterValues,   //intValueMap + tag
 	                                       int sentOrdering,             //OrderType
 	                                       int theTransport,             //TransportationTypeHandle
 	                                       long longTime,                //LogicalTime
@@ -280,9 +264,7 @@ public class FederateAmbassadorLink
 	//////////////////////////////////////////////////////////
 	public native void receiveInteraction( int id,
 	                                       int interactionClass,
-	                                       int[] parameterHandles,       //intValueMap
-	                                       byte[][] parameterValues,     //intValueMap
-	                                       byte[] tag,
+	                                       ByteBuffer parameterValues,   //intValueMap + tag
 	                                       int sentOrdering,             //OrderType
 	                                       int theTransport,             //TransportationTypeHandle
 	                                       double doubleTime,            //LogicalTime
@@ -293,9 +275,7 @@ public class FederateAmbassadorLink
 
 	public native void receiveInteraction( int id,
 	                                       int interactionClass,
-	                                       int[] parameterHandles,       //intValueMap
-	                                       byte[][] parameterValues,     //intValueMap
-	                                       byte[] tag,
+	                                       ByteBuffer parameterValues,   //intValueMap + tag
 	                                       int sentOrdering,             //OrderType
 	                                       int theTransport,             //TransportationTypeHandle
 	                                       long longTime,                //LogicalTime
@@ -14,10 +14,16 @@
  */
 package org.portico.impl.cpp1516e;
 
+import java.nio.ByteBuffer;
 import java.util.Set;
 
 import static org.portico.impl.hla1516e.types.HLA1516eHandle.*;
 
+import org.portico.impl.hla1516e.types.HLA1516eAttributeHandleValueMap;
+import org.portico.impl.hla1516e.types.HLA1516eParameterHandleValueMap;
+import org.portico.utils.HandleValueBuffer;
+import org.portico.utils.HandleValueMap;
+
 import hla.rti1516e.AttributeHandle;
 import hla.rti1516e.AttributeHandleSet;
 import hla.rti1516e.AttributeHandleValueMap;
@@ -141,6 +147,40 @@ public class ProxyFederateAmbassador implements FederateAmbassador
 		return handles;
 	}
 	
+	/**
+	 * Pack the given values and tag into the buffer they are passed over to the C++ side in.
+	 * The maps the RTI gives us sit on top of a {@link HandleValueMap}, which is packed as is.
+	 */
+	private ByteBuffer convert( AttributeHandleValueMap values, byte[] tag )
+	{
+		if( values instanceof HLA1516eAttributeHandleValueMap )
+		{
+			HLA1516eAttributeHandleValueMap map = (HLA1516eAttributeHandleValueMap)values;
+			return HandleValueBuffer.write( map.getHandleValueMap(), tag );
+		}
+
+		HandleValueMap map = new HandleValueMap( values.size() );
+		for( AttributeHandle handle : values.keySet() )
+			map.put( fromHandle(handle), values.get(handle) );
+
+		return HandleValueBuffer.write( map, tag );
+	}
+
+	private ByteBuffer convert( ParameterHandleValueMap values, byte[] tag )
+	{
+		if( values instanceof HLA1516eParameterHandleValueMap )
+		{
+			HLA1516eParameterHandleValueMap map = (HLA1516eParameterHandleValueMap)values;
+			return HandleValueBuffer.write( map.getHandleValueMap(), tag );
+		}
+
+		HandleValueMap map = new HandleValueMap( values.size() );
+		for( ParameterHandle handle : values.keySet() )
+			map.put( fromHandle(handle), values.get(handle) );
+
+		return HandleValueBuffer.write( map, tag );
+	}
+
 	private int convert( OrderType type )
 	{
 		// have to add one to the end because the STUPID IDIOT STANDARD DECLARES CONSTANT
@@ -400,22 +440,12 @@ public class ProxyFederateAmbassador implements FederateAmbassador
 	                                    SupplementalReflectInfo reflectInfo )
 	    throws FederateInternalError
 	{
-		// convert the AttributeHandleValueMap
-		int[] attributeHandles = new int[theAttributes.size()];
-		byte[][] attributeValues = new byte[theAttributes.size()][];
-		int count = 0;
-		for( AttributeHandle handle : theAttributes.keySet() )
-		{
-			attributeHandles[count] = fromHandle(handle);
-			attributeValues[count] = theAttributes.get(handle);
-			count++;
-		}
+		// pack the attributes and tag into a single buffer
+		ByteBuffer attributeValues = convert( theAttributes, tag );
 		
 		link.reflectAttributeValues( ambassadorId,
 		                             fromHandle(theObject),
-		                             attributeHandles,
 		                             attributeValues,
-		                             tag,
 		                             convert(sentOrdering),
 		                             fromHandle(theTransport),
 		                             fromHandle(reflectInfo.getProducingFederate()),
@@ -432,24 +462,14 @@ public class ProxyFederateAmbassador implements FederateAmbassador
 	                                    SupplementalReflectInfo reflectInfo )
 	    throws FederateInternalError
 	{
-		// convert the AttributeHandleValueMap
-		int[] attributeHandles = new int[theAttributes.size()];
-		byte[][] attributeValues = new byte[theAttributes.size()][];
-		int count = 0;
-		for( AttributeHandle handle : theAttributes.keySet() )
-		{
-			attributeHandles[count] = fromHandle(handle);
-			attributeValues[count] = theAttributes.get(handle);
-			count++;
-		}
+		// pack the attributes and tag into a single buffer
+		ByteBuffer attributeValues = convert( theAttributes, tag );
 
 		if( theTime instanceof HLAfloat64Time )
 		{
     		link.reflectAttributeValues( ambassadorId,
     		                             fromHandle(theObject),
-    		                             attributeHandles,
     		                             attributeValues,
-    		                             tag,
     		                             convert(sentOrdering),
     		                             fromHandle(theTransport),
     		                             toDouble(theTime),
@@ -461,9 +481,7 @@ public class ProxyFederateAmbassador implements FederateAmbassador
 		{
     		link.reflectAttributeValues( ambassadorId,
     		                             fromHandle(theObject),
-    		                             attributeHandles,
     		                             attributeValues,
-    		                             tag,
     		                             convert(sentOrdering),
     		                             fromHandle(theTransport),
     		                             toLong(theTime),
@@ -484,24 +502,14 @@ public class ProxyFederateAmbassador implements FederateAmbassador
 	                                    SupplementalReflectInfo reflectInfo )
 	    throws FederateInternalError
 	{
-		// convert the AttributeHandleValueMap
-		int[] attributeHandles = new int[theAttributes.size()];
-		byte[][] attributeValues = new byte[theAttributes.size()][];
-		int count = 0;
-		for( AttributeHandle handle : theAttributes.keySet() )
-		{
-			attributeHandles[count] = fromHandle(handle);
-			attributeValues[count] = theAttributes.get(handle);
-			count++;
-		}
+		// pack the attributes and tag into a single buffer
+		ByteBuffer attributeValues = convert( theAttributes, tag );
 
 		if( theTime instanceof HLAfloat64Time )
 		{
         	link.reflectAttributeValues( ambassadorId,
         	                             fromHandle(theObject),
-        	                             attributeHandles,
         	                             attributeValues,
-        	                             tag,
         	                             convert(sentOrdering),
         	                             fromHandle(theTransport),
         	                             toDouble(theTime),
@@ -514,9 +522,7 @@ public class ProxyFederateAmbassador implements FederateAmbassador
 		{
         	link.reflectAttributeValues( ambassadorId,
         	                             fromHandle(theObject),
-        	                             attributeHandles,
         	                             attributeValues,
-        	                             tag,
         	                             convert(sentOrdering),
         	                             fromHandle(theTransport),
         	                             toLong(theTime),
@@ -539,22 +545,12 @@ public class ProxyFederateAmbassador implements FederateAmbassador
 	                                SupplementalReceiveInfo receiveInfo )
 	    throws FederateInternalError
 	{
-		// convert the ParameterHandleValueMap
-		int[] parameterHandles = new int[theParameters.size()];
-		byte[][] parameterValues = new byte[theParameters.size()][];
-		int count = 0;
-		for( ParameterHandle handle : theParameters.keySet() )
-		{
-			parameterHandles[count] = fromHandle(handle);
-			parameterValues[count] = theParameters.get(handle);
-			count++;
-		}
+		// pack the parameters and tag into a single buffer
+		ByteBuffer parameterValues = convert( theParameters, tag );
 
 		link.receiveInteraction( ambassadorId,
 		                         fromHandle(interactionClass),
-		                         parameterHandles,
 		                         parameterValues,
-		                         tag,
 		                         convert(sentOrdering),
 		                         fromHandle(theTransport),
 		                         fromHandle(receiveInfo.getProducingFederate()),
@@ -571,24 +567,14 @@ public class ProxyFederateAmbassador implements FederateAmbassador
 	                                SupplementalReceiveInfo receiveInfo )
 	    throws FederateInternalError
 	{
-		// convert the ParameterHandleValueMap
-		int[] parameterHandles = new int[theParameters.size()];
-		byte[][] parameterValues = new byte[theParameters.size()][];
-		int count = 0;
-		for( ParameterHandle handle : theParameters.keySet() )
-		{
-			parameterHandles[count] = fromHandle(handle);
-			parameterValues[count] = theParameters.get(handle);
-			count++;
-		}
+		// pack the parameters and tag into a single buffer
+		ByteBuffer parameterValues = convert( theParameters, tag );
 
 		if( theTime instanceof HLAfloat64Time )
 		{
     		link.receiveInteraction( ambassadorId,
     		                         fromHandle(interactionClass),
-    		                         parameterHandles,
     		                         parameterValues,
-    		                         tag,
     		                         convert(sentOrdering),
     		                         fromHandle(theTransport),
     		                         toDouble(theTime),
@@ -600,9 +586,7 @@ public class ProxyFederateAmbassador implements FederateAmbassador
 		{
     		link.receiveInteraction( ambassadorId,
     		                         fromHandle(interactionClass),
-    		                         parameterHandles,
     		                         parameterValues,
-    		                         tag,
     		                         convert(sentOrdering),
     		                         fromHandle(theTransport),
     		                         toLong(theTime),
@@ -623,24 +607,14 @@ public class ProxyFederateAmbassador implements FederateAmbassador
 	                                SupplementalReceiveInfo receiveInfo )
 	    throws FederateInternalError
 	{
-		// convert the ParameterHandleValueMap
-		int[] parameterHandles = new int[theParameters.size()];
-		byte[][] parameterValues = new byte[theParameters.size()][];
-		int count = 0;
-		for( ParameterHandle handle : theParameters.keySet() )
-		{
-			parameterHandles[count] = fromHandle(handle);
-			parameterValues[count] = theParameters.get(handle);
-			count++;
-		}
+		// pack the parameters and tag into a single buffer
+		ByteBuffer parameterValues = convert( theParameters, tag );
 		
 		if( theTime instanceof HLAfloat64Time )
 		{
     		link.receiveInteraction( ambassadorId,
     		                         fromHandle(interactionClass),
-    		                         parameterHandles,
     		                         parameterValues,
-    		                         tag,
     		                         convert(sentOrdering),
     		                         fromHandle(theTransport),
     		                         toDouble(theTime),
@@ -653,9 +627,7 @@ public class ProxyFederateAmbassador implements FederateAmbassador
 		{
     		link.receiveInteraction( ambassadorId,
     		                         fromHandle(interactionClass),
-    		                         parameterHandles,
     		                         parameterValues,
-    		                         tag,
     		                         convert(sentOrdering),
     		                         fromHandle(theTransport),
     		                         toLong(theTime),
@@ -20,6 +20,7 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.util.HashSet;
 import java.util.Properties;
 
@@ -47,6 +48,7 @@ import org.portico.impl.hla1516e.types.HLA1516eRegionHandleSet;
 import org.portico.impl.hla1516e.types.HLA1516eTransportationTypeHandleFactory;
 import org.portico.impl.hla1516e.types.time.DoubleTime;
 import org.portico.impl.hla1516e.types.time.DoubleTimeInterval;
+import org.portico.utils.HandleValueBuffer;
 
 /**
  * This class is provided as the simplified JNI link to C++ code in the interface binding.
@@ -130,28 +132,22 @@ public class ProxyRtiAmbassador
 
 	/**
 	 * Converts the form that parameter values are sent over from C++ in into the form
-	 * expected by the java side of the bindings.
+	 * expected by the java side of the bindings. The values are read out of the buffer, which
+	 * the C++ side will reuse (see {@link HandleValueBuffer}). The tag that follows them is
+	 * left for {@link HandleValueBuffer#readTag(ByteBuffer)}.
 	 */
-	private HLA1516eParameterHandleValueMap convertParameters( int[] handles, byte[][] values )
+	private HLA1516eParameterHandleValueMap convertParameters( ByteBuffer buffer )
 	{
-		HLA1516eParameterHandleValueMap theParameters = new HLA1516eParameterHandleValueMap();
-		for( int i = 0; i < handles.length; ++i )
-			theParameters.put( new HLA1516eHandle(handles[i]), values[i] );
-		
-		return theParameters;
+		return new HLA1516eParameterHandleValueMap( HandleValueBuffer.readValues(buffer) );
 	}
 
 	/**
 	 * Converts the form that attribute values are sent over from C++ in into the form
-	 * expected by the java side of the bindings.
+	 * expected by the java side of the bindings. See {@link #convertParameters(ByteBuffer)}.
 	 */
-	private HLA1516eAttributeHandleValueMap convertAttributes( int[] handles, byte[][] values )
+	private HLA1516eAttributeHandleValueMap convertAttributes( ByteBuffer buffer )
 	{
-		HLA1516eAttributeHandleValueMap theAttributes = new HLA1516eAttributeHandleValueMap();
-		for( int i = 0; i < handles.length; ++i )
-			theAttributes.put( new HLA1516eHandle(handles[i]), values[i] );
-		
-		return theAttributes;
+		return new HLA1516eAttributeHandleValueMap( HandleValueBuffer.readValues(buffer) );
 	}
 
 	/**
@@ -868,17 +864,12 @@ public class ProxyRtiAmbassador
 	}
 
 	// 6.10
-	public void updateAttributeValues( int theObject,
-	                                   int[] attributes,
-	                                   byte[][] values,
-	                                   byte[] tag )
+	public void updateAttributeValues( int theObject, ByteBuffer buffer )
 	{
 		try
 		{
-			HLA1516eAttributeHandleValueMap attributeValues = new HLA1516eAttributeHandleValueMap();
-			for( int i = 0; i < attributes.length; i++ )
-				attributeValues.put( new HLA1516eHandle(attributes[i]), values[i] );
-
+			HLA1516eAttributeHandleValueMap attributeValues = convertAttributes( buffer );
+			byte[] tag = HandleValueBuffer.readTag( buffer );
 			rtiamb.updateAttributeValues( new HLA1516eHandle(theObject), attributeValues, tag );
 		}
 		catch( Exception e )
@@ -888,19 +879,14 @@ public class ProxyRtiAmbassador
 	}
 
 	// 6.10
-	public int updateAttributeValues( int theObject,
-	                                  int[] attributes,
-	                                  byte[][] values,
-	                                  byte[] tag,
-	                                  double theTime )
+	public int updateAttributeValues( int theObject, ByteBuffer buffer, double theTime )
 	{
 		try
 		{
 			HLA1516eHandle objectHandle = new HLA1516eHandle( theObject );
-			HLA1516eAttributeHandleValueMap attributeValues = new HLA1516eAttributeHandleValueMap();
+			HLA1516eAttributeHandleValueMap attributeValues = convertAttributes( buffer );
+			byte[] tag = HandleValueBuffer.readTag( buffer );
 			DoubleTime time = new DoubleTime( theTime );
-			for( int i = 0; i < attributes.length; i++ )
-				attributeValues.put( new HLA1516eHandle(attributes[i]), values[i] );
 
 			MessageRetractionReturn result = rtiamb.updateAttributeValues( objectHandle,
 			                                                               attributeValues,
@@ -916,17 +902,12 @@ public class ProxyRtiAmbassador
 	}
 
 	// 6.12
-	public void sendInteraction( int theInteraction,
-	                             int[] parameters,
-	                             byte[][] values,
-	                             byte[] tag )
+	public void sendInteraction( int theInteraction, ByteBuffer buffer )
 	{
 		try
 		{
-			HLA1516eParameterHandleValueMap parameterValues = new HLA1516eParameterHandleValueMap();
-			for( int i = 0; i < parameters.length; i++ )
-				parameterValues.put( new HLA1516eHandle(parameters[i]), values[i] );
-
+			HLA1516eParameterHandleValueMap parameterValues = convertParameters( buffer );
+			byte[] tag = HandleValueBuffer.readTag( buffer );
 			rtiamb.sendInteraction( new HLA1516eHandle(theInteraction), parameterValues, tag );
 		}
 		catch( Exception e )
@@ -936,19 +917,14 @@ public class ProxyRtiAmbassador
 	}
 
 	// 6.12
-	public int sendInteraction( int theInteraction,
-	                            int[] parameters,
-	                            byte[][] values,
-	                            byte[] tag,
-	                            double theTime )
+	public int sendInteraction( int theInteraction, ByteBuffer buffer, double theTime )
 	{
 		try
 		{
 			HLA1516eHandle classHandle = new HLA1516eHandle( theInteraction );
-			HLA1516eParameterHandleValueMap parameterValues = new HLA1516eParameterHandleValueMap();
+			HLA1516eParameterHandleValueMap parameterValues = convertParameters( buffer );
+			byte[] tag = HandleValueBuffer.readTag( buffer );
 			DoubleTime time = new DoubleTime( theTime );
-			for( int i = 0; i < parameters.length; i++ )
-				parameterValues.put( new HLA1516eHandle(parameters[i]), values[i] );
 
 			MessageRetractionReturn result = rtiamb.sendInteraction( classHandle,
 			                                                         parameterValues,
@@ -1855,13 +1831,30 @@ public class ProxyRtiAmbassador
 	// 10.13
 	public double getUpdateRateValue( String updateRateDesignator )
 	{
-		return 0.0;
+		try
+		{
+			return rtiamb.getUpdateRateValue( updateRateDesignator );
+		}
+		catch( Exception e )
+		{
+			ExceptionManager.pushException( this.id, e );
+			return 0.0;
+		}
 	}
 
 	// 10.14
 	public double getUpdateRateValueForAttribute( int theObject, int theAttribute )
 	{
-		return 0.0;
+		try
+		{
+			return rtiamb.getUpdateRateValueForAttribute( new HLA1516eHandle(theObject),
+			                                              new HLA1516eHandle(theAttribute) );
+		}
+		catch( Exception e )
+		{
+			ExceptionManager.pushException( this.id, e );
+			return 0.0;
+		}
 	}
 
 	// 10.15
@@ -1891,7 +1891,7 @@ public class Rti13Ambassador implements RTIambassadorEx
 		// 1. create the message and pass it to the LRC sink //
 		///////////////////////////////////////////////////////
 		HLA13ByteArrayMap map = convertAttributes( theAttributes );
-		UpdateAttributes request = new UpdateAttributes( theObject, tag, map.toJavaMap() );
+		UpdateAttributes request = new UpdateAttributes( theObject, tag, map.toHandleValueMap() );
 		ResponseMessage response = processMessage( request );
 
 		////////////////////////////
@@ -1968,7 +1968,7 @@ public class Rti13Ambassador implements RTIambassadorEx
 		HLA13ByteArrayMap map = convertAttributes( theAttributes );
 		UpdateAttributes request = new UpdateAttributes( theObject,
 		                                                 tag,
-		                                                 map.toJavaMap(),
+		                                                 map.toHandleValueMap(),
 		                                                 convertTime(theTime) );
 		ResponseMessage response = processMessage( request );
 
@@ -2045,7 +2045,7 @@ public class Rti13Ambassador implements RTIambassadorEx
 		// 1. create the message and pass it to the LRC sink //
 		///////////////////////////////////////////////////////
 		HLA13ByteArrayMap map = convertParameters( theParameters );
-		SendInteraction request = new SendInteraction( interaction, tag, map.toJavaMap() );
+		SendInteraction request = new SendInteraction( interaction, tag, map.toHandleValueMap() );
 		ResponseMessage response = processMessage( request );
 
 		////////////////////////////
@@ -2122,7 +2122,7 @@ public class Rti13Ambassador implements RTIambassadorEx
 		HLA13ByteArrayMap map = convertParameters( theParameters );
 		SendInteraction request = new SendInteraction( interaction,
 		                                               tag,
-		                                               map.toJavaMap(),
+		                                               map.toHandleValueMap(),
 		                                               convertTime(theTime) );
 		ResponseMessage response = processMessage( request );
 
@@ -5028,7 +5028,7 @@ public class Rti13Ambassador implements RTIambassadorEx
 		HLA13ByteArrayMap map = convertParameters( theParameters );
 		int regionToken = convertRegion(theRegion).getToken();
 		SendInteraction request =
-			new SendInteraction( theInteraction, tag, map.toJavaMap(), regionToken );
+			new SendInteraction( theInteraction, tag, map.toHandleValueMap(), regionToken );
 		ResponseMessage response = processMessage( request );
 
 		////////////////////////////
@@ -5117,7 +5117,7 @@ public class Rti13Ambassador implements RTIambassadorEx
 		int regionToken = convertRegion(theRegion).getToken();
 		SendInteraction request = new SendInteraction( theInteraction,
 		                                               tag,
-		                                               map.toJavaMap(),
+		                                               map.toHandleValueMap(),
 		                                               regionToken,
 		                                               convertTime(theTime) );
 		ResponseMessage response = processMessage( request );
@@ -5739,7 +5739,7 @@ public class Rti13Ambassador implements RTIambassadorEx
 		helper.checkAccess();
 		
 		// look the region up in the region store
-		RegionInstance region = helper.getState().getRegionStore().getRegion( regionToken );
+		RegionInstance region = helper.getState().getRegionStore().getRegionWeCreated( regionToken );
 		if( region == null )
 			throw new RegionNotKnown( "region token: " + regionToken );
 		else
@@ -5761,8 +5761,9 @@ public class Rti13Ambassador implements RTIambassadorEx
 			HLA13Region hla13Region = (HLA13Region)region;
 			// we could just get the region handle directly from the given instance, but
 			// we only want to return the handle if this is a region WE (the current LRC)
-			// knows about. Thus, we have to consult the LRCRegionStore
-			if( helper.getState().getRegionStore().containsRegion(hla13Region) )
+			// created. Thus, we have to consult the LRCRegionStore
+			if( hla13Region != null &&
+			    helper.getState().getRegionStore().getRegionWeCreated(hla13Region.getRegionHandle()) != null )
 				return hla13Region.getRegionHandle();
 			else
 				throw new RegionNotKnown( "Region is unknown to this federate" );
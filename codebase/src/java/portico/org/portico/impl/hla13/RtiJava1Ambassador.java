@@ -1789,7 +1789,7 @@ public class RtiJava1Ambassador
 		///////////////////////////////////////////////////////
 		UpdateAttributes request = new UpdateAttributes( theObject,
 		                                                 tag.getBytes(),
-		                                                 map.toJavaMap(),
+		                                                 map.toHandleValueMap(),
 		                                                 time );
 		ResponseMessage response = processMessage( request );
 
@@ -1869,7 +1869,7 @@ public class RtiJava1Ambassador
 		HLA13ByteArrayMap map = theAttributes.toPorticoMap();
 		UpdateAttributes request = new UpdateAttributes( theObject,
 		                                                 tag.getBytes(),
-		                                                 map.toJavaMap() );
+		                                                 map.toHandleValueMap() );
 		ResponseMessage response = processMessage( request );
 
 		////////////////////////////
@@ -1958,7 +1958,7 @@ public class RtiJava1Ambassador
 		///////////////////////////////////////////////////////
 		SendInteraction request = new SendInteraction( theInteraction,
 		                                               tag.getBytes(),
-		                                               map.toJavaMap(),
+		                                               map.toHandleValueMap(),
 		                                               time );
 		ResponseMessage response = processMessage( request );
 		
@@ -2036,7 +2036,7 @@ public class RtiJava1Ambassador
 		HLA13ByteArrayMap map = theParameters.toPorticoMap();
 		
 		SendInteraction request =
-			new SendInteraction( iHandle, tag.getBytes(), map.toJavaMap() );
+			new SendInteraction( iHandle, tag.getBytes(), map.toHandleValueMap() );
 		ResponseMessage response = processMessage( request );
 
 		////////////////////////////
@@ -4971,7 +4971,7 @@ public class RtiJava1Ambassador
 		///////////////////////////////////////////////////////
 		SendInteraction request = new SendInteraction( theInteraction,
 		                                               tag.getBytes(),
-		                                               map.toJavaMap(),
+		                                               map.toHandleValueMap(),
 		                                               convertRegion(theRegion).getToken(),
 		                                               time );
 		ResponseMessage response = processMessage( request );
@@ -5063,7 +5063,7 @@ public class RtiJava1Ambassador
 		HLA13ByteArrayMap map = theParameters.toPorticoMap();
 		SendInteraction request = new SendInteraction( theInteraction,
 		                                               tag.getBytes(),
-		                                               map.toJavaMap(),
+		                                               map.toHandleValueMap(),
 		                                               convertRegion(theRegion).getToken() );
 		ResponseMessage response = processMessage( request );
 
@@ -5689,7 +5689,7 @@ public class RtiJava1Ambassador
 		helper.checkAccess();
 		
 		// look the region up in the region store
-		RegionInstance region = helper.getState().getRegionStore().getRegion( regionToken );
+		RegionInstance region = helper.getState().getRegionStore().getRegionWeCreated( regionToken );
 		if( region == null )
 			throw new RegionNotKnown( "region token: " + regionToken );
 		else
@@ -5711,8 +5711,9 @@ public class RtiJava1Ambassador
 			Java1Region java1Region = (Java1Region)region;
 			// we could just get the region handle directly from the given instance, but
 			// we only want to return the handle if this is a region WE (the current LRC)
-			// knows about. Thus, we have to consult the LRCRegionStore
-			if( helper.getState().getRegionStore().containsRegion(java1Region) )
+			// created. Thus, we have to consult the LRCRegionStore
+			if( java1Region != null &&
+			    helper.getState().getRegionStore().getRegionWeCreated(java1Region.getRegionHandle()) != null )
 				return java1Region.getRegionHandle();
 			else
 				throw new RegionNotKnown( "Region is unknown to this federate" );
@@ -17,13 +17,13 @@ package org.portico.impl.hla13.handlers;
 import hla.rti13.java1.EncodingHelpers;
 import hla.rti13.java1.ReceivedInteraction;
 
-import java.util.HashMap;
 import java.util.Map;
 
 import org.portico.impl.hla13.types.DoubleTime;
 import org.portico.impl.hla13.types.HLA13ReceivedInteraction;
 import org.portico.lrc.model.RegionInstance;
 import org.portico.lrc.services.object.msg.SendInteraction;
+import org.portico.utils.HandleValueMap;
 import org.portico.utils.messaging.MessageContext;
 import org.portico.utils.messaging.MessageHandler;
 
@@ -62,7 +62,7 @@ public class ReceiveInteractionCallbackHandler extends HLA13CallbackHandler
 	{
 		SendInteraction request = context.getRequest( SendInteraction.class, this );
 		int classHandle = request.getInteractionId();
-		HashMap<Integer,byte[]> parameters = request.getParameters();
+		HandleValueMap parameters = request.getParameters();
 		double timestamp = request.getTimestamp();
 
 		// log the callback
@@ -17,13 +17,12 @@ package org.portico.impl.hla13.handlers;
 import hla.rti13.java1.EncodingHelpers;
 import hla.rti13.java1.ReflectedAttributes;
 
-import java.util.HashMap;
 import java.util.Map;
 
 import org.portico.impl.hla13.types.DoubleTime;
 import org.portico.impl.hla13.types.HLA13ReflectedAttributes;
 import org.portico.lrc.services.object.msg.UpdateAttributes;
-import org.portico.lrc.services.object.msg.UpdateAttributes.FilteredAttribute;
+import org.portico.lrc.services.object.msg.UpdateAttributes.FilteredAttributes;
 import org.portico.utils.messaging.MessageContext;
 import org.portico.utils.messaging.MessageHandler;
 
@@ -62,8 +61,7 @@ public class ReflectAttributesCallbackHandler extends HLA13CallbackHandler
 	{
 		UpdateAttributes request = context.getRequest( UpdateAttributes.class, this );
 		int objectHandle = request.getObjectId();
-		HashMap<Integer,byte[]> attributes = request.getAttributes();
-		HashMap<Integer,FilteredAttribute> filteredAttributes = request.getFilteredAttributes();
+		FilteredAttributes filteredAttributes = UpdateAttributes.getFilteredAttributes( context );
 		double timestamp = request.getTimestamp();
 
 		// log the callback
@@ -73,18 +71,8 @@ public class ReflectAttributesCallbackHandler extends HLA13CallbackHandler
 			if( request.isTimestamped() )
 				timeInfo = ",time:"+timestamp+") (TSO)";
 
-			// strip the supplied attributes of those that were not filtered out - this is a hack
-			// to deal with the new way of handling regions and filtered attributes
-			HashMap<Integer,byte[]> filteredValuesOnly = new HashMap<Integer,byte[]>();
-			for( Integer key : attributes.keySet() )
-			{
-				if( filteredAttributes.containsKey(key) )
-					filteredValuesOnly.put(key,attributes.get(key) );
-			}
-			
-			
 			logger.trace( "CALLBACK reflectAttributeValues(object="+objectHandle+",attributes="+
-			              super.acMonikerWithSizes(filteredValuesOnly)+timeInfo );
+			              super.acMonikerWithSizes(filteredAttributes.getValues())+timeInfo );
 		}
 		
 		// do the callback
@@ -24,7 +24,8 @@ import java.util.List;
 import java.util.Map;
 
 import org.portico.lrc.model.RegionInstance;
-import org.portico.lrc.services.object.msg.UpdateAttributes.FilteredAttribute;
+import org.portico.lrc.services.object.msg.UpdateAttributes.FilteredAttributes;
+import org.portico.utils.HandleValueMap;
 
 /**
  * This class provides the common Map "functionality" required by the HLA 1.3 spec. Implementations
@@ -62,8 +63,17 @@ public class HLA13ByteArrayMap implements Serializable
 
 	public HLA13ByteArrayMap( Map<Integer,byte[]> map )
 	{
-		this();
-		
+		this( map.size() );
+
+		if( map instanceof HandleValueMap )
+		{
+			HandleValueMap values = (HandleValueMap)map;
+			for( int i = 0; i < values.size(); i++ )
+				this.pairs.add( new Pair(values.handleAt(i),values.valueAt(i)) );
+
+			return;
+		}
+
 		for( Integer key : map.keySet() )
 		{
 			this.pairs.add( new Pair(key,map.get(key) ) );
@@ -80,13 +90,14 @@ public class HLA13ByteArrayMap implements Serializable
 	 * the filtered information and will populate the local array-map from it. This only applies
 	 * to attribute reflections and not interactions. 
 	 */
-	public void populateForCallback( Map<Integer,FilteredAttribute> filteredAttributes )
+	public void populateForCallback( FilteredAttributes filteredAttributes )
 	{
-		for( Integer key : filteredAttributes.keySet() )
+		HandleValueMap values = filteredAttributes.getValues();
+		for( int i = 0; i < values.size(); i++ )
 		{
-			FilteredAttribute filtered = filteredAttributes.get( key );
-			this.pairs.add( new Pair(key,filtered.value) );
-			this.regions.add( filtered.region );
+			int handle = values.handleAt( i );
+			this.pairs.add( new Pair(handle,values.valueAt(i)) );
+			this.regions.add( filteredAttributes.getRegion(handle) );
 		}
 	}
 	
@@ -115,6 +126,19 @@ public class HLA13ByteArrayMap implements Serializable
 		return map;
 	}
 	
+	/**
+	 * Non-standard method. Convert this into the map that Portico carries handles and values
+	 * around in internally. As with {@link #toJavaMap()}, the returned map is not tied to this one.
+	 */
+	public HandleValueMap toHandleValueMap()
+	{
+		HandleValueMap map = new HandleValueMap( pairs.size() );
+		for( Pair pair : pairs )
+			map.put( pair.handle, pair.value );
+
+		return map;
+	}
+
 	/**
 	 * Add pair beyond last index.
 	 * 
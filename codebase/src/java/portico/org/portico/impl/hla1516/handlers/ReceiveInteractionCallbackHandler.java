@@ -16,7 +16,6 @@ package org.portico.impl.hla1516.handlers;
 
 import hla.rti1516.FederateAmbassador;
 
-import java.util.HashMap;
 import java.util.Map;
 
 import org.portico.impl.hla1516.Impl1516Helper;
@@ -26,6 +25,7 @@ import org.portico.impl.hla1516.types.HLA1516ParameterHandleValueMap;
 import org.portico.lrc.LRCMessageHandler;
 import org.portico.lrc.PorticoConstants;
 import org.portico.lrc.services.object.msg.SendInteraction;
+import org.portico.utils.HandleValueMap;
 import org.portico.utils.messaging.MessageContext;
 import org.portico.utils.messaging.MessageHandler;
 
@@ -66,7 +66,7 @@ public class ReceiveInteractionCallbackHandler extends LRCMessageHandler
 	{
 		SendInteraction request = context.getRequest( SendInteraction.class, this );
 		int classHandle = request.getInteractionId();
-		HashMap<Integer,byte[]> parameters = request.getParameters();
+		HandleValueMap parameters = request.getParameters();
 		double timestamp = request.getTimestamp();
 
 		// convert the attributes into an appropriate form
@@ -16,7 +16,6 @@ package org.portico.impl.hla1516.handlers;
 
 import hla.rti1516.FederateAmbassador;
 
-import java.util.HashMap;
 import java.util.Map;
 
 import org.portico.impl.hla1516.Impl1516Helper;
@@ -26,7 +25,7 @@ import org.portico.impl.hla1516.types.HLA1516ObjectInstanceHandle;
 import org.portico.lrc.LRCMessageHandler;
 import org.portico.lrc.PorticoConstants;
 import org.portico.lrc.services.object.msg.UpdateAttributes;
-import org.portico.lrc.services.object.msg.UpdateAttributes.FilteredAttribute;
+import org.portico.utils.HandleValueMap;
 import org.portico.utils.messaging.MessageContext;
 import org.portico.utils.messaging.MessageHandler;
 
@@ -67,7 +66,9 @@ public class ReflectAttributesCallbackHandler extends LRCMessageHandler
 	{
 		UpdateAttributes request = context.getRequest( UpdateAttributes.class, this );
 		int objectHandle = request.getObjectId();
-		HashMap<Integer,byte[]> attributes = getFilteredAttributes( request );
+		// the subscribed regions that come with the filtered attributes aren't part of the
+		// callback in 1516, only the values are delivered
+		HandleValueMap attributes = UpdateAttributes.getFilteredAttributes( context ).getValues();
 		double timestamp = request.getTimestamp();
 
 		// convert the attributes into an appropriate form
@@ -110,23 +111,6 @@ public class ReflectAttributesCallbackHandler extends LRCMessageHandler
 		context.success();
 	}
 
-	/**
-	 * The set of filtered attributes that should be delivered to the federate are contained in a
-	 * Map<Integer,FilteredAttribute> where FilteredAttribute contains the byte[] value and the
-	 * subscription region that overlapped with the sending region. This information is put into
-	 * the information returned in the callback in HLA 1.3, but isn't in 1516. This method converts
-	 * that map into a Map<Integer,byte[]> we can deliver as part of a 1516 callback.
-	 */
-	private HashMap<Integer,byte[]> getFilteredAttributes( UpdateAttributes request )
-	{
-		HashMap<Integer,byte[]> filteredSet = new HashMap<Integer,byte[]>();
-		HashMap<Integer,FilteredAttribute> received = request.getFilteredAttributes();
-		for( Integer attribute : received.keySet() )
-			filteredSet.put( attribute, received.get(attribute).value );
-		
-		return filteredSet;
-	}
-
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -0,0 +1,54 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.impl.hla1516e;
+
+import java.util.List;
+
+import hla.rti1516e.FederateAmbassador;
+import hla.rti1516e.exceptions.FederateInternalError;
+
+/**
+ * Portico extension to the standard IEEE-1516 (2010) {@link FederateAmbassador} that lets a
+ * federate receive many reflections in a single call.
+ * <p/>
+ * Batching is turned off by default. To turn it on, give the LRC a tick batch size larger than
+ * one, either through {@link Rti1516eAmbassadorEx#setCallbackBatchSize(int)} or the
+ * <code>portico.lrc.tick.batchSize</code> RID property. When a call to
+ * <code>evokeMultipleCallbacks()</code> takes a batch of messages from the queue, all the
+ * reflections in that batch are handed to {@link #reflectAttributeValues(List)} together
+ * instead of one <code>reflectAttributeValues()</code> call for each.
+ * <p/>
+ * Reflections are never delivered out of order with respect to other callbacks. If any other
+ * callback (a discovery, an interaction, a removal, ...) comes up in the middle of a batch, the
+ * reflections held so far are delivered before it.
+ * <p/>
+ * <code>evokeCallback()</code> only ever processes one message, so reflections it delivers go to
+ * the regular <code>reflectAttributeValues()</code> methods, as do all reflections delivered
+ * while batching is off or when the HLA_IMMEDIATE callback model is in use.
+ * <p/>
+ * This interface is currently only supported by the Portico RTI.
+ */
+public interface BatchFederateAmbassador extends FederateAmbassador
+{
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	/**
+	 * Receive a batch of reflections, in the order they would otherwise have been delivered.
+	 * The list and its contents are only valid for the duration of the call. Copy anything that
+	 * needs to be kept.
+	 */
+	public void reflectAttributeValues( List<Reflection> reflections ) throws FederateInternalError;
+}
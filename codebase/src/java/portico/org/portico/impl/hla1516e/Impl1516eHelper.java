@@ -17,6 +17,7 @@ package org.portico.impl.hla1516e;
 import hla.rti1516e.CallbackModel;
 import hla.rti1516e.FederateAmbassador;
 import hla.rti1516e.exceptions.CallNotAllowedFromWithinCallback;
+import hla.rti1516e.exceptions.FederateInternalError;
 import hla.rti1516e.exceptions.FederateNotExecutionMember;
 import hla.rti1516e.exceptions.InTimeAdvancingState;
 import hla.rti1516e.exceptions.InvalidLogicalTime;
@@ -28,6 +29,11 @@ import hla.rti1516e.exceptions.RestoreInProgress;
 import hla.rti1516e.exceptions.SaveInProgress;
 import hla.rti1516e.exceptions.SynchronizationPointLabelNotAnnounced;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.apache.logging.log4j.Logger;
 
 import org.portico.impl.HLAVersion;
@@ -45,6 +51,7 @@ import org.portico.lrc.compat.JSaveInProgress;
 import org.portico.lrc.compat.JSynchronizationLabelNotAnnounced;
 import org.portico.lrc.compat.JTimeAdvanceAlreadyInProgress;
 import org.portico.lrc.model.ObjectModel;
+import org.portico.lrc.model.RegionInstance;
 import org.portico.utils.messaging.MessageContext;
 
 /**
@@ -72,6 +79,14 @@ public class Impl1516eHelper implements ISpecHelper
 	private CallbackModel callbackModel;
 	
 	private FederateAmbassador fedamb;
+	
+	// callback batching //
+	private boolean batching;
+	private List<Reflection> heldReflections;
+
+	// data distribution management //
+	private Map<Integer,RegionInstance> regions;
+
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
@@ -83,6 +98,9 @@ public class Impl1516eHelper implements ISpecHelper
 			this.lrc = new LRC( this );
 			this.state = this.lrc.getState();
 			this.callbackModel = CallbackModel.HLA_EVOKED;
+			this.batching = false;
+			this.heldReflections = new ArrayList<Reflection>();
+			this.regions = new HashMap<Integer,RegionInstance>();
 		}
 		catch( JConfigurationException jce )
 		{
@@ -126,6 +144,71 @@ public class Impl1516eHelper implements ISpecHelper
 		this.callbackModel = callbackModel;
 	}
 
+	/**
+	 * If the federate ambassador is a {@link BatchFederateAmbassador}, start holding reflections
+	 * so they can be delivered together when the batch completes.
+	 */
+	@Override
+	public void callbackBatchStarted()
+	{
+		this.batching = this.fedamb instanceof BatchFederateAmbassador;
+	}
+
+	/**
+	 * Deliver any reflections we held on to during the batch.
+	 */
+	@Override
+	public void callbackBatchComplete() throws FederateInternalError
+	{
+		this.batching = false;
+		flushReflections();
+	}
+
+	/**
+	 * @return <code>true</code> if we are in the middle of a callback batch and reflections
+	 *         should be handed to {@link #holdReflection(Reflection)} rather than delivered
+	 */
+	public boolean isBatchingReflections()
+	{
+		return this.batching;
+	}
+
+	/**
+	 * Hold on to the given reflection until the current callback batch completes, or until
+	 * another callback has to be delivered (see {@link #flushReflections()}).
+	 */
+	public void holdReflection( Reflection reflection )
+	{
+		this.heldReflections.add( reflection );
+	}
+
+	/**
+	 * Deliver any held reflections to the {@link BatchFederateAmbassador} in a single call. This
+	 * must be called before delivering any other callback, so that the federate still sees
+	 * everything in the order it was received.
+	 */
+	public void flushReflections() throws FederateInternalError
+	{
+		if( heldReflections.isEmpty() )
+			return;
+
+		// the federate ambassador could have gone away in the middle of the batch
+		if( (fedamb instanceof BatchFederateAmbassador) == false )
+		{
+			heldReflections.clear();
+			return;
+		}
+
+		try
+		{
+			((BatchFederateAmbassador)fedamb).reflectAttributeValues( heldReflections );
+		}
+		finally
+		{
+			heldReflections.clear();
+		}
+	}
+
 	public void processMessage( MessageContext context ) throws Exception
 	{
 		this.lrc.getOutgoingSink().process( context );
@@ -365,6 +448,34 @@ public class Impl1516eHelper implements ISpecHelper
 	protected void reinitializeLrc()
 	{
 		this.lrc.reinitialize();
+		this.regions.clear();
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	////////////////////////// Region Helper Methods ///////////////////////////
+	////////////////////////////////////////////////////////////////////////////
+	/**
+	 * In 1516e, range bounds are set on a region one at a time and only take effect across the
+	 * federation when they are committed. We hold a working copy of each region this federate
+	 * creates for the bounds to be set on, and send it out when the modifications are committed.
+	 */
+	public void addRegion( RegionInstance region )
+	{
+		this.regions.put( region.getToken(), region );
+	}
+
+	/**
+	 * @return The working copy of the region with the given token, or <code>null</code> if this
+	 *         federate didn't create a region with that token
+	 */
+	public RegionInstance getRegion( int regionToken )
+	{
+		return this.regions.get( regionToken );
+	}
+
+	public RegionInstance removeRegion( int regionToken )
+	{
+		return this.regions.remove( regionToken );
 	}
 
 	//----------------------------------------------------------
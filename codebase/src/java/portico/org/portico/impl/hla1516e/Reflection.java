@@ -0,0 +1,124 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.impl.hla1516e;
+
+import hla.rti1516e.AttributeHandleValueMap;
+import hla.rti1516e.FederateAmbassador.SupplementalReflectInfo;
+import hla.rti1516e.LogicalTime;
+import hla.rti1516e.ObjectInstanceHandle;
+import hla.rti1516e.OrderType;
+import hla.rti1516e.TransportationTypeHandle;
+
+/**
+ * A single reflection delivered as part of a batch to a {@link BatchFederateAmbassador}. Holds
+ * the same values that would have been passed to the regular
+ * <code>reflectAttributeValues()</code> callback.
+ */
+public class Reflection
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private ObjectInstanceHandle objectHandle;
+	private AttributeHandleValueMap attributes;
+	private byte[] tag;
+	private OrderType sentOrder;
+	private TransportationTypeHandle transport;
+	private LogicalTime time;
+	private OrderType receivedOrder;
+	private SupplementalReflectInfo supplementalInfo;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	public Reflection( ObjectInstanceHandle objectHandle,
+	                   AttributeHandleValueMap attributes,
+	                   byte[] tag,
+	                   OrderType sentOrder,
+	                   TransportationTypeHandle transport,
+	                   LogicalTime time,
+	                   OrderType receivedOrder,
+	                   SupplementalReflectInfo supplementalInfo )
+	{
+		this.objectHandle = objectHandle;
+		this.attributes = attributes;
+		this.tag = tag;
+		this.sentOrder = sentOrder;
+		this.transport = transport;
+		this.time = time;
+		this.receivedOrder = receivedOrder;
+		this.supplementalInfo = supplementalInfo;
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	public ObjectInstanceHandle getObjectHandle()
+	{
+		return this.objectHandle;
+	}
+
+	public AttributeHandleValueMap getAttributes()
+	{
+		return this.attributes;
+	}
+
+	public byte[] getTag()
+	{
+		return this.tag;
+	}
+
+	public OrderType getSentOrder()
+	{
+		return this.sentOrder;
+	}
+
+	public TransportationTypeHandle getTransport()
+	{
+		return this.transport;
+	}
+
+	/**
+	 * @return The time of the reflection, or <code>null</code> if it was delivered in receive
+	 *         order
+	 */
+	public LogicalTime getTime()
+	{
+		return this.time;
+	}
+
+	public boolean isTimestamped()
+	{
+		return this.time != null;
+	}
+
+	public OrderType getReceivedOrder()
+	{
+		return this.receivedOrder;
+	}
+
+	public SupplementalReflectInfo getSupplementalInfo()
+	{
+		return this.supplementalInfo;
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
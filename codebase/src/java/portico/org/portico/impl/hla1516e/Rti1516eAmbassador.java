@@ -16,8 +16,9 @@ package org.portico.impl.hla1516e;
 
 import java.net.URL;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import hla.rti1516e.*;
@@ -29,8 +30,10 @@ import org.portico.impl.hla1516e.types.HLA1516eAttributeHandleSet;
 import org.portico.impl.hla1516e.types.HLA1516eAttributeHandleSetFactory;
 import org.portico.impl.hla1516e.types.HLA1516eAttributeHandleValueMap;
 import org.portico.impl.hla1516e.types.HLA1516eAttributeHandleValueMapFactory;
+import org.portico.impl.hla1516e.types.HLA1516eAttributeSetRegionSetPairList;
 import org.portico.impl.hla1516e.types.HLA1516eAttributeSetRegionSetPairListFactory;
 import org.portico.impl.hla1516e.types.HLA1516eDimensionHandleFactory;
+import org.portico.impl.hla1516e.types.HLA1516eDimensionHandleSet;
 import org.portico.impl.hla1516e.types.HLA1516eDimensionHandleSetFactory;
 import org.portico.impl.hla1516e.types.HLA1516eFederateHandleFactory;
 import org.portico.impl.hla1516e.types.HLA1516eFederateHandleSet;
@@ -42,6 +45,7 @@ import org.portico.impl.hla1516e.types.HLA1516eObjectInstanceHandleFactory;
 import org.portico.impl.hla1516e.types.HLA1516eParameterHandleFactory;
 import org.portico.impl.hla1516e.types.HLA1516eParameterHandleValueMap;
 import org.portico.impl.hla1516e.types.HLA1516eParameterHandleValueMapFactory;
+import org.portico.impl.hla1516e.types.HLA1516eRegionHandleSet;
 import org.portico.impl.hla1516e.types.HLA1516eRegionHandleSetFactory;
 import org.portico.impl.hla1516e.types.HLA1516eResignAction;
 import org.portico.impl.hla1516e.types.HLA1516eTransportationTypeHandleFactory;
@@ -49,6 +53,7 @@ import org.portico.impl.hla1516e.types.time.DoubleTime;
 import org.portico.impl.hla1516e.types.time.DoubleTimeFactory;
 import org.portico.impl.hla1516e.types.time.DoubleTimeInterval;
 import org.portico.lrc.PorticoConstants;
+import org.portico.lrc.compat.JArrayIndexOutOfBounds;
 import org.portico.lrc.compat.JAsynchronousDeliveryAlreadyDisabled;
 import org.portico.lrc.compat.JAsynchronousDeliveryAlreadyEnabled;
 import org.portico.lrc.compat.JAttributeAcquisitionWasNotRequested;
@@ -79,7 +84,9 @@ import org.portico.lrc.compat.JInteractionClassNotPublished;
 import org.portico.lrc.compat.JInteractionClassNotSubscribed;
 import org.portico.lrc.compat.JInteractionParameterNotDefined;
 import org.portico.lrc.compat.JInvalidFederationTime;
+import org.portico.lrc.compat.JInvalidExtents;
 import org.portico.lrc.compat.JInvalidLookahead;
+import org.portico.lrc.compat.JInvalidRegionContext;
 import org.portico.lrc.compat.JInvalidResignAction;
 import org.portico.lrc.compat.JObjectAlreadyRegistered;
 import org.portico.lrc.compat.JObjectClassNotDefined;
@@ -88,8 +95,11 @@ import org.portico.lrc.compat.JObjectClassNotSubscribed;
 import org.portico.lrc.compat.JObjectNotKnown;
 import org.portico.lrc.compat.JOwnershipAcquisitionPending;
 import org.portico.lrc.compat.JRTIinternalError;
+import org.portico.lrc.compat.JRegionInUse;
+import org.portico.lrc.compat.JRegionNotKnown;
 import org.portico.lrc.compat.JRestoreInProgress;
 import org.portico.lrc.compat.JSaveInProgress;
+import org.portico.lrc.compat.JSpaceNotDefined;
 import org.portico.lrc.compat.JSynchronizationLabelNotAnnounced;
 import org.portico.lrc.compat.JTimeAdvanceAlreadyInProgress;
 import org.portico.lrc.compat.JTimeConstrainedAlreadyEnabled;
@@ -99,16 +109,30 @@ import org.portico.lrc.compat.JTimeRegulationWasNotEnabled;
 import org.portico.lrc.management.Federate;
 import org.portico.lrc.model.ACInstance;
 import org.portico.lrc.model.ACMetadata;
+import org.portico.lrc.model.Dimension;
 import org.portico.lrc.model.ICMetadata;
 import org.portico.lrc.model.OCInstance;
 import org.portico.lrc.model.OCMetadata;
 import org.portico.lrc.model.ObjectModel;
+import org.portico.lrc.model.RegionInstance;
+import org.portico.lrc.model.Space;
+import org.portico.lrc.model.Transport;
+import org.portico.lrc.services.ddm.msg.AssociateRegion;
+import org.portico.lrc.services.ddm.msg.CreateRegion;
+import org.portico.lrc.services.ddm.msg.DeleteRegion;
+import org.portico.lrc.services.ddm.msg.ModifyRegion;
+import org.portico.lrc.services.ddm.msg.UnassociateRegion;
 import org.portico.lrc.services.federation.msg.CreateFederation;
 import org.portico.lrc.services.federation.msg.DestroyFederation;
 import org.portico.lrc.services.federation.msg.JoinFederation;
 import org.portico.lrc.services.federation.msg.ResignFederation;
+import org.portico.lrc.services.object.data.InterestManager;
+import org.portico.lrc.services.object.msg.ChangeAttributeTransport;
+import org.portico.lrc.services.object.msg.ChangeInteractionTransport;
 import org.portico.lrc.services.object.msg.DeleteObject;
 import org.portico.lrc.services.object.msg.LocalDelete;
+import org.portico.lrc.services.object.msg.QueryAttributeTransport;
+import org.portico.lrc.services.object.msg.QueryInteractionTransport;
 import org.portico.lrc.services.object.msg.RegisterObject;
 import org.portico.lrc.services.object.msg.RequestClassUpdate;
 import org.portico.lrc.services.object.msg.RequestObjectUpdate;
@@ -142,6 +166,7 @@ import org.portico.lrc.services.time.msg.ModifyLookahead;
 import org.portico.lrc.services.time.msg.NextEventRequest;
 import org.portico.lrc.services.time.msg.QueryGalt;
 import org.portico.lrc.services.time.msg.TimeAdvanceRequest;
+import org.portico.utils.HandleValueMap;
 import org.portico.utils.messaging.ErrorResponse;
 import org.portico.utils.messaging.ExtendedSuccessMessage;
 import org.portico.utils.messaging.MessageContext;
@@ -1445,6 +1470,24 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           FederateNotExecutionMember,
 	           NotConnected,
 	           RTIinternalError
+	{
+		subscribeObjectClassAttributes( theClass, attributeList, 0.0 );
+	}
+
+	/**
+	 * Subscribe to the attributes, asking for no more than the given number of reflections of
+	 * each attribute of an object per second. A rate of 0.0 asks for all of them.
+	 */
+	private void subscribeObjectClassAttributes( ObjectClassHandle theClass,
+	                                             AttributeHandleSet attributeList,
+	                                             double updateRate )
+	    throws AttributeNotDefined,
+	           ObjectClassNotDefined,
+	           SaveInProgress,
+	           RestoreInProgress,
+	           FederateNotExecutionMember,
+	           NotConnected,
+	           RTIinternalError
 	{
 		///////////////////////////////////////////////////////
 		// 1. create the message and pass it to the LRC sink //
@@ -1452,6 +1495,7 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 		HashSet<Integer> set = HLA1516eAttributeHandleSet.toJavaSet( attributeList );
 		int handle = HLA1516eHandle.fromHandle( theClass );
 		SubscribeObjectClass request = new SubscribeObjectClass( handle, set, true );
+		request.setUpdateRate( updateRate );
 		ResponseMessage response = processMessage( request );
 
 		////////////////////////////
@@ -1516,7 +1560,8 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "subscribeObjectClassAttributes(updateRateDesignator)" );
+		double updateRate = getUpdateRateValue( updateRateDesignator );
+		subscribeObjectClassAttributes( theClass, attributeList, updateRate );
 	}
 
 	// 5.6
@@ -2062,7 +2107,7 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 		///////////////////////////////////////////////////////
 		// 1. create the message and pass it to the LRC sink //
 		///////////////////////////////////////////////////////
-		HashMap<Integer,byte[]> map = HLA1516eAttributeHandleValueMap.toJavaMap( theAttributes );
+		HandleValueMap map = HLA1516eAttributeHandleValueMap.toJavaMap( theAttributes );
 		int objectId = HLA1516eHandle.fromHandle( theObject );
 		UpdateAttributes request = new UpdateAttributes( objectId, tag, map );
 		ResponseMessage response = processMessage( request );
@@ -2138,7 +2183,7 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 		if( theTime != null )
 			doubleTime = DoubleTime.fromTime( theTime );
 
-		HashMap<Integer,byte[]> map = HLA1516eAttributeHandleValueMap.toJavaMap( theAttributes );
+		HandleValueMap map = HLA1516eAttributeHandleValueMap.toJavaMap( theAttributes );
 		int oHandle = HLA1516eHandle.fromHandle( theObject );
 		
 		///////////////////////////////////////////////////////
@@ -2217,7 +2262,7 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 		///////////////////////////////////////////////////////
 		// 1. create the message and pass it to the LRC sink //
 		///////////////////////////////////////////////////////
-		HashMap<Integer,byte[]> map = HLA1516eParameterHandleValueMap.toJavaMap( theParameters ); 
+		HandleValueMap map = HLA1516eParameterHandleValueMap.toJavaMap( theParameters ); 
 		int interactionId = HLA1516eHandle.fromHandle( theInteraction );
 		SendInteraction request = new SendInteraction( interactionId, tag, map );
 		ResponseMessage response = processMessage( request );
@@ -2292,7 +2337,7 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 		double doubleTime = PorticoConstants.NULL_TIME;
 		if( theTime != null )
 			doubleTime = DoubleTime.fromTime( theTime );
-		HashMap<Integer,byte[]> map = HLA1516eParameterHandleValueMap.toJavaMap( theParameters );
+		HandleValueMap map = HLA1516eParameterHandleValueMap.toJavaMap( theParameters );
 		int iHandle = HLA1516eHandle.fromHandle( theInteraction );
 
 		///////////////////////////////////////////////////////
@@ -2712,7 +2757,69 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "requestAttributeTransportationTypeChange()" );
+		///////////////////////////////////////////////////////
+		// 1. create the message and pass it to the LRC sink //
+		///////////////////////////////////////////////////////
+		Transport transport = HLA1516eTransportationTypeHandleFactory.toTransport( theType );
+		if( transport == null )
+			throw new InvalidTransportationType( "handle: "+theType );
+
+		HashSet<Integer> set = HLA1516eAttributeHandleSet.toJavaSet( theAttributes );
+		int oHandle = HLA1516eHandle.fromHandle( theObject );
+		ChangeAttributeTransport request = new ChangeAttributeTransport( oHandle, set, transport );
+		ResponseMessage response = processMessage( request );
+
+		////////////////////////////
+		// 2. process the results //
+		////////////////////////////
+		// check to see if we got an error or a success
+		if( response.isError() == false )
+		{
+			// everything went fine!
+			return;
+		}
+		else
+		{
+			// an exception was caused :(
+			Throwable theException = ((ErrorResponse)response).getCause();
+
+			if( theException instanceof JRTIinternalError )
+			{
+				throw new RTIinternalError( theException );
+			}
+			else if( theException instanceof JObjectNotKnown )
+			{
+				throw new ObjectInstanceNotKnown( theException );
+			}
+			else if( theException instanceof JAttributeNotDefined )
+			{
+				throw new AttributeNotDefined( theException );
+			}
+			else if( theException instanceof JAttributeNotOwned )
+			{
+				throw new AttributeNotOwned( theException );
+			}
+			else if( theException instanceof JFederateNotExecutionMember )
+			{
+				throw new FederateNotExecutionMember( theException );
+			}
+			else if( theException instanceof JSaveInProgress )
+			{
+				throw new SaveInProgress( theException );
+			}
+			else if( theException instanceof JRestoreInProgress )
+			{
+				throw new RestoreInProgress( theException );
+			}
+			else if( theException instanceof JConcurrentAccessAttempted )
+			{
+				throw new RTIinternalError( theException );
+			}
+			else
+			{
+				logException( "requestAttributeTransportationTypeChange", theException );
+			}
+		}
 	}
 
 	// 6.25
@@ -2726,7 +2833,61 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "queryAttributeTransportationType()" );
+		///////////////////////////////////////////////////////
+		// 1. create the message and pass it to the LRC sink //
+		///////////////////////////////////////////////////////
+		int oHandle = HLA1516eHandle.fromHandle( theObject );
+		int aHandle = HLA1516eHandle.fromHandle( theAttribute );
+		QueryAttributeTransport request = new QueryAttributeTransport( oHandle, aHandle );
+		ResponseMessage response = processMessage( request );
+
+		////////////////////////////
+		// 2. process the results //
+		////////////////////////////
+		// check to see if we got an error or a success
+		if( response.isError() == false )
+		{
+			// everything went fine!
+			return;
+		}
+		else
+		{
+			// an exception was caused :(
+			Throwable theException = ((ErrorResponse)response).getCause();
+
+			if( theException instanceof JRTIinternalError )
+			{
+				throw new RTIinternalError( theException );
+			}
+			else if( theException instanceof JObjectNotKnown )
+			{
+				throw new ObjectInstanceNotKnown( theException );
+			}
+			else if( theException instanceof JAttributeNotDefined )
+			{
+				throw new AttributeNotDefined( theException );
+			}
+			else if( theException instanceof JFederateNotExecutionMember )
+			{
+				throw new FederateNotExecutionMember( theException );
+			}
+			else if( theException instanceof JSaveInProgress )
+			{
+				throw new SaveInProgress( theException );
+			}
+			else if( theException instanceof JRestoreInProgress )
+			{
+				throw new RestoreInProgress( theException );
+			}
+			else if( theException instanceof JConcurrentAccessAttempted )
+			{
+				throw new RTIinternalError( theException );
+			}
+			else
+			{
+				logException( "queryAttributeTransportationType", theException );
+			}
+		}
 	}
 
 	// 6.27
@@ -2742,7 +2903,64 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "requestInteractionTransportationTypeChange()" );
+		///////////////////////////////////////////////////////
+		// 1. create the message and pass it to the LRC sink //
+		///////////////////////////////////////////////////////
+		Transport transport = HLA1516eTransportationTypeHandleFactory.toTransport( theType );
+		if( transport == null )
+			throw new InvalidTransportationType( "handle: "+theType );
+
+		int iHandle = HLA1516eHandle.fromHandle( theClass );
+		ChangeInteractionTransport request = new ChangeInteractionTransport( iHandle, transport );
+		ResponseMessage response = processMessage( request );
+
+		////////////////////////////
+		// 2. process the results //
+		////////////////////////////
+		// check to see if we got an error or a success
+		if( response.isError() == false )
+		{
+			// everything went fine!
+			return;
+		}
+		else
+		{
+			// an exception was caused :(
+			Throwable theException = ((ErrorResponse)response).getCause();
+
+			if( theException instanceof JRTIinternalError )
+			{
+				throw new RTIinternalError( theException );
+			}
+			else if( theException instanceof JInteractionClassNotDefined )
+			{
+				throw new InteractionClassNotDefined( theException );
+			}
+			else if( theException instanceof JInteractionClassNotPublished )
+			{
+				throw new InteractionClassNotPublished( theException );
+			}
+			else if( theException instanceof JFederateNotExecutionMember )
+			{
+				throw new FederateNotExecutionMember( theException );
+			}
+			else if( theException instanceof JSaveInProgress )
+			{
+				throw new SaveInProgress( theException );
+			}
+			else if( theException instanceof JRestoreInProgress )
+			{
+				throw new RestoreInProgress( theException );
+			}
+			else if( theException instanceof JConcurrentAccessAttempted )
+			{
+				throw new RTIinternalError( theException );
+			}
+			else
+			{
+				logException( "requestInteractionTransportationTypeChange", theException );
+			}
+		}
 	}
 
 	// 6.29
@@ -2755,7 +2973,57 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "queryInteractionTransportationType()" );
+		///////////////////////////////////////////////////////
+		// 1. create the message and pass it to the LRC sink //
+		///////////////////////////////////////////////////////
+		int fHandle = HLA1516eHandle.fromHandle( theFederate );
+		int iHandle = HLA1516eHandle.fromHandle( theInteraction );
+		QueryInteractionTransport request = new QueryInteractionTransport( fHandle, iHandle );
+		ResponseMessage response = processMessage( request );
+
+		////////////////////////////
+		// 2. process the results //
+		////////////////////////////
+		// check to see if we got an error or a success
+		if( response.isError() == false )
+		{
+			// everything went fine!
+			return;
+		}
+		else
+		{
+			// an exception was caused :(
+			Throwable theException = ((ErrorResponse)response).getCause();
+
+			if( theException instanceof JRTIinternalError )
+			{
+				throw new RTIinternalError( theException );
+			}
+			else if( theException instanceof JInteractionClassNotDefined )
+			{
+				throw new InteractionClassNotDefined( theException );
+			}
+			else if( theException instanceof JFederateNotExecutionMember )
+			{
+				throw new FederateNotExecutionMember( theException );
+			}
+			else if( theException instanceof JSaveInProgress )
+			{
+				throw new SaveInProgress( theException );
+			}
+			else if( theException instanceof JRestoreInProgress )
+			{
+				throw new RestoreInProgress( theException );
+			}
+			else if( theException instanceof JConcurrentAccessAttempted )
+			{
+				throw new RTIinternalError( theException );
+			}
+			else
+			{
+				logException( "queryInteractionTransportationType", theException );
+			}
+		}
 	}
 
 	///////////////////////////////////////////////////////////////////////////////////////////
@@ -4478,42 +4746,210 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 		       NotConnected,
 		       RTIinternalError
 	{
-		featureNotSupported( "createRegion()" );
-		return null;
-	}
+		helper.checkJoined();
 
-	// 9.3
-	public void commitRegionModifications( RegionHandleSet regions )
-	    throws RegionNotCreatedByThisFederate,
-	           InvalidRegion,
-	           SaveInProgress,
-	           RestoreInProgress,
-	           FederateNotExecutionMember,
-	           NotConnected,
-	           RTIinternalError
-	{
-		featureNotSupported( "commitRegionModifications()" );
-	}
+		// all 1516e dimensions live in the one space, make sure the ones we were given are in it
+		Space space = helper.getFOM().getSpace( ObjectModel.DIMENSIONS_SPACE );
+		HashSet<Integer> dimensionSet = HLA1516eDimensionHandleSet.toJavaSet( dimensions );
+		for( Integer dimensionHandle : dimensionSet )
+		{
+			if( space == null || space.hasDimension(dimensionHandle) == false )
+				throw new InvalidDimensionHandle( "handle: " + dimensionHandle );
+		}
 
-	// 9.4
-	public void deleteRegion( RegionHandle theRegion )
-		throws RegionInUseForUpdateOrSubscription,
-		       RegionNotCreatedByThisFederate,
-		       InvalidRegion,
-		       SaveInProgress,
-		       RestoreInProgress,
-		       FederateNotExecutionMember,
-		       NotConnected,
-		       RTIinternalError
-	{
-		featureNotSupported( "deleteRegion()" );
-	}
+		if( space == null )
+			throw new RTIinternalError( "FOM has no space for the 1516e dimensions" );
 
-	// 9.5
-	public ObjectInstanceHandle 
-	       registerObjectInstanceWithRegions( ObjectClassHandle theClass,
-	                                          AttributeSetRegionSetPairList attributesAndRegions )
-	    throws InvalidRegionContext,
+		///////////////////////////////////////////////////////
+		// 1. create the message and pass it to the LRC sink //
+		///////////////////////////////////////////////////////
+		CreateRegion request = new CreateRegion( space.getHandle(), dimensionSet, 1 );
+		ResponseMessage response = processMessage( request );
+
+		////////////////////////////
+		// 2. process the results //
+		////////////////////////////
+		// check to see if we got an error or a success
+		if( response.isError() == false )
+		{
+			// everything went fine! the result is a copy of the region for us to work on
+			RegionInstance region = (RegionInstance)((ExtendedSuccessMessage)response).getResult();
+			helper.addRegion( region );
+			return new HLA1516eHandle( region.getToken() );
+		}
+		else
+		{
+			// an exception was caused :(
+			Throwable theException = ((ErrorResponse)response).getCause();
+
+			if( theException instanceof JRTIinternalError )
+			{
+				throw new RTIinternalError( theException );
+			}
+			else if( theException instanceof JSpaceNotDefined )
+			{
+				throw new InvalidDimensionHandle( theException );
+			}
+			else if( theException instanceof JFederateNotExecutionMember )
+			{
+				throw new FederateNotExecutionMember( theException );
+			}
+			else if( theException instanceof JSaveInProgress )
+			{
+				throw new SaveInProgress( theException );
+			}
+			else if( theException instanceof JRestoreInProgress )
+			{
+				throw new RestoreInProgress( theException );
+			}
+			else
+			{
+				logException( "createRegion", theException );
+				return null;
+			}
+		}
+	}
+
+	// 9.3
+	public void commitRegionModifications( RegionHandleSet regions )
+	    throws RegionNotCreatedByThisFederate,
+	           InvalidRegion,
+	           SaveInProgress,
+	           RestoreInProgress,
+	           FederateNotExecutionMember,
+	           NotConnected,
+	           RTIinternalError
+	{
+		helper.checkJoined();
+		HashSet<Integer> regionTokens = HLA1516eRegionHandleSet.toJavaSet( regions );
+		checkRegions( regionTokens );
+
+		for( Integer regionToken : regionTokens )
+		{
+			///////////////////////////////////////////////////////
+			// 1. create the message and pass it to the LRC sink //
+			///////////////////////////////////////////////////////
+			// send a copy so that later changes to our working copy don't leak out
+			ModifyRegion request = new ModifyRegion( helper.getRegion(regionToken).clone() );
+			ResponseMessage response = processMessage( request );
+
+			////////////////////////////
+			// 2. process the results //
+			////////////////////////////
+			// check to see if we got an error or a success
+			if( response.isError() == false )
+			{
+				// everything went fine!
+				continue;
+			}
+
+			// an exception was caused :(
+			Throwable theException = ((ErrorResponse)response).getCause();
+
+			if( theException instanceof JRTIinternalError )
+			{
+				throw new RTIinternalError( theException );
+			}
+			else if( theException instanceof JRegionNotKnown )
+			{
+				throw new InvalidRegion( theException );
+			}
+			else if( theException instanceof JInvalidExtents )
+			{
+				// the bounds were checked as they were set, so this shouldn't happen
+				throw new RTIinternalError( theException );
+			}
+			else if( theException instanceof JFederateNotExecutionMember )
+			{
+				throw new FederateNotExecutionMember( theException );
+			}
+			else if( theException instanceof JSaveInProgress )
+			{
+				throw new SaveInProgress( theException );
+			}
+			else if( theException instanceof JRestoreInProgress )
+			{
+				throw new RestoreInProgress( theException );
+			}
+			else
+			{
+				logException( "commitRegionModifications", theException );
+			}
+		}
+	}
+
+	// 9.4
+	public void deleteRegion( RegionHandle theRegion )
+		throws RegionInUseForUpdateOrSubscription,
+		       RegionNotCreatedByThisFederate,
+		       InvalidRegion,
+		       SaveInProgress,
+		       RestoreInProgress,
+		       FederateNotExecutionMember,
+		       NotConnected,
+		       RTIinternalError
+	{
+		helper.checkJoined();
+		int regionToken = HLA1516eHandle.fromHandle( theRegion );
+		checkRegions( Collections.singleton(regionToken) );
+
+		///////////////////////////////////////////////////////
+		// 1. create the message and pass it to the LRC sink //
+		///////////////////////////////////////////////////////
+		DeleteRegion request = new DeleteRegion( regionToken );
+		ResponseMessage response = processMessage( request );
+
+		////////////////////////////
+		// 2. process the results //
+		////////////////////////////
+		// check to see if we got an error or a success
+		if( response.isError() == false )
+		{
+			// everything went fine!
+			helper.removeRegion( regionToken );
+			return;
+		}
+		else
+		{
+			// an exception was caused :(
+			Throwable theException = ((ErrorResponse)response).getCause();
+
+			if( theException instanceof JRTIinternalError )
+			{
+				throw new RTIinternalError( theException );
+			}
+			else if( theException instanceof JRegionNotKnown )
+			{
+				throw new InvalidRegion( theException );
+			}
+			else if( theException instanceof JRegionInUse )
+			{
+				throw new RegionInUseForUpdateOrSubscription( theException );
+			}
+			else if( theException instanceof JFederateNotExecutionMember )
+			{
+				throw new FederateNotExecutionMember( theException );
+			}
+			else if( theException instanceof JSaveInProgress )
+			{
+				throw new SaveInProgress( theException );
+			}
+			else if( theException instanceof JRestoreInProgress )
+			{
+				throw new RestoreInProgress( theException );
+			}
+			else
+			{
+				logException( "deleteRegion", theException );
+			}
+		}
+	}
+
+	// 9.5
+	public ObjectInstanceHandle 
+	       registerObjectInstanceWithRegions( ObjectClassHandle theClass,
+	                                          AttributeSetRegionSetPairList attributesAndRegions )
+	    throws InvalidRegionContext,
 	           RegionNotCreatedByThisFederate,
 	           InvalidRegion,
 	           AttributeNotPublished,
@@ -4526,8 +4962,19 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "registerObjectInstanceWithRegions()" );
-		return null;
+		try
+		{
+			return registerObjectInstanceWithRegions( theClass, attributesAndRegions, null );
+		}
+		catch( ObjectInstanceNameInUse inuse )
+		{
+			// can't happen, we didn't give a name
+			throw new RTIinternalError( inuse );
+		}
+		catch( ObjectInstanceNameNotReserved notreserved )
+		{
+			throw new RTIinternalError( notreserved );
+		}
 	}
 
 	// 9.5
@@ -4550,8 +4997,108 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "registerObjectInstanceWithRegions()" );
-		return null;
+		helper.checkJoined();
+		int classHandle = HLA1516eHandle.fromHandle( theClass );
+		Map<Integer,HashSet<Integer>> regionMap = toUpdateRegionMap( attributesAndRegions );
+		checkRegionContext( helper.getFOM().getObjectClass(classHandle), regionMap );
+
+		// the LRC wants parallel arrays of attribute handles and the region for each
+		ArrayList<Integer> attributes = new ArrayList<Integer>();
+		ArrayList<Integer> regions = new ArrayList<Integer>();
+		for( Integer regionToken : regionMap.keySet() )
+		{
+			for( Integer attributeHandle : regionMap.get(regionToken) )
+			{
+				attributes.add( attributeHandle );
+				regions.add( regionToken );
+			}
+		}
+
+		int[] attributeArray = new int[attributes.size()];
+		int[] regionArray = new int[regions.size()];
+		for( int i = 0; i < attributeArray.length; i++ )
+		{
+			attributeArray[i] = attributes.get( i );
+			regionArray[i] = regions.get( i );
+		}
+
+		///////////////////////////////////////////////////////
+		// 1. create the message and pass it to the LRC sink //
+		///////////////////////////////////////////////////////
+		RegisterObject request = null;
+		if( theObject == null )
+			request = new RegisterObject( classHandle, attributeArray, regionArray );
+		else
+			request = new RegisterObject( classHandle, theObject, attributeArray, regionArray );
+
+		ResponseMessage response = processMessage( request );
+
+		////////////////////////////
+		// 2. process the results //
+		////////////////////////////
+		// check to see if we got an error or a success
+		if( response.isError() == false )
+		{
+			// everything went fine!
+			ExtendedSuccessMessage success = (ExtendedSuccessMessage)response;
+			OCInstance instance = (OCInstance)success.getResult();
+			return new HLA1516eHandle( instance.getHandle() );
+		}
+		else
+		{
+			// an exception was caused :(
+			Throwable theException = ((ErrorResponse)response).getCause();
+
+			if( theException instanceof JRTIinternalError )
+			{
+				throw new RTIinternalError( theException );
+			}
+			else if( theException instanceof JObjectClassNotDefined )
+			{
+				throw new ObjectClassNotDefined( theException );
+			}
+			else if( theException instanceof JObjectClassNotPublished )
+			{
+				throw new ObjectClassNotPublished( theException );
+			}
+			else if( theException instanceof JAttributeNotDefined )
+			{
+				throw new AttributeNotDefined( theException );
+			}
+			else if( theException instanceof JAttributeNotPublished )
+			{
+				throw new AttributeNotPublished( theException );
+			}
+			else if( theException instanceof JRegionNotKnown )
+			{
+				throw new InvalidRegion( theException );
+			}
+			else if( theException instanceof JInvalidRegionContext )
+			{
+				throw new InvalidRegionContext( theException );
+			}
+			else if( theException instanceof JObjectAlreadyRegistered )
+			{
+				throw new ObjectInstanceNameInUse( theException );
+			}
+			else if( theException instanceof JFederateNotExecutionMember )
+			{
+				throw new FederateNotExecutionMember( theException );
+			}
+			else if( theException instanceof JSaveInProgress )
+			{
+				throw new SaveInProgress( theException );
+			}
+			else if( theException instanceof JRestoreInProgress )
+			{
+				throw new RestoreInProgress( theException );
+			}
+			else
+			{
+				logException( "registerObjectInstanceWithRegions", theException );
+				return null;
+			}
+		}
 	}
 
 	// 9.6
@@ -4568,10 +5115,82 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "associateRegionsForUpdates()" );
+		helper.checkJoined();
+		int objectHandle = HLA1516eHandle.fromHandle( theObject );
+		Map<Integer,HashSet<Integer>> regionMap = toUpdateRegionMap( attributesAndRegions );
+		OCInstance instance = helper.getState().getRepository().getInstance( objectHandle );
+		if( instance != null )
+		{
+			int classHandle = instance.getDiscoveredClassHandle();
+			checkRegionContext( helper.getFOM().getObjectClass(classHandle), regionMap );
+		}
+
+		for( Integer regionToken : regionMap.keySet() )
+		{
+			///////////////////////////////////////////////////////
+			// 1. create the message and pass it to the LRC sink //
+			///////////////////////////////////////////////////////
+			HashSet<Integer> attributes = regionMap.get( regionToken );
+			AssociateRegion request = new AssociateRegion( regionToken, objectHandle, attributes );
+			ResponseMessage response = processMessage( request );
+
+			////////////////////////////
+			// 2. process the results //
+			////////////////////////////
+			// check to see if we got an error or a success
+			if( response.isError() == false )
+			{
+				// everything went fine!
+				continue;
+			}
+
+			// an exception was caused :(
+			Throwable theException = ((ErrorResponse)response).getCause();
+
+			if( theException instanceof JRTIinternalError )
+			{
+				throw new RTIinternalError( theException );
+			}
+			else if( theException instanceof JObjectNotKnown )
+			{
+				throw new ObjectInstanceNotKnown( theException );
+			}
+			else if( theException instanceof JAttributeNotDefined )
+			{
+				throw new AttributeNotDefined( theException );
+			}
+			else if( theException instanceof JRegionNotKnown )
+			{
+				throw new InvalidRegion( theException );
+			}
+			else if( theException instanceof JInvalidRegionContext )
+			{
+				throw new InvalidRegionContext( theException );
+			}
+			else if( theException instanceof JFederateNotExecutionMember )
+			{
+				throw new FederateNotExecutionMember( theException );
+			}
+			else if( theException instanceof JSaveInProgress )
+			{
+				throw new SaveInProgress( theException );
+			}
+			else if( theException instanceof JRestoreInProgress )
+			{
+				throw new RestoreInProgress( theException );
+			}
+			else
+			{
+				logException( "associateRegionsForUpdates", theException );
+			}
+		}
 	}
 
 	// 9.7
+	/**
+	 * Each region in the list is unassociated from all the attributes of the object it is linked
+	 * with, not just those it is paired with in the list.
+	 */
 	public void unassociateRegionsForUpdates( ObjectInstanceHandle theObject,
 	                                          AttributeSetRegionSetPairList attributesAndRegions )
 	    throws RegionNotCreatedByThisFederate,
@@ -4584,7 +5203,62 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "unassociateRegionsForUpdates()" );
+		helper.checkJoined();
+		int objectHandle = HLA1516eHandle.fromHandle( theObject );
+		Map<Integer,HashSet<Integer>> regionMap =
+			HLA1516eAttributeSetRegionSetPairList.toRegionMap( attributesAndRegions );
+		checkRegions( regionMap.keySet() );
+
+		for( Integer regionToken : regionMap.keySet() )
+		{
+			///////////////////////////////////////////////////////
+			// 1. create the message and pass it to the LRC sink //
+			///////////////////////////////////////////////////////
+			UnassociateRegion request = new UnassociateRegion( regionToken, objectHandle );
+			ResponseMessage response = processMessage( request );
+
+			////////////////////////////
+			// 2. process the results //
+			////////////////////////////
+			// check to see if we got an error or a success
+			if( response.isError() == false )
+			{
+				// everything went fine!
+				continue;
+			}
+
+			// an exception was caused :(
+			Throwable theException = ((ErrorResponse)response).getCause();
+
+			if( theException instanceof JRTIinternalError )
+			{
+				throw new RTIinternalError( theException );
+			}
+			else if( theException instanceof JObjectNotKnown )
+			{
+				throw new ObjectInstanceNotKnown( theException );
+			}
+			else if( theException instanceof JRegionNotKnown )
+			{
+				throw new InvalidRegion( theException );
+			}
+			else if( theException instanceof JFederateNotExecutionMember )
+			{
+				throw new FederateNotExecutionMember( theException );
+			}
+			else if( theException instanceof JSaveInProgress )
+			{
+				throw new SaveInProgress( theException );
+			}
+			else if( theException instanceof JRestoreInProgress )
+			{
+				throw new RestoreInProgress( theException );
+			}
+			else
+			{
+				logException( "unassociateRegionsForUpdates", theException );
+			}
+		}
 	}
 
 	// 9.8
@@ -4601,7 +5275,7 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "subscribeObjectClassAttributesWithRegions()" );
+		subscribeWithRegions( theClass, attributesAndRegions, false );
 	}
 
 	// 9.8
@@ -4620,7 +5294,7 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "subscribeObjectClassAttributesWithRegions()" );
+		featureNotSupported( "subscribeObjectClassAttributesWithRegions(updateRateDesignator)" );
 	}
 
 	// 9.8
@@ -4637,7 +5311,7 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "subscribeObjectClassAttributesPassivelyWithRegions()" );
+		subscribeWithRegions( theClass, attributesAndRegions, true );
 	}
 
 	// 9.8
@@ -4656,10 +5330,106 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "subscribeObjectClassAttributesPassivelyWithRegions()" );
+		featureNotSupported( "subscribeObjectClassAttributesPassivelyWithRegions(updateRateDesignator)" );
+	}
+
+	/**
+	 * Subscribe to the attributes of the class in each region they are paired with. The LRC
+	 * replaces the attributes subscribed in a region each time it is given a subscription for it,
+	 * so all the attributes for each region are gathered up and sent together.
+	 */
+	private void subscribeWithRegions( ObjectClassHandle theClass,
+	                                   AttributeSetRegionSetPairList attributesAndRegions,
+	                                   boolean passive )
+	    throws InvalidRegionContext,
+	           RegionNotCreatedByThisFederate,
+	           InvalidRegion,
+	           AttributeNotDefined,
+	           ObjectClassNotDefined,
+	           SaveInProgress,
+	           RestoreInProgress,
+	           FederateNotExecutionMember,
+	           NotConnected,
+	           RTIinternalError
+	{
+		helper.checkJoined();
+		int classHandle = HLA1516eHandle.fromHandle( theClass );
+		Map<Integer,HashSet<Integer>> regionMap =
+			HLA1516eAttributeSetRegionSetPairList.toRegionMap( attributesAndRegions );
+		checkRegions( regionMap.keySet() );
+		checkRegionContext( helper.getFOM().getObjectClass(classHandle), regionMap );
+
+		for( Integer regionToken : regionMap.keySet() )
+		{
+			///////////////////////////////////////////////////////
+			// 1. create the message and pass it to the LRC sink //
+			///////////////////////////////////////////////////////
+			HashSet<Integer> attributes = regionMap.get( regionToken );
+			SubscribeObjectClass request =
+				new SubscribeObjectClass( classHandle, attributes, passive, regionToken );
+			ResponseMessage response = processMessage( request );
+
+			////////////////////////////
+			// 2. process the results //
+			////////////////////////////
+			// check to see if we got an error or a success
+			if( response.isError() == false )
+			{
+				// everything went fine!
+				continue;
+			}
+
+			// an exception was caused :(
+			Throwable theException = ((ErrorResponse)response).getCause();
+
+			if( theException instanceof JRTIinternalError )
+			{
+				throw new RTIinternalError( theException );
+			}
+			else if( theException instanceof JObjectClassNotDefined )
+			{
+				throw new ObjectClassNotDefined( theException );
+			}
+			else if( theException instanceof JAttributeNotDefined )
+			{
+				throw new AttributeNotDefined( theException );
+			}
+			else if( theException instanceof JRegionNotKnown )
+			{
+				throw new InvalidRegion( theException );
+			}
+			else if( theException instanceof JInvalidRegionContext )
+			{
+				throw new InvalidRegionContext( theException );
+			}
+			else if( theException instanceof JFederateNotExecutionMember )
+			{
+				throw new FederateNotExecutionMember( theException );
+			}
+			else if( theException instanceof JObjectClassNotSubscribed )
+			{
+				// ignore, for that is the 1516 way
+			}
+			else if( theException instanceof JSaveInProgress )
+			{
+				throw new SaveInProgress( theException );
+			}
+			else if( theException instanceof JRestoreInProgress )
+			{
+				throw new RestoreInProgress( theException );
+			}
+			else
+			{
+				logException( "subscribeObjectClassAttributesWithRegions", theException );
+			}
+		}
 	}
 
 	// 9.9
+	/**
+	 * Each region in the list is removed from the subscription along with all the attributes
+	 * subscribed in it, not just those it is paired with in the list.
+	 */
 	public void unsubscribeObjectClassAttributesWithRegions( ObjectClassHandle theClass,
 	                                                         AttributeSetRegionSetPairList attributesAndRegions )
 	    throws RegionNotCreatedByThisFederate,
@@ -4672,7 +5442,66 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "unsubscribeObjectClassAttributesWithRegions()" );
+		helper.checkJoined();
+		int classHandle = HLA1516eHandle.fromHandle( theClass );
+		Map<Integer,HashSet<Integer>> regionMap =
+			HLA1516eAttributeSetRegionSetPairList.toRegionMap( attributesAndRegions );
+		checkRegions( regionMap.keySet() );
+
+		for( Integer regionToken : regionMap.keySet() )
+		{
+			///////////////////////////////////////////////////////
+			// 1. create the message and pass it to the LRC sink //
+			///////////////////////////////////////////////////////
+			UnsubscribeObjectClass request = new UnsubscribeObjectClass( classHandle, regionToken );
+			ResponseMessage response = processMessage( request );
+
+			////////////////////////////
+			// 2. process the results //
+			////////////////////////////
+			// check to see if we got an error or a success
+			if( response.isError() == false )
+			{
+				// everything went fine!
+				continue;
+			}
+
+			// an exception was caused :(
+			Throwable theException = ((ErrorResponse)response).getCause();
+
+			if( theException instanceof JRTIinternalError )
+			{
+				throw new RTIinternalError( theException );
+			}
+			else if( theException instanceof JObjectClassNotDefined )
+			{
+				throw new ObjectClassNotDefined( theException );
+			}
+			else if( theException instanceof JRegionNotKnown )
+			{
+				throw new InvalidRegion( theException );
+			}
+			else if( theException instanceof JFederateNotExecutionMember )
+			{
+				throw new FederateNotExecutionMember( theException );
+			}
+			else if( theException instanceof JObjectClassNotSubscribed )
+			{
+				// ignore, for that is the 1516 way
+			}
+			else if( theException instanceof JSaveInProgress )
+			{
+				throw new SaveInProgress( theException );
+			}
+			else if( theException instanceof JRestoreInProgress )
+			{
+				throw new RestoreInProgress( theException );
+			}
+			else
+			{
+				logException( "unsubscribeObjectClassAttributesWithRegions", theException );
+			}
+		}
 	}
 
 	// 9.10
@@ -4689,7 +5518,7 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "subscribeInteractionClassWithRegions()" );
+		subscribeWithRegions( theClass, regions, false );
 	}
 
 	// 9.10
@@ -4706,7 +5535,87 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "subscribeInteractionClassPassivelyWithRegions()" );
+		subscribeWithRegions( theClass, regions, true );
+	}
+
+	private void subscribeWithRegions( InteractionClassHandle theClass,
+	                                   RegionHandleSet regions,
+	                                   boolean passive )
+	    throws InvalidRegionContext,
+	           RegionNotCreatedByThisFederate,
+	           InvalidRegion,
+	           InteractionClassNotDefined,
+	           SaveInProgress,
+	           RestoreInProgress,
+	           FederateNotExecutionMember,
+	           NotConnected,
+	           RTIinternalError
+	{
+		helper.checkJoined();
+		int classHandle = HLA1516eHandle.fromHandle( theClass );
+		HashSet<Integer> regionTokens = HLA1516eRegionHandleSet.toJavaSet( regions );
+		checkRegions( regionTokens );
+		checkRegionContext( helper.getFOM().getInteractionClass(classHandle), regionTokens );
+
+		for( Integer regionToken : regionTokens )
+		{
+			///////////////////////////////////////////////////////
+			// 1. create the message and pass it to the LRC sink //
+			///////////////////////////////////////////////////////
+			SubscribeInteractionClass request =
+				new SubscribeInteractionClass( classHandle, passive, regionToken );
+			ResponseMessage response = processMessage( request );
+
+			////////////////////////////
+			// 2. process the results //
+			////////////////////////////
+			// check to see if we got an error or a success
+			if( response.isError() == false )
+			{
+				// everything went fine!
+				continue;
+			}
+
+			// an exception was caused :(
+			Throwable theException = ((ErrorResponse)response).getCause();
+
+			if( theException instanceof JRTIinternalError )
+			{
+				throw new RTIinternalError( theException );
+			}
+			else if( theException instanceof JInteractionClassNotDefined )
+			{
+				throw new InteractionClassNotDefined( theException );
+			}
+			else if( theException instanceof JRegionNotKnown )
+			{
+				throw new InvalidRegion( theException );
+			}
+			else if( theException instanceof JInvalidRegionContext )
+			{
+				throw new InvalidRegionContext( theException );
+			}
+			else if( theException instanceof JFederateNotExecutionMember )
+			{
+				throw new FederateNotExecutionMember( theException );
+			}
+			else if( theException instanceof JInteractionClassNotSubscribed )
+			{
+				// ignore, for that is the 1516 way
+			}
+			else if( theException instanceof JSaveInProgress )
+			{
+				throw new SaveInProgress( theException );
+			}
+			else if( theException instanceof JRestoreInProgress )
+			{
+				throw new RestoreInProgress( theException );
+			}
+			else
+			{
+				logException( "subscribeInteractionClassWithRegions", theException );
+			}
+		}
 	}
 
 	// 9.11
@@ -4721,7 +5630,66 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "unsubscribeInteractionClassWithRegions()" );
+		helper.checkJoined();
+		int classHandle = HLA1516eHandle.fromHandle( theClass );
+		HashSet<Integer> regionTokens = HLA1516eRegionHandleSet.toJavaSet( regions );
+		checkRegions( regionTokens );
+
+		for( Integer regionToken : regionTokens )
+		{
+			///////////////////////////////////////////////////////
+			// 1. create the message and pass it to the LRC sink //
+			///////////////////////////////////////////////////////
+			UnsubscribeInteractionClass request =
+				new UnsubscribeInteractionClass( classHandle, regionToken );
+			ResponseMessage response = processMessage( request );
+
+			////////////////////////////
+			// 2. process the results //
+			////////////////////////////
+			// check to see if we got an error or a success
+			if( response.isError() == false )
+			{
+				// everything went fine!
+				continue;
+			}
+
+			// an exception was caused :(
+			Throwable theException = ((ErrorResponse)response).getCause();
+
+			if( theException instanceof JRTIinternalError )
+			{
+				throw new RTIinternalError( theException );
+			}
+			else if( theException instanceof JInteractionClassNotDefined )
+			{
+				throw new InteractionClassNotDefined( theException );
+			}
+			else if( theException instanceof JRegionNotKnown )
+			{
+				throw new InvalidRegion( theException );
+			}
+			else if( theException instanceof JFederateNotExecutionMember )
+			{
+				throw new FederateNotExecutionMember( theException );
+			}
+			else if( theException instanceof JInteractionClassNotSubscribed )
+			{
+				// ignore, for that is the 1516 way
+			}
+			else if( theException instanceof JSaveInProgress )
+			{
+				throw new SaveInProgress( theException );
+			}
+			else if( theException instanceof JRestoreInProgress )
+			{
+				throw new RestoreInProgress( theException );
+			}
+			else
+			{
+				logException( "unsubscribeInteractionClassWithRegions", theException );
+			}
+		}
 	}
 
 	// 9.12
@@ -4741,7 +5709,73 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "sendInteractionWithRegions()" );
+		helper.checkJoined();
+		int regionToken = toSendRegion( theInteraction, regions );
+
+		///////////////////////////////////////////////////////
+		// 1. create the message and pass it to the LRC sink //
+		///////////////////////////////////////////////////////
+		HandleValueMap map = HLA1516eParameterHandleValueMap.toJavaMap( theParameters );
+		int interactionId = HLA1516eHandle.fromHandle( theInteraction );
+		SendInteraction request =
+			new SendInteraction( interactionId, userSuppliedTag, map, regionToken );
+		ResponseMessage response = processMessage( request );
+
+		////////////////////////////
+		// 2. process the results //
+		////////////////////////////
+		// check to see if we got an error or a success
+		if( response.isError() == false )
+		{
+			// everything went fine!
+			return;
+		}
+		else
+		{
+			// an exception was caused :(
+			Throwable theException = ((ErrorResponse)response).getCause();
+
+			if( theException instanceof JRTIinternalError )
+			{
+				throw new RTIinternalError( theException );
+			}
+			else if( theException instanceof JInteractionClassNotDefined )
+			{
+				throw new InteractionClassNotDefined( theException );
+			}
+			else if( theException instanceof JInteractionClassNotPublished )
+			{
+				throw new InteractionClassNotPublished( theException );
+			}
+			else if( theException instanceof JInteractionParameterNotDefined )
+			{
+				throw new InteractionParameterNotDefined( theException );
+			}
+			else if( theException instanceof JRegionNotKnown )
+			{
+				throw new InvalidRegion( theException );
+			}
+			else if( theException instanceof JInvalidRegionContext )
+			{
+				throw new InvalidRegionContext( theException );
+			}
+			else if( theException instanceof JFederateNotExecutionMember )
+			{
+				throw new FederateNotExecutionMember( theException );
+			}
+			else if( theException instanceof JSaveInProgress )
+			{
+				throw new SaveInProgress( theException );
+			}
+			else if( theException instanceof JRestoreInProgress )
+			{
+				throw new RestoreInProgress( theException );
+			}
+			else
+			{
+				logException( "sendInteractionWithRegions", theException );
+			}
+		}
 	}
 
 	// 9.12
@@ -4764,8 +5798,85 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "sendInteractionWithRegions()" );
-		return null;
+		helper.checkJoined();
+		int regionToken = toSendRegion( theInteraction, regions );
+
+		////////////////////////////////////////////////////////
+		// 0. check that we have the right logical time class //
+		////////////////////////////////////////////////////////
+		double doubleTime = PorticoConstants.NULL_TIME;
+		if( theTime != null )
+			doubleTime = DoubleTime.fromTime( theTime );
+		HandleValueMap map = HLA1516eParameterHandleValueMap.toJavaMap( theParameters );
+		int iHandle = HLA1516eHandle.fromHandle( theInteraction );
+
+		///////////////////////////////////////////////////////
+		// 1. create the message and pass it to the LRC sink //
+		///////////////////////////////////////////////////////
+		SendInteraction request =
+			new SendInteraction( iHandle, userSuppliedTag, map, regionToken, doubleTime );
+		ResponseMessage response = processMessage( request );
+
+		////////////////////////////
+		// 2. process the results //
+		////////////////////////////
+		// check to see if we got an error or a success
+		if( response.isError() == false )
+		{
+			// everything went fine!
+			return new MessageRetractionReturn( true, new HLA1516eHandle(0) );
+		}
+		else
+		{
+			// an exception was caused :(
+			Throwable theException = ((ErrorResponse)response).getCause();
+
+			if( theException instanceof JRTIinternalError )
+			{
+				throw new RTIinternalError( theException );
+			}
+			else if( theException instanceof JInteractionClassNotDefined )
+			{
+				throw new InteractionClassNotDefined( theException );
+			}
+			else if( theException instanceof JInteractionClassNotPublished )
+			{
+				throw new InteractionClassNotPublished( theException );
+			}
+			else if( theException instanceof JInteractionParameterNotDefined )
+			{
+				throw new InteractionParameterNotDefined( theException );
+			}
+			else if( theException instanceof JRegionNotKnown )
+			{
+				throw new InvalidRegion( theException );
+			}
+			else if( theException instanceof JInvalidRegionContext )
+			{
+				throw new InvalidRegionContext( theException );
+			}
+			else if( theException instanceof JInvalidFederationTime )
+			{
+				throw new InvalidLogicalTime( theException );
+			}
+			else if( theException instanceof JFederateNotExecutionMember )
+			{
+				throw new FederateNotExecutionMember( theException );
+			}
+			else if( theException instanceof JSaveInProgress )
+			{
+				throw new SaveInProgress( theException );
+			}
+			else if( theException instanceof JRestoreInProgress )
+			{
+				throw new RestoreInProgress( theException );
+			}
+			else
+			{
+				logException( "sendInteractionWithRegions(LogicalTime)", theException );
+				throw new RTIinternalError( theException );
+			}
+		}
 	}
 
 	// 9.13
@@ -4783,7 +5894,77 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "requestAttributeValueUpdateWithRegions()" );
+		helper.checkJoined();
+		int classHandle = HLA1516eHandle.fromHandle( theClass );
+		Map<Integer,HashSet<Integer>> regionMap =
+			HLA1516eAttributeSetRegionSetPairList.toRegionMap( attributesAndRegions );
+		checkRegions( regionMap.keySet() );
+		checkRegionContext( helper.getFOM().getObjectClass(classHandle), regionMap );
+
+		for( Integer regionToken : regionMap.keySet() )
+		{
+			///////////////////////////////////////////////////////
+			// 1. create the message and pass it to the LRC sink //
+			///////////////////////////////////////////////////////
+			HashSet<Integer> attributes = regionMap.get( regionToken );
+			RequestClassUpdate request =
+				new RequestClassUpdate( classHandle, attributes, userSuppliedTag, regionToken );
+			ResponseMessage response = processMessage( request );
+
+			////////////////////////////
+			// 2. process the results //
+			////////////////////////////
+			// check to see if we got an error or a success
+			if( response.isError() == false )
+			{
+				// everything went fine!
+				continue;
+			}
+
+			// an exception was caused :(
+			Throwable theException = ((ErrorResponse)response).getCause();
+
+			if( theException instanceof JRTIinternalError )
+			{
+				throw new RTIinternalError( theException );
+			}
+			else if( theException instanceof JObjectClassNotDefined )
+			{
+				throw new ObjectClassNotDefined( theException );
+			}
+			else if( theException instanceof JAttributeNotDefined )
+			{
+				throw new AttributeNotDefined( theException );
+			}
+			else if( theException instanceof JRegionNotKnown )
+			{
+				throw new InvalidRegion( theException );
+			}
+			else if( theException instanceof JInvalidRegionContext )
+			{
+				throw new InvalidRegionContext( theException );
+			}
+			else if( theException instanceof JFederateNotExecutionMember )
+			{
+				throw new FederateNotExecutionMember( theException );
+			}
+			else if( theException instanceof JSaveInProgress )
+			{
+				throw new SaveInProgress( theException );
+			}
+			else if( theException instanceof JRestoreInProgress )
+			{
+				throw new RestoreInProgress( theException );
+			}
+			else if( theException instanceof JConcurrentAccessAttempted )
+			{
+				throw new RTIinternalError( theException );
+			}
+			else
+			{
+				logException( "requestAttributeValueUpdateWithRegions", theException );
+			}
+		}
 	}
 
 	///////////////////////////////////////////////////////////////////////////////////////////
@@ -5006,8 +6187,16 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "getUpdateRateValue()" );
-		return 0.0;
+		helper.checkJoined();
+
+		Double rate = null;
+		if( updateRateDesignator != null )
+			rate = helper.getFOM().getUpdateRate( updateRateDesignator );
+
+		if( rate == null )
+			throw new InvalidUpdateRateDesignator( "designator: " + updateRateDesignator );
+		else
+			return rate;
 	}
 
 	// 10.14
@@ -5019,8 +6208,24 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "getUpdateRateValueForAttribute()" );
-		return 0.0;
+		helper.checkJoined();
+
+		OCInstance instance = helper.getState().getRepository().getInstance( theObject.hashCode() );
+		if( instance == null )
+			throw new ObjectInstanceNotKnown( "handle: " + theObject );
+
+		int attributeHandle = HLA1516eHandle.fromHandle( theAttribute );
+		if( instance.getAttribute(attributeHandle) == null )
+			throw new AttributeNotDefined( "handle: " + theAttribute );
+
+		// the rate we subscribed with, if we subscribe to the attribute at all
+		InterestManager interests = helper.getState().getInterestManager();
+		int federateHandle = helper.getState().getFederateHandle();
+		int classHandle = instance.getDiscoveredClassHandle();
+		if( interests.isAttributeClassSubscribed(federateHandle,classHandle,attributeHandle) )
+			return interests.getUpdateRate( federateHandle, classHandle );
+		else
+			return 0.0;
 	}
 
 	// 10.15
@@ -5157,8 +6362,14 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "getTransportationTypeHandle()" );
-		return null;
+		helper.checkJoined();
+
+		if( HLA1516eTransportationTypeHandleFactory.RELIABLE_NAME.equals(theName) )
+			return HLA1516eTransportationTypeHandleFactory.RELIABLE;
+		else if( HLA1516eTransportationTypeHandleFactory.BEST_EFFORT_NAME.equals(theName) )
+			return HLA1516eTransportationTypeHandleFactory.BEST_EFFORT;
+		else
+			throw new InvalidTransportationName( "name: " + theName );
 	}
 
 	// 10.22
@@ -5168,8 +6379,15 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "getTransportationTypeName()" );
-		return null;
+		helper.checkJoined();
+
+		Transport transport = HLA1516eTransportationTypeHandleFactory.toTransport( theHandle );
+		if( transport == Transport.RELIABLE )
+			return HLA1516eTransportationTypeHandleFactory.RELIABLE_NAME;
+		else if( transport == Transport.BEST_EFFORT )
+			return HLA1516eTransportationTypeHandleFactory.BEST_EFFORT_NAME;
+		else
+			throw new InvalidTransportationType( "handle: " + theHandle );
 	}
 
 	// 10.23
@@ -5182,8 +6400,19 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "getAvailableDimensionsForClassAttribute()" );
-		return null;
+		helper.checkJoined();
+
+		int ocHandle = HLA1516eHandle.validatedHandle( whichClass );
+		int acHandle = HLA1516eHandle.validatedHandle( theHandle );
+		OCMetadata cls = helper.getFOM().getObjectClass( ocHandle );
+		if( cls == null )
+			throw new InvalidObjectClassHandle( "handle: " + whichClass );
+
+		ACMetadata attribute = cls.getAttribute( acHandle );
+		if( attribute == null )
+			throw new AttributeNotDefined( "handle: " + theHandle );
+		else
+			return new HLA1516eDimensionHandleSet( attribute.getDimensions() );
 	}
 
 	// 10.24
@@ -5194,8 +6423,14 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "getAvailableDimensionsForInteractionClass()" );
-		return null;
+		helper.checkJoined();
+
+		int icHandle = HLA1516eHandle.validatedHandle( theHandle );
+		ICMetadata cls = helper.getFOM().getInteractionClass( icHandle );
+		if( cls == null )
+			throw new InvalidInteractionClassHandle( "handle: " + theHandle );
+		else
+			return new HLA1516eDimensionHandleSet( cls.getDimensions() );
 	}
 
 	// 10.25
@@ -5205,8 +6440,13 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "getDimensionHandle()" );
-		return null;
+		helper.checkJoined();
+
+		Space space = helper.getFOM().getSpace( ObjectModel.DIMENSIONS_SPACE );
+		if( space == null || space.hasDimension(theName) == false )
+			throw new NameNotFound( "dimension: " + theName );
+		else
+			return new HLA1516eHandle( space.getDimensionHandle(theName) );
 	}
 
 	// 10.26
@@ -5216,8 +6456,8 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 		       NotConnected,
 		       RTIinternalError
 	{
-		featureNotSupported( "getDimensionName()" );
-		return null;
+		helper.checkJoined();
+		return getDimension( theHandle ).getName();
 	}
 
 	// 10.27
@@ -5227,8 +6467,8 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 		       NotConnected,
 		       RTIinternalError
 	{
-		featureNotSupported( "getDimensionUpperBound()" );
-		return 0;
+		helper.checkJoined();
+		return getDimension( theHandle ).getUpperBound();
 	}
 
 	// 10.28
@@ -5240,8 +6480,13 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 		       NotConnected,
 		       RTIinternalError
 	{
-		featureNotSupported( "getDimensionHandleSet()" );
-		return null;
+		helper.checkJoined();
+
+		RegionInstance instance = helper.getRegion( HLA1516eHandle.fromHandle(region) );
+		if( instance == null )
+			throw new InvalidRegion( "handle: " + region );
+		else
+			return new HLA1516eDimensionHandleSet( instance.getDimensions() );
 	}
 
 	// 10.29
@@ -5254,11 +6499,33 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "getRangeBounds()" );
-		return null;
+		helper.checkJoined();
+
+		RegionInstance instance = helper.getRegion( HLA1516eHandle.fromHandle(region) );
+		if( instance == null )
+			throw new InvalidRegion( "handle: " + region );
+
+		int dimensionHandle = HLA1516eHandle.fromHandle( dimension );
+		if( instance.getDimensions().contains(dimensionHandle) == false )
+			throw new RegionDoesNotContainSpecifiedDimension( "dimension: " + dimension );
+
+		try
+		{
+			// 1516e regions only ever have the one extent
+			return new RangeBounds( instance.getRangeLowerBound(0,dimensionHandle),
+			                        instance.getRangeUpperBound(0,dimensionHandle) );
+		}
+		catch( JArrayIndexOutOfBounds aioob )
+		{
+			throw new RTIinternalError( aioob );
+		}
 	}
 
 	// 10.30
+	/**
+	 * The bounds are only set on our working copy of the region, they aren't seen by the rest
+	 * of the federation until {@link #commitRegionModifications(RegionHandleSet)} is called.
+	 */
 	public void setRangeBounds( RegionHandle region, DimensionHandle dimension, RangeBounds bounds )
 	    throws InvalidRangeBound,
 	           RegionDoesNotContainSpecifiedDimension,
@@ -5270,7 +6537,41 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 	           NotConnected,
 	           RTIinternalError
 	{
-		featureNotSupported( "setRangeBounds()" );
+		helper.checkJoined();
+		helper.checkSave();
+		helper.checkRestore();
+
+		int regionToken = HLA1516eHandle.fromHandle( region );
+		checkRegions( Collections.singleton(regionToken) );
+		RegionInstance instance = helper.getRegion( regionToken );
+
+		int dimensionHandle = HLA1516eHandle.fromHandle( dimension );
+		if( instance.getDimensions().contains(dimensionHandle) == false )
+			throw new RegionDoesNotContainSpecifiedDimension( "dimension: " + dimension );
+
+		// make sure the bounds make sense for the dimension
+		Space space = helper.getFOM().getSpace( ObjectModel.DIMENSIONS_SPACE );
+		long upperBound = space.getDimension(dimensionHandle).getUpperBound();
+		if( bounds.lower < PorticoConstants.MIN_EXTENT || bounds.upper > upperBound )
+		{
+			throw new InvalidRangeBound( "bounds ["+bounds.lower+","+bounds.upper+
+			                             "] outside the dimension range [0,"+upperBound+"]" );
+		}
+		else if( bounds.lower >= bounds.upper )
+		{
+			throw new InvalidRangeBound( "lower bound ["+bounds.lower+
+			                             "] not less than upper bound ["+bounds.upper+"]" );
+		}
+
+		try
+		{
+			instance.setRangeLowerBound( 0, dimensionHandle, bounds.lower );
+			instance.setRangeUpperBound( 0, dimensionHandle, bounds.upper );
+		}
+		catch( JArrayIndexOutOfBounds aioob )
+		{
+			throw new RTIinternalError( aioob );
+		}
 	}
 
 	// 10.31
@@ -5587,6 +6888,142 @@ public abstract class Rti1516eAmbassador implements RTIambassador
 		}
 	}
 	
+	/**
+	 * Check that each of the given regions was created by this federate, throwing the exception
+	 * the standard asks for if it wasn't. Regions created by others are still known to us, as
+	 * they're needed to work out who is interested in what we send.
+	 */
+	private void checkRegions( Set<Integer> regionTokens )
+		throws RegionNotCreatedByThisFederate, InvalidRegion
+	{
+		for( Integer regionToken : regionTokens )
+		{
+			if( helper.getRegion(regionToken) != null )
+				continue;
+			else if( helper.getState().getRegionStore().containsRegion(regionToken) )
+				throw new RegionNotCreatedByThisFederate( "token: " + regionToken );
+			else
+				throw new InvalidRegion( "token: " + regionToken );
+		}
+	}
+
+	/**
+	 * The LRC checks that a region is in the same routing space as the attributes it is used
+	 * with, but in 1516e all dimensions are in the one space. The standard also requires that a
+	 * region only uses dimensions that are available to each attribute it is paired with, so
+	 * check that here. Unknown classes and attributes are left for the LRC to report.
+	 */
+	private void checkRegionContext( OCMetadata objectClass, Map<Integer,HashSet<Integer>> regionMap )
+		throws InvalidRegionContext
+	{
+		if( objectClass == null )
+			return;
+
+		for( Integer regionToken : regionMap.keySet() )
+		{
+			Set<Integer> dimensions = helper.getRegion(regionToken).getDimensions();
+			for( Integer attributeHandle : regionMap.get(regionToken) )
+			{
+				ACMetadata attribute = objectClass.getAttribute( attributeHandle );
+				if( attribute != null && attribute.getDimensions().containsAll(dimensions) == false )
+				{
+					throw new InvalidRegionContext( "region ["+regionToken+"] uses dimensions "+
+					                                "not available to attribute ["+attribute.getName()+"]" );
+				}
+			}
+		}
+	}
+
+	/**
+	 * Same as {@link #checkRegionContext(OCMetadata, Map)} for the dimensions available to an
+	 * interaction class.
+	 */
+	private void checkRegionContext( ICMetadata interactionClass, Set<Integer> regionTokens )
+		throws InvalidRegionContext
+	{
+		if( interactionClass == null )
+			return;
+
+		for( Integer regionToken : regionTokens )
+		{
+			Set<Integer> dimensions = helper.getRegion(regionToken).getDimensions();
+			if( interactionClass.getDimensions().containsAll(dimensions) == false )
+			{
+				throw new InvalidRegionContext( "region ["+regionToken+"] uses dimensions not "+
+				                                "available to interaction ["+
+				                                interactionClass.getQualifiedName()+"]" );
+			}
+		}
+	}
+
+	/**
+	 * Turn the list into a map of region token to the attributes it is paired with, checking
+	 * that the regions are ours as we go. Portico links each attribute of an object with at most
+	 * one region for updates, so an exception is thrown if an attribute is paired with more.
+	 */
+	private Map<Integer,HashSet<Integer>> toUpdateRegionMap( AttributeSetRegionSetPairList list )
+		throws RegionNotCreatedByThisFederate, InvalidRegion, RTIinternalError
+	{
+		Map<Integer,HashSet<Integer>> regionMap =
+			HLA1516eAttributeSetRegionSetPairList.toRegionMap( list );
+		checkRegions( regionMap.keySet() );
+
+		Set<Integer> seen = new HashSet<Integer>();
+		for( HashSet<Integer> attributes : regionMap.values() )
+		{
+			for( Integer attributeHandle : attributes )
+			{
+				if( seen.add(attributeHandle) == false )
+				{
+					throw new RTIinternalError( "Portico only supports one update region per "+
+					                            "attribute: attribute="+attributeHandle );
+				}
+			}
+		}
+
+		return regionMap;
+	}
+
+	/**
+	 * Find the region an interaction is to be sent with. No regions means the default region,
+	 * for which {@link PorticoConstants#NULL_HANDLE} is returned. Portico sends each interaction
+	 * with at most one region, so an exception is thrown if there is more than one.
+	 */
+	private int toSendRegion( InteractionClassHandle theInteraction, RegionHandleSet regions )
+		throws InvalidRegionContext, RegionNotCreatedByThisFederate, InvalidRegion, RTIinternalError
+	{
+		HashSet<Integer> regionTokens = HLA1516eRegionHandleSet.toJavaSet( regions );
+		if( regionTokens.isEmpty() )
+			return PorticoConstants.NULL_HANDLE;
+		else if( regionTokens.size() > 1 )
+		{
+			throw new RTIinternalError( "Portico only supports sending an interaction with "+
+			                            "at most one region" );
+		}
+
+		checkRegions( regionTokens );
+		int classHandle = HLA1516eHandle.fromHandle( theInteraction );
+		checkRegionContext( helper.getFOM().getInteractionClass(classHandle), regionTokens );
+		return regionTokens.iterator().next();
+	}
+
+	/**
+	 * @return The 1516e dimension with the given handle
+	 * @throws InvalidDimensionHandle If there is no dimension with that handle in the FOM
+	 */
+	private Dimension getDimension( DimensionHandle theHandle ) throws InvalidDimensionHandle
+	{
+		Space space = helper.getFOM().getSpace( ObjectModel.DIMENSIONS_SPACE );
+		Dimension dimension = null;
+		if( space != null && theHandle != null )
+			dimension = space.getDimension( HLA1516eHandle.fromHandle(theHandle) );
+
+		if( dimension == null )
+			throw new InvalidDimensionHandle( "handle: " + theHandle );
+		else
+			return dimension;
+	}
+
 	/**
 	 * This method prints the stack trace for the exception and then throws an RTIinternalError 
 	 */
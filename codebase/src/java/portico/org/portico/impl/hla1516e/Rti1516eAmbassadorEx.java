@@ -14,6 +14,10 @@
  */
 package org.portico.impl.hla1516e;
 
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import org.portico.impl.hla1516e.types.HLA1516eAttributeHandleSet;
 import org.portico.impl.hla1516e.types.HLA1516eHandle;
 import org.portico.lrc.model.ACMetadata;
 import org.portico.lrc.model.ICMetadata;
@@ -29,6 +33,7 @@ import org.portico.lrc.model.datatype.SimpleType;
 import org.portico.lrc.model.datatype.VariantRecordType;
 
 import hla.rti1516e.AttributeHandle;
+import hla.rti1516e.AttributeHandleSet;
 import hla.rti1516e.InteractionClassHandle;
 import hla.rti1516e.ObjectClassHandle;
 import hla.rti1516e.ParameterHandle;
@@ -169,6 +174,171 @@ public class Rti1516eAmbassadorEx extends Rti1516eAmbassador
 		}
 	}
 	
+	///////////////////////////////////////////////////////////////////////////////////////////
+	///////////////////////////////// Callback Batching Methods ///////////////////////////////
+	///////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Set the most callback messages that <code>evokeMultipleCallbacks()</code> will take from
+	 * the queue and process together. If the federate ambassador implements
+	 * {@link BatchFederateAmbassador}, the reflections in each batch are delivered to it in a
+	 * single call. Even if it doesn't, the messages are taken from the queue together, which
+	 * saves some work for federates that receive a lot of them.
+	 * <p/>
+	 * A size of 1 turns batching off. The default comes from the
+	 * <code>portico.lrc.tick.batchSize</code> RID property, which is 1 if not set.
+	 */
+	public void setCallbackBatchSize( int batchSize )
+	{
+		getHelper().getLrc().setTickBatchSize( batchSize );
+	}
+
+	/**
+	 * @return The most callback messages that will be processed together. See
+	 *         {@link #setCallbackBatchSize(int)}.
+	 */
+	public int getCallbackBatchSize()
+	{
+		return getHelper().getLrc().getTickBatchSize();
+	}
+
+	/**
+	 * Have callbacks delivered on the given executor when the federate is connected with the
+	 * <code>HLA_IMMEDIATE</code> callback model, rather than on a thread of Portico's own. Each
+	 * time there are callbacks to deliver, a task is given to the executor that delivers whatever
+	 * is available and then returns. Only one such task is outstanding at any time, so callbacks
+	 * are still delivered one after the other, in order.
+	 * <p/>
+	 * Can be called before or after connecting. Pass <code>null</code> to go back to Portico's
+	 * own thread (see the <code>portico.lrc.callback.thread</code> RID property).
+	 */
+	public void setCallbackExecutor( Executor executor )
+	{
+		getHelper().getLrc().setCallbackExecutor( executor );
+	}
+
+	/**
+	 * @return The executor immediate callbacks are delivered on, or <code>null</code> if they
+	 *         are delivered on Portico's own thread. See {@link #setCallbackExecutor(Executor)}.
+	 */
+	public Executor getCallbackExecutor()
+	{
+		return getHelper().getLrc().getCallbackExecutor();
+	}
+
+	///////////////////////////////////////////////////////////////////////////////////////////
+	/////////////////////////////// Time Advance Mode Methods /////////////////////////////////
+	///////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Turn the null-message time advance mode on or off for <code>nextMessageRequest()</code>
+	 * and <code>nextMessageRequestAvailable()</code>. In this mode the federate is granted to the
+	 * time of the next message it actually receives (or the requested time if none arrive), and
+	 * while waiting it keeps the rest of the federation told of the earliest time it could send
+	 * anything at, so that they can keep advancing without waiting for it to be granted.
+	 * <p/>
+	 * This should only be changed while no time advance is outstanding. The default comes from
+	 * the <code>portico.lrc.time.nullMessages</code> RID property, which is off if not set.
+	 */
+	public void setNullMessageTimeAdvance( boolean enabled )
+	{
+		getHelper().getLrc().setNullMessageTimeAdvance( enabled );
+	}
+
+	/**
+	 * @return <code>true</code> if the null-message time advance mode is on. See
+	 *         {@link #setNullMessageTimeAdvance(boolean)}.
+	 */
+	public boolean isNullMessageTimeAdvance()
+	{
+		return getHelper().getLrc().isNullMessageTimeAdvance();
+	}
+
+	///////////////////////////////////////////////////////////////////////////////////////////
+	/////////////////////////////// Update Coalescing Methods /////////////////////////////////
+	///////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Coalesce receive order reflections for objects of the given class (and its subclasses)
+	 * while they wait to be delivered. A reflection for an object that already has one waiting
+	 * is merged into it rather than queued, keeping the latest value of each attribute. This is
+	 * for federates that only care about the current state of objects and would otherwise work
+	 * through every stale update when they fall behind.
+	 * <p/>
+	 * If attributes are given, only they are coalesced: a reflection is only merged if every
+	 * attribute it has in common with the waiting one is in the set. If the set is
+	 * <code>null</code> or empty, all attributes are. The settings apply to the federation the
+	 * federate is joined to. Classes can also be given in the
+	 * <code>portico.lrc.queue.coalesce</code> RID property.
+	 */
+	public void setUpdateCoalescing( ObjectClassHandle whichClass, AttributeHandleSet attributes )
+	    throws AttributeNotDefined,
+	           InvalidObjectClassHandle,
+	           FederateNotExecutionMember,
+	           NotConnected,
+	           RTIinternalError
+	{
+		Impl1516eHelper helper = getHelper();
+		helper.checkJoined();
+
+		OCMetadata cls = getObjectClass( helper, whichClass );
+		Set<Integer> attributeHandles = null;
+		if( attributes != null )
+		{
+			attributeHandles = HLA1516eAttributeHandleSet.toJavaSet( attributes );
+			for( Integer attributeHandle : attributeHandles )
+			{
+				if( cls.hasAttribute(attributeHandle) == false )
+					throw new AttributeNotDefined( "handle: " + attributeHandle );
+			}
+		}
+
+		helper.getState().getQueue().setCoalescing( cls.getHandle(), attributeHandles );
+	}
+
+	/**
+	 * Stop coalescing reflections for objects of the given class. See
+	 * {@link #setUpdateCoalescing(ObjectClassHandle, AttributeHandleSet)}.
+	 */
+	public void clearUpdateCoalescing( ObjectClassHandle whichClass )
+	    throws InvalidObjectClassHandle,
+	           FederateNotExecutionMember,
+	           NotConnected,
+	           RTIinternalError
+	{
+		Impl1516eHelper helper = getHelper();
+		helper.checkJoined();
+
+		OCMetadata cls = getObjectClass( helper, whichClass );
+		helper.getState().getQueue().clearCoalescing( cls.getHandle() );
+	}
+
+	/**
+	 * @return <code>true</code> if reflections for objects of the given class are coalesced,
+	 *         for all attributes or some of them. See
+	 *         {@link #setUpdateCoalescing(ObjectClassHandle, AttributeHandleSet)}.
+	 */
+	public boolean isUpdateCoalescing( ObjectClassHandle whichClass )
+	    throws InvalidObjectClassHandle,
+	           FederateNotExecutionMember,
+	           NotConnected,
+	           RTIinternalError
+	{
+		Impl1516eHelper helper = getHelper();
+		helper.checkJoined();
+
+		OCMetadata cls = getObjectClass( helper, whichClass );
+		return helper.getState().getQueue().isCoalescing( cls.getHandle() );
+	}
+
+	private OCMetadata getObjectClass( Impl1516eHelper helper, ObjectClassHandle whichClass )
+	    throws InvalidObjectClassHandle
+	{
+		int ocHandle = HLA1516eHandle.validatedHandle( whichClass );
+		OCMetadata cls = helper.getFOM().getObjectClass( ocHandle );
+		if( cls == null )
+			throw new InvalidObjectClassHandle( "handle: " + whichClass );
+		else
+			return cls;
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
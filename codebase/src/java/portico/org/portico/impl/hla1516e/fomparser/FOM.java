@@ -17,6 +17,7 @@ package org.portico.impl.hla1516e.fomparser;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -25,11 +26,13 @@ import org.portico.lrc.compat.JConfigurationException;
 import org.portico.lrc.compat.JCouldNotOpenFED;
 import org.portico.lrc.compat.JErrorReadingFED;
 import org.portico.lrc.model.ACMetadata;
+import org.portico.lrc.model.Dimension;
 import org.portico.lrc.model.ICMetadata;
 import org.portico.lrc.model.OCMetadata;
 import org.portico.lrc.model.ObjectModel;
 import org.portico.lrc.model.Order;
 import org.portico.lrc.model.PCMetadata;
+import org.portico.lrc.model.Space;
 import org.portico.lrc.model.Transport;
 import org.portico.lrc.model.datatype.IDatatype;
 import org.portico.lrc.model.datatype.linker.Linker;
@@ -76,6 +79,7 @@ public class FOM
 		Element objectsElement = null;
 		Element interactionsElement = null;
 		Element dimensionsElement = null;
+		Element updateRatesElement = null;
 		for( Element temp : FedHelpers.getChildElements(element) )
 		{
 			String tagName = temp.getTagName();
@@ -87,6 +91,8 @@ public class FOM
 				interactionsElement = temp;
 			else if( tagName.equals("dimensions") )
 				dimensionsElement = temp;
+			else if( tagName.equals("updateRates") )
+				updateRatesElement = temp;
 			else
 				continue; // ignore
 		}
@@ -95,6 +101,13 @@ public class FOM
 		// we extract objects and interactions)
 		if( datatypesElement != null )
 			this.extractDatatypes( datatypesElement );
+
+		// extract all the dimensions (again, before objects and interactions as they refer to them)
+		this.extractDimensions( dimensionsElement );
+
+		// extract the update rate designators
+		if( updateRatesElement != null )
+			this.extractUpdateRates( updateRatesElement );
 		
 		// extract all the object classes
 		OCMetadata objectRoot = null;
@@ -121,11 +134,6 @@ public class FOM
 			this.fom.addInteractionClass( interactionRoot );
 		}
 		this.fom.setInteractionRoot( interactionRoot );
-		
-		if( dimensionsElement != null )
-		{
-			
-		}
 
 		// return the completed FOM
 		return this.fom;
@@ -171,6 +179,132 @@ public class FOM
 		}
 	}
 	
+	////////////////////////////////////////////////////////////////////////////////////////////
+	//////////////////////////////////// Dimension Methods /////////////////////////////////////
+	////////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * 1516e doesn't have routing spaces, so all the dimensions in the FOM are stored in a single
+	 * space named {@link ObjectModel#DIMENSIONS_SPACE}. This space is always created, even if
+	 * there are no dimensions in this module, as the DDM services expect to find it.
+	 * <p/>
+	 * The general format of the dimensions element is as follows:
+	 * <pre>
+     * <dimensions>
+     *    <dimension>
+     *       <name>name</name>
+     *       <dataType>HLAinteger32BE</dataType>
+     *       <upperBound>1000</upperBound>
+     *       ...
+     *    </dimension>
+     * </dimensions>
+	 * </pre>
+	 */
+	private void extractDimensions( Element dimensionsElement ) throws JErrorReadingFED
+	{
+		Space space = fom.newSpace( ObjectModel.DIMENSIONS_SPACE );
+		fom.addSpace( space );
+		if( dimensionsElement == null )
+			return;
+
+		List<Element> dimensions = FedHelpers.getAllChildElements( dimensionsElement, "dimension" );
+		for( Element dimensionElement : dimensions )
+		{
+			String name = FedHelpers.getChildValue( dimensionElement, "name" );
+			Dimension dimension = fom.newDimension( name );
+			String upperBound = FedHelpers.getChildValueForgiving( dimensionElement,
+			                                                       "upperBound",
+			                                                       name );
+			if( upperBound != null )
+			{
+				try
+				{
+					dimension.setUpperBound( Long.parseLong(upperBound) );
+				}
+				catch( NumberFormatException nfe )
+				{
+					throw new JErrorReadingFED( "dimension "+name+" has an invalid upper bound: "+
+					                            upperBound );
+				}
+			}
+
+			space.addDimension( dimension );
+		}
+	}
+
+	/**
+	 * Find the handles of the dimensions listed in the <code>&lt;dimensions&gt;</code> child of
+	 * an attribute or interaction element. "NA" is ignored. If a dimension isn't in the FOM
+	 * (it may be declared in another module that gets merged later) then it is created.
+	 */
+	private Set<Integer> extractAvailableDimensions( Element element )
+	{
+		Set<Integer> handles = new HashSet<Integer>();
+		Element dimensionsElement = FedHelpers.getFirstChildElement( element, "dimensions" );
+		if( dimensionsElement == null )
+			return handles;
+
+		Space space = fom.getSpace( ObjectModel.DIMENSIONS_SPACE );
+		for( Element dimensionElement : FedHelpers.getAllChildElements(dimensionsElement,
+		                                                               "dimension") )
+		{
+			String name = dimensionElement.getTextContent().trim();
+			if( name.isEmpty() || name.equals("NA") )
+				continue;
+
+			Dimension dimension = space.getDimension( name );
+			if( dimension == null )
+			{
+				dimension = fom.newDimension( name );
+				space.addDimension( dimension );
+			}
+
+			handles.add( dimension.getHandle() );
+		}
+
+		return handles;
+	}
+
+	////////////////////////////////////////////////////////////////////////////////////////////
+	/////////////////////////////////// Update Rate Methods ////////////////////////////////////
+	////////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Extract the update rate designators federates can subscribe with, along with the maximum
+	 * number of updates per second each stands for.
+	 * <p/>
+	 * The general format of the updateRates element is as follows:
+	 * <pre>
+     * <updateRates>
+     *    <updateRate>
+     *       <name>name</name>
+     *       <rate>10.0</rate>
+     *       ...
+     *    </updateRate>
+     * </updateRates>
+	 * </pre>
+	 */
+	private void extractUpdateRates( Element updateRatesElement ) throws JErrorReadingFED
+	{
+		List<Element> updateRates = FedHelpers.getAllChildElements( updateRatesElement,
+		                                                            "updateRate" );
+		for( Element updateRateElement : updateRates )
+		{
+			String name = FedHelpers.getChildValue( updateRateElement, "name" );
+			String rate = FedHelpers.getChildValue( updateRateElement, "rate" );
+			try
+			{
+				double value = Double.parseDouble( rate );
+				if( value <= 0.0 || Double.isInfinite(value) || Double.isNaN(value) )
+					throw new NumberFormatException();
+
+				fom.addUpdateRate( name, value );
+			}
+			catch( NumberFormatException nfe )
+			{
+				throw new JErrorReadingFED( "update rate "+name+" has an invalid rate: "+rate );
+			}
+		}
+	}
+
 	////////////////////////////////////////////////////////////////////////////////////////////
 	/////////////////////////////////// Object Class Methods ///////////////////////////////////
 	////////////////////////////////////////////////////////////////////////////////////////////
@@ -276,6 +410,13 @@ public class FOM
 			if( attributeTransport != null )
 				attribute.setTransport( Transport.fromFomString(attributeTransport) );
 
+			// Available dimensions
+			for( Integer dimension : extractAvailableDimensions(attributeElement) )
+			{
+				attribute.setSpace( fom.getSpace(ObjectModel.DIMENSIONS_SPACE) );
+				attribute.addDimension( dimension );
+			}
+
 			// add the attribute to the containing class
 			clazz.addAttribute( attribute );
 		}
@@ -335,6 +476,13 @@ public class FOM
 		if( interactionTransport != null )
 			interactionRoot.setTransport( Transport.fromFomString(interactionTransport) );
 
+		// get the available dimensions
+		for( Integer dimension : extractAvailableDimensions(interactionRootElement) )
+		{
+			interactionRoot.setSpace( fom.getSpace(ObjectModel.DIMENSIONS_SPACE) );
+			interactionRoot.addDimension( dimension );
+		}
+
 		// get the parameters
 		extractParameters( interactionRoot, interactionRootElement );
 		fom.addInteractionClass( interactionRoot );
@@ -368,6 +516,13 @@ public class FOM
 			if( interactionTransport != null )
 				interactionClass.setTransport( Transport.fromFomString(interactionTransport) );
 
+			// get the available dimensions
+			for( Integer dimension : extractAvailableDimensions(current) )
+			{
+				interactionClass.setSpace( fom.getSpace(ObjectModel.DIMENSIONS_SPACE) );
+				interactionClass.addDimension( dimension );
+			}
+
 			// get all the interaction parameters
 			extractParameters( interactionClass, current );
 			
@@ -0,0 +1,106 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.impl.hla1516e.handlers;
+
+import hla.rti1516e.TransportationTypeHandle;
+
+import java.util.Map;
+
+import org.portico.impl.hla1516e.types.HLA1516eAttributeHandleSet;
+import org.portico.impl.hla1516e.types.HLA1516eHandle;
+import org.portico.impl.hla1516e.types.HLA1516eTransportationTypeHandleFactory;
+import org.portico.lrc.services.object.msg.AttributeTransportResponse;
+import org.portico.utils.messaging.MessageContext;
+import org.portico.utils.messaging.MessageHandler;
+
+/**
+ * Generates confirmAttributeTransportationTypeChange() and reportAttributeTransportationType()
+ * callbacks.
+ */
+@MessageHandler(modules="lrc1516e-callback",
+                keywords= {"lrc1516e"},
+                sinks="incoming",
+                priority=3,
+                messages=AttributeTransportResponse.class)
+public class AttributeTransportCallbackHandler extends HLA1516eCallbackHandler
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	public void initialize( Map<String,Object> properties )
+	{
+		super.initialize( properties );
+	}
+	
+	public void process( MessageContext context ) throws Exception
+	{
+		AttributeTransportResponse callback =
+			context.getRequest( AttributeTransportResponse.class, this );
+		int objectHandle = callback.getObjectHandle();
+		TransportationTypeHandle transport =
+			HLA1516eTransportationTypeHandleFactory.fromTransport( callback.getTransport() );
+
+		if( callback.isConfirmation() )
+		{
+			if( logger.isTraceEnabled() )
+			{
+				logger.trace( "CALLBACK confirmAttributeTransportationTypeChange(object="+
+				              objectHandle+",attributes="+acMoniker(callback.getAttributes())+
+				              ",transport="+callback.getTransport()+")" );
+			}
+
+			fedamb().confirmAttributeTransportationTypeChange(
+			    new HLA1516eHandle(objectHandle),
+			    new HLA1516eAttributeHandleSet(callback.getAttributes()),
+			    transport );
+
+			logger.trace( "         confirmAttributeTransportationTypeChange() callback complete" );
+		}
+		else
+		{
+			int attributeHandle = callback.getAttributes().iterator().next();
+			if( logger.isTraceEnabled() )
+			{
+				logger.trace( "CALLBACK reportAttributeTransportationType(object="+objectHandle+
+				              ",attribute="+attributeHandle+",transport="+
+				              callback.getTransport()+")" );
+			}
+
+			fedamb().reportAttributeTransportationType( new HLA1516eHandle(objectHandle),
+			                                            new HLA1516eHandle(attributeHandle),
+			                                            transport );
+
+			logger.trace( "         reportAttributeTransportationType() callback complete" );
+		}
+
+		context.success();
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -15,6 +15,7 @@
 package org.portico.impl.hla1516e.handlers;
 
 import hla.rti1516e.FederateAmbassador;
+import hla.rti1516e.exceptions.FederateInternalError;
 
 import java.util.Map;
 
@@ -64,9 +65,14 @@ public abstract class HLA1516eCallbackHandler extends LRCMessageHandler
 	 * Fetch the return the {@link FederateAmbassador} reference from the helper.
 	 * Can't just pre-store this as the handlers are all created <i>before</i> we
 	 * join a federation (and thus, before we have a FederateAmbassador to store).
+	 * <p/>
+	 * As every callback goes through here, this is also where any reflections being held for a
+	 * callback batch are delivered, so they always reach the federate before the callback that
+	 * is about to be made (see {@link Impl1516eHelper#flushReflections()}).
 	 */
-	protected final FederateAmbassador fedamb()
+	protected final FederateAmbassador fedamb() throws FederateInternalError
 	{
+		this.helper.flushReflections();
 		return this.helper.getFederateAmbassador();
 	}
 
@@ -0,0 +1,102 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.impl.hla1516e.handlers;
+
+import hla.rti1516e.TransportationTypeHandle;
+
+import java.util.Map;
+
+import org.portico.impl.hla1516e.types.HLA1516eHandle;
+import org.portico.impl.hla1516e.types.HLA1516eTransportationTypeHandleFactory;
+import org.portico.lrc.services.object.msg.InteractionTransportResponse;
+import org.portico.utils.messaging.MessageContext;
+import org.portico.utils.messaging.MessageHandler;
+
+/**
+ * Generates confirmInteractionTransportationTypeChange() and reportInteractionTransportationType()
+ * callbacks.
+ */
+@MessageHandler(modules="lrc1516e-callback",
+                keywords= {"lrc1516e"},
+                sinks="incoming",
+                priority=3,
+                messages=InteractionTransportResponse.class)
+public class InteractionTransportCallbackHandler extends HLA1516eCallbackHandler
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	public void initialize( Map<String,Object> properties )
+	{
+		super.initialize( properties );
+	}
+	
+	public void process( MessageContext context ) throws Exception
+	{
+		InteractionTransportResponse callback =
+			context.getRequest( InteractionTransportResponse.class, this );
+		int classHandle = callback.getClassHandle();
+		TransportationTypeHandle transport =
+			HLA1516eTransportationTypeHandleFactory.fromTransport( callback.getTransport() );
+
+		if( callback.isConfirmation() )
+		{
+			if( logger.isTraceEnabled() )
+			{
+				logger.trace( "CALLBACK confirmInteractionTransportationTypeChange(class="+
+				              classHandle+",transport="+callback.getTransport()+")" );
+			}
+
+			fedamb().confirmInteractionTransportationTypeChange( new HLA1516eHandle(classHandle),
+			                                                     transport );
+
+			logger.trace( "         confirmInteractionTransportationTypeChange() callback complete" );
+		}
+		else
+		{
+			int federateHandle = callback.getFederateHandle();
+			if( logger.isTraceEnabled() )
+			{
+				logger.trace( "CALLBACK reportInteractionTransportationType(federate="+
+				              federateHandle+",class="+classHandle+",transport="+
+				              callback.getTransport()+")" );
+			}
+
+			fedamb().reportInteractionTransportationType( new HLA1516eHandle(federateHandle),
+			                                              new HLA1516eHandle(classHandle),
+			                                              transport );
+
+			logger.trace( "         reportInteractionTransportationType() callback complete" );
+		}
+
+		context.success();
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -15,8 +15,8 @@
 package org.portico.impl.hla1516e.handlers;
 
 import hla.rti1516e.OrderType;
+import hla.rti1516e.TransportationTypeHandle;
 
-import java.util.HashMap;
 import java.util.Map;
 
 import static org.portico.impl.hla1516e.types.HLA1516eTransportationTypeHandleFactory.*;
@@ -25,6 +25,7 @@ import org.portico.impl.hla1516e.types.time.DoubleTime;
 import org.portico.impl.hla1516e.types.HLA1516eHandle;
 import org.portico.impl.hla1516e.types.HLA1516eParameterHandleValueMap;
 import org.portico.lrc.services.object.msg.SendInteraction;
+import org.portico.utils.HandleValueMap;
 import org.portico.utils.messaging.MessageContext;
 import org.portico.utils.messaging.MessageHandler;
 
@@ -62,7 +63,7 @@ public class ReceiveInteractionCallbackHandler extends HLA1516eCallbackHandler
 	{
 		SendInteraction request = context.getRequest( SendInteraction.class, this );
 		int classHandle = request.getInteractionId();
-		HashMap<Integer,byte[]> parameters = request.getParameters();
+		HandleValueMap parameters = request.getParameters();
 		double timestamp = request.getTimestamp();
 
 		// convert the attributes into an appropriate form
@@ -71,6 +72,8 @@ public class ReceiveInteractionCallbackHandler extends HLA1516eCallbackHandler
 		// generate the Supplemental Information
 		SupplementalInfo supplement = new SupplementalInfo( request.getSourceFederate() );
 		
+		TransportationTypeHandle transport = request.isBestEffort() ? BEST_EFFORT : RELIABLE;
+		
 		// do the callback
 		if( request.isTimestamped() )
 		{
@@ -85,7 +88,7 @@ public class ReceiveInteractionCallbackHandler extends HLA1516eCallbackHandler
 			                             received,                  // map
 			                             request.getTag(),          // tag
 			                             OrderType.TIMESTAMP,       // sent order
-			                             RELIABLE,                  // transport
+			                             transport,                 // transport
 			                             new DoubleTime(timestamp), // time 
 			                             OrderType.TIMESTAMP,       // received order
 			                             supplement );              // supplemental receive info
@@ -102,7 +105,7 @@ public class ReceiveInteractionCallbackHandler extends HLA1516eCallbackHandler
 			                             received,          // map
 			                             request.getTag(),  // tag
 			                             OrderType.RECEIVE, // sent order
-			                             BEST_EFFORT,       // transport
+			                             transport,         // transport
 			                             supplement );      // supplemental receive info
 		}
 		
@@ -15,17 +15,18 @@
 package org.portico.impl.hla1516e.handlers;
 
 import hla.rti1516e.OrderType;
+import hla.rti1516e.TransportationTypeHandle;
 
-import java.util.HashMap;
 import java.util.Map;
 
 import static org.portico.impl.hla1516e.types.HLA1516eTransportationTypeHandleFactory.*;
 
+import org.portico.impl.hla1516e.Reflection;
 import org.portico.impl.hla1516e.types.time.DoubleTime;
 import org.portico.impl.hla1516e.types.HLA1516eAttributeHandleValueMap;
 import org.portico.impl.hla1516e.types.HLA1516eHandle;
 import org.portico.lrc.services.object.msg.UpdateAttributes;
-import org.portico.lrc.services.object.msg.UpdateAttributes.FilteredAttribute;
+import org.portico.utils.HandleValueMap;
 import org.portico.utils.messaging.MessageContext;
 import org.portico.utils.messaging.MessageHandler;
 
@@ -63,13 +64,16 @@ public class ReflectAttributesCallbackHandler extends HLA1516eCallbackHandler
 	{
 		UpdateAttributes request = context.getRequest( UpdateAttributes.class, this );
 		int objectHandle = request.getObjectId();
-		HashMap<Integer,byte[]> attributes = getFilteredAttributes( request );
+		// the subscribed regions that come with the filtered attributes aren't part of the
+		// callback in 1516, only the values are delivered
+		HandleValueMap attributes = UpdateAttributes.getFilteredAttributes( context ).getValues();
 		double timestamp = request.getTimestamp();
 
 		// convert the attributes into an appropriate form
 		HLA1516eAttributeHandleValueMap reflected = new HLA1516eAttributeHandleValueMap(attributes);
 		SupplementalInfo supplement = new SupplementalInfo( request.getSourceFederate() );
 		
+		TransportationTypeHandle transport = request.isBestEffort() ? BEST_EFFORT : RELIABLE;
 		
 		// do the callback
 		if( request.isTimestamped() )
@@ -81,14 +85,28 @@ public class ReflectAttributesCallbackHandler extends HLA1516eCallbackHandler
 				              ",time="+timestamp+") (TSO)" );
 			}
 			
-			fedamb().reflectAttributeValues( new HLA1516eHandle(objectHandle),
-			                                 reflected,                 // attributes
-			                                 request.getTag(),          // tag
-			                                 OrderType.TIMESTAMP,       // sent order
-			                                 RELIABLE,                  // transport
-			                                 new DoubleTime(timestamp), // time
-			                                 OrderType.TIMESTAMP,       // received order
-			                                 supplement );              // supplemental reflect info
+			if( helper.isBatchingReflections() )
+			{
+				helper.holdReflection( new Reflection(new HLA1516eHandle(objectHandle),
+				                                      reflected,
+				                                      request.getTag(),
+				                                      OrderType.TIMESTAMP,
+				                                      transport,
+				                                      new DoubleTime(timestamp),
+				                                      OrderType.TIMESTAMP,
+				                                      supplement) );
+			}
+			else
+			{
+				fedamb().reflectAttributeValues( new HLA1516eHandle(objectHandle),
+				                                 reflected,                 // attributes
+				                                 request.getTag(),          // tag
+				                                 OrderType.TIMESTAMP,       // sent order
+				                                 transport,                 // transport
+				                                 new DoubleTime(timestamp), // time
+				                                 OrderType.TIMESTAMP,       // received order
+				                                 supplement );              // supplemental reflect info
+			}
 		}
 		else
 		{
@@ -98,12 +116,26 @@ public class ReflectAttributesCallbackHandler extends HLA1516eCallbackHandler
 				              acMonikerWithSizes(attributes)+") (RO)" );
 			}
 			
-			fedamb().reflectAttributeValues( new HLA1516eHandle(objectHandle),
-			                                 reflected,                 // attributes
-			                                 request.getTag(),          // tag
-			                                 OrderType.RECEIVE,         // sent order
-			                                 BEST_EFFORT,               // transport
-			                                 supplement );              // supplemental reflect info
+			if( helper.isBatchingReflections() )
+			{
+				helper.holdReflection( new Reflection(new HLA1516eHandle(objectHandle),
+				                                      reflected,
+				                                      request.getTag(),
+				                                      OrderType.RECEIVE,
+				                                      transport,
+				                                      null,
+				                                      OrderType.RECEIVE,
+				                                      supplement) );
+			}
+			else
+			{
+				fedamb().reflectAttributeValues( new HLA1516eHandle(objectHandle),
+				                                 reflected,                 // attributes
+				                                 request.getTag(),          // tag
+				                                 OrderType.RECEIVE,         // sent order
+				                                 transport,                 // transport
+				                                 supplement );              // supplemental reflect info
+			}
 		}
 		
 		context.success();
@@ -112,23 +144,6 @@ public class ReflectAttributesCallbackHandler extends HLA1516eCallbackHandler
 			logger.trace( "         reflectAttributeValues() callback complete" );
 	}
 
-	/**
-	 * The set of filtered attributes that should be delivered to the federate are contained in a
-	 * Map<Integer,FilteredAttribute> where FilteredAttribute contains the byte[] value and the
-	 * subscription region that overlapped with the sending region. This information is put into
-	 * the information returned in the callback in HLA 1.3, but isn't in 1516. This method converts
-	 * that map into a Map<Integer,byte[]> we can deliver as part of a 1516 callback.
-	 */
-	private HashMap<Integer,byte[]> getFilteredAttributes( UpdateAttributes request )
-	{
-		HashMap<Integer,byte[]> filteredSet = new HashMap<Integer,byte[]>();
-		HashMap<Integer,FilteredAttribute> received = request.getFilteredAttributes();
-		for( Integer attribute : received.keySet() )
-			filteredSet.put( attribute, received.get(attribute).value );
-		
-		return filteredSet;
-	}
-
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -19,16 +19,22 @@ import hla.rti1516e.AttributeHandleValueMap;
 import hla.rti1516e.encoding.ByteWrapper;
 import hla.rti1516e.exceptions.RTIinternalError;
 
-import java.util.HashMap;
 import java.util.Map;
 
+import org.portico.utils.HandleValueMap;
+
+/**
+ * The Portico implementation of {@link AttributeHandleValueMap}. See {@link HLA1516eHandleValueMap}
+ * for how this relates to the {@link HandleValueMap} that the values are carried around in.
+ */
 public class HLA1516eAttributeHandleValueMap
-       extends HashMap<AttributeHandle,byte[]>
+       extends HLA1516eHandleValueMap<AttributeHandle>
        implements AttributeHandleValueMap
 {
 	//----------------------------------------------------------
 	//                    STATIC VARIABLES
 	//----------------------------------------------------------
+	private static final long serialVersionUID = 98121116105109L;
 
 	//----------------------------------------------------------
 	//                   INSTANCE VARIABLES
@@ -39,7 +45,7 @@ public class HLA1516eAttributeHandleValueMap
 	//----------------------------------------------------------
 	public HLA1516eAttributeHandleValueMap()
 	{
-		super();
+		this( 8 );
 	}
 
 	public HLA1516eAttributeHandleValueMap( int capacity )
@@ -47,11 +53,13 @@ public class HLA1516eAttributeHandleValueMap
 		super( capacity );
 	}
 
+	/**
+	 * Create a map of the given attribute values. If they are in a {@link HandleValueMap} (as they
+	 * are when they come out of a message), they are wrapped rather than copied.
+	 */
 	public HLA1516eAttributeHandleValueMap( Map<Integer,byte[]> attributes )
 	{
-		this();
-		for( Integer attribute : attributes.keySet() )
-			this.put( new HLA1516eHandle(attribute), attributes.get(attribute) );
+		super( attributes );
 	}
 
 	//----------------------------------------------------------
@@ -63,11 +71,7 @@ public class HLA1516eAttributeHandleValueMap
 	 */
 	public ByteWrapper getValueReference( AttributeHandle key )
 	{
-		byte[] value = super.get( key );
-		if( value == null )
-			return null;
-		else
-			return new ByteWrapper( value );
+		return findValueReference( key, null );
 	}
 
 	/**
@@ -77,28 +81,33 @@ public class HLA1516eAttributeHandleValueMap
 	 */
 	public ByteWrapper getValueReference( AttributeHandle key, ByteWrapper byteWrapper )
 	{
-		byte[] value = super.get( key );
-		if( value == null )
-			return null;
-		
-		// update the wrapper and return
-		byteWrapper.reassign( value, 0, value.length );
-		return byteWrapper;
+		return findValueReference( key, byteWrapper );
+	}
+
+	@Override
+	public HLA1516eAttributeHandleValueMap clone()
+	{
+		return (HLA1516eAttributeHandleValueMap)super.clone();
 	}
 
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
-	public static HashMap<Integer,byte[]> toJavaMap( AttributeHandleValueMap map )
+	/**
+	 * Convert the given map into a {@link HandleValueMap} that can be put into a message. The
+	 * result is always a new map, so the federate is free to reuse the map it gave us.
+	 */
+	public static HandleValueMap toJavaMap( AttributeHandleValueMap map )
 		throws RTIinternalError
 	{
+		if( map instanceof HLA1516eAttributeHandleValueMap )
+			return ((HLA1516eAttributeHandleValueMap)map).copyHandleValueMap();
+
 		try
 		{
-			HashMap<Integer,byte[]> realMap = new HashMap<Integer,byte[]>();
-			for( AttributeHandle handle : map.keySet() )
-			{
-				realMap.put( ((HLA1516eHandle)handle).handle, map.get(handle) );
-			}
+			HandleValueMap realMap = new HandleValueMap( map.size() );
+			for( Map.Entry<AttributeHandle,byte[]> entry : map.entrySet() )
+				realMap.put( HLA1516eHandle.fromHandle(entry.getKey()), entry.getValue() );
 			
 			return realMap;
 		}
@@ -16,8 +16,12 @@ package org.portico.impl.hla1516e.types;
 
 import hla.rti1516e.AttributeRegionAssociation;
 import hla.rti1516e.AttributeSetRegionSetPairList;
+import hla.rti1516e.exceptions.RTIinternalError;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 
 public class HLA1516eAttributeSetRegionSetPairList
        extends ArrayList<AttributeRegionAssociation>
@@ -51,4 +55,27 @@ public class HLA1516eAttributeSetRegionSetPairList
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
+	/**
+	 * Turn the list around so that it is keyed by region. The returned map links each region
+	 * token that appears in the list to the set of all the attributes it was paired with.
+	 */
+	public static Map<Integer,HashSet<Integer>> toRegionMap( AttributeSetRegionSetPairList list )
+		throws RTIinternalError
+	{
+		Map<Integer,HashSet<Integer>> regionMap = new HashMap<Integer,HashSet<Integer>>();
+		for( AttributeRegionAssociation association : list )
+		{
+			HashSet<Integer> attributes = HLA1516eAttributeHandleSet.toJavaSet( association.ahset );
+			for( Integer regionToken : HLA1516eRegionHandleSet.toJavaSet(association.rhset) )
+			{
+				HashSet<Integer> existing = regionMap.get( regionToken );
+				if( existing == null )
+					regionMap.put( regionToken, new HashSet<Integer>(attributes) );
+				else
+					existing.addAll( attributes );
+			}
+		}
+
+		return regionMap;
+	}
 }
@@ -16,6 +16,7 @@ package org.portico.impl.hla1516e.types;
 
 import hla.rti1516e.DimensionHandle;
 import hla.rti1516e.DimensionHandleSet;
+import hla.rti1516e.exceptions.RTIinternalError;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -61,4 +62,22 @@ public class HLA1516eDimensionHandleSet
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
+	public static HashSet<Integer> toJavaSet( DimensionHandleSet set ) throws RTIinternalError
+	{
+		try
+		{
+			HashSet<Integer> realSet = new HashSet<Integer>();
+			for( DimensionHandle handle : set )
+			{
+				realSet.add( ((HLA1516eHandle)handle).handle );
+			}
+			
+			return realSet;
+		}
+		catch( Exception e )
+		{
+			throw new RTIinternalError( "Can't convert DimensionHandleSet to Portico native type: " +
+			                            e.getMessage() , e );
+		}
+	}
 }
@@ -0,0 +1,283 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.impl.hla1516e.types;
+
+import hla.rti1516e.encoding.ByteWrapper;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.portico.utils.HandleValueMap;
+
+/**
+ * Common parent of {@link HLA1516eAttributeHandleValueMap} and
+ * {@link HLA1516eParameterHandleValueMap}. Rather than keeping its own map of handle objects to
+ * values, this sits on top of the {@link HandleValueMap} that Portico carries values around in.
+ * When a callback is delivered, the map in the message is wrapped as is. When the federate passes
+ * one of these to the RTI, its backing map is copied with a couple of array copies.
+ * <p/>
+ * A wrapped map may be shared (a message can be delivered to more than one federate in the same
+ * process), so it is never changed directly. If the federate modifies a map that is wrapping one
+ * it was given, the map is copied first.
+ * <p/>
+ * Handle objects are only created when the federate iterates over the keys. Lookups go straight
+ * to the backing map. Only {@link HLA1516eHandle}s can be used as keys.
+ */
+abstract class HLA1516eHandleValueMap<K> extends AbstractMap<K,byte[]>
+                                         implements Cloneable, Serializable
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final long serialVersionUID = 98121116105109L;
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private HandleValueMap values;
+	private boolean shared; // values belong to someone else, copy them before changing them
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	protected HLA1516eHandleValueMap( int capacity )
+	{
+		this.values = new HandleValueMap( capacity );
+		this.shared = false;
+	}
+
+	/**
+	 * If the given values are a {@link HandleValueMap} they are wrapped rather than copied (and
+	 * will be copied if this map is ever changed). Any other map is copied.
+	 */
+	protected HLA1516eHandleValueMap( Map<Integer,byte[]> values )
+	{
+		if( values instanceof HandleValueMap )
+		{
+			this.values = (HandleValueMap)values;
+			this.shared = true;
+		}
+		else
+		{
+			this.values = new HandleValueMap( values );
+			this.shared = false;
+		}
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	/**
+	 * Create a new handle object of the type this map uses as keys
+	 */
+	@SuppressWarnings("unchecked")
+	private K toKey( int handle )
+	{
+		return (K)new HLA1516eHandle( handle );
+	}
+
+	private HandleValueMap writable()
+	{
+		if( shared )
+		{
+			this.values = new HandleValueMap( values );
+			this.shared = false;
+		}
+
+		return values;
+	}
+
+	private int toHandle( Object key )
+	{
+		if( key instanceof HLA1516eHandle )
+			return ((HLA1516eHandle)key).handle;
+		else
+			throw new IllegalArgumentException( "Unsupported handle type: "+key );
+	}
+
+	/**
+	 * @return The map of handles to values this map sits on top of. It must not be changed.
+	 */
+	public HandleValueMap getHandleValueMap()
+	{
+		return values;
+	}
+
+	/**
+	 * @return A copy of the values in this map, for handing over to the LRC in a message. The
+	 *         byte[] values themselves are not copied.
+	 */
+	protected HandleValueMap copyHandleValueMap()
+	{
+		return new HandleValueMap( values );
+	}
+
+	/**
+	 * Finds the value for the given key and updates the given wrapper with it, returning the
+	 * wrapper. If the wrapper is null a new one is returned. If there is no value for the key,
+	 * null is returned.
+	 */
+	protected ByteWrapper findValueReference( Object key, ByteWrapper byteWrapper )
+	{
+		byte[] value = get( key );
+		if( value == null )
+			return null;
+		else if( byteWrapper == null )
+			return new ByteWrapper( value );
+
+		// update the wrapper and return
+		byteWrapper.reassign( value, 0, value.length );
+		return byteWrapper;
+	}
+
+	/**
+	 * Returns a map with the same contents as this one. The two share their values until one of
+	 * them is changed.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public HLA1516eHandleValueMap<K> clone()
+	{
+		try
+		{
+			HLA1516eHandleValueMap<K> clone = (HLA1516eHandleValueMap<K>)super.clone();
+			this.shared = true;
+			clone.shared = true;
+			return clone;
+		}
+		catch( CloneNotSupportedException cnse )
+		{
+			throw new RuntimeException( cnse ); // can't happen, we're Cloneable
+		}
+	}
+
+	////////////////////////////////////////////////////////////
+	////////////////////// Map Interface ///////////////////////
+	////////////////////////////////////////////////////////////
+	@Override
+	public int size()
+	{
+		return values.size();
+	}
+
+	@Override
+	public boolean containsKey( Object key )
+	{
+		return (key instanceof HLA1516eHandle) && values.containsHandle( toHandle(key) );
+	}
+
+	@Override
+	public byte[] get( Object key )
+	{
+		return (key instanceof HLA1516eHandle) ? values.get( toHandle(key) ) : null;
+	}
+
+	@Override
+	public byte[] put( K key, byte[] value )
+	{
+		return writable().put( toHandle(key), value );
+	}
+
+	@Override
+	public byte[] remove( Object key )
+	{
+		if( containsKey(key) == false )
+			return null;
+
+		return writable().remove( toHandle(key) );
+	}
+
+	@Override
+	public void clear()
+	{
+		if( shared )
+		{
+			this.values = new HandleValueMap();
+			this.shared = false;
+		}
+		else
+		{
+			values.clear();
+		}
+	}
+
+	@Override
+	public Set<Map.Entry<K,byte[]>> entrySet()
+	{
+		return new AbstractSet<Map.Entry<K,byte[]>>()
+		{
+			@Override
+			public int size()
+			{
+				return values.size();
+			}
+
+			@Override
+			public Iterator<Map.Entry<K,byte[]>> iterator()
+			{
+				return new EntryIterator();
+			}
+		};
+	}
+
+	////////////////////////////////////////////////////////////////////////////////////////
+	////////////////////////////// Inner Class: Map Views //////////////////////////////////
+	////////////////////////////////////////////////////////////////////////////////////////
+	private class EntryIterator implements Iterator<Map.Entry<K,byte[]>>
+	{
+		private int next = 0;
+		private K last = null;
+
+		public boolean hasNext()
+		{
+			return next < values.size();
+		}
+
+		public Map.Entry<K,byte[]> next()
+		{
+			if( next >= values.size() )
+				throw new NoSuchElementException();
+
+			final K key = toKey( values.handleAt(next) );
+			final byte[] value = values.valueAt( next++ );
+			this.last = key;
+			return new AbstractMap.SimpleEntry<K,byte[]>( key, value )
+			{
+				private static final long serialVersionUID = 98121116105109L;
+				@Override
+				public byte[] setValue( byte[] newValue )
+				{
+					put( key, newValue );
+					return super.setValue( newValue );
+				}
+			};
+		}
+
+		public void remove()
+		{
+			if( last == null )
+				throw new IllegalStateException();
+
+			HLA1516eHandleValueMap.this.remove( last );
+			this.last = null;
+			this.next--;
+		}
+	}
+}
@@ -19,16 +19,22 @@ import hla.rti1516e.ParameterHandleValueMap;
 import hla.rti1516e.encoding.ByteWrapper;
 import hla.rti1516e.exceptions.RTIinternalError;
 
-import java.util.HashMap;
 import java.util.Map;
 
+import org.portico.utils.HandleValueMap;
+
+/**
+ * The Portico implementation of {@link ParameterHandleValueMap}. See {@link HLA1516eHandleValueMap}
+ * for how this relates to the {@link HandleValueMap} that the values are carried around in.
+ */
 public class HLA1516eParameterHandleValueMap
-       extends HashMap<ParameterHandle,byte[]>
+       extends HLA1516eHandleValueMap<ParameterHandle>
        implements ParameterHandleValueMap
 {
 	//----------------------------------------------------------
 	//                    STATIC VARIABLES
 	//----------------------------------------------------------
+	private static final long serialVersionUID = 98121116105109L;
 
 	//----------------------------------------------------------
 	//                   INSTANCE VARIABLES
@@ -39,19 +45,21 @@ public class HLA1516eParameterHandleValueMap
 	//----------------------------------------------------------
 	public HLA1516eParameterHandleValueMap()
 	{
-		super();
+		this( 8 );
 	}
 
 	public HLA1516eParameterHandleValueMap( int capacity )
 	{
 		super( capacity );
 	}
-	
+
+	/**
+	 * Create a map of the given parameter values. If they are in a {@link HandleValueMap} (as they
+	 * are when they come out of a message), they are wrapped rather than copied.
+	 */
 	public HLA1516eParameterHandleValueMap( Map<Integer,byte[]> parameters )
 	{
-		this();
-		for( Integer parameter : parameters.keySet() )
-			this.put( new HLA1516eHandle(parameter), parameters.get(parameter) );
+		super( parameters );
 	}
 
 	//----------------------------------------------------------
@@ -63,42 +71,43 @@ public class HLA1516eParameterHandleValueMap
 	 */
 	public ByteWrapper getValueReference( ParameterHandle key )
 	{
-		byte[] value = super.get( key );
-		if( value == null )
-			return null;
-		else
-			return new ByteWrapper( value );
+		return findValueReference( key, null );
 	}
 
 	/**
 	 * Finds the mapping for the provided {@link ParameterHandle} and update the
 	 * provided {@link ByteWrapper} with it. The same wrapper is then returned.
-	 * If there is no value for the attribute, null is returned.
+	 * If there is no value for the parameter, null is returned.
 	 */
 	public ByteWrapper getValueReference( ParameterHandle key, ByteWrapper byteWrapper )
 	{
-		byte[] value = super.get( key );
-		if( value == null )
-			return null;
-		
-		// update the wrapper and return
-		byteWrapper.reassign( value, 0, value.length );
-		return byteWrapper;
+		return findValueReference( key, byteWrapper );
+	}
+
+	@Override
+	public HLA1516eParameterHandleValueMap clone()
+	{
+		return (HLA1516eParameterHandleValueMap)super.clone();
 	}
 
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
-	public static HashMap<Integer,byte[]> toJavaMap( ParameterHandleValueMap map )
+	/**
+	 * Convert the given map into a {@link HandleValueMap} that can be put into a message. The
+	 * result is always a new map, so the federate is free to reuse the map it gave us.
+	 */
+	public static HandleValueMap toJavaMap( ParameterHandleValueMap map )
 		throws RTIinternalError
 	{
+		if( map instanceof HLA1516eParameterHandleValueMap )
+			return ((HLA1516eParameterHandleValueMap)map).copyHandleValueMap();
+
 		try
 		{
-			HashMap<Integer,byte[]> realMap = new HashMap<Integer,byte[]>();
-			for( ParameterHandle handle : map.keySet() )
-			{
-				realMap.put( ((HLA1516eHandle)handle).handle, map.get(handle) );
-			}
+			HandleValueMap realMap = new HandleValueMap( map.size() );
+			for( Map.Entry<ParameterHandle,byte[]> entry : map.entrySet() )
+				realMap.put( HLA1516eHandle.fromHandle(entry.getKey()), entry.getValue() );
 			
 			return realMap;
 		}
@@ -16,6 +16,7 @@ package org.portico.impl.hla1516e.types;
 
 import hla.rti1516e.RegionHandle;
 import hla.rti1516e.RegionHandleSet;
+import hla.rti1516e.exceptions.RTIinternalError;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -61,4 +62,22 @@ public class HLA1516eRegionHandleSet
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
+	public static HashSet<Integer> toJavaSet( RegionHandleSet set ) throws RTIinternalError
+	{
+		try
+		{
+			HashSet<Integer> realSet = new HashSet<Integer>();
+			for( RegionHandle handle : set )
+			{
+				realSet.add( ((HLA1516eHandle)handle).handle );
+			}
+			
+			return realSet;
+		}
+		catch( Exception e )
+		{
+			throw new RTIinternalError( "Can't convert RegionHandleSet to Portico native type: " +
+			                            e.getMessage() , e );
+		}
+	}
 }
@@ -21,6 +21,8 @@ import hla.rti1516e.exceptions.FederateNotExecutionMember;
 import hla.rti1516e.exceptions.NotConnected;
 import hla.rti1516e.exceptions.RTIinternalError;
 
+import org.portico.lrc.model.Transport;
+
 public class HLA1516eTransportationTypeHandleFactory implements TransportationTypeHandleFactory
 {
 	//----------------------------------------------------------
@@ -29,6 +31,9 @@ public class HLA1516eTransportationTypeHandleFactory implements TransportationTy
 	public static final TransportationTypeHandle RELIABLE = new HLA1516eHandle(1);
 	public static final TransportationTypeHandle BEST_EFFORT = new HLA1516eHandle(2);
 
+	public static final String RELIABLE_NAME = "HLAreliable";
+	public static final String BEST_EFFORT_NAME = "HLAbestEffort";
+
 	//----------------------------------------------------------
 	//                   INSTANCE VARIABLES
 	//----------------------------------------------------------
@@ -67,4 +72,23 @@ public class HLA1516eTransportationTypeHandleFactory implements TransportationTy
 			return RELIABLE;
 	}
 
+	public static TransportationTypeHandle fromTransport( Transport transport )
+	{
+		return transport == Transport.BEST_EFFORT ? BEST_EFFORT : RELIABLE;
+	}
+
+	/**
+	 * @return The {@link Transport} the given handle identifies, or <code>null</code> if it isn't
+	 *         one of the two transportation types we support
+	 */
+	public static Transport toTransport( TransportationTypeHandle handle )
+	{
+		if( RELIABLE.equals(handle) )
+			return Transport.RELIABLE;
+		else if( BEST_EFFORT.equals(handle) )
+			return Transport.BEST_EFFORT;
+		else
+			return null;
+	}
+
 }
@@ -0,0 +1,103 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.impl.hla1516e.types.codec;
+
+import java.nio.ByteBuffer;
+
+import org.portico.lrc.model.datatype.ArrayType;
+
+/**
+ * Base for the codecs of {@link ArrayType}s. Every array, fixed or dynamic, is written as a
+ * 32-bit element count followed by the elements, which is what
+ * {@link org.portico.impl.hla1516e.types.encoding.HLA1516eFixedArray HLA1516eFixedArray} and
+ * {@link org.portico.impl.hla1516e.types.encoding.HLA1516eVariableArray HLA1516eVariableArray}
+ * both do. Counts are checked against the cardinality of the array's (first) dimension.
+ *
+ * @param <T> The Java type values are given and returned as
+ */
+abstract class ArrayCodec<T> extends DatatypeCodec<T>
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private final int lowerBound;
+	private final int upperBound;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	protected ArrayCodec( ArrayType datatype )
+	{
+		super( datatype );
+		if( datatype.isCardinalityDynamic() )
+		{
+			this.lowerBound = 0;
+			this.upperBound = Integer.MAX_VALUE;
+		}
+		else
+		{
+			this.lowerBound = datatype.getCardinalityLowerBound();
+			this.upperBound = datatype.getCardinalityUpperBound();
+		}
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	/**
+	 * Write the element count after checking it fits the cardinality of the array.
+	 */
+	protected void writeCount( int count, ByteBuffer buffer )
+	{
+		if( count < lowerBound || count > upperBound )
+			throw new IllegalArgumentException( "array has "+count+" elements, "+cardinality() );
+
+		buffer.putInt( count );
+	}
+
+	/**
+	 * Read the element count and check it against the cardinality of the array and the number
+	 * of bytes left in the buffer, so a corrupt count can't make us allocate a huge array.
+	 *
+	 * @param minimumElementLength The least number of bytes an element could take up
+	 */
+	protected int readCount( ByteBuffer buffer, int minimumElementLength )
+	{
+		int count = buffer.getInt();
+		if( count < lowerBound || count > upperBound )
+			throw new IllegalArgumentException( "decoded "+count+" elements, "+cardinality() );
+		if( (long)count * minimumElementLength > buffer.remaining() )
+			throw new IllegalArgumentException( "decoded "+count+" elements, but only "+
+			                                    buffer.remaining()+" bytes remain" );
+
+		return count;
+	}
+
+	private String cardinality()
+	{
+		if( lowerBound == upperBound )
+			return "expected "+lowerBound;
+		else
+			return "expected between "+lowerBound+" and "+upperBound;
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -0,0 +1,248 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.impl.hla1516e.types.codec;
+
+import java.nio.ByteBuffer;
+
+import org.portico.lrc.model.datatype.BasicType;
+import org.portico.lrc.model.datatype.Endianness;
+import org.portico.lrc.model.datatype.IDatatype;
+
+/**
+ * Codec for a numeric {@link BasicType}, or a simple or enumerated type represented by one.
+ * Values are given as any {@link Number} and come back as the boxed type that matches the size
+ * of the basic type (Byte, Short, Integer or Long, or Float or Double for the float types).
+ * <p/>
+ * Other codecs that hold a basic type (enumerations, primitive fields of bound classes, arrays
+ * of primitives) read and write through {@link #readLong(ByteBuffer)} and friends instead, so
+ * the value never has to be boxed.
+ */
+abstract class BasicTypeCodec extends DatatypeCodec<Number>
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	protected final boolean littleEndian;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	private BasicTypeCodec( IDatatype datatype, BasicType basic )
+	{
+		super( datatype );
+		this.littleEndian = basic.getEndianness() == Endianness.LITTLE;
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	/**
+	 * @return True if this is one of the floating point types
+	 */
+	abstract boolean isFloatingPoint();
+
+	abstract long readLong( ByteBuffer buffer );
+	abstract void writeLong( long value, ByteBuffer buffer );
+
+	double readDouble( ByteBuffer buffer )
+	{
+		return readLong( buffer );
+	}
+
+	void writeDouble( double value, ByteBuffer buffer )
+	{
+		writeLong( (long)value, buffer );
+	}
+
+	@Override
+	final int length( Number value )
+	{
+		return fixedLength();
+	}
+
+	@Override
+	void write( Number value, ByteBuffer buffer )
+	{
+		writeLong( value.longValue(), buffer );
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+	/**
+	 * Create a codec for the given basic type. The codec reports the given datatype as its own,
+	 * which lets simple types share the codec of their representation.
+	 *
+	 * @return The codec, or null if the basic type isn't 1, 2, 4 or 8 bytes (or is an odd size
+	 *         to be a float), in which case its values are handled as raw bytes
+	 */
+	static BasicTypeCodec create( IDatatype datatype, BasicType basic )
+	{
+		boolean isFloat = basic.getName().toLowerCase().contains( "float" );
+		switch( basic.getSize() )
+		{
+			case 8:
+				return isFloat ? null : new OctetCodec( datatype, basic );
+			case 16:
+				return isFloat ? null : new Integer16Codec( datatype, basic );
+			case 32:
+				return isFloat ? new Float32Codec( datatype, basic ) :
+				                 new Integer32Codec( datatype, basic );
+			case 64:
+				return isFloat ? new Float64Codec( datatype, basic ) :
+				                 new Integer64Codec( datatype, basic );
+			default:
+				return null;
+		}
+	}
+
+	///////////////////////////////////////////////////////////////////////////////////
+	///////////////////////////////// Private Classes /////////////////////////////////
+	///////////////////////////////////////////////////////////////////////////////////
+	private static class OctetCodec extends BasicTypeCodec
+	{
+		private OctetCodec( IDatatype datatype, BasicType basic ) { super( datatype, basic ); }
+		@Override public Class<?> getValueType() { return Byte.class; }
+		@Override boolean isFloatingPoint() { return false; }
+		@Override int fixedLength() { return 1; }
+		@Override Number read( ByteBuffer buffer ) { return buffer.get(); }
+		@Override long readLong( ByteBuffer buffer ) { return buffer.get(); }
+		@Override void writeLong( long value, ByteBuffer buffer ) { buffer.put( (byte)value ); }
+	}
+
+	private static class Integer16Codec extends BasicTypeCodec
+	{
+		private Integer16Codec( IDatatype datatype, BasicType basic ) { super( datatype, basic ); }
+		@Override public Class<?> getValueType() { return Short.class; }
+		@Override boolean isFloatingPoint() { return false; }
+		@Override int fixedLength() { return 2; }
+		@Override Number read( ByteBuffer buffer ) { return (short)readLong( buffer ); }
+
+		@Override
+		long readLong( ByteBuffer buffer )
+		{
+			short value = buffer.getShort();
+			return littleEndian ? Short.reverseBytes(value) : value;
+		}
+
+		@Override
+		void writeLong( long value, ByteBuffer buffer )
+		{
+			short asShort = (short)value;
+			buffer.putShort( littleEndian ? Short.reverseBytes(asShort) : asShort );
+		}
+	}
+
+	private static class Integer32Codec extends BasicTypeCodec
+	{
+		private Integer32Codec( IDatatype datatype, BasicType basic ) { super( datatype, basic ); }
+		@Override public Class<?> getValueType() { return Integer.class; }
+		@Override boolean isFloatingPoint() { return false; }
+		@Override int fixedLength() { return 4; }
+		@Override Number read( ByteBuffer buffer ) { return (int)readLong( buffer ); }
+
+		@Override
+		long readLong( ByteBuffer buffer )
+		{
+			int value = buffer.getInt();
+			return littleEndian ? Integer.reverseBytes(value) : value;
+		}
+
+		@Override
+		void writeLong( long value, ByteBuffer buffer )
+		{
+			int asInt = (int)value;
+			buffer.putInt( littleEndian ? Integer.reverseBytes(asInt) : asInt );
+		}
+	}
+
+	private static class Integer64Codec extends BasicTypeCodec
+	{
+		private Integer64Codec( IDatatype datatype, BasicType basic ) { super( datatype, basic ); }
+		@Override public Class<?> getValueType() { return Long.class; }
+		@Override boolean isFloatingPoint() { return false; }
+		@Override int fixedLength() { return 8; }
+		@Override Number read( ByteBuffer buffer ) { return readLong( buffer ); }
+
+		@Override
+		long readLong( ByteBuffer buffer )
+		{
+			long value = buffer.getLong();
+			return littleEndian ? Long.reverseBytes(value) : value;
+		}
+
+		@Override
+		void writeLong( long value, ByteBuffer buffer )
+		{
+			buffer.putLong( littleEndian ? Long.reverseBytes(value) : value );
+		}
+	}
+
+	private static class Float32Codec extends BasicTypeCodec
+	{
+		private Float32Codec( IDatatype datatype, BasicType basic ) { super( datatype, basic ); }
+		@Override public Class<?> getValueType() { return Float.class; }
+		@Override boolean isFloatingPoint() { return true; }
+		@Override int fixedLength() { return 4; }
+		@Override Number read( ByteBuffer buffer ) { return (float)readDouble( buffer ); }
+		@Override void write( Number value, ByteBuffer buffer ) { writeDouble( value.floatValue(), buffer ); }
+		@Override long readLong( ByteBuffer buffer ) { return (long)readDouble( buffer ); }
+		@Override void writeLong( long value, ByteBuffer buffer ) { writeDouble( value, buffer ); }
+
+		@Override
+		double readDouble( ByteBuffer buffer )
+		{
+			int bits = buffer.getInt();
+			return Float.intBitsToFloat( littleEndian ? Integer.reverseBytes(bits) : bits );
+		}
+
+		@Override
+		void writeDouble( double value, ByteBuffer buffer )
+		{
+			int bits = Float.floatToIntBits( (float)value );
+			buffer.putInt( littleEndian ? Integer.reverseBytes(bits) : bits );
+		}
+	}
+
+	private static class Float64Codec extends BasicTypeCodec
+	{
+		private Float64Codec( IDatatype datatype, BasicType basic ) { super( datatype, basic ); }
+		@Override public Class<?> getValueType() { return Double.class; }
+		@Override boolean isFloatingPoint() { return true; }
+		@Override int fixedLength() { return 8; }
+		@Override Number read( ByteBuffer buffer ) { return readDouble( buffer ); }
+		@Override void write( Number value, ByteBuffer buffer ) { writeDouble( value.doubleValue(), buffer ); }
+		@Override long readLong( ByteBuffer buffer ) { return (long)readDouble( buffer ); }
+		@Override void writeLong( long value, ByteBuffer buffer ) { writeDouble( value, buffer ); }
+
+		@Override
+		double readDouble( ByteBuffer buffer )
+		{
+			long bits = buffer.getLong();
+			return Double.longBitsToDouble( littleEndian ? Long.reverseBytes(bits) : bits );
+		}
+
+		@Override
+		void writeDouble( double value, ByteBuffer buffer )
+		{
+			long bits = Double.doubleToLongBits( value );
+			buffer.putLong( littleEndian ? Long.reverseBytes(bits) : bits );
+		}
+	}
+}
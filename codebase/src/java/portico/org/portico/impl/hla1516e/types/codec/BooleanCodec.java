@@ -0,0 +1,89 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.impl.hla1516e.types.codec;
+
+import java.nio.ByteBuffer;
+
+import org.portico.lrc.model.datatype.EnumeratedType;
+
+/**
+ * Codec for the <code>HLAboolean</code> enumeration, which hands values over as a plain
+ * {@link Boolean} rather than an enumerator. As with
+ * {@link org.portico.impl.hla1516e.types.encoding.HLA1516eBoolean HLA1516eBoolean}, only 0 and
+ * 1 are accepted when decoding.
+ */
+class BooleanCodec extends DatatypeCodec<Boolean>
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private final BasicTypeCodec representation;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	BooleanCodec( EnumeratedType datatype, BasicTypeCodec representation )
+	{
+		super( datatype );
+		this.representation = representation;
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@Override
+	public Class<?> getValueType()
+	{
+		return Boolean.class;
+	}
+
+	@Override
+	int fixedLength()
+	{
+		return representation.fixedLength();
+	}
+
+	@Override
+	int length( Boolean value )
+	{
+		return representation.fixedLength();
+	}
+
+	@Override
+	void write( Boolean value, ByteBuffer buffer )
+	{
+		representation.writeLong( value ? 1 : 0, buffer );
+	}
+
+	@Override
+	Boolean read( ByteBuffer buffer )
+	{
+		long value = representation.readLong( buffer );
+		if( value == 0 )
+			return Boolean.FALSE;
+		else if( value == 1 )
+			return Boolean.TRUE;
+		else
+			throw new IllegalArgumentException( "Only valid values for boolean are 0 and 1, found: "+value );
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -0,0 +1,367 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.impl.hla1516e.types.codec;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+
+import org.portico.lrc.model.datatype.FixedRecordType;
+
+/**
+ * Codec for a {@link FixedRecordType} that reads and writes the fields of a plain Java object.
+ * Each record field is bound to the Java field of the same name through a {@link MethodHandle},
+ * once, when the codec is built. Primitive Java fields are read and written straight through
+ * their {@link BasicTypeCodec} with handles typed to <code>long</code> or <code>double</code>,
+ * so encoding or decoding a record of numbers boxes nothing. Decoding creates one instance of
+ * the class through its no-arg constructor.
+ * <p/>
+ * Built by {@link DatatypeCodecs#forClass(org.portico.lrc.model.datatype.IDatatype, Class)},
+ * which works out the codec for each field.
+ *
+ * @param <T> The class records are bound to
+ */
+class BoundRecordCodec<T> extends DatatypeCodec<T>
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private final Class<T> type;
+	private final MethodHandle constructor;
+	private final Binding[] bindings;
+	private final int fixedLength;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	/**
+	 * @param fields The Java field each record field is bound to, in FOM order
+	 * @param codecs The codec for each of those fields
+	 * @throws IllegalArgumentException If the class or one of its fields can't be accessed
+	 */
+	BoundRecordCodec( FixedRecordType datatype,
+	                  Class<T> type,
+	                  Field[] fields,
+	                  DatatypeCodec<?>[] codecs )
+	{
+		super( datatype );
+		this.type = type;
+		this.bindings = new Binding[fields.length];
+		try
+		{
+			Constructor<T> noArgs = type.getDeclaredConstructor();
+			noArgs.setAccessible( true );
+			this.constructor = LOOKUP.unreflectConstructor( noArgs )
+			                         .asType( MethodType.methodType(Object.class) );
+
+			for( int i = 0; i < fields.length; i++ )
+				bindings[i] = bind( fields[i], codecs[i] );
+		}
+		catch( NoSuchMethodException nsme )
+		{
+			throw new IllegalArgumentException( type.getName()+" has no no-arg constructor" );
+		}
+		catch( ReflectiveOperationException | RuntimeException e )
+		{
+			throw new IllegalArgumentException( "can't bind "+datatype.getName()+" to "+
+			                                    type.getName()+": "+e.getMessage(), e );
+		}
+
+		this.fixedLength = FixedRecordCodec.sumOfFixedLengths( codecs );
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@SuppressWarnings("unchecked")
+	private Binding bind( Field field, DatatypeCodec<?> codec ) throws IllegalAccessException
+	{
+		field.setAccessible( true );
+		MethodHandle getter = LOOKUP.unreflectGetter( field );
+		MethodHandle setter = LOOKUP.unreflectSetter( field );
+
+		Class<?> fieldType = field.getType();
+		if( fieldType.isPrimitive() && codec instanceof BasicTypeCodec )
+		{
+			// explicitCastArguments does the narrowing (long to int and so on) asType won't
+			BasicTypeCodec basic = (BasicTypeCodec)codec;
+			Class<?> valueType = (fieldType == double.class || fieldType == float.class) ?
+			                     double.class : long.class;
+			getter = getter.asType( MethodType.methodType(valueType,Object.class) );
+			setter = MethodHandles.explicitCastArguments(
+			             setter, MethodType.methodType(void.class,Object.class,valueType) );
+
+			if( valueType == double.class )
+				return new DoubleBinding( basic, getter, setter );
+			else
+				return new LongBinding( basic, getter, setter );
+		}
+		else
+		{
+			getter = getter.asType( MethodType.methodType(Object.class,Object.class) );
+			setter = setter.asType( MethodType.methodType(void.class,Object.class,Object.class) );
+			return new ObjectBinding( field.getName(), (DatatypeCodec<Object>)codec, getter, setter );
+		}
+	}
+
+	@Override
+	public Class<?> getValueType()
+	{
+		return type;
+	}
+
+	@Override
+	int fixedLength()
+	{
+		return fixedLength;
+	}
+
+	@Override
+	int length( T value )
+	{
+		if( fixedLength >= 0 )
+			return fixedLength;
+
+		int length = 0;
+		for( Binding binding : bindings )
+			length += binding.length( value );
+
+		return length;
+	}
+
+	@Override
+	void write( T value, ByteBuffer buffer )
+	{
+		for( Binding binding : bindings )
+			binding.write( value, buffer );
+	}
+
+	@Override
+	T read( ByteBuffer buffer )
+	{
+		Object value;
+		try
+		{
+			value = (Object)constructor.invokeExact();
+		}
+		catch( Throwable throwable )
+		{
+			throw rethrow( throwable );
+		}
+
+		for( Binding binding : bindings )
+			binding.read( value, buffer );
+
+		return type.cast( value );
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+	/**
+	 * Handles are declared to throw Throwable. Let anything unchecked through as it is (the
+	 * public methods on {@link DatatypeCodec} will wrap it) and wrap anything else.
+	 */
+	private static RuntimeException rethrow( Throwable throwable )
+	{
+		if( throwable instanceof Error )
+			throw (Error)throwable;
+		else if( throwable instanceof RuntimeException )
+			return (RuntimeException)throwable;
+		else
+			return new IllegalStateException( throwable.getMessage(), throwable );
+	}
+
+	///////////////////////////////////////////////////////////////////////////////////
+	///////////////////////////////// Private Classes /////////////////////////////////
+	///////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Moves one field between an instance of the bound class and the buffer
+	 */
+	private static abstract class Binding
+	{
+		abstract int length( Object target );
+		abstract void write( Object target, ByteBuffer buffer );
+		abstract void read( Object target, ByteBuffer buffer );
+	}
+
+	/** A reference field, handed to its codec as an object */
+	private static class ObjectBinding extends Binding
+	{
+		private final String name;
+		private final DatatypeCodec<Object> codec;
+		private final MethodHandle getter; // (Object)Object
+		private final MethodHandle setter; // (Object,Object)void
+
+		private ObjectBinding( String name,
+		                       DatatypeCodec<Object> codec,
+		                       MethodHandle getter,
+		                       MethodHandle setter )
+		{
+			this.name = name;
+			this.codec = codec;
+			this.getter = getter;
+			this.setter = setter;
+		}
+
+		private Object get( Object target )
+		{
+			Object value;
+			try
+			{
+				value = (Object)getter.invokeExact( target );
+			}
+			catch( Throwable throwable )
+			{
+				throw rethrow( throwable );
+			}
+
+			if( value == null )
+				throw new IllegalArgumentException( "no value for field "+name );
+
+			return value;
+		}
+
+		@Override
+		int length( Object target )
+		{
+			return codec.length( get(target) );
+		}
+
+		@Override
+		void write( Object target, ByteBuffer buffer )
+		{
+			codec.write( get(target), buffer );
+		}
+
+		@Override
+		void read( Object target, ByteBuffer buffer )
+		{
+			Object value = codec.read( buffer );
+			try
+			{
+				setter.invokeExact( target, value );
+			}
+			catch( Throwable throwable )
+			{
+				throw rethrow( throwable );
+			}
+		}
+	}
+
+	/** An integral (or char) primitive field */
+	private static class LongBinding extends Binding
+	{
+		private final BasicTypeCodec codec;
+		private final MethodHandle getter; // (Object)long
+		private final MethodHandle setter; // (Object,long)void
+
+		private LongBinding( BasicTypeCodec codec, MethodHandle getter, MethodHandle setter )
+		{
+			this.codec = codec;
+			this.getter = getter;
+			this.setter = setter;
+		}
+
+		@Override
+		int length( Object target )
+		{
+			return codec.fixedLength();
+		}
+
+		@Override
+		void write( Object target, ByteBuffer buffer )
+		{
+			try
+			{
+				codec.writeLong( (long)getter.invokeExact(target), buffer );
+			}
+			catch( Throwable throwable )
+			{
+				throw rethrow( throwable );
+			}
+		}
+
+		@Override
+		void read( Object target, ByteBuffer buffer )
+		{
+			long value = codec.readLong( buffer );
+			try
+			{
+				setter.invokeExact( target, value );
+			}
+			catch( Throwable throwable )
+			{
+				throw rethrow( throwable );
+			}
+		}
+	}
+
+	/** A float or double field */
+	private static class DoubleBinding extends Binding
+	{
+		private final BasicTypeCodec codec;
+		private final MethodHandle getter; // (Object)double
+		private final MethodHandle setter; // (Object,double)void
+
+		private DoubleBinding( BasicTypeCodec codec, MethodHandle getter, MethodHandle setter )
+		{
+			this.codec = codec;
+			this.getter = getter;
+			this.setter = setter;
+		}
+
+		@Override
+		int length( Object target )
+		{
+			return codec.fixedLength();
+		}
+
+		@Override
+		void write( Object target, ByteBuffer buffer )
+		{
+			try
+			{
+				codec.writeDouble( (double)getter.invokeExact(target), buffer );
+			}
+			catch( Throwable throwable )
+			{
+				throw rethrow( throwable );
+			}
+		}
+
+		@Override
+		void read( Object target, ByteBuffer buffer )
+		{
+			double value = codec.readDouble( buffer );
+			try
+			{
+				setter.invokeExact( target, value );
+			}
+			catch( Throwable throwable )
+			{
+				throw rethrow( throwable );
+			}
+		}
+	}
+}
@@ -0,0 +1,220 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.impl.hla1516e.types.codec;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.portico.lrc.model.datatype.IDatatype;
+
+import hla.rti1516e.encoding.DecoderException;
+import hla.rti1516e.encoding.EncoderException;
+
+/**
+ * Encodes and decodes values of a single FOM datatype straight to and from a byte[] or
+ * {@link ByteBuffer}, without building a tree of {@link hla.rti1516e.encoding.DataElement}s.
+ * Codecs are built from the datatype once by {@link DatatypeCodecs}, which works out what to do
+ * for each part of the type up front, so encoding or decoding a value is a straight run through
+ * the buffer. The encoding is the same as the one Portico's
+ * {@link org.portico.impl.hla1516e.types.encoding.HLA1516eEncoderFactory encoders} produce.
+ * <p/>
+ * Each kind of datatype has a Java type its values are given and returned as (see
+ * {@link DatatypeCodecs} for the full list), which {@link #getValueType()} will tell you.
+ * <p/>
+ * Codecs hold no state between calls, so they can be shared between threads. Build them once
+ * and hang on to them.
+ *
+ * @param <T> The Java type values are given and returned as
+ */
+public abstract class DatatypeCodec<T>
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	protected final IDatatype datatype;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	protected DatatypeCodec( IDatatype datatype )
+	{
+		this.datatype = datatype;
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	/**
+	 * @return The FOM datatype this codec is for
+	 */
+	public IDatatype getDatatype()
+	{
+		return this.datatype;
+	}
+
+	/**
+	 * @return The Java type values are given to and returned from this codec as
+	 */
+	public abstract Class<?> getValueType();
+
+	/**
+	 * Returns the number of bytes the given value will take up when encoded.
+	 *
+	 * @throws EncoderException If the value isn't one this codec can encode
+	 */
+	public final int getEncodedLength( T value ) throws EncoderException
+	{
+		try
+		{
+			return length( value );
+		}
+		catch( RuntimeException re )
+		{
+			throw new EncoderException( "Can't encode value as "+datatype.getName()+": "+
+			                            re.getMessage(), re );
+		}
+	}
+
+	/**
+	 * Encode the value into a new byte[] that is exactly the right size.
+	 *
+	 * @throws EncoderException If the value isn't one this codec can encode
+	 */
+	public final byte[] encode( T value ) throws EncoderException
+	{
+		byte[] bytes = new byte[getEncodedLength(value)];
+		encode( value, ByteBuffer.wrap(bytes) );
+		return bytes;
+	}
+
+	/**
+	 * Encode the value into the given buffer, starting at its current position. When this
+	 * returns, the position will be just past the encoded value.
+	 *
+	 * @throws EncoderException If the value isn't one this codec can encode, or there isn't
+	 *                          enough room left in the buffer
+	 */
+	public final void encode( T value, ByteBuffer buffer ) throws EncoderException
+	{
+		ByteOrder order = buffer.order();
+		buffer.order( ByteOrder.BIG_ENDIAN );
+		try
+		{
+			write( value, buffer );
+		}
+		catch( BufferOverflowException boe )
+		{
+			throw new EncoderException( "Insufficient space remaining in buffer to encode "+
+			                            datatype.getName(), boe );
+		}
+		catch( RuntimeException re )
+		{
+			throw new EncoderException( "Can't encode value as "+datatype.getName()+": "+
+			                            re.getMessage(), re );
+		}
+		finally
+		{
+			buffer.order( order );
+		}
+	}
+
+	/**
+	 * Decode a value from the start of the given bytes.
+	 *
+	 * @throws DecoderException If there aren't enough bytes, or they don't make sense
+	 */
+	public final T decode( byte[] bytes ) throws DecoderException
+	{
+		if( bytes == null )
+			throw new DecoderException( "buffer was null" );
+
+		return decode( ByteBuffer.wrap(bytes) );
+	}
+
+	/**
+	 * Decode a value from the given buffer, starting at its current position. When this returns,
+	 * the position will be just past the value that was read.
+	 *
+	 * @throws DecoderException If there aren't enough bytes, or they don't make sense
+	 */
+	public final T decode( ByteBuffer buffer ) throws DecoderException
+	{
+		ByteOrder order = buffer.order();
+		buffer.order( ByteOrder.BIG_ENDIAN );
+		try
+		{
+			return read( buffer );
+		}
+		catch( BufferUnderflowException bue )
+		{
+			throw new DecoderException( "Buffer underflow decoding "+datatype.getName(), bue );
+		}
+		catch( RuntimeException re )
+		{
+			throw new DecoderException( "Can't decode "+datatype.getName()+": "+
+			                            re.getMessage(), re );
+		}
+		finally
+		{
+			buffer.order( order );
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName()+"["+datatype.getName()+"]";
+	}
+
+	/////////////////////////////////////////////////////////////////////////////////////////
+	////////////////////////////////// Codec Implementation /////////////////////////////////
+	/////////////////////////////////////////////////////////////////////////////////////////
+	// Codecs call these on each other directly. The buffer is always big-endian by the time
+	// they are called, and anything wrong is thrown as a RuntimeException, which the public
+	// methods above turn into an EncoderException or DecoderException.
+	/**
+	 * @return The encoded size of the given value, in bytes
+	 */
+	abstract int length( T value );
+
+	/**
+	 * Write the value into the (big-endian) buffer at its current position
+	 */
+	abstract void write( T value, ByteBuffer buffer );
+
+	/**
+	 * Read a value from the (big-endian) buffer at its current position
+	 */
+	abstract T read( ByteBuffer buffer );
+
+	/**
+	 * @return The encoded size of every value of this type, or -1 if it depends on the value.
+	 *         Arrays and records use this to size themselves without visiting each element.
+	 */
+	int fixedLength()
+	{
+		return -1;
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -0,0 +1,411 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.impl.hla1516e.types.codec;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.portico.lrc.model.ObjectModel;
+import org.portico.lrc.model.datatype.Alternative;
+import org.portico.lrc.model.datatype.ArrayType;
+import org.portico.lrc.model.datatype.BasicType;
+import org.portico.lrc.model.datatype.DatatypeClass;
+import org.portico.lrc.model.datatype.EnumeratedType;
+import org.portico.lrc.model.datatype.FixedRecordType;
+import org.portico.lrc.model.datatype.IDatatype;
+import org.portico.lrc.model.datatype.NaType;
+import org.portico.lrc.model.datatype.SimpleType;
+import org.portico.lrc.model.datatype.VariantRecordType;
+
+/**
+ * Builds {@link DatatypeCodec}s for the datatypes declared in a FOM. All the decisions about how
+ * to handle each part of a type (its size, byte order, which codec each field or element needs,
+ * how to get at the fields of a Java class) are made here, once, so the codec that comes back
+ * only has to move bytes.
+ * <p/>
+ * <b>Value Types</b>
+ * <p/>
+ * Codecs from {@link #forDatatype(IDatatype)} hand values over as:
+ * <ul>
+ *   <li><b>Basic and simple types</b>: Byte, Short, Integer or Long by size, or Float or Double
+ *       for the float types. Any {@link Number} can be given when encoding. Basic types of any
+ *       other size are a <code>byte[]</code> as it appears on the wire.</li>
+ *   <li><b>Enumerated types</b>: the type's {@link org.portico.lrc.model.datatype.Enumerator},
+ *       except for <code>HLAboolean</code>, which is a Boolean</li>
+ *   <li><b>Arrays of HLAASCIIchar or HLAunicodeChar</b>: String</li>
+ *   <li><b>Arrays of octets</b>: <code>byte[]</code></li>
+ *   <li><b>Other arrays</b>: a {@link List} of the element type's values</li>
+ *   <li><b>Fixed records</b>: a {@link Map} of field name to the field type's value</li>
+ *   <li><b>Variant records</b>: a {@link Map} holding the discriminant's enumerator under the
+ *       discriminant name, and the value of the selected alternative under its name</li>
+ * </ul>
+ * <p/>
+ * <b>Binding to Classes</b>
+ * <p/>
+ * {@link #forClass(IDatatype, Class)} returns a codec that reads and writes a Java class of your
+ * choosing instead. Fixed records can be bound to any class with a no-arg constructor and a
+ * (non-static, non-final) field named after each record field. Fields can be primitives, in
+ * which case the value is never boxed, or any type their datatype can be bound to in turn.
+ * Arrays can be bound to Java arrays, including arrays of primitives. Anything else has to be
+ * (a supertype of) the value type listed above.
+ * <pre>
+ *   public class SpatialFP { public double[] WorldLocation; public boolean IsFrozen; ... }
+ *
+ *   DatatypeCodec&lt;SpatialFP&gt; codec = DatatypeCodecs.forClass( fom, "SpatialFPStruct", SpatialFP.class );
+ *   SpatialFP spatial = codec.decode( attributes.get(spatialHandle) );
+ * </pre>
+ * Building a codec is relatively expensive. Codecs are thread safe, so build them once (when
+ * the federate joins, say) and keep them.
+ */
+public class DatatypeCodecs
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	private DatatypeCodecs()
+	{
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+	/**
+	 * Build a codec for the given datatype, handing values over as the types listed in the
+	 * class documentation.
+	 *
+	 * @throws IllegalArgumentException If the datatype, or one it refers to, can't be encoded
+	 *                                  (an NA type, or one that was never linked)
+	 */
+	public static DatatypeCodec<?> forDatatype( IDatatype datatype )
+	{
+		return create( datatype );
+	}
+
+	/**
+	 * Build a codec for the datatype with the given name in the given FOM. The FOM of a
+	 * joined federate is available from {@link org.portico.impl.hla1516e.Impl1516eHelper#getFOM()}.
+	 *
+	 * @throws IllegalArgumentException If there is no such datatype, or it can't be encoded
+	 */
+	public static DatatypeCodec<?> forDatatype( ObjectModel model, String name )
+	{
+		return create( lookup(model,name) );
+	}
+
+	/**
+	 * Build a codec for the given datatype that hands values over as the given class. See the
+	 * class documentation for the classes each kind of datatype can be bound to.
+	 *
+	 * @throws IllegalArgumentException If the datatype can't be read as the given class
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> DatatypeCodec<T> forClass( IDatatype datatype, Class<T> type )
+	{
+		return (DatatypeCodec<T>)bind( datatype, type );
+	}
+
+	/**
+	 * Build a codec for the datatype with the given name in the given FOM that hands values
+	 * over as the given class.
+	 *
+	 * @throws IllegalArgumentException If there is no such datatype, or it can't be read as
+	 *                                  the given class
+	 */
+	public static <T> DatatypeCodec<T> forClass( ObjectModel model, String name, Class<T> type )
+	{
+		return forClass( lookup(model,name), type );
+	}
+
+	private static IDatatype lookup( ObjectModel model, String name )
+	{
+		IDatatype datatype = model.getDatatype( name );
+		if( datatype == null )
+			throw new IllegalArgumentException( "no datatype named "+name+" in the FOM" );
+
+		return datatype;
+	}
+
+	/////////////////////////////////////////////////////////////////////////////////////////
+	////////////////////////////////// Default Value Types //////////////////////////////////
+	/////////////////////////////////////////////////////////////////////////////////////////
+	private static DatatypeCodec<?> create( IDatatype datatype )
+	{
+		switch( datatype.getDatatypeClass() )
+		{
+			case BASIC:
+				return createBasic( datatype, (BasicType)datatype );
+			case SIMPLE:
+				return createBasic( datatype, basicRepresentation(((SimpleType)datatype).getRepresentation()) );
+			case ENUMERATED:
+				if( datatype.getName().equals("HLAboolean") )
+				{
+					EnumeratedType enumerated = (EnumeratedType)datatype;
+					return new BooleanCodec( enumerated, representation(enumerated) );
+				}
+				else
+				{
+					return createEnumerated( (EnumeratedType)datatype );
+				}
+			case ARRAY:
+				return createArray( (ArrayType)datatype );
+			case FIXEDRECORD:
+				return createFixedRecord( (FixedRecordType)datatype );
+			case VARIANTRECORD:
+				return createVariantRecord( (VariantRecordType)datatype );
+			default:
+				throw new IllegalArgumentException( datatype.getName()+" has no encoding" );
+		}
+	}
+
+	private static DatatypeCodec<?> createBasic( IDatatype datatype, BasicType basic )
+	{
+		BasicTypeCodec codec = BasicTypeCodec.create( datatype, basic );
+		return codec != null ? codec : new RawBytesCodec( datatype, basic );
+	}
+
+	private static EnumeratedTypeCodec createEnumerated( EnumeratedType datatype )
+	{
+		return new EnumeratedTypeCodec( datatype, representation(datatype) );
+	}
+
+	private static DatatypeCodec<?> createArray( ArrayType datatype )
+	{
+		IDatatype element = datatype.getDatatype();
+		if( element.getDatatypeClass() == DatatypeClass.SIMPLE )
+		{
+			if( element.getName().equals("HLAASCIIchar") )
+				return new StringCodec( datatype, false );
+			else if( element.getName().equals("HLAunicodeChar") )
+				return new StringCodec( datatype, true );
+		}
+
+		DatatypeCodec<?> elementCodec = create( element );
+		if( elementCodec instanceof BasicTypeCodec && elementCodec.fixedLength() == 1 )
+			return new OctetArrayCodec( datatype );
+		else
+			return new ListCodec( datatype, erase(elementCodec) );
+	}
+
+	private static FixedRecordCodec createFixedRecord( FixedRecordType datatype )
+	{
+		List<org.portico.lrc.model.datatype.Field> fields = datatype.getFields();
+		DatatypeCodec<Object>[] codecs = newCodecArray( fields.size() );
+		for( int i = 0; i < codecs.length; i++ )
+			codecs[i] = erase( create(fields.get(i).getDatatype()) );
+
+		return new FixedRecordCodec( datatype, codecs );
+	}
+
+	private static VariantRecordCodec createVariantRecord( VariantRecordType datatype )
+	{
+		IDatatype discriminant = datatype.getDiscriminantDatatype();
+		if( discriminant instanceof EnumeratedType == false )
+		{
+			throw new IllegalArgumentException( "discriminant of "+datatype.getName()+
+			                                    " is not a linked enumerated type" );
+		}
+
+		Map<Alternative,DatatypeCodec<Object>> alternatives =
+			new HashMap<Alternative,DatatypeCodec<Object>>();
+		for( Alternative alternative : datatype.getAlternatives() )
+		{
+			// alternatives without a datatype carry nothing but the discriminant
+			IDatatype alternativeType = alternative.getDatatype();
+			boolean isEmpty = alternativeType == null || alternativeType instanceof NaType;
+			alternatives.put( alternative, isEmpty ? null : erase(create(alternativeType)) );
+		}
+
+		return new VariantRecordCodec( datatype,
+		                               createEnumerated((EnumeratedType)discriminant),
+		                               alternatives );
+	}
+
+	private static BasicTypeCodec representation( EnumeratedType datatype )
+	{
+		BasicType basic = basicRepresentation( datatype.getRepresentation() );
+		BasicTypeCodec codec = BasicTypeCodec.create( basic, basic );
+		if( codec == null || codec.isFloatingPoint() )
+		{
+			throw new IllegalArgumentException( datatype.getName()+" is not represented by an "+
+			                                    "integer type" );
+		}
+
+		return codec;
+	}
+
+	private static BasicType basicRepresentation( IDatatype representation )
+	{
+		if( representation instanceof BasicType == false )
+		{
+			throw new IllegalArgumentException( "representation "+representation.getName()+
+			                                    " is not a linked basic type" );
+		}
+
+		return (BasicType)representation;
+	}
+
+	/////////////////////////////////////////////////////////////////////////////////////////
+	/////////////////////////////////// Bound Value Types ///////////////////////////////////
+	/////////////////////////////////////////////////////////////////////////////////////////
+	private static DatatypeCodec<?> bind( IDatatype datatype, Class<?> type )
+	{
+		// the default value type will do if the caller asked for it (or a supertype)
+		DatatypeCodec<?> codec = create( datatype );
+		if( box(type).isAssignableFrom(codec.getValueType()) )
+			return codec;
+
+		if( datatype.getDatatypeClass() == DatatypeClass.FIXEDRECORD && !type.isPrimitive() )
+			return bindFixedRecord( (FixedRecordType)datatype, type );
+		else if( datatype.getDatatypeClass() == DatatypeClass.ARRAY && type.isArray() )
+			return bindArray( (ArrayType)datatype, type );
+
+		throw new IllegalArgumentException( datatype.getName()+" can't be read as "+
+		                                    type.getName()+" (use "+
+		                                    codec.getValueType().getName()+")" );
+	}
+
+	private static DatatypeCodec<?> bindArray( ArrayType datatype, Class<?> type )
+	{
+		Class<?> component = type.getComponentType();
+		if( component.isPrimitive() )
+		{
+			DatatypeCodec<?> element = create( datatype.getDatatype() );
+			if( component == boolean.class || element instanceof BasicTypeCodec == false )
+			{
+				throw new IllegalArgumentException( datatype.getName()+" can't be read as "+
+				                                    type.getSimpleName()+": elements are "+
+				                                    element.getValueType().getSimpleName() );
+			}
+
+			return new JavaArrayCodec( datatype, type, (BasicTypeCodec)element );
+		}
+		else
+		{
+			return new JavaArrayCodec( datatype, type, erase(bind(datatype.getDatatype(),component)) );
+		}
+	}
+
+	private static <T> DatatypeCodec<T> bindFixedRecord( FixedRecordType datatype, Class<T> type )
+	{
+		List<org.portico.lrc.model.datatype.Field> recordFields = datatype.getFields();
+		Field[] fields = new Field[recordFields.size()];
+		DatatypeCodec<?>[] codecs = new DatatypeCodec<?>[fields.length];
+		for( int i = 0; i < fields.length; i++ )
+		{
+			org.portico.lrc.model.datatype.Field recordField = recordFields.get( i );
+			fields[i] = findField( type, recordField.getName() );
+
+			Class<?> fieldType = fields[i].getType();
+			if( fieldType.isPrimitive() && fieldType != boolean.class )
+			{
+				// numbers go straight into the field, see BoundRecordCodec
+				codecs[i] = create( recordField.getDatatype() );
+				if( codecs[i] instanceof BasicTypeCodec == false )
+				{
+					throw new IllegalArgumentException( recordField.getName()+" can't be read as "+
+					                                    fieldType.getName() );
+				}
+			}
+			else
+			{
+				codecs[i] = bind( recordField.getDatatype(), fieldType );
+			}
+		}
+
+		return new BoundRecordCodec<T>( datatype, type, fields, codecs );
+	}
+
+	private static Field findField( Class<?> type, String name )
+	{
+		for( Class<?> current = type; current != null; current = current.getSuperclass() )
+		{
+			for( Field field : current.getDeclaredFields() )
+			{
+				int modifiers = field.getModifiers();
+				if( field.getName().equals(name) && !Modifier.isStatic(modifiers) )
+				{
+					if( Modifier.isFinal(modifiers) )
+						throw new IllegalArgumentException( "field "+name+" of "+type.getName()+" is final" );
+					else
+						return field;
+				}
+			}
+		}
+
+		throw new IllegalArgumentException( type.getName()+" has no field named "+name );
+	}
+
+	/////////////////////////////////////////////////////////////////////////////////////////
+	////////////////////////////////////// Misc Helpers /////////////////////////////////////
+	/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Codecs are assembled from parts whose value types are only known at runtime, and the
+	 * value types are checked as the parts are chosen, so parts are held as codecs of Object.
+	 */
+	@SuppressWarnings("unchecked")
+	static DatatypeCodec<Object> erase( DatatypeCodec<?> codec )
+	{
+		return (DatatypeCodec<Object>)codec;
+	}
+
+	/**
+	 * Arrays of a generic type can't be created directly, so this creates a raw one for holding
+	 * the parts of a codec (see {@link #erase(DatatypeCodec)}).
+	 */
+	@SuppressWarnings({"rawtypes","unchecked"})
+	static DatatypeCodec<Object>[] newCodecArray( int size )
+	{
+		return new DatatypeCodec[size];
+	}
+
+	private static Class<?> box( Class<?> type )
+	{
+		if( !type.isPrimitive() )
+			return type;
+		else if( type == boolean.class )
+			return Boolean.class;
+		else if( type == byte.class )
+			return Byte.class;
+		else if( type == short.class )
+			return Short.class;
+		else if( type == char.class )
+			return Character.class;
+		else if( type == int.class )
+			return Integer.class;
+		else if( type == long.class )
+			return Long.class;
+		else if( type == float.class )
+			return Float.class;
+		else if( type == double.class )
+			return Double.class;
+		else
+			return Void.class;
+	}
+}
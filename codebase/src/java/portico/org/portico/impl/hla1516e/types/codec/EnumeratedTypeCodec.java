@@ -0,0 +1,120 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.impl.hla1516e.types.codec;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.portico.lrc.model.datatype.EnumeratedType;
+import org.portico.lrc.model.datatype.Enumerator;
+import org.portico.lrc.model.datatype.IEnumerator;
+
+/**
+ * Codec for an {@link EnumeratedType}. Values are the type's {@link Enumerator}s, and are
+ * written as their value in the type's representation. Any {@link IEnumerator} with a value
+ * this type knows about can be encoded, so enumerators from another copy of the FOM are fine.
+ */
+class EnumeratedTypeCodec extends DatatypeCodec<IEnumerator>
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private final BasicTypeCodec representation;
+	private final Enumerator[] enumerators;
+	private final long[] values;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	EnumeratedTypeCodec( EnumeratedType datatype, BasicTypeCodec representation )
+	{
+		super( datatype );
+		this.representation = representation;
+
+		List<Enumerator> list = datatype.getEnumerators();
+		this.enumerators = list.toArray( new Enumerator[list.size()] );
+		this.values = new long[enumerators.length];
+		for( int i = 0; i < enumerators.length; i++ )
+			values[i] = enumerators[i].getValue().longValue();
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@Override
+	public Class<?> getValueType()
+	{
+		return Enumerator.class;
+	}
+
+	@Override
+	int fixedLength()
+	{
+		return representation.fixedLength();
+	}
+
+	@Override
+	int length( IEnumerator value )
+	{
+		return representation.fixedLength();
+	}
+
+	@Override
+	void write( IEnumerator value, ByteBuffer buffer )
+	{
+		long asLong = value.getValue().longValue();
+		if( indexOf(asLong) == -1 )
+		{
+			throw new IllegalArgumentException( value.getName()+" is not an enumerator of "+
+			                                    datatype.getName() );
+		}
+
+		representation.writeLong( asLong, buffer );
+	}
+
+	@Override
+	Enumerator read( ByteBuffer buffer )
+	{
+		long value = representation.readLong( buffer );
+		int index = indexOf( value );
+		if( index == -1 )
+			throw new IllegalArgumentException( "no enumerator with value "+value );
+
+		return enumerators[index];
+	}
+
+	/**
+	 * @return The index of the enumerator with the given value, or -1 if there isn't one
+	 */
+	int indexOf( long value )
+	{
+		// enumerations are small, a scan beats boxing the value for a map lookup
+		for( int i = 0; i < values.length; i++ )
+		{
+			if( values[i] == value )
+				return i;
+		}
+
+		return -1;
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
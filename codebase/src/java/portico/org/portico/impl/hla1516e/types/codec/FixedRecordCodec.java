@@ -0,0 +1,133 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.impl.hla1516e.types.codec;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.portico.lrc.model.datatype.Field;
+import org.portico.lrc.model.datatype.FixedRecordType;
+
+/**
+ * Codec for a {@link FixedRecordType} that hands values over as a {@link Map} of field name to
+ * field value. Every field must be present when encoding. Decoded maps are
+ * {@link LinkedHashMap}s that keep the fields in FOM order.
+ */
+class FixedRecordCodec extends DatatypeCodec<Map<String,?>>
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private final String[] names;
+	private final DatatypeCodec<Object>[] fields;
+	private final int fixedLength;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	FixedRecordCodec( FixedRecordType datatype, DatatypeCodec<Object>[] fields )
+	{
+		super( datatype );
+		List<Field> list = datatype.getFields();
+		this.names = new String[list.size()];
+		for( int i = 0; i < names.length; i++ )
+			names[i] = list.get(i).getName();
+
+		this.fields = fields;
+		this.fixedLength = sumOfFixedLengths( fields );
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@Override
+	public Class<?> getValueType()
+	{
+		return Map.class;
+	}
+
+	@Override
+	int fixedLength()
+	{
+		return fixedLength;
+	}
+
+	@Override
+	int length( Map<String,?> value )
+	{
+		if( fixedLength >= 0 )
+			return fixedLength;
+
+		int length = 0;
+		for( int i = 0; i < fields.length; i++ )
+			length += fields[i].length( field(value,i) );
+
+		return length;
+	}
+
+	@Override
+	void write( Map<String,?> value, ByteBuffer buffer )
+	{
+		for( int i = 0; i < fields.length; i++ )
+			fields[i].write( field(value,i), buffer );
+	}
+
+	@Override
+	Map<String,?> read( ByteBuffer buffer )
+	{
+		// size the map so it never has to grow
+		Map<String,Object> value = new LinkedHashMap<String,Object>( (fields.length*4/3)+1 );
+		for( int i = 0; i < fields.length; i++ )
+			value.put( names[i], fields[i].read(buffer) );
+
+		return value;
+	}
+
+	private Object field( Map<String,?> value, int index )
+	{
+		Object field = value.get( names[index] );
+		if( field == null )
+			throw new IllegalArgumentException( "no value for field "+names[index] );
+
+		return field;
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+	/**
+	 * @return The total fixed length of the given codecs, or -1 if any of them doesn't have one
+	 */
+	static int sumOfFixedLengths( DatatypeCodec<?>[] codecs )
+	{
+		int total = 0;
+		for( DatatypeCodec<?> codec : codecs )
+		{
+			int length = codec.fixedLength();
+			if( length < 0 )
+				return -1;
+
+			total += length;
+		}
+
+		return total;
+	}
+}
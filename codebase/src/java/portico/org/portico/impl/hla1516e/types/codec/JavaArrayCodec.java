@@ -0,0 +1,194 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.impl.hla1516e.types.codec;
+
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+
+import org.portico.lrc.model.datatype.ArrayType;
+
+/**
+ * Codec for an {@link ArrayType} that hands values over as a Java array. Arrays of primitives
+ * are read and written straight through the element's {@link BasicTypeCodec}, so no element is
+ * ever boxed. Built by {@link DatatypeCodecs#forClass(org.portico.lrc.model.datatype.IDatatype,
+ * Class)} when asked for an array class.
+ */
+class JavaArrayCodec extends ArrayCodec<Object>
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private final Class<?> arrayType;
+	private final Class<?> componentType;
+	private final DatatypeCodec<Object> element;  // non-primitive components only
+	private final BasicTypeCodec primitive;       // primitive components only
+	private final int elementLength;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	JavaArrayCodec( ArrayType datatype, Class<?> arrayType, DatatypeCodec<Object> element )
+	{
+		super( datatype );
+		this.arrayType = arrayType;
+		this.componentType = arrayType.getComponentType();
+		this.element = element;
+		this.primitive = null;
+		this.elementLength = element.fixedLength();
+	}
+
+	JavaArrayCodec( ArrayType datatype, Class<?> arrayType, BasicTypeCodec primitive )
+	{
+		super( datatype );
+		this.arrayType = arrayType;
+		this.componentType = arrayType.getComponentType();
+		this.element = null;
+		this.primitive = primitive;
+		this.elementLength = primitive.fixedLength();
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@Override
+	public Class<?> getValueType()
+	{
+		return arrayType;
+	}
+
+	@Override
+	int length( Object value )
+	{
+		if( elementLength >= 0 )
+			return 4 + Array.getLength(value)*elementLength;
+
+		int length = 4;
+		for( Object item : (Object[])value )
+			length += element.length( item );
+
+		return length;
+	}
+
+	@Override
+	void write( Object value, ByteBuffer buffer )
+	{
+		writeCount( Array.getLength(value), buffer );
+		if( primitive == null )
+		{
+			for( Object item : (Object[])value )
+				element.write( item, buffer );
+		}
+		else if( componentType == double.class )
+		{
+			for( double item : (double[])value )
+				primitive.writeDouble( item, buffer );
+		}
+		else if( componentType == float.class )
+		{
+			for( float item : (float[])value )
+				primitive.writeDouble( item, buffer );
+		}
+		else if( componentType == long.class )
+		{
+			for( long item : (long[])value )
+				primitive.writeLong( item, buffer );
+		}
+		else if( componentType == int.class )
+		{
+			for( int item : (int[])value )
+				primitive.writeLong( item, buffer );
+		}
+		else if( componentType == short.class )
+		{
+			for( short item : (short[])value )
+				primitive.writeLong( item, buffer );
+		}
+		else if( componentType == char.class )
+		{
+			for( char item : (char[])value )
+				primitive.writeLong( item, buffer );
+		}
+		else
+		{
+			for( byte item : (byte[])value )
+				primitive.writeLong( item, buffer );
+		}
+	}
+
+	@Override
+	Object read( ByteBuffer buffer )
+	{
+		int count = readCount( buffer, Math.max(elementLength,1) );
+		Object value = Array.newInstance( componentType, count );
+		if( primitive == null )
+		{
+			Object[] array = (Object[])value;
+			for( int i = 0; i < count; i++ )
+				array[i] = element.read( buffer );
+		}
+		else if( componentType == double.class )
+		{
+			double[] array = (double[])value;
+			for( int i = 0; i < count; i++ )
+				array[i] = primitive.readDouble( buffer );
+		}
+		else if( componentType == float.class )
+		{
+			float[] array = (float[])value;
+			for( int i = 0; i < count; i++ )
+				array[i] = (float)primitive.readDouble( buffer );
+		}
+		else if( componentType == long.class )
+		{
+			long[] array = (long[])value;
+			for( int i = 0; i < count; i++ )
+				array[i] = primitive.readLong( buffer );
+		}
+		else if( componentType == int.class )
+		{
+			int[] array = (int[])value;
+			for( int i = 0; i < count; i++ )
+				array[i] = (int)primitive.readLong( buffer );
+		}
+		else if( componentType == short.class )
+		{
+			short[] array = (short[])value;
+			for( int i = 0; i < count; i++ )
+				array[i] = (short)primitive.readLong( buffer );
+		}
+		else if( componentType == char.class )
+		{
+			char[] array = (char[])value;
+			for( int i = 0; i < count; i++ )
+				array[i] = (char)primitive.readLong( buffer );
+		}
+		else
+		{
+			byte[] array = (byte[])value;
+			for( int i = 0; i < count; i++ )
+				array[i] = (byte)primitive.readLong( buffer );
+		}
+
+		return value;
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
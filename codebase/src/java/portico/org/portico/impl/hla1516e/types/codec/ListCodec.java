@@ -0,0 +1,93 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.impl.hla1516e.types.codec;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.portico.lrc.model.datatype.ArrayType;
+
+/**
+ * Codec for an {@link ArrayType} that hands values over as a {@link List} of the element
+ * codec's values. Decoded lists are {@link ArrayList}s sized to the element count.
+ */
+class ListCodec extends ArrayCodec<List<?>>
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private final DatatypeCodec<Object> element;
+	private final int elementLength;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	ListCodec( ArrayType datatype, DatatypeCodec<Object> element )
+	{
+		super( datatype );
+		this.element = element;
+		this.elementLength = element.fixedLength();
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@Override
+	public Class<?> getValueType()
+	{
+		return List.class;
+	}
+
+	@Override
+	int length( List<?> value )
+	{
+		if( elementLength >= 0 )
+			return 4 + value.size()*elementLength;
+
+		int length = 4;
+		for( Object item : value )
+			length += element.length( item );
+
+		return length;
+	}
+
+	@Override
+	void write( List<?> value, ByteBuffer buffer )
+	{
+		writeCount( value.size(), buffer );
+		for( Object item : value )
+			element.write( item, buffer );
+	}
+
+	@Override
+	List<?> read( ByteBuffer buffer )
+	{
+		int count = readCount( buffer, Math.max(elementLength,1) );
+		List<Object> value = new ArrayList<Object>( count );
+		for( int i = 0; i < count; i++ )
+			value.add( element.read(buffer) );
+
+		return value;
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
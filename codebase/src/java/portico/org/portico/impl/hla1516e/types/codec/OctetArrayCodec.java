@@ -0,0 +1,76 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.impl.hla1516e.types.codec;
+
+import java.nio.ByteBuffer;
+
+import org.portico.lrc.model.datatype.ArrayType;
+
+/**
+ * Codec for arrays of single octets (<code>HLAopaqueData</code>, <code>HLAhandle</code> and
+ * the like), which hands values over as a <code>byte[]</code> rather than a list of bytes.
+ */
+class OctetArrayCodec extends ArrayCodec<byte[]>
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	OctetArrayCodec( ArrayType datatype )
+	{
+		super( datatype );
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@Override
+	public Class<?> getValueType()
+	{
+		return byte[].class;
+	}
+
+	@Override
+	int length( byte[] value )
+	{
+		return 4 + value.length;
+	}
+
+	@Override
+	void write( byte[] value, ByteBuffer buffer )
+	{
+		writeCount( value.length, buffer );
+		buffer.put( value );
+	}
+
+	@Override
+	byte[] read( ByteBuffer buffer )
+	{
+		byte[] value = new byte[readCount(buffer,1)];
+		buffer.get( value );
+		return value;
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -0,0 +1,91 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.impl.hla1516e.types.codec;
+
+import java.nio.ByteBuffer;
+
+import org.portico.lrc.model.datatype.BasicType;
+import org.portico.lrc.model.datatype.IDatatype;
+
+/**
+ * Codec for a {@link BasicType} that doesn't map onto a Java primitive (anything that isn't
+ * 1, 2, 4 or 8 bytes). Values are the raw bytes exactly as they appear on the wire, so any
+ * byte swapping for little-endian types is left to the caller.
+ */
+class RawBytesCodec extends DatatypeCodec<byte[]>
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private final int size;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	RawBytesCodec( IDatatype datatype, BasicType basic )
+	{
+		super( datatype );
+		this.size = (basic.getSize()+7) / 8;
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@Override
+	public Class<?> getValueType()
+	{
+		return byte[].class;
+	}
+
+	@Override
+	int fixedLength()
+	{
+		return size;
+	}
+
+	@Override
+	int length( byte[] value )
+	{
+		return size;
+	}
+
+	@Override
+	void write( byte[] value, ByteBuffer buffer )
+	{
+		if( value.length != size )
+		{
+			throw new IllegalArgumentException( "expected "+size+" bytes, found "+
+			                                    value.length );
+		}
+
+		buffer.put( value );
+	}
+
+	@Override
+	byte[] read( ByteBuffer buffer )
+	{
+		byte[] value = new byte[size];
+		buffer.get( value );
+		return value;
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -0,0 +1,125 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.impl.hla1516e.types.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.portico.lrc.model.datatype.ArrayType;
+
+/**
+ * Codec for arrays of <code>HLAASCIIchar</code> or <code>HLAunicodeChar</code> (such as
+ * <code>HLAASCIIstring</code> and <code>HLAunicodeString</code>), which hands values over as a
+ * {@link String}. The bytes are the same as
+ * {@link org.portico.impl.hla1516e.types.encoding.HLA1516eASCIIstring HLA1516eASCIIstring} and
+ * {@link org.portico.impl.hla1516e.types.encoding.HLA1516eUnicodeString HLA1516eUnicodeString}
+ * produce, including the byte order mark the latter puts at the start of unicode strings.
+ */
+class StringCodec extends ArrayCodec<String>
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final char BOM = '\uFEFF';
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private final boolean unicode;
+	private final int charSize;
+	private final Charset charset;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	StringCodec( ArrayType datatype, boolean unicode )
+	{
+		super( datatype );
+		this.unicode = unicode;
+		this.charSize = unicode ? 2 : 1;
+		this.charset = unicode ? StandardCharsets.UTF_16 : StandardCharsets.ISO_8859_1;
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@Override
+	public Class<?> getValueType()
+	{
+		return String.class;
+	}
+
+	@Override
+	int length( String value )
+	{
+		return 4 + count(value)*charSize;
+	}
+
+	private int count( String value )
+	{
+		// unicode strings carry a byte order mark
+		return unicode ? value.length()+1 : value.length();
+	}
+
+	@Override
+	void write( String value, ByteBuffer buffer )
+	{
+		int length = value.length();
+		writeCount( count(value), buffer );
+		if( unicode )
+		{
+			buffer.putChar( BOM );
+			for( int i = 0; i < length; i++ )
+				buffer.putChar( value.charAt(i) );
+		}
+		else
+		{
+			for( int i = 0; i < length; i++ )
+			{
+				// same substitution String.getBytes() makes for characters outside the charset
+				char c = value.charAt( i );
+				buffer.put( c > 0xff ? (byte)'?' : (byte)c );
+			}
+		}
+	}
+
+	@Override
+	String read( ByteBuffer buffer )
+	{
+		int length = readCount( buffer, charSize ) * charSize;
+		String value;
+		if( buffer.hasArray() )
+		{
+			value = new String( buffer.array(),
+			                    buffer.arrayOffset()+buffer.position(),
+			                    length,
+			                    charset );
+			buffer.position( buffer.position()+length );
+		}
+		else
+		{
+			byte[] bytes = new byte[length];
+			buffer.get( bytes );
+			value = new String( bytes, charset );
+		}
+
+		return value;
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -0,0 +1,165 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.impl.hla1516e.types.codec;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.portico.lrc.model.datatype.Alternative;
+import org.portico.lrc.model.datatype.EnumeratedType;
+import org.portico.lrc.model.datatype.Enumerator;
+import org.portico.lrc.model.datatype.IEnumerator;
+import org.portico.lrc.model.datatype.VariantRecordType;
+
+/**
+ * Codec for a {@link VariantRecordType} that hands values over as a {@link Map}. The
+ * discriminant is stored under the record's discriminant name, and the value of the selected
+ * alternative (if it has a datatype) under the alternative's name. The discriminant is written
+ * first, followed by the alternative, as
+ * {@link org.portico.impl.hla1516e.types.encoding.HLA1516eVariantRecord HLA1516eVariantRecord}
+ * does. A discriminant that no alternative lists selects the <code>HLAother</code> alternative,
+ * if there is one.
+ */
+class VariantRecordCodec extends DatatypeCodec<Map<String,?>>
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private final String discriminantName;
+	private final EnumeratedTypeCodec discriminant;
+
+	// indexed by the position of the discriminant's enumerator, null where there's
+	// no alternative (name) or the alternative has no datatype (codec)
+	private final String[] alternativeNames;
+	private final DatatypeCodec<Object>[] alternatives;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	VariantRecordCodec( VariantRecordType datatype,
+	                    EnumeratedTypeCodec discriminant,
+	                    Map<Alternative,DatatypeCodec<Object>> alternatives )
+	{
+		super( datatype );
+		// same order the discriminant codec indexes its enumerators in
+		List<Enumerator> enumerators =
+			((EnumeratedType)discriminant.getDatatype()).getEnumerators();
+
+		this.discriminantName = datatype.getDiscriminantName();
+		this.discriminant = discriminant;
+		this.alternativeNames = new String[enumerators.size()];
+		this.alternatives = DatatypeCodecs.newCodecArray( enumerators.size() );
+
+		// work out the alternative for each enumerator, with HLAother filling the gaps
+		Alternative other = null;
+		Map<Long,Alternative> byValue = new HashMap<Long,Alternative>();
+		for( Alternative alternative : alternatives.keySet() )
+		{
+			for( IEnumerator enumerator : alternative.getEnumerators() )
+			{
+				if( enumerator == Enumerator.HLA_OTHER )
+					other = alternative;
+				else
+					byValue.put( enumerator.getValue().longValue(), alternative );
+			}
+		}
+
+		for( int i = 0; i < enumerators.size(); i++ )
+		{
+			Alternative alternative = byValue.get( enumerators.get(i).getValue().longValue() );
+			if( alternative == null )
+				alternative = other;
+			if( alternative != null )
+			{
+				this.alternativeNames[i] = alternative.getName();
+				this.alternatives[i] = alternatives.get( alternative );
+			}
+		}
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@Override
+	public Class<?> getValueType()
+	{
+		return Map.class;
+	}
+
+	@Override
+	int length( Map<String,?> value )
+	{
+		int index = alternative( value );
+		int length = discriminant.fixedLength();
+		if( alternatives[index] != null )
+			length += alternatives[index].length( value.get(alternativeNames[index]) );
+
+		return length;
+	}
+
+	@Override
+	void write( Map<String,?> value, ByteBuffer buffer )
+	{
+		int index = alternative( value );
+		discriminant.write( (IEnumerator)value.get(discriminantName), buffer );
+		if( alternatives[index] != null )
+			alternatives[index].write( value.get(alternativeNames[index]), buffer );
+	}
+
+	@Override
+	Map<String,?> read( ByteBuffer buffer )
+	{
+		Enumerator enumerator = discriminant.read( buffer );
+		int index = discriminant.indexOf( enumerator.getValue().longValue() );
+		if( alternativeNames[index] == null )
+			throw new IllegalArgumentException( "no alternative for discriminant "+enumerator );
+
+		Map<String,Object> value = new HashMap<String,Object>( 4 );
+		value.put( discriminantName, enumerator );
+		if( alternatives[index] != null )
+			value.put( alternativeNames[index], alternatives[index].read(buffer) );
+
+		return value;
+	}
+
+	/**
+	 * Find the alternative the discriminant in the given value selects, checking that the
+	 * alternative's value is there if it needs one.
+	 */
+	private int alternative( Map<String,?> value )
+	{
+		Object enumerator = value.get( discriminantName );
+		if( enumerator instanceof IEnumerator == false )
+			throw new IllegalArgumentException( "no enumerator for discriminant "+discriminantName );
+
+		int index = discriminant.indexOf( ((IEnumerator)enumerator).getValue().longValue() );
+		if( index == -1 || alternativeNames[index] == null )
+			throw new IllegalArgumentException( "no alternative for discriminant "+enumerator );
+		if( alternatives[index] != null && value.get(alternativeNames[index]) == null )
+			throw new IllegalArgumentException( "no value for alternative "+alternativeNames[index] );
+
+		return index;
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -0,0 +1,189 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.impl.hla1516e.types.encoding;
+
+import java.util.Arrays;
+import java.util.List;
+
+import hla.rti1516e.encoding.ByteWrapper;
+import hla.rti1516e.encoding.DataElement;
+import hla.rti1516e.encoding.DecoderException;
+import hla.rti1516e.encoding.EncoderException;
+
+/**
+ * Remembers where each element of a composite (record or array) sits in the buffer it was
+ * last decoded from, so that an element is only decoded when it is first asked for. Elements
+ * that are never asked for are never decoded, and if the composite is encoded again they are
+ * copied straight across from the buffer.
+ * <p/>
+ * This only works when every element has a fixed encoded length (see
+ * {@link HLA1516eDataElement#getFixedEncodedLength()}), which is what lets us find an element
+ * without reading the ones before it. The offsets, flags and the wrapper used to decode each
+ * element are reused from one decode to the next, so once they have grown to fit, viewing a
+ * buffer allocates nothing.
+ * <p/>
+ * A view holds on to the buffer it was taken from. The buffer must not change while there are
+ * elements left to decode.
+ */
+class ElementView
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private byte[] source;
+	private int[] offsets;      // start of each element, plus the end of the last one
+	private boolean[] pending;  // true until the element has been decoded from the source
+	private int count;
+	private ByteWrapper wrapper;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	ElementView()
+	{
+		this.source = null;
+		this.offsets = new int[1];
+		this.pending = new boolean[0];
+		this.count = 0;
+		this.wrapper = new ByteWrapper();
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	/**
+	 * Take a view of the given elements from the wrapper's current position and move the wrapper
+	 * past them. If any of the elements doesn't have a fixed encoded length the view is left
+	 * empty, the wrapper isn't moved and false is returned, and the caller should decode the
+	 * elements as normal.
+	 *
+	 * @throws DecoderException If there aren't enough bytes left for all the elements
+	 */
+	boolean view( ByteWrapper byteWrapper, List<? extends DataElement> elements )
+		throws DecoderException
+	{
+		clear();
+
+		int size = elements.size();
+		if( offsets.length < size+1 )
+		{
+			this.offsets = new int[size+1];
+			this.pending = new boolean[size];
+		}
+
+		int offset = byteWrapper.getPos();
+		for( int i = 0; i < size; i++ )
+		{
+			int length = HLA1516eDataElement.getFixedEncodedLength( elements.get(i) );
+			if( length < 0 )
+				return false;
+
+			offsets[i] = offset;
+			offset += length;
+		}
+		offsets[size] = offset;
+
+		int total = offset - byteWrapper.getPos();
+		if( byteWrapper.remaining() < total )
+		{
+			throw new DecoderException( "Buffer Underflow. Remaining="+byteWrapper.remaining()+
+			                            "b, Expected="+total+"b" );
+		}
+
+		this.source = byteWrapper.array();
+		this.count = size;
+		Arrays.fill( pending, 0, size, true );
+		byteWrapper.advance( total );
+		return true;
+	}
+
+	/**
+	 * @return True if the element at the given index hasn't been decoded from the view yet
+	 */
+	boolean isPending( int index )
+	{
+		return index < count && pending[index];
+	}
+
+	/**
+	 * Decode the element at the given index from the viewed buffer, if it hasn't been already.
+	 * This is called from accessors that can't throw a DecoderException, so decoding problems
+	 * are rethrown as a RuntimeException.
+	 */
+	void decode( int index, DataElement element )
+	{
+		if( isPending(index) == false )
+			return;
+
+		// clear the flag first, a bad element shouldn't be retried on every access
+		pending[index] = false;
+		wrapper.reassign( source, offsets[index], offsets[index+1]-offsets[index] );
+		try
+		{
+			element.decode( wrapper );
+		}
+		catch( DecoderException de )
+		{
+			throw new RuntimeException( de.getMessage(), de );
+		}
+	}
+
+	/**
+	 * Decode every element that hasn't been decoded yet
+	 */
+	void decodeAll( List<? extends DataElement> elements )
+	{
+		for( int i = 0; i < count; i++ )
+			decode( i, elements.get(i) );
+	}
+
+	/**
+	 * Encode an element that is still pending by copying its bytes across from the viewed buffer
+	 */
+	void encode( int index, ByteWrapper byteWrapper ) throws EncoderException
+	{
+		int length = offsets[index+1] - offsets[index];
+		if( byteWrapper.remaining() < length )
+			throw new EncoderException( "Insufficient space remaining in buffer to encode this value" );
+
+		byteWrapper.put( source, offsets[index], length );
+	}
+
+	/**
+	 * Forget about any elements at or past the given index. Used when elements are removed so
+	 * that anything added in their place isn't mistaken for a viewed element.
+	 */
+	void truncate( int size )
+	{
+		this.count = Math.min( this.count, size );
+	}
+
+	/**
+	 * Forget the current view, and let go of the buffer
+	 */
+	void clear()
+	{
+		this.source = null;
+		this.count = 0;
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
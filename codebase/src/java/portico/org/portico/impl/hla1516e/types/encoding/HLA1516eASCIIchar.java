@@ -96,6 +96,12 @@ public class HLA1516eASCIIchar extends HLA1516eDataElement implements HLAASCIIch
 		return 1;
 	}
 
+	@Override
+	protected int getFixedEncodedLength()
+	{
+		return 1;
+	}
+
 	@Override
 	public byte[] toByteArray() throws EncoderException
 	{
@@ -14,8 +14,6 @@
  */
 package org.portico.impl.hla1516e.types.encoding;
 
-import org.portico.utils.bithelpers.BitHelpers;
-
 import hla.rti1516e.encoding.ByteWrapper;
 import hla.rti1516e.encoding.DecoderException;
 import hla.rti1516e.encoding.EncoderException;
@@ -96,27 +94,33 @@ public class HLA1516eASCIIstring extends HLA1516eDataElement implements HLAASCII
 	@Override
 	public int getEncodedLength()
 	{
-		return 4 + getBytes().length;
+		// ISO-8859-1 is one byte per character
+		return 4 + this.value.length();
 	}
 
 	@Override
 	public void encode( ByteWrapper byteWrapper ) throws EncoderException
 	{
-		if( byteWrapper.remaining() < getEncodedLength() )
-			throw new EncoderException( "Insufficient space remaining in buffer to encode this value" );
-		
-		byte[] buffer = getBytes();
-		byteWrapper.putInt( buffer.length );
-		byteWrapper.put( buffer );
+		int length = this.value.length();
+		super.checkForOverflow( byteWrapper, 4+length );
+		byteWrapper.putInt( length );
+
+		// write straight into the wrapper, substituting as String.getBytes() would
+		byte[] buffer = byteWrapper.array();
+		int position = byteWrapper.getPos();
+		for( int i = 0; i < length; i++ )
+		{
+			char c = this.value.charAt( i );
+			buffer[position+i] = c > 0xff ? (byte)'?' : (byte)c;
+		}
+		byteWrapper.advance( length );
 	}
 
 	@Override
 	public byte[] toByteArray() throws EncoderException
 	{
-		byte[] bytes = getBytes();
-		byte[] buffer = new byte[4+bytes.length];
-		BitHelpers.putIntBE( bytes.length, buffer, 0 );
-		BitHelpers.putByteArray( bytes, buffer, 4 );
+		byte[] buffer = new byte[getEncodedLength()];
+		encode( new ByteWrapper(buffer) );
 		return buffer;
 	}
 
@@ -126,12 +130,11 @@ public class HLA1516eASCIIstring extends HLA1516eDataElement implements HLAASCII
 		super.checkForUnderflow( byteWrapper, 4 );
 		int length = byteWrapper.getInt();
 		super.checkForUnderflow( byteWrapper, length );
-		byte[] buffer = new byte[length];
-		byteWrapper.get( buffer );
-		
+
 		try
 		{
-			this.value = new String( buffer, CHARSET );
+			this.value = new String( byteWrapper.array(), byteWrapper.getPos(), length, CHARSET );
+			byteWrapper.advance( length );
 		}
 		catch( Exception e )
 		{
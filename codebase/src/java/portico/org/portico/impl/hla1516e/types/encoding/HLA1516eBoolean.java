@@ -93,6 +93,12 @@ public class HLA1516eBoolean extends HLA1516eDataElement implements HLAboolean
 		return this.value.getEncodedLength();
 	}
 
+	@Override
+	protected int getFixedEncodedLength()
+	{
+		return this.value.getFixedEncodedLength();
+	}
+
 	@Override
 	public byte[] toByteArray() throws EncoderException
 	{
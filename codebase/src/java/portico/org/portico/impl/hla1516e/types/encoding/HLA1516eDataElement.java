@@ -86,6 +86,19 @@ public abstract class HLA1516eDataElement implements DataElement
 	 */
 	public abstract void decode( byte[] bytes ) throws DecoderException;
 
+	/**
+	 * Returns the size in bytes of this element's encoding if it is the same whatever value the
+	 * element holds (as it is for the numeric types, and records or fixed arrays made up only
+	 * of them), or -1 if it isn't. Composite elements use this to work out where each of their
+	 * elements sits in a buffer without having to decode them.
+	 * 
+	 * @return the fixed encoded size of this element, or -1 if it depends on the value
+	 */
+	protected int getFixedEncodedLength()
+	{
+		return -1;
+	}
+
 	/////////////////////////////////////////////////////////////////////////////////////////
 	//////////////////////////////////// Helper Methods /////////////////////////////////////
 	/////////////////////////////////////////////////////////////////////////////////////////
@@ -95,6 +108,16 @@ public abstract class HLA1516eDataElement implements DataElement
 			throw new DecoderException( "buffer was null" );
 	}
 
+	protected final void checkForOverflow( ByteWrapper wrapper, int expected )
+		throws EncoderException
+	{
+		if( wrapper.remaining() < expected )
+		{
+			throw new EncoderException( "Insufficient space remaining in buffer to encode this value. "+
+			                            "Remaining="+wrapper.remaining()+"b, Expected="+expected+"b" );
+		}
+	}
+
 	protected final void checkForUnderflow( byte[] buffer, int offset, int expected )
 		throws DecoderException
 	{
@@ -120,4 +143,15 @@ public abstract class HLA1516eDataElement implements DataElement
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
+	/**
+	 * Returns the fixed encoded length of the given element (see {@link #getFixedEncodedLength()}),
+	 * or -1 if it has none or isn't one of ours.
+	 */
+	protected static int getFixedEncodedLength( DataElement element )
+	{
+		if( element instanceof HLA1516eDataElement )
+			return ((HLA1516eDataElement)element).getFixedEncodedLength();
+		else
+			return -1;
+	}
 }
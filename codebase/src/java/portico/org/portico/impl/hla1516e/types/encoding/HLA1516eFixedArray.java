@@ -37,6 +37,7 @@ public class HLA1516eFixedArray<T extends DataElement>
 	//                   INSTANCE VARIABLES
 	//----------------------------------------------------------
 	protected List<T> elements;
+	private ElementView view; // null unless view decoding is on
 
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
@@ -81,7 +82,11 @@ public class HLA1516eFixedArray<T extends DataElement>
 	 */
 	public T get( int index )
 	{
-		return this.elements.get( index );
+		T element = this.elements.get( index );
+		if( this.view != null )
+			this.view.decode( index, element );
+
+		return element;
 	}
 
 	/**
@@ -91,9 +96,33 @@ public class HLA1516eFixedArray<T extends DataElement>
 	 */
 	public Iterator<T> iterator()
 	{
+		if( this.view != null )
+			this.view.decodeAll( this.elements );
+
 		return this.elements.iterator();
 	}
 
+	/**
+	 * Turn view decoding on or off. With it on, decoding an array whose elements all have a
+	 * fixed encoded length only notes where each element is in the buffer, and each element is
+	 * decoded the first time it is fetched. See {@link HLA1516eVariableArray#setViewDecoding}
+	 * for the details.
+	 * 
+	 * @param viewDecoding true to decode elements when they are first fetched
+	 */
+	public void setViewDecoding( boolean viewDecoding )
+	{
+		if( viewDecoding && this.view == null )
+		{
+			this.view = new ElementView();
+		}
+		else if( !viewDecoding && this.view != null )
+		{
+			this.view.decodeAll( this.elements );
+			this.view = null;
+		}
+	}
+
 	/////////////////////////////////////////////////////////////////////////////////////////
 	////////////////////////////////// DataElement Methods //////////////////////////////////
 	/////////////////////////////////////////////////////////////////////////////////////////
@@ -112,16 +141,22 @@ public class HLA1516eFixedArray<T extends DataElement>
 	@Override
 	public void encode( ByteWrapper byteWrapper ) throws EncoderException
 	{
+		// Each element checks for its own space, so we don't need to add up the length of
+		// the whole array (and all its children) first
 		int length = this.size();
-		if( byteWrapper.remaining() < this.getEncodedLength() )
-			throw new EncoderException( "Insufficient space remaining in buffer to encode this value" );
+		super.checkForOverflow( byteWrapper, 4 );
 		
 		// Write the array length
 		byteWrapper.putInt( length );
 		
-		// Write the array contents
-		for( T element : elements )
-			element.encode( byteWrapper );
+		// Write the array contents, copying any that haven't been decoded from a view yet
+		for( int i = 0; i < length; i++ )
+		{
+			if( this.view != null && this.view.isPending(i) )
+				this.view.encode( i, byteWrapper );
+			else
+				this.elements.get(i).encode( byteWrapper );
+		}
 	}
 
 	@Override
@@ -134,6 +169,22 @@ public class HLA1516eFixedArray<T extends DataElement>
 		return size;
 	}
 
+	@Override
+	protected int getFixedEncodedLength()
+	{
+		int size = 4;
+		for( T element : this.elements )
+		{
+			int length = getFixedEncodedLength( element );
+			if( length < 0 )
+				return -1;
+
+			size += length;
+		}
+
+		return size;
+	}
+
 	@Override
 	public byte[] toByteArray() throws EncoderException
 	{
@@ -164,6 +215,9 @@ public class HLA1516eFixedArray<T extends DataElement>
 		}
 		
 		// Decode the elements
+		if( this.view != null && this.view.view(byteWrapper,this.elements) )
+			return;
+
 		for( T element : elements )
 			element.decode( byteWrapper );
 	}
@@ -34,6 +34,7 @@ public class HLA1516eFixedRecord extends HLA1516eDataElement implements HLAfixed
 	//                   INSTANCE VARIABLES
 	//----------------------------------------------------------
 	private List<DataElement> elements;
+	private ElementView view; // null unless view decoding is on
 
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
@@ -76,7 +77,11 @@ public class HLA1516eFixedRecord extends HLA1516eDataElement implements HLAfixed
 	 */
 	public DataElement get( int index )
 	{
-		return this.elements.get( index );
+		DataElement element = this.elements.get( index );
+		if( this.view != null )
+			this.view.decode( index, element );
+
+		return element;
 	}
 
 	/**
@@ -86,9 +91,33 @@ public class HLA1516eFixedRecord extends HLA1516eDataElement implements HLAfixed
 	 */
 	public Iterator<DataElement> iterator()
 	{
+		if( this.view != null )
+			this.view.decodeAll( this.elements );
+
 		return this.elements.iterator();
 	}
 
+	/**
+	 * Turn view decoding on or off. With it on, decoding a record whose fields all have a fixed
+	 * encoded length only notes where each field is in the buffer, and each field is decoded
+	 * the first time it is fetched. See {@link HLA1516eVariableArray#setViewDecoding} for the
+	 * details.
+	 * 
+	 * @param viewDecoding true to decode fields when they are first fetched
+	 */
+	public void setViewDecoding( boolean viewDecoding )
+	{
+		if( viewDecoding && this.view == null )
+		{
+			this.view = new ElementView();
+		}
+		else if( !viewDecoding && this.view != null )
+		{
+			this.view.decodeAll( this.elements );
+			this.view = null;
+		}
+	}
+
 	/////////////////////////////////////////////////////////////////////////////////////////
 	////////////////////////////////// DataElement Methods //////////////////////////////////
 	/////////////////////////////////////////////////////////////////////////////////////////
@@ -110,8 +139,14 @@ public class HLA1516eFixedRecord extends HLA1516eDataElement implements HLAfixed
 		if( this.elements.size() == 0 )
 			throw new EncoderException( "Cannot encode an empty fixed record!" );
 		
-		for( DataElement element : this.elements )
-			element.encode( byteWrapper );
+		// Copy across any fields that haven't been decoded from a view yet
+		for( int i = 0; i < this.elements.size(); i++ )
+		{
+			if( this.view != null && this.view.isPending(i) )
+				this.view.encode( i, byteWrapper );
+			else
+				this.elements.get(i).encode( byteWrapper );
+		}
 	}
 
 	@Override
@@ -125,6 +160,25 @@ public class HLA1516eFixedRecord extends HLA1516eDataElement implements HLAfixed
 		return size;
 	}
 
+	@Override
+	protected int getFixedEncodedLength()
+	{
+		if( this.elements.isEmpty() )
+			return -1;
+
+		int size = 0;
+		for( DataElement element : this.elements )
+		{
+			int length = getFixedEncodedLength( element );
+			if( length < 0 )
+				return -1;
+
+			size += length;
+		}
+
+		return size;
+	}
+
 	@Override
 	public byte[] toByteArray() throws EncoderException
 	{
@@ -143,6 +197,9 @@ public class HLA1516eFixedRecord extends HLA1516eDataElement implements HLAfixed
 		if( this.elements.size() == 0 )
 			throw new DecoderException( "Cannot decode into an empty fixed record!" );
 		
+		if( this.view != null && this.view.view(byteWrapper,this.elements) )
+			return;
+
 		for( DataElement element : this.elements )
 			element.decode( byteWrapper );
 	}
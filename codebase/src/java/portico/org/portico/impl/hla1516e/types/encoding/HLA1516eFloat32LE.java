@@ -83,17 +83,18 @@ public class HLA1516eFloat32LE extends HLA1516eDataElement implements HLAfloat32
 		return 4;
 	}
 
+	@Override
+	protected final int getFixedEncodedLength()
+	{
+		return 4;
+	}
+
 	@Override
 	public final void encode( ByteWrapper byteWrapper ) throws EncoderException
 	{
-		try
-		{
-			byteWrapper.put( toByteArray() );
-		}
-		catch( Exception e )
-		{
-			throw new EncoderException( e.getMessage(), e );
-		}
+		super.checkForOverflow( byteWrapper, 4 );
+		BitHelpers.putFloatLE( value, byteWrapper.array(), byteWrapper.getPos() );
+		byteWrapper.advance( 4 );
 	}
 
 	@Override
@@ -108,10 +109,8 @@ public class HLA1516eFloat32LE extends HLA1516eDataElement implements HLAfloat32
 	public final void decode( ByteWrapper byteWrapper ) throws DecoderException
 	{
 		super.checkForUnderflow( byteWrapper, 4 );
-		
-		byte[] buffer = new byte[4];
-		byteWrapper.get( buffer );
-		decode( buffer );
+		this.value = BitHelpers.readFloatLE( byteWrapper.array(), byteWrapper.getPos() );
+		byteWrapper.advance( 4 );
 	}
 
 	@Override
@@ -83,17 +83,18 @@ public class HLA1516eFloat64LE extends HLA1516eDataElement implements HLAfloat64
 		return 8;
 	}
 
+	@Override
+	protected final int getFixedEncodedLength()
+	{
+		return 8;
+	}
+
 	@Override
 	public final void encode( ByteWrapper byteWrapper ) throws EncoderException
 	{
-		try
-		{
-			byteWrapper.put( toByteArray() );
-		}
-		catch( Exception e )
-		{
-			throw new EncoderException( e.getMessage(), e );
-		}
+		super.checkForOverflow( byteWrapper, 8 );
+		BitHelpers.putDoubleLE( value, byteWrapper.array(), byteWrapper.getPos() );
+		byteWrapper.advance( 8 );
 	}
 
 	@Override
@@ -108,10 +109,8 @@ public class HLA1516eFloat64LE extends HLA1516eDataElement implements HLAfloat64
 	public final void decode( ByteWrapper byteWrapper ) throws DecoderException
 	{
 		super.checkForUnderflow( byteWrapper, 8 );
-		
-		byte[] buffer = new byte[8];
-		byteWrapper.get( buffer );
-		decode( buffer );
+		this.value = BitHelpers.readDoubleLE( byteWrapper.array(), byteWrapper.getPos() );
+		byteWrapper.advance( 8 );
 	}
 
 	@Override
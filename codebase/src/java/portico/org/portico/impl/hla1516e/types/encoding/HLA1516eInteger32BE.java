@@ -83,13 +83,18 @@ public class HLA1516eInteger32BE extends HLA1516eDataElement implements HLAinteg
 		return 4;
 	}
 
+	@Override
+	protected final int getFixedEncodedLength()
+	{
+		return 4;
+	}
+
 	@Override
 	public final void encode( ByteWrapper byteWrapper ) throws EncoderException
 	{
-		if( byteWrapper.remaining() < 4 )
-			throw new EncoderException( "Insufficient space remaining in buffer to encode this value" );
-		else
-			byteWrapper.put( toByteArray() );
+		super.checkForOverflow( byteWrapper, 4 );
+		BitHelpers.putIntBE( value, byteWrapper.array(), byteWrapper.getPos() );
+		byteWrapper.advance( 4 );
 	}
 
 	@Override
@@ -104,9 +109,8 @@ public class HLA1516eInteger32BE extends HLA1516eDataElement implements HLAinteg
 	public final void decode( ByteWrapper byteWrapper ) throws DecoderException
 	{
 		super.checkForUnderflow( byteWrapper, 4 );
-		byte[] buffer = new byte[4];
-		byteWrapper.get( buffer );
-		decode( buffer );
+		this.value = BitHelpers.readIntBE( byteWrapper.array(), byteWrapper.getPos() );
+		byteWrapper.advance( 4 );
 	}
 
 	@Override
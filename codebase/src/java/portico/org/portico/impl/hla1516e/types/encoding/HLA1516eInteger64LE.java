@@ -83,13 +83,18 @@ public class HLA1516eInteger64LE extends HLA1516eDataElement implements HLAinteg
 		return 8;
 	}
 
+	@Override
+	protected final int getFixedEncodedLength()
+	{
+		return 8;
+	}
+
 	@Override
 	public final void encode( ByteWrapper byteWrapper ) throws EncoderException
 	{
-		if( byteWrapper.remaining() < 8 )
-			throw new EncoderException( "Insufficient space remaining in buffer to encode this value" );
-		else
-			byteWrapper.put( toByteArray() );
+		super.checkForOverflow( byteWrapper, 8 );
+		BitHelpers.putLongLE( value, byteWrapper.array(), byteWrapper.getPos() );
+		byteWrapper.advance( 8 );
 	}
 
 	@Override
@@ -104,9 +109,8 @@ public class HLA1516eInteger64LE extends HLA1516eDataElement implements HLAinteg
 	public final void decode( ByteWrapper byteWrapper ) throws DecoderException
 	{
 		super.checkForUnderflow( byteWrapper, 8 );
-		byte[] buffer = new byte[8];
-		byteWrapper.get( buffer );
-		decode( buffer );
+		this.value = BitHelpers.readLongLE( byteWrapper.array(), byteWrapper.getPos() );
+		byteWrapper.advance( 8 );
 	}
 
 	@Override
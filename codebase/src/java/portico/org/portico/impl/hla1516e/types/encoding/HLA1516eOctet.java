@@ -78,9 +78,7 @@ public class HLA1516eOctet extends HLA1516eDataElement implements HLAoctet
 	@Override
 	public void encode( ByteWrapper byteWrapper ) throws EncoderException
 	{
-		if( byteWrapper.remaining() < this.getEncodedLength() )
-			throw new EncoderException( "Insufficient space remaining in buffer to encode this value" );
-		
+		super.checkForOverflow( byteWrapper, 1 );
 		byteWrapper.put( this.value );
 	}
 
@@ -90,6 +88,12 @@ public class HLA1516eOctet extends HLA1516eDataElement implements HLAoctet
 		return 1;
 	}
 
+	@Override
+	protected int getFixedEncodedLength()
+	{
+		return 1;
+	}
+
 	@Override
 	public byte[] toByteArray() throws EncoderException
 	{
@@ -83,17 +83,18 @@ public class HLA1516eOctetPairLE extends HLA1516eDataElement implements HLAoctet
 		return 2;
 	}
 
+	@Override
+	protected final int getFixedEncodedLength()
+	{
+		return 2;
+	}
+
 	@Override
 	public final void encode( ByteWrapper byteWrapper ) throws EncoderException
 	{
-		try
-		{
-			byteWrapper.put( toByteArray() );
-		}
-		catch( Exception e )
-		{
-			throw new EncoderException( e.getMessage(), e );
-		}
+		super.checkForOverflow( byteWrapper, 2 );
+		BitHelpers.putShortLE( value, byteWrapper.array(), byteWrapper.getPos() );
+		byteWrapper.advance( 2 );
 	}
 
 	@Override
@@ -108,9 +109,8 @@ public class HLA1516eOctetPairLE extends HLA1516eDataElement implements HLAoctet
 	public final void decode( ByteWrapper byteWrapper ) throws DecoderException
 	{
 		super.checkForUnderflow( byteWrapper, 2 );
-		byte[] buffer = new byte[2];
-		byteWrapper.get( buffer );
-		decode( buffer );
+		this.value = BitHelpers.readShortLE( byteWrapper.array(), byteWrapper.getPos() );
+		byteWrapper.advance( 2 );
 	}
 
 	@Override
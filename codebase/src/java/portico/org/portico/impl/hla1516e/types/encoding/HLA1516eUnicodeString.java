@@ -27,6 +27,7 @@ public class HLA1516eUnicodeString extends HLA1516eDataElement implements HLAuni
 	//                    STATIC VARIABLES
 	//----------------------------------------------------------
 	private static final String CHARSET = "UTF-16";
+	private static final short BOM = (short)0xfeff;
 
 	//----------------------------------------------------------
 	//                   INSTANCE VARIABLES
@@ -98,34 +99,33 @@ public class HLA1516eUnicodeString extends HLA1516eDataElement implements HLAuni
 	@Override
 	public int getEncodedLength()
 	{
-		return 4 + getBytes().length;
+		// 2 bytes per unicode character, plus the BOM
+		return 4 + (this.value.length()+1)*2;
 	}
 
 	@Override
 	public void encode( ByteWrapper byteWrapper ) throws EncoderException
 	{
-		try
-		{
-			byteWrapper.put( toByteArray() );
-		}
-		catch( Exception e )
-		{
-			throw new EncoderException( e.getMessage(), e );
-		}
+		// Write the same bytes getBytes() would give us (BOM then big-endian characters)
+		// straight into the wrapper. Include the BOM in our string length.
+		int length = this.value.length();
+		super.checkForOverflow( byteWrapper, 4 + (length+1)*2 );
+		byteWrapper.putInt( length+1 );
+
+		byte[] buffer = byteWrapper.array();
+		int position = byteWrapper.getPos();
+		BitHelpers.putShortBE( BOM, buffer, position );
+		for( int i = 0; i < length; i++ )
+			BitHelpers.putShortBE( (short)this.value.charAt(i), buffer, position+2+(i*2) );
+
+		byteWrapper.advance( (length+1)*2 );
 	}
 
 	@Override
 	public byte[] toByteArray() throws EncoderException
 	{
-		byte[] bytes = getBytes();
-		
-		// Include the BOM in our string length calculations
-		int len = value.length() + 1;
-		
-		// 2 bytes per unicode character
-		byte[] buffer = new byte[4 + (len * 2)];
-		BitHelpers.putIntBE( len, buffer, 0 );
-		BitHelpers.putByteArray( bytes, buffer, 4 );
+		byte[] buffer = new byte[getEncodedLength()];
+		encode( new ByteWrapper(buffer) );
 		return buffer;
 	}
 
@@ -135,12 +135,11 @@ public class HLA1516eUnicodeString extends HLA1516eDataElement implements HLAuni
 		super.checkForUnderflow( byteWrapper, 4 );
 		int length = byteWrapper.getInt();
 		super.checkForUnderflow( byteWrapper, length*2 );
-		byte[] buffer = new byte[length * 2];
-		byteWrapper.get( buffer );
 
 		try
 		{
-    		this.value = new String( buffer, CHARSET );
+			this.value = new String( byteWrapper.array(), byteWrapper.getPos(), length*2, CHARSET );
+			byteWrapper.advance( length*2 );
 		}
 		catch( Exception e )
 		{
@@ -38,6 +38,7 @@ public class HLA1516eVariableArray<T extends DataElement>
 	//----------------------------------------------------------
 	private DataElementFactory<T> factory;
 	private List<T> elements;
+	private ElementView view; // null unless view decoding is on
 	
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
@@ -86,6 +87,36 @@ public class HLA1516eVariableArray<T extends DataElement>
 			// Down-sizing to a smaller capacity, so cull items from the end of the list 
 			while( this.elements.size() > newSize )
 				this.elements.remove( this.elements.size() - 1 );
+
+			if( this.view != null )
+				this.view.truncate( newSize );
+		}
+	}
+
+	/**
+	 * Turn view decoding on or off. With it on, decoding an array whose elements all have a
+	 * fixed encoded length (numbers, or records and fixed arrays of them) only notes where each
+	 * element is in the buffer. An element is decoded the first time it is fetched through
+	 * {@link #get(int)} (or when the array is iterated), and elements that are never fetched are
+	 * copied straight from the buffer if the array is encoded again. The buffer must not be
+	 * changed while there are elements in the array still to be fetched, and problems with an
+	 * element's contents are only found when it is fetched, as a RuntimeException.
+	 * <p/>
+	 * Whether or not view decoding is on, decoding reuses the elements already in the array and
+	 * only creates new ones when the array has to grow.
+	 * 
+	 * @param viewDecoding true to decode elements when they are first fetched
+	 */
+	public void setViewDecoding( boolean viewDecoding )
+	{
+		if( viewDecoding && this.view == null )
+		{
+			this.view = new ElementView();
+		}
+		else if( !viewDecoding && this.view != null )
+		{
+			this.view.decodeAll( this.elements );
+			this.view = null;
 		}
 	}
 
@@ -96,11 +127,18 @@ public class HLA1516eVariableArray<T extends DataElement>
 
 	public T get( int index )
     {
-	    return this.elements.get( index );
+		T element = this.elements.get( index );
+		if( this.view != null )
+			this.view.decode( index, element );
+
+	    return element;
     }
 
 	public Iterator<T> iterator()
     {
+		if( this.view != null )
+			this.view.decodeAll( this.elements );
+
 	    return this.elements.iterator();
     }
 
@@ -123,15 +161,22 @@ public class HLA1516eVariableArray<T extends DataElement>
     public void encode( ByteWrapper byteWrapper )
         throws EncoderException
     {
-		if( byteWrapper.remaining() < this.getEncodedLength() )
-			throw new EncoderException( "Insufficient space remaining in buffer to encode this value" );
+		// Each element checks for its own space, so we don't need to add up the length of
+		// the whole array (and all its children) first
+		super.checkForOverflow( byteWrapper, 4 );
 		
 		// Write the number of elements encoded
-		byteWrapper.putInt( this.elements.size() );
+		int size = this.elements.size();
+		byteWrapper.putInt( size );
 		
-		// Write the elements
-		for( T element : this.elements )
-			element.encode( byteWrapper );
+		// Write the elements, copying any that haven't been decoded from a view yet
+		for( int i = 0; i < size; i++ )
+		{
+			if( this.view != null && this.view.isPending(i) )
+				this.view.encode( i, byteWrapper );
+			else
+				this.elements.get(i).encode( byteWrapper );
+		}
     }
 
 	@Override
@@ -165,20 +210,18 @@ public class HLA1516eVariableArray<T extends DataElement>
 		// Make sure we have at least the minimum we need to read
 		super.checkForUnderflow( byteWrapper, 4 );
 		int size = byteWrapper.getInt();
+		if( size < 0 )
+			throw new DecoderException( "Negative element count in decoded array: "+size );
 		
-		// Clear the underlying collection so that it's ready to receive the new values
-		this.elements.clear();
+		// Reuse the elements we already have to house the new values, only creating new ones
+		// (through the factory) if there aren't enough
+		this.resize( size );
 		
-		for( int i = 0 ; i < size ; ++i )
-		{
-			// Create a new element to house the new value and read it in from the byte wrapper
-			T element = this.factory.createElement( i );
-			element.decode( byteWrapper );
-			
-			// Add the new element to the collection
-			this.elements.add( element );
-		}
+		if( this.view != null && this.view.view(byteWrapper,this.elements) )
+			return;
 		
+		for( int i = 0 ; i < size ; ++i )
+			this.elements.get(i).decode( byteWrapper );
     }
 
 	@Override
@@ -0,0 +1,279 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.logging.log4j.Logger;
+import org.portico.utils.messaging.PorticoMessage;
+
+/**
+ * Delivers callbacks as soon as they can be released from the {@link LRCMessageQueue}, for the
+ * IEEE-1516 and 1516e immediate callback model. Rather than sitting in a loop polling the queue,
+ * the dispatcher is woken up by the queue whenever a message is offered (or something happens
+ * that could make a queued message releasable), and by the LRC whenever callbacks are enabled or
+ * disabled. Each time it is woken, it processes everything that can be released and then goes
+ * back to waiting.
+ * <p/>
+ * The work can be run in one of two ways:
+ * <ul>
+ *   <li><b>Dedicated thread</b> (the default): A thread of our own that parks between wake ups.
+ *       On a JVM that supports them, this can be a virtual thread rather than a platform thread
+ *       (see {@link LRCProperties#PROPERTY_CALLBACK_THREAD}).</li>
+ *   <li><b>Executor</b>: Each time there is work to do, a task is handed to an {@link Executor}
+ *       supplied by the federate (see {@link LRC#setCallbackExecutor(Executor)}). The task returns
+ *       once it has run out of work, so it doesn't tie up one of the executor's threads. Only one
+ *       task is ever outstanding at a time, so callbacks are still delivered one after the other,
+ *       in order.</li>
+ * </ul>
+ */
+class ImmediateCallbackDispatcher implements Runnable
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	/** The most messages to process in one executor task before handing the thread back */
+	private static final int MAX_PER_TASK = 256;
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private LRC lrc;
+	private Logger logger;
+	private Executor executor;   // null if we have our own thread
+	private Thread thread;       // null if we are running on the executor
+
+	private volatile boolean stopped;
+	private AtomicBoolean pending;    // woken since we last looked at the queue
+	private AtomicBoolean scheduled;  // a task has been handed to the executor and not finished
+	private ReentrantLock running;    // held while callbacks are being processed
+	private List<PorticoMessage> batch;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	/**
+	 * @param lrc The LRC to deliver callbacks for
+	 * @param executor The executor to run on, or <code>null</code> to use a dedicated thread
+	 * @param virtual If there is no executor, should the dedicated thread be a virtual thread
+	 */
+	protected ImmediateCallbackDispatcher( LRC lrc, Executor executor, boolean virtual )
+	{
+		this.lrc = lrc;
+		this.logger = lrc.logger;
+		this.executor = executor;
+		this.thread = (executor == null) ? newThread(virtual) : null;
+
+		this.stopped = false;
+		this.pending = new AtomicBoolean( true ); // look at the queue as soon as we start
+		this.scheduled = new AtomicBoolean( false );
+		this.running = new ReentrantLock();
+		this.batch = new ArrayList<PorticoMessage>();
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	private Thread newThread( boolean virtual )
+	{
+		if( virtual )
+		{
+			// virtual threads are only available from Java 21, so we have to go looking for them
+			try
+			{
+				Class<?> builderClass = Class.forName( "java.lang.Thread$Builder" );
+				Object builder = Thread.class.getMethod("ofVirtual").invoke( null );
+				Method name = builderClass.getMethod( "name", String.class );
+				Method unstarted = builderClass.getMethod( "unstarted", Runnable.class );
+				return (Thread)unstarted.invoke( name.invoke(builder,"ImmediateCallbackDispatcher"),
+				                                 this );
+			}
+			catch( Exception e )
+			{
+				logger.warn( "Virtual threads not supported by this JVM, using a platform thread "+
+				             "for immediate callback delivery" );
+			}
+		}
+
+		Thread thread = new Thread( this, "ImmediateCallbackDispatcher" );
+		thread.setDaemon( true );
+		return thread;
+	}
+
+	public void start()
+	{
+		logger.debug( "Starting immediate callback delivery processor (%s)",
+		              executor == null ? "thread: "+thread : "executor: "+executor );
+
+		if( thread != null )
+		{
+			thread.start();
+		}
+		else
+		{
+			scheduled.set( true );
+			executor.execute( this );
+		}
+	}
+
+	/**
+	 * Stop delivering callbacks. If callbacks are being delivered at the time, this waits for
+	 * that to finish before returning (unless it is called from within a callback).
+	 */
+	public void stop()
+	{
+		this.stopped = true;
+		if( thread != null )
+		{
+			LockSupport.unpark( thread );
+			if( thread != Thread.currentThread() )
+			{
+				try
+				{
+					thread.join();
+				}
+				catch( InterruptedException ie )
+				{
+					logger.error( "Received exception while disabling immediate callbacks", ie );
+				}
+			}
+		}
+		else
+		{
+			// wait for any task that is part way through to finish
+			running.lock();
+			running.unlock();
+		}
+
+		logger.debug( "Immediate callback delivery processor disabled" );
+	}
+
+	/**
+	 * Let the dispatcher know that there may be something for it to do. This is called every
+	 * time a message is offered to the queue, so it does as little as it can: if the dispatcher
+	 * has already been woken and hasn't got around to looking yet, it returns straight away.
+	 */
+	public void wakeUp()
+	{
+		if( pending.getAndSet(true) )
+			return;
+
+		if( thread != null )
+			LockSupport.unpark( thread );
+		else if( stopped == false && scheduled.compareAndSet(false,true) )
+			executor.execute( this );
+	}
+
+	public void run()
+	{
+		if( thread == null )
+			runTask();
+		else
+			runThread();
+	}
+
+	/**
+	 * The loop for our dedicated thread. Process whatever there is, then park until woken.
+	 */
+	private void runThread()
+	{
+		while( stopped == false )
+		{
+			pending.set( false );
+			if( processAvailable(Integer.MAX_VALUE) > 0 )
+				continue;
+
+			// if we were woken while looking at the queue, go straight around again,
+			// otherwise park until we are (unpark() before park() is not lost)
+			if( pending.get() == false && stopped == false )
+				LockSupport.park( this );
+		}
+	}
+
+	/**
+	 * A single task run on the executor. Process whatever there is (up to a limit, so as to give
+	 * the executor's thread back every now and then) and hand another task over if we were woken
+	 * in the meantime.
+	 */
+	private void runTask()
+	{
+		try
+		{
+			pending.set( false );
+			if( processAvailable(MAX_PER_TASK) == MAX_PER_TASK )
+				pending.set( true ); // there may well be more, come back in another task
+		}
+		finally
+		{
+			scheduled.set( false );
+		}
+
+		if( pending.get() && stopped == false && scheduled.compareAndSet(false,true) )
+			executor.execute( this );
+	}
+
+	/**
+	 * Process messages until there are none that can be released, callbacks are disabled, we
+	 * are stopped or the given limit is reached.
+	 *
+	 * @return The number of messages processed
+	 */
+	private int processAvailable( int limit )
+	{
+		int processed = 0;
+		running.lock();
+		long started = System.nanoTime();
+		try
+		{
+			while( processed < limit && stopped == false && lrc.state.areCallbacksEnabled() )
+			{
+				PorticoMessage message = lrc.state.messageQueue.poll();
+				if( message == null )
+					break;
+
+				try
+				{
+					processed += lrc.processNext( message, batch );
+				}
+				catch( Exception e )
+				{
+					// something went wrong in the callback, log it and move on
+					logger.error( "Problem processing callback message: "+e.getMessage(), e );
+					++processed;
+				}
+			}
+		}
+		finally
+		{
+			running.unlock();
+		}
+
+		// only count the times we found something to do, or every wake up would look like a tick
+		if( processed > 0 )
+			lrc.getMetrics().tickCompleted( started, processed );
+
+		return processed;
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
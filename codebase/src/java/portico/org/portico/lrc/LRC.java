@@ -15,10 +15,12 @@
 package org.portico.lrc;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -31,6 +33,7 @@ import org.portico.impl.ISpecHelper;
 import org.portico.lrc.compat.JConcurrentAccessAttempted;
 import org.portico.lrc.compat.JConfigurationException;
 import org.portico.lrc.compat.JRTIinternalError;
+import org.portico.lrc.metrics.LRCMetrics;
 import org.portico.lrc.notifications.NotificationManager;
 import org.portico.lrc.notifications.Priority;
 import org.portico.utils.ObjectFactory;
@@ -136,7 +139,12 @@ public class LRC
 	protected LRCState state;
 	
 	// Callback Processing //
-	private Thread immediateCallbackDispatcher; 
+	private ImmediateCallbackDispatcher immediateCallbackDispatcher;
+	private Executor callbackExecutor;
+	private int tickBatchSize;
+	private boolean nullMessageTimeAdvance;
+	private List<PorticoMessage> tickBatch;
+	private LRCMetrics metrics;
 
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
@@ -167,6 +175,10 @@ public class LRC
 		
 		// the immediate callback processing remains null until turned on explictly
 		this.immediateCallbackDispatcher = null;
+		this.callbackExecutor = null;
+		this.tickBatchSize = Math.max( 1, LRCProperties.LRC_TICK_BATCH_SIZE );
+		this.tickBatch = new ArrayList<PorticoMessage>();
+		this.nullMessageTimeAdvance = LRCProperties.LRC_NULL_MESSAGES;
 
 		// create the LRCState component that has most of the state-holding components inside it
 		this.state = new LRCState( this );
@@ -177,6 +189,10 @@ public class LRC
 		// when we re-join a new federation. Also, we have to register it this way so the 
 		// NotificationManager doesn't try to instantiate it!
 		this.notificationManager.addListener( Priority.LOW, this.state );
+
+		// the metrics need to know when we join and resign too, so they can publish themselves
+		this.metrics = new LRCMetrics( this );
+		this.notificationManager.addListener( Priority.LOW, this.metrics );
 		
 		// initialize the parts of the LRC that should be re-initialized whenever the
 		// federate attached to it resigns and rejoins
@@ -437,6 +453,58 @@ public class LRC
 		return this.incoming;
 	}
 
+	public LRCMetrics getMetrics()
+	{
+		return this.metrics;
+	}
+
+	/**
+	 * @return The most messages a tick will take from the queue and process as a single batch
+	 */
+	public int getTickBatchSize()
+	{
+		return this.tickBatchSize;
+	}
+
+	/**
+	 * Set the most messages that {@link #tickUntilEmpty(long)} and {@link #tick(double, double)}
+	 * will take from the queue at once. Each batch is taken from the queue in one go and the
+	 * {@link ISpecHelper} is told when it starts and ends, so it can deliver the callbacks to the
+	 * federate together if it supports that. A size of 1 (the default, unless set through the
+	 * {@link LRCProperties#PROPERTY_TICK_BATCH_SIZE} property) turns batching off. Values less
+	 * than 1 are treated as 1.
+	 */
+	public void setTickBatchSize( int tickBatchSize )
+	{
+		this.tickBatchSize = Math.max( 1, tickBatchSize );
+	}
+
+	/**
+	 * @return <code>true</code> if next event and next message requests from the local federate
+	 *         use the null-message time advance mode
+	 */
+	public boolean isNullMessageTimeAdvance()
+	{
+		return this.nullMessageTimeAdvance;
+	}
+
+	/**
+	 * Turn the null-message time advance mode on or off for the local federate (the default comes
+	 * from the {@link LRCProperties#PROPERTY_NULL_MESSAGES} property). Normally a next event
+	 * request is just turned into a time advance request to the lower of the requested time and
+	 * the timestamp of the next TSO message already in the queue. In the null-message mode the
+	 * federate is granted to the time of the next message it actually gets (or the requested time
+	 * if there is none), and while it waits, it keeps the rest of the federation told of the
+	 * lowest time it could send anything at, so they can be granted as far ahead as that allows.
+	 * <p/>
+	 * Federates in either mode can be mixed in the one federation. This should not be changed
+	 * while a time advance is outstanding.
+	 */
+	public void setNullMessageTimeAdvance( boolean nullMessageTimeAdvance )
+	{
+		this.nullMessageTimeAdvance = nullMessageTimeAdvance;
+	}
+
 	/////////////////////////////////////////////////////////////////////////////////////////
 	//////////////////////////////// Tick Processing Methods ////////////////////////////////
 	/////////////////////////////////////////////////////////////////////////////////////////
@@ -477,6 +545,7 @@ public class LRC
 		// the first poll() might block. However, after that, the loop will only continue
 		// if the queue isn't empty, so although we use the blocking version of poll() we
 		// won't actually have to wait
+		long started = System.nanoTime();
 		int processedCount = 0;
 		try
 		{
@@ -486,9 +555,8 @@ public class LRC
     			if( message == null )
     				return processedCount;
     			
-    			// process the message
-    			tickProcess( message );
-    			++processedCount;
+    			// process the message (and any others we can batch up with it)
+    			processedCount += processNext( message, tickBatch );
     		}
     		while( state.messageQueue.isEmpty() == false );
         }
@@ -497,6 +565,7 @@ public class LRC
         	// reset the ticking status flag, this will always execute, even in the case
         	// of an InterruptedException (which returns right away)
         	state.setTicking( false );
+        	metrics.tickCompleted( started, processedCount );
         }
 
 		return processedCount;
@@ -538,6 +607,8 @@ public class LRC
 		// signal that we are not ticking
 		state.setTicking( true );
 
+		long started = System.nanoTime();
+		int processedCount = 0;
 		try
 		{
 			// figure out how long we can tick for under min/max settings
@@ -553,7 +624,7 @@ public class LRC
 				if( message == null )
 					break;
 				else
-					tickProcess( message );
+					processedCount += processNext( message, tickBatch );
 			}
 
 			// the min time has now passed, keep processing messages until either
@@ -564,7 +635,7 @@ public class LRC
 				if( message == null )
 					return false;
 				else
-					tickProcess( message );
+					processedCount += processNext( message, tickBatch );
 			}
 			
 			// return that there are more messaegs, this could technically be a lie if the message
@@ -576,6 +647,7 @@ public class LRC
 		finally
 		{
 			state.setTicking( false );
+			metrics.tickCompleted( started, processedCount );
 		}
 	}
 	
@@ -605,6 +677,8 @@ public class LRC
 		// signal that we are not ticking
 		state.setTicking( true );
 
+		long started = System.nanoTime();
+		int processedCount = 0;
 		try
 		{
 			// Note: If there is an exception, this method will exit and we will lose any
@@ -615,6 +689,7 @@ public class LRC
 			for( PorticoMessage message : messages )
 			{
 				tickProcess( message );
+				++processedCount;
 			}
 			
 			// return the smaller of the timestamp of the next TSO message of maxTime. This should
@@ -628,6 +703,7 @@ public class LRC
 		finally
 		{
 			state.setTicking( false );
+			metrics.tickCompleted( started, processedCount );
 		}
 	}
 	
@@ -654,6 +730,8 @@ public class LRC
 		state.setTicking( true );
 		
 		// tick for one message, waiting as long as the given wait time
+		long started = System.nanoTime();
+		int processedCount = 0;
 		try
 		{
 			// fetch a single incoming message, waiting only as long as we are given
@@ -662,18 +740,68 @@ public class LRC
 			
 			// process the message if there is one
 			if( message != null )
+			{
 				tickProcess( message );
+				++processedCount;
+			}
 		}
 		finally
 		{
 			// reset the ticking status flag
 			state.setTicking( false );
+			metrics.tickCompleted( started, processedCount );
 		}
 		
 		// return info about any more available messages
 		return !state.messageQueue.isEmpty();
 	}
 	
+	/**
+	 * Process the given message, which has just been taken from the queue. If batching is turned
+	 * on (see {@link #setTickBatchSize(int)}), any other messages that can be released right now
+	 * are taken along with it (up to the batch size) and processed as a single batch, with the
+	 * {@link ISpecHelper} told when the batch starts and ends. The batch is gathered in the given
+	 * list, which must be empty, and is left empty again.
+	 * 
+	 * @return The number of messages that were processed
+	 */
+	protected int processNext( PorticoMessage message, List<PorticoMessage> tickBatch )
+		throws JRTIinternalError
+	{
+		// if we're not batching, or the message is one that could change what the queue
+		// will release next, there's nothing else to take
+		if( tickBatchSize == 1 || message.isSpecDefinedMessage() == false )
+		{
+			tickProcess( message );
+			return 1;
+		}
+
+		tickBatch.add( message );
+		state.messageQueue.drainTo( tickBatch, tickBatchSize-1 );
+		try
+		{
+			specHelper.callbackBatchStarted();
+			for( PorticoMessage next : tickBatch )
+				tickProcess( next );
+
+			return tickBatch.size();
+		}
+		finally
+		{
+			tickBatch.clear();
+			try
+			{
+				specHelper.callbackBatchComplete();
+			}
+			catch( Exception e )
+			{
+				// same as tickProcess(), log but DON'T throw the exception onwards (PORT-337)
+				logger.error( "FAILURE Exception encountered while delivering callback batch: " +
+				              e.getMessage(), e );
+			}
+		}
+	}
+
 	/**
 	 * Passes the given message to the incoming sink (wrapped up in a context) for processing. If
 	 * there is no response message filled out by the sink, a {@link JRTIinternalError} will be
@@ -713,25 +841,28 @@ public class LRC
 	/**
 	 * The IEEE-1516 and 1516e standards provide facilities to allow the immediate delivery
 	 * of callback messages rather than the usual asynchronous/tick delivery mechanism. To
-	 * provide support for this, when the mode is enabled the LVCQueue itself will have an
-	 * additional thread that will be used to deliver all callbacks immediately, rather than
-	 * waiting for tick to be called (although we'll extract callbacks via the same poll()
-	 * call to ensure we only release TSO messages at the appropriate time).
+	 * provide support for this, when the mode is enabled an {@link ImmediateCallbackDispatcher}
+	 * is attached to the message queue. It is woken whenever a message arrives and delivers
+	 * everything that can be released right away, rather than waiting for tick to be called
+	 * (although we'll extract callbacks via the same poll() call to ensure we only release TSO
+	 * messages at the appropriate time).
 	 * <p/>
-	 * This call will enable that mode and kick off a separate processing thread.
+	 * This call will enable that mode. Callbacks are delivered on the executor given to
+	 * {@link #setCallbackExecutor(Executor)} if there is one, or on a thread of the dispatcher's
+	 * own otherwise (see {@link LRCProperties#PROPERTY_CALLBACK_THREAD}).
 	 */
 	public void enableImmediateCallbackProcessing()
 	{
 		if( state.isImmediateCallbackDeliveryEnabled() )
 			return;
 		
-		// create the immediate callback delivery processing thread and start it
-		this.immediateCallbackDispatcher = new ImmediateCallbackDispatcher();
+		// create the dispatcher, hook it up to the queue so it hears about new messages and start it
+		boolean virtual = LRCProperties.LRC_CALLBACK_THREAD.equalsIgnoreCase( "virtual" );
+		this.immediateCallbackDispatcher =
+			new ImmediateCallbackDispatcher( this, callbackExecutor, virtual );
+		state.messageQueue.setDispatcher( immediateCallbackDispatcher );
 		this.immediateCallbackDispatcher.start();
 		
-		// give the dispatch thread just a moment to start
-		try{ Thread.sleep( 5 ); } catch( InterruptedException ie ) { /*ignore*/ }
-		
 		// set the flag on the LRCState to say that we're in this mode now
 		state.setImmediateCallbackDelivery( true );
 	}
@@ -741,19 +872,12 @@ public class LRC
 		if( state.isImmediateCallbackDeliveryEnabled() == false )
 			return;
 		
-		// interrupt the callback processing thread and wait for it to stop
+		// detach the dispatcher from the queue and wait for it to stop
 		try
 		{
-			if( this.immediateCallbackDispatcher != null &&
-				this.immediateCallbackDispatcher.isAlive() )
-			{
-				this.immediateCallbackDispatcher.interrupt();
-				this.immediateCallbackDispatcher.join();
-			}
-		}
-		catch( InterruptedException ie )
-		{
-			logger.error( "Received exception while disabling immediate callbacks", ie );
+			state.messageQueue.setDispatcher( null );
+			if( this.immediateCallbackDispatcher != null )
+				this.immediateCallbackDispatcher.stop();
 		}
 		finally
 		{
@@ -763,6 +887,46 @@ public class LRC
 		}
 	}
 
+	/**
+	 * Called by the {@link LRCState} when callbacks are enabled or disabled, so that the immediate
+	 * callback dispatcher (if there is one) can start delivering anything that has queued up in
+	 * the meantime.
+	 */
+	protected void callbacksEnabledChanged()
+	{
+		ImmediateCallbackDispatcher dispatcher = this.immediateCallbackDispatcher;
+		if( dispatcher != null )
+			dispatcher.wakeUp();
+	}
+
+	/**
+	 * @return The executor that immediate callbacks are delivered on, or <code>null</code> if
+	 *         they are delivered on a thread of the LRC's own
+	 */
+	public Executor getCallbackExecutor()
+	{
+		return this.callbackExecutor;
+	}
+
+	/**
+	 * Have callbacks delivered on the given executor when immediate callback delivery is enabled,
+	 * rather than on a thread of the LRC's own. Each time there are callbacks to deliver, a task
+	 * is given to the executor that delivers them and then returns. Only one task is given to it
+	 * at a time, so callbacks are still delivered one after the other, in order. Pass
+	 * <code>null</code> to go back to using a thread of our own.
+	 * <p/>
+	 * If immediate callback delivery is already on, it is restarted on the new executor.
+	 */
+	public void setCallbackExecutor( Executor callbackExecutor )
+	{
+		this.callbackExecutor = callbackExecutor;
+		if( state.isImmediateCallbackDeliveryEnabled() )
+		{
+			disableImmediateCallbackProcessing();
+			enableImmediateCallbackProcessing();
+		}
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -785,70 +949,4 @@ public class LRC
 			context.success();
 		}
 	}
-	
-	///////////////////////////////////////////////////////////////
-	///////// Private Class: ImmediateCallbackDispatcher //////////
-	///////////////////////////////////////////////////////////////
-	/**
-	 * This class provides the logic for the immediate callback processing thread. When immediate
-	 * callbacks are enabled, this thread will be started and will continually poll the message
-	 * queue for available messages, processing them as they are received until the Thread is
-	 * interrupted. Immediate callback processing is turned on via the LRC and not enabled at
-	 * startup.
-	 */
-	private class ImmediateCallbackDispatcher extends Thread
-	{
-		public ImmediateCallbackDispatcher()
-		{
-			super( "ImmediateCallbackDispatcher" );
-			super.setDaemon( true );
-		}
-		
-		public void run()
-		{
-			logger.debug( "Starting immediate callback delivery processor" );
-			
-			// Loop continuously until we are interrupted, polling for messages.
-			// When we receive one, proces it and move on to the next.
-			while( Thread.interrupted() == false )
-			{
-				try
-				{
-					// If callbacks are currently not enabled, sleep for a bit and come back
-					// You mean just block!? Yes. I do. It's fine. Really. The stated use case
-					// for enabled/disable callbacks it to allow the federate to initiate a
-					// block on callbacks temporarily, so if unblocking takes a brief moment,
-					// it's really not an issue. Relax, tiger.
-					if( state.areCallbacksEnabled() == false )
-					{
-						Thread.sleep( 500 ); // sleep for half a second
-						continue;
-					}
-
-					// if callbacks are enabled, get bizzay processing them
-					PorticoMessage message = state.messageQueue.pollUntilNextMessage();
-					
-					if( message != null )
-					{
-						try
-						{
-							tickProcess( message );
-						}
-						catch( Exception e )
-						{
-							// something went wrong in the callback, log it
-							logger.error( "Problem processing callback message: "+e.getMessage(), e );
-						}
-					}
-				}
-				catch( InterruptedException ie )
-				{
-					break;
-				}
-			}
-			
-			logger.debug( "Immediate callback delivery processor disabled" );
-		}
-	}
-
 }
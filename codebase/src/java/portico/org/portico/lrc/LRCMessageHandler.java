@@ -38,6 +38,8 @@ import org.portico.lrc.services.saverestore.data.SaveManager;
 import org.portico.lrc.services.sync.data.SyncPointManager;
 import org.portico.lrc.services.time.data.TimeManager;
 import org.portico.lrc.services.time.data.TimeStatus;
+import org.portico.lrc.services.time.msg.NullMessage;
+import org.portico.lrc.services.time.msg.TimeAdvanceGrant;
 import org.portico.lrc.services.time.msg.TimeAdvanceRequest;
 import org.portico.utils.messaging.AbstractMessageHandler;
 import org.portico.utils.messaging.MessageContext;
@@ -621,6 +623,76 @@ public abstract class LRCMessageHandler extends AbstractMessageHandler
 			logger.debug( "Queued dummy TimeAdvanceReqeust for federate ["+moniker()+"]" );
 	}
 
+	/**
+	 * If the local federate is waiting on a next event request made in the null-message time
+	 * advance mode (see {@link LRC#setNullMessageTimeAdvance(boolean)}), check whether it can now
+	 * be granted. It can be granted to the lower of the time it asked for and the timestamp of the
+	 * next TSO message in the queue as soon as that is lower than its GALT (nobody else could send
+	 * it anything earlier). If that's the case, the grant is queued and a {@link NullMessage} is
+	 * sent to tell everyone else about it.
+	 * <p/>
+	 * If it can't be granted yet and the federate is regulating, the earliest it could still be
+	 * granted to is its GALT, so it can promise not to send anything below that plus lookahead.
+	 * If that is higher than what it has already promised, a {@link NullMessage} with the new LBTS
+	 * is sent so that everyone else can be granted further ahead.
+	 * <p/>
+	 * This should be called whenever the LBTS of any other federate goes up.
+	 */
+	protected void checkNextEventRequest() throws Exception
+	{
+		TimeStatus status = timeStatus();
+		if( status == null || status.isNextEventRequest() == false ||
+			status.isInAdvancingState() == false )
+		{
+			return;
+		}
+
+		int federate = federateHandle();
+		double next = status.getRequestedTime();
+		double galt = Double.MAX_VALUE;
+		if( status.isConstrained() )
+		{
+			PorticoMessage message = lrcState.getQueue().peekTSOMessage();
+			if( message != null && message.getTimestamp() < next )
+				next = message.getTimestamp();
+
+			galt = timeManager.getGALT( federate );
+		}
+
+		if( next < galt )
+		{
+			// nothing can come in below the next event, grant to it
+			status.setRequestedTime( next );
+			status.advanceFederate();
+			timeManager.updateLBTS( federate );
+
+			TimeAdvanceGrant grant = new TimeAdvanceGrant( next );
+			grant.setSourceFederate( federate );
+			grant.setTargetFederate( federate );
+			lrcState.getQueue().offer( grant );
+			connection.broadcast( fill(new NullMessage(next,status.getLbts())) );
+
+			if( logger.isDebugEnabled() )
+			{
+				logger.debug( "ADVANCE (QUEUED) next event grant for federate ["+moniker()+
+				              "] to time ["+next+"], galt="+galt );
+			}
+		}
+		else if( status.isRegulating() )
+		{
+			// can't advance yet, but we might be able to promise more than we have
+			double promise = galt + status.getLookahead();
+			if( promise > status.getLbts() )
+			{
+				timeManager.setLBTS( federate, promise );
+				connection.broadcast( fill(new NullMessage(promise)) );
+
+				if( logger.isTraceEnabled() )
+					logger.trace( "Sent null message for ["+moniker()+"], lbts="+promise );
+			}
+		}
+	}
+
 	//////////////////////////////////////////////////////////////////////////////////////////
 	/////////////////////////////////// FOM Helper Methods ///////////////////////////////////
 	//////////////////////////////////////////////////////////////////////////////////////////
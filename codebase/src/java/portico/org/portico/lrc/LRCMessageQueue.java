@@ -16,18 +16,24 @@ package org.portico.lrc;
 
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.Date;
-import java.util.Iterator;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+import org.portico.lrc.services.object.msg.UpdateAttributes;
 import org.portico.lrc.services.saverestore.data.SaveRestoreTarget;
 import org.portico.lrc.services.time.data.TimeStatus;
 import org.portico.utils.messaging.MessageContext;
@@ -51,6 +57,29 @@ import org.portico.utils.messaging.PorticoMessage;
  * {@link PorticoMessage#isImmediateProcessingRequired()} flag set will be automatically routed
  * into the incoming sink of the kernel associated with the LRC rather than storing them. I repeat,
  * messages with this flag will be processed right away and are not stored in the queue.
+ * <p/>
+ * <b>Concurrency</b>
+ * <p/>
+ * Messages are offered by the connection threads and taken by the thread that is ticking (or the
+ * immediate callback thread), so the two sides are kept apart:
+ * <ul>
+ *   <li>Offering a regular message never takes a lock. RO messages go on a lock-free queue, and
+ *       TSO messages on a lock-free inbox that is moved into the sorted TSO queue by the taking
+ *       side the next time it looks.</li>
+ *   <li>Everything on the taking side (and the processing of immediate messages, which can change
+ *       what is releasable) happens under a lock. That lock is not shared with the offering
+ *       side, so the connection threads don't wait on it when they hand over a message.</li>
+ *   <li>The condition is only signalled if a thread is actually blocked waiting on it. Most of
+ *       the time no one is, so offering doesn't touch the condition at all.</li>
+ * </ul>
+ * <p/>
+ * <b>Update Coalescing</b>
+ * <p/>
+ * Receive order reflections for objects of some classes can be coalesced: rather than queueing
+ * every one, a reflection is merged into one that is still waiting for the same object, so only
+ * the latest value of each attribute is delivered. This is off unless it is turned on for some
+ * classes (see {@link #setCoalescing(int, Set)} and {@link LRCProperties#PROPERTY_QUEUE_COALESCE}).
+ * See {@link UpdateCoalescer} for the details.
  */
 public class LRCMessageQueue implements SaveRestoreTarget
 {
@@ -64,15 +93,23 @@ public class LRCMessageQueue implements SaveRestoreTarget
 	private LRC lrc;
 	private LRCState state;
 	
-	private BlockingQueue<PorticoMessage> roQueue;
-	private PriorityBlockingQueue<PorticoMessage> tsoQueue;
+	private Queue<PorticoMessage> roQueue;      // offered to from any thread
+	private Queue<PorticoMessage> tsoIncoming;  // offered to from any thread, sorted on poll
+	private PriorityQueue<PorticoMessage> tsoQueue;    // only touched while holding the lock
+	private ArrayDeque<PorticoMessage> heldMessages;   // only touched while holding the lock
+	private AtomicInteger size;
+	private UpdateCoalescer coalescer;
 
 	// hla-related properties //
 	private TimeStatus timeStatus;
 	
 	// locking and concurrency //
-	private Lock lock;
+	private Lock lock;            // guards the taking side of the queue
+	private Lock waitLock;        // guards the condition, never held while taking the lock
 	private Condition condition;
+	private AtomicInteger waiters;
+	private volatile long signals;
+	private volatile ImmediateCallbackDispatcher dispatcher;
 	
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
@@ -82,12 +119,20 @@ public class LRCMessageQueue implements SaveRestoreTarget
 	{
 		this.state = lrcState;
 		this.lrc = lrcState.theLRC;
-		this.roQueue = new LinkedBlockingQueue<PorticoMessage>();
-		this.tsoQueue = new PriorityBlockingQueue<PorticoMessage>( 13, new Sorter() );
+		this.roQueue = new ConcurrentLinkedQueue<PorticoMessage>();
+		this.tsoIncoming = new ConcurrentLinkedQueue<PorticoMessage>();
+		this.tsoQueue = new PriorityQueue<PorticoMessage>( 13, new Sorter() );
+		this.heldMessages = new ArrayDeque<PorticoMessage>();
+		this.size = new AtomicInteger( 0 );
+		this.coalescer = new UpdateCoalescer( lrcState, LRCProperties.LRC_QUEUE_COALESCE );
 		
 		// locking and concurrency //
 		this.lock = new ReentrantLock();
-		this.condition = this.lock.newCondition();
+		this.waitLock = new ReentrantLock();
+		this.condition = this.waitLock.newCondition();
+		this.waiters = new AtomicInteger( 0 );
+		this.signals = 0;
+		this.dispatcher = null;
 		
 		// this will be lazy-loaded
 		// when a federate first joins a federation, the time status will be created and
@@ -146,47 +191,161 @@ public class LRCMessageQueue implements SaveRestoreTarget
 		if( message == null )
 			return false;
 		
-		lock.lock();
-		try
+		// if this is a priority message, process it right away
+		if( message.isImmediateProcessingRequired() )
 		{
-			// if this is a priority message, process it right away (removed for now)
-			if( message.isImmediateProcessingRequired() )
+			lock.lock();
+			try
 			{
-				try
-				{
-					lrc.incoming.process( new MessageContext(message) );
-					return true;
-				}
-				catch( Exception e )
-				{
-					lrc.logger.info( "Exception processing priority message", e );
-					return false;
-				}
+				lrc.incoming.process( new MessageContext(message) );
+				return true;
 			}
-			
-			// FIX: PORT-103: If not constrained, store the message RO and remove the timestamp
-			if( timeStatus().isConstrained() == false )
+			catch( Exception e )
 			{
-				message.setTimestamp( PorticoConstants.NULL_TIME );
-				return this.roQueue.offer( message );
+				lrc.logger.info( "Exception processing priority message", e );
+				return false;
 			}
-			
-			// check if it is RO or TSO
-			if( message.isTimestamped() )
+			finally
 			{
-				return this.tsoQueue.offer( message );
+				lock.unlock();
+				// processing may have made queued messages releasable, let any waiters know
+				signalWaiters();
 			}
-			else
+		}
+		
+		// count the message before it is published: once it is on one of the queues it can be
+		// taken (and counted off) straight away, and the size must never read less than zero
+		size.incrementAndGet();
+
+		// FIX: PORT-103: If not constrained, store the message RO and remove the timestamp
+		boolean queued = true;
+		if( timeStatus().isConstrained() == false )
+		{
+			queued = offerRO( withoutTimestamp(message) );
+		}
+		else if( message.isTimestamped() )
+		{
+			// check if it is RO or TSO
+			tsoIncoming.offer( message );
+		}
+		else
+		{
+			queued = offerRO( message );
+		}
+
+		// merged into a reflection that is already counted, nothing new to take
+		if( queued == false )
+		{
+			size.decrementAndGet();
+			return true;
+		}
+
+		signalWaiters();
+		return true;
+	}
+
+	/**
+	 * Put the given message on the end of the RO queue, unless it is a reflection that has been
+	 * merged into one that is already there (see {@link UpdateCoalescer}).
+	 *
+	 * @return true if the queue holds another message, false if it was merged
+	 */
+	private boolean offerRO( PorticoMessage message )
+	{
+		if( message instanceof UpdateAttributes )
+		{
+			message = coalescer.coalesce( (UpdateAttributes)message );
+			if( message == null )
 			{
-				return this.roQueue.offer( message );
+				lrc.getMetrics().updateCoalesced();
+				return false;
 			}
 		}
+
+		roQueue.offer( message );
+		return true;
+	}
+
+	/**
+	 * Swap a reflection that was being merged into for the update it holds. Anything that takes
+	 * RO messages out of the queue has to pass them through this on the way out.
+	 */
+	private PorticoMessage release( PorticoMessage message )
+	{
+		if( message instanceof UpdateCoalescer.Pending )
+			return coalescer.take( (UpdateCoalescer.Pending)message );
+		else
+			return message;
+	}
+
+	/**
+	 * Same as {@link #offer(PorticoMessage)}, but used by connections when the sender of the
+	 * message is waiting for us to acknowledge it (see
+	 * {@link org.portico.bindings.IConnection#broadcastAndWait(PorticoMessage)}).
+	 * <p/>
+	 * If the message requires immediate processing, the incoming handlers get the chance to veto
+	 * it by leaving an error response in the {@link MessageContext}. The reason from that error is
+	 * returned so that the connection can pass it back to the sender. Messages that are queued for
+	 * later processing can't be vetoed, they are accepted as soon as they are in the queue.
+	 *
+	 * @return <code>null</code> if the message was accepted, or the reason it was vetoed
+	 */
+	public String offerAndReport( PorticoMessage message )
+	{
+		if( message == null || message.isImmediateProcessingRequired() == false )
+		{
+			offer( message );
+			return null;
+		}
+
+		lock.lock();
+		try
+		{
+			MessageContext context = new MessageContext( message );
+			lrc.incoming.process( context );
+			Exception vetoed = context.getErrorResponseException();
+			if( vetoed == null )
+				return null;
+			else if( vetoed.getMessage() == null )
+				return vetoed.getClass().getSimpleName();
+			else
+				return vetoed.getMessage();
+		}
+		catch( Exception e )
+		{
+			// a failure to process isn't an objection, just log as offer() would
+			lrc.logger.info( "Exception processing priority message", e );
+			return null;
+		}
 		finally
 		{
-			// signal to any threads waiting on the condition
-			condition.signalAll();
-			// release the lock
 			lock.unlock();
+			signalWaiters();
+		}
+	}
+
+	/**
+	 * Wake any thread blocked in one of the waiting poll methods, and the immediate callback
+	 * dispatcher if there is one. Does nothing (and takes no lock) if no one is waiting.
+	 */
+	private void signalWaiters()
+	{
+		ImmediateCallbackDispatcher dispatcher = this.dispatcher;
+		if( dispatcher != null )
+			dispatcher.wakeUp();
+
+		if( waiters.get() == 0 )
+			return;
+
+		waitLock.lock();
+		try
+		{
+			++signals;
+			condition.signalAll();
+		}
+		finally
+		{
+			waitLock.unlock();
 		}
 	}
 
@@ -213,86 +372,194 @@ public class LRCMessageQueue implements SaveRestoreTarget
 	 */
 	public PorticoMessage poll()
 	{
-		// get the lock //
 		lock.lock();
-		
-		// check for a message //
 		try
 		{
-			TimeStatus localStatus = timeStatus();
-
-			///////////////////////////////
-			// check for any RO messages //
-			///////////////////////////////
-			// is there an RO message for delivery?
-			if( this.roQueue.isEmpty() == false )
-			{
-				// we have an RO message
-				////////////////////////////
-				// check the async status //
-				////////////////////////////////////////////////////////////////////////////
-				// if constrained:                                                        //
-				//    if asynchronous delivery is NOT enabled:                            //
-				//      -Can only deliver callbacks that are NOT "messages" (that is, any //
-				//       reflect, interaction or delete instance)                         //
-				//    UNLESS: we are in a time advance: then can release any waiting RO   //
-				//    if asynchronous delivery IS enabled:                                //
-				//      -Can deliver any RO message that is waiting                       //
-				// if NOT constrained:                                                    //
-				//      -Can deliver any RO message that is waiting                       //
-				// Stupid rules? yes. Blame the spec                                      //
-				////////////////////////////////////////////////////////////////////////////
-				if( localStatus.isConstrained() &&
-					localStatus.isAsynchronous() == false &&
-					localStatus.isAdvanceRequestOutstanding() == false )
-				{
-					return this.pollForNonMessage();
-				}
-				else
-				{
-					// we don't need to worry about the async status, just deliver the RO message
-					return this.roQueue.poll();
-				}
-			}
-			
-			////////////////////////////////////////////////////////
-			// no RO messages - check for releasable TSO messages //
-			////////////////////////////////////////////////////////
-			PorticoMessage message = this.tsoQueue.peek();
-			if( message != null )
-			{
-				// There is a message at the head of the set, is it of a releasable time?
-				// To be "releasable" its timestamp must be:
-				//   1) less than or equal to FEDERATION-wide LBTS ----AND----
-				//      less than the local federates current or requested time
-				//                           -OR-
-				//   2) a time-advance grant message (which is always inserted into the TSO queue
-				//      behind all other messages of the same time)
-				if( message.isTimeAdvance() )
-				{
-					// it is! release it - we also need to remove it, so we'll poll
-					return this.tsoQueue.poll();
-				}
-				else if( message.getTimestamp() <= federationLbts() &&
-				         message.getTimestamp() <= localStatus.getRequestedTime() )
-				{
-					// it is! release it - we also need to remove it, so we'll poll
-					return this.tsoQueue.poll();
-				}
+			return next( federationLbts() );
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Remove as many messages as can currently be released (up to the given maximum) and add
+	 * them to the given collection, in the same order {@link #poll()} would have returned them.
+	 * The lock is only taken once for the whole batch.
+	 * <p/>
+	 * Processing some messages changes what can be released after them (a time advance grant, or
+	 * the federate becoming constrained, for example). To be safe, the batch stops after the first
+	 * message that isn't a spec-defined "message" (see {@link PorticoMessage#isSpecDefinedMessage()}).
+	 * Reflections, interactions and removals don't change the time status of the federate, and as
+	 * the federation LBTS can only move forward, the value fetched at the start is good for the
+	 * whole batch.
+	 *
+	 * @return The number of messages added to the collection
+	 */
+	public int drainTo( Collection<? super PorticoMessage> sink, int maximum )
+	{
+		lock.lock();
+		try
+		{
+			double lbts = federationLbts();
+			int count = 0;
+			while( count < maximum )
+			{
+				PorticoMessage message = next( lbts );
+				if( message == null )
+					break;
+
+				sink.add( message );
+				++count;
+				if( message.isSpecDefinedMessage() == false )
+					break;
 			}
-	
-			//////////////////////////////////////
-			// no messages that can be released //
-			//////////////////////////////////////
-			return null;
+
+			return count;
 		}
 		finally
 		{
-			// release the lock
 			lock.unlock();
 		}
 	}
 
+	/**
+	 * Does the work for {@link #poll()}. Must be called while holding the lock.
+	 */
+	private PorticoMessage next( double lbts )
+	{
+		TimeStatus localStatus = timeStatus();
+		sortIncomingTSO( localStatus );
+
+		///////////////////////////////
+		// check for any RO messages //
+		///////////////////////////////
+		// is there an RO message for delivery?
+		if( heldMessages.isEmpty() == false || roQueue.isEmpty() == false )
+		{
+			// we have an RO message
+			////////////////////////////
+			// check the async status //
+			////////////////////////////////////////////////////////////////////////////
+			// if constrained:                                                        //
+			//    if asynchronous delivery is NOT enabled:                            //
+			//      -Can only deliver callbacks that are NOT "messages" (that is, any //
+			//       reflect, interaction or delete instance)                         //
+			//    UNLESS: we are in a time advance: then can release any waiting RO   //
+			//    if asynchronous delivery IS enabled:                                //
+			//      -Can deliver any RO message that is waiting                       //
+			// if NOT constrained:                                                    //
+			//      -Can deliver any RO message that is waiting                       //
+			// Stupid rules? yes. Blame the spec                                      //
+			////////////////////////////////////////////////////////////////////////////
+			if( localStatus.isConstrained() &&
+				localStatus.isAsynchronous() == false &&
+				localStatus.isAdvanceRequestOutstanding() == false )
+			{
+				return this.pollForNonMessage();
+			}
+			else
+			{
+				// we don't need to worry about the async status, just deliver the RO message
+				// (anything held back while looking for non-messages came in first)
+				PorticoMessage message = heldMessages.poll();
+				if( message == null )
+					message = roQueue.poll();
+
+				size.decrementAndGet();
+				return release( message );
+			}
+		}
+		
+		////////////////////////////////////////////////////////
+		// no RO messages - check for releasable TSO messages //
+		////////////////////////////////////////////////////////
+		PorticoMessage message = this.tsoQueue.peek();
+		if( message != null )
+		{
+			// There is a message at the head of the set, is it of a releasable time?
+			// To be "releasable" its timestamp must be:
+			//   1) less than or equal to FEDERATION-wide LBTS ----AND----
+			//      less than the local federates current or requested time
+			//                           -OR-
+			//   2) a time-advance grant message (which is always inserted into the TSO queue
+			//      behind all other messages of the same time)
+			if( message.isTimeAdvance() ||
+			    (message.getTimestamp() <= lbts &&
+			     message.getTimestamp() <= localStatus.getRequestedTime()) )
+			{
+				// it is! release it - we also need to remove it, so we'll poll
+				size.decrementAndGet();
+				return this.tsoQueue.poll();
+			}
+		}
+
+		//////////////////////////////////////
+		// no messages that can be released //
+		//////////////////////////////////////
+		return null;
+	}
+
+	/**
+	 * Move any TSO messages that have been offered since we last looked into the sorted TSO
+	 * queue. If the federate is no longer constrained, they (and anything already in there) go
+	 * to the RO queue instead. This catches messages that were offered while the federate was
+	 * becoming unconstrained. Must be called while holding the lock.
+	 */
+	private void sortIncomingTSO( TimeStatus localStatus )
+	{
+		PorticoMessage message = tsoIncoming.poll();
+		while( message != null )
+		{
+			tsoQueue.offer( message );
+			message = tsoIncoming.poll();
+		}
+
+		if( tsoQueue.isEmpty() == false && localStatus.isConstrained() == false )
+			moveTSOToRO();
+	}
+
+	/**
+	 * Strip the timestamps from everything in the TSO queue and put it all on the end of the RO
+	 * queue. Must be called while holding the lock.
+	 */
+	private void moveTSOToRO()
+	{
+		for( PorticoMessage message : this.tsoQueue )
+			roQueue.offer( withoutTimestamp(message) );
+
+		// clear the tso queue
+		this.tsoQueue.clear();
+	}
+
+	/**
+	 * Strip the timestamp from the given message so that it is delivered receive order. If the
+	 * message may be shared with other federates in this JVM (see
+	 * {@link PorticoMessage#isShareable()}) it is copied first, as they may still need the time.
+	 */
+	private PorticoMessage withoutTimestamp( PorticoMessage message )
+	{
+		if( message.isTimestamped() == false )
+			return message;
+
+		if( message.isShareable() )
+		{
+			try
+			{
+				message = (PorticoMessage)message.clone();
+			}
+			catch( CloneNotSupportedException cnse )
+			{
+				// can't happen, PorticoMessage is Cloneable
+				throw new RuntimeException( cnse );
+			}
+		}
+
+		message.setTimestamp( PorticoConstants.NULL_TIME );
+		return message;
+	}
+
 	/**
 	 * This method is provided to support implementations of the HLA method flushQueueRequest().
 	 * It will return a list of all available messages that exist in the RO queue, along with all
@@ -307,12 +574,22 @@ public class LRCMessageQueue implements SaveRestoreTarget
 		try
 		{
 			List<PorticoMessage> flushList = new ArrayList<PorticoMessage>();
+			sortIncomingTSO( timeStatus() );
 
 			// flush out all the RO messages
-			roQueue.drainTo( flushList );
+			for( PorticoMessage held : heldMessages )
+				flushList.add( release(held) );
+
+			heldMessages.clear();
+			PorticoMessage temp = roQueue.poll();
+			while( temp != null )
+			{
+				flushList.add( release(temp) );
+				temp = roQueue.poll();
+			}
 
 			// get all the TSO messages up to the specified time
-			PorticoMessage temp = tsoQueue.peek();
+			temp = tsoQueue.peek();
 			while( temp != null )
 			{
 				if( temp.getTimestamp() > maxTime )
@@ -322,6 +599,7 @@ public class LRCMessageQueue implements SaveRestoreTarget
 				temp = tsoQueue.peek();
 			}
 
+			size.addAndGet( -flushList.size() );
 			return flushList;
 		}
 		finally
@@ -341,7 +619,12 @@ public class LRCMessageQueue implements SaveRestoreTarget
 	 * <p/>
 	 * This method will find, remove and return from the RO queue the first non "message" callback
 	 * message. Thus, in the situation above, it will return the first queued message that can
-	 * happily be delivered, or null, if none exists
+	 * happily be delivered, or null, if none exists.
+	 * <p/>
+	 * Any "messages" we pass over on the way are moved (in order) to the held messages list, which
+	 * is delivered ahead of the RO queue once we are allowed to. As that list only ever contains
+	 * "messages", we never have to look through it here, and each message is only looked at once
+	 * no matter how many times we are called while they are held back.
 	 * 
 	 * @return The first RO message in the queue that can be delivered, or null, if none can 
 	 */
@@ -350,32 +633,21 @@ public class LRCMessageQueue implements SaveRestoreTarget
 		// we are contrained, NOT asynchronous and NOT advancing, we can only
 		// release RO messages that are NOT "messages" (according to the spec
 		// definition of the word)
-		if( roQueue.peek().isSpecDefinedMessage() == false )
+		PorticoMessage message = roQueue.poll();
+		while( message != null )
 		{
-			// the first available message can happily be released
-			return roQueue.poll();
-		}
-
-		// we have to trawl the queue for the first "non-message" message
-		// so we can return it
-		PorticoMessage winner = null;
-		Iterator<PorticoMessage> iterator = this.roQueue.iterator();
-		while( iterator.hasNext() )
-		{
-			PorticoMessage message = iterator.next();
 			if( message.isSpecDefinedMessage() == false )
 			{
 				// found one!
-				winner = message;
-				break;
+				size.decrementAndGet();
+				return message;
 			}
+
+			heldMessages.add( message );
+			message = roQueue.poll();
 		}
-		
-		// remove the message from the queue and return it, unless we didn't find one
-		if( winner != null )
-			this.roQueue.remove( winner );
 
-		return winner;
+		return null;
 	}
 
 	/**
@@ -385,12 +657,13 @@ public class LRCMessageQueue implements SaveRestoreTarget
 	 */
 	public PorticoMessage poll( long timeoutNanos )
 	{
-		lock.lock();
+		waiters.incrementAndGet();
 		try
 		{
 			// 1. check to see if we have a message //
-			// there is no need to aquire the lock as we are not accessing the queue directly
-			// lock is reentrant, so we shouldn't take hit for aquiring it in poll()
+			// take note of the signal count first, so that if a message comes in between
+			// the poll and us waiting, we'll know about it and won't wait
+			long seen = signals;
 			PorticoMessage theMessage = poll();
 			if( theMessage != null )
 			{
@@ -399,8 +672,17 @@ public class LRCMessageQueue implements SaveRestoreTarget
 			}
 	
 			// 2. need to wait for an update to come through //
-			// wait on condition
-			condition.awaitNanos( timeoutNanos );
+			waitLock.lock();
+			try
+			{
+				if( signals == seen )
+					condition.awaitNanos( timeoutNanos );
+			}
+			finally
+			{
+				waitLock.unlock();
+			}
+
 			// we have been woken up:
 			//  -if by timeout: return null
 			//  -if by signal: return available message
@@ -412,7 +694,7 @@ public class LRCMessageQueue implements SaveRestoreTarget
 		}
 		finally
 		{
-			lock.unlock();
+			waiters.decrementAndGet();
 		}
 	}
 
@@ -423,12 +705,11 @@ public class LRCMessageQueue implements SaveRestoreTarget
 	 */
 	public PorticoMessage pollUntilNextMessage() throws InterruptedException
 	{
-		lock.lock();
+		waiters.incrementAndGet();
 		try
 		{
 			// 1. check to see if we have a message
-			// there is no need to aquire the lock as we are not accessing the queue directly
-			// lock is reentrant, so we shouldn't take hit for aquiring it in poll()
+			long seen = signals;
 			PorticoMessage theMessage = poll();
 			if( theMessage != null )
 			{
@@ -437,8 +718,17 @@ public class LRCMessageQueue implements SaveRestoreTarget
 			}
 	
 			// 2. need to wait for an update to come through
-			// wait on condition
-			condition.await();
+			waitLock.lock();
+			try
+			{
+				if( signals == seen )
+					condition.await();
+			}
+			finally
+			{
+				waitLock.unlock();
+			}
+
 			// we have been woken up:
 			//  -if by timeout: return null
 			//  -if by signal: return available message
@@ -446,7 +736,7 @@ public class LRCMessageQueue implements SaveRestoreTarget
 		}
 		finally
 		{
-			lock.unlock();
+			waiters.decrementAndGet();
 		}
 	}
 
@@ -457,12 +747,11 @@ public class LRCMessageQueue implements SaveRestoreTarget
 	 */
 	public PorticoMessage pollUntil( Date deadline )
 	{
-		lock.lock();
+		waiters.incrementAndGet();
 		try
 		{
 			// 1. check to see if we have a message
-			// there is no need to aquire the lock as we are not accessing the queue directly
-			// lock is reentrant, so we shouldn't take hit for aquiring it in poll()
+			long seen = signals;
 			PorticoMessage theMessage = poll();
 			if( theMessage != null )
 			{
@@ -471,7 +760,17 @@ public class LRCMessageQueue implements SaveRestoreTarget
 			}
 	
 			// 2. need to wait for an update to come through
-			condition.awaitUntil( deadline );
+			waitLock.lock();
+			try
+			{
+				if( signals == seen )
+					condition.awaitUntil( deadline );
+			}
+			finally
+			{
+				waitLock.unlock();
+			}
+
 			return poll();
 		}
 		catch( InterruptedException ie )
@@ -480,7 +779,7 @@ public class LRCMessageQueue implements SaveRestoreTarget
 		}
 		finally
 		{
-			lock.unlock();
+			waiters.decrementAndGet();
 		}
 	}
 
@@ -491,26 +790,45 @@ public class LRCMessageQueue implements SaveRestoreTarget
 	 */
 	public PorticoMessage peekTSO()
 	{
-		if( tsoQueue.isEmpty() )
+		lock.lock();
+		try
 		{
-			return null;
+			sortIncomingTSO( timeStatus() );
+			return tsoQueue.peek();
 		}
-		else
+		finally
 		{
-			return tsoQueue.peek();
+			lock.unlock();
 		}
 	}
 
 	/**
-	 * @return Returns true if there are no messages queued for delivery (RO or TSO)
+	 * Same as {@link #peekTSO()}, except that time advance grants are skipped over. Grants for
+	 * other federates sit in the TSO queue behind the messages of their time, so this returns the
+	 * next message that would actually be delivered as an event. If there isn't one, null is
+	 * returned.
 	 */
-	public boolean isEmpty()
+	public PorticoMessage peekTSOMessage()
 	{
 		lock.lock();
 		try
 		{
-			// test the queues //
-			return this.roQueue.isEmpty() && this.tsoQueue.isEmpty();
+			sortIncomingTSO( timeStatus() );
+			PorticoMessage head = tsoQueue.peek();
+			if( head == null || head.isTimeAdvance() == false )
+				return head;
+
+			// the queue is only sorted at the head, so we have to look through the rest
+			PorticoMessage lowest = null;
+			for( PorticoMessage message : tsoQueue )
+			{
+				if( message.isTimeAdvance() )
+					continue;
+				if( lowest == null || message.getTimestamp() < lowest.getTimestamp() )
+					lowest = message;
+			}
+
+			return lowest;
 		}
 		finally
 		{
@@ -518,6 +836,23 @@ public class LRCMessageQueue implements SaveRestoreTarget
 		}
 	}
 
+	/**
+	 * Set the dispatcher to wake whenever a message is offered to the queue (or something else
+	 * happens that could make a queued message releasable). Pass <code>null</code> to stop.
+	 */
+	protected void setDispatcher( ImmediateCallbackDispatcher dispatcher )
+	{
+		this.dispatcher = dispatcher;
+	}
+
+	/**
+	 * @return Returns true if there are no messages queued for delivery (RO or TSO)
+	 */
+	public boolean isEmpty()
+	{
+		return size.get() == 0;
+	}
+
 	////////////////////////////////////////////////////////////////////////////////////////////
 	////////////////////////////// HLA Related Properties Methods //////////////////////////////
 	////////////////////////////////////////////////////////////////////////////////////////////
@@ -532,14 +867,8 @@ public class LRCMessageQueue implements SaveRestoreTarget
 		lock.lock();
 		try
 		{
-			for( PorticoMessage message : this.tsoQueue )
-			{
-				message.setTimestamp( PorticoConstants.NULL_TIME );
-				roQueue.offer( message );
-			}
-
-			// clear the tso queue
-			this.tsoQueue.clear();
+			sortIncomingTSO( timeStatus() );
+			moveTSOToRO();
 		}
 		finally
 		{
@@ -547,9 +876,63 @@ public class LRCMessageQueue implements SaveRestoreTarget
 		}
 	}
 
+	////////////////////////////////////////////////////////////////////////////////////////////
+	//////////////////////////////// Update Coalescing Methods /////////////////////////////////
+	////////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Coalesce receive order reflections for objects of the given class, and any subclasses
+	 * that don't have settings of their own. If attributes are given, only those attributes are
+	 * coalesced: a reflection is only merged into a waiting one if every attribute they have in
+	 * common is in the set. If the set is null or empty, all attributes are coalesced.
+	 * <p/>
+	 * Settings are for the federation the federate is joined to, and are replaced by those of
+	 * {@link LRCProperties#PROPERTY_QUEUE_COALESCE} when it joins another.
+	 */
+	public void setCoalescing( int classHandle, Set<Integer> attributes )
+	{
+		coalescer.setCoalescing( classHandle, attributes );
+	}
+
+	/**
+	 * Stop coalescing reflections for objects of the given class. Reflections already merged
+	 * stay merged. See {@link #setCoalescing(int, Set)}.
+	 */
+	public void clearCoalescing( int classHandle )
+	{
+		coalescer.clearCoalescing( classHandle );
+	}
+
+	/**
+	 * @return True if any of the reflections for objects of the given class are coalesced
+	 */
+	public boolean isCoalescing( int classHandle )
+	{
+		return coalescer.isCoalescing( classHandle );
+	}
+
 	public int getSize()
 	{
-		return this.roQueue.size() + this.tsoQueue.size();
+		return this.size.get();
+	}
+
+	/**
+	 * @return The number of timestamp order messages in the queue. This is read without taking
+	 *         the lock (it is used for the {@link org.portico.lrc.metrics.LRCMetrics} from a
+	 *         monitoring thread), so it is only an estimate if the queue is busy. It also has to
+	 *         count the TSO inbox, so don't call it anywhere performance matters.
+	 */
+	public int getTSOSize()
+	{
+		return tsoIncoming.size() + tsoQueue.size();
+	}
+
+	/**
+	 * @return The number of receive order messages in the queue. The same caveats as for
+	 *         {@link #getTSOSize()} apply.
+	 */
+	public int getROSize()
+	{
+		return Math.max( 0, getSize() - getTSOSize() );
 	}
 	
 	public String toString()
@@ -558,52 +941,62 @@ public class LRCMessageQueue implements SaveRestoreTarget
 		builder.append( state.getFederateHandle() );
 		builder.append( ")\n" );
 		
-		// Receive Order Queue //
-		builder.append( "\t[RO Queue]\n" );
-		if( roQueue.isEmpty() )
-		{
-			builder.append( "\t(empty)\n" );
-		}
-		else
+		lock.lock();
+		try
 		{
-			PorticoMessage[] roArray = roQueue.toArray( new PorticoMessage[roQueue.size()] );
-			for( int i = 0; i < roArray.length; i++ )
+			// Receive Order Queue //
+			List<PorticoMessage> roList = new ArrayList<PorticoMessage>( heldMessages );
+			roList.addAll( roQueue );
+			builder.append( "\t[RO Queue]\n" );
+			if( roList.isEmpty() )
 			{
-				builder.append( "\t[" );
-				builder.append( i+1 );
-				builder.append( "] message=" );
-				builder.append( roArray[i].getClass().getCanonicalName() );
-				builder.append( ", src=" );
-				builder.append( roArray[i].getSourceFederate() );
-				builder.append( ", dst=" );
-				builder.append( roArray[i].getTargetFederate() );
-				builder.append( "\n" );
+				builder.append( "\t(empty)\n" );
 			}
-		}
-		
-		// Receive Order Queue //
-		builder.append( "\t[TSO Queue]\n" );
-		if( tsoQueue.isEmpty() )
-		{
-			builder.append( "\t(empty)\n" );
-		}
-		else
-		{
-			PorticoMessage[] tsoArray = tsoQueue.toArray( new PorticoMessage[tsoQueue.size()] );
-			for( int i = 0; i < tsoArray.length; i++ )
+			else
 			{
-				builder.append( "\t[" );
-				builder.append( i+1 );
-				builder.append( "] message=" );
-				builder.append( tsoArray[i].getClass().getCanonicalName() );
-				builder.append( " @" );
-				builder.append( tsoArray[0].getTimestamp() );
-				builder.append( ", src=" );
-				builder.append( tsoArray[i].getSourceFederate() );
-				builder.append( ", dst=" );
-				builder.append( tsoArray[i].getTargetFederate() );
-				builder.append( "\n" );
+				for( int i = 0; i < roList.size(); i++ )
+				{
+					builder.append( "\t[" );
+					builder.append( i+1 );
+					builder.append( "] message=" );
+					builder.append( roList.get(i).getClass().getCanonicalName() );
+					builder.append( ", src=" );
+					builder.append( roList.get(i).getSourceFederate() );
+					builder.append( ", dst=" );
+					builder.append( roList.get(i).getTargetFederate() );
+					builder.append( "\n" );
+				}
 			}
+			
+			// Receive Order Queue //
+			List<PorticoMessage> tsoList = new ArrayList<PorticoMessage>( tsoQueue );
+			tsoList.addAll( tsoIncoming );
+			builder.append( "\t[TSO Queue]\n" );
+			if( tsoList.isEmpty() )
+			{
+				builder.append( "\t(empty)\n" );
+			}
+			else
+			{
+				for( int i = 0; i < tsoList.size(); i++ )
+				{
+					builder.append( "\t[" );
+					builder.append( i+1 );
+					builder.append( "] message=" );
+					builder.append( tsoList.get(i).getClass().getCanonicalName() );
+					builder.append( " @" );
+					builder.append( tsoList.get(i).getTimestamp() );
+					builder.append( ", src=" );
+					builder.append( tsoList.get(i).getSourceFederate() );
+					builder.append( ", dst=" );
+					builder.append( tsoList.get(i).getTargetFederate() );
+					builder.append( "\n" );
+				}
+			}
+		}
+		finally
+		{
+			lock.unlock();
 		}
 		
 		return builder.toString();
@@ -617,12 +1010,14 @@ public class LRCMessageQueue implements SaveRestoreTarget
 		try
 		{
 			lock.lock();
+			sortIncomingTSO( timeStatus() );
 
 			// only write the CONTENTS of the tsoQueue. Writing the whole queue means that
     		// we have to write the Sorter, and because it's an inner class it attempts to
     		// write the queue itself (which we don't want to do)
-    		ArrayList<PorticoMessage> tsoContents = new ArrayList<PorticoMessage>();
-    		tsoQueue.drainTo( tsoContents );
+    		ArrayList<PorticoMessage> tsoContents = new ArrayList<PorticoMessage>( tsoQueue );
+    		tsoQueue.clear();
+    		size.addAndGet( -tsoContents.size() );
     		output.writeObject( tsoContents );
 
     		// don't include any Save status messages from the RO-Queue when we write the
@@ -646,8 +1041,11 @@ public class LRCMessageQueue implements SaveRestoreTarget
 	 */
 	private BlockingQueue<PorticoMessage> filterSaveMessages()
 	{
+		List<PorticoMessage> roContents = new ArrayList<PorticoMessage>( heldMessages );
+		roContents.addAll( roQueue );
+
 		BlockingQueue<PorticoMessage> newQueue = new LinkedBlockingQueue<PorticoMessage>();
-		for( PorticoMessage message : roQueue )
+		for( PorticoMessage message : roContents )
 		{
 			if( message instanceof org.portico.lrc.services.saverestore.msg.SaveBegun ||
 				message instanceof org.portico.lrc.services.saverestore.msg.SaveComplete )
@@ -656,7 +1054,8 @@ public class LRCMessageQueue implements SaveRestoreTarget
 			}
 			else
 			{
-				newQueue.add( message );
+				// anything merged into after this won't be saved, so stop merging
+				newQueue.add( release(message) );
 			}
 		}
 		
@@ -673,8 +1072,14 @@ public class LRCMessageQueue implements SaveRestoreTarget
     		ArrayList<PorticoMessage> tsoContents = (ArrayList<PorticoMessage>)input.readObject();
     		this.tsoQueue.addAll( tsoContents );
     
-    		this.roQueue = (BlockingQueue<PorticoMessage>)input.readObject();
+    		Collection<PorticoMessage> roContents = (Collection<PorticoMessage>)input.readObject();
+    		this.heldMessages.clear();
+    		this.roQueue.clear();
+    		this.roQueue.addAll( roContents );
+    		this.coalescer.clear();
     		this.timeStatus = (TimeStatus)input.readObject();
+
+    		this.size.set( roQueue.size() + tsoQueue.size() + tsoIncoming.size() );
 		}
 		finally
 		{
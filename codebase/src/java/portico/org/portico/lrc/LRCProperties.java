@@ -39,6 +39,33 @@ public class LRCProperties
 	    before the LRC starts issuing warnings about its size, default: 500 */
 	public static final String PROPERTY_QUEUE_WARNING_COUNT = "portico.lrc.queue.warningCount";
 
+	/** System property used to specify the most messages a tick will take from the queue and
+	    process as a batch, default: 1 (no batching) */
+	public static final String PROPERTY_TICK_BATCH_SIZE = "portico.lrc.tick.batchSize";
+
+	/** System property used to turn on the null-message time advance mode for next event and
+	    next message requests, default: false */
+	public static final String PROPERTY_NULL_MESSAGES = "portico.lrc.time.nullMessages";
+
+	/** System property used to specify the kind of thread immediate callbacks are delivered on
+	    when no executor has been given to the LRC, either "platform" or "virtual" (Java 21 and
+	    later only), default: platform */
+	public static final String PROPERTY_CALLBACK_THREAD = "portico.lrc.callback.thread";
+
+	/** System property used to specify whether the LRC metrics are published as an MBean in the
+	    platform MBean server when a federate joins, default: true */
+	public static final String PROPERTY_METRICS_JMX = "portico.lrc.metrics.jmx";
+
+	/** System property used to specify the most object instances a federate will put in each
+	    message when it tells a newly joined federate about its objects, default: 1000 */
+	public static final String PROPERTY_ROLECALL_CHUNK_SIZE = "portico.lrc.rolecall.chunkSize";
+
+	/** System property used to specify the object classes (or individual attributes of them)
+	    whose receive order reflections are coalesced while they wait in the queue, given as a
+	    comma-separated list of qualified class names or class names followed by an attribute
+	    name, default: none */
+	public static final String PROPERTY_QUEUE_COALESCE = "portico.lrc.queue.coalesce";
+
 	//////////////////////////////
 	// Configuration Properties //
 	//////////////////////////////
@@ -57,6 +84,35 @@ public class LRCProperties
 	    not ticking enough, default: 500 */
 	public static int LRC_QUEUE_WARNING_COUNT =
 		Integer.parseInt( System.getProperty(PROPERTY_QUEUE_WARNING_COUNT,"500") );
+
+	/** the most messages a tick will take from the queue at once and process as a batch. A value
+	    of 1 (the default) processes messages one at a time */
+	public static int LRC_TICK_BATCH_SIZE =
+		Integer.parseInt( System.getProperty(PROPERTY_TICK_BATCH_SIZE,"1") );
+
+	/** should next event and next message requests use the null-message time advance mode,
+	    default: false (they are turned into regular time advance requests) */
+	public static boolean LRC_NULL_MESSAGES =
+		Boolean.parseBoolean( System.getProperty(PROPERTY_NULL_MESSAGES,"false") );
+
+	/** the kind of thread immediate callbacks are delivered on if no executor has been given to
+	    the LRC, "platform" (the default) or "virtual" */
+	public static String LRC_CALLBACK_THREAD =
+		System.getProperty( PROPERTY_CALLBACK_THREAD, "platform" );
+
+	/** should the LRC metrics be published in the platform MBean server, default: true */
+	public static boolean LRC_METRICS_JMX =
+		Boolean.parseBoolean( System.getProperty(PROPERTY_METRICS_JMX,"true") );
+
+	/** the most object instances sent in each message of the state a federate gives to a newly
+	    joined federate, default: 1000 */
+	public static int LRC_ROLECALL_CHUNK_SIZE =
+		Integer.parseInt( System.getProperty(PROPERTY_ROLECALL_CHUNK_SIZE,"1000") );
+
+	/** the object classes and attributes whose receive order reflections are coalesced in the
+	    queue, keeping only the latest value of each attribute, default: "" (none) */
+	public static String LRC_QUEUE_COALESCE =
+		System.getProperty( PROPERTY_QUEUE_COALESCE, "" );
 	
 	//----------------------------------------------------------
 	//                     STATIC METHODS
@@ -36,6 +36,7 @@ import org.portico.lrc.services.mom.data.MomManager;
 import org.portico.lrc.services.object.data.InterestManager;
 import org.portico.lrc.services.object.data.RegionStore;
 import org.portico.lrc.services.object.data.Repository;
+import org.portico.lrc.services.object.data.UpdateRateLimiter;
 import org.portico.lrc.services.ownership.data.OwnershipManager;
 import org.portico.lrc.services.saverestore.data.Manifest;
 import org.portico.lrc.services.saverestore.data.RestoreManager;
@@ -100,7 +101,7 @@ public class LRCState extends NullNotificationListener implements SaveRestoreTar
 	private TimeManager timeManager;
 	private TimeStatus timeStatus;
 	private boolean ticking;
-	private boolean callbacksEnabled;
+	private volatile boolean callbacksEnabled;
 	private boolean immediateCallbacks;
 	
 	// Pub&Sub settings //
@@ -113,6 +114,7 @@ public class LRCState extends NullNotificationListener implements SaveRestoreTar
 	private Repository repository;
 	private int latestObjectHandle;
 	private int maxObjectHandle;
+	private UpdateRateLimiter updateRateLimiter;
 	
 	// Ownership settings //
 	private OwnershipManager ownershipManager;
@@ -191,6 +193,7 @@ public class LRCState extends NullNotificationListener implements SaveRestoreTar
 		this.repository = new Repository( this );
 		this.latestObjectHandle = 0;
 		this.maxObjectHandle = 0;
+		this.updateRateLimiter = new UpdateRateLimiter( repository );
 		
 		// Ownership settings //
 		this.ownershipManager = new OwnershipManager();
@@ -307,6 +310,8 @@ public class LRCState extends NullNotificationListener implements SaveRestoreTar
 		Federate federate = this.federation.removeFederate( federateHandle );
 		if( federate != null )
 			momManager.federateResignedFederation( federate );
+
+		interestManager.removeInteractionTransports( federateHandle );
 	}
 
 	/**
@@ -497,6 +502,7 @@ public class LRCState extends NullNotificationListener implements SaveRestoreTar
 	public void setCallbacksEnabled( boolean enabled )
 	{
 		this.callbacksEnabled = enabled;
+		this.theLRC.callbacksEnabledChanged();
 	}
 
 	public boolean isImmediateCallbackDeliveryEnabled()
@@ -507,12 +513,12 @@ public class LRCState extends NullNotificationListener implements SaveRestoreTar
 	/**
 	 * The IEEE-1516 and 1516e standards provide facilities to allow the immediate delivery
 	 * of callback messages rather than the usual asynchronous/tick delivery mechanism. To
-	 * provide support for this, when the mode is enabled the LVCQueue itself will have an
-	 * additional thread that will be used to deliver all callbacks immediately, rather than
-	 * waiting for tick to be called (although we'll extract callback via the same poll()
-	 * call to ensure we only release TSO messages at the appropriate time).
+	 * provide support for this, when the mode is enabled the LRC attaches a dispatcher to the
+	 * message queue that delivers all callbacks immediately, rather than waiting for tick to be
+	 * called (although we'll extract callback via the same poll() call to ensure we only release
+	 * TSO messages at the appropriate time).
 	 * <p/>
-	 * This call will enable that mode and kick off a separate processing thread.
+	 * This only records whether that mode is on, see {@link LRC#enableImmediateCallbackProcessing()}.
 	 */
 	public void setImmediateCallbackDelivery( boolean enabled )
 	{
@@ -628,6 +634,11 @@ public class LRCState extends NullNotificationListener implements SaveRestoreTar
 	{
 		return this.repository;
 	}
+
+	public UpdateRateLimiter getUpdateRateLimiter()
+	{
+		return this.updateRateLimiter;
+	}
 	
 	public OwnershipManager getOwnershipManager()
 	{
@@ -169,6 +169,11 @@ public class PorticoConstants
 	    joining a federation. By default it should and this check is enabled */
 	public static final String PROPERTY_UNIQUE_FEDERATE_NAMES = "portico.uniqueFederateNames";
 	
+	/** System property for defining whether attribute updates and interactions should only be
+	    sent to federates that are subscribed to them. Enabled by default. If turned off, they
+	    are broadcast to every federate and filtered on the receiving side */
+	public static final String PROPERTY_INTEREST_FILTERING = "portico.object.interestFiltering";
+	
 	///////////////////////////////////////////////
 	////////////// Kernel Properties //////////////
 	///////////////////////////////////////////////
@@ -580,6 +585,11 @@ public class PorticoConstants
 		return getBooleanProperty( PROPERTY_UNIQUE_FEDERATE_NAMES, "true" );
 	}
 
+	public static boolean isInterestFilteringEnabled()
+	{
+		return getBooleanProperty( PROPERTY_INTEREST_FILTERING, "true" );
+	}
+
 	///////////////////////////////////////////////////////////////////////////////////////
 	//////////////////////////////// C++ Property Methods /////////////////////////////////
 	///////////////////////////////////////////////////////////////////////////////////////
@@ -783,7 +793,7 @@ public class PorticoConstants
 	 * The first numbers are the handles, the numbers in parenthesis are the size of the byte[]
 	 * corresponding to those numbers.
 	 */
-	public static String mapToStringWithSizes( HashMap<Integer,byte[]> map )
+	public static String mapToStringWithSizes( Map<Integer,byte[]> map )
 	{
 		if( map == null )
 			return "{null}";
@@ -0,0 +1,385 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.portico.lrc.model.OCInstance;
+import org.portico.lrc.model.OCMetadata;
+import org.portico.lrc.model.ObjectModel;
+import org.portico.lrc.services.object.msg.UpdateAttributes;
+import org.portico.utils.HandleValueMap;
+import org.portico.utils.messaging.PorticoMessage;
+
+/**
+ * Merges receive order reflections for the same object while they are waiting in the
+ * {@link LRCMessageQueue}, for federates that only care about the current state of an object
+ * rather than every update that got it there.
+ * <p/>
+ * Coalescing is turned on for an object class (and its subclasses) as a whole, or for some of
+ * its attributes. When a reflection comes in for an object of such a class and the queue is
+ * still holding an earlier reflection for it, the values of the new one are put into the earlier
+ * one rather than it being queued. Each attribute ends up with its latest value and the queue
+ * only ever holds one reflection per object. A reflection is only merged if every attribute it
+ * has in common with the waiting one can be coalesced, so no value of an attribute that hasn't
+ * been configured is ever lost. If it can't be merged, it is queued as normal and later
+ * reflections are merged into it instead.
+ * <p/>
+ * Reflections that are merged into are queued in a {@link Pending} holder. The queue gives them
+ * to {@link #take(Pending)} to get the update out when they are released. From then on nothing
+ * more is merged into it.
+ * <p/>
+ * The classes to coalesce can be given by name through the
+ * {@link LRCProperties#PROPERTY_QUEUE_COALESCE} property, or by handle through
+ * {@link #setCoalescing(int, Set)}. Names are resolved against the FOM once the federate has
+ * joined. The class of an object is the class the federate discovered it as, so an object can
+ * only be coalesced once its discovery has been processed.
+ */
+class UpdateCoalescer
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	/** Cached in place of a rule for classes that aren't coalesced */
+	private static final Rule NONE = new Rule( Collections.<Integer>emptySet() );
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private LRCState state;
+	private String configured;                    // names from the RID, resolved against the FOM
+	private ObjectModel model;                    // the FOM the rules below are for
+	private ConcurrentMap<Integer,Rule> declared;  // class handle to rule as it was given to us
+	private ConcurrentMap<Integer,Rule> effective; // class handle to rule, including inherited
+	private ConcurrentMap<Integer,Pending> pending; // object handle to update that can be merged
+	private volatile boolean active;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	protected UpdateCoalescer( LRCState state, String configured )
+	{
+		this.state = state;
+		this.configured = configured == null ? "" : configured.trim();
+		this.model = null;
+		this.declared = new ConcurrentHashMap<Integer,Rule>();
+		this.effective = new ConcurrentHashMap<Integer,Rule>();
+		this.pending = new ConcurrentHashMap<Integer,Pending>();
+		this.active = this.configured.isEmpty() == false;
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	/**
+	 * Merge the given receive order update into one that is waiting for the same object if we
+	 * can. Called from the offering side of the queue, so it can be called from any thread.
+	 *
+	 * @return The message to queue: the update itself if it isn't to be coalesced, a new
+	 *         {@link Pending} holding it if it is, or null if it was merged into one already queued
+	 */
+	PorticoMessage coalesce( UpdateAttributes update )
+	{
+		if( active == false )
+			return update;
+
+		final Rule rule = ruleFor( update.getObjectId() );
+		if( rule == null )
+			return update;
+
+		final UpdateAttributes latest = update;
+		Pending holder = pending.compute( update.getObjectId(), (handle,waiting) -> {
+			if( waiting != null && waiting.merge(latest,rule) )
+				return waiting;
+			else
+				return new Pending( latest );
+		});
+
+		// if the holder isn't for this update, it was merged into one that was already queued
+		return holder.original == update ? holder : null;
+	}
+
+	/**
+	 * Get the update out of a holder the queue is releasing (or otherwise taking out), making
+	 * sure nothing else is merged into it. Calling this more than once is harmless.
+	 */
+	UpdateAttributes take( Pending holder )
+	{
+		// removing it takes the same lock as merging, so after this it is ours alone
+		pending.remove( holder.original.getObjectId(), holder );
+		return holder.update;
+	}
+
+	/**
+	 * Forget all the updates that are waiting to be merged into. The queue calls this when its
+	 * contents are replaced.
+	 */
+	void clear()
+	{
+		pending.clear();
+	}
+
+	/**
+	 * Coalesce reflections for objects of the given class (and any of its subclasses that don't
+	 * have settings of their own). If attributes are given, only those attributes are coalesced,
+	 * otherwise they all are.
+	 */
+	synchronized void setCoalescing( int classHandle, Set<Integer> attributes )
+	{
+		resolve( state.getFOM() );
+		declared.put( classHandle, new Rule(attributes) );
+		effective.clear();
+		this.active = true;
+	}
+
+	/**
+	 * Stop coalescing reflections for objects of the given class. Subclasses with settings of
+	 * their own keep them, and the class will pick up any settings of its parent.
+	 */
+	synchronized void clearCoalescing( int classHandle )
+	{
+		resolve( state.getFOM() );
+		declared.remove( classHandle );
+		effective.clear();
+		this.active = declared.isEmpty() == false;
+	}
+
+	/**
+	 * @return True if reflections for objects of the given class are coalesced, either for all
+	 *         attributes or some of them
+	 */
+	boolean isCoalescing( int classHandle )
+	{
+		ObjectModel fom = state.getFOM();
+		if( fom == null )
+			return false;
+
+		OCMetadata type = fom.getObjectClass( classHandle );
+		return type != null && ruleFor(fom,type) != null;
+	}
+
+	/**
+	 * Find the rule that applies to the object with the given handle, or null if its updates
+	 * aren't coalesced.
+	 */
+	private Rule ruleFor( int objectHandle )
+	{
+		ObjectModel fom = state.getFOM();
+		if( fom == null )
+			return null;
+
+		OCInstance instance = state.getRepository().getInstance( objectHandle );
+		if( instance == null || instance.getDiscoveredType() == null )
+			return null;
+
+		return ruleFor( fom, instance.getDiscoveredType() );
+	}
+
+	private Rule ruleFor( ObjectModel fom, OCMetadata type )
+	{
+		if( fom != model )
+			resolve( fom );
+
+		Rule rule = effective.get( type.getHandle() );
+		if( rule == null )
+		{
+			// use the rule of the closest class up the hierarchy that has one
+			rule = NONE;
+			for( OCMetadata current = type; current != null; current = current.getParent() )
+			{
+				Rule declaredRule = declared.get( current.getHandle() );
+				if( declaredRule != null )
+				{
+					rule = declaredRule;
+					break;
+				}
+			}
+
+			effective.put( type.getHandle(), rule );
+		}
+
+		return rule == NONE ? null : rule;
+	}
+
+	/**
+	 * Rules are kept by handle, so if we have moved on to another FOM (the federate has joined
+	 * a different federation) start again from the names we were configured with.
+	 */
+	private synchronized void resolve( ObjectModel fom )
+	{
+		if( fom == null || fom == model )
+			return;
+
+		declared.clear();
+		effective.clear();
+		pending.clear();
+		this.model = fom;
+
+		for( String name : configured.split(",") )
+		{
+			name = name.trim();
+			if( name.isEmpty() )
+				continue;
+
+			// either a class, or a class followed by one of its attributes
+			OCMetadata type = fom.getObjectClass( name );
+			int attributeHandle = ObjectModel.INVALID_HANDLE;
+			int split = name.lastIndexOf( '.' );
+			if( type == null && split != -1 )
+			{
+				type = fom.getObjectClass( name.substring(0,split) );
+				if( type != null )
+				{
+					attributeHandle = type.getAttributeHandle( name.substring(split+1) );
+					if( attributeHandle == ObjectModel.INVALID_HANDLE )
+						type = null;
+				}
+			}
+
+			if( type == null )
+			{
+				state.theLRC.logger.warn( "Can't coalesce updates for ["+name+
+				                          "]: not an object class or attribute in the FOM" );
+				continue;
+			}
+
+			Rule existing = declared.get( type.getHandle() );
+			if( attributeHandle == ObjectModel.INVALID_HANDLE )
+				declared.put( type.getHandle(), new Rule(null) );
+			else if( existing == null )
+				declared.put( type.getHandle(), new Rule(Collections.singleton(attributeHandle)) );
+			else if( existing.attributes != null )
+				declared.put( type.getHandle(), existing.with(attributeHandle) );
+		}
+
+		this.active = declared.isEmpty() == false;
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+
+	///////////////////////////////////////////////////////////////////////////////////
+	///////////////////////////////// Private Classes /////////////////////////////////
+	///////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * The attributes of a class that can be coalesced, or all of them if the set is null
+	 */
+	private static class Rule
+	{
+		private final Set<Integer> attributes;
+
+		private Rule( Set<Integer> attributes )
+		{
+			this.attributes = attributes == null || attributes.isEmpty() ? null :
+			                  Collections.unmodifiableSet( new HashSet<Integer>(attributes) );
+		}
+
+		private boolean covers( int attributeHandle )
+		{
+			return attributes == null || attributes.contains( attributeHandle );
+		}
+
+		private Rule with( int attributeHandle )
+		{
+			Set<Integer> combined = new HashSet<Integer>( attributes );
+			combined.add( attributeHandle );
+			return new Rule( combined );
+		}
+	}
+
+	/**
+	 * Stands in the queue for a reflection that later ones can be merged into. It is only ever
+	 * seen by the queue, which swaps it for the update (see {@link UpdateCoalescer#take(Pending)})
+	 * before anything else gets to see it.
+	 */
+	static class Pending extends PorticoMessage
+	{
+		private static final long serialVersionUID = 98121116105109L;
+
+		private final UpdateAttributes original;
+		private volatile UpdateAttributes update;
+		private boolean copied;
+
+		private Pending( UpdateAttributes original )
+		{
+			this.original = original;
+			this.update = original;
+			this.copied = false;
+			this.sourceFederate = original.getSourceFederate();
+		}
+
+		/**
+		 * Put the values of the given update into ours if every attribute we have in common is
+		 * covered by the rule. Only called while holding the lock for our object in the map.
+		 */
+		private boolean merge( UpdateAttributes latest, Rule rule )
+		{
+			HandleValueMap ours = update.getAttributes();
+			HandleValueMap theirs = latest.getAttributes();
+			for( int i = 0; i < theirs.size(); i++ )
+			{
+				int attributeHandle = theirs.handleAt( i );
+				if( rule.covers(attributeHandle) == false && ours.containsHandle(attributeHandle) )
+					return false;
+			}
+
+			// the update we were queued with may be shared with other federates, so we
+			// have to make our own copy of it before we change anything
+			if( copied == false )
+			{
+				UpdateAttributes copy;
+				try
+				{
+					copy = (UpdateAttributes)original.clone();
+				}
+				catch( CloneNotSupportedException cnse )
+				{
+					// can't happen, PorticoMessage is Cloneable
+					throw new RuntimeException( cnse );
+				}
+
+				copy.setAttributes( new HandleValueMap(ours) );
+				this.update = copy;
+				this.copied = true;
+			}
+
+			update.getAttributes().putAll( theirs );
+			update.setTag( latest.getTag() );
+			update.setBestEffort( update.isBestEffort() && latest.isBestEffort() );
+			return true;
+		}
+
+		/**
+		 * Reflections are spec-defined messages, so this has to be one too for the queue to
+		 * hold it back at the right times.
+		 */
+		@Override
+		public boolean isSpecDefinedMessage()
+		{
+			return true;
+		}
+
+		@Override
+		public String toString()
+		{
+			return "Pending(object="+original.getObjectId()+")";
+		}
+	}
+}
@@ -0,0 +1,283 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.metrics;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Commits the LRC's JDK Flight Recorder events. There are three:
+ * <ul>
+ *   <li><b>org.portico.Tick</b>: A tick (or round of immediate callback delivery) that processed
+ *       at least one message, with how long it took and how many messages it processed.</li>
+ *   <li><b>org.portico.TimeAdvance</b>: A time advance was granted to a local federate, with
+ *       the time requested, the time granted and how long it took.</li>
+ *   <li><b>org.portico.QueueDepth</b>: Periodic (every second by default), the depth of the RO
+ *       and TSO queues and the send backlog of each joined local federate.</li>
+ * </ul>
+ * They can be turned on like any other event, for example with
+ * <code>jcmd [pid] JFR.start settings=[file.jfc]</code>, where the settings file enables them.
+ * <p/>
+ * Portico is built for Java 8, and not all Java 8 JVMs have JFR, so we can't extend
+ * <code>jdk.jfr.Event</code> directly. Instead the event types are created when this class is
+ * loaded with <code>jdk.jfr.EventFactory</code>, through reflection. If that fails (there is no
+ * JFR) everything here quietly does nothing. Events are only created when a recording has them
+ * turned on, so when no one is recording the cost is a single check.
+ */
+class FlightRecorderEvents
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final String NANOSECONDS = "NANOSECONDS"; // jdk.jfr.Timespan.NANOSECONDS
+
+	private static boolean AVAILABLE = false;
+	private static Method NEW_EVENT;  // EventFactory.newEvent()
+	private static Method SET;        // Event.set(int,Object)
+	private static Method COMMIT;     // Event.commit()
+	private static Method IS_ENABLED; // EventType.isEnabled()
+
+	private static Object TICK_FACTORY;
+	private static Object TICK_TYPE;
+	private static Object ADVANCE_FACTORY;
+	private static Object ADVANCE_TYPE;
+	private static Object QUEUE_FACTORY;
+
+	private static final List<LRCMetrics> QUEUE_SOURCES = new CopyOnWriteArrayList<LRCMetrics>();
+
+	static
+	{
+		try
+		{
+			initialize();
+			AVAILABLE = true;
+		}
+		catch( Throwable throwable )
+		{
+			// no flight recorder in this JVM, leave AVAILABLE as false
+		}
+	}
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+	/**
+	 * Commit a tick event, if anyone is recording them
+	 */
+	public static void tick( String federate, long nanos, int messages )
+	{
+		if( AVAILABLE && isEnabled(TICK_TYPE) )
+			commit( TICK_FACTORY, federate, nanos, (long)messages );
+	}
+
+	/**
+	 * Commit a time advance event, if anyone is recording them
+	 */
+	public static void timeAdvance( String federate, double requested, double granted, long nanos )
+	{
+		if( AVAILABLE && isEnabled(ADVANCE_TYPE) )
+			commit( ADVANCE_FACTORY, federate, requested, granted, nanos );
+	}
+
+	/**
+	 * Include the given metrics in the periodic queue depth events
+	 */
+	public static void addQueueSource( LRCMetrics metrics )
+	{
+		if( AVAILABLE && QUEUE_SOURCES.contains(metrics) == false )
+			QUEUE_SOURCES.add( metrics );
+	}
+
+	public static void removeQueueSource( LRCMetrics metrics )
+	{
+		QUEUE_SOURCES.remove( metrics );
+	}
+
+	/**
+	 * Run by the flight recorder when it is time for the periodic queue depth events
+	 */
+	private static void queueDepths()
+	{
+		for( LRCMetrics metrics : QUEUE_SOURCES )
+		{
+			commit( QUEUE_FACTORY,
+			        metrics.getFederateName(),
+			        (long)metrics.getROQueueDepth(),
+			        (long)metrics.getTSOQueueDepth(),
+			        (long)metrics.getSendBacklog() );
+		}
+	}
+
+	private static boolean isEnabled( Object eventType )
+	{
+		try
+		{
+			return (Boolean)IS_ENABLED.invoke( eventType );
+		}
+		catch( Exception e )
+		{
+			return false;
+		}
+	}
+
+	private static void commit( Object factory, Object... values )
+	{
+		try
+		{
+			Object event = NEW_EVENT.invoke( factory );
+			for( int i = 0; i < values.length; i++ )
+				SET.invoke( event, i, values[i] );
+
+			COMMIT.invoke( event );
+		}
+		catch( Exception e )
+		{
+			// metrics must never get in the way of the federate, drop the event
+		}
+	}
+
+	////////////////////////////////////////////////////////////////////////////////////////
+	/////////////////////////////////// Event Type Setup ///////////////////////////////////
+	////////////////////////////////////////////////////////////////////////////////////////
+	private static void initialize() throws Exception
+	{
+		Class<?> factoryClass = Class.forName( "jdk.jfr.EventFactory" );
+		Class<?> eventClass = Class.forName( "jdk.jfr.Event" );
+		Class<?> typeClass = Class.forName( "jdk.jfr.EventType" );
+		NEW_EVENT = factoryClass.getMethod( "newEvent" );
+		SET = eventClass.getMethod( "set", int.class, Object.class );
+		COMMIT = eventClass.getMethod( "commit" );
+		IS_ENABLED = typeClass.getMethod( "isEnabled" );
+		Method getEventType = factoryClass.getMethod( "getEventType" );
+
+		// org.portico.Tick
+		List<Object> fields = new ArrayList<Object>();
+		fields.add( field(String.class, "federate", "Federate", null) );
+		fields.add( field(long.class, "tickDuration", "Tick Duration", NANOSECONDS) );
+		fields.add( field(long.class, "messages", "Messages Processed", null) );
+		TICK_FACTORY = createFactory( "org.portico.Tick",
+		                              "Tick",
+		                              "Callback messages processed by a tick",
+		                              null,
+		                              fields );
+		TICK_TYPE = getEventType.invoke( TICK_FACTORY );
+
+		// org.portico.TimeAdvance
+		fields = new ArrayList<Object>();
+		fields.add( field(String.class, "federate", "Federate", null) );
+		fields.add( field(double.class, "requestedTime", "Requested Time", null) );
+		fields.add( field(double.class, "grantedTime", "Granted Time", null) );
+		fields.add( field(long.class, "latency", "Request to Grant", NANOSECONDS) );
+		ADVANCE_FACTORY = createFactory( "org.portico.TimeAdvance",
+		                                 "Time Advance",
+		                                 "A time advance granted to a local federate",
+		                                 null,
+		                                 fields );
+		ADVANCE_TYPE = getEventType.invoke( ADVANCE_FACTORY );
+
+		// org.portico.QueueDepth
+		fields = new ArrayList<Object>();
+		fields.add( field(String.class, "federate", "Federate", null) );
+		fields.add( field(long.class, "roDepth", "RO Queue Depth", null) );
+		fields.add( field(long.class, "tsoDepth", "TSO Queue Depth", null) );
+		fields.add( field(long.class, "sendBacklog", "Send Backlog", null) );
+		QUEUE_FACTORY = createFactory( "org.portico.QueueDepth",
+		                               "Queue Depth",
+		                               "Messages waiting in the LRC queue and to be sent",
+		                               "1 s",
+		                               fields );
+
+		// the periodic hook is given the class of the event it is run for
+		Class<?> queueEvent = NEW_EVENT.invoke( QUEUE_FACTORY ).getClass();
+		Runnable hook = new Runnable()
+		{
+			public void run()
+			{
+				queueDepths();
+			}
+		};
+
+		Class.forName( "jdk.jfr.FlightRecorder" )
+		     .getMethod( "addPeriodicEvent", Class.class, Runnable.class )
+		     .invoke( null, queueEvent, hook );
+	}
+
+	/**
+	 * Create an EventFactory for an event with the given name, label, description and fields.
+	 * If a period is given, the event is periodic. Stack traces are turned off for all our events.
+	 */
+	private static Object createFactory( String name,
+	                                     String label,
+	                                     String description,
+	                                     String period,
+	                                     List<Object> fields )
+		throws Exception
+	{
+		List<Object> annotations = new ArrayList<Object>();
+		annotations.add( annotation("jdk.jfr.Name", name) );
+		annotations.add( annotation("jdk.jfr.Label", label) );
+		annotations.add( annotation("jdk.jfr.Description", description) );
+		annotations.add( annotation("jdk.jfr.Category", new String[]{ "Portico" }) );
+		annotations.add( annotation("jdk.jfr.StackTrace", false) );
+		if( period != null )
+			annotations.add( annotation("jdk.jfr.Period", period) );
+
+		return Class.forName( "jdk.jfr.EventFactory" )
+		            .getMethod( "create", List.class, List.class )
+		            .invoke( null, annotations, fields );
+	}
+
+	/**
+	 * Create a ValueDescriptor for an event field. If a timespan unit is given, the field
+	 * is marked as holding a duration in that unit.
+	 */
+	private static Object field( Class<?> type, String name, String label, String timespan )
+		throws Exception
+	{
+		List<Object> annotations = new ArrayList<Object>();
+		annotations.add( annotation("jdk.jfr.Label", label) );
+		if( timespan != null )
+			annotations.add( annotation("jdk.jfr.Timespan", timespan) );
+
+		Constructor<?> constructor = Class.forName( "jdk.jfr.ValueDescriptor" )
+		                                  .getConstructor( Class.class, String.class, List.class );
+		return constructor.newInstance( type, name, annotations );
+	}
+
+	/**
+	 * Create an AnnotationElement for the annotation with the given class name and value
+	 */
+	private static Object annotation( String annotation, Object value ) throws Exception
+	{
+		Constructor<?> constructor = Class.forName( "jdk.jfr.AnnotationElement" )
+		                                  .getConstructor( Class.class, Object.class );
+		return constructor.newInstance( Class.forName(annotation), value );
+	}
+}
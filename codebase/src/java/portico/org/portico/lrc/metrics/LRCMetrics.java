@@ -0,0 +1,514 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.Logger;
+import org.portico.bindings.IConnection;
+import org.portico.lrc.LRC;
+import org.portico.lrc.LRCProperties;
+import org.portico.lrc.model.ObjectModel;
+import org.portico.lrc.notifications.INotificationListener;
+import org.portico.lrc.services.federation.msg.RoleCall;
+import org.portico.utils.messaging.PorticoMessage;
+
+/**
+ * Runtime metrics for an LRC, kept all the time so that a slow federation can be looked into
+ * without having to turn on logging (which at trace level will slow things down far more than
+ * whatever is being looked for). Each LRC has one of these, which the LRC, its handlers and its
+ * connection feed as they go. Recording is cheap: counters are {@link LongAdder}s and the like,
+ * nothing is logged or formatted, and values that are expensive to work out (such as queue
+ * depths) are only worked out when they are read.
+ * <p/>
+ * The metrics are published in two ways:
+ * <ul>
+ *   <li><b>JMX</b>: When the local federate joins a federation, the metrics are registered in the
+ *       platform MBean server (see {@link LRCMetricsMXBean} for the name) and they are removed
+ *       again when it resigns. This can be turned off with the
+ *       {@link LRCProperties#PROPERTY_METRICS_JMX} property.</li>
+ *   <li><b>Flight Recorder</b>: On JVMs that have JFR (<code>jdk.jfr</code>), events are
+ *       committed for ticks that process messages, for each granted time advance and periodically
+ *       for queue depths. As with any JFR event, they cost next to nothing unless a recording
+ *       has them turned on. See {@link FlightRecorderEvents}.</li>
+ * </ul>
+ * The metrics are reset each time the local federate joins a federation.
+ */
+public class LRCMetrics implements LRCMetricsMXBean, INotificationListener
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final String DOMAIN = "org.portico";
+	private static final AtomicInteger INSTANCE_IDS = new AtomicInteger( 0 );
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private LRC lrc;
+	private Logger logger;
+	private ObjectName objectName; // null if we're not registered with the MBean server
+	private volatile String federateName;
+	private volatile String federationName;
+	private volatile long resetTime;
+
+	// ticks
+	private LongAdder tickCount;
+	private LongAdder tickMessages;
+	private LongAdder tickNanos;
+	private AtomicLong maxTickMessages;
+	private AtomicLong maxTickNanos;
+	private volatile long lastTickNanos;
+
+	// time advance
+	private volatile boolean advancePending;
+	private volatile long advanceRequestedAt;
+	private volatile double advanceRequestedTime;
+	private LongAdder advanceCount;
+	private LongAdder advanceNanos;
+	private AtomicLong maxAdvanceNanos;
+	private volatile long lastAdvanceNanos;
+
+	// messages sent and received, by type
+	private ConcurrentMap<Class<?>,TypeCounters> messageTypes;
+	private LongAdder coalescedUpdates;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	public LRCMetrics( LRC lrc )
+	{
+		this.lrc = lrc;
+		this.logger = lrc.getLrcLogger();
+		this.objectName = null;
+		this.federateName = "";
+		this.federationName = "";
+		this.resetTime = System.nanoTime();
+
+		this.tickCount = new LongAdder();
+		this.tickMessages = new LongAdder();
+		this.tickNanos = new LongAdder();
+		this.maxTickMessages = new AtomicLong( 0 );
+		this.maxTickNanos = new AtomicLong( 0 );
+		this.lastTickNanos = 0;
+
+		this.advancePending = false;
+		this.advanceRequestedAt = 0;
+		this.advanceRequestedTime = 0.0;
+		this.advanceCount = new LongAdder();
+		this.advanceNanos = new LongAdder();
+		this.maxAdvanceNanos = new AtomicLong( 0 );
+		this.lastAdvanceNanos = 0;
+
+		this.messageTypes = new ConcurrentHashMap<Class<?>,TypeCounters>();
+		this.coalescedUpdates = new LongAdder();
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+
+	////////////////////////////////////////////////////////////////////////////////////////
+	////////////////////////////////// Recording Methods ///////////////////////////////////
+	////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * A tick (or a round of immediate callback delivery) that started at the given time, as
+	 * given by {@link System#nanoTime()}, has just finished after processing the given number of
+	 * messages.
+	 */
+	public void tickCompleted( long started, int messages )
+	{
+		long nanos = System.nanoTime() - started;
+		tickCount.increment();
+		tickMessages.add( messages );
+		tickNanos.add( nanos );
+		lastTickNanos = nanos;
+		updateMax( maxTickNanos, nanos );
+		updateMax( maxTickMessages, messages );
+
+		// ticks that found nothing to do aren't interesting enough for an event
+		if( messages > 0 )
+			FlightRecorderEvents.tick( federateName, nanos, messages );
+	}
+
+	/**
+	 * The local federate has asked to advance to the given time (through a time advance, next
+	 * event or flush queue request, or one of their variants).
+	 */
+	public void timeAdvanceRequested( double time )
+	{
+		this.advanceRequestedTime = time;
+		this.advanceRequestedAt = System.nanoTime();
+		this.advancePending = true;
+	}
+
+	/**
+	 * The local federate has been granted an advance to the given time
+	 */
+	public void timeAdvanceGranted( double time )
+	{
+		// we may not have seen the request (if we were restored part way through one)
+		if( advancePending == false )
+			return;
+
+		long nanos = System.nanoTime() - advanceRequestedAt;
+		advancePending = false;
+		advanceCount.increment();
+		advanceNanos.add( nanos );
+		lastAdvanceNanos = nanos;
+		updateMax( maxAdvanceNanos, nanos );
+
+		FlightRecorderEvents.timeAdvance( federateName, advanceRequestedTime, time, nanos );
+	}
+
+	/**
+	 * The given message has been sent. If the connection serializes messages, the size is the
+	 * number of bytes that went on the wire, otherwise it is 0.
+	 */
+	public void messageSent( PorticoMessage message, int size )
+	{
+		TypeCounters counters = countersFor( message );
+		counters.sent.increment();
+		counters.sentBytes.add( size );
+	}
+
+	/**
+	 * The given message has been received. If the connection serializes messages, the size is
+	 * the number of bytes that came off the wire, otherwise it is 0. Messages the local federate
+	 * sent are ignored, as they're already counted as sent.
+	 */
+	public void messageReceived( PorticoMessage message, int size )
+	{
+		if( message.getSourceFederate() == lrc.getState().getFederateHandle() )
+			return;
+
+		TypeCounters counters = countersFor( message );
+		counters.received.increment();
+		counters.receivedBytes.add( size );
+	}
+
+	/**
+	 * A receive order reflection has been merged into one that was already waiting in the queue
+	 * rather than being queued itself.
+	 */
+	public void updateCoalesced()
+	{
+		coalescedUpdates.increment();
+	}
+
+	private TypeCounters countersFor( PorticoMessage message )
+	{
+		Class<?> type = message.getClass();
+		TypeCounters counters = messageTypes.get( type );
+		if( counters == null )
+		{
+			counters = new TypeCounters();
+			TypeCounters existing = messageTypes.putIfAbsent( type, counters );
+			if( existing != null )
+				counters = existing;
+		}
+
+		return counters;
+	}
+
+	private void updateMax( AtomicLong max, long value )
+	{
+		long current = max.get();
+		while( value > current && max.compareAndSet(current,value) == false )
+			current = max.get();
+	}
+
+	////////////////////////////////////////////////////////////////////////////////////////
+	//////////////////////////////// Registration Methods //////////////////////////////////
+	////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Publish the metrics in the platform MBean server and to the flight recorder. If a bean
+	 * is already registered for a federate with the same name in the same federation (there
+	 * can be more than one federate in the JVM, and names don't have to be unique), an
+	 * <code>id</code> is added to the name to tell them apart.
+	 */
+	private void register()
+	{
+		FlightRecorderEvents.addQueueSource( this );
+		if( LRCProperties.LRC_METRICS_JMX == false )
+			return;
+
+		String name = DOMAIN+":type=LRC,federation="+ObjectName.quote(federationName)+
+		              ",federate="+ObjectName.quote(federateName);
+		try
+		{
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			try
+			{
+				this.objectName = server.registerMBean(this,new ObjectName(name)).getObjectName();
+			}
+			catch( InstanceAlreadyExistsException iaee )
+			{
+				name += ",id="+INSTANCE_IDS.incrementAndGet();
+				this.objectName = server.registerMBean(this,new ObjectName(name)).getObjectName();
+			}
+
+			logger.debug( "Registered LRC metrics MBean: "+objectName );
+		}
+		catch( Exception e )
+		{
+			// not worth failing the join over
+			logger.warn( "Could not register LRC metrics MBean ["+name+"]: "+e.getMessage(), e );
+		}
+	}
+
+	private void unregister()
+	{
+		FlightRecorderEvents.removeQueueSource( this );
+		if( objectName == null )
+			return;
+
+		try
+		{
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean( objectName );
+		}
+		catch( Exception e )
+		{
+			logger.warn( "Could not unregister LRC metrics MBean ["+objectName+"]: "+
+			             e.getMessage(), e );
+		}
+
+		this.objectName = null;
+	}
+
+	/**
+	 * @return The name the metrics are registered in the MBean server under, or
+	 *         <code>null</code> if they aren't registered
+	 */
+	public ObjectName getObjectName()
+	{
+		return this.objectName;
+	}
+
+	////////////////////////////////////////////////////////////////////////////////////////
+	///////////////////////////////// Notification Methods /////////////////////////////////
+	////////////////////////////////////////////////////////////////////////////////////////
+	public void localFederateJoinedFederation( int federateHandle,
+	                                           String federateName,
+	                                           String federationName,
+	                                           ObjectModel fom )
+	{
+		this.federateName = federateName;
+		this.federationName = federationName;
+		reset();
+		register();
+	}
+
+	public void localFederateResignedFromFederation()
+	{
+		unregister();
+	}
+
+	public void remoteFederateJoinedFederation( RoleCall federateStatus )
+	{
+	}
+
+	public void remoteFederateResignedFromFederation( int federateHandle, String federateName )
+	{
+	}
+
+	////////////////////////////////////////////////////////////////////////////////////////
+	//////////////////////////////////// MXBean Methods ////////////////////////////////////
+	////////////////////////////////////////////////////////////////////////////////////////
+	public String getFederateName()
+	{
+		return this.federateName;
+	}
+
+	public String getFederationName()
+	{
+		return this.federationName;
+	}
+
+	public double getSecondsSinceReset()
+	{
+		return (System.nanoTime() - resetTime) / (double)TimeUnit.SECONDS.toNanos(1);
+	}
+
+	public void reset()
+	{
+		this.resetTime = System.nanoTime();
+
+		tickCount.reset();
+		tickMessages.reset();
+		tickNanos.reset();
+		maxTickMessages.set( 0 );
+		maxTickNanos.set( 0 );
+		lastTickNanos = 0;
+
+		advanceCount.reset();
+		advanceNanos.reset();
+		maxAdvanceNanos.set( 0 );
+		lastAdvanceNanos = 0;
+
+		messageTypes.clear();
+		coalescedUpdates.reset();
+	}
+
+	///////////////////////////////////
+	// Message Queue //////////////////
+	///////////////////////////////////
+	public int getQueueDepth()
+	{
+		return lrc.getState().getQueue().getSize();
+	}
+
+	public int getROQueueDepth()
+	{
+		return lrc.getState().getQueue().getROSize();
+	}
+
+	public int getTSOQueueDepth()
+	{
+		return lrc.getState().getQueue().getTSOSize();
+	}
+
+	public int getSendBacklog()
+	{
+		IConnection connection = lrc.getConnection();
+		return connection == null ? 0 : connection.getSendBacklog();
+	}
+
+	public long getCoalescedUpdateCount()
+	{
+		return coalescedUpdates.sum();
+	}
+
+	///////////////////////////////////
+	// Ticks //////////////////////////
+	///////////////////////////////////
+	public long getTickCount()
+	{
+		return tickCount.sum();
+	}
+
+	public long getTickMessageCount()
+	{
+		return tickMessages.sum();
+	}
+
+	public double getAverageMessagesPerTick()
+	{
+		long ticks = tickCount.sum();
+		return ticks == 0 ? 0.0 : tickMessages.sum() / (double)ticks;
+	}
+
+	public long getMaxMessagesPerTick()
+	{
+		return maxTickMessages.get();
+	}
+
+	public long getAverageTickNanos()
+	{
+		long ticks = tickCount.sum();
+		return ticks == 0 ? 0 : tickNanos.sum() / ticks;
+	}
+
+	public long getMaxTickNanos()
+	{
+		return maxTickNanos.get();
+	}
+
+	public long getLastTickNanos()
+	{
+		return lastTickNanos;
+	}
+
+	///////////////////////////////////
+	// Time Advance ///////////////////
+	///////////////////////////////////
+	public boolean isTimeAdvancePending()
+	{
+		return advancePending;
+	}
+
+	public long getTimeAdvanceCount()
+	{
+		return advanceCount.sum();
+	}
+
+	public long getAverageTimeAdvanceNanos()
+	{
+		long advances = advanceCount.sum();
+		return advances == 0 ? 0 : advanceNanos.sum() / advances;
+	}
+
+	public long getMaxTimeAdvanceNanos()
+	{
+		return maxAdvanceNanos.get();
+	}
+
+	public long getLastTimeAdvanceNanos()
+	{
+		return lastAdvanceNanos;
+	}
+
+	///////////////////////////////////
+	// Messages ///////////////////////
+	///////////////////////////////////
+	public Map<String,MessageTypeMetrics> getMessageTypes()
+	{
+		double seconds = Math.max( getSecondsSinceReset(), 0.001 );
+		Map<String,MessageTypeMetrics> snapshot = new TreeMap<String,MessageTypeMetrics>();
+		for( Map.Entry<Class<?>,TypeCounters> entry : messageTypes.entrySet() )
+		{
+			String type = entry.getKey().getSimpleName();
+			TypeCounters counters = entry.getValue();
+			long sent = counters.sent.sum();
+			long received = counters.received.sum();
+			snapshot.put( type, new MessageTypeMetrics(type,
+			                                           sent,
+			                                           counters.sentBytes.sum(),
+			                                           received,
+			                                           counters.receivedBytes.sum(),
+			                                           sent / seconds,
+			                                           received / seconds) );
+		}
+
+		return snapshot;
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+
+	////////////////////////////////////////////////////////////////////////////////////////
+	////////////////////////////// Private Class: TypeCounters /////////////////////////////
+	////////////////////////////////////////////////////////////////////////////////////////
+	private static class TypeCounters
+	{
+		private final LongAdder sent = new LongAdder();
+		private final LongAdder sentBytes = new LongAdder();
+		private final LongAdder received = new LongAdder();
+		private final LongAdder receivedBytes = new LongAdder();
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.metrics;
+
+import java.util.Map;
+
+/**
+ * The management interface the {@link LRCMetrics} of each joined federate is published under
+ * in the platform MBean server. The object name is
+ * <code>org.portico:type=LRC,federation=[federation],federate=[federate]</code>.
+ * <p/>
+ * All times are in nanoseconds. Counts are totals since the federate joined, or since
+ * {@link #reset()} was last called, whichever was more recent.
+ */
+public interface LRCMetricsMXBean
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	public String getFederateName();
+
+	public String getFederationName();
+
+	/**
+	 * @return Seconds since the federate joined or the metrics were last reset
+	 */
+	public double getSecondsSinceReset();
+
+	/**
+	 * Zero all the counters. Queue depths and the send backlog are read live, so aren't affected.
+	 */
+	public void reset();
+
+	////////////////////////////////////////////////////////////////////////////
+	////////////////////////////// Message Queue ///////////////////////////////
+	////////////////////////////////////////////////////////////////////////////
+	/** @return The number of messages waiting in the LRC queue */
+	public int getQueueDepth();
+
+	/** @return The number of receive order messages waiting in the LRC queue */
+	public int getROQueueDepth();
+
+	/** @return The number of timestamp order messages waiting in the LRC queue */
+	public int getTSOQueueDepth();
+
+	/** @return The number of sent messages the connection hasn't got out on the wire yet */
+	public int getSendBacklog();
+
+	/** @return The number of receive order reflections merged into one already in the queue */
+	public long getCoalescedUpdateCount();
+
+	////////////////////////////////////////////////////////////////////////////
+	////////////////////////////////// Ticks ///////////////////////////////////
+	////////////////////////////////////////////////////////////////////////////
+	/** @return The number of ticks (or immediate callback deliveries) */
+	public long getTickCount();
+
+	/** @return The number of messages processed by all ticks */
+	public long getTickMessageCount();
+
+	public double getAverageMessagesPerTick();
+
+	public long getMaxMessagesPerTick();
+
+	public long getAverageTickNanos();
+
+	public long getMaxTickNanos();
+
+	public long getLastTickNanos();
+
+	////////////////////////////////////////////////////////////////////////////
+	/////////////////////////////// Time Advance ///////////////////////////////
+	////////////////////////////////////////////////////////////////////////////
+	/** @return <code>true</code> if a time advance has been requested and not yet granted */
+	public boolean isTimeAdvancePending();
+
+	/** @return The number of time advances that have been granted */
+	public long getTimeAdvanceCount();
+
+	/** @return The average time from a time advance being requested to it being granted */
+	public long getAverageTimeAdvanceNanos();
+
+	public long getMaxTimeAdvanceNanos();
+
+	public long getLastTimeAdvanceNanos();
+
+	////////////////////////////////////////////////////////////////////////////
+	///////////////////////////////// Messages /////////////////////////////////
+	////////////////////////////////////////////////////////////////////////////
+	/**
+	 * @return Send and receive counts for each type of message that has been sent or received,
+	 *         keyed by the simple class name of the message
+	 */
+	public Map<String,MessageTypeMetrics> getMessageTypes();
+}
@@ -0,0 +1,114 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * A snapshot of the send and receive counts for one type of message, as returned from
+ * {@link LRCMetricsMXBean#getMessageTypes()}. Rates are averaged over the time since the
+ * metrics were last reset.
+ * <p/>
+ * Byte counts are the serialized size of the messages, so are only filled out by connections
+ * that serialize messages (JGroups). They are 0 for the JVM connection.
+ */
+public class MessageTypeMetrics
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private String type;
+	private long sent;
+	private long sentBytes;
+	private long received;
+	private long receivedBytes;
+	private double sentPerSecond;
+	private double receivedPerSecond;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	@ConstructorProperties({"type","sent","sentBytes","received","receivedBytes",
+	                        "sentPerSecond","receivedPerSecond"})
+	public MessageTypeMetrics( String type,
+	                           long sent,
+	                           long sentBytes,
+	                           long received,
+	                           long receivedBytes,
+	                           double sentPerSecond,
+	                           double receivedPerSecond )
+	{
+		this.type = type;
+		this.sent = sent;
+		this.sentBytes = sentBytes;
+		this.received = received;
+		this.receivedBytes = receivedBytes;
+		this.sentPerSecond = sentPerSecond;
+		this.receivedPerSecond = receivedPerSecond;
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	public String getType()
+	{
+		return this.type;
+	}
+
+	public long getSent()
+	{
+		return this.sent;
+	}
+
+	public long getSentBytes()
+	{
+		return this.sentBytes;
+	}
+
+	public long getReceived()
+	{
+		return this.received;
+	}
+
+	public long getReceivedBytes()
+	{
+		return this.receivedBytes;
+	}
+
+	public double getSentPerSecond()
+	{
+		return this.sentPerSecond;
+	}
+
+	public double getReceivedPerSecond()
+	{
+		return this.receivedPerSecond;
+	}
+
+	@Override
+	public String toString()
+	{
+		return type+": sent="+sent+" ("+sentBytes+" bytes), received="+received+
+		       " ("+receivedBytes+" bytes)";
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -38,6 +38,7 @@ public class ACInstance implements Serializable
 	private OCInstance container;
 	private ACMetadata type;
 	private RegionInstance region;
+	private Transport transport; // null unless changed from the FOM default
 
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
@@ -50,6 +51,7 @@ public class ACInstance implements Serializable
 		this.container = null;
 		this.type = null;
 		this.region = null;
+		this.transport = null;
 	}
 	
 	public ACInstance( ACMetadata type )
@@ -170,6 +172,27 @@ public class ACInstance implements Serializable
 		this.region = region;
 	}
 
+	/**
+	 * Returns the transport updates to this attribute are sent with. This is the transport from
+	 * the FOM unless it has been changed for this instance through {@link #setTransport(Transport)}.
+	 */
+	public Transport getTransport()
+	{
+		if( this.transport == null )
+			return type.getTransport();
+		else
+			return this.transport;
+	}
+
+	/**
+	 * Change the transport used for updates to this attribute instance. Passing <code>null</code>
+	 * reverts it to the transport declared in the FOM.
+	 */
+	public void setTransport( Transport transport )
+	{
+		this.transport = transport;
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -15,6 +15,8 @@
 package org.portico.lrc.model;
 
 import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.portico.lrc.model.datatype.IDatatype;
 
@@ -38,6 +40,7 @@ public class ACMetadata implements Serializable
 	private Transport     transport;
 	private OCMetadata    container;
 	private Space space;
+	private Set<Integer>  dimensions;
 
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
@@ -55,6 +58,7 @@ public class ACMetadata implements Serializable
 		this.transport = Transport.RELIABLE;
 		this.container = null;
 		this.space     = null;
+		this.dimensions = new HashSet<Integer>();
 	}
 	
 	//----------------------------------------------------------
@@ -136,6 +140,21 @@ public class ACMetadata implements Serializable
 		this.space = theSpace;
 	}
 
+	/**
+	 * Returns the handles of the dimensions that the FOM says are available for this attribute
+	 * (HLA 1516e only). The dimensions are all contained in the space returned by
+	 * {@link #getSpace()}. If there are none, an empty set is returned.
+	 */
+	public Set<Integer> getDimensions()
+	{
+		return new HashSet<Integer>( this.dimensions );
+	}
+
+	public void addDimension( int dimensionHandle )
+	{
+		this.dimensions.add( dimensionHandle );
+	}
+
 	public OCMetadata getContainer()
 	{
 		return this.container;
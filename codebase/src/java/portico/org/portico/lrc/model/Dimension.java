@@ -16,6 +16,8 @@ package org.portico.lrc.model;
 
 import java.io.Serializable;
 
+import org.portico.lrc.PorticoConstants;
+
 public class Dimension implements Serializable
 {
 	//----------------------------------------------------------
@@ -29,6 +31,7 @@ public class Dimension implements Serializable
 	private String        name;
 	private int           handle;
 	private Space container;
+	private long          upperBound;
 
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
@@ -39,6 +42,7 @@ public class Dimension implements Serializable
 		this.name = name;
 		this.handle = handle;
 		this.container = null;
+		this.upperBound = PorticoConstants.MAX_EXTENT;
 	}
 
 	//----------------------------------------------------------
@@ -75,6 +79,21 @@ public class Dimension implements Serializable
 		this.container = container;
 	}
 
+	/**
+	 * The upper bound of the dimension as given in the FOM. Ranges for the dimension run from
+	 * {@link PorticoConstants#MIN_EXTENT} up to (but not including) this value. Defaults to
+	 * {@link PorticoConstants#MAX_EXTENT} if the FOM doesn't say otherwise (as in HLA 1.3).
+	 */
+	public long getUpperBound()
+	{
+		return this.upperBound;
+	}
+
+	public void setUpperBound( long upperBound )
+	{
+		this.upperBound = upperBound;
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -17,9 +17,12 @@ package org.portico.lrc.model;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import org.portico.lrc.PorticoConstants;
 import org.portico.lrc.compat.JArrayIndexOutOfBounds;
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 
 /**
  * <b>All the below relates to HLA 1.3</b>
@@ -66,6 +69,27 @@ public class Extent implements Serializable
 		}
 	}
 	
+	/**
+	 * Create an extent that only has ranges for the given dimensions of the space (HLA 1516e
+	 * regions need not use all the dimensions). Each range starts out covering the whole
+	 * dimension, from {@link PorticoConstants#MIN_EXTENT} up to its upper bound. Handles for
+	 * dimensions that aren't in the space are ignored.
+	 */
+	public Extent( Space space, Set<Integer> dimensions )
+	{
+		this.ranges = new HashMap<Integer,Range>();
+		for( Integer handle : dimensions )
+		{
+			Dimension dimension = space.getDimension( handle );
+			if( dimension == null )
+				continue;
+
+			Range range = new Range();
+			range.upperBound = dimension.getUpperBound();
+			this.ranges.put( handle, range );
+		}
+	}
+
 	/**
 	 * This constructor is only for use during the cloning process in {@link #clone()}.
 	 * It doesn't require the {@link Space} as it doesn't need to create its ranges for
@@ -106,20 +130,20 @@ public class Extent implements Serializable
 
 	/**
 	 * Returns <code>true</code> if the ranges for all dimensions in this {@link Extent} overlap
-	 * with the ranges for all the dimensions in the other {@link Extent}.
+	 * with the ranges for all the dimensions in the other {@link Extent}. Only the dimensions
+	 * that both extents have are compared. In HLA 1.3 that is all of them (the regions are in the
+	 * same space). In 1516e a region that doesn't use a dimension is treated as covering all of
+	 * it, so it can't rule out an overlap.
 	 */
 	public boolean overlapsWith( Extent otherExtent )
 	{
-		// as each region that these extents reside in should be associated with the same
-		// space, we can assume that the number of dimensions is the same (thus, there is
-		// no need to check for a lack of overlap due to a value for a particular dimension
-		// being in one extent and not in the other)
-		
 		// check the ranges for each dimension
 		for( Integer dimensionHandle : ranges.keySet() )
 		{
 			Range ourRange = ranges.get( dimensionHandle );
 			Range theirRange = otherExtent.ranges.get( dimensionHandle );
+			if( theirRange == null )
+				continue;
 
 			// To see if there is an overlap between the ranges, we
 			// need to consider three calculations:
@@ -268,9 +292,44 @@ public class Extent implements Serializable
 		ranges.get(dimensionHandle).lowerBound = lowerBound;
 	}
 
+	////////////////////////////////////////////////////////////
+	///////////////// Wire Marshaling Methods //////////////////
+	////////////////////////////////////////////////////////////
+	/**
+	 * Write the ranges held by this extent to the given output. See {@link #unmarshal(MessageInput)}
+	 */
+	public void marshal( MessageOutput output )
+	{
+		output.writeInt( ranges.size() );
+		for( Map.Entry<Integer,Range> entry : ranges.entrySet() )
+		{
+			output.writeInt( entry.getKey() );
+			output.writeLong( entry.getValue().lowerBound );
+			output.writeLong( entry.getValue().upperBound );
+		}
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
+	/**
+	 * Read an extent written with {@link #marshal(MessageOutput)} back from the given input.
+	 */
+	public static Extent unmarshal( MessageInput input )
+	{
+		Extent extent = new Extent();
+		int count = input.readInt();
+		for( int i = 0; i < count; i++ )
+		{
+			Range range = extent.new Range();
+			int dimensionHandle = input.readInt();
+			range.lowerBound = input.readLong();
+			range.upperBound = input.readLong();
+			extent.ranges.put( dimensionHandle, range );
+		}
+
+		return extent;
+	}
 
 	//////////////////////////////////////////////////////////////////////////////////////////
 	/////////////////////////////////// Inner Class: Range ///////////////////////////////////
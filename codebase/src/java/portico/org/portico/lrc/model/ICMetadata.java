@@ -40,6 +40,7 @@ public class ICMetadata implements Serializable
 	private Order                   order;
 	private Transport               transport;
 	private Space                   space;
+	private Set<Integer>            dimensions;
 	private ICMetadata              parent;
 	private Set<ICMetadata>         children;
 	private Map<Integer,PCMetadata> parameters;
@@ -61,6 +62,7 @@ public class ICMetadata implements Serializable
 		this.order       = Order.TIMESTAMP;
 		this.transport   = Transport.RELIABLE;
 		this.space       = null;
+		this.dimensions  = new HashSet<Integer>();
 		this.parent      = null;
 		this.model       = null;
 		this.children    = new HashSet<ICMetadata>();
@@ -115,6 +117,7 @@ public class ICMetadata implements Serializable
 		
 		// no existing parameter
 		this.parameters.put( parameter.getHandle(), parameter );
+		modelChanged();
 		// assign the container property
 		parameter.setContainer( this );
 		return true;
@@ -134,6 +137,7 @@ public class ICMetadata implements Serializable
 		else
 		{
 			parameter.setContainer( null );
+			modelChanged();
 			return parameter;
 		}
 	}
@@ -233,6 +237,15 @@ public class ICMetadata implements Serializable
 	 */
 	public int getParameterHandle( String name )
 	{
+		// if the model has an index of the parameter names, use that rather than walking the tree
+		ModelIndex index = model == null ? null : model.getIndex();
+		Map<String,Integer> indexed = index == null ? null : index.getParameterHandles( handle );
+		if( indexed != null )
+		{
+			Integer parameterHandle = indexed.get( name );
+			return parameterHandle != null ? parameterHandle : ObjectModel.INVALID_HANDLE;
+		}
+
 		// check locally first
 		for( PCMetadata temp : this.parameters.values() )
 		{
@@ -400,6 +413,7 @@ public class ICMetadata implements Serializable
 		// clear the qualified name caches //
 		this.qualifiedName = null;
 		this.vsafeQualifiedName = null;
+		modelChanged();
 		
 		// register us in the new parent //
 		this.parent = parent;
@@ -429,6 +443,31 @@ public class ICMetadata implements Serializable
 		this.space = space;
 	}
 
+	/**
+	 * Returns the handles of the dimensions that the FOM says are available for this interaction
+	 * (HLA 1516e only). The dimensions are all contained in the space returned by
+	 * {@link #getSpace()}. If there are none, an empty set is returned.
+	 */
+	public Set<Integer> getDimensions()
+	{
+		return new HashSet<Integer>( this.dimensions );
+	}
+
+	public void addDimension( int dimensionHandle )
+	{
+		this.dimensions.add( dimensionHandle );
+	}
+
+	/**
+	 * Let the model know that something about this class has changed, so that it doesn't keep
+	 * using a name index that no longer matches.
+	 */
+	private void modelChanged()
+	{
+		if( this.model != null )
+			this.model.clearIndex();
+	}
+
 	public ObjectModel getModel()
 	{
 		return this.model;
@@ -0,0 +1,262 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of the names in an {@link ObjectModel}, built when the model is locked so
+ * that looking up a class, attribute, parameter, space or dimension by name doesn't have to walk
+ * every class in the model. The keys follow the same rules as the lookups they replace: class and
+ * space names are case-insensitive (and stored in lower case) while attribute, parameter and
+ * dimension names are matched exactly.
+ * <p/>
+ * The index is thrown away whenever the model is unlocked or changed, and is rebuilt when next
+ * needed (see {@link ObjectModel#getIndex()}).
+ */
+class ModelIndex
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	// classes by lower-case version-safe qualified name and by lower-case local name
+	private Map<String,OCMetadata> objectClasses;
+	private Map<String,OCMetadata> localObjectClasses;
+	private Map<String,ICMetadata> interactionClasses;
+	private Map<String,ICMetadata> localInteractionClasses;
+
+	// attribute/parameter handles (including inherited) by name, for each class handle
+	private Map<Integer,Map<String,Integer>> attributeHandles;
+	private Map<Integer,Map<String,Integer>> parameterHandles;
+	private Map<Integer,ACMetadata> attributes;
+	private Map<Integer,PCMetadata> parameters;
+
+	// spaces by lower-case name, dimensions by name for each space handle
+	private Map<String,Space> spaces;
+	private Map<Integer,Map<String,Dimension>> dimensions;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	/**
+	 * Index the given classes and spaces. They should be given in the same order that the model
+	 * would walk them when searching, so that where names are ambiguous the index will find the
+	 * same class the walk would have.
+	 */
+	protected ModelIndex( Collection<OCMetadata> objectClasses,
+	                      Collection<ICMetadata> interactionClasses,
+	                      Collection<Space> spaces )
+	{
+		indexObjectClasses( objectClasses );
+		indexInteractionClasses( interactionClasses );
+		indexSpaces( spaces );
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	private void indexObjectClasses( Collection<OCMetadata> classes )
+	{
+		Map<String,OCMetadata> qualified = new HashMap<String,OCMetadata>();
+		Map<String,OCMetadata> local = new HashMap<String,OCMetadata>();
+		Map<Integer,Map<String,Integer>> handles = new HashMap<Integer,Map<String,Integer>>();
+		Map<Integer,ACMetadata> all = new HashMap<Integer,ACMetadata>();
+
+		// the first class found for a name wins, as it would have when walking the classes
+		for( OCMetadata oc : classes )
+		{
+			putIfAbsent( qualified, oc.getVersionSafeQualifiedName().toLowerCase(), oc );
+			putIfAbsent( local, oc.getLocalName().toLowerCase(), oc );
+			indexAttributes( oc, handles );
+			for( ACMetadata attribute : oc.getDeclaredAttributes() )
+				all.put( attribute.getHandle(), attribute );
+		}
+
+		this.objectClasses = Collections.unmodifiableMap( qualified );
+		this.localObjectClasses = Collections.unmodifiableMap( local );
+		this.attributeHandles = Collections.unmodifiableMap( handles );
+		this.attributes = Collections.unmodifiableMap( all );
+	}
+
+	/**
+	 * Builds the name-to-handle map for the given class (and for its parents along the way, if
+	 * they don't already have one). Declared attributes hide inherited attributes of the same name.
+	 */
+	private Map<String,Integer> indexAttributes( OCMetadata oc,
+	                                             Map<Integer,Map<String,Integer>> handles )
+	{
+		Map<String,Integer> names = handles.get( oc.getHandle() );
+		if( names != null )
+			return names;
+
+		names = new HashMap<String,Integer>();
+		if( oc.getParent() != null )
+			names.putAll( indexAttributes(oc.getParent(),handles) );
+
+		for( ACMetadata attribute : oc.getDeclaredAttributes() )
+			names.put( attribute.getName(), attribute.getHandle() );
+
+		names = Collections.unmodifiableMap( names );
+		handles.put( oc.getHandle(), names );
+		return names;
+	}
+
+	private void indexInteractionClasses( Collection<ICMetadata> classes )
+	{
+		Map<String,ICMetadata> qualified = new HashMap<String,ICMetadata>();
+		Map<String,ICMetadata> local = new HashMap<String,ICMetadata>();
+		Map<Integer,Map<String,Integer>> handles = new HashMap<Integer,Map<String,Integer>>();
+		Map<Integer,PCMetadata> all = new HashMap<Integer,PCMetadata>();
+
+		for( ICMetadata ic : classes )
+		{
+			putIfAbsent( qualified, ic.getVersionSafeQualifiedName().toLowerCase(), ic );
+			putIfAbsent( local, ic.getLocalName().toLowerCase(), ic );
+			indexParameters( ic, handles );
+			for( PCMetadata parameter : ic.getDeclaredParameters() )
+				all.put( parameter.getHandle(), parameter );
+		}
+
+		this.interactionClasses = Collections.unmodifiableMap( qualified );
+		this.localInteractionClasses = Collections.unmodifiableMap( local );
+		this.parameterHandles = Collections.unmodifiableMap( handles );
+		this.parameters = Collections.unmodifiableMap( all );
+	}
+
+	/**
+	 * Same as {@link #indexAttributes(OCMetadata, Map)}, but for the parameters of an
+	 * interaction class.
+	 */
+	private Map<String,Integer> indexParameters( ICMetadata ic,
+	                                             Map<Integer,Map<String,Integer>> handles )
+	{
+		Map<String,Integer> names = handles.get( ic.getHandle() );
+		if( names != null )
+			return names;
+
+		names = new HashMap<String,Integer>();
+		if( ic.getParent() != null )
+			names.putAll( indexParameters(ic.getParent(),handles) );
+
+		for( PCMetadata parameter : ic.getDeclaredParameters() )
+			names.put( parameter.getName(), parameter.getHandle() );
+
+		names = Collections.unmodifiableMap( names );
+		handles.put( ic.getHandle(), names );
+		return names;
+	}
+
+	private void indexSpaces( Collection<Space> spaces )
+	{
+		Map<String,Space> byName = new HashMap<String,Space>();
+		Map<Integer,Map<String,Dimension>> spaceDimensions =
+			new HashMap<Integer,Map<String,Dimension>>();
+
+		for( Space space : spaces )
+		{
+			putIfAbsent( byName, space.getName().toLowerCase(), space );
+
+			Map<String,Dimension> names = new HashMap<String,Dimension>();
+			for( Dimension dimension : space.getDimensions() )
+				names.put( dimension.getName(), dimension );
+
+			spaceDimensions.put( space.getHandle(), Collections.unmodifiableMap(names) );
+		}
+
+		this.spaces = Collections.unmodifiableMap( byName );
+		this.dimensions = Collections.unmodifiableMap( spaceDimensions );
+	}
+
+	private <T> void putIfAbsent( Map<String,T> map, String key, T value )
+	{
+		if( map.containsKey(key) == false )
+			map.put( key, value );
+	}
+
+	////////////////////////////////////////////////////////////
+	////////////////////// Lookup Methods //////////////////////
+	////////////////////////////////////////////////////////////
+	/**
+	 * Find the object class with the given lower-case name, which has already had any
+	 * ObjectRoot/HLAobjectRoot prefix removed. The version-safe qualified names are checked
+	 * before the local names. Returns null if there is no class with the name.
+	 */
+	protected OCMetadata getObjectClass( String name )
+	{
+		OCMetadata oc = objectClasses.get( name );
+		return oc != null ? oc : localObjectClasses.get( name );
+	}
+
+	/**
+	 * Same as {@link #getObjectClass(String)} for interaction classes.
+	 */
+	protected ICMetadata getInteractionClass( String name )
+	{
+		ICMetadata ic = interactionClasses.get( name );
+		return ic != null ? ic : localInteractionClasses.get( name );
+	}
+
+	/**
+	 * Returns the names of all the attributes available in the object class of the given handle
+	 * (inherited ones included), or null if the class wasn't in the model when it was indexed.
+	 */
+	protected Map<String,Integer> getAttributeHandles( int classHandle )
+	{
+		return attributeHandles.get( classHandle );
+	}
+
+	/**
+	 * Same as {@link #getAttributeHandles(int)} for the parameters of an interaction class.
+	 */
+	protected Map<String,Integer> getParameterHandles( int classHandle )
+	{
+		return parameterHandles.get( classHandle );
+	}
+
+	protected ACMetadata getAttribute( int attributeHandle )
+	{
+		return attributes.get( attributeHandle );
+	}
+
+	protected PCMetadata getParameter( int parameterHandle )
+	{
+		return parameters.get( parameterHandle );
+	}
+
+	protected Space getSpace( String name )
+	{
+		return name == null ? null : spaces.get( name.toLowerCase() );
+	}
+
+	/**
+	 * Returns the dimensions of the space with the given handle by name, or null if the space
+	 * wasn't in the model when it was indexed.
+	 */
+	protected Map<String,Dimension> getDimensions( int spaceHandle )
+	{
+		return dimensions.get( spaceHandle );
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -21,6 +21,7 @@ import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.logging.log4j.LogManager;
@@ -72,28 +73,39 @@ public class ModelMerger
 	private ObjectModel mergeModels( List<ObjectModel> models ) throws JInconsistentFDD,
 	                                                                   JRTIinternalError
 	{
-		// if we only got one model, there's nothing to merge!
-		if( models.size() == 1 )
+		// the base model is going to change, so if it's locked we have to unlock it while we
+		// work on it and then lock it again at the end (which rebuilds its name index)
+		ObjectModel base = models.get(0);
+		boolean wasLocked = base.isLocked();
+		if( wasLocked )
+			base.unlock();
+
+		try
 		{
-			ObjectModel model = models.get( 0 );
-			return validate( model );
-		}
+			// if we only got one model, there's nothing to merge!
+			if( models.size() == 1 )
+				return validate( base );
 
-		logger.trace( "Beginning merge of "+models.size()+" FOM models" );
+			logger.trace( "Beginning merge of "+models.size()+" FOM models" );
 
-		// We have multiple models to merge
-		// Make a clone of the first model, so that existing handle values are preserved
-		// and then merge in the additional models to the clone
-		ObjectModel base = models.get(0);
-		for( int i = 1; i < models.size(); i++ )
+			// We have multiple models to merge
+			// Make a clone of the first model, so that existing handle values are preserved
+			// and then merge in the additional models to the clone
+			for( int i = 1; i < models.size(); i++ )
+			{
+				ObjectModel current = models.get(i);
+				logger.trace( "Merging ["+current.getFileName()+"] into combined FOM" );
+				merge( base, current );
+			}
+			
+			// validate the model to ensure it has everything we need
+			return validate( base );
+		}
+		finally
 		{
-			ObjectModel current = models.get(i);
-			logger.trace( "Merging ["+current.getFileName()+"] into combined FOM" );
-			merge( base, current );
+			if( wasLocked )
+				base.lock();
 		}
-		
-		// validate the model to ensure it has everything we need
-		return validate( base );
 	}
 
 	/**
@@ -120,6 +132,13 @@ public class ModelMerger
 			}
 		}
 		
+		// merge the dimensions. Like datatypes, these need to be in place before the objects
+		// and interactions that refer to them are imported
+		mergeDimensions( base, extension );
+
+		// merge the update rate designators
+		mergeUpdateRates( base, extension );
+
 		// merge objects, starting at the object root
 		if( extension.getObjectRoot() != null )
 			mergeObjectClass( base.getObjectRoot(), extension.getObjectRoot() );
@@ -131,12 +150,10 @@ public class ModelMerger
 		//
 		// ignore the remaining - no way to get this info back out from RTIamb anyway
 		//
-		// merge the dimensions
 		// merge the time
 		// merge the user supplied tags
 		// merge the sync points
 		// merge the transport types
-		// merge the udpate rates
 		// merge the switches
 		// merge the service usage
 		
@@ -169,6 +186,139 @@ public class ModelMerger
 		baseModel.addDatatype( copy );
 	}
 	
+	/**
+	 * Copies any dimensions in the extension that aren't in the base model into it. Dimensions
+	 * are matched up by name. If both models declare a dimension with different upper bounds,
+	 * a warning is logged and the base definition is kept.
+	 * <p/>
+	 * The dimensions are all kept in the {@link ObjectModel#DIMENSIONS_SPACE} space, which will
+	 * be created in the base if it isn't there already.
+	 */
+	private void mergeDimensions( ObjectModel base, ObjectModel extension )
+	{
+		Space extensionSpace = extension.getSpace( ObjectModel.DIMENSIONS_SPACE );
+		if( extensionSpace == null )
+			return;
+
+		Space baseSpace = base.getSpace( ObjectModel.DIMENSIONS_SPACE );
+		if( baseSpace == null )
+		{
+			baseSpace = base.newSpace( ObjectModel.DIMENSIONS_SPACE );
+			base.addSpace( baseSpace );
+		}
+
+		for( Dimension extensionDimension : extensionSpace.getDimensions() )
+		{
+			Dimension baseDimension = baseSpace.getDimension( extensionDimension.getName() );
+			if( baseDimension == null )
+			{
+				logger.trace( "   -> Inserting dimension ["+extensionDimension.getName()+"]" );
+				Dimension newDimension = base.newDimension( extensionDimension.getName() );
+				newDimension.setUpperBound( extensionDimension.getUpperBound() );
+				baseSpace.addDimension( newDimension );
+			}
+			else if( baseDimension.getUpperBound() != extensionDimension.getUpperBound() )
+			{
+				logger.warn( "Dimension [%s] has different upper bound in extension (%d) than "+
+				             "base (%d), using base", extensionDimension.getName(),
+				             extensionDimension.getUpperBound(), baseDimension.getUpperBound() );
+			}
+		}
+	}
+
+	/**
+	 * Copies any update rate designators in the extension that aren't in the base model into it.
+	 * If both models declare a designator with a different rate, a warning is logged and the
+	 * base definition is kept.
+	 */
+	private void mergeUpdateRates( ObjectModel base, ObjectModel extension )
+	{
+		for( Map.Entry<String,Double> extensionRate : extension.getUpdateRates().entrySet() )
+		{
+			Double baseRate = base.getUpdateRate( extensionRate.getKey() );
+			if( baseRate == null )
+			{
+				logger.trace( "   -> Inserting update rate ["+extensionRate.getKey()+"]" );
+				base.addUpdateRate( extensionRate.getKey(), extensionRate.getValue() );
+			}
+			else if( baseRate.equals(extensionRate.getValue()) == false )
+			{
+				logger.warn( "Update rate [%s] has different rate in extension (%s) than base (%s), "+
+				             "using base", extensionRate.getKey(), extensionRate.getValue(), baseRate );
+			}
+		}
+	}
+
+	/**
+	 * Returns the handles of the dimensions in the base model that have the same names as the
+	 * given dimensions from the given extension space. {@link #mergeDimensions(ObjectModel,
+	 * ObjectModel)} must have been run first so that they all exist in the base.
+	 */
+	private Set<Integer> findBaseDimensions( ObjectModel base,
+	                                         Space extensionSpace,
+	                                         Set<Integer> extensionDimensions )
+	{
+		Set<Integer> handles = new HashSet<Integer>();
+		Space baseSpace = base.getSpace( ObjectModel.DIMENSIONS_SPACE );
+		for( Integer extensionHandle : extensionDimensions )
+		{
+			String name = extensionSpace.getDimension(extensionHandle).getName();
+			handles.add( baseSpace.getDimension(name).getHandle() );
+		}
+
+		return handles;
+	}
+
+	/**
+	 * Copy the routing space and available dimensions of an extension attribute to the new
+	 * attribute that will go into the base model
+	 */
+	private void copyDimensions( ObjectModel base, ACMetadata extension, ACMetadata newAttribute )
+	{
+		Space space = extension.getSpace();
+		if( space == null )
+		{
+			return;
+		}
+		else if( space.getName().equals(ObjectModel.DIMENSIONS_SPACE) == false )
+		{
+			// HLA 1.3 routing spaces aren't merged, just carry it across as it was
+			newAttribute.setSpace( space );
+			return;
+		}
+
+		newAttribute.setSpace( base.getSpace(ObjectModel.DIMENSIONS_SPACE) );
+		for( Integer handle : findBaseDimensions(base,space,extension.getDimensions()) )
+		{
+			newAttribute.addDimension( handle );
+		}
+	}
+
+	/**
+	 * Copy the routing space and available dimensions of an extension interaction to the new
+	 * interaction that will go into the base model
+	 */
+	private void copyDimensions( ObjectModel base, ICMetadata extension, ICMetadata newClass )
+	{
+		Space space = extension.getSpace();
+		if( space == null )
+		{
+			return;
+		}
+		else if( space.getName().equals(ObjectModel.DIMENSIONS_SPACE) == false )
+		{
+			// HLA 1.3 routing spaces aren't merged, just carry it across as it was
+			newClass.setSpace( space );
+			return;
+		}
+
+		newClass.setSpace( base.getSpace(ObjectModel.DIMENSIONS_SPACE) );
+		for( Integer handle : findBaseDimensions(base,space,extension.getDimensions()) )
+		{
+			newClass.addDimension( handle );
+		}
+	}
+
 	/**
 	 * Merge the provided object classes together, extension the parent type with the extension
 	 * type.
@@ -259,7 +409,7 @@ public class ModelMerger
 				                                          model.generateHandle() );
 				newAttribute.setOrder( attribute.getOrder() );
 				newAttribute.setTransport( attribute.getTransport() );
-				newAttribute.setSpace( attribute.getSpace() );
+				copyDimensions( model, attribute, newAttribute );
 				base.addAttribute( newAttribute );
 			}
 		}
@@ -328,7 +478,7 @@ public class ModelMerger
 			                                          model.generateHandle() );
 			newAttribute.setOrder( attribute.getOrder() );
 			newAttribute.setTransport( attribute.getTransport() );
-			newAttribute.setSpace( attribute.getSpace() );
+			copyDimensions( model, attribute, newAttribute );
 			newClass.addAttribute( newAttribute );
 		}
 		
@@ -444,7 +594,7 @@ public class ModelMerger
 		ICMetadata newClass = new ICMetadata( extension.getLocalName(), model.generateHandle() );
 		newClass.setOrder( extension.getOrder() );
 		newClass.setTransport( extension.getTransport() );
-		newClass.setSpace( extension.getSpace() );
+		copyDimensions( model, extension, newClass );
 		newClass.setParent( parent );
 
 		// create new parameters for all those in the extension
@@ -184,6 +184,7 @@ public class OCMetadata implements Serializable
 		
 		// no existing attribute, throw this one in
 		this.attributes.put( attribute.getHandle(), attribute );
+		modelChanged();
 		// assign the container property of the attribute to us
 		attribute.setContainer( this );
 		return true;
@@ -203,6 +204,7 @@ public class OCMetadata implements Serializable
 		else
 		{
 			attribute.setContainer( null );
+			modelChanged();
 			return attribute;
 		}
 	}
@@ -347,6 +349,20 @@ public class OCMetadata implements Serializable
 	 */
 	public int getAttributeHandle( String name )
 	{
+		// if the model has an index of the attribute names, use that rather than walking the tree
+		ModelIndex index = model == null ? null : model.getIndex();
+		Map<String,Integer> indexed = index == null ? null : index.getAttributeHandles( handle );
+		if( indexed != null )
+		{
+			Integer attributeHandle = indexed.get( name );
+			if( attributeHandle != null )
+				return attributeHandle;
+			else if( isPrivilegeToDelete(name) )
+				return this.model.getPrivilegeToDelete();
+			else
+				return ObjectModel.INVALID_HANDLE;
+		}
+
 		// check locally first
 		for( ACMetadata temp : this.attributes.values() )
 		{
@@ -361,8 +377,7 @@ public class OCMetadata implements Serializable
 		{
 			// there is nothing higher to check, ensure that we're not talking about privToDelete,
 			// if we haven't found it yet it might because we've got the wrong HLA version
-			if( name != null &&
-				(name.equals("privilegeToDelete") || name.equals("HLAprivilegeToDelete")) )
+			if( isPrivilegeToDelete(name) )
 			{
 				return this.model.getPrivilegeToDelete();
 			}
@@ -377,6 +392,12 @@ public class OCMetadata implements Serializable
 		}
 	}
 	
+	private boolean isPrivilegeToDelete( String name )
+	{
+		return name != null &&
+		       (name.equals("privilegeToDelete") || name.equals("HLAprivilegeToDelete"));
+	}
+
 	/**
 	 * Return the name of the contained attribute of the given handle. If there is no attribute
 	 * of that handle in this class, null will be returned. <b>Note:</b> The search will include
@@ -535,6 +556,7 @@ public class OCMetadata implements Serializable
 		// clear the qualified name caches //
 		this.qualifiedName = null;
 		this.vsafeQualifiedName = null;
+		modelChanged();
 		
 		// register us with the new parent //
 		this.parent = oc;
@@ -544,6 +566,16 @@ public class OCMetadata implements Serializable
 		}
 	}
 	
+	/**
+	 * Let the model know that something about this class has changed, so that it doesn't keep
+	 * using a name index that no longer matches.
+	 */
+	private void modelChanged()
+	{
+		if( this.model != null )
+			this.model.clearIndex();
+	}
+
 	public ObjectModel getModel()
 	{
 		return this.model;
@@ -16,6 +16,7 @@ package org.portico.lrc.model;
 
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Set;
 import java.util.Map;
 import java.util.HashSet;
@@ -49,6 +50,10 @@ public class ObjectModel implements Serializable
 	/** The maximum handle value for MOM data */
 	public static final int MAX_MOM_HANDLE = 500;
 
+	/** HLA 1516e has no routing spaces, just dimensions. All the dimensions from a 1516e FOM
+	    are kept together in a single space with this name */
+	public static final String DIMENSIONS_SPACE = "HLAdimensions";
+
 	//----------------------------------------------------------
 	//                   INSTANCE VARIABLES
 	//----------------------------------------------------------
@@ -62,10 +67,14 @@ public class ObjectModel implements Serializable
 	private Map<Integer,OCMetadata> oclasses;
 	private Map<Integer,ICMetadata> iclasses;
 	private Map<Integer,Space> spaces;
+	private Map<String,Double> updateRates; // designator name -> max updates per second
 	private OCMetadata ocroot;
 	private ICMetadata icroot;
 	
 	private int privilegeToDelete; // set when object root is set
+
+	// name lookup tables, only used while the model is locked. built on demand, see getIndex()
+	private transient volatile ModelIndex index;
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
@@ -78,6 +87,7 @@ public class ObjectModel implements Serializable
 		this.oclasses = new HashMap<Integer,OCMetadata>();
 		this.iclasses = new HashMap<Integer,ICMetadata>();
 		this.spaces   = new HashMap<Integer,Space>();
+		this.updateRates = new HashMap<String,Double>();
 		this.locked   = false;
 		this.ocroot   = null;
 		this.icroot   = null;
@@ -179,6 +189,10 @@ public class ObjectModel implements Serializable
 	 */
 	public Space getSpace( String name )
 	{
+		ModelIndex index = getIndex();
+		if( index != null )
+			return index.getSpace( name );
+
 		for( Space temp : this.spaces.values() )
 		{
 			if( temp.getName().equalsIgnoreCase(name) )
@@ -215,6 +229,40 @@ public class ObjectModel implements Serializable
 		space.setModel( this );
 	}
 
+
+	/////////////////////////////////////////////////////////////
+	//////////////////// Update Rate Methods ////////////////////
+	/////////////////////////////////////////////////////////////
+	/**
+	 * Add an update rate designator from the FOM, with the maximum number of updates per second
+	 * it stands for. <i>If the model has been locked, or there is already a designator with
+	 * the same name, this request will be ignored.</i>
+	 */
+	public void addUpdateRate( String name, double rate )
+	{
+		if( name == null || this.locked || this.updateRates.containsKey(name) )
+			return;
+
+		this.updateRates.put( name, rate );
+	}
+
+	/**
+	 * Get the maximum number of updates per second for the update rate designator with the
+	 * given name, or <code>null</code> if the FOM doesn't declare it.
+	 */
+	public Double getUpdateRate( String name )
+	{
+		return this.updateRates.get( name );
+	}
+
+	/**
+	 * Returns all the update rate designators in the FOM, keyed by name with the maximum number
+	 * of updates per second as the value. Note that this map is <b>unmodifiable</b>.
+	 */
+	public Map<String,Double> getUpdateRates()
+	{
+		return Collections.unmodifiableMap( this.updateRates );
+	}
 	
 	/////////////////////////////////////////////////////////////
 	//////////////////// ObjectClass Methods ////////////////////
@@ -251,6 +299,28 @@ public class ObjectModel implements Serializable
 		else if( name.startsWith("hlaobjectroot.") )
 			name = name.substring(14);
 		
+		// look the name up in the index if we're locked, otherwise walk the classes
+		ModelIndex index = getIndex();
+		OCMetadata found = index != null ? index.getObjectClass(name) : findObjectClass(name);
+		if( found != null )
+			return found;
+		
+		// make sure that we haven't got the root name itself, if we get this far without finding
+		// anything, we may well have it
+		if( name.equalsIgnoreCase("objectroot") || name.equalsIgnoreCase("hlaobjectroot") )
+			return this.getObjectRoot();
+		
+		// the only other thing that could have gotten missed is a MOM class
+		// below will return null if it isn't a MOM class
+		return this.getObjectClass( Mom.getMomClassHandle(version,name) );
+	}
+	
+	/**
+	 * Walk all the object classes looking for one with a version-safe qualified name that matches
+	 * the given name, and then for one with a matching local name. Used when we have no index.
+	 */
+	private OCMetadata findObjectClass( String name )
+	{
 		// check for the qualified version of the name first, but using version-safe qualified
 		for( OCMetadata oc : this.oclasses.values() )
 		{
@@ -271,16 +341,9 @@ public class ObjectModel implements Serializable
 			}
 		}
 		
-		// make sure that we haven't got the root name itself, if we get this far without finding
-		// anything, we may well have it
-		if( name.equalsIgnoreCase("objectroot") || name.equalsIgnoreCase("hlaobjectroot") )
-			return this.getObjectRoot();
-		
-		// the only other thing that could have gotten missed is a MOM class
-		// below will return null if it isn't a MOM class
-		return this.getObjectClass( Mom.getMomClassHandle(version,name) );
+		return null;
 	}
-	
+
 	/**
 	 * This method will fetch the {@link ACMetadata} for the attribute of the given name in the
 	 * class of the given handle. If the name doesn't represent a valid attribute, or the handle
@@ -428,6 +491,7 @@ public class ObjectModel implements Serializable
 		if( removed != null )
 		{
 			removed.setModel( null );
+			clearIndex();
 		}
 		
 		return removed;
@@ -475,6 +539,13 @@ public class ObjectModel implements Serializable
 	 */
 	public String findAttributeName( int attributeHandle )
 	{
+		ModelIndex index = getIndex();
+		if( index != null )
+		{
+			ACMetadata attributeClass = index.getAttribute( attributeHandle );
+			return attributeClass != null ? attributeClass.getName() : attributeHandle+" <unknown>";
+		}
+
 		for( OCMetadata objectClass : this.oclasses.values() )
 		{
 			ACMetadata attributeClass = objectClass.getDeclaredAttribute( attributeHandle );
@@ -534,6 +605,28 @@ public class ObjectModel implements Serializable
 		else if( name.startsWith("hlainteractionroot.") )
 			name = name.substring(19);
 		
+		// look the name up in the index if we're locked, otherwise walk the classes
+		ModelIndex index = getIndex();
+		ICMetadata found = index != null ? index.getInteractionClass(name)
+		                                 : findInteractionClass(name);
+		if( found != null )
+			return found;
+		
+		// make sure that we haven't got the root name itself, if we get this far without finding
+		// anything, we may well have it
+		if( name.equalsIgnoreCase("InteractionRoot") ||
+			name.equalsIgnoreCase("HLAinteractionRoot") )
+			return this.getInteractionRoot();
+
+		// we didn't find the name, return null
+		return null;
+	}
+	
+	/**
+	 * Same as {@link #findObjectClass(String)}, but for interaction classes.
+	 */
+	private ICMetadata findInteractionClass( String name )
+	{
 		// check for the qualified version of the name first, but using version-safe qualified
 		for( ICMetadata ic : this.iclasses.values() )
 		{
@@ -553,17 +646,10 @@ public class ObjectModel implements Serializable
 				return ic;
 			}
 		}
-		
-		// make sure that we haven't got the root name itself, if we get this far without finding
-		// anything, we may well have it
-		if( name.equalsIgnoreCase("InteractionRoot") ||
-			name.equalsIgnoreCase("HLAinteractionRoot") )
-			return this.getInteractionRoot();
 
-		// we didn't find the name, return null
 		return null;
 	}
-	
+
 	/**
 	 * Get the class that represents InteractionRoot (or HLAInteractionRoot in 1516). If it has not
 	 * yet been set, null will be returned. 
@@ -636,7 +722,11 @@ public class ObjectModel implements Serializable
 	 */
 	public ICMetadata removeInteractionClass( int handle )
 	{
-		return this.iclasses.remove( handle );
+		ICMetadata removed = this.iclasses.remove( handle );
+		if( removed != null )
+			clearIndex();
+
+		return removed;
 	}
 	
 	/**
@@ -681,6 +771,13 @@ public class ObjectModel implements Serializable
 	 */
 	public String findParameterName( int parameterHandle )
 	{
+		ModelIndex index = getIndex();
+		if( index != null )
+		{
+			PCMetadata parameterClass = index.getParameter( parameterHandle );
+			return parameterClass != null ? parameterClass.getName() : "<unknown>";
+		}
+
 		for( ICMetadata interactionClass : this.iclasses.values() )
 		{
 			PCMetadata parameterClass = interactionClass.getDeclaredParameter( parameterHandle );
@@ -695,19 +792,58 @@ public class ObjectModel implements Serializable
 	//////////////////// Dynamic FOM Methods ////////////////////
 	/////////////////////////////////////////////////////////////
 	/**
-	 * Locks this model so that changes can no longer be made. 
+	 * Locks this model so that changes can no longer be made. Once locked, the model builds an
+	 * index of all its class, attribute, parameter, space and dimension names so that they can
+	 * be looked up without walking the whole model.
 	 */
 	public synchronized void lock()
 	{
 		this.locked = true;
+		this.index = new ModelIndex( oclasses.values(), iclasses.values(), spaces.values() );
 	}
 	
 	/**
-	 * Unlocks this model so that changes can be made once again 
+	 * Unlocks this model so that changes can be made once again. The name index is discarded
+	 * until the model is next locked.
 	 */
 	public synchronized void unlock()
 	{
 		this.locked = false;
+		this.index = null;
+	}
+
+	public boolean isLocked()
+	{
+		return this.locked;
+	}
+
+	/**
+	 * Returns the name index for this model, or null if the model isn't locked (in which case
+	 * lookups have to walk the model). The index isn't serialized, so a locked model that has
+	 * come across the wire (or that has been changed since it was locked) builds it again here.
+	 */
+	ModelIndex getIndex()
+	{
+		ModelIndex current = this.index;
+		if( current != null || this.locked == false )
+			return current;
+
+		synchronized( this )
+		{
+			if( this.index == null && this.locked )
+				this.index = new ModelIndex( oclasses.values(), iclasses.values(), spaces.values() );
+
+			return this.index;
+		}
+	}
+
+	/**
+	 * Throw away the name index because something in the model has changed. It will be rebuilt
+	 * the next time a lookup needs it.
+	 */
+	void clearIndex()
+	{
+		this.index = null;
 	}
 	
 	/////////////////////////////////////////////////////////////
@@ -15,9 +15,13 @@
 package org.portico.lrc.model;
 
 import java.io.Serializable;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.portico.lrc.compat.JArrayIndexOutOfBounds;
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 
 /**
  * This class represents a <b>HLA 1.3</b> Region.
@@ -39,7 +43,7 @@ public class RegionInstance implements Serializable
 	//----------------------------------------------------------
 	private int spaceHandle;
 	private int regionToken;
-	private Extent[] extents;
+	private volatile Extent[] extents;
 	private int federateHandle;
 
 	//----------------------------------------------------------
@@ -68,6 +72,30 @@ public class RegionInstance implements Serializable
 			this.extents[i] = new Extent( space );
 	}
 
+	/**
+	 * Create a new region instance that only uses some of the dimensions of the given space
+	 * (as HLA 1516e regions do). See {@link Extent#Extent(Space, Set)}.
+	 * 
+	 * @param federateHandle the handle of the federate that created the region
+	 * @param regionToken    the token (id) given to this region instance
+	 * @param space          the space that holds the dimensions
+	 * @param dimensions     the handles of the dimensions the region uses
+	 * @param extentCount    the number of extents this region is to have
+	 */
+	public RegionInstance( int federateHandle,
+	                       int regionToken,
+	                       Space space,
+	                       Set<Integer> dimensions,
+	                       int extentCount )
+	{
+		this.federateHandle = federateHandle;
+		this.regionToken = regionToken;
+		this.spaceHandle = space.getHandle();
+		this.extents = new Extent[extentCount];
+		for( int i = 0; i < extentCount; i++ )
+			this.extents[i] = new Extent( space, dimensions );
+	}
+
 	/**
 	 * This constructor is used in the {@link #clone()} method only. It doesn't require a
 	 * {@link Space} as it doesn't need to build the entire instance from scratch.
@@ -117,14 +145,17 @@ public class RegionInstance implements Serializable
 		this.regionToken = other.regionToken;
 		this.federateHandle = other.federateHandle;
 		this.spaceHandle = other.spaceHandle;
-		this.extents = new Extent[other.extents.length];
 		
 		// we can clone the extents to create new versions
 		// no internal component should hold a reference to the Extents directly,
 		// so there is no danger in creating new instances only to have something
-		// holding on to the old ones
-		for( int i = 0; i < extents.length; i++ )
-			this.extents[i] = other.extents[i].clone();
+		// holding on to the old ones. Fill the new array before swapping it in, as other
+		// threads may be checking this region for overlaps while it is being changed
+		Extent[] newExtents = new Extent[other.extents.length];
+		for( int i = 0; i < newExtents.length; i++ )
+			newExtents[i] = other.extents[i].clone();
+
+		this.extents = newExtents;
 	}
 
 	/**
@@ -145,6 +176,14 @@ public class RegionInstance implements Serializable
 		}
 	}
 
+	/**
+	 * Hashes on the region token only, to go along with {@link #equals(Object)}.
+	 */
+	public int hashCode()
+	{
+		return this.regionToken;
+	}
+
 	/**
 	 * Checks the provided index to make sure it is valid for this Region (greater than 0 and
 	 * less than the number of contained extents-1). If the index is not OK, an exception will
@@ -177,6 +216,27 @@ public class RegionInstance implements Serializable
 		return this.extents.length;
 	}
 
+	/**
+	 * Get all the extents stored in this region. This is the array the region holds, so it
+	 * shouldn't be changed.
+	 */
+	public Extent[] getExtents()
+	{
+		return this.extents;
+	}
+
+	/**
+	 * Get the handles of the dimensions this region has ranges for. All the extents of a region
+	 * have the same dimensions. If the region has no extents, an empty set is returned.
+	 */
+	public Set<Integer> getDimensions()
+	{
+		if( extents.length == 0 )
+			return new HashSet<Integer>();
+		else
+			return new HashSet<Integer>( extents[0].getAllRanges().keySet() );
+	}
+
 	/**
 	 * Set the extent at the given index. If the index is below 0 or greater than the
 	 * number of extents in this region, an exception will be thrown. If the extent is
@@ -371,8 +431,38 @@ public class RegionInstance implements Serializable
 		return getRangeUpperBound( extentHandle, dimensionHandle );
 	}
 
+	//////////////////////////////////////////////////////////////////////////////////////////
+	//////////////////////////////// Wire Marshaling Methods /////////////////////////////////
+	//////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Write the full state of this region (including all extent data) to the given output so
+	 * that it can be sent as part of a message. See {@link #unmarshal(MessageInput)}.
+	 */
+	public void marshal( MessageOutput output )
+	{
+		output.writeInt( regionToken );
+		output.writeInt( federateHandle );
+		output.writeInt( spaceHandle );
+		output.writeInt( extents.length );
+		for( Extent extent : extents )
+			extent.marshal( output );
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
+	/**
+	 * Read a region written by {@link #marshal(MessageOutput)} back from the given input.
+	 */
+	public static RegionInstance unmarshal( MessageInput input )
+	{
+		RegionInstance region = new RegionInstance( input.readInt(),   // token
+		                                            input.readInt(),   // federate
+		                                            input.readInt(),   // space
+		                                            input.readInt() ); // extent count
+		for( int i = 0; i < region.extents.length; i++ )
+			region.extents[i] = Extent.unmarshal( input );
 
+		return region;
+	}
 }
@@ -76,6 +76,7 @@ public class Space implements Serializable
 		
 		// no existing dimension, throw this one in
 		this.dimensions.put( dimension.getHandle(), dimension );
+		modelChanged();
 		// assign the container property of the dimension to us
 		dimension.setContainer( this );
 		return true;
@@ -95,6 +96,7 @@ public class Space implements Serializable
 		else
 		{
 			dimension.setContainer( null );
+			modelChanged();
 			return dimension;
 		}
 	}
@@ -114,6 +116,10 @@ public class Space implements Serializable
 	 */
 	public Dimension getDimension( String dimensionName )
 	{
+		Map<String,Dimension> indexed = getIndexedDimensions();
+		if( indexed != null )
+			return indexed.get( dimensionName );
+
 		for( Dimension temp : dimensions.values() )
 		{
 			if( temp.getName().equals(dimensionName) )
@@ -139,6 +145,10 @@ public class Space implements Serializable
 	 */
 	public boolean hasDimension( String dimensionName )
 	{
+		Map<String,Dimension> indexed = getIndexedDimensions();
+		if( indexed != null )
+			return indexed.containsKey( dimensionName );
+
 		for( Dimension temp : dimensions.values() )
 		{
 			if( temp.getName().equals(dimensionName) )
@@ -163,6 +173,12 @@ public class Space implements Serializable
 	 */
 	public int getDimensionHandle( String dimensionName )
 	{
+		// try for an exact match in the index first, this lookup ignores case though
+		Map<String,Dimension> indexed = getIndexedDimensions();
+		Dimension dimension = indexed == null ? null : indexed.get( dimensionName );
+		if( dimension != null )
+			return dimension.getHandle();
+
 		for( Dimension temp: this.dimensions.values() )
 		{
 			if( temp.getName().equalsIgnoreCase(dimensionName) )
@@ -201,6 +217,26 @@ public class Space implements Serializable
 		return this.name;
 	}
 
+	/**
+	 * Returns the dimensions of this space by name from the model's name index, or null if the
+	 * model doesn't have an index at the moment (or we aren't part of a model).
+	 */
+	private Map<String,Dimension> getIndexedDimensions()
+	{
+		ModelIndex index = model == null ? null : model.getIndex();
+		return index == null ? null : index.getDimensions( handle );
+	}
+
+	/**
+	 * Let the model know that our dimensions have changed, so that it doesn't keep using a
+	 * name index that no longer matches.
+	 */
+	private void modelChanged()
+	{
+		if( this.model != null )
+			this.model.clearIndex();
+	}
+
 	public ObjectModel getModel()
 	{
 		return this.model;
@@ -28,7 +28,7 @@ import org.portico.utils.messaging.MessageHandler;
  * values in the {@link RegionStore}.
  */
 @MessageHandler(modules="lrc-base",
-                keywords={"lrc13","lrcjava1","lrc1516"},
+                keywords={"lrc13","lrcjava1","lrc1516","lrc1516e"},
                 sinks="incoming",
                 priority=7, // we want to handle it before any callback handler
                 messages=ModifyRegion.class)
@@ -76,7 +76,7 @@ public class ModifiedRegionHandler extends LRCMessageHandler
 		if( regionOnFile == null )
 			regions.addRegion( region.clone() );
 		else
-			regionOnFile.copy( region );
+			regions.updateRegion( regionOnFile, region );
 
 		if( logger.isInfoEnabled() )
 		{
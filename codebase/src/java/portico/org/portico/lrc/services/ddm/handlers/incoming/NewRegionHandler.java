@@ -29,7 +29,7 @@ import org.portico.utils.messaging.MessageHandler;
  * the region and store it locally.
  */
 @MessageHandler(modules="lrc-base",
-                keywords={"lrc13","lrcjava1","lrc1516"},
+                keywords={"lrc13","lrcjava1","lrc1516","lrc1516e"},
                 sinks="incoming",
                 priority=7, // we want to handle it before any callback handler
                 messages=CreateRegion.class)
@@ -76,7 +76,19 @@ public class NewRegionHandler extends LRCMessageHandler
 			throw new JSpaceNotDefined( "space handle: " + spaceHandle );
 		
 		// create and store the region locally and store it
-		RegionInstance region = new RegionInstance( federate, regionToken, space, extentCount );
+		RegionInstance region = null;
+		if( notice.getDimensions() == null )
+		{
+			region = new RegionInstance( federate, regionToken, space, extentCount );
+		}
+		else
+		{
+			region = new RegionInstance( federate,
+			                             regionToken,
+			                             space,
+			                             notice.getDimensions(),
+			                             extentCount );
+		}
 		regions.addRegion( region );
 		
 		if( logger.isInfoEnabled() )
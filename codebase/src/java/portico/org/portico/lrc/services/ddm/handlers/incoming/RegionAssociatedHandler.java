@@ -33,7 +33,7 @@ import org.portico.utils.messaging.MessageHandler;
  * take away any reference to the region.
  */
 @MessageHandler(modules="lrc-base",
-                keywords={"lrc13","lrcjava1","lrc1516"},
+                keywords={"lrc13","lrcjava1","lrc1516","lrc1516e"},
                 sinks="incoming",
                 priority=7, // we want to handle it before any callback handler
                 messages=AssociateRegion.class)
@@ -27,7 +27,7 @@ import org.portico.utils.messaging.MessageContext;
 import org.portico.utils.messaging.MessageHandler;
 
 @MessageHandler(modules="lrc-base",
-                keywords={"lrc13","lrcjava1","lrc1516"},
+                keywords={"lrc13","lrcjava1","lrc1516","lrc1516e"},
                 sinks="outgoing",
                 messages=CreateRegion.class)
 public class CreateRegionHandler extends LRCMessageHandler
@@ -80,10 +80,23 @@ public class CreateRegionHandler extends LRCMessageHandler
 		
 		// create the region and store it locally, we'll broadcast out the handle as well
 		int regionToken = lrcState.nextRegionToken();
-		RegionInstance newRegion = new RegionInstance( lrcState.getFederateHandle(),
-		                                               regionToken,
-		                                               space,
-		                                               extentCount );
+		RegionInstance newRegion = null;
+		if( request.getDimensions() == null )
+		{
+			newRegion = new RegionInstance( lrcState.getFederateHandle(),
+			                                regionToken,
+			                                space,
+			                                extentCount );
+		}
+		else
+		{
+			// 1516e region, only uses some of the dimensions
+			newRegion = new RegionInstance( lrcState.getFederateHandle(),
+			                                regionToken,
+			                                space,
+			                                request.getDimensions(),
+			                                extentCount );
+		}
 		regions.addRegion( newRegion );
 		
 		// notify all the other federates
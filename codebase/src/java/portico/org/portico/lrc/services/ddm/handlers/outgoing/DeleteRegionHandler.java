@@ -23,7 +23,7 @@ import org.portico.utils.messaging.MessageContext;
 import org.portico.utils.messaging.MessageHandler;
 
 @MessageHandler(modules="lrc-base",
-                keywords={"lrc13","lrcjava1","lrc1516"},
+                keywords={"lrc13","lrcjava1","lrc1516","lrc1516e"},
                 sinks="outgoing",
                 messages=DeleteRegion.class)
 public class DeleteRegionHandler extends LRCMessageHandler
@@ -61,8 +61,8 @@ public class DeleteRegionHandler extends LRCMessageHandler
 		if( logger.isDebugEnabled() )
 			logger.debug( "ATTEMPT Delete Region: token=" + regionToken );
 
-		// try to locate the region first
-		if( regions.containsRegion(regionToken) == false )
+		// try to locate the region first, we can only delete those we created
+		if( regions.getRegionWeCreated(regionToken) == null )
 			throw new JRegionNotKnown( "token: " + regionToken );
 		
 		// check to make sure the region isn't in use
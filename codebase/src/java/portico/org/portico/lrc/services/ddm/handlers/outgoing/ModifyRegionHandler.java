@@ -29,7 +29,7 @@ import org.portico.utils.messaging.MessageContext;
 import org.portico.utils.messaging.MessageHandler;
 
 @MessageHandler(modules="lrc-base",
-                keywords={"lrc13","lrcjava1","lrc1516"},
+                keywords={"lrc13","lrcjava1","lrc1516","lrc1516e"},
                 sinks="outgoing",
                 messages=ModifyRegion.class)
 public class ModifyRegionHandler extends LRCMessageHandler
@@ -91,10 +91,12 @@ public class ModifyRegionHandler extends LRCMessageHandler
 		//////////////////////////
 		for( int i = 0; i < region.getNumberOfExtents(); i++ )
 		{
-			for( Dimension dimension : space.getDimensions() )
+			// only look at the dimensions the region uses (all of them in HLA 1.3)
+			for( Integer dimensionHandle : regionOnFile.getDimensions() )
 			{
-				long lowerBound = region.getRangeLowerBound( i, dimension.getHandle() );
-				long upperBound = region.getRangeUpperBound( i, dimension.getHandle() );
+				Dimension dimension = space.getDimension( dimensionHandle );
+				long lowerBound = region.getRangeLowerBound( i, dimensionHandle );
+				long upperBound = region.getRangeUpperBound( i, dimensionHandle );
 				
 				// check that the bounds don't go below or above the max/min values
 				if( lowerBound < PorticoConstants.MIN_EXTENT )
@@ -103,10 +105,10 @@ public class ModifyRegionHandler extends LRCMessageHandler
 					                           PorticoConstants.MIN_EXTENT + ",value:" +
 					                           lowerBound + ")" );
 				}
-				else if( upperBound > PorticoConstants.MAX_EXTENT )
+				else if( upperBound > dimension.getUpperBound() )
 				{
 					throw new JInvalidExtents( "upper bound outside valid range (max:" + 
-					                           PorticoConstants.MAX_EXTENT + ",value:" +
+					                           dimension.getUpperBound() + ",value:" +
 					                           upperBound + ")" );
 				}
 				
@@ -121,11 +123,12 @@ public class ModifyRegionHandler extends LRCMessageHandler
 
 		// copy the values into the existing region. we can't just clone it and store the copy
 		// because various interest management data structures will be holding references to the
-		// original instance.
-		regionOnFile.copy( region );
+		// original instance. the store needs to know so that it can re-index the region.
+		regions.updateRegion( regionOnFile, region );
 		
-		// broacast out the change to the federation
-		connection.broadcast( request );
+		// broacast out the change to the federation. Others use our regions to decide whether
+		// to send us updates, so wait until they all have the new values before returning
+		connection.broadcastAndWait( request );
 		
 		// replace the region in the request with a clone so that future
 		// changes to the given instance don't affect the internal RTI
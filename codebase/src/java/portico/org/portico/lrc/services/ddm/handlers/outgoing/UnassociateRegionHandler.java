@@ -27,7 +27,7 @@ import org.portico.utils.messaging.MessageContext;
 import org.portico.utils.messaging.MessageHandler;
 
 @MessageHandler(modules="lrc-base",
-                keywords={"lrc13","lrcjava1","lrc1516"},
+                keywords={"lrc13","lrcjava1","lrc1516","lrc1516e"},
                 sinks="outgoing",
                 messages=UnassociateRegion.class)
 public class UnassociateRegionHandler extends LRCMessageHandler
@@ -75,7 +75,7 @@ public class UnassociateRegionHandler extends LRCMessageHandler
 			throw new JObjectNotKnown( "object handle: " + objectHandle );
 		
 		// validate that the region exists
-		RegionInstance theRegion = regions.getRegion( regionToken );
+		RegionInstance theRegion = regions.getRegionWeCreated( regionToken );
 		if( theRegion == null )
 			throw new JRegionNotKnown( "token: " + regionToken );
 		
@@ -16,6 +16,8 @@ package org.portico.lrc.services.ddm.msg;
 
 import java.util.HashSet;
 
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 public class AssociateRegion extends PorticoMessage
@@ -83,6 +85,27 @@ public class AssociateRegion extends PorticoMessage
 		this.attributes = attributes;
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeInt( this.regionToken );
+		output.writeInt( this.objectHandle );
+		output.writeIntCollection( this.attributes );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.regionToken = input.readInt();
+		this.objectHandle = input.readInt();
+		this.attributes = input.readIntSet();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -18,7 +18,10 @@ import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.Set;
 
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 public class CreateRegion extends PorticoMessage implements Externalizable
@@ -33,6 +36,7 @@ public class CreateRegion extends PorticoMessage implements Externalizable
 	//----------------------------------------------------------
 	private int spaceHandle;
 	private int extentCount;
+	private Set<Integer> dimensions; // null means all the dimensions in the space (HLA 1.3)
 	
 	// set only when region is created as a result of this request, this is here because the
 	// message is broadcast out to other federates to let them know the details of the new region
@@ -52,11 +56,30 @@ public class CreateRegion extends PorticoMessage implements Externalizable
 		this();
 		this.spaceHandle = spaceHandle;
 		this.extentCount = extentCount;
+		this.dimensions = null;
+	}
+
+	/**
+	 * Create a region that only uses the given dimensions of the space (HLA 1516e)
+	 */
+	public CreateRegion( int spaceHandle, Set<Integer> dimensions, int extentCount )
+	{
+		this( spaceHandle, extentCount );
+		this.dimensions = dimensions;
 	}
 	
 	//----------------------------------------------------------
 	//                    INSTANCE METHODS
 	//----------------------------------------------------------
+	/**
+	 * Other federates need to know about a region before any subscription that uses it arrives
+	 * (subscriptions are processed as soon as they arrive), so this is processed immediately too.
+	 */
+	@Override
+	public boolean isImmediateProcessingRequired()
+	{
+		return true;
+	}
 
 	public int getSpaceHandle()
     {
@@ -78,6 +101,20 @@ public class CreateRegion extends PorticoMessage implements Externalizable
     	this.extentCount = extentCount;
     }
 
+	/**
+	 * @return The handles of the dimensions the region should use, or <code>null</code> if it
+	 *         should use all the dimensions of the space
+	 */
+	public Set<Integer> getDimensions()
+	{
+		return this.dimensions;
+	}
+
+	public void setDimensions( Set<Integer> dimensions )
+	{
+		this.dimensions = dimensions;
+	}
+
 	public int getRegionToken()
 	{
 		return this.regionToken;
@@ -91,11 +128,13 @@ public class CreateRegion extends PorticoMessage implements Externalizable
 	/////////////////////////////////////////////////////////////
 	/////////////////// Serialization Methods ///////////////////
 	/////////////////////////////////////////////////////////////
+	@SuppressWarnings("unchecked")
 	public void readExternal( ObjectInput input ) throws IOException, ClassNotFoundException
 	{
 		super.readExternal( input );
 		this.spaceHandle = input.readInt();
 		this.extentCount = input.readInt();
+		this.dimensions = (Set<Integer>)input.readObject();
 		this.regionToken = input.readInt();
 	}
 	
@@ -104,9 +143,33 @@ public class CreateRegion extends PorticoMessage implements Externalizable
 		super.writeExternal( output );
 		output.writeInt( this.spaceHandle );
 		output.writeInt( this.extentCount );
+		output.writeObject( this.dimensions );
 		output.writeInt( this.regionToken );
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeInt( this.spaceHandle );
+		output.writeInt( this.extentCount );
+		output.writeIntCollection( this.dimensions );
+		output.writeInt( this.regionToken );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.spaceHandle = input.readInt();
+		this.extentCount = input.readInt();
+		this.dimensions = input.readIntSet();
+		this.regionToken = input.readInt();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -19,6 +19,8 @@ import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 public class DeleteRegion extends PorticoMessage implements Externalizable
@@ -51,6 +53,15 @@ public class DeleteRegion extends PorticoMessage implements Externalizable
 	//----------------------------------------------------------
 	//                    INSTANCE METHODS
 	//----------------------------------------------------------
+	/**
+	 * Processed immediately so that it is handled in order with the creation and modification of
+	 * the region, which are also processed as soon as they arrive.
+	 */
+	@Override
+	public boolean isImmediateProcessingRequired()
+	{
+		return true;
+	}
 
 	public int getRegionToken()
     {
@@ -77,6 +88,23 @@ public class DeleteRegion extends PorticoMessage implements Externalizable
 		output.writeInt( this.regionToken );
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeInt( this.regionToken );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.regionToken = input.readInt();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
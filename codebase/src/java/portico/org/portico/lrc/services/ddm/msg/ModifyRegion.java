@@ -20,6 +20,8 @@ import java.io.ObjectInput;
 import java.io.ObjectOutput;
 
 import org.portico.lrc.model.RegionInstance;
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 public class ModifyRegion extends PorticoMessage implements Externalizable
@@ -52,6 +54,15 @@ public class ModifyRegion extends PorticoMessage implements Externalizable
 	//----------------------------------------------------------
 	//                    INSTANCE METHODS
 	//----------------------------------------------------------
+	/**
+	 * Other federates compare their updates against our subscription regions to decide whether
+	 * to send them to us, so they need the new values straight away, not the next time they tick.
+	 */
+	@Override
+	public boolean isImmediateProcessingRequired()
+	{
+		return true;
+	}
 
 	public RegionInstance getRegion()
     {
@@ -78,6 +89,23 @@ public class ModifyRegion extends PorticoMessage implements Externalizable
 		output.writeObject( this.region );
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		this.region.marshal( output );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.region = RegionInstance.unmarshal( input );
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
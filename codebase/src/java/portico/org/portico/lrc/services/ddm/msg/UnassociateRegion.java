@@ -14,6 +14,8 @@
  */
 package org.portico.lrc.services.ddm.msg;
 
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 public class UnassociateRegion extends PorticoMessage
@@ -69,6 +71,25 @@ public class UnassociateRegion extends PorticoMessage
 		this.objectHandle = objectHandle;
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeInt( this.regionToken );
+		output.writeInt( this.objectHandle );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.regionToken = input.readInt();
+		this.objectHandle = input.readInt();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -14,13 +14,15 @@
  */
 package org.portico.lrc.services.federation.handlers.incoming;
 
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 
 import org.portico.lrc.LRCMessageHandler;
+import org.portico.lrc.LRCProperties;
 import org.portico.lrc.model.OCInstance;
-import org.portico.lrc.model.OCMetadata;
 import org.portico.lrc.services.federation.msg.RoleCall;
-import org.portico.lrc.services.object.msg.DiscoverObject;
+import org.portico.lrc.services.federation.msg.RoleCallObjects;
 import org.portico.lrc.services.sync.msg.SyncPointAchieved;
 import org.portico.lrc.services.sync.msg.SyncPointAnnouncement;
 import org.portico.utils.messaging.MessageContext;
@@ -86,43 +88,16 @@ public class RoleCallHandler extends LRCMessageHandler
 		// FOM module merging happens in here
 		notificationManager.remoteFederateJoinedFederation( notice );
 
-		//////////////////////////////////////////////////////////////////
-		// Process new Object Instance information from remote federate //
-		//////////////////////////////////////////////////////////////////
-		// For each of the objects the other federate controls, add them to the repository.
-		// If we can discover them based on current subscription information, do so
-		for( OCInstance instance : notice.getControlledObjects() )
-		{
-			// can the federate discover instances of this type?
-			OCMetadata discoverableType =
-				interests.getDiscoveryType( federateHandle(), instance.getDiscoveredClassHandle() );
-			if( discoverableType == null )
-			{
-				// can't discover it yet, store as "undiscovered type" for later use
-				repository.addUndiscoveredInstance( instance );
-				if( logger.isDebugEnabled() )
-				{
-					logger.debug( "(RoleCall) Adding undiscoverd instance ["+objectMoniker(instance)+
-					              "] following RoleCall notification" );
-				}
-			}
-			else
-			{
-				// can discover it! queue a callback
-				instance.setDiscoveredType( discoverableType );
-				repository.discoverInstance( instance, discoverableType );
-				DiscoverObject discover = new DiscoverObject( instance );
-				discover.setClassHandle( discoverableType.getHandle() );
-				discover.setSourceFederate( instance.getOwner() );
-				lrcState.getQueue().offer( discover );
-				if( logger.isDebugEnabled() )
-				{
-					logger.debug( "(RoleCall) Queued Discover callback for instance ["+
-					              objectMoniker(instance)+"] following RoleCall notification" );
-				}
-			}
-		}
-		
+		/////////////////////////////////////////////////////////////
+		// Process subscription information from remote federate //
+		/////////////////////////////////////////////////////////////
+		// we only send updates and interactions to those who subscribe to them, so we need
+		// to know what the federate subscribed to before we found out about it
+		recordSubscriptions( notice );
+
+		// The remote federate's object instances are not in here. If it is replying to our
+		// RoleCall, they came ahead of it in RoleCallObjects messages (see RoleCallObjectsHandler)
+
 		////////////////////////////////////////////////////////////////////
 		// Process synchronization point information from remote federate //
 		////////////////////////////////////////////////////////////////////
@@ -150,18 +125,105 @@ public class RoleCallHandler extends LRCMessageHandler
 		///////////////////////////////////////////
 		// send back information about outselves //
 		///////////////////////////////////////////
+		// Everyone else already knows about us, so this only goes to the new federate. Our
+		// objects go first, in chunks, so that it has them all by the time it sees our RoleCall
+		// and considers us known. Messages from us reach it in the order we send them.
+		sendControlledObjects( handle );
+
 		RoleCall role = new RoleCall( lrcState.getFederateHandle(),
 		                              lrcState.getFederateName(),
-		                              timeStatus().copy(),
-		                              repository.getControlledData(lrcState.getFederateHandle()) );
+		                              timeStatus().copy() );
 		syncManager.fillRolecall( role );
+		role.setSubscribedObjects( interests.getObjectSubscriptionSummary(federateHandle()) );
+		role.setSubscriptionRates( interests.getObjectSubscriptionRates(federateHandle()) );
+		role.setSubscribedInteractions( interests.getInteractionSubscriptionSummary(federateHandle()) );
 
 		fill( role, handle );
-		connection.broadcast( role );
+		connection.multicast( role, Collections.singleton(handle) );
 
 		context.success();
 	}
 
+	/**
+	 * Send the object instances the local federate controls to the given federate, at most
+	 * {@link LRCProperties#LRC_ROLECALL_CHUNK_SIZE} to a message. The repository is walked as
+	 * we go, so the whole set is never copied out in one go.
+	 */
+	private void sendControlledObjects( int target ) throws Exception
+	{
+		int chunkSize = Math.max( 1, LRCProperties.LRC_ROLECALL_CHUNK_SIZE );
+		int localHandle = federateHandle();
+		int sent = 0;
+
+		RoleCallObjects chunk = null;
+		for( OCInstance instance : repository.getAllInstances() )
+		{
+			if( instance.isOwner(localHandle) == false )
+				continue;
+
+			if( chunk == null )
+				chunk = new RoleCallObjects( chunkSize );
+
+			chunk.add( instance, localHandle );
+			if( chunk.isFull() )
+			{
+				sent += sendChunk( chunk, target );
+				chunk = null;
+			}
+		}
+
+		if( chunk != null )
+			sent += sendChunk( chunk, target );
+
+		if( sent > 0 && logger.isDebugEnabled() )
+			logger.debug( "(RoleCall) Sent ["+sent+"] controlled instances to federate ["+target+"]" );
+	}
+
+	private int sendChunk( RoleCallObjects chunk, int target ) throws Exception
+	{
+		fill( chunk, target );
+		connection.multicast( chunk, Collections.singleton(target) );
+		return chunk.size();
+	}
+
+	/**
+	 * Record the subscriptions the remote federate told us about in the interest manager. If
+	 * we can't record one of them, log it and move on. It is only used to figure out where to
+	 * send things, so it isn't worth failing the whole role call over.
+	 */
+	private void recordSubscriptions( RoleCall notice )
+	{
+		int handle = notice.getSourceFederate();
+		for( Map.Entry<Integer,Set<Integer>> entry : notice.getSubscribedObjects().entrySet() )
+		{
+			try
+			{
+				interests.subscribeObjectClass( handle, entry.getKey(), entry.getValue() );
+				Double rate = notice.getSubscriptionRates().get( entry.getKey() );
+				if( rate != null )
+					interests.setUpdateRate( handle, entry.getKey(), rate );
+			}
+			catch( Exception e )
+			{
+				logger.warn( "(RoleCall) Couldn't record subscription of federate ["+handle+
+				             "] to object class ["+entry.getKey()+"]: "+e.getMessage(), e );
+			}
+		}
+
+		for( Integer classHandle : notice.getSubscribedInteractions() )
+		{
+			try
+			{
+				interests.subscribeInteractionClass( handle, classHandle );
+			}
+			catch( Exception e )
+			{
+				logger.warn( "(RoleCall) Couldn't record subscription of federate ["+handle+
+				             "] to interaction class ["+classHandle+"]: "+e.getMessage(), e );
+			}
+		}
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
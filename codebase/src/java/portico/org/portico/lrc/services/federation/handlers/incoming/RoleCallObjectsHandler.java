@@ -0,0 +1,147 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.services.federation.handlers.incoming;
+
+import java.util.Map;
+
+import org.portico.lrc.LRCMessageHandler;
+import org.portico.lrc.model.ACInstance;
+import org.portico.lrc.model.OCInstance;
+import org.portico.lrc.model.OCMetadata;
+import org.portico.lrc.services.federation.msg.RoleCallObjects;
+import org.portico.lrc.services.object.msg.DiscoverObject;
+import org.portico.utils.messaging.MessageContext;
+import org.portico.utils.messaging.MessageHandler;
+
+/**
+ * Takes in a chunk of the object instances a federate that was here before us controls, sent in
+ * reply to our RoleCall. Each instance is stored, and if we are subscribed to its class, a
+ * discover callback is queued for it straight away rather than waiting for the rest.
+ */
+@MessageHandler(modules="lrc-base",
+                keywords={"lrc13","lrcjava1","lrc1516","lrc1516e"},
+                sinks="incoming",
+                messages=RoleCallObjects.class)
+public class RoleCallObjectsHandler extends LRCMessageHandler
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	public void initialize( Map<String,Object> properties )
+	{
+		super.initialize( properties );
+	}
+
+	public void process( MessageContext context ) throws Exception
+	{
+		vetoIfNotJoined();
+
+		RoleCallObjects notice = context.getRequest( RoleCallObjects.class, this );
+		int owner = notice.getSourceFederate();
+
+		// the objects come ahead of the sender's RoleCall. If we already know about it,
+		// we already know about its objects as well
+		if( lrcState.getKnownFederate(owner) != null )
+			veto();
+
+		if( logger.isDebugEnabled() )
+		{
+			logger.debug( "@REMOTE RoleCall objects received [count:"+notice.size()+
+			              "] from federate ["+owner+"]" );
+		}
+
+		// For each of the objects the other federate controls, add them to the repository.
+		// If we can discover them based on current subscription information, do so
+		for( int i = 0; i < notice.size(); i++ )
+		{
+			int objectHandle = notice.getObjectHandle( i );
+			if( repository.containsInstance(objectHandle) ||
+				repository.getUndiscoveredInstance(objectHandle) != null )
+			{
+				continue;
+			}
+
+			OCMetadata registeredType = fom().getObjectClass( notice.getClassHandle(i) );
+			if( registeredType == null )
+			{
+				logger.warn( "(RoleCall) Skipping instance ["+objectHandle+"] from federate ["+
+				             owner+"], unknown class ["+notice.getClassHandle(i)+"]" );
+				continue;
+			}
+
+			OCInstance instance = repository.newInstance( owner,
+			                                              registeredType,
+			                                              registeredType,
+			                                              objectHandle,
+			                                              notice.getObjectName(i),
+			                                              notice.getOwnedAttributes(i,registeredType),
+			                                              notice.getRegionTokens(i) );
+
+			// attributes that have since been acquired by someone else
+			for( int[] otherOwner : notice.getOtherOwners(i) )
+			{
+				ACInstance attribute = instance.getAttribute( otherOwner[0] );
+				if( attribute != null )
+					attribute.setOwner( otherOwner[1] );
+			}
+
+			// can the federate discover instances of this type?
+			OCMetadata discoverableType =
+				interests.getDiscoveryType( federateHandle(), registeredType.getHandle() );
+			if( discoverableType == null )
+			{
+				// can't discover it yet, store as "undiscovered type" for later use
+				repository.addUndiscoveredInstance( instance );
+				if( logger.isDebugEnabled() )
+				{
+					logger.debug( "(RoleCall) Adding undiscoverd instance ["+objectMoniker(instance)+
+					              "] following RoleCall notification" );
+				}
+			}
+			else
+			{
+				// can discover it! queue a callback
+				repository.discoverInstance( instance, discoverableType );
+				DiscoverObject discover = new DiscoverObject( instance );
+				discover.setClassHandle( discoverableType.getHandle() );
+				discover.setSourceFederate( owner );
+				lrcState.getQueue().offer( discover );
+				if( logger.isDebugEnabled() )
+				{
+					logger.debug( "(RoleCall) Queued Discover callback for instance ["+
+					              objectMoniker(instance)+"] following RoleCall notification" );
+				}
+			}
+		}
+
+		context.success();
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -77,6 +77,10 @@ public class CreateFederationHandler extends LRCMessageHandler
 		// look up MOM handles without using names (thus support cross spec-version naming schemes).
 		ObjectModel.mommify( combinedFOM );
 
+		// no more changes to make, lock the model down so that it indexes all its names
+		// (it is unlocked again when any later join modules are merged in)
+		combinedFOM.lock();
+
 		// we have our grand unified FOM!
 		request.setModel( combinedFOM );
 		
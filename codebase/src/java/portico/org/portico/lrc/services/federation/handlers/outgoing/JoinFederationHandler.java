@@ -114,11 +114,11 @@ public class JoinFederationHandler extends LRCMessageHandler
 		// notify the federation and wait for RoleCalls //
 		//////////////////////////////////////////////////
 		// broadcast out our information to the other federates and wait for them
-		// to send us back information about themselves
+		// to send us back information about themselves. We can't have any objects
+		// yet, so unlike the RoleCalls we get back, there is nothing to follow it
 		RoleCall rolecall = new RoleCall( lrcState.getFederateHandle(),
 		                                  lrcState.getFederateName(),
-		                                  timeStatus().copy(),
-		                                  repository.getControlledData(lrcState.getFederateHandle()) );
+		                                  timeStatus().copy() );
 		// don't forget the sync point data!
 		syncManager.fillRolecall( rolecall );
 		
@@ -19,6 +19,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.portico.lrc.model.ObjectModel;
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 /**
@@ -106,6 +108,26 @@ public class CreateFederation extends PorticoMessage
 		return this.fomModules;
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeString( this.federationName );
+		// FOM is heavy, but only goes out once on create. Not worth a format of its own
+		output.writeSerializable( this.objectModel );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.federationName = input.readString();
+		this.objectModel = input.readSerializable( ObjectModel.class );
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
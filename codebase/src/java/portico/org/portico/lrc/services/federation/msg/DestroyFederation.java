@@ -14,6 +14,8 @@
  */
 package org.portico.lrc.services.federation.msg;
 
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 public class DestroyFederation extends PorticoMessage
@@ -32,6 +34,12 @@ public class DestroyFederation extends PorticoMessage
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
 
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected DestroyFederation()
+	{
+		super();
+	}
+
 	public DestroyFederation( String name )
 	{
 		super();
@@ -52,6 +60,23 @@ public class DestroyFederation extends PorticoMessage
 		this.federationName = federationName;
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeString( this.federationName );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.federationName = input.readString();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -14,11 +14,14 @@
  */
 package org.portico.lrc.services.federation.msg;
 
+import java.io.Serializable;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.portico.lrc.model.ObjectModel;
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 public class JoinFederation extends PorticoMessage
@@ -128,6 +131,29 @@ public class JoinFederation extends PorticoMessage
 		return this.fomModules;
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeString( this.federateName );
+		output.writeString( this.federationName );
+		// FOM modules are heavy, but only go out once on join. Not worth a format of their own
+		output.writeSerializable( (Serializable)this.joinModules );
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.federateName = input.readString();
+		this.federationName = input.readString();
+		this.joinModules = input.readSerializable( ArrayList.class );
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -15,6 +15,8 @@
 package org.portico.lrc.services.federation.msg;
 
 import org.portico.lrc.compat.JResignAction;
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 public class ResignFederation extends PorticoMessage
@@ -96,6 +98,28 @@ public class ResignFederation extends PorticoMessage
 		return true;
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeString( this.federateName );
+		output.writeString( this.federationName );
+		output.writeByte( this.resignAction == null ? -1 : this.resignAction.ordinal() );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.federateName = input.readString();
+		this.federationName = input.readString();
+		byte action = input.readByte();
+		this.resignAction = action == -1 ? null : JResignAction.values()[action];
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -20,11 +20,15 @@ import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
-import org.portico.lrc.model.OCInstance;
 import org.portico.lrc.model.ObjectModel;
 import org.portico.lrc.services.time.data.TimeStatus;
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 /**
@@ -38,6 +42,11 @@ import org.portico.utils.messaging.PorticoMessage;
  * isn't ideal from a network traffic perspective, it is the simplest way to ge the information out
  * there, and the relative infrequency of federates joining a simultion means the excess traffic
  * problem is only a minor (at most) concern.
+ * <p/>
+ * Only the joining federate broadcasts its RoleCall. The replies are sent to the joining federate
+ * alone. The object instances a federate controls are not carried in here. They can number in
+ * the hundreds of thousands, so a replying federate sends them ahead of its RoleCall in a number
+ * of {@link RoleCallObjects} messages.
  */
 public class RoleCall extends PorticoMessage implements Externalizable
 {
@@ -51,9 +60,11 @@ public class RoleCall extends PorticoMessage implements Externalizable
 	//----------------------------------------------------------
 	private String federateName;
 	private TimeStatus timeStatus;
-	private OCInstance[] controlledObjects;
 	private HashMap<String,byte[]> syncPointTags;
 	private HashMap<String,Boolean> syncPointStatus; // label/whether federate has acheived it or not
+	private HashMap<Integer,Set<Integer>> subscribedObjects; // class handle/attribute handles
+	private HashMap<Integer,Double> subscriptionRates;      // class handle/max updates per second
+	private HashSet<Integer> subscribedInteractions;
 
 	private List<ObjectModel> additionalModules; // populated in 1516e only
 
@@ -69,16 +80,17 @@ public class RoleCall extends PorticoMessage implements Externalizable
 
 	public RoleCall( int federateHandle,
 	                 String federateName, 
-	                 TimeStatus status,
-	                 OCInstance[] controlledObjects )
+	                 TimeStatus status )
 	{
 		this();
 		this.federateName = federateName;
 		this.sourceFederate = federateHandle;
 		this.timeStatus = status;
-		this.controlledObjects = controlledObjects;
 		this.syncPointStatus = new HashMap<String,Boolean>();
 		this.syncPointTags = new HashMap<String,byte[]>();
+		this.subscribedObjects = new HashMap<Integer,Set<Integer>>();
+		this.subscriptionRates = new HashMap<Integer,Double>();
+		this.subscribedInteractions = new HashSet<Integer>();
 		setImmediateProcessingFlag( true );
 
 		// set in 1516e when the joining federate has provided additional modules
@@ -104,11 +116,6 @@ public class RoleCall extends PorticoMessage implements Externalizable
 		return this.timeStatus;
 	}
 	
-	public OCInstance[] getControlledObjects()
-	{
-		return this.controlledObjects;
-	}
-	
 	/**
 	 * This will NEVER return null. If there are no points, it will return an empty map.
 	 */
@@ -131,6 +138,58 @@ public class RoleCall extends PorticoMessage implements Externalizable
 			return syncPointTags;	
 	}
 
+	/**
+	 * The object class subscriptions of the federate, keyed by class handle with the subscribed
+	 * attributes as the value. Used by the receiver to know which updates the federate wants.
+	 * This will NEVER return null.
+	 */
+	public HashMap<Integer,Set<Integer>> getSubscribedObjects()
+	{
+		if( subscribedObjects == null )
+			return new HashMap<Integer,Set<Integer>>();
+		else
+			return subscribedObjects;
+	}
+
+	public void setSubscribedObjects( HashMap<Integer,Set<Integer>> subscribedObjects )
+	{
+		this.subscribedObjects = subscribedObjects;
+	}
+
+	/**
+	 * The update rates the federate subscribed to object classes with, keyed by class handle.
+	 * Only classes subscribed with a rate are included. This will NEVER return null.
+	 */
+	public HashMap<Integer,Double> getSubscriptionRates()
+	{
+		if( subscriptionRates == null )
+			return new HashMap<Integer,Double>();
+		else
+			return subscriptionRates;
+	}
+
+	public void setSubscriptionRates( HashMap<Integer,Double> subscriptionRates )
+	{
+		this.subscriptionRates = subscriptionRates;
+	}
+
+	/**
+	 * The handles of the interaction classes the federate subscribes to. This will NEVER
+	 * return null.
+	 */
+	public HashSet<Integer> getSubscribedInteractions()
+	{
+		if( subscribedInteractions == null )
+			return new HashSet<Integer>();
+		else
+			return subscribedInteractions;
+	}
+
+	public void setSubscribedInteractions( HashSet<Integer> subscribedInteractions )
+	{
+		this.subscribedInteractions = subscribedInteractions;
+	}
+
 	@Override
 	public boolean isImmediateProcessingRequired()
 	{
@@ -166,7 +225,6 @@ public class RoleCall extends PorticoMessage implements Externalizable
 		super.readExternal( input );
 		this.federateName = input.readUTF();
 		this.timeStatus = (TimeStatus)input.readObject();
-		this.controlledObjects = (OCInstance[])input.readObject();
 		
 		// read unsynchronized point data
 		boolean exists = input.readBoolean();
@@ -189,7 +247,6 @@ public class RoleCall extends PorticoMessage implements Externalizable
 		super.writeExternal( output );
 		output.writeUTF( this.federateName );
 		output.writeObject( this.timeStatus );
-		output.writeObject( this.controlledObjects );
 		
 		// write unsynchronized point data, if there is none, write false as the flag
 		// to signal this (to avoid sending an empty hashmap)
@@ -224,6 +281,99 @@ public class RoleCall extends PorticoMessage implements Externalizable
 		}
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeString( this.federateName );
+		this.timeStatus.marshal( output );
+
+		// sync point data
+		Map<String,Boolean> status = getSyncPointStatus();
+		output.writeInt( status.size() );
+		for( Map.Entry<String,Boolean> entry : status.entrySet() )
+		{
+			output.writeString( entry.getKey() );
+			output.writeBoolean( entry.getValue() );
+		}
+
+		Map<String,byte[]> tags = getSyncPointTags();
+		output.writeInt( tags.size() );
+		for( Map.Entry<String,byte[]> entry : tags.entrySet() )
+		{
+			output.writeString( entry.getKey() );
+			output.writeBytes( entry.getValue() );
+		}
+
+		// subscription data
+		Map<Integer,Set<Integer>> objects = getSubscribedObjects();
+		output.writeInt( objects.size() );
+		for( Map.Entry<Integer,Set<Integer>> entry : objects.entrySet() )
+		{
+			output.writeInt( entry.getKey() );
+			output.writeIntCollection( entry.getValue() );
+		}
+
+		Map<Integer,Double> rates = getSubscriptionRates();
+		output.writeInt( rates.size() );
+		for( Map.Entry<Integer,Double> entry : rates.entrySet() )
+		{
+			output.writeInt( entry.getKey() );
+			output.writeDouble( entry.getValue() );
+		}
+
+		output.writeIntCollection( getSubscribedInteractions() );
+
+		// FOM modules are deep model graphs that still go through serialization. They are
+		// only present in the RoleCall of a joining 1516e federate, so this is tolerable
+		if( this.additionalModules == null || this.additionalModules.isEmpty() )
+			output.writeSerializable( null );
+		else
+			output.writeSerializable( new ArrayList<ObjectModel>(this.additionalModules) );
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.federateName = input.readString();
+		this.timeStatus = new TimeStatus();
+		this.timeStatus.unmarshal( input );
+
+		// sync point data
+		int count = input.readInt();
+		this.syncPointStatus = new HashMap<String,Boolean>();
+		for( int i = 0; i < count; i++ )
+			this.syncPointStatus.put( input.readString(), input.readBoolean() );
+
+		count = input.readInt();
+		this.syncPointTags = new HashMap<String,byte[]>();
+		for( int i = 0; i < count; i++ )
+			this.syncPointTags.put( input.readString(), input.readBytes() );
+
+		// subscription data
+		count = input.readInt();
+		this.subscribedObjects = new HashMap<Integer,Set<Integer>>();
+		for( int i = 0; i < count; i++ )
+			this.subscribedObjects.put( input.readInt(), input.readIntSet() );
+
+		count = input.readInt();
+		this.subscriptionRates = new HashMap<Integer,Double>();
+		for( int i = 0; i < count; i++ )
+			this.subscriptionRates.put( input.readInt(), input.readDouble() );
+
+		this.subscribedInteractions = input.readIntSet();
+
+		// FOM modules
+		this.additionalModules = input.readSerializable( ArrayList.class );
+		if( this.additionalModules == null )
+			this.additionalModules = new ArrayList<ObjectModel>();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -0,0 +1,339 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.services.federation.msg;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.portico.lrc.model.ACInstance;
+import org.portico.lrc.model.OCInstance;
+import org.portico.lrc.model.OCMetadata;
+import org.portico.lrc.model.RegionInstance;
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
+import org.portico.utils.messaging.PorticoMessage;
+
+/**
+ * When a federate replies to the {@link RoleCall} of a newly joined federate, it tells that
+ * federate about the object instances it controls in a series of these messages, each holding
+ * at most {@link org.portico.lrc.LRCProperties#LRC_ROLECALL_CHUNK_SIZE} instances. They are sent
+ * only to the joining federate, ahead of the sender's own {@link RoleCall}, so by the time the
+ * joiner knows about the sender it has all of its objects.
+ * <p/>
+ * Rather than the full {@link OCInstance} graph, each instance is sent as its registered class
+ * handle, object handle and name, plus a bitmap of the attributes the sender owns. The bits are
+ * in the order of the attribute handles of the registered class, which both sides get from the
+ * same FOM. Attributes owned by some other federate and attributes associated with a region are
+ * rare, so they are sent as a list of exceptions (pairs of attribute handle and owner/region
+ * token) that is usually empty.
+ */
+public class RoleCallObjects extends PorticoMessage implements Externalizable
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final long serialVersionUID = 98121116105109L;
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private int count;
+	private int[] classHandles;
+	private int[] objectHandles;
+	private String[] objectNames;
+	private byte[][] ownedAttributes; // bitmap, see attributeOrder()
+	private int[][] otherOwners;      // attribute/owner pairs, null if there are none
+	private int[][] regionTokens;     // attribute/region token pairs, null if there are none
+
+	// sorted attribute handles of each class we have seen, keyed by class handle
+	private transient Map<Integer,int[]> attributeOrders;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	/** <b>DO NOT USE</b> This is only provided because the deserialization of Externalizable
+	    objects requires that the class have a 0-arg constructor */
+	public RoleCallObjects()
+	{
+		super();
+		setImmediateProcessingFlag( true );
+	}
+
+	/**
+	 * Create an empty message that can hold up to <code>capacity</code> instances
+	 */
+	public RoleCallObjects( int capacity )
+	{
+		this();
+		this.count = 0;
+		this.classHandles = new int[capacity];
+		this.objectHandles = new int[capacity];
+		this.objectNames = new String[capacity];
+		this.ownedAttributes = new byte[capacity][];
+		this.otherOwners = new int[capacity][];
+		this.regionTokens = new int[capacity][];
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	/**
+	 * Add the given instance, which is controlled by the federate with the given handle, to the
+	 * message. Check {@link #isFull()} first, this will throw an exception if there is no room.
+	 */
+	public void add( OCInstance instance, int owner )
+	{
+		int[] order = attributeOrder( instance.getRegisteredType() );
+		byte[] bitmap = new byte[(order.length+7) / 8];
+		List<Integer> others = null;
+		List<Integer> regions = null;
+
+		for( ACInstance attribute : instance.getAllAttributes() )
+		{
+			int handle = attribute.getHandle();
+			if( attribute.getOwner() == owner )
+			{
+				int bit = Arrays.binarySearch( order, handle );
+				if( bit >= 0 )
+					bitmap[bit/8] |= (1 << (bit%8));
+			}
+			else if( attribute.isUnowned() == false )
+			{
+				if( others == null )
+					others = new ArrayList<Integer>();
+				others.add( handle );
+				others.add( attribute.getOwner() );
+			}
+
+			RegionInstance region = attribute.getRegion();
+			if( region != null )
+			{
+				if( regions == null )
+					regions = new ArrayList<Integer>();
+				regions.add( handle );
+				regions.add( region.getToken() );
+			}
+		}
+
+		this.classHandles[count] = instance.getRegisteredClassHandle();
+		this.objectHandles[count] = instance.getHandle();
+		this.objectNames[count] = instance.getName();
+		this.ownedAttributes[count] = bitmap;
+		this.otherOwners[count] = toArray( others );
+		this.regionTokens[count] = toArray( regions );
+		++count;
+	}
+
+	/**
+	 * @return <code>true</code> if no more instances can be {@link #add(OCInstance, int) added}
+	 */
+	public boolean isFull()
+	{
+		return this.count == this.classHandles.length;
+	}
+
+	/**
+	 * @return The number of instances in the message
+	 */
+	public int size()
+	{
+		return this.count;
+	}
+
+	public int getClassHandle( int index )
+	{
+		return this.classHandles[index];
+	}
+
+	public int getObjectHandle( int index )
+	{
+		return this.objectHandles[index];
+	}
+
+	public String getObjectName( int index )
+	{
+		return this.objectNames[index];
+	}
+
+	/**
+	 * Get the handles of the attributes of the instance at the given index that are owned by the
+	 * sender. The given class must be the registered class of the instance (as found in the local
+	 * FOM from {@link #getClassHandle(int)}), it is needed to work out which bit is which attribute.
+	 */
+	public int[] getOwnedAttributes( int index, OCMetadata registeredType )
+	{
+		int[] order = attributeOrder( registeredType );
+		byte[] bitmap = this.ownedAttributes[index];
+		int[] owned = new int[order.length];
+		int found = 0;
+		for( int bit = 0; bit < order.length && bit/8 < bitmap.length; bit++ )
+		{
+			if( (bitmap[bit/8] & (1 << (bit%8))) != 0 )
+				owned[found++] = order[bit];
+		}
+
+		return Arrays.copyOf( owned, found );
+	}
+
+	/**
+	 * Get the attributes of the instance at the given index that are owned by a federate other
+	 * than the sender, as <code>[attribute handle, owner handle]</code> pairs. This will NEVER
+	 * return null. If there are none, an empty array is returned.
+	 */
+	public int[][] getOtherOwners( int index )
+	{
+		return toPairs( this.otherOwners[index] );
+	}
+
+	/**
+	 * Get the attributes of the instance at the given index that are associated with a region, as
+	 * <code>[attribute handle, region token]</code> pairs, the format
+	 * {@link org.portico.lrc.services.object.data.Repository} takes them in. This will NEVER
+	 * return null. If there are none, an empty array is returned.
+	 */
+	public int[][] getRegionTokens( int index )
+	{
+		return toPairs( this.regionTokens[index] );
+	}
+
+	@Override
+	public boolean isImmediateProcessingRequired()
+	{
+		return true;
+	}
+
+	/**
+	 * The handles of all the attributes of the given class (inherited included), sorted. The
+	 * position of a handle in here is its bit in the owned attribute bitmap.
+	 */
+	private int[] attributeOrder( OCMetadata objectClass )
+	{
+		if( attributeOrders == null )
+			attributeOrders = new HashMap<Integer,int[]>();
+
+		int[] order = attributeOrders.get( objectClass.getHandle() );
+		if( order == null )
+		{
+			List<Integer> handles = new ArrayList<Integer>( objectClass.getAllAttributeHandles() );
+			order = toArray( handles );
+			Arrays.sort( order );
+			attributeOrders.put( objectClass.getHandle(), order );
+		}
+
+		return order;
+	}
+
+	/////////////////////////////////////////////////////////////
+	/////////////////// Serialization Methods ///////////////////
+	/////////////////////////////////////////////////////////////
+	public void readExternal( ObjectInput input ) throws IOException, ClassNotFoundException
+	{
+		super.readExternal( input );
+		this.count = input.readInt();
+		this.classHandles = (int[])input.readObject();
+		this.objectHandles = (int[])input.readObject();
+		this.objectNames = (String[])input.readObject();
+		this.ownedAttributes = (byte[][])input.readObject();
+		this.otherOwners = (int[][])input.readObject();
+		this.regionTokens = (int[][])input.readObject();
+	}
+
+	public void writeExternal( ObjectOutput output ) throws IOException
+	{
+		super.writeExternal( output );
+		output.writeInt( this.count );
+		output.writeObject( Arrays.copyOf(this.classHandles,count) );
+		output.writeObject( Arrays.copyOf(this.objectHandles,count) );
+		output.writeObject( Arrays.copyOf(this.objectNames,count) );
+		output.writeObject( Arrays.copyOf(this.ownedAttributes,count) );
+		output.writeObject( Arrays.copyOf(this.otherOwners,count) );
+		output.writeObject( Arrays.copyOf(this.regionTokens,count) );
+	}
+
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeInt( this.count );
+		for( int i = 0; i < count; i++ )
+		{
+			output.writeInt( this.classHandles[i] );
+			output.writeInt( this.objectHandles[i] );
+			output.writeString( this.objectNames[i] );
+			output.writeBytes( this.ownedAttributes[i] );
+			output.writeIntArray( this.otherOwners[i] );
+			output.writeIntArray( this.regionTokens[i] );
+		}
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.count = input.readInt();
+		this.classHandles = new int[count];
+		this.objectHandles = new int[count];
+		this.objectNames = new String[count];
+		this.ownedAttributes = new byte[count][];
+		this.otherOwners = new int[count][];
+		this.regionTokens = new int[count][];
+		for( int i = 0; i < count; i++ )
+		{
+			this.classHandles[i] = input.readInt();
+			this.objectHandles[i] = input.readInt();
+			this.objectNames[i] = input.readString();
+			this.ownedAttributes[i] = input.readBytes();
+			this.otherOwners[i] = input.readIntArray();
+			this.regionTokens[i] = input.readIntArray();
+		}
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+	private static int[] toArray( List<Integer> values )
+	{
+		if( values == null )
+			return null;
+
+		int[] array = new int[values.size()];
+		for( int i = 0; i < array.length; i++ )
+			array[i] = values.get( i );
+
+		return array;
+	}
+
+	private static int[][] toPairs( int[] flattened )
+	{
+		if( flattened == null )
+			return new int[0][];
+
+		int[][] pairs = new int[flattened.length/2][];
+		for( int i = 0; i < pairs.length; i++ )
+			pairs[i] = new int[]{ flattened[i*2], flattened[i*2+1] };
+
+		return pairs;
+	}
+}
@@ -16,10 +16,10 @@ package org.portico.lrc.services.object.data;
 
 import java.io.Serializable;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.portico.lrc.model.ICMetadata;
 import org.portico.lrc.model.RegionInstance;
@@ -56,7 +56,7 @@ public class ICInterest implements Serializable
 	public ICInterest( ICMetadata interactionClass )
 	{
 		this.interactionClass = interactionClass;
-		this.interests = new HashMap<Integer,Set<RegionInstance>>();
+		this.interests = new ConcurrentHashMap<Integer,Set<RegionInstance>>();
 	}
 
 	//----------------------------------------------------------
@@ -76,11 +76,11 @@ public class ICInterest implements Serializable
 	 */
 	public void registerInterest( int federateHandle )
 	{
-		// only register the interest if it doesn't already exist, as we are
-		// lazy-creating the region sets, we don't want to just overwrite the
-		// existing link, as it may replace the region data.
+		// only register the interest if it doesn't already exist, we don't want
+		// to just overwrite the existing link, as it may replace the region data.
+		// an empty region set means there is no region data (the default region)
 		if( interests.containsKey(federateHandle) == false )
-			this.interests.put( federateHandle, null );
+			this.interests.put( federateHandle, new HashSet<RegionInstance>() );
 	}
 
 	/**
@@ -101,20 +101,25 @@ public class ICInterest implements Serializable
 			return;
 		}
 		
-		// try and get the existing map
+		// try and get the existing set. if there is one but it is empty, the existing
+		// interest is a non-DDM one, and adding the region to it replaces that
+		// the sets are replaced with a changed copy rather than changed, so that they can be
+		// read by a thread sending an interaction while another is changing the interest
 		Set<RegionInstance> regions = interests.get( federateHandle );
 		if( regions != null )
 		{
-			// the federate already has regions associated with this interest, extend them
+			// the federate already has an interest, extend its regions
+			regions = new HashSet<RegionInstance>( regions );
 			regions.add( region );
+			interests.put( federateHandle, regions );
 			return;
 		}
 		
-		// the federate doesn't have an interest that have region associations yet,
-		// create a set to hold that data and throw it into the interest map
+		// the federate doesn't have an interest yet, create a set to hold the region
+		// data and throw it into the interest map
 		regions = new HashSet<RegionInstance>();
 		regions.add( region );
-		interests.put( federateHandle, regions ); // overwrite is safe, no region data exists to replace
+		interests.put( federateHandle, regions );
 	}
 	
 	/**
@@ -156,7 +161,7 @@ public class ICInterest implements Serializable
 		}
 
 		Set<RegionInstance> regions = interests.get( federateHandle );
-		if( regions == null )
+		if( regions == null || regions.isEmpty() )
 		{
 			// there is no existing set of regions associated with this interest,
 			// remove the entire interest
@@ -165,11 +170,14 @@ public class ICInterest implements Serializable
 		}
 		
 		// remove the region from the set of those associated with the interest for the federate
+		regions = new HashSet<RegionInstance>( regions );
 		regions.remove( region );
 		
 		// if that was the last one, remove the interest altogether
 		if( regions.isEmpty() )
 			interests.remove( federateHandle );
+		else
+			interests.put( federateHandle, regions );
 	}
 
 	/**
@@ -17,8 +17,10 @@ package org.portico.lrc.services.object.data;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.portico.lrc.LRCState;
 import org.portico.lrc.PorticoConstants;
@@ -37,6 +39,7 @@ import org.portico.lrc.model.ICMetadata;
 import org.portico.lrc.model.OCMetadata;
 import org.portico.lrc.model.ObjectModel;
 import org.portico.lrc.model.RegionInstance;
+import org.portico.lrc.model.Transport;
 import org.portico.lrc.services.saverestore.data.SaveRestoreTarget;
 
 /**
@@ -47,6 +50,12 @@ import org.portico.lrc.services.saverestore.data.SaveRestoreTarget;
  * interest in them, and what the interest is. That is, rather than storing a separate set of
  * information for each federate, we store sets of information about a particular object/interaction
  * class (inside each is information about any federate).
+ * <p/>
+ * Subscription interests of remote federates are recorded as soon as their notifications are
+ * received (they require immediate processing) so that the local federate can use them to decide
+ * who to send updates and interactions to. As such, subscription data can be changed by the
+ * connection's receiving thread while the federate is using it, and is stored in concurrent
+ * collections.
  */
 public class InterestManager implements SaveRestoreTarget
 {
@@ -62,6 +71,7 @@ public class InterestManager implements SaveRestoreTarget
 	private Map<OCMetadata,OCInterest> sObjects;
 	private Map<ICMetadata,ICInterest> pInteractions;
 	private Map<ICMetadata,ICInterest> sInteractions;
+	private Map<Integer,Map<Integer,Transport>> iTransports; // federate -> class -> transport
 
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
@@ -71,9 +81,10 @@ public class InterestManager implements SaveRestoreTarget
 	{
 		this.state = lrcState;
 		this.pObjects = new HashMap<OCMetadata,OCInterest>();
-		this.sObjects = new HashMap<OCMetadata,OCInterest>();
+		this.sObjects = new ConcurrentHashMap<OCMetadata,OCInterest>();
 		this.pInteractions = new HashMap<ICMetadata,ICInterest>();
-		this.sInteractions = new HashMap<ICMetadata,ICInterest>();
+		this.sInteractions = new ConcurrentHashMap<ICMetadata,ICInterest>();
+		this.iTransports = new ConcurrentHashMap<Integer,Map<Integer,Transport>>();
 	}
 
 	//----------------------------------------------------------
@@ -167,7 +178,7 @@ public class InterestManager implements SaveRestoreTarget
 		RegionInstance region = null;
 		if( regionToken != PorticoConstants.NULL_HANDLE )
 		{
-			region = state.getRegionStore().getRegion( regionToken );
+			region = state.getRegionStore().getRegionCreatedBy( regionToken, federateHandle );
 			if( region == null )
 				throw new JRegionNotKnown( "token: " + regionToken );
 			
@@ -254,7 +265,7 @@ public class InterestManager implements SaveRestoreTarget
 		RegionInstance region = null;
 		if( regionToken != PorticoConstants.NULL_HANDLE )
 		{
-			region = state.getRegionStore().getRegion( regionToken );
+			region = state.getRegionStore().getRegionCreatedBy( regionToken, federateHandle );
 			if( region == null )
 				throw new JRegionNotKnown( "token: " + regionToken );
 		}
@@ -336,7 +347,7 @@ public class InterestManager implements SaveRestoreTarget
 		RegionInstance region = null;
 		if( regionToken != PorticoConstants.NULL_HANDLE )
 		{
-			region = state.getRegionStore().getRegion( regionToken );
+			region = state.getRegionStore().getRegionCreatedBy( regionToken, federateHandle );
 			if( region == null )
 				throw new JRegionNotKnown( "token: " + regionToken );
 			
@@ -930,6 +941,60 @@ public class InterestManager implements SaveRestoreTarget
 		return isAttributeClassRegistered( sObjects, federateHandle, classHandle, attributeHandle );
 	}
 
+	//////////////////////////////////////////////////////////////////////////////////////////
+	///////////////////////////////// Update Rate Methods ////////////////////////////////////
+	//////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Record the maximum number of reflections per second the federate wants for each attribute
+	 * of objects it discovers through its subscription to the given class. A rate of 0.0 removes
+	 * any limit. The rate goes along with the subscription, so if the federate doesn't subscribe
+	 * to the class this request is ignored, and when it unsubscribes the rate is forgotten.
+	 */
+	public void setUpdateRate( int federateHandle, int classHandle, double rate )
+	{
+		OCMetadata clazz = fom().getObjectClass( classHandle );
+		OCInterest interest = clazz == null ? null : sObjects.get( clazz );
+		if( interest != null )
+			interest.setUpdateRate( federateHandle, rate );
+	}
+
+	/**
+	 * Get the maximum number of reflections per second the federate wants for each attribute of
+	 * an object registered as the given class. The rate comes from the subscription the federate
+	 * would discover the object through (see {@link #getDiscoveryType(int, int)}). If the federate
+	 * hasn't subscribed with a rate, or doesn't subscribe at all, 0.0 is returned.
+	 */
+	public double getUpdateRate( int federateHandle, int initialClass )
+	{
+		OCMetadata clazz = fom().getObjectClass( initialClass );
+		for( ; clazz != null; clazz = clazz.getParent() )
+		{
+			OCInterest interest = sObjects.get( clazz );
+			if( interest != null && interest.hasInterest(federateHandle) )
+				return interest.getUpdateRate( federateHandle );
+		}
+
+		return 0.0;
+	}
+
+	/**
+	 * Get the rates the given federate has subscribed to object classes with, keyed by class
+	 * handle. Classes subscribed without a rate are left out. Passed to federates that join
+	 * later along with the {@link #getObjectSubscriptionSummary(int) subscription summary}.
+	 */
+	public HashMap<Integer,Double> getObjectSubscriptionRates( int federateHandle )
+	{
+		HashMap<Integer,Double> rates = new HashMap<Integer,Double>();
+		for( OCInterest interest : sObjects.values() )
+		{
+			double rate = interest.getUpdateRate( federateHandle );
+			if( rate > 0.0 )
+				rates.put( interest.getObjectClass().getHandle(), rate );
+		}
+
+		return rates;
+	}
+
 	//////////////////////////////////////////////////////////////////////////////////////////
 	///////////////////////////// Interaction Publication Methods ////////////////////////////
 	//////////////////////////////////////////////////////////////////////////////////////////
@@ -1145,6 +1210,288 @@ public class InterestManager implements SaveRestoreTarget
 		}
 	}
 
+	//////////////////////////////////////////////////////////////////////////////////////////
+	//////////////////////////////// Interest Routing Methods ////////////////////////////////
+	//////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Find all the federates that could possibly want to reflect an update of the given attributes
+	 * for an object instance of the given class. A federate is included if it subscribes to at
+	 * least one of the attributes through the class itself, or through any of its parents (as
+	 * it may have discovered the object as that type). Region information is NOT taken into
+	 * account, so this may return federates that will end up discarding the update, but it will
+	 * never leave out a federate that wants it.
+	 * 
+	 * @param classHandle The handle of the class the object instance was registered as
+	 * @param attributes The handles of the attributes being updated
+	 * @return A new set containing the handles of each interested federate (may be empty)
+	 */
+	public Set<Integer> getSubscribersOfAttributes( int classHandle, Set<Integer> attributes )
+	{
+		Set<Integer> subscribers = new HashSet<Integer>();
+		OCMetadata clazz = fom().getObjectClass( classHandle );
+		for( ; clazz != null; clazz = clazz.getParent() )
+		{
+			OCInterest interest = sObjects.get( clazz );
+			if( interest == null )
+				continue;
+
+			for( Integer federateHandle : interest.getFederates() )
+			{
+				if( subscribers.contains(federateHandle) )
+					continue;
+
+				RegionGroup group = interest.getInterestWithDDM( federateHandle );
+				if( group == null )
+					continue;
+
+				for( Integer attributeHandle : attributes )
+				{
+					if( group.hasInterest(attributeHandle.intValue()) )
+					{
+						subscribers.add( federateHandle );
+						break;
+					}
+				}
+			}
+		}
+		
+		return subscribers;
+	}
+
+	/**
+	 * The same as {@link #getSubscribersOfAttributes(int, Set)} except that regions are taken
+	 * into account. A federate is only included if, for at least one of the attributes, it is
+	 * subscribed without a region, the attribute has no update region, or one of the regions it
+	 * is subscribed with overlaps the update region. These are the same checks the federate
+	 * makes itself when the update arrives, so the federates left out would have thrown the
+	 * update away anyway.
+	 * 
+	 * @param classHandle The handle of the class the object instance was registered as
+	 * @param attributes The handles of the attributes being updated, each with the region it is
+	 *                   associated with for updates (or <code>null</code> if none)
+	 * @return A new set containing the handles of each interested federate (may be empty)
+	 */
+	public Set<Integer> getSubscribersOfAttributes( int classHandle,
+	                                                Map<Integer,RegionInstance> attributes )
+	{
+		RegionStore regions = state.getRegionStore();
+		Set<Integer> subscribers = new HashSet<Integer>();
+
+		// the attributes of an object usually all share the same update region, so hang on to
+		// the overlapping regions we find in case we can use them again
+		RegionInstance lastRegion = null;
+		Set<RegionInstance> lastOverlapping = null;
+
+		OCMetadata clazz = fom().getObjectClass( classHandle );
+		for( ; clazz != null; clazz = clazz.getParent() )
+		{
+			OCInterest interest = sObjects.get( clazz );
+			if( interest == null )
+				continue;
+
+			for( Integer federateHandle : interest.getFederates() )
+			{
+				if( subscribers.contains(federateHandle) )
+					continue;
+
+				RegionGroup group = interest.getInterestWithDDM( federateHandle );
+				if( group == null )
+					continue;
+
+				for( Map.Entry<Integer,RegionInstance> entry : attributes.entrySet() )
+				{
+					Set<RegionInstance> subscribed = group.getRegionsForAttribute( entry.getKey() );
+					if( subscribed == null )
+						continue;
+
+					RegionInstance updateRegion = entry.getValue();
+					if( updateRegion == null || subscribed.contains(null) )
+					{
+						subscribers.add( federateHandle );
+						break;
+					}
+
+					if( updateRegion != lastRegion &&
+					    subscribed.size() > RegionStore.DIRECT_COMPARISON_LIMIT )
+					{
+						lastRegion = updateRegion;
+						lastOverlapping = regions.getOverlappingRegions( updateRegion );
+					}
+
+					Set<RegionInstance> overlapping =
+						updateRegion == lastRegion ? lastOverlapping : null;
+					if( regions.findOverlappingRegion(updateRegion,subscribed,overlapping) != null )
+					{
+						subscribers.add( federateHandle );
+						break;
+					}
+				}
+			}
+		}
+
+		return subscribers;
+	}
+
+	/**
+	 * Find all the federates that subscribe to the given interaction class, either directly or
+	 * through one of its parents. As with {@link #getSubscribersOfAttributes(int, Set)}, regions
+	 * are not considered.
+	 * 
+	 * @param classHandle The handle of the interaction class being sent
+	 * @return A new set containing the handles of each interested federate (may be empty)
+	 */
+	public Set<Integer> getSubscribersOfInteraction( int classHandle )
+	{
+		Set<Integer> subscribers = new HashSet<Integer>();
+		ICMetadata clazz = fom().getInteractionClass( classHandle );
+		for( ; clazz != null; clazz = clazz.getParent() )
+		{
+			ICInterest interest = sInteractions.get( clazz );
+			if( interest != null )
+				subscribers.addAll( interest.getFederates() );
+		}
+		
+		return subscribers;
+	}
+
+	/**
+	 * The same as {@link #getSubscribersOfInteraction(int)} except that the region the
+	 * interaction is being sent with is taken into account. A federate is only included if it
+	 * is subscribed without a region or with a region that overlaps the one given, which is
+	 * the same check the federate makes itself when the interaction arrives.
+	 * 
+	 * @param classHandle The handle of the interaction class being sent
+	 * @param region The region the interaction is being sent with
+	 * @return A new set containing the handles of each interested federate (may be empty)
+	 */
+	public Set<Integer> getSubscribersOfInteraction( int classHandle, RegionInstance region )
+	{
+		RegionStore regions = state.getRegionStore();
+		Set<Integer> subscribers = new HashSet<Integer>();
+		Set<RegionInstance> overlapping = null;
+
+		ICMetadata clazz = fom().getInteractionClass( classHandle );
+		for( ; clazz != null; clazz = clazz.getParent() )
+		{
+			ICInterest interest = sInteractions.get( clazz );
+			if( interest == null )
+				continue;
+
+			for( Integer federateHandle : interest.getFederates() )
+			{
+				if( subscribers.contains(federateHandle) )
+					continue;
+
+				// no regions means a subscription to the default region, which overlaps all
+				Set<RegionInstance> subscribed = interest.getRegions( federateHandle );
+				if( subscribed.isEmpty() )
+				{
+					subscribers.add( federateHandle );
+					continue;
+				}
+
+				if( overlapping == null &&
+				    subscribed.size() > RegionStore.DIRECT_COMPARISON_LIMIT )
+				{
+					overlapping = regions.getOverlappingRegions( region );
+				}
+
+				if( regions.findOverlappingRegion(region,subscribed,overlapping) != null )
+					subscribers.add( federateHandle );
+			}
+		}
+
+		return subscribers;
+	}
+
+	/**
+	 * Get a summary of the object class subscriptions of the given federate, keyed by class
+	 * handle, with the value being the set of attributes subscribed to in any region. This is
+	 * passed to federates that join later so that they know who wants what (see
+	 * {@link org.portico.lrc.services.federation.msg.RoleCall}).
+	 */
+	public HashMap<Integer,Set<Integer>> getObjectSubscriptionSummary( int federateHandle )
+	{
+		HashMap<Integer,Set<Integer>> summary = new HashMap<Integer,Set<Integer>>();
+		for( OCInterest interest : sObjects.values() )
+		{
+			RegionGroup group = interest.getInterestWithDDM( federateHandle );
+			if( group != null && group.isEmpty() == false )
+			{
+				summary.put( interest.getObjectClass().getHandle(),
+				             new HashSet<Integer>(group.getAttributesNoDdm()) );
+			}
+		}
+		
+		return summary;
+	}
+
+	/**
+	 * Get the handles of all the interaction classes the given federate subscribes to, in any
+	 * region. See {@link #getObjectSubscriptionSummary(int)}.
+	 */
+	public HashSet<Integer> getInteractionSubscriptionSummary( int federateHandle )
+	{
+		HashSet<Integer> summary = new HashSet<Integer>();
+		for( ICInterest interest : sInteractions.values() )
+		{
+			if( interest.hasInterest(federateHandle) )
+				summary.add( interest.getInteractionClass().getHandle() );
+		}
+		
+		return summary;
+	}
+
+	//////////////////////////////////////////////////////////////////////////////////////////
+	/////////////////////////////// Interaction Transport Methods ////////////////////////////
+	//////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Record that the given federate has changed the transport it sends interactions of the
+	 * given class with. Passing <code>null</code> for the transport reverts it to the FOM default.
+	 */
+	public void setInteractionTransport( int federateHandle, int classHandle, Transport transport )
+	{
+		Map<Integer,Transport> transports = iTransports.get( federateHandle );
+		if( transports == null )
+		{
+			transports = new ConcurrentHashMap<Integer,Transport>();
+			iTransports.put( federateHandle, transports );
+		}
+
+		if( transport == null )
+			transports.remove( classHandle );
+		else
+			transports.put( classHandle, transport );
+	}
+
+	/**
+	 * Get the transport the given federate sends interactions of the given class with. Unless the
+	 * federate has changed it, this is the transport declared for the class in the FOM. If the
+	 * class doesn't exist, {@link Transport#RELIABLE} is returned.
+	 */
+	public Transport getInteractionTransport( int federateHandle, int classHandle )
+	{
+		Map<Integer,Transport> transports = iTransports.get( federateHandle );
+		if( transports != null )
+		{
+			Transport transport = transports.get( classHandle );
+			if( transport != null )
+				return transport;
+		}
+
+		ICMetadata clazz = fom().getInteractionClass( classHandle );
+		return clazz == null ? Transport.RELIABLE : clazz.getTransport();
+	}
+
+	/**
+	 * Forget any interaction transport changes made by the given federate. Called when it leaves
+	 * the federation.
+	 */
+	public void removeInteractionTransports( int federateHandle )
+	{
+		iTransports.remove( federateHandle );
+	}
+
 	//////////////////////////////////////////////////////////////////////////////////////////
 	///////////////////////////////// Private Helper Methods /////////////////////////////////
 	//////////////////////////////////////////////////////////////////////////////////////////
@@ -1167,15 +1514,20 @@ public class InterestManager implements SaveRestoreTarget
 		output.writeObject( sObjects );
 		output.writeObject( pInteractions );
 		output.writeObject( sInteractions );
+		output.writeObject( new HashMap<Integer,Map<Integer,Transport>>(iTransports) );
 	}
 
 	@SuppressWarnings("unchecked")
 	public void restoreFromStream( ObjectInput input ) throws Exception
 	{
 		this.pObjects      = (Map<OCMetadata,OCInterest>)input.readObject();
-		this.sObjects      = (Map<OCMetadata,OCInterest>)input.readObject();
+		this.sObjects      = new ConcurrentHashMap<OCMetadata,OCInterest>(
+		                         (Map<OCMetadata,OCInterest>)input.readObject() );
 		this.pInteractions = (Map<ICMetadata,ICInterest>)input.readObject();
-		this.sInteractions = (Map<ICMetadata,ICInterest>)input.readObject();
+		this.sInteractions = new ConcurrentHashMap<ICMetadata,ICInterest>(
+		                         (Map<ICMetadata,ICInterest>)input.readObject() );
+		this.iTransports   = new ConcurrentHashMap<Integer,Map<Integer,Transport>>(
+		                         (Map<Integer,Map<Integer,Transport>>)input.readObject() );
 	}
 
 	//----------------------------------------------------------
@@ -20,9 +20,9 @@ import org.portico.lrc.model.RegionInstance;
 import java.io.Serializable;
 import java.util.Set;
 import java.util.Map;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class represents an interest in an particular object class (be it publication or
@@ -46,6 +46,7 @@ public class OCInterest implements Serializable
 	//----------------------------------------------------------
 	private OCMetadata objectClass;
 	private Map<Integer,RegionGroup> interests; // key: federaetHandle
+	private Map<Integer,Double> updateRates;    // key: federateHandle, only if they have one
 	
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
@@ -54,7 +55,8 @@ public class OCInterest implements Serializable
 	public OCInterest( OCMetadata objectClass )
 	{
 		this.objectClass = objectClass;
-		this.interests = new HashMap<Integer,RegionGroup>();
+		this.interests = new ConcurrentHashMap<Integer,RegionGroup>();
+		this.updateRates = new ConcurrentHashMap<Integer,Double>();
 	}
 	
 	/**
@@ -125,7 +127,7 @@ public class OCInterest implements Serializable
 			// any local association we have as it is no longer required.
 			theGroup.remove( region, handleSet );
 			if( region == null )
-				interests.remove( federate ); // remove it locally as well
+				removeFederate( federate ); // remove it locally as well
 			return;
 		}
 		
@@ -189,7 +191,7 @@ public class OCInterest implements Serializable
 		// clear out the local map if this is a non-ddm request, or, if it is a ddm request
 		// clear out the local map if the federate no longer cares about any attributes
 		if( region == null || group.isEmpty() )
-			interests.remove( federateHandle );
+			removeFederate( federateHandle );
 	}
 
 	/**
@@ -218,6 +220,30 @@ public class OCInterest implements Serializable
 			removeInterest( federateHandle );
 	}
 
+	/**
+	 * Set the maximum number of reflections per second the federate wants for each attribute of
+	 * an object of this class. A rate of 0.0 (or less) removes any limit. If the federate has no
+	 * interest in the class, this request is ignored. The rate is forgotten along with the
+	 * federate's interest.
+	 */
+	public void setUpdateRate( int federateHandle, double rate )
+	{
+		if( rate > 0.0 && interests.containsKey(federateHandle) )
+			updateRates.put( federateHandle, rate );
+		else
+			updateRates.remove( federateHandle );
+	}
+
+	/**
+	 * Returns the maximum number of reflections per second the federate wants for each attribute
+	 * of an object of this class, or 0.0 if it hasn't asked for its reflections to be limited.
+	 */
+	public double getUpdateRate( int federateHandle )
+	{
+		Double rate = updateRates.get( federateHandle );
+		return rate == null ? 0.0 : rate;
+	}
+
 	/**
 	 * Returns the set of attributes that make up the interest set for the given federate.
 	 * If there is no registered interest, null is returned. Note that this set is
@@ -269,6 +295,12 @@ public class OCInterest implements Serializable
 		return Collections.unmodifiableSet( this.interests.keySet() );
 	}
 	
+	private void removeFederate( int federateHandle )
+	{
+		interests.remove( federateHandle );
+		updateRates.remove( federateHandle );
+	}
+
 	public OCMetadata getObjectClass()
 	{
 		return this.objectClass;
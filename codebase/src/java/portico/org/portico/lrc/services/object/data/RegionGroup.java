@@ -15,10 +15,10 @@
 package org.portico.lrc.services.object.data;
 
 import java.io.Serializable;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.portico.lrc.model.RegionInstance;
 
@@ -54,7 +54,7 @@ public class RegionGroup implements Serializable
 
 	public RegionGroup()
 	{
-		this.associations = new HashMap<Integer,Set<RegionInstance>>();
+		this.associations = new ConcurrentHashMap<Integer,Set<RegionInstance>>();
 	}
 
 	//----------------------------------------------------------
@@ -71,36 +71,19 @@ public class RegionGroup implements Serializable
 	 */
 	public void replace( RegionInstance region, Set<Integer> attributes )
 	{
-		// as we are REPLACING the existing interest, we must first remove any
-		// association with the given region that we already contain
+		// make the association with the new, incoming attributes first, so that anyone looking
+		// from another thread never sees the attributes that are in both sets go missing
+		for( Integer incomingAttribute : attributes )
+			associate( incomingAttribute, region );
+
+		// as we are REPLACING the existing interest, we must then remove any association with
+		// the given region that the existing attributes have and the incoming ones don't.
 		// we need a new set of handles so that we can modify the original associations map
 		// without causing a ConcurrentModificationException
 		HashSet<Integer> keySetCopy = new HashSet<Integer>( associations.keySet() );
+		keySetCopy.removeAll( attributes );
 		for( Integer existingAttribute : keySetCopy )
-		{
-			Set<RegionInstance> regionSet = associations.get( existingAttribute );
-			regionSet.remove( region );
-			if( regionSet.isEmpty() )
-				associations.remove( existingAttribute );
-		}
-		
-		//for( Set<RegionInstance> existingSet : associations.values() )
-		//	existingSet.remove( region );
-
-		// now that any existing association has been removed, we make the
-		// association with the new, incoming attributes
-		for( Integer incomingAttribute : attributes )
-		{
-			Set<RegionInstance> regions = associations.get( incomingAttribute );
-			if( regions == null )
-			{
-				// only create the region instance set if it doesn't already exist
-				regions = new HashSet<RegionInstance>();
-				associations.put( incomingAttribute, regions );
-			}
-			
-			regions.add( region );
-		}
+			disassociate( existingAttribute, region );
 	}
 
 	/**
@@ -110,17 +93,7 @@ public class RegionGroup implements Serializable
 	public void augment( RegionInstance region, Set<Integer> attributes )
 	{
 		for( Integer attribute : attributes )
-		{
-			Set<RegionInstance> regions = associations.get( attribute );
-			if( regions == null )
-			{
-				// mapping doesn't exist yet, create and add it
-				regions = new HashSet<RegionInstance>();
-				associations.put( attribute, regions );
-			}
-			
-			regions.add( region );
-		}
+			associate( attribute, region );
 	}
 
 	/**
@@ -142,15 +115,43 @@ public class RegionGroup implements Serializable
 		
 		// for each attribute, remove the region association
 		for( Integer attribute : attributes )
-		{
-			Set<RegionInstance> regions = associations.get( attribute );
-			if( regions == null )
-				continue;
+			disassociate( attribute, region );
+	}
 
-			regions.remove( region );
-			if( regions.isEmpty() )
-				associations.remove( attribute );
-		}
+	/**
+	 * Add the region to those associated with the attribute. The region sets in the map are
+	 * never changed once they are in there, a changed copy is put in instead. The subscriptions
+	 * of other federates are changed on the connection's thread while updates are being sent,
+	 * and this lets the sets be read without worrying about that.
+	 */
+	private void associate( Integer attribute, RegionInstance region )
+	{
+		Set<RegionInstance> existing = associations.get( attribute );
+		if( existing != null && existing.contains(region) )
+			return;
+
+		Set<RegionInstance> regions = existing == null ? new HashSet<RegionInstance>() :
+		                                                 new HashSet<RegionInstance>( existing );
+		regions.add( region );
+		associations.put( attribute, regions );
+	}
+
+	/**
+	 * Remove the region from those associated with the attribute, removing the attribute
+	 * altogether if that was its last region. See {@link #associate(Integer, RegionInstance)}.
+	 */
+	private void disassociate( Integer attribute, RegionInstance region )
+	{
+		Set<RegionInstance> existing = associations.get( attribute );
+		if( existing == null || existing.contains(region) == false )
+			return;
+
+		Set<RegionInstance> regions = new HashSet<RegionInstance>( existing );
+		regions.remove( region );
+		if( regions.isEmpty() )
+			associations.remove( attribute );
+		else
+			associations.put( attribute, regions );
 	}
 
 	/**
@@ -210,7 +211,7 @@ public class RegionGroup implements Serializable
 
 	/**
 	 * Returns a set fo all the {@link RegionInstance}s associated with the subscription of the
-	 * identified attribute handle.
+	 * identified attribute handle. The set must not be changed.
 	 */
 	public Set<RegionInstance> getRegionsForAttribute( int attributeHandle )
 	{
@@ -0,0 +1,593 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.services.object.data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.portico.lrc.model.Extent;
+import org.portico.lrc.model.RegionInstance;
+
+/**
+ * A spatial index over the {@link Extent}s of all the regions in a single routing space, used by
+ * the {@link RegionStore} to find the regions that overlap a given region without having to
+ * compare it against every region it knows about.
+ * <p/>
+ * The index is an R-tree: every extent is stored as a box (the lower and upper bound of each of
+ * its dimensions) in a leaf, and every node above the leaves knows the smallest box that covers
+ * everything beneath it. Searching only has to descend into the nodes whose box touches the box
+ * being searched for, so for regions that are spread out over the space (terrain partitions and
+ * the like) it only looks at a handful of nodes no matter how many regions there are.
+ * <p/>
+ * The boxes are only used to rule things out. Whether two extents actually overlap is still
+ * decided by {@link Extent#overlapsWith(Extent)}, so the results are exactly the same as
+ * comparing the regions directly with {@link RegionInstance#overlapsWith(RegionInstance)}.
+ * <p/>
+ * The index holds the {@link Extent} instances of each region it is given. If the values in a
+ * region change, it must be removed and added again.
+ */
+public class RegionIndex
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	/** The most children a node can have before it is split */
+	private static final int MAX_CHILDREN = 8;
+	/** The fewest children a node (other than the root) can have before it is dissolved */
+	private static final int MIN_CHILDREN = 3;
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private int spaceHandle;
+	private int[] dimensions;
+	private Node root;
+	private Map<Integer,Entry[]> entries; // region token to the entries for each of its extents
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	public RegionIndex( int spaceHandle )
+	{
+		this.spaceHandle = spaceHandle;
+		this.dimensions = null; // filled in as extents are added
+		this.root = new Node( true );
+		this.entries = new HashMap<Integer,Entry[]>();
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	/**
+	 * Add each of the extents of the given region to the index. If a region with the same token
+	 * is already in the index, it is removed first.
+	 */
+	public void add( RegionInstance region )
+	{
+		remove( region.getToken() );
+
+		for( Extent extent : region.getExtents() )
+			includeDimensions( extent );
+
+		Entry[] regionEntries = new Entry[region.getSize()];
+		for( int i = 0; i < regionEntries.length; i++ )
+		{
+			Extent extent = region.getExtents()[i];
+			regionEntries[i] = new Entry( region, extent );
+			insert( regionEntries[i] );
+		}
+
+		entries.put( region.getToken(), regionEntries );
+	}
+
+	/**
+	 * Remove all the extents of the region with the given token from the index. If there is no
+	 * such region in the index, nothing happens.
+	 */
+	public void remove( int regionToken )
+	{
+		Entry[] regionEntries = entries.remove( regionToken );
+		if( regionEntries == null )
+			return;
+
+		for( Entry entry : regionEntries )
+			delete( entry );
+	}
+
+	/**
+	 * Find all the regions in the index that have at least one extent overlapping an extent of
+	 * the given region and add them to the provided set. The given region is expected to be in
+	 * the same routing space as this index (it will be added to the set itself if it is in the
+	 * index, as every region overlaps with itself).
+	 */
+	public void findOverlapping( RegionInstance region, Set<RegionInstance> found )
+	{
+		if( region.getSpaceHandle() != spaceHandle || dimensions == null )
+			return;
+
+		for( Extent extent : region.getExtents() )
+		{
+			Entry query = new Entry( null, extent );
+			search( root, query, found );
+		}
+	}
+
+	/**
+	 * @return The number of regions in the index
+	 */
+	public int size()
+	{
+		return entries.size();
+	}
+
+	/**
+	 * Make sure every dimension of the given extent has a place in the boxes. Dimension handles
+	 * are kept in order so that each box position means the same dimension for every extent in
+	 * the space. In 1516e a region doesn't have to use every dimension, so if one turns up that
+	 * we haven't seen before, the dimensions are widened and everything already in the index is
+	 * put back in again.
+	 */
+	private void includeDimensions( Extent extent )
+	{
+		Set<Integer> sorted = new TreeSet<Integer>( extent.getAllRanges().keySet() );
+		if( dimensions != null )
+		{
+			for( int handle : dimensions )
+				sorted.remove( handle );
+
+			if( sorted.isEmpty() )
+				return;
+
+			for( int handle : dimensions )
+				sorted.add( handle );
+		}
+
+		int[] handles = new int[sorted.size()];
+		int index = 0;
+		for( Integer handle : sorted )
+			handles[index++] = handle;
+
+		this.dimensions = handles;
+
+		// rebuild with the new dimensions
+		List<RegionInstance> existing = new ArrayList<RegionInstance>();
+		for( Entry[] regionEntries : entries.values() )
+		{
+			if( regionEntries.length > 0 )
+				existing.add( regionEntries[0].region );
+		}
+
+		this.root = new Node( true );
+		this.entries.clear();
+		for( RegionInstance region : existing )
+			add( region );
+	}
+
+	////////////////////////////////////////////////////////////
+	////////////////////// Search Methods //////////////////////
+	////////////////////////////////////////////////////////////
+	private void search( Node node, Entry query, Set<RegionInstance> found )
+	{
+		for( Box child : node.children )
+		{
+			if( child.touches(query) == false )
+				continue;
+
+			if( node.leaf )
+			{
+				Entry entry = (Entry)child;
+				if( entry.extent.overlapsWith(query.extent) )
+					found.add( entry.region );
+			}
+			else
+			{
+				search( (Node)child, query, found );
+			}
+		}
+	}
+
+	////////////////////////////////////////////////////////////
+	////////////////////// Insert Methods //////////////////////
+	////////////////////////////////////////////////////////////
+	private void insert( Entry entry )
+	{
+		Node leaf = chooseLeaf( entry );
+		leaf.add( entry );
+		entry.leaf = leaf;
+
+		// walk back up, splitting anything that has grown too big
+		Node node = leaf;
+		while( node != null )
+		{
+			if( node.children.size() > MAX_CHILDREN )
+			{
+				Node sibling = split( node );
+				if( node.parent == null )
+				{
+					// we split the root, grow the tree by one level
+					Node newRoot = new Node( false );
+					newRoot.add( node );
+					newRoot.add( sibling );
+					this.root = newRoot;
+				}
+				else
+				{
+					node.parent.add( sibling );
+				}
+			}
+			else
+			{
+				node.recalculate();
+			}
+
+			node = node.parent;
+		}
+	}
+
+	/**
+	 * Go down from the root, each time taking the child whose box would need to grow the least
+	 * to take the entry (or the smallest of them if there's a tie).
+	 */
+	private Node chooseLeaf( Entry entry )
+	{
+		Node node = root;
+		while( node.leaf == false )
+		{
+			Node best = null;
+			double bestGrowth = Double.MAX_VALUE;
+			double bestVolume = Double.MAX_VALUE;
+			for( Box child : node.children )
+			{
+				double volume = child.volume();
+				double growth = child.volumeWith(entry) - volume;
+				if( growth < bestGrowth || (growth == bestGrowth && volume < bestVolume) )
+				{
+					best = (Node)child;
+					bestGrowth = growth;
+					bestVolume = volume;
+				}
+			}
+
+			// only happens if the volumes are too big to compare, any child will do
+			if( best == null )
+				best = (Node)node.children.get( 0 );
+
+			node = best;
+		}
+
+		return node;
+	}
+
+	/**
+	 * Split the children of an overfull node in two (Guttman's quadratic split). The node keeps
+	 * one group and the other is moved into a new sibling that is returned. The caller has to
+	 * put the sibling in the parent.
+	 */
+	private Node split( Node node )
+	{
+		List<Box> remaining = new ArrayList<Box>( node.children );
+		node.children.clear();
+		node.lower = null;
+		node.upper = null;
+		Node sibling = new Node( node.leaf );
+
+		// pick the two children that would waste the most space if they were put together
+		int seedOne = 0;
+		int seedTwo = 1;
+		double worstWaste = -Double.MAX_VALUE;
+		for( int i = 0; i < remaining.size(); i++ )
+		{
+			for( int j = i+1; j < remaining.size(); j++ )
+			{
+				Box one = remaining.get( i );
+				Box two = remaining.get( j );
+				double waste = one.volumeWith(two) - one.volume() - two.volume();
+				if( waste > worstWaste )
+				{
+					worstWaste = waste;
+					seedOne = i;
+					seedTwo = j;
+				}
+			}
+		}
+
+		// remove the higher index first so the lower one doesn't move
+		Box second = remaining.remove( seedTwo );
+		Box first = remaining.remove( seedOne );
+		node.add( first );
+		sibling.add( second );
+
+		// hand out the rest, each to the group that has to grow the least to take it
+		while( remaining.isEmpty() == false )
+		{
+			// make sure both groups end up with enough children
+			if( node.children.size() + remaining.size() == MIN_CHILDREN )
+			{
+				for( Box box : remaining )
+					node.add( box );
+				break;
+			}
+			else if( sibling.children.size() + remaining.size() == MIN_CHILDREN )
+			{
+				for( Box box : remaining )
+					sibling.add( box );
+				break;
+			}
+
+			// find the one with the strongest preference for one group over the other
+			int chosen = 0;
+			double strongest = -1;
+			for( int i = 0; i < remaining.size(); i++ )
+			{
+				Box box = remaining.get( i );
+				double preference = Math.abs( (node.volumeWith(box) - node.volume()) -
+				                              (sibling.volumeWith(box) - sibling.volume()) );
+				if( preference > strongest )
+				{
+					strongest = preference;
+					chosen = i;
+				}
+			}
+
+			Box box = remaining.remove( chosen );
+			double nodeGrowth = node.volumeWith(box) - node.volume();
+			double siblingGrowth = sibling.volumeWith(box) - sibling.volume();
+			if( nodeGrowth < siblingGrowth ||
+			    (nodeGrowth == siblingGrowth && node.children.size() <= sibling.children.size()) )
+			{
+				node.add( box );
+			}
+			else
+			{
+				sibling.add( box );
+			}
+		}
+
+		// the entries moved to the sibling need to know where they live now
+		if( sibling.leaf )
+		{
+			for( Box box : sibling.children )
+				((Entry)box).leaf = sibling;
+		}
+
+		return sibling;
+	}
+
+	////////////////////////////////////////////////////////////
+	////////////////////// Delete Methods //////////////////////
+	////////////////////////////////////////////////////////////
+	private void delete( Entry entry )
+	{
+		Node node = entry.leaf;
+		node.children.remove( entry );
+		entry.leaf = null;
+
+		// walk back up, dissolving any node that has become too small and remembering
+		// its entries so that we can put them back in once the tree is tidy again
+		List<Entry> orphans = new ArrayList<Entry>();
+		while( node.parent != null )
+		{
+			Node parent = node.parent;
+			if( node.children.size() < MIN_CHILDREN )
+			{
+				parent.children.remove( node );
+				collectEntries( node, orphans );
+			}
+			else
+			{
+				node.recalculate();
+			}
+
+			node = parent;
+		}
+
+		// shrink the tree if the root only has one child left
+		root.recalculate();
+		while( root.leaf == false && root.children.size() == 1 )
+		{
+			root = (Node)root.children.get( 0 );
+			root.parent = null;
+		}
+
+		if( root.leaf == false && root.children.isEmpty() )
+			root = new Node( true );
+
+		for( Entry orphan : orphans )
+			insert( orphan );
+	}
+
+	private void collectEntries( Node node, List<Entry> collected )
+	{
+		for( Box child : node.children )
+		{
+			if( node.leaf )
+				collected.add( (Entry)child );
+			else
+				collectEntries( (Node)child, collected );
+		}
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+
+	///////////////////////////////////////////////////////////////////////////////////////
+	///////////////////////////////// Private Inner Class /////////////////////////////////
+	///////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * A box covering a range in each dimension of the space. The bounds are treated as inclusive,
+	 * so two boxes "touch" whenever their extents could possibly overlap.
+	 */
+	private abstract class Box
+	{
+		protected long[] lower;
+		protected long[] upper;
+
+		public boolean touches( Box other )
+		{
+			for( int i = 0; i < lower.length; i++ )
+			{
+				if( other.upper[i] < lower[i] || other.lower[i] > upper[i] )
+					return false;
+			}
+
+			return true;
+		}
+
+		public double volume()
+		{
+			double volume = 1.0;
+			for( int i = 0; i < lower.length; i++ )
+				volume *= (double)upper[i] - (double)lower[i] + 1.0;
+
+			return volume;
+		}
+
+		/** The volume of the box that would cover both this box and the other one */
+		public double volumeWith( Box other )
+		{
+			double volume = 1.0;
+			for( int i = 0; i < lower.length; i++ )
+			{
+				long low = Math.min( lower[i], other.lower[i] );
+				long high = Math.max( upper[i], other.upper[i] );
+				volume *= (double)high - (double)low + 1.0;
+			}
+
+			return volume;
+		}
+	}
+
+	/**
+	 * A single extent of a region, stored in a leaf.
+	 */
+	private class Entry extends Box
+	{
+		private RegionInstance region;
+		private Extent extent;
+		private Node leaf;
+
+		public Entry( RegionInstance region, Extent extent )
+		{
+			this.region = region;
+			this.extent = extent;
+			this.lower = new long[dimensions.length];
+			this.upper = new long[dimensions.length];
+
+			Map<Integer,Extent.Range> ranges = extent.getAllRanges();
+			for( int i = 0; i < dimensions.length; i++ )
+			{
+				Extent.Range range = ranges.get( dimensions[i] );
+				if( range == null )
+				{
+					// no value for the dimension, so we can't rule anything out on it
+					lower[i] = Long.MIN_VALUE;
+					upper[i] = Long.MAX_VALUE;
+				}
+				else
+				{
+					lower[i] = range.lowerBound;
+					upper[i] = range.upperBound;
+				}
+			}
+		}
+	}
+
+	/**
+	 * A node in the tree. The children of a leaf are {@link Entry}s, all other nodes have
+	 * {@link Node}s as children.
+	 */
+	private class Node extends Box
+	{
+		private boolean leaf;
+		private Node parent;
+		private List<Box> children;
+
+		public Node( boolean leaf )
+		{
+			this.leaf = leaf;
+			this.parent = null;
+			this.children = new ArrayList<Box>( MAX_CHILDREN+1 );
+			this.lower = null;
+			this.upper = null;
+		}
+
+		public void add( Box child )
+		{
+			children.add( child );
+			if( child instanceof Node )
+				((Node)child).parent = this;
+
+			if( lower == null )
+			{
+				lower = child.lower.clone();
+				upper = child.upper.clone();
+			}
+			else
+			{
+				for( int i = 0; i < lower.length; i++ )
+				{
+					lower[i] = Math.min( lower[i], child.lower[i] );
+					upper[i] = Math.max( upper[i], child.upper[i] );
+				}
+			}
+		}
+
+		/** Shrink the box back down to what the children cover */
+		public void recalculate()
+		{
+			if( children.isEmpty() )
+			{
+				// an empty node has no box, make sure no search or growth calculation uses it
+				lower = new long[dimensions == null ? 0 : dimensions.length];
+				upper = new long[lower.length];
+				for( int i = 0; i < lower.length; i++ )
+				{
+					lower[i] = Long.MAX_VALUE;
+					upper[i] = Long.MIN_VALUE;
+				}
+				return;
+			}
+
+			lower = children.get(0).lower.clone();
+			upper = children.get(0).upper.clone();
+			for( int i = 1; i < children.size(); i++ )
+			{
+				Box child = children.get( i );
+				for( int j = 0; j < lower.length; j++ )
+				{
+					lower[j] = Math.min( lower[j], child.lower[j] );
+					upper[j] = Math.max( upper[j], child.upper[j] );
+				}
+			}
+		}
+
+		@Override
+		public double volume()
+		{
+			return children.isEmpty() ? 0.0 : super.volume();
+		}
+
+		@Override
+		public double volumeWith( Box other )
+		{
+			return children.isEmpty() ? other.volume() : super.volumeWith( other );
+		}
+	}
+}
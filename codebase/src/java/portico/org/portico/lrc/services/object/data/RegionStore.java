@@ -17,8 +17,10 @@ package org.portico.lrc.services.object.data;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.portico.impl.hla13.types.HLA13Region;
 import org.portico.impl.hla13.types.Java1Region;
@@ -33,18 +35,29 @@ import org.portico.lrc.services.saverestore.data.SaveRestoreTarget;
 
 /**
  * This class maintains a list of all {@link RegionInstance} instances known locally.
+ * <p/>
+ * The regions of each routing space are also kept in a {@link RegionIndex} so that the regions
+ * overlapping any given region can be found quickly (see
+ * {@link #getOverlappingRegions(RegionInstance)}). For that to work, regions must only be changed
+ * through the store (see {@link #updateRegion(RegionInstance, RegionInstance)}).
+ * <p/>
+ * Region changes from other federates are processed as soon as they arrive rather than when the
+ * federate ticks, so changes to the store and searches of the indexes are synchronized.
  */
 public class RegionStore implements SaveRestoreTarget
 {
 	//----------------------------------------------------------
 	//                    STATIC VARIABLES
 	//----------------------------------------------------------
+	/** Up to this many candidates are compared directly rather than searching the index */
+	public static final int DIRECT_COMPARISON_LIMIT = 4;
 
 	//----------------------------------------------------------
 	//                   INSTANCE VARIABLES
 	//----------------------------------------------------------
 	private LRCState state;
 	private Map<Integer,RegionInstance> regions;
+	private Map<Integer,RegionIndex> indexes; // routing space handle to index of its regions
 
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
@@ -53,7 +66,8 @@ public class RegionStore implements SaveRestoreTarget
 	public RegionStore( LRCState state )
 	{
 		this.state = state;
-		this.regions = new HashMap<Integer,RegionInstance>();
+		this.regions = new ConcurrentHashMap<Integer,RegionInstance>();
+		this.indexes = new HashMap<Integer,RegionIndex>();
 	}
 
 	//----------------------------------------------------------
@@ -65,14 +79,33 @@ public class RegionStore implements SaveRestoreTarget
 	 * will be replaced with the one that is being added. If the given region is null, nothing
 	 * will happen.
 	 */
-	public void addRegion( RegionInstance region )
+	public synchronized void addRegion( RegionInstance region )
 	{
 		if( region != null )
 		{
-			regions.put( region.getToken(), region );
+			RegionInstance existing = regions.put( region.getToken(), region );
+			if( existing != null )
+				unindex( existing );
+
+			index( region );
 		}
 	}
 
+	/**
+	 * Copy the values from the given region into the region on file, keeping the index of the
+	 * routing space up to date. The region on file is changed rather than replaced because
+	 * various interest management data structures hold references to it.
+	 * 
+	 * @param regionOnFile The region held by this store
+	 * @param newValues    The region whose values are to be copied into the one on file
+	 */
+	public synchronized void updateRegion( RegionInstance regionOnFile, RegionInstance newValues )
+	{
+		unindex( regionOnFile );
+		regionOnFile.copy( newValues );
+		index( regionOnFile );
+	}
+
 	/**
 	 * Fetch the contained region with the supplied region handle. If no {@link RegionInstance}
 	 * can be found with that handle, <code>null</code> is returned.
@@ -127,9 +160,13 @@ public class RegionStore implements SaveRestoreTarget
 	 * {@link RegionInstance} exists, it will be removed and returned. If no {@link RegionInstance}
 	 * with the given handle exists, null will be returned and the store will remain unaffected.
 	 */
-	public RegionInstance removeRegion( int regionHandle )
+	public synchronized RegionInstance removeRegion( int regionHandle )
 	{
-		return regions.remove( regionHandle );
+		RegionInstance removed = regions.remove( regionHandle );
+		if( removed != null )
+			unindex( removed );
+
+		return removed;
 	}
 
 	/**
@@ -140,7 +177,7 @@ public class RegionStore implements SaveRestoreTarget
 	public RegionInstance removeRegion( RegionInstance theRegion )
 	{
 		if( theRegion != null )
-			return regions.remove( theRegion.getToken() );
+			return removeRegion( theRegion.getToken() );
 		else
 			return null;
 	}
@@ -192,18 +229,111 @@ public class RegionStore implements SaveRestoreTarget
 		return regions.containsKey( region.getWrappedRegion().getToken() );
 	}
 
+	/**
+	 * Find all the regions in the store that overlap with the given region. Overlap is the same
+	 * as for {@link RegionInstance#overlapsWith(RegionInstance)}, but rather than comparing the
+	 * region against each region in the store, the index for its routing space is searched. If
+	 * the given region is in the store, it will be in the returned set. If nothing overlaps, an
+	 * empty set is returned.
+	 */
+	public synchronized Set<RegionInstance> getOverlappingRegions( RegionInstance region )
+	{
+		Set<RegionInstance> overlapping = new HashSet<RegionInstance>();
+		RegionIndex index = indexes.get( region.getSpaceHandle() );
+		if( index != null )
+			index.findOverlapping( region, overlapping );
+
+		return overlapping;
+	}
+
+	/**
+	 * Find one of the given candidate regions that overlaps with the given region. If none of
+	 * them do, <code>null</code> is returned. When there are only a few candidates they are each
+	 * compared directly, otherwise the set of overlapping regions is pulled from the index and
+	 * checked against the candidates.
+	 * 
+	 * @param region     The region to look for overlaps with
+	 * @param candidates The regions (held by this store) that we'd like to find an overlap with
+	 * @param overlapping The result of {@link #getOverlappingRegions(RegionInstance)} for the
+	 *                    region, if the caller already has it. If null, it is fetched only if
+	 *                    needed.
+	 */
+	public RegionInstance findOverlappingRegion( RegionInstance region,
+	                                             Set<RegionInstance> candidates,
+	                                             Set<RegionInstance> overlapping )
+	{
+		if( overlapping == null && candidates.size() <= DIRECT_COMPARISON_LIMIT )
+		{
+			for( RegionInstance candidate : candidates )
+			{
+				if( candidate != null && candidate.overlapsWith(region) )
+					return candidate;
+			}
+
+			return null;
+		}
+
+		if( overlapping == null )
+			overlapping = getOverlappingRegions( region );
+
+		// walk whichever of the sets is smaller, looking for something in both
+		if( candidates.size() <= overlapping.size() )
+		{
+			for( RegionInstance candidate : candidates )
+			{
+				if( candidate != null && overlapping.contains(candidate) )
+					return candidate;
+			}
+		}
+		else
+		{
+			for( RegionInstance found : overlapping )
+			{
+				if( candidates.contains(found) )
+					return found;
+			}
+		}
+
+		return null;
+	}
+
+	private void index( RegionInstance region )
+	{
+		RegionIndex index = indexes.get( region.getSpaceHandle() );
+		if( index == null )
+		{
+			index = new RegionIndex( region.getSpaceHandle() );
+			indexes.put( region.getSpaceHandle(), index );
+		}
+
+		index.add( region );
+	}
+
+	private void unindex( RegionInstance region )
+	{
+		RegionIndex index = indexes.get( region.getSpaceHandle() );
+		if( index != null )
+			index.remove( region.getToken() );
+	}
+
 	/////////////////////////////////////////////////////////////////////////////////////////
 	////////////////////////////////// Save/Restore Methods /////////////////////////////////
 	/////////////////////////////////////////////////////////////////////////////////////////
 	public void saveToStream( ObjectOutput output ) throws Exception
 	{
-		output.writeObject( regions );
+		output.writeObject( new HashMap<Integer,RegionInstance>(regions) );
 	}
 
 	@SuppressWarnings("unchecked")
-	public void restoreFromStream( ObjectInput input ) throws Exception
+	public synchronized void restoreFromStream( ObjectInput input ) throws Exception
 	{
-		this.regions = (Map<Integer,RegionInstance>)input.readObject();
+		this.regions = new ConcurrentHashMap<Integer,RegionInstance>(
+			(Map<Integer,RegionInstance>)input.readObject() );
+
+		// the restored regions are new instances, so build the indexes again from scratch
+		this.indexes = new HashMap<Integer,RegionIndex>();
+		for( RegionInstance region : regions.values() )
+			index( region );
 	}
 
 	//----------------------------------------------------------
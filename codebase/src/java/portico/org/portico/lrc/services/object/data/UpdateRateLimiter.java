@@ -0,0 +1,153 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.services.object.data;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.portico.utils.HandleValueMap;
+
+/**
+ * Keeps track of when we last sent each attribute of each of our objects to the federates that
+ * have subscribed with an update rate, so that the update handler can hold back values they
+ * would otherwise get more often than they asked for. Holding them back on the sending side
+ * means the excess updates never go out on the network, or through the subscriber's queue.
+ * <p/>
+ * Each attribute is limited on its own: an update of one attribute doesn't hold back an update
+ * of another that hasn't been sent recently. A value that is held back is dropped, not sent
+ * later. Like every other reflection the federate does get, the next one it gets will carry
+ * the latest value.
+ * <p/>
+ * A publisher's updates rarely line up exactly with the period of a subscriber's rate, so
+ * updates that come in slightly early (see {@link #TOLERANCE}) are let through rather than
+ * holding the attribute back for a whole extra update.
+ */
+public class UpdateRateLimiter
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	/** The fraction of the period an update can be early by and still be sent */
+	public static final double TOLERANCE = 0.1;
+
+	/** Don't bother looking for objects that have gone until we're tracking at least this many */
+	private static final int MIN_SWEEP_SIZE = 64;
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private Repository repository;
+	private Map<Integer,Map<Long,Long>> sent; // object -> (federate,attribute) -> nanos last sent
+	private int sweepSize;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	public UpdateRateLimiter( Repository repository )
+	{
+		this.repository = repository;
+		this.sent = new HashMap<Integer,Map<Long,Long>>();
+		this.sweepSize = MIN_SWEEP_SIZE;
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	/**
+	 * Work out which of the given attributes of an object are due to be sent to a federate that
+	 * wants no more than the given number of reflections per second. The attributes that are due
+	 * are recorded as having been sent at the given time.
+	 *
+	 * @param objectHandle The handle of the object being updated
+	 * @param federateHandle The handle of the federate the update would be sent to
+	 * @param attributes The attributes being updated
+	 * @param rate The maximum number of reflections of each attribute per second
+	 * @param now The current time, as given by {@link System#nanoTime()}
+	 * @return The indexes in <code>attributes</code> of the attributes that are due. If all of
+	 *         them are, the cardinality of the set will be the size of the map.
+	 */
+	public synchronized BitSet due( int objectHandle,
+	                                int federateHandle,
+	                                HandleValueMap attributes,
+	                                double rate,
+	                                long now )
+	{
+		Map<Long,Long> times = sent.get( objectHandle );
+		if( times == null )
+		{
+			sweep();
+			times = new HashMap<Long,Long>();
+			sent.put( objectHandle, times );
+		}
+
+		long period = (long)((1000000000.0 / rate) * (1.0 - TOLERANCE));
+		BitSet due = new BitSet( attributes.size() );
+		for( int i = 0; i < attributes.size(); i++ )
+		{
+			Long key = key( federateHandle, attributes.handleAt(i) );
+			Long last = times.get( key );
+			if( last == null || now - last >= period )
+			{
+				times.put( key, now );
+				due.set( i );
+			}
+		}
+
+		return due;
+	}
+
+	/**
+	 * Forget when we last sent anything to the given federate, so that the next update of each
+	 * attribute goes to it no matter how recently we sent the last one. Used when a federate
+	 * subscribes again, as it may have been given different values since then.
+	 */
+	public synchronized void reset( int federateHandle )
+	{
+		for( Map<Long,Long> times : sent.values() )
+		{
+			Iterator<Long> keys = times.keySet().iterator();
+			while( keys.hasNext() )
+			{
+				if( (int)(keys.next() >>> 32) == federateHandle )
+					keys.remove();
+			}
+		}
+	}
+
+	/**
+	 * Once we are tracking more objects than we were the last time we looked, throw away what
+	 * we have for any that have been deleted since. This keeps us from holding on to objects
+	 * that are gone without having to be told about each one.
+	 */
+	private void sweep()
+	{
+		if( sent.size() < sweepSize )
+			return;
+
+		sent.keySet().removeIf( handle -> repository.getInstance(handle) == null );
+		this.sweepSize = Math.max( MIN_SWEEP_SIZE, sent.size() * 2 );
+	}
+
+	private Long key( int federateHandle, int attributeHandle )
+	{
+		return (((long)federateHandle) << 32) | (attributeHandle & 0xffffffffL);
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -0,0 +1,89 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.services.object.handlers.incoming;
+
+import java.util.Map;
+
+import org.portico.lrc.LRCMessageHandler;
+import org.portico.lrc.model.ACInstance;
+import org.portico.lrc.model.OCInstance;
+import org.portico.lrc.services.object.msg.ChangeAttributeTransport;
+import org.portico.utils.messaging.MessageContext;
+import org.portico.utils.messaging.MessageHandler;
+
+/**
+ * Records a change another federate has made to the transport of some attributes it owns, so
+ * that we can answer transport queries about them.
+ */
+@MessageHandler(modules="lrc-base",
+                keywords={"lrc13","lrcjava1","lrc1516","lrc1516e"},
+                sinks="incoming",
+                messages=ChangeAttributeTransport.class)
+public class ChangeAttributeTransportIncomingHandler extends LRCMessageHandler
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	public void initialize( Map<String,Object> properties )
+	{
+		super.initialize( properties );
+	}
+	
+	public void process( MessageContext context ) throws Exception
+	{
+		ChangeAttributeTransport notice = context.getRequest( ChangeAttributeTransport.class, this );
+		vetoIfMessageFromUs( notice ); // throws VetoException if its our message
+		int objectHandle = notice.getObjectHandle();
+
+		if( logger.isDebugEnabled() )
+		{
+			logger.debug( "@REMOTE Transport of attributes "+acMoniker(notice.getAttributes())+
+			              " in object ["+objectMoniker(objectHandle)+"] changed to "+
+			              notice.getTransport()+" by ["+moniker(notice.getSourceFederate())+"]" );
+		}
+
+		OCInstance instance = repository.getInstance( objectHandle );
+		if( instance == null )
+		{
+			// may have been deleted in the mean time, nothing to record
+			veto();
+		}
+
+		for( Integer attributeHandle : notice.getAttributes() )
+		{
+			ACInstance attribute = instance.getAttribute( attributeHandle );
+			if( attribute != null )
+				attribute.setTransport( notice.getTransport() );
+		}
+
+		context.success();
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
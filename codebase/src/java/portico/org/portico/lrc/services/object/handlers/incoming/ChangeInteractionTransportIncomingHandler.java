@@ -0,0 +1,76 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.services.object.handlers.incoming;
+
+import java.util.Map;
+
+import org.portico.lrc.LRCMessageHandler;
+import org.portico.lrc.services.object.msg.ChangeInteractionTransport;
+import org.portico.utils.messaging.MessageContext;
+import org.portico.utils.messaging.MessageHandler;
+
+/**
+ * Records a change another federate has made to the transport it sends an interaction class
+ * with, so that we can answer transport queries about it.
+ */
+@MessageHandler(modules="lrc-base",
+                keywords={"lrc13","lrcjava1","lrc1516","lrc1516e"},
+                sinks="incoming",
+                messages=ChangeInteractionTransport.class)
+public class ChangeInteractionTransportIncomingHandler extends LRCMessageHandler
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	public void initialize( Map<String,Object> properties )
+	{
+		super.initialize( properties );
+	}
+	
+	public void process( MessageContext context ) throws Exception
+	{
+		ChangeInteractionTransport notice =
+			context.getRequest( ChangeInteractionTransport.class, this );
+		vetoIfMessageFromUs( notice ); // throws VetoException if its our message
+		int federateHandle = notice.getSourceFederate();
+
+		if( logger.isDebugEnabled() )
+		{
+			logger.debug( "@REMOTE Transport of interaction ["+icMoniker(notice.getClassHandle())+
+			              "] changed to "+notice.getTransport()+" by ["+moniker(federateHandle)+"]" );
+		}
+
+		interests.setInteractionTransport( federateHandle,
+		                                   notice.getClassHandle(),
+		                                   notice.getTransport() );
+		context.success();
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
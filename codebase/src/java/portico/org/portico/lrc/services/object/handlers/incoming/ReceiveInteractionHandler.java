@@ -14,7 +14,6 @@
  */
 package org.portico.lrc.services.object.handlers.incoming;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -24,6 +23,7 @@ import org.portico.lrc.model.ICMetadata;
 import org.portico.lrc.model.RegionInstance;
 import org.portico.lrc.services.object.data.ICInterest;
 import org.portico.lrc.services.object.msg.SendInteraction;
+import org.portico.utils.HandleValueMap;
 import org.portico.utils.messaging.MessageContext;
 import org.portico.utils.messaging.MessageHandler;
 
@@ -63,7 +63,6 @@ public class ReceiveInteractionHandler extends LRCMessageHandler
 		vetoIfMessageFromUs( notice ); // throws VetoException
 		
 		int classHandle = notice.getInteractionId();
-		Map<Integer,byte[]> parameters = notice.getParameters();
 		int regionToken = notice.getRegionToken();
 		int ourHandle = lrcState.getFederateHandle();
 
@@ -72,7 +71,7 @@ public class ReceiveInteractionHandler extends LRCMessageHandler
 			String timeStatus = notice.isTimestamped() ? " @"+notice.getTimestamp() : " (RO)";
 			String ddmStatus = notice.usesDDM() ? ", regionToken="+regionToken : "";
 			logger.debug( "@REMOTE Received INTERACTION [" + icMoniker(classHandle) +
-			              "] with parameters " + pcMoniker(parameters.keySet()) +
+			              "] with parameters " + pcMoniker(notice.getParameterHandles()) +
 			              ddmStatus + timeStatus );
 		}
 		
@@ -105,7 +104,7 @@ public class ReceiveInteractionHandler extends LRCMessageHandler
 		if( subscribed.getHandle() != classHandle )
 		{
 			// replace the existing parameters with the filtered set
-			notice.setParameters( filter(subscribed,parameters) );
+			notice.setParameters( filter(subscribed,notice) );
 			// also set the interaction class handle on the message to be the appropriate type
 			notice.setInteractionId( subscribed.getHandle() );
 
@@ -127,14 +126,16 @@ public class ReceiveInteractionHandler extends LRCMessageHandler
 	 * class (which is the one we are subscribed to, potentially higher up the inheritance hierarchy
 	 * than the one the interaction was sent with).
 	 */
-	private HashMap<Integer,byte[]> filter( ICMetadata subscribed, Map<Integer,byte[]> raw )
+	private HandleValueMap filter( ICMetadata subscribed, SendInteraction notice )
 		throws Exception
 	{
-		HashMap<Integer,byte[]> filtered = new HashMap<Integer,byte[]>();
-		for( Integer receivedHandle : raw.keySet() )
+		HandleValueMap received = notice.getParameters();
+		HandleValueMap filtered = new HandleValueMap( received.size() );
+		for( int i = 0; i < received.size(); i++ )
 		{
+			int receivedHandle = received.handleAt( i );
 			if( subscribed.getParameter(receivedHandle) != null )
-				filtered.put( receivedHandle, raw.get(receivedHandle) );
+				filtered.put( receivedHandle, received.valueAt(i) );
 		}
 		
 		return filtered;
@@ -169,19 +170,15 @@ public class ReceiveInteractionHandler extends LRCMessageHandler
 			                             receivedToken );
 		}
 		
-		// look at each region and consider if there is overlap
-		for( RegionInstance subscribedRegion : subscribed )
-		{
-			if( subscribedRegion.overlapsWith(sentRegion) )
-			{
-				// store the information about the region that caused the overlap in the message
-				notice.setReceivingRegionToken( subscribedRegion.getToken() );
-				return true;
-			}
-		}
-		
-		// none of the provided regions overlap with the sent region, return false
-		return false;
+		// look for a subscribed region that overlaps with the sent region
+		RegionInstance subscribedRegion =
+			regions.findOverlappingRegion( sentRegion, subscribed, null );
+		if( subscribedRegion == null )
+			return false; // none of them do
+
+		// store the information about the region that caused the overlap in the message
+		notice.setReceivingRegionToken( subscribedRegion.getToken() );
+		return true;
 	}
 
 	//----------------------------------------------------------
@@ -24,7 +24,10 @@ import org.portico.lrc.model.OCInstance;
 import org.portico.lrc.model.RegionInstance;
 import org.portico.lrc.services.object.data.OCInterest;
 import org.portico.lrc.services.object.data.RegionGroup;
+import org.portico.lrc.services.object.data.RegionStore;
 import org.portico.lrc.services.object.msg.UpdateAttributes;
+import org.portico.lrc.services.object.msg.UpdateAttributes.FilteredAttributes;
+import org.portico.utils.HandleValueMap;
 import org.portico.utils.messaging.MessageContext;
 import org.portico.utils.messaging.MessageHandler;
 
@@ -64,13 +67,13 @@ public class ReflectAttributesHandler extends LRCMessageHandler
 		vetoIfMessageFromUs( notice ); // throws VetoException
 		
 		int objectHandle = notice.getObjectId();
-		Map<Integer,byte[]> attributes = notice.getAttributes();
 
 		if( logger.isDebugEnabled() )
 		{
 			String timeStatus = notice.isTimestamped() ? " @"+notice.getTimestamp() : " (RO)";
 			logger.debug( "@REMOTE Received object UPDATE [" + objectMoniker(objectHandle) +
-			              "] with attributes " + acMoniker(attributes.keySet()) + timeStatus );
+			              "] with attributes " + acMoniker(notice.getAttributeHandles()) +
+			              timeStatus );
 		}
 		
 		// find the instance, we can't reflect values for an instance we haven't discovered
@@ -82,10 +85,11 @@ public class ReflectAttributesHandler extends LRCMessageHandler
 			veto("Reflection ignored: object unknown");
 		}
 		
+		FilteredAttributes filtered = new FilteredAttributes();
 		try
 		{
 			// filter the incoming attributes down to those we are interested in
-			filter( instance, notice );
+			filter( instance, notice, filtered );
 		}
 		catch( JObjectClassNotSubscribed ocns )
 		{
@@ -93,7 +97,10 @@ public class ReflectAttributesHandler extends LRCMessageHandler
 			veto( "Reflection ignored: no subscribed attributes" );
 		}
 
-		if( notice.getFilteredAttributes().isEmpty() )
+		// the update may be shared with other federates, so what we're interested in is
+		// kept in the context rather than the message
+		UpdateAttributes.setFilteredAttributes( context, filtered );
+		if( filtered.isEmpty() )
 		{
 			logger.debug( "DISCARD reflection for object ["+objectMoniker(objectHandle)+
 			              "]: no subscribed attributes" );
@@ -108,13 +115,14 @@ public class ReflectAttributesHandler extends LRCMessageHandler
 	
 	/**
 	 * Based on the subscription set for the local federate, filter the raw attributes down to
-	 * those that are interesting locally. If there are none of interest, an empty set will be
-	 * returned.
+	 * those that are interesting locally, adding each to the given map. If there are none of
+	 * interest, the map is left empty.
 	 */
-	private void filter( OCInstance instance, UpdateAttributes request ) throws Exception
+	private void filter( OCInstance instance,
+	                     UpdateAttributes request,
+	                     FilteredAttributes filtered )
+		throws Exception
 	{
-		request.clearFilteredAttributes();
-
 		// get the interest this federate has in the object (use the discovered type as that's the
 		// type we discovered the object as, so it's the one that related to our subscription
 		int federateHandle = lrcState.getFederateHandle();
@@ -129,9 +137,18 @@ public class ReflectAttributesHandler extends LRCMessageHandler
 		if( subscriptionGroup == null )
 			return;
 		
-		Map<Integer,byte[]> raw = request.getAttributes();
-		for( Integer reflectedHandle : raw.keySet() )
+		// all the attributes of an object are usually associated with the same region, so
+		// hang on to the overlapping regions we find in case we can use them again
+		RegionInstance lastRegion = null;
+		Set<RegionInstance> lastOverlapping = null;
+
+		// only pull the values we are interested in out of the update, if it came off the
+		// wire the rest are left in the received data and never copied
+		HandleValueMap raw = request.getAttributes();
+		for( int i = 0; i < raw.size(); i++ )
 		{
+			int reflectedHandle = raw.handleAt( i );
+
 			// are we subscribed to this attribute?
 			Set<RegionInstance> subscribedRegions =
 				subscriptionGroup.getRegionsForAttribute( reflectedHandle );
@@ -143,7 +160,7 @@ public class ReflectAttributesHandler extends LRCMessageHandler
 			// of the processing as it is only ddm related
 			if( subscribedRegions.contains(null) )
 			{
-				request.addFilteredAttribute( reflectedHandle, raw.get(reflectedHandle), null );
+				filtered.add( reflectedHandle, raw.valueAt(i), null );
 				continue;
 			}
 			
@@ -151,21 +168,25 @@ public class ReflectAttributesHandler extends LRCMessageHandler
 			ACInstance reflectedAttribute = instance.getAttribute( reflectedHandle );
 			if( reflectedAttribute.getRegion() == null )
 			{
-				request.addFilteredAttribute( reflectedHandle, raw.get(reflectedHandle), null );
+				filtered.add( reflectedHandle, raw.valueAt(i), null );
 				continue;
 			}
 
 			// are we interested in this attribute with OVERLAPPING regions?
-			for( RegionInstance subscribedRegion : subscribedRegions )
+			RegionInstance updateRegion = reflectedAttribute.getRegion();
+			if( updateRegion != lastRegion &&
+			    subscribedRegions.size() > RegionStore.DIRECT_COMPARISON_LIMIT )
 			{
-				if( subscribedRegion.overlapsWith(reflectedAttribute.getRegion()) )
-				{
-					request.addFilteredAttribute( reflectedHandle,
-					                              raw.get(reflectedHandle),
-					                              subscribedRegion );
-					break;
-				}
+				lastRegion = updateRegion;
+				lastOverlapping = regions.getOverlappingRegions( updateRegion );
 			}
+
+			RegionInstance subscribedRegion =
+				regions.findOverlappingRegion( updateRegion,
+				                               subscribedRegions,
+				                               updateRegion == lastRegion ? lastOverlapping : null );
+			if( subscribedRegion != null )
+				filtered.add( reflectedHandle, raw.valueAt(i), subscribedRegion );
 		}
 	}
 
@@ -83,29 +83,33 @@ public class RequestClassUpdateIncomingHandler extends LRCMessageHandler
 		// ignore messages that are from us
 		vetoIfMessageFromUs( notice );
 		
-		// get the region, this will be null if if DDM is not used
+		// get the region, this will be null if if DDM is not used. if it is used, find all the
+		// regions that overlap it up front, rather than checking each attribute's region
 		RegionInstance region = regions.getRegion( regionToken );
+		Set<RegionInstance> overlapping = null;
+		if( region != null )
+			overlapping = regions.getOverlappingRegions( region );
 		
-		check( getObjectClass(classHandle), requested, region );
+		check( getObjectClass(classHandle), requested, overlapping );
 		context.success();
 	}
 
 	// need this in a separate method so we can call it recursively
 	private void check( OCMetadata type,
 	                    Set<Integer> requested,
-	                    RegionInstance region ) throws Exception
+	                    Set<RegionInstance> overlapping ) throws Exception
 	{
 		// for the class (and each of its children) we have to
 		//   -locate all instances of the type
 		//   -issue an update request for the object with each of the handles that we own
-		processClass( type.getHandle(), requested, region );
+		processClass( type.getHandle(), requested, overlapping );
 		for( OCMetadata child : type.getChildTypes() )
-			check( child, requested, region );
+			check( child, requested, overlapping );
 	}
 	
 	private void processClass( int classHandle,
 	                           Set<Integer> requested,
-	                           RegionInstance region ) throws Exception
+	                           Set<RegionInstance> overlapping ) throws Exception
 	{
 		// find all the objects of this class
 		Set<OCInstance> objects = repository.getAllInstances( classHandle );
@@ -118,11 +122,10 @@ public class RequestClassUpdateIncomingHandler extends LRCMessageHandler
 			{
 				// if DDM is used, make sure that the attribute is associated with a region
 				// and that the region overlaps with the provided region
-				if( region != null )
+				if( overlapping != null )
 				{
 					RegionInstance attributeRegion = attribute.getRegion();
-					if( attributeRegion == null ||
-						region.overlapsWith(attributeRegion) == false )
+					if( attributeRegion == null || overlapping.contains(attributeRegion) == false )
 					{
 						continue;
 					}
@@ -24,7 +24,10 @@ import org.portico.utils.messaging.MessageHandler;
  * This handler takes care of incoming object name reservation requests. It just stores the
  * requests in the repository and shouldn't respond in any way to the request. If there is already
  * a reservation for the name, it will be replaced if the handler of the requesting federate is
- * lower than the handle of the federate that has already reserved the name.
+ * lower than the handle of the federate that has already reserved the name. If the existing
+ * reservation holds (the reserver has a lower handle), the request is vetoed so that the
+ * requesting federate finds out as part of its
+ * {@link org.portico.bindings.IConnection#broadcastAndWait(org.portico.utils.messaging.PorticoMessage)}.
  */
 @MessageHandler(modules="lrc-base",
                 keywords={"lrc13","lrcjava1","lrc1516","lrc1516e"},
@@ -84,6 +87,14 @@ public class ReserveObjectNameHandler extends LRCMessageHandler
 				              "]: previousOwner="+moniker(reservedBy)+", newOwner="+
 				              moniker(federate) );
 			}
+			else if( reservedBy < federate )
+			{
+				// existing reservation stands, let the requester know
+				context.error( "Can't reserve object name ["+objectName+"] for ["+
+				               federateName(federate)+"], already reserved for ["+
+				               federateName(reservedBy)+"]" );
+				veto();
+			}
 		}
 		
 		context.success();
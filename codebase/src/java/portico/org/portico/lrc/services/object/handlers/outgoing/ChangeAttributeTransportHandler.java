@@ -0,0 +1,128 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.services.object.handlers.outgoing;
+
+import java.util.HashSet;
+import java.util.Map;
+
+import org.portico.lrc.LRCMessageHandler;
+import org.portico.lrc.compat.JAttributeNotDefined;
+import org.portico.lrc.compat.JAttributeNotOwned;
+import org.portico.lrc.compat.JObjectNotKnown;
+import org.portico.lrc.model.ACInstance;
+import org.portico.lrc.model.OCInstance;
+import org.portico.lrc.services.object.msg.AttributeTransportResponse;
+import org.portico.lrc.services.object.msg.ChangeAttributeTransport;
+import org.portico.utils.messaging.MessageContext;
+import org.portico.utils.messaging.MessageHandler;
+
+/**
+ * Changes the transport that updates to some attributes of an object instance are sent with.
+ * The change takes effect straight away, so the confirmation callback is queued before we
+ * return. The request is also passed on to the other federates so that they can answer
+ * transport queries for the attributes.
+ */
+@MessageHandler(modules="lrc-base",
+                keywords={"lrc13","lrcjava1","lrc1516","lrc1516e"},
+                sinks="outgoing",
+                messages=ChangeAttributeTransport.class)
+public class ChangeAttributeTransportHandler extends LRCMessageHandler
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	public void initialize( Map<String,Object> properties )
+	{
+		super.initialize( properties );
+	}
+	
+	public void process( MessageContext context ) throws Exception
+	{
+		// basic validity checks
+		lrcState.checkJoined();
+		lrcState.checkSave();
+		lrcState.checkRestore();
+
+		ChangeAttributeTransport request = context.getRequest( ChangeAttributeTransport.class, this );
+		int objectHandle = request.getObjectHandle();
+
+		if( logger.isDebugEnabled() )
+		{
+			logger.debug( "ATTEMPT Change transport of attributes "+
+			              acMoniker(request.getAttributes())+" in object ["+
+			              objectMoniker(objectHandle)+"] to "+request.getTransport() );
+		}
+
+		// make sure the object exists and we own all the attributes
+		OCInstance instance = repository.getInstance( objectHandle );
+		if( instance == null )
+			throw new JObjectNotKnown( "unknown object: " + objectHandle );
+
+		int federateHandle = lrcState.getFederateHandle();
+		for( Integer attributeHandle : request.getAttributes() )
+		{
+			ACInstance attribute = instance.getAttribute( attributeHandle );
+			if( attribute == null )
+			{
+				throw new JAttributeNotDefined( "attribute "+attributeHandle+" undefined in class "+
+				                                ocMoniker(instance.getDiscoveredClassHandle()) );
+			}
+			else if( attribute.isOwnedBy(federateHandle) == false )
+			{
+				throw new JAttributeNotOwned( "attribute "+acMoniker(attributeHandle)+
+				                              " of instance: "+objectMoniker(objectHandle)+
+				                              " not owned by ["+moniker()+"]" );
+			}
+		}
+
+		// make the change and let everyone else know about it
+		for( Integer attributeHandle : request.getAttributes() )
+			instance.getAttribute( attributeHandle ).setTransport( request.getTransport() );
+
+		connection.broadcast( request );
+
+		// queue the confirmation
+		AttributeTransportResponse confirmation =
+			new AttributeTransportResponse( objectHandle,
+			                                new HashSet<Integer>(request.getAttributes()),
+			                                request.getTransport(),
+			                                true );
+		lrcState.getQueue().offer( confirmation );
+		context.success();
+
+		if( logger.isInfoEnabled() )
+		{
+			logger.info( "SUCCESS Changed transport of attributes "+
+			             acMoniker(request.getAttributes())+" in object ["+
+			             objectMoniker(objectHandle)+"] to "+request.getTransport() );
+		}
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -0,0 +1,106 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.services.object.handlers.outgoing;
+
+import java.util.Map;
+
+import org.portico.lrc.LRCMessageHandler;
+import org.portico.lrc.compat.JInteractionClassNotDefined;
+import org.portico.lrc.compat.JInteractionClassNotPublished;
+import org.portico.lrc.services.object.msg.ChangeInteractionTransport;
+import org.portico.lrc.services.object.msg.InteractionTransportResponse;
+import org.portico.utils.messaging.MessageContext;
+import org.portico.utils.messaging.MessageHandler;
+
+/**
+ * Changes the transport the local federate sends interactions of a class with. As with
+ * {@link ChangeAttributeTransportHandler}, the change is immediate and is passed on to the other
+ * federates so they can answer transport queries.
+ */
+@MessageHandler(modules="lrc-base",
+                keywords={"lrc13","lrcjava1","lrc1516","lrc1516e"},
+                sinks="outgoing",
+                messages=ChangeInteractionTransport.class)
+public class ChangeInteractionTransportHandler extends LRCMessageHandler
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	public void initialize( Map<String,Object> properties )
+	{
+		super.initialize( properties );
+	}
+	
+	public void process( MessageContext context ) throws Exception
+	{
+		// basic validity checks
+		lrcState.checkJoined();
+		lrcState.checkSave();
+		lrcState.checkRestore();
+
+		ChangeInteractionTransport request =
+			context.getRequest( ChangeInteractionTransport.class, this );
+		int classHandle = request.getClassHandle();
+		int federateHandle = lrcState.getFederateHandle();
+
+		if( logger.isDebugEnabled() )
+		{
+			logger.debug( "ATTEMPT Change transport of interaction ["+icMoniker(classHandle)+
+			              "] to "+request.getTransport() );
+		}
+
+		// make sure the class exists and we publish it
+		if( lrcState.getFOM().getInteractionClass(classHandle) == null )
+			throw new JInteractionClassNotDefined( "interaction class handle: " + classHandle );
+
+		if( interests.isInteractionClassPublished(federateHandle,classHandle) == false )
+			throw new JInteractionClassNotPublished( "not published: " + icMoniker(classHandle) );
+
+		// make the change and let everyone else know about it
+		interests.setInteractionTransport( federateHandle, classHandle, request.getTransport() );
+		connection.broadcast( request );
+
+		// queue the confirmation
+		InteractionTransportResponse confirmation =
+			new InteractionTransportResponse( federateHandle,
+			                                  classHandle,
+			                                  request.getTransport(),
+			                                  true );
+		lrcState.getQueue().offer( confirmation );
+		context.success();
+
+		if( logger.isInfoEnabled() )
+		{
+			logger.info( "SUCCESS Changed transport of interaction ["+icMoniker(classHandle)+
+			             "] to "+request.getTransport() );
+		}
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -0,0 +1,105 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.services.object.handlers.outgoing;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.portico.lrc.LRCMessageHandler;
+import org.portico.lrc.compat.JAttributeNotDefined;
+import org.portico.lrc.compat.JObjectNotKnown;
+import org.portico.lrc.model.ACInstance;
+import org.portico.lrc.model.OCInstance;
+import org.portico.lrc.services.object.msg.AttributeTransportResponse;
+import org.portico.lrc.services.object.msg.QueryAttributeTransport;
+import org.portico.utils.messaging.MessageContext;
+import org.portico.utils.messaging.MessageHandler;
+
+@MessageHandler(modules="lrc-base",
+                keywords={"lrc13","lrcjava1","lrc1516","lrc1516e"},
+                sinks="outgoing",
+                messages=QueryAttributeTransport.class)
+public class QueryAttributeTransportHandler extends LRCMessageHandler
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	public void initialize( Map<String,Object> properties )
+	{
+		super.initialize( properties );
+	}
+	
+	public void process( MessageContext context ) throws Exception
+	{
+		// basic validity checks
+		lrcState.checkJoined();
+		lrcState.checkSave();
+		lrcState.checkRestore();
+
+		QueryAttributeTransport request = context.getRequest( QueryAttributeTransport.class, this );
+		int objectHandle = request.getObjectHandle();
+		int attributeHandle = request.getAttributeHandle();
+
+		if( logger.isDebugEnabled() )
+		{
+			logger.debug( "QUERY   Query transport of attribute "+acMoniker(attributeHandle)+
+			              " of object ["+objectMoniker(objectHandle)+"]" );
+		}
+
+		// try and find the object
+		OCInstance objectInstance = repository.getInstance( objectHandle );
+		if( objectInstance == null )
+			throw new JObjectNotKnown( "unknown object: " + objectHandle );
+
+		// try and find the attribute
+		ACInstance attributeInstance = objectInstance.getAttribute( attributeHandle );
+		if( attributeInstance == null )
+			throw new JAttributeNotDefined( "unknown attribute: "+attributeHandle );
+
+		// queue callback notice
+		Set<Integer> attributes = new HashSet<Integer>();
+		attributes.add( attributeHandle );
+		AttributeTransportResponse response =
+			new AttributeTransportResponse( objectHandle,
+			                                attributes,
+			                                attributeInstance.getTransport(),
+			                                false );
+
+		lrcState.getQueue().offer( response );
+		context.success();
+		if( logger.isDebugEnabled() )
+		{
+			logger.debug( "QUERY-R Transport of attribute "+acMoniker(attributeHandle)+" in ["+
+			              objectMoniker(objectHandle)+"] is "+attributeInstance.getTransport() );
+		}
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -0,0 +1,91 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.services.object.handlers.outgoing;
+
+import java.util.Map;
+
+import org.portico.lrc.LRCMessageHandler;
+import org.portico.lrc.compat.JInteractionClassNotDefined;
+import org.portico.lrc.model.Transport;
+import org.portico.lrc.services.object.msg.InteractionTransportResponse;
+import org.portico.lrc.services.object.msg.QueryInteractionTransport;
+import org.portico.utils.messaging.MessageContext;
+import org.portico.utils.messaging.MessageHandler;
+
+@MessageHandler(modules="lrc-base",
+                keywords={"lrc13","lrcjava1","lrc1516","lrc1516e"},
+                sinks="outgoing",
+                messages=QueryInteractionTransport.class)
+public class QueryInteractionTransportHandler extends LRCMessageHandler
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	public void initialize( Map<String,Object> properties )
+	{
+		super.initialize( properties );
+	}
+	
+	public void process( MessageContext context ) throws Exception
+	{
+		// basic validity checks
+		lrcState.checkJoined();
+		lrcState.checkSave();
+		lrcState.checkRestore();
+
+		QueryInteractionTransport request =
+			context.getRequest( QueryInteractionTransport.class, this );
+		int federateHandle = request.getFederateHandle();
+		int classHandle = request.getClassHandle();
+
+		if( logger.isDebugEnabled() )
+		{
+			logger.debug( "QUERY   Query transport of interaction ["+icMoniker(classHandle)+
+			              "] sent by ["+moniker(federateHandle)+"]" );
+		}
+
+		if( lrcState.getFOM().getInteractionClass(classHandle) == null )
+			throw new JInteractionClassNotDefined( "interaction class handle: " + classHandle );
+
+		// queue callback notice
+		Transport transport = interests.getInteractionTransport( federateHandle, classHandle );
+		InteractionTransportResponse response =
+			new InteractionTransportResponse( federateHandle, classHandle, transport, false );
+
+		lrcState.getQueue().offer( response );
+		context.success();
+		if( logger.isDebugEnabled() )
+		{
+			logger.debug( "QUERY-R Transport of interaction ["+icMoniker(classHandle)+
+			              "] sent by ["+moniker(federateHandle)+"] is "+transport );
+		}
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
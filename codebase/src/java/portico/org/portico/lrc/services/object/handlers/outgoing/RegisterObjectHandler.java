@@ -192,7 +192,7 @@ public class RegisterObjectHandler extends LRCMessageHandler
 			}
 
 			// validate that we know about the region
-			RegionInstance region = regions.getRegion( regionToken );
+			RegionInstance region = regions.getRegionWeCreated( regionToken );
 			if( region == null )
 				throw new JRegionNotKnown( "token: " + regionToken );
 
@@ -286,8 +286,8 @@ public class RegisterObjectHandler extends LRCMessageHandler
 		if( PorticoConstants.isObjectNamingNegotiated() == false )
 			return;
 
-		// send out the reservation request and wait for a period of time defined by
-		// the connection (rather than us defining it arbitrarily)
+		// send out the reservation request and wait for everyone to acknowledge it. if
+		// anyone already holds a reservation for the name they will veto the request
 		if( logger.isDebugEnabled() )
 		{
 			logger.debug( "Sending object name reservation request: name="+name+
@@ -295,15 +295,17 @@ public class RegisterObjectHandler extends LRCMessageHandler
 		}
 
 		ReserveObjectName reserve = new ReserveObjectName( name );
-		connection.broadcastAndSleep( fill(reserve) );
+		Map<Integer,String> vetoes = connection.broadcastAndWait( fill(reserve) );
+		if( vetoes.isEmpty() == false )
+			throw new JObjectAlreadyRegistered( vetoes.values().iterator().next() );
 
 		//////////////////////////////
 		// check availability again //
 		//////////////////////////////
-		// we have sent the request and waited the appropriate amount of time to see if anyone
-		// else wants to try and reserve the same name. If they have (and the handle of that
-		// federate is lower than ours), the repository will have been updated to reflect it as
-		// the owner of that, so we have to check again
+		// we have sent the request and everyone has acknowledged it. If anyone else tried to
+		// reserve the same name in the mean time (and the handle of that federate is lower
+		// than ours), the repository will have been updated to reflect it as the owner of
+		// that, so we have to check again
 		reservedBy = repository.getReserverOfName( name );
 		if( reservedBy != PorticoConstants.NULL_HANDLE && reservedBy != federateHandle() )
 		{
@@ -90,7 +90,7 @@ public class RequestClassUpdateHandler extends LRCMessageHandler
 		}
 		
 		// validate that the region exists
-		if( request.usesDDM() && regions.getRegion(regionToken) == null )
+		if( request.usesDDM() && regions.getRegionWeCreated(regionToken) == null )
 			throw new JRegionNotKnown( "token: " + regionToken );
 		
 		// there are a couple of possible combinations of actions here:
@@ -14,11 +14,11 @@
  */
 package org.portico.lrc.services.object.handlers.outgoing;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
 import org.portico.lrc.LRCMessageHandler;
+import org.portico.lrc.PorticoConstants;
 import org.portico.lrc.compat.JInteractionClassNotDefined;
 import org.portico.lrc.compat.JInteractionClassNotPublished;
 import org.portico.lrc.compat.JInteractionParameterNotDefined;
@@ -27,7 +27,9 @@ import org.portico.lrc.compat.JRegionNotKnown;
 import org.portico.lrc.model.ICMetadata;
 import org.portico.lrc.model.RegionInstance;
 import org.portico.lrc.model.Space;
+import org.portico.lrc.model.Transport;
 import org.portico.lrc.services.object.msg.SendInteraction;
+import org.portico.utils.HandleValueMap;
 import org.portico.utils.messaging.MessageContext;
 import org.portico.utils.messaging.MessageHandler;
 
@@ -61,7 +63,7 @@ public class SendInteractionHandler extends LRCMessageHandler
 	{
 		SendInteraction request = context.getRequest( SendInteraction.class, this );
 		int classHandle = request.getInteractionId();
-		HashMap<Integer,byte[]> parameters = request.getParameters();
+		HandleValueMap parameters = request.getParameters();
 		int regionToken = request.getRegionToken(); // optional:default PorticoConstants.NULL_HANDLE
 
 		// basic validity checks
@@ -89,8 +91,36 @@ public class SendInteractionHandler extends LRCMessageHandler
 		if( request.usesDDM() )
 			validateRegion( interactionClass, regionToken );
 		
-		// everything is OK here, broadcast out the update
-		connection.broadcast( request );
+		// interactions we send best effort aren't retransmitted if they're lost. Timestamped
+		// ones stay reliable so they can't turn up after a later time advance from us
+		if( request.isTimestamped() == false )
+		{
+			Transport transport = interests.getInteractionTransport( federateHandle(), classHandle );
+			request.setBestEffort( transport == Transport.BEST_EFFORT );
+		}
+		
+		// everything is OK here, send out the interaction to anyone who might want it
+		if( PorticoConstants.isInterestFilteringEnabled() )
+		{
+			Set<Integer> targets = null;
+			if( request.usesDDM() )
+			{
+				RegionInstance region = regions.getRegion( regionToken );
+				targets = interests.getSubscribersOfInteraction( classHandle, region );
+			}
+			else
+			{
+				targets = interests.getSubscribersOfInteraction( classHandle );
+			}
+
+			targets.remove( lrcState.getFederateHandle() );
+			connection.multicast( request, targets );
+		}
+		else
+		{
+			connection.broadcast( request );
+		}
+
 		context.success();
 		
 		if( logger.isInfoEnabled() )
@@ -14,16 +14,25 @@
  */
 package org.portico.lrc.services.object.handlers.outgoing;
 
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 
 import org.portico.lrc.LRCMessageHandler;
+import org.portico.lrc.PorticoConstants;
 import org.portico.lrc.compat.JAttributeNotDefined;
 import org.portico.lrc.compat.JAttributeNotOwned;
 import org.portico.lrc.compat.JObjectNotKnown;
 import org.portico.lrc.model.ACInstance;
 import org.portico.lrc.model.OCInstance;
+import org.portico.lrc.model.RegionInstance;
+import org.portico.lrc.model.Transport;
+import org.portico.lrc.services.object.data.UpdateRateLimiter;
 import org.portico.lrc.services.object.msg.UpdateAttributes;
+import org.portico.utils.HandleValueMap;
 import org.portico.utils.messaging.MessageContext;
 import org.portico.utils.messaging.MessageHandler;
 
@@ -57,7 +66,7 @@ public class UpdateAttributesHandler extends LRCMessageHandler
 	{
 		UpdateAttributes request = context.getRequest( UpdateAttributes.class, this );
 		int objectHandle = request.getObjectId();
-		HashMap<Integer,byte[]> attributes = request.getAttributes();
+		HandleValueMap attributes = request.getAttributes();
 
 		// basic validity checks
 		lrcState.checkJoined();
@@ -82,8 +91,9 @@ public class UpdateAttributesHandler extends LRCMessageHandler
 		
 		// check each of the attributes to make sure that we own them and thus can update them
 		int federateHandle = lrcState.getFederateHandle();
-		for( Integer attributeHandle : attributes.keySet() )
+		for( int i = 0; i < attributes.size(); i++ )
 		{
+			int attributeHandle = attributes.handleAt( i );
 			ACInstance attributeInstance = instance.getAttribute( attributeHandle );
 			if( attributeInstance == null )
 			{
@@ -101,8 +111,12 @@ public class UpdateAttributesHandler extends LRCMessageHandler
 			}
 		}
 
-		// everything is OK here, broadcast out the update
-		connection.broadcast( request );
+		// everything is OK here, send out the update to anyone who might want it
+		UpdateAttributes bestEffort = splitBestEffort( request, instance );
+		if( bestEffort != null )
+			send( bestEffort, instance );
+		
+		send( request, instance );
 		context.success();
 		
 		if( logger.isInfoEnabled() )
@@ -113,6 +127,193 @@ public class UpdateAttributesHandler extends LRCMessageHandler
 		}
 	}
 
+	private void send( UpdateAttributes update, OCInstance instance ) throws Exception
+	{
+		if( PorticoConstants.isInterestFilteringEnabled() )
+		{
+			// only take regions into account if some of the attributes are associated with one
+			Set<Integer> targets = null;
+			Map<Integer,RegionInstance> updateRegions = getUpdateRegions( update, instance );
+			if( updateRegions == null )
+			{
+				targets = interests.getSubscribersOfAttributes( instance.getRegisteredClassHandle(),
+				                                                update.getAttributes().keySet() );
+			}
+			else
+			{
+				targets = interests.getSubscribersOfAttributes( instance.getRegisteredClassHandle(),
+				                                                updateRegions );
+			}
+
+			targets.remove( lrcState.getFederateHandle() );
+			if( update.isTimestamped() == false )
+				sendRateLimited( update, instance, targets );
+			else
+				connection.multicast( update, targets );
+		}
+		else
+		{
+			connection.broadcast( update );
+		}
+	}
+
+	/**
+	 * Send a receive order update to the given targets, holding back any attributes that a
+	 * target subscribed with an update rate for and has already been sent recently (see
+	 * {@link UpdateRateLimiter}). Targets without a rate get the whole update. Those that are
+	 * only due some of the attributes get an update with just those, shared with any other
+	 * targets that are due the same ones. Targets that aren't due any get nothing.
+	 * <p/>
+	 * Timestamped updates are never held back. Dropping them would change what a federate sees
+	 * at a given time, not just how often it sees it.
+	 */
+	private void sendRateLimited( UpdateAttributes update, OCInstance instance, Set<Integer> targets )
+		throws Exception
+	{
+		UpdateRateLimiter limiter = lrcState.getUpdateRateLimiter();
+		HandleValueMap attributes = update.getAttributes();
+		Map<BitSet,Set<Integer>> partial = null; // attributes due -> targets due them
+		long now = System.nanoTime();
+
+		Iterator<Integer> iterator = targets.iterator();
+		while( iterator.hasNext() )
+		{
+			int target = iterator.next();
+			double rate = interests.getUpdateRate( target, instance.getRegisteredClassHandle() );
+			if( rate <= 0.0 )
+				continue;
+
+			BitSet due = limiter.due( update.getObjectId(), target, attributes, rate, now );
+			if( due.cardinality() == attributes.size() )
+				continue;
+
+			// the target isn't due all of the update, it'll get a smaller one (or none)
+			iterator.remove();
+			if( due.isEmpty() )
+				continue;
+
+			if( partial == null )
+				partial = new HashMap<BitSet,Set<Integer>>();
+
+			Set<Integer> dueTargets = partial.get( due );
+			if( dueTargets == null )
+			{
+				dueTargets = new HashSet<Integer>();
+				partial.put( due, dueTargets );
+			}
+			dueTargets.add( target );
+		}
+
+		if( targets.isEmpty() == false )
+			connection.multicast( update, targets );
+
+		if( partial == null )
+			return;
+
+		for( Map.Entry<BitSet,Set<Integer>> entry : partial.entrySet() )
+		{
+			BitSet due = entry.getKey();
+			HandleValueMap values = new HandleValueMap( due.cardinality() );
+			for( int i = due.nextSetBit(0); i >= 0; i = due.nextSetBit(i+1) )
+				values.put( attributes.handleAt(i), attributes.valueAt(i) );
+
+			UpdateAttributes reduced = new UpdateAttributes( update.getObjectId(),
+			                                                 update.getTag(),
+			                                                 values );
+			reduced.setSourceFederate( update.getSourceFederate() );
+			reduced.setBestEffort( update.isBestEffort() );
+			connection.multicast( reduced, entry.getValue() );
+		}
+	}
+
+	/**
+	 * Find the region each of the updated attributes is associated with for updates. If none of
+	 * them are associated with a region, <code>null</code> is returned.
+	 */
+	private Map<Integer,RegionInstance> getUpdateRegions( UpdateAttributes update,
+	                                                      OCInstance instance )
+	{
+		HandleValueMap attributes = update.getAttributes();
+		boolean usesRegions = false;
+		for( int i = 0; i < attributes.size(); i++ )
+		{
+			if( instance.getAttribute(attributes.handleAt(i)).getRegion() != null )
+			{
+				usesRegions = true;
+				break;
+			}
+		}
+
+		if( usesRegions == false )
+			return null;
+
+		Map<Integer,RegionInstance> updateRegions = new HashMap<Integer,RegionInstance>();
+		for( int i = 0; i < attributes.size(); i++ )
+		{
+			int attributeHandle = attributes.handleAt( i );
+			updateRegions.put( attributeHandle, instance.getAttribute(attributeHandle).getRegion() );
+		}
+
+		return updateRegions;
+	}
+
+	/**
+	 * Updates to attributes with a best effort transport don't have to be retransmitted if they
+	 * are lost. If every attribute in the request is best effort, the request is just marked as
+	 * such. If only some are, they are moved out into a separate update which is returned, and
+	 * the request is left with the reliable attributes.
+	 * <p/>
+	 * Timestamped updates are always sent reliably. A best effort message isn't kept in order
+	 * with the rest of our messages, so it could otherwise turn up after a later time advance.
+	 * 
+	 * @return The best effort update to send as well as the request, or <code>null</code> if
+	 *         there isn't one
+	 */
+	private UpdateAttributes splitBestEffort( UpdateAttributes request, OCInstance instance )
+	{
+		if( request.isTimestamped() )
+			return null;
+
+		HandleValueMap attributes = request.getAttributes();
+		HandleValueMap bestEffort = null;
+		HandleValueMap reliable = null;
+		for( int i = 0; i < attributes.size(); i++ )
+		{
+			int attributeHandle = attributes.handleAt( i );
+			if( instance.getAttribute(attributeHandle).getTransport() == Transport.BEST_EFFORT )
+			{
+				if( bestEffort == null )
+					bestEffort = new HandleValueMap( attributes.size() );
+				bestEffort.put( attributeHandle, attributes.valueAt(i) );
+			}
+			else
+			{
+				if( reliable == null )
+					reliable = new HandleValueMap( attributes.size() );
+				reliable.put( attributeHandle, attributes.valueAt(i) );
+			}
+		}
+
+		if( bestEffort == null )
+		{
+			return null;
+		}
+		else if( reliable == null )
+		{
+			request.setBestEffort( true );
+			return null;
+		}
+
+		request.setAttributes( reliable );
+
+		UpdateAttributes split = new UpdateAttributes( request.getObjectId(),
+		                                               request.getTag(),
+		                                               bestEffort );
+		split.setSourceFederate( request.getSourceFederate() );
+		split.setBestEffort( true );
+		return split;
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
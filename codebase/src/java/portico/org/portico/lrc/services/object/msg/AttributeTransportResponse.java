@@ -0,0 +1,121 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.services.object.msg;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.portico.lrc.model.Transport;
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
+import org.portico.utils.messaging.PorticoMessage;
+
+/**
+ * Callback message telling the local federate which transport a set of attributes of an object
+ * instance use. It is either the confirmation of a {@link ChangeAttributeTransport} request, or
+ * the answer to a {@link QueryAttributeTransport} (in which case there is only one attribute).
+ */
+public class AttributeTransportResponse extends PorticoMessage
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final long serialVersionUID = 98121116105109L;
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private int objectHandle;
+	private Set<Integer> attributes;
+	private Transport transport;
+	private boolean confirmation;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected AttributeTransportResponse()
+	{
+		super();
+		this.attributes = new HashSet<Integer>();
+		this.transport = Transport.RELIABLE;
+	}
+
+	public AttributeTransportResponse( int objectHandle,
+	                                   Set<Integer> attributes,
+	                                   Transport transport,
+	                                   boolean confirmation )
+	{
+		this();
+		this.objectHandle = objectHandle;
+		this.attributes = attributes;
+		this.transport = transport;
+		this.confirmation = confirmation;
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	public int getObjectHandle()
+	{
+		return objectHandle;
+	}
+
+	public Set<Integer> getAttributes()
+	{
+		return attributes;
+	}
+
+	public Transport getTransport()
+	{
+		return transport;
+	}
+
+	/**
+	 * @return <code>true</code> if this confirms a change requested by the local federate,
+	 *         <code>false</code> if it is the answer to a query
+	 */
+	public boolean isConfirmation()
+	{
+		return confirmation;
+	}
+
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeInt( this.objectHandle );
+		output.writeIntCollection( this.attributes );
+		output.writeByte( this.transport.ordinal() );
+		output.writeBoolean( this.confirmation );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.objectHandle = input.readInt();
+		this.attributes = input.readIntSet();
+		this.transport = Transport.values()[input.readByte()];
+		this.confirmation = input.readBoolean();
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -0,0 +1,105 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.services.object.msg;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.portico.lrc.model.Transport;
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
+import org.portico.utils.messaging.PorticoMessage;
+
+/**
+ * Request to change the transport that updates to a set of attributes of an object instance are
+ * sent with. The owning federate sends this through its outgoing sink, and once it is validated
+ * it is passed on to the other federates so that they can answer transport queries.
+ */
+public class ChangeAttributeTransport extends PorticoMessage
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final long serialVersionUID = 98121116105109L;
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private int objectHandle;
+	private Set<Integer> attributes;
+	private Transport transport;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected ChangeAttributeTransport()
+	{
+		super();
+		this.attributes = new HashSet<Integer>();
+		this.transport = Transport.RELIABLE;
+	}
+
+	public ChangeAttributeTransport( int objectHandle, Set<Integer> attributes, Transport transport )
+	{
+		this();
+		this.objectHandle = objectHandle;
+		this.attributes = attributes;
+		this.transport = transport;
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	public int getObjectHandle()
+	{
+		return objectHandle;
+	}
+
+	public Set<Integer> getAttributes()
+	{
+		return attributes;
+	}
+
+	public Transport getTransport()
+	{
+		return transport;
+	}
+
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeInt( this.objectHandle );
+		output.writeIntCollection( this.attributes );
+		output.writeByte( this.transport.ordinal() );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.objectHandle = input.readInt();
+		this.attributes = input.readIntSet();
+		this.transport = Transport.values()[input.readByte()];
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
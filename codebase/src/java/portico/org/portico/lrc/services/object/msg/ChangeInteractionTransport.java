@@ -0,0 +1,92 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.services.object.msg;
+
+import org.portico.lrc.model.Transport;
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
+import org.portico.utils.messaging.PorticoMessage;
+
+/**
+ * Request to change the transport the sending federate uses for interactions of a particular
+ * class. Like {@link ChangeAttributeTransport}, it is passed on to the other federates once it
+ * has been validated locally so that they can answer transport queries.
+ */
+public class ChangeInteractionTransport extends PorticoMessage
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final long serialVersionUID = 98121116105109L;
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private int classHandle;
+	private Transport transport;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected ChangeInteractionTransport()
+	{
+		super();
+		this.transport = Transport.RELIABLE;
+	}
+
+	public ChangeInteractionTransport( int classHandle, Transport transport )
+	{
+		this();
+		this.classHandle = classHandle;
+		this.transport = transport;
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	public int getClassHandle()
+	{
+		return classHandle;
+	}
+
+	public Transport getTransport()
+	{
+		return transport;
+	}
+
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeInt( this.classHandle );
+		output.writeByte( this.transport.ordinal() );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.classHandle = input.readInt();
+		this.transport = Transport.values()[input.readByte()];
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -24,6 +24,8 @@ import java.util.Set;
 import org.portico.lrc.model.ACInstance;
 import org.portico.lrc.model.OCInstance;
 import org.portico.lrc.model.RegionInstance;
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 public class DiscoverObject extends PorticoMessage implements Externalizable
@@ -172,6 +174,52 @@ public class DiscoverObject extends PorticoMessage implements Externalizable
 		output.writeObject( this.regionTokens );
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeInt( this.classHandle );
+		output.writeString( this.objectName );
+		output.writeInt( this.objectHandle );
+		output.writeIntArray( this.ownedAttributes );
+		output.writeBoolean( this.rediscoveryCheck );
+		if( this.regionTokens == null )
+		{
+			output.writeInt( -1 );
+		}
+		else
+		{
+			output.writeInt( this.regionTokens.length );
+			for( int[] pair : this.regionTokens )
+				output.writeIntArray( pair );
+		}
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.classHandle = input.readInt();
+		this.objectName = input.readString();
+		this.objectHandle = input.readInt();
+		this.ownedAttributes = input.readIntArray();
+		this.rediscoveryCheck = input.readBoolean();
+		int regionCount = input.readInt();
+		if( regionCount == -1 )
+		{
+			this.regionTokens = null;
+		}
+		else
+		{
+			this.regionTokens = new int[regionCount][];
+			for( int i = 0; i < regionCount; i++ )
+				this.regionTokens[i] = input.readIntArray();
+		}
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -0,0 +1,120 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.services.object.msg;
+
+import org.portico.lrc.model.Transport;
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
+import org.portico.utils.messaging.PorticoMessage;
+
+/**
+ * Callback message telling the local federate which transport a federate uses to send an
+ * interaction class. It is either the confirmation of a {@link ChangeInteractionTransport}
+ * request, or the answer to a {@link QueryInteractionTransport}.
+ */
+public class InteractionTransportResponse extends PorticoMessage
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final long serialVersionUID = 98121116105109L;
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private int federateHandle;
+	private int classHandle;
+	private Transport transport;
+	private boolean confirmation;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected InteractionTransportResponse()
+	{
+		super();
+		this.transport = Transport.RELIABLE;
+	}
+
+	public InteractionTransportResponse( int federateHandle,
+	                                     int classHandle,
+	                                     Transport transport,
+	                                     boolean confirmation )
+	{
+		this();
+		this.federateHandle = federateHandle;
+		this.classHandle = classHandle;
+		this.transport = transport;
+		this.confirmation = confirmation;
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	/**
+	 * @return The handle of the federate that sends the interaction class with the transport
+	 */
+	public int getFederateHandle()
+	{
+		return federateHandle;
+	}
+
+	public int getClassHandle()
+	{
+		return classHandle;
+	}
+
+	public Transport getTransport()
+	{
+		return transport;
+	}
+
+	/**
+	 * @return <code>true</code> if this confirms a change requested by the local federate,
+	 *         <code>false</code> if it is the answer to a query
+	 */
+	public boolean isConfirmation()
+	{
+		return confirmation;
+	}
+
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeInt( this.federateHandle );
+		output.writeInt( this.classHandle );
+		output.writeByte( this.transport.ordinal() );
+		output.writeBoolean( this.confirmation );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.federateHandle = input.readInt();
+		this.classHandle = input.readInt();
+		this.transport = Transport.values()[input.readByte()];
+		this.confirmation = input.readBoolean();
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
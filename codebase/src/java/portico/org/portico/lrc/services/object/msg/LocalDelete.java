@@ -14,6 +14,8 @@
  */
 package org.portico.lrc.services.object.msg;
 
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 public class LocalDelete extends PorticoMessage
@@ -32,6 +34,12 @@ public class LocalDelete extends PorticoMessage
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
 
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected LocalDelete()
+	{
+		super();
+	}
+
 	public LocalDelete( int objectHandle )
 	{
 		this.objectHandle = objectHandle;
@@ -51,6 +59,23 @@ public class LocalDelete extends PorticoMessage
 		this.objectHandle = objectHandle;
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeInt( this.objectHandle );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.objectHandle = input.readInt();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
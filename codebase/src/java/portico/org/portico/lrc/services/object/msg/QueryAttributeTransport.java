@@ -0,0 +1,89 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.services.object.msg;
+
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
+import org.portico.utils.messaging.PorticoMessage;
+
+/**
+ * Asks for the transport that updates to an attribute of an object instance are sent with. The
+ * answer is delivered as an {@link AttributeTransportResponse} callback.
+ */
+public class QueryAttributeTransport extends PorticoMessage
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final long serialVersionUID = 98121116105109L;
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private int objectHandle;
+	private int attributeHandle;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected QueryAttributeTransport()
+	{
+		super();
+	}
+
+	public QueryAttributeTransport( int objectHandle, int attributeHandle )
+	{
+		super();
+		this.objectHandle = objectHandle;
+		this.attributeHandle = attributeHandle;
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	public int getObjectHandle()
+	{
+		return objectHandle;
+	}
+
+	public int getAttributeHandle()
+	{
+		return attributeHandle;
+	}
+
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeInt( this.objectHandle );
+		output.writeInt( this.attributeHandle );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.objectHandle = input.readInt();
+		this.attributeHandle = input.readInt();
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
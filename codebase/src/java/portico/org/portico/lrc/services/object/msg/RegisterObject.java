@@ -20,6 +20,8 @@ import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.util.ArrayList;
 
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 /**
@@ -211,6 +213,29 @@ public class RegisterObject extends PorticoMessage implements Externalizable
 		}
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeInt( this.classHandle );
+		output.writeString( this.objectName );
+		output.writeIntCollection( this.attributes );
+		output.writeIntCollection( this.regionTokens );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.classHandle = input.readInt();
+		this.objectName = input.readString();
+		this.attributes = input.readIntList();
+		this.regionTokens = input.readIntList();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -16,6 +16,8 @@ package org.portico.lrc.services.object.msg;
 
 import java.util.Set;
 import org.portico.lrc.PorticoConstants;
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 /**
@@ -107,6 +109,29 @@ public class RequestClassUpdate extends PorticoMessage
 		return this.regionToken != PorticoConstants.NULL_HANDLE;
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeInt( this.classHandle );
+		output.writeIntCollection( this.attributeHandles );
+		output.writeBytes( this.tag );
+		output.writeInt( this.regionToken );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.classHandle = input.readInt();
+		this.attributeHandles = input.readIntSet();
+		this.tag = input.readBytes();
+		this.regionToken = input.readInt();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -16,6 +16,8 @@ package org.portico.lrc.services.object.msg;
 
 import java.util.HashSet;
 
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 /**
@@ -92,6 +94,27 @@ public class RequestObjectUpdate extends PorticoMessage
     	this.tag = tag;
     }
 	
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeInt( this.objectId );
+		output.writeIntCollection( this.attributes );
+		output.writeBytes( this.tag );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.objectId = input.readInt();
+		this.attributes = input.readIntSet();
+		this.tag = input.readBytes();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -19,6 +19,8 @@ import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 /**
@@ -39,6 +41,12 @@ public class ReserveObjectNameResult extends PorticoMessage implements Externali
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
+	/** Only used for deserialization/unmarshaling, see {@link #unmarshal(MessageInput)} */
+	public ReserveObjectNameResult()
+	{
+		super();
+	}
+
 	public ReserveObjectNameResult( String objectName, boolean successful )
 	{
 		super();
@@ -93,4 +101,27 @@ public class ReserveObjectNameResult extends PorticoMessage implements Externali
 		
 		output.writeBoolean( this.successful );
 	}
+
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeString( this.objectName );
+		output.writeBoolean( this.successful );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.objectName = input.readString();
+		this.successful = input.readBoolean();
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
 }
@@ -15,18 +15,25 @@
 package org.portico.lrc.services.object.msg;
 
 import java.io.Externalizable;
-import java.io.IOException;
-import java.io.ObjectInput;
-import java.io.ObjectOutput;
-import java.util.HashMap;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Set;
 
 import org.portico.lrc.PorticoConstants;
+import org.portico.utils.HandleValueMap;
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 /**
  * This message represents a request to send an interaction with the given set of parameters.
  * It contains an optional region token with with the interaction is being sent. If it is a
  * vanilla interaction, without region data, the regionToken is {@link PorticoConstants#NULL_HANDLE}
+ * <p/>
+ * As with {@link UpdateAttributes}, the parameter values are held in a {@link HandleValueMap}
+ * and the tag and values of an interaction that has been unmarshaled off the wire are left in the
+ * received data until they are asked for. Interactions
+ * the local federate isn't subscribed to are thrown away without their values ever being copied.
  */
 public class SendInteraction extends PorticoMessage implements Externalizable
 {
@@ -40,11 +47,13 @@ public class SendInteraction extends PorticoMessage implements Externalizable
 	//----------------------------------------------------------
 	private int interactionId;
 	private byte[] tag;
-	private HashMap<Integer,byte[]> parameters;
+	private HandleValueMap parameters;
 	private int regionToken;
+	private boolean bestEffort;
 	
 	// these parameters are filled out on the receiver side as required, do not transmit!
 	private transient int receivingRegionToken;
+	private transient ByteBuffer receivedTag;
 	
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
@@ -54,20 +63,26 @@ public class SendInteraction extends PorticoMessage implements Externalizable
 	{
 		super();
 		this.regionToken = PorticoConstants.NULL_HANDLE;
+		this.bestEffort = false;
 		this.receivingRegionToken = PorticoConstants.NULL_HANDLE;
 	}
 	
-	public SendInteraction( int interacitonId, byte[] tag, HashMap<Integer,byte[]> parameters )
+	/**
+	 * If the given parameters are a {@link HandleValueMap}, the message will use that map rather
+	 * than a copy of it, so it shouldn't be changed after it has been handed over. Any other type
+	 * of map is copied into one.
+	 */
+	public SendInteraction( int interacitonId, byte[] tag, Map<Integer,byte[]> parameters )
 	{
 		this();
 		this.interactionId = interacitonId;
 		this.tag = tag;
-		this.parameters = parameters;
+		this.parameters = HandleValueMap.from( parameters );
 	}
 
 	public SendInteraction( int interactionId,
 	                        byte[] tag,
-	                        HashMap<Integer,byte[]> parameters,
+	                        Map<Integer,byte[]> parameters,
 	                        int regionToken )
 	{
 		this( interactionId, tag, parameters );
@@ -76,7 +91,7 @@ public class SendInteraction extends PorticoMessage implements Externalizable
 
 	public SendInteraction( int interactionId,
 	                        byte[] tag,
-	                        HashMap<Integer,byte[]> parameters,
+	                        Map<Integer,byte[]> parameters,
 	                        double time )
 	{
 		this( interactionId, tag, parameters );
@@ -85,7 +100,7 @@ public class SendInteraction extends PorticoMessage implements Externalizable
 	
 	public SendInteraction( int interactionId,
 	                        byte[] tag,
-	                        HashMap<Integer,byte[]> parameters,
+	                        Map<Integer,byte[]> parameters,
 	                        int regionToken,
 	                        double time )
 	{
@@ -107,24 +122,50 @@ public class SendInteraction extends PorticoMessage implements Externalizable
 		this.interactionId = interactionId;
 	}
 
-	public HashMap<Integer,byte[]> getParameters()
+	/**
+	 * Returns the parameter values of the interaction. If the interaction was received off the
+	 * wire, values are copied out of the received data as they are asked for.
+	 */
+	public HandleValueMap getParameters()
 	{
 		return parameters;
 	}
 
-	public void setParameters( HashMap<Integer,byte[]> parameters )
+	public void setParameters( Map<Integer,byte[]> parameters )
 	{
-		this.parameters = parameters;
+		this.parameters = HandleValueMap.from( parameters );
+	}
+
+	/**
+	 * @return The handles of the parameters in this interaction. This never copies any values.
+	 */
+	public Set<Integer> getParameterHandles()
+	{
+		return parameters.keySet();
+	}
+
+	/**
+	 * Returns the value of the parameter with the given handle, or null if it isn't part of this
+	 * interaction. If the interaction was received off the wire, only this value is copied out of
+	 * the received data.
+	 */
+	public byte[] getParameterValue( int parameterHandle )
+	{
+		return parameters.get( parameterHandle );
 	}
 
 	public byte[] getTag()
 	{
+		if( tag == null && receivedTag != null )
+			this.tag = MessageInput.toByteArray( receivedTag );
+
 		return tag;
 	}
 
 	public void setTag( byte[] tag )
 	{
 		this.tag = tag;
+		this.receivedTag = null;
 	}
 
 	public int getRegionToken()
@@ -162,6 +203,21 @@ public class SendInteraction extends PorticoMessage implements Externalizable
 		return this.regionToken != PorticoConstants.NULL_HANDLE;
 	}
 
+	/**
+	 * Returns <code>true</code> if the sending federate is sending this interaction with a best
+	 * effort transport.
+	 */
+	@Override
+	public boolean isBestEffort()
+	{
+		return bestEffort;
+	}
+
+	public void setBestEffort( boolean bestEffort )
+	{
+		this.bestEffort = bestEffort;
+	}
+
 	/**
 	 * Returns <code>true</code>
 	 */
@@ -173,74 +229,43 @@ public class SendInteraction extends PorticoMessage implements Externalizable
 	/////////////////////////////////////////////////////////////
 	/////////////////// Serialization Methods ///////////////////
 	/////////////////////////////////////////////////////////////
-	// DON'T COPY THIS UNLESS YOU KNOW WHAT YOU'RE DOING!!
 	@Override
-	public boolean supportsManualMarshal()
+	public void marshal( MessageOutput output )
 	{
-		return true;
-	}
+		super.marshal( output );
+		output.writeInt( this.interactionId );
+		output.writeBytes( getTag() );
+		output.writeInt( this.regionToken );
+		output.writeBoolean( this.bestEffort );
 
-	@Override
-	public void marshal( ObjectOutput buffer ) throws IOException
-	{
-		// write the object ID first (we put this first so we can snoop it easily in MessageHelpers)
-		buffer.writeInt( this.interactionId );
-
-		// marshal the relevant super-class information first
-		buffer.writeInt( sourceFederate );
-		//buffer.writeInt( targetFederate ); -- not needed, always -1 (all federates)
-		//buffer.writeInt( serial );         -- not needed, always -1 (async)
-		buffer.writeDouble( timestamp );
-		//buffer.writeBoolean( immediate );  -- not needed, always false
-		
-		// now marshal up the rest of our stuff
-		buffer.writeUTF( bytesToString(this.tag) ); // conver it for a string for simple read/write
-		buffer.writeInt( this.regionToken );
-
-		// write the number of parameters we are pushing out
-		buffer.writeInt( parameters.size() );
-		// write each of the attribute values
-		for( Integer parameterHandle : parameters.keySet() )
+		// write the number of parameters we are pushing out and then each handle/value pair
+		output.writeInt( parameters.size() );
+		for( int i = 0; i < parameters.size(); i++ )
 		{
-			buffer.writeInt( parameterHandle );
-			byte[] parameterValue = parameters.get( parameterHandle );
-			buffer.writeInt( parameterValue.length );
-			buffer.write( parameterValue );
+			output.writeInt( parameters.handleAt(i) );
+			output.writeBytes( parameters.valueAt(i) );
 		}
-		
-		buffer.flush();
 	}
 
 	@Override
-	public void unmarshal( ObjectInput buffer ) throws IOException, ClassNotFoundException
-	{
-		// read the interaction handle first (we put this first so we can snoop it easily in MessageHelpers)
-		//this.interactionId = buffer.readInt();
-
-		// read the super-class information first
-		super.sourceFederate = buffer.readInt();
-		//super.targetFederate = buffer.readInt(); -- not needed, always -1 (all federates)
-		//super.serial = buffer.readInt();         -- not needed, always -1 (async)
-		super.timestamp = buffer.readDouble();
-		//super.immediate = buffer.readBoolean();  -- not needed, always false
-		
-		// now read the rest of our stuff
-		this.tag = buffer.readUTF().getBytes();
-		this.regionToken = buffer.readInt();
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.interactionId = input.readInt();
+		this.tag = null;
+		this.receivedTag = input.readByteBuffer();
+		this.regionToken = input.readInt();
+		this.bestEffort = input.readBoolean();
 
 		// read the parameter data in, formatted as int,[int,byte[]]...
 		// first int is number of parameters, next are pairs of parameterHandle/values
-		if( this.parameters == null )
-			this.parameters = new HashMap<Integer,byte[]>();
-
-		int parameterCount = buffer.readInt();
+		// the values are left where they are, see getParameterValue()
+		int parameterCount = input.readInt();
+		this.parameters = new HandleValueMap( parameterCount );
 		for( int i = 0; i < parameterCount; i++ )
 		{
-			int parmaterHandle = buffer.readInt();
-			int valueSize = buffer.readInt();
-			byte[] parameterValue = new byte[valueSize];
-			buffer.readFully( parameterValue, 0, valueSize );
-			this.parameters.put( parmaterHandle, parameterValue );
+			int parameterHandle = input.readInt();
+			this.parameters.putSlice( parameterHandle, input.readByteBuffer() );
 		}
 	}
 
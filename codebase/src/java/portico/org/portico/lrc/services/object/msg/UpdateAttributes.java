@@ -15,18 +15,28 @@
 package org.portico.lrc.services.object.msg;
 
 import java.io.Externalizable;
-import java.io.IOException;
-import java.io.ObjectInput;
-import java.io.ObjectOutput;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 
 import org.portico.lrc.PorticoConstants;
 import org.portico.lrc.model.RegionInstance;
+import org.portico.utils.HandleValueMap;
+import org.portico.utils.messaging.MessageContext;
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 /**
  * This message represents a request to update the values of a group of attributes contained in a
  * specific object instance.
+ * <p/>
+ * The attribute values are held in a {@link HandleValueMap}. When an update is unmarshaled off
+ * the wire, the tag and attribute values are not copied out of the received data. They are kept
+ * as views over it (see {@link MessageInput#readByteBuffer()}) and only copied into a byte[] when
+ * someone asks for them, so the receiving side only ever copies the values the local federate is
+ * interested in.
  */
 public class UpdateAttributes extends PorticoMessage implements Externalizable, Cloneable
 {
@@ -40,11 +50,12 @@ public class UpdateAttributes extends PorticoMessage implements Externalizable,
 	//----------------------------------------------------------
 	private int objectId;
 	private byte[] tag;
-	private HashMap<Integer,byte[]> attributes;
-	
-	// these are filled out on the receiver side as required for filtering callbacks
-	// they should never be sent over the wire
-	private transient HashMap<Integer,FilteredAttribute> filtered;
+	private HandleValueMap attributes;
+	private boolean bestEffort;
+
+	// view over the received data, filled out on the receiver side in place of the
+	// tag until it is asked for, do not transmit!
+	private transient ByteBuffer receivedTag;
 
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
@@ -55,21 +66,26 @@ public class UpdateAttributes extends PorticoMessage implements Externalizable,
 		super();
 		this.objectId = PorticoConstants.NULL_HANDLE;
 		this.tag = new byte[0];
-		this.attributes = new HashMap<Integer,byte[]>();
-		this.filtered = new HashMap<Integer,FilteredAttribute>();
+		this.attributes = new HandleValueMap();
+		this.bestEffort = false;
 	}
 	
-	public UpdateAttributes( int objectId, byte[] tag, HashMap<Integer,byte[]> attributes )
+	/**
+	 * If the given attributes are a {@link HandleValueMap}, the message will use that map rather
+	 * than a copy of it, so it shouldn't be changed after it has been handed over. Any other type
+	 * of map is copied into one.
+	 */
+	public UpdateAttributes( int objectId, byte[] tag, Map<Integer,byte[]> attributes )
 	{
 		this();
 		this.objectId = objectId;
 		this.tag = tag;
-		this.attributes = attributes;
+		this.attributes = HandleValueMap.from( attributes );
 	}
 	
 	public UpdateAttributes( int objectId,
 	                         byte[] tag,
-	                         HashMap<Integer,byte[]> attributes,
+	                         Map<Integer,byte[]> attributes,
 	                         double time )
 	{
 		this( objectId, tag, attributes );
@@ -82,47 +98,47 @@ public class UpdateAttributes extends PorticoMessage implements Externalizable,
 	 */
 	public UpdateAttributes( UpdateAttributes original )
 	{
-		this( original.objectId, original.tag, original.attributes, original.timestamp );
+		this( original.objectId, original.getTag(), original.getAttributes(), original.timestamp );
+		this.bestEffort = original.bestEffort;
 	}
 
 	//----------------------------------------------------------
 	//                    INSTANCE METHODS
 	//----------------------------------------------------------
 
-	public HashMap<Integer,byte[]> getAttributes()
+	/**
+	 * Returns the attribute values of the update. If the update was received off the wire, values
+	 * are copied out of the received data as they are asked for, so where only some of them are
+	 * needed, use {@link #getAttributeValue(int)} rather than iterating over the map.
+	 */
+	public HandleValueMap getAttributes()
 	{
 		return attributes;
 	}
 
-	public void setAttributes( HashMap<Integer,byte[]> attributes )
+	public void setAttributes( Map<Integer,byte[]> attributes )
 	{
-		this.attributes = attributes;
+		this.attributes = HandleValueMap.from( attributes );
 	}
 
 	/**
-	 * A filtered attribute is one that the local federate is interested in. This information is
-	 * only filled out as part of reflection callback processing. It allows more information than
-	 * just the handle and value to be linked in. In this case, the region that the local federate
-	 * is subscribed to (and that overlaps with the publishers region) can be attached. Note that
-	 * the region value can also be <code>null</code>, which in this case is equivalent to the
-	 * "default region" that covers all values of all dimensions.
+	 * @return The handles of the attributes in this update. This never copies any values.
 	 */
-	public void addFilteredAttribute( int handle, byte[] value, RegionInstance region )
+	public Set<Integer> getAttributeHandles()
 	{
-		FilteredAttribute attribute = new FilteredAttribute( value, region );
-		this.filtered.put( handle, attribute );
-	}
-	
-	public void clearFilteredAttributes()
-	{
-		this.filtered.clear();
+		return attributes.keySet();
 	}
 
-	public HashMap<Integer,FilteredAttribute> getFilteredAttributes()
+	/**
+	 * Returns the value of the attribute with the given handle, or null if it isn't part of this
+	 * update. If the update was received off the wire, only this value is copied out of the
+	 * received data.
+	 */
+	public byte[] getAttributeValue( int attributeHandle )
 	{
-		return this.filtered;
+		return attributes.get( attributeHandle );
 	}
-	
+
 	public int getObjectId()
 	{
 		return objectId;
@@ -135,12 +151,31 @@ public class UpdateAttributes extends PorticoMessage implements Externalizable,
 
 	public byte[] getTag()
 	{
+		if( tag == null && receivedTag != null )
+			this.tag = MessageInput.toByteArray( receivedTag );
+
 		return tag;
 	}
 
 	public void setTag( byte[] tag )
 	{
 		this.tag = tag;
+		this.receivedTag = null;
+	}
+
+	/**
+	 * Returns <code>true</code> if all the attributes in this update have a best effort transport
+	 * and the update is being sent that way. Set by the sending federate.
+	 */
+	@Override
+	public boolean isBestEffort()
+	{
+		return bestEffort;
+	}
+
+	public void setBestEffort( boolean bestEffort )
+	{
+		this.bestEffort = bestEffort;
 	}
 
 	/**
@@ -152,106 +187,142 @@ public class UpdateAttributes extends PorticoMessage implements Externalizable,
 	}
 
 	////////////////////////////////////////////////////////////
-	//////////////// Manual Marshalling Methods ////////////////
+	////////////////// Wire Marshaling Methods //////////////////
 	////////////////////////////////////////////////////////////
-	// DON'T COPY THIS UNLESS YOU KNOW WHAT YOU'RE DOING!!
 	@Override
-	public boolean supportsManualMarshal()
+	public void marshal( MessageOutput output )
 	{
-		return true;
-	}
+		super.marshal( output );
+		output.writeInt( this.objectId );
+		output.writeBytes( getTag() );
+		output.writeBoolean( this.bestEffort );
 
-	@Override
-	public void marshal( ObjectOutput buffer ) throws IOException
-	{
-		// write the object ID first (we put this first so we can snoop it easily in MessageHelpers)
-		buffer.writeInt( this.objectId );
-
-		// marshal the relevant super-class information first
-		buffer.writeInt( sourceFederate );
-		//buffer.writeInt( targetFederate ); -- not needed, always -1 (all federates)
-		//buffer.writeInt( serial );         -- not needed, always -1 (async)
-		buffer.writeDouble( timestamp );
-		//buffer.writeBoolean( immediate );  -- not needed, always false
-		
-		// now marshal up our stuff
-		buffer.writeUTF( bytesToString(this.tag) ); // conver it for a string for simple read/write
-
-		// write the number of attributes we are pushing out
-		buffer.writeInt( attributes.size() );
-		// write each of the attribute values
-		for( Integer attributeHandle : attributes.keySet() )
+		// write the number of attributes we are pushing out and then each handle/value pair
+		output.writeInt( attributes.size() );
+		for( int i = 0; i < attributes.size(); i++ )
 		{
-			buffer.writeInt( attributeHandle );
-			byte[] value = attributes.get( attributeHandle );
-			buffer.writeInt( value.length );
-			buffer.write( value );
+			output.writeInt( attributes.handleAt(i) );
+			output.writeBytes( attributes.valueAt(i) );
 		}
-
-		buffer.flush();
 	}
 
 	@Override
-	public void unmarshal( ObjectInput buffer ) throws IOException, ClassNotFoundException
+	public void unmarshal( MessageInput input )
 	{
-		// read the object ID first (we put this first so we can snoop it easily in MessageHelpers)
-		//this.objectId = buffer.readInt(); -- this will be done in MessageHelpers
-		
-		// read the super-class information first
-		super.sourceFederate = buffer.readInt();
-		//super.targetFederate = buffer.readInt(); -- not needed, always -1 (all federates)
-		//super.serial = buffer.readInt();         -- not needed, always -1 (async)
-		super.timestamp = buffer.readDouble();
-		//super.immediate = buffer.readBoolean();  -- not needed, always false
-		
-		// now read our stuff
-		this.tag = buffer.readUTF().getBytes();
-		
+		super.unmarshal( input );
+		this.objectId = input.readInt();
+		this.tag = null;
+		this.receivedTag = input.readByteBuffer();
+		this.bestEffort = input.readBoolean();
+
 		// read the attribute data in, formatted as int,[int,byte[]]...
 		// first int is number of attributes, next are pairs of attributeHandle/values
-		if( this.attributes == null )
-			this.attributes = new HashMap<Integer,byte[]>();
-
-		int attributeCount = buffer.readInt();
+		// the values are left where they are, see getAttributeValue()
+		int attributeCount = input.readInt();
+		this.attributes = new HandleValueMap( attributeCount );
 		for( int i = 0; i < attributeCount; i++ )
 		{
-			int attributeHandle = buffer.readInt();
-			int valueSize = buffer.readInt();
-			byte[] attributeValue = new byte[valueSize];
-			buffer.readFully( attributeValue, 0, valueSize );
-			this.attributes.put( attributeHandle, attributeValue );
+			int attributeHandle = input.readInt();
+			this.attributes.putSlice( attributeHandle, input.readByteBuffer() );
 		}
 	}
 
 	/**
-	 * Perform a proper clone. We need to reset the filtered attributes as they are updated
-	 * on the receiver end and so multiple threads will change this field. These are currently
-	 * only implemented to serve the JVM comms binding.
+	 * The receiving federate keeps the attributes it is interested in inside the
+	 * {@link MessageContext} rather than in the message, so updates can be shared.
 	 */
 	@Override
-	public Object clone() throws CloneNotSupportedException
+	public boolean isShareable()
 	{
-		UpdateAttributes clone = (UpdateAttributes)super.clone();
-		//clone.attributes = new HashMap<Integer,byte[]>( this.attributes ); --read-only on incoming
-		clone.filtered = new HashMap<Integer,FilteredAttribute>();
-		return clone;
+		return true;
 	}
 
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
+	/**
+	 * Store the set of attributes from the update that the local federate is interested in
+	 * (see {@link FilteredAttributes}) in the context the update is being processed in. The
+	 * incoming handler works these out and the callback handlers deliver them.
+	 */
+	public static void setFilteredAttributes( MessageContext context, FilteredAttributes filtered )
+	{
+		context.setAttachment( filtered );
+	}
+
+	/**
+	 * @return The attributes stored with
+	 *         {@link #setFilteredAttributes(MessageContext, FilteredAttributes)} for the update
+	 *         being processed in the given context, or an empty set if there are none.
+	 */
+	public static FilteredAttributes getFilteredAttributes( MessageContext context )
+	{
+		FilteredAttributes filtered = context.getAttachment( FilteredAttributes.class );
+		if( filtered == null )
+			return new FilteredAttributes();
+		else
+			return filtered;
+	}
 	
 	////////////////////////////////////////////////////////////////////////////////////////
-	//////////////////////////////// Inner Class: Attribute ////////////////////////////////
+	//////////////////////////// Inner Class: FilteredAttributes ///////////////////////////
 	////////////////////////////////////////////////////////////////////////////////////////
-	public class FilteredAttribute
+	/**
+	 * The filtered attributes are those from an update that the local federate is interested in.
+	 * This information is only filled out as part of reflection callback processing. As well as
+	 * the values, the region that the local federate is subscribed to (and that overlaps with the
+	 * publishers region) can be linked to each attribute. An attribute without a region is
+	 * associated with the "default region" that covers all values of all dimensions.
+	 * <p/>
+	 * The values are held in a {@link HandleValueMap} that is handed to the callback as is. The
+	 * regions are only stored for attributes that have one, so updates that don't involve DDM
+	 * don't pay for them.
+	 */
+	public static class FilteredAttributes
 	{
-		public byte[] value;
-		public RegionInstance region;
-		public FilteredAttribute( byte[] value, RegionInstance region )
+		private HandleValueMap values;
+		private HashMap<Integer,RegionInstance> regions;
+
+		public FilteredAttributes()
+		{
+			this.values = new HandleValueMap();
+			this.regions = null;
+		}
+
+		public void add( int attributeHandle, byte[] value, RegionInstance region )
+		{
+			values.put( attributeHandle, value );
+			if( region != null )
+			{
+				if( regions == null )
+					this.regions = new HashMap<Integer,RegionInstance>();
+
+				regions.put( attributeHandle, region );
+			}
+		}
+
+		public HandleValueMap getValues()
+		{
+			return values;
+		}
+
+		/**
+		 * @return The subscribed region for the given attribute, or null if it is associated
+		 *         with the default region
+		 */
+		public RegionInstance getRegion( int attributeHandle )
+		{
+			return regions == null ? null : regions.get( attributeHandle );
+		}
+
+		public int size()
+		{
+			return values.size();
+		}
+
+		public boolean isEmpty()
 		{
-			this.value = value;
-			this.region = region;
+			return values.isEmpty();
 		}
 	}
 
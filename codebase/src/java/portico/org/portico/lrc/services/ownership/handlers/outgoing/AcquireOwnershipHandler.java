@@ -233,9 +233,9 @@ public class AcquireOwnershipHandler extends LRCMessageHandler
 			              "] by federate ["+moniker()+"]"+filtered );
 		}
 
-		// broadcast out our intention and wait a connection-defined period for a response
+		// broadcast out our intention and wait for everyone to acknowledge it
 		AttributeAcquire intention = new AttributeAcquire( object, available, true );
-		connection.broadcastAndSleep( fill(intention) );
+		connection.broadcastAndWait( fill(intention) );
 
 		// we've waiting long enough, see if we still have a lock on any of the attributes
 		// we wanted and queue up the notifications
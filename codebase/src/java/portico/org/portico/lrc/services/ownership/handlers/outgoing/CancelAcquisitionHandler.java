@@ -76,19 +76,19 @@ public class CancelAcquisitionHandler extends LRCMessageHandler
 		
 		// there might already be some ownership acquired responses on the way. in this case
 		// we will have to throw an exception, so we can't return right away, we have to wait
-		// a reasonable time for these responses to sift in
-		// broadcast our request cancellation and wait for a while to let them come in
+		// for these responses to sift in. broadcast our request cancellation and wait for it
+		// to be acknowledged, anything sent to us before the ack will have arrived by then
 		if( logger.isTraceEnabled() )
 		{
 			logger.trace( "Broadcasting cancellation request and waiting for any "+
 			              "in-transit acquisition notifications" );
 		}
 		
-		connection.broadcastAndSleep( request );
+		connection.broadcastAndWait( request );
 		
-		// that should have given long enough for our cancel notification to reach any federates
+		// that means our cancel notification has reached any federates
 		// that own the attributes we've requested (and thus stopped them releasing attributes to
-		// us) and for any in-transit notifications to reach us. Check to see if we got ownership
+		// us) and that any in-transit notifications have reached us. Check to see if we got ownership
 		// of any attributes in the mean time
 		validate( objectHandle, attributes ); // validate again, object could have been deleted!
 		
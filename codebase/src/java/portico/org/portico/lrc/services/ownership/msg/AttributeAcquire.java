@@ -16,6 +16,8 @@ package org.portico.lrc.services.ownership.msg;
 
 import java.util.Set;
 
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 /**
@@ -45,6 +47,12 @@ public class AttributeAcquire extends PorticoMessage
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected AttributeAcquire()
+	{
+		super();
+	}
+
 	/**
 	 * If <code>ifAvailable</code> is true, this represents a request to only to aquire the
 	 * attributes if they are available.
@@ -123,6 +131,29 @@ public class AttributeAcquire extends PorticoMessage
 		this.tag = tag;
 	}
 	
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeInt( this.objectHandle );
+		output.writeIntCollection( this.attributes );
+		output.writeBoolean( this.ifAvailable );
+		output.writeBytes( this.tag );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.objectHandle = input.readInt();
+		this.attributes = input.readIntSet();
+		this.ifAvailable = input.readBoolean();
+		this.tag = input.readBytes();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
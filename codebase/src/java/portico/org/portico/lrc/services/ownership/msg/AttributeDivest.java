@@ -16,6 +16,8 @@ package org.portico.lrc.services.ownership.msg;
 
 import java.util.Set;
 
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 /**
@@ -41,6 +43,12 @@ public class AttributeDivest extends PorticoMessage
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected AttributeDivest()
+	{
+		super();
+	}
+
 	/**
 	 * Create a new message, specifying if it is unconditional or negotiated through the
 	 * provided parameter.
@@ -110,6 +118,29 @@ public class AttributeDivest extends PorticoMessage
 		this.tag = tag;
 	}
 	
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeInt( this.objectHandle );
+		output.writeIntCollection( this.attributes );
+		output.writeBoolean( this.unconditional );
+		output.writeBytes( this.tag );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.objectHandle = input.readInt();
+		this.attributes = input.readIntSet();
+		this.unconditional = input.readBoolean();
+		this.tag = input.readBytes();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -16,6 +16,8 @@ package org.portico.lrc.services.ownership.msg;
 
 import java.util.Set;
 
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 /**
@@ -40,6 +42,12 @@ public class AttributeRelease extends PorticoMessage
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected AttributeRelease()
+	{
+		super();
+	}
+
 	public AttributeRelease( int objectHandle, Set<Integer> attributes )
 	{
 		super();
@@ -76,6 +84,25 @@ public class AttributeRelease extends PorticoMessage
 		this.attributes = attributes;
 	}
 	
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeInt( this.objectHandle );
+		output.writeIntCollection( this.attributes );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.objectHandle = input.readInt();
+		this.attributes = input.readIntSet();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -14,6 +14,8 @@
  */
 package org.portico.lrc.services.ownership.msg;
 
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 public class QueryOwnership extends PorticoMessage
@@ -32,6 +34,12 @@ public class QueryOwnership extends PorticoMessage
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected QueryOwnership()
+	{
+		super();
+	}
+
 	public QueryOwnership( int objectHandle, int attributeHandle )
 	{
 		super();
@@ -62,6 +70,25 @@ public class QueryOwnership extends PorticoMessage
 		this.attributeHandle = attributeHandle;
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeInt( this.objectHandle );
+		output.writeInt( this.attributeHandle );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.objectHandle = input.readInt();
+		this.attributeHandle = input.readInt();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -14,6 +14,8 @@
  */
 package org.portico.lrc.services.ownership.msg;
 
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 public class QueryOwnershipResponse extends PorticoMessage
@@ -36,6 +38,12 @@ public class QueryOwnershipResponse extends PorticoMessage
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected QueryOwnershipResponse()
+	{
+		super();
+	}
+
 	public QueryOwnershipResponse( int objectHandle, int attributeHandle, int owner )
 	{
 		this.objectHandle = objectHandle;
@@ -72,6 +80,27 @@ public class QueryOwnershipResponse extends PorticoMessage
 		return this.owner;
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeInt( this.objectHandle );
+		output.writeInt( this.attributeHandle );
+		output.writeInt( this.owner );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.objectHandle = input.readInt();
+		this.attributeHandle = input.readInt();
+		this.owner = input.readInt();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -17,6 +17,7 @@ package org.portico.lrc.services.pubsub.handlers.incoming;
 import java.util.Map;
 
 import org.portico.lrc.LRCMessageHandler;
+import org.portico.lrc.compat.JRegionNotKnown;
 import org.portico.lrc.services.pubsub.msg.SubscribeInteractionClass;
 import org.portico.utils.messaging.MessageContext;
 import org.portico.utils.messaging.MessageHandler;
@@ -62,12 +63,24 @@ public class SubscribeInteractionClassIncomingHandler extends LRCMessageHandler
 			              icMoniker(request.getClassHandle()) + "]" + ddm );
 		}
 		
-		// store the publication information in the interest manager and move on with life
+		// store the subscription information in the interest manager and move on with life. As
+		// with object subscriptions, fall back to a region-less subscription if we don't know
+		// about the region yet, it's only used for routing
 		if( request.usesDdm() )
 		{
-			interests.subscribeInteractionClass( request.getSourceFederate(),
-			                                     request.getClassHandle(),
-			                                     request.getRegionToken() );
+			try
+			{
+				interests.subscribeInteractionClass( request.getSourceFederate(),
+				                                     request.getClassHandle(),
+				                                     request.getRegionToken() );
+			}
+			catch( JRegionNotKnown rnk )
+			{
+				logger.debug( "Region ["+request.getRegionToken()+"] not known yet, "+
+				              "recording subscription without it" );
+				interests.subscribeInteractionClass( request.getSourceFederate(),
+				                                     request.getClassHandle() );
+			}
 		}
 		else
 		{
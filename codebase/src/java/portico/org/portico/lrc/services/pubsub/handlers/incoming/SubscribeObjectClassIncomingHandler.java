@@ -17,6 +17,7 @@ package org.portico.lrc.services.pubsub.handlers.incoming;
 import java.util.Map;
 
 import org.portico.lrc.LRCMessageHandler;
+import org.portico.lrc.compat.JRegionNotKnown;
 import org.portico.lrc.services.pubsub.msg.SubscribeObjectClass;
 import org.portico.utils.messaging.MessageContext;
 import org.portico.utils.messaging.MessageHandler;
@@ -57,18 +58,33 @@ public class SubscribeObjectClassIncomingHandler extends LRCMessageHandler
 		if( logger.isDebugEnabled() )
 		{
 			String ddm = request.usesDdm() ? " (region: "+request.getRegionToken()+")" : "";
+			String rate = request.getUpdateRate() > 0.0 ?
+			              " (rate: "+request.getUpdateRate()+"/s)" : "";
 			logger.debug( "@REMOTE Federate ["+moniker(request)+"] subscribed to object class ["+
 			              ocMoniker(request.getClassHandle())+"] with attributes "+
-			              acMoniker(request.getAttributes()) + ddm );
+			              acMoniker(request.getAttributes()) + ddm + rate );
 		}
 		
-		// record the subscription
+		// record the subscription. Subscriptions are processed as soon as they arrive, so the
+		// region may not have reached us yet. Remote interest is only used to decide who we send
+		// updates to, so fall back to a region-less subscription which is the wider of the two
 		if( request.usesDdm() )
 		{
-			interests.subscribeObjectClass( request.getSourceFederate(),
-			                                request.getClassHandle(),
-			                                request.getAttributes(),
-			                                request.getRegionToken() );
+			try
+			{
+				interests.subscribeObjectClass( request.getSourceFederate(),
+				                                request.getClassHandle(),
+				                                request.getAttributes(),
+				                                request.getRegionToken() );
+			}
+			catch( JRegionNotKnown rnk )
+			{
+				logger.debug( "Region ["+request.getRegionToken()+"] not known yet, "+
+				              "recording subscription without it" );
+				interests.subscribeObjectClass( request.getSourceFederate(),
+				                                request.getClassHandle(),
+				                                request.getAttributes() );
+			}
 		}
 		else
 		{
@@ -76,6 +92,14 @@ public class SubscribeObjectClassIncomingHandler extends LRCMessageHandler
 			                                request.getClassHandle(),
 			                                request.getAttributes() );
 		}
+
+		// we hold back reflections the federate doesn't want, so we need to know how often
+		// it wants them (a subscription without a rate clears any it had before). It may be
+		// subscribing again after losing the values we sent it, so let the next ones through
+		interests.setUpdateRate( request.getSourceFederate(),
+		                         request.getClassHandle(),
+		                         request.getUpdateRate() );
+		lrcState.getUpdateRateLimiter().reset( request.getSourceFederate() );
 		
 		context.success();
 	}
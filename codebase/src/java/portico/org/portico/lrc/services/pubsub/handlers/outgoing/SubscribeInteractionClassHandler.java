@@ -70,8 +70,10 @@ public class SubscribeInteractionClassHandler extends LRCMessageHandler
 		interests.subscribeInteractionClass( request.getSourceFederate(),
 		                                     classHandle,
 		                                     regionToken );
-		// forward the information to the rest of the federation in case they want it
-		connection.broadcast( request );
+		// forward the information to the rest of the federation. They use it to decide whether
+		// to send us updates, so wait until everyone has it before we tell the federate it is
+		// subscribed, otherwise it could miss anything sent straight after this call returns
+		connection.broadcastAndWait( request );
 		context.success();
 
 		if( logger.isInfoEnabled() )
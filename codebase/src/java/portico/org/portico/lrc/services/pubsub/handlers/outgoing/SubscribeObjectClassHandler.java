@@ -72,6 +72,8 @@ public class SubscribeObjectClassHandler extends LRCMessageHandler
 			                 acMoniker(attributes);
 			if( request.usesDdm() )
 				message += " (region: "+regionToken+")";
+			if( request.getUpdateRate() > 0.0 )
+				message += " (rate: "+request.getUpdateRate()+"/s)";
 			logger.debug( message );
 		}
 		
@@ -113,6 +115,7 @@ public class SubscribeObjectClassHandler extends LRCMessageHandler
 		                                classHandle,
 		                                attributes,
 		                                regionToken ); 
+		interests.setUpdateRate( request.getSourceFederate(), classHandle, request.getUpdateRate() );
 		
 		// see if there are any objects we can discover now that we subscribe to this class
 		Map<OCInstance,OCMetadata> discoverable = getDiscoverableData( federateHandle() );
@@ -133,8 +136,10 @@ public class SubscribeObjectClassHandler extends LRCMessageHandler
 			}
 		}
 		
-		// forward the information to the rest of the federation in case they want it
-		connection.broadcast( request );
+		// forward the information to the rest of the federation. They use it to decide whether
+		// to send us updates, so wait until everyone has it before we tell the federate it is
+		// subscribed, otherwise it could miss anything sent straight after this call returns
+		connection.broadcastAndWait( request );
 		context.success();
 
 		if( logger.isInfoEnabled() )
@@ -143,6 +148,8 @@ public class SubscribeObjectClassHandler extends LRCMessageHandler
 			                 acMoniker(attributes);
 			if( request.usesDdm() )
 				message += " (region: "+regionToken+")";
+			if( request.getUpdateRate() > 0.0 )
+				message += " (rate: "+request.getUpdateRate()+"/s)";
 			logger.info( message );
 		}
 	}
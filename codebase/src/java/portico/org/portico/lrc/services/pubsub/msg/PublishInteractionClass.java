@@ -14,6 +14,8 @@
  */
 package org.portico.lrc.services.pubsub.msg;
 
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 public class PublishInteractionClass extends PorticoMessage
@@ -31,6 +33,12 @@ public class PublishInteractionClass extends PorticoMessage
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected PublishInteractionClass()
+	{
+		super();
+	}
+
 	
 	public PublishInteractionClass( int classHandle )
 	{
@@ -51,6 +59,23 @@ public class PublishInteractionClass extends PorticoMessage
 		this.classHandle = classHandle;
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeInt( this.classHandle );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.classHandle = input.readInt();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
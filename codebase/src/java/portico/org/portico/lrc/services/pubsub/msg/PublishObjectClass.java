@@ -16,6 +16,8 @@ package org.portico.lrc.services.pubsub.msg;
 
 import java.util.HashSet;
 
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 public class PublishObjectClass extends PorticoMessage
@@ -35,6 +37,12 @@ public class PublishObjectClass extends PorticoMessage
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
 
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected PublishObjectClass()
+	{
+		super();
+	}
+
 	public PublishObjectClass( int classHandle, HashSet<Integer> attributes )
 	{
 		this.classHandle = classHandle;
@@ -65,6 +73,25 @@ public class PublishObjectClass extends PorticoMessage
 		this.attributes = attributes;
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeInt( this.classHandle );
+		output.writeIntCollection( this.attributes );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.classHandle = input.readInt();
+		this.attributes = input.readIntSet();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -15,6 +15,8 @@
 package org.portico.lrc.services.pubsub.msg;
 
 import org.portico.lrc.PorticoConstants;
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 public class SubscribeInteractionClass extends PorticoMessage
@@ -34,6 +36,12 @@ public class SubscribeInteractionClass extends PorticoMessage
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected SubscribeInteractionClass()
+	{
+		super();
+	}
+
 	
 	public SubscribeInteractionClass( int classHandle )
 	{
@@ -57,6 +65,15 @@ public class SubscribeInteractionClass extends PorticoMessage
 	//----------------------------------------------------------
 	//                    INSTANCE METHODS
 	//----------------------------------------------------------
+	/**
+	 * Other federates use our subscriptions to decide who to send interactions to, so they need
+	 * to record them as soon as they arrive rather than the next time they tick.
+	 */
+	@Override
+	public boolean isImmediateProcessingRequired()
+	{
+		return true;
+	}
 
 	public int getClassHandle()
 	{
@@ -93,6 +110,27 @@ public class SubscribeInteractionClass extends PorticoMessage
 		return this.regionToken != PorticoConstants.NULL_HANDLE;
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeInt( this.classHandle );
+		output.writeInt( this.regionToken );
+		output.writeBoolean( this.passive );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.classHandle = input.readInt();
+		this.regionToken = input.readInt();
+		this.passive = input.readBoolean();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -17,6 +17,8 @@ package org.portico.lrc.services.pubsub.msg;
 import java.util.HashSet;
 
 import org.portico.lrc.PorticoConstants;
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 public class SubscribeObjectClass extends PorticoMessage
@@ -33,17 +35,25 @@ public class SubscribeObjectClass extends PorticoMessage
 	private HashSet<Integer> attributes;
 	private boolean passive;
 	private int regionToken;
+	private double updateRate; // max reflections per second, 0.0 for no limit
 
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
 
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected SubscribeObjectClass()
+	{
+		super();
+	}
+
 	public SubscribeObjectClass( int classHandle, HashSet<Integer> attributes )
 	{
 		this.classHandle = classHandle;
 		this.attributes = attributes;
 		this.passive = false;
 		this.regionToken = PorticoConstants.NULL_HANDLE;
+		this.updateRate = 0.0;
 	}
 	
 	public SubscribeObjectClass( int classHandle, HashSet<Integer> attributes, boolean passive )
@@ -64,6 +74,15 @@ public class SubscribeObjectClass extends PorticoMessage
 	//----------------------------------------------------------
 	//                    INSTANCE METHODS
 	//----------------------------------------------------------
+	/**
+	 * Other federates use our subscriptions to decide who to send updates to, so they need to
+	 * record them as soon as they arrive rather than the next time they tick.
+	 */
+	@Override
+	public boolean isImmediateProcessingRequired()
+	{
+		return true;
+	}
 
 	public int getClassHandle()
 	{
@@ -110,6 +129,46 @@ public class SubscribeObjectClass extends PorticoMessage
 		return this.regionToken != PorticoConstants.NULL_HANDLE;
 	}
 
+	/**
+	 * The maximum number of reflections per second the federate wants for each attribute of
+	 * an object, or 0.0 if it wants them all. Set from the update rate designator the federate
+	 * subscribed with.
+	 */
+	public double getUpdateRate()
+	{
+		return this.updateRate;
+	}
+
+	public void setUpdateRate( double updateRate )
+	{
+		this.updateRate = updateRate;
+	}
+
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeInt( this.classHandle );
+		output.writeIntCollection( this.attributes );
+		output.writeBoolean( this.passive );
+		output.writeInt( this.regionToken );
+		output.writeDouble( this.updateRate );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.classHandle = input.readInt();
+		this.attributes = input.readIntSet();
+		this.passive = input.readBoolean();
+		this.regionToken = input.readInt();
+		this.updateRate = input.readDouble();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
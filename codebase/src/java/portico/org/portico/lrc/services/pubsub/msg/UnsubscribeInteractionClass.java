@@ -15,6 +15,8 @@
 package org.portico.lrc.services.pubsub.msg;
 
 import org.portico.lrc.PorticoConstants;
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 public class UnsubscribeInteractionClass extends PorticoMessage
@@ -33,6 +35,12 @@ public class UnsubscribeInteractionClass extends PorticoMessage
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected UnsubscribeInteractionClass()
+	{
+		super();
+	}
+
 	
 	public UnsubscribeInteractionClass( int classHandle )
 	{
@@ -49,6 +57,15 @@ public class UnsubscribeInteractionClass extends PorticoMessage
 	//----------------------------------------------------------
 	//                    INSTANCE METHODS
 	//----------------------------------------------------------
+	/**
+	 * Processed on arrival so that it can't be overtaken by a later
+	 * {@link SubscribeInteractionClass} (which is also processed on arrival).
+	 */
+	@Override
+	public boolean isImmediateProcessingRequired()
+	{
+		return true;
+	}
 
 	public int getClassHandle()
 	{
@@ -75,6 +92,25 @@ public class UnsubscribeInteractionClass extends PorticoMessage
 		return this.regionToken != PorticoConstants.NULL_HANDLE;
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeInt( this.classHandle );
+		output.writeInt( this.regionToken );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.classHandle = input.readInt();
+		this.regionToken = input.readInt();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -17,6 +17,8 @@ package org.portico.lrc.services.pubsub.msg;
 import java.util.HashSet;
 
 import org.portico.lrc.PorticoConstants;
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 public class UnsubscribeObjectClass extends PorticoMessage
@@ -36,6 +38,12 @@ public class UnsubscribeObjectClass extends PorticoMessage
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected UnsubscribeObjectClass()
+	{
+		super();
+	}
+
 	
 	public UnsubscribeObjectClass( int classHandle )
 	{
@@ -58,6 +66,15 @@ public class UnsubscribeObjectClass extends PorticoMessage
 	//----------------------------------------------------------
 	//                    INSTANCE METHODS
 	//----------------------------------------------------------
+	/**
+	 * Processed on arrival so that it can't be overtaken by a later {@link SubscribeObjectClass}
+	 * (which is also processed on arrival).
+	 */
+	@Override
+	public boolean isImmediateProcessingRequired()
+	{
+		return true;
+	}
 
 	public int getClassHandle()
 	{
@@ -94,6 +111,27 @@ public class UnsubscribeObjectClass extends PorticoMessage
 		this.attributes = attributes;
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeInt( this.classHandle );
+		output.writeInt( this.regionToken );
+		output.writeIntCollection( this.attributes );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.classHandle = input.readInt();
+		this.regionToken = input.readInt();
+		this.attributes = input.readIntSet();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
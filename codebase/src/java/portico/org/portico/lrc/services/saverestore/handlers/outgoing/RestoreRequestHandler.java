@@ -79,10 +79,9 @@ public class RestoreRequestHandler extends LRCMessageHandler
 		// record our intention to kick off a restore
 		restoreManager.requestRestore( federateHandle(), label );
 		
-		// now wait for a period of time to see if we get trumped. using sendAndWaitTimeoutOK
-		// just allows us to wait for a connection-determined period rather than arbitrarily
-		// defining some time that may/may-not be suitable depending on the comms mechanism in use
-		connection.broadcastAndSleep( request );
+		// now wait for everyone to acknowledge the request so we can see if we got trumped.
+		// any competing request sent before they acked ours will have reached us by then
+		connection.broadcastAndWait( request );
 
 		// check to see if we were trumped or not, if we were, send a failure notice
 		if( restoreManager.getRegisteringFederate() != federateHandle() )
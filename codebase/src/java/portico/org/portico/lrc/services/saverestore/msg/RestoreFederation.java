@@ -14,6 +14,8 @@
  */
 package org.portico.lrc.services.saverestore.msg;
 
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 public class RestoreFederation extends PorticoMessage
@@ -33,6 +35,12 @@ public class RestoreFederation extends PorticoMessage
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected RestoreFederation()
+	{
+		super();
+	}
+
 	/**
 	 * Creates a new restore request with it's status set to <code>true</code>.
 	 */
@@ -88,6 +96,27 @@ public class RestoreFederation extends PorticoMessage
 		return this.success;
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeString( this.label );
+		output.writeString( this.reason );
+		output.writeBoolean( this.success );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.label = input.readString();
+		this.reason = input.readString();
+		this.success = input.readBoolean();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
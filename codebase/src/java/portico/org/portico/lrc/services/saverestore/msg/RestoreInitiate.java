@@ -14,6 +14,8 @@
  */
 package org.portico.lrc.services.saverestore.msg;
 
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 /**
@@ -38,6 +40,12 @@ public class RestoreInitiate extends PorticoMessage
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
 
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected RestoreInitiate()
+	{
+		super();
+	}
+
 	public RestoreInitiate( String label, int federateHandle )
 	{
 		this.label = label;
@@ -68,6 +76,25 @@ public class RestoreInitiate extends PorticoMessage
 		this.federateHandle = federateHandle;
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeString( this.label );
+		output.writeInt( this.federateHandle );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.label = input.readString();
+		this.federateHandle = input.readInt();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -14,6 +14,8 @@
  */
 package org.portico.lrc.services.saverestore.msg;
 
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 public class RestoreRequest extends PorticoMessage
@@ -31,6 +33,12 @@ public class RestoreRequest extends PorticoMessage
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected RestoreRequest()
+	{
+		super();
+	}
+
 	public RestoreRequest( String label )
 	{
 		this.label = label;
@@ -50,6 +58,23 @@ public class RestoreRequest extends PorticoMessage
 		this.label = label;
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeString( this.label );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.label = input.readString();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
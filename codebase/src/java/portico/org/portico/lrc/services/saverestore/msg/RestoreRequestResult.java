@@ -36,6 +36,12 @@ public class RestoreRequestResult extends RestoreFederation
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal} */
+	protected RestoreRequestResult()
+	{
+		super();
+	}
+
 	public RestoreRequestResult( String label )
 	{
 		super( label );
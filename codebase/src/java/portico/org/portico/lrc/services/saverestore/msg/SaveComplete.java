@@ -14,6 +14,8 @@
  */
 package org.portico.lrc.services.saverestore.msg;
 
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 public class SaveComplete extends PorticoMessage
@@ -31,6 +33,12 @@ public class SaveComplete extends PorticoMessage
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected SaveComplete()
+	{
+		super();
+	}
+
 	public SaveComplete( boolean successful )
 	{
 		this.successful = successful;
@@ -60,6 +68,23 @@ public class SaveComplete extends PorticoMessage
 		this.successful = false;
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeBoolean( this.successful );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.successful = input.readBoolean();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -45,6 +45,12 @@ import org.portico.utils.messaging.MessageHandler;
  * (the oldest federate) is the only one who can register the point. If any of the other handles
  * are lower, the federate will queue up a failure notice at that time, otherwise it will queue up
  * a success notice.
+ * <p/>
+ * Registration requests are sent with
+ * {@link org.portico.bindings.IConnection#broadcastAndWait(org.portico.utils.messaging.PorticoMessage)},
+ * so if the local federate already holds a prior claim on the label, this handler vetoes the
+ * request. The reason is passed back to the requesting federate along with the handle of the
+ * federate that won the label, so it can fail straight away and record who the point belongs to.
  * 
  * <p/>
  * <b>Peeking</b>
@@ -133,6 +139,15 @@ public class SyncRegistrationRequestHandler extends LRCMessageHandler
 				              moniker(registrant)+"] DISPLACED existing request by ["+
 				              moniker(existingRegistrant)+"]" );
 			}
+
+			// if the requester didn't win, tell them so they can give up now
+			if( point.getRegistrant() != registrant )
+			{
+				String reason = "point already registered by ["+
+				                federateName(point.getRegistrant())+"]";
+				context.error( SyncRegistrationRequest.createVeto(point.getRegistrant(),reason) );
+				veto();
+			}
 		}
 		else if( logger.isDebugEnabled() )
 		{
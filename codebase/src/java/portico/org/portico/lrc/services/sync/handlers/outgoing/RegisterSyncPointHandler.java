@@ -111,14 +111,30 @@ public class RegisterSyncPointHandler extends LRCMessageHandler
 		//////////////////////////////////////
 		// Send out the intent notification //
 		//////////////////////////////////////
-		// broadcast out the registration request (to secure the label) and wait. we don't
-		// actually EXPECT any responses, we just want to wait for an amount of time that
-		// is appropriate as defined by the CONNECTION, not arbitrarily defined by us. Once
-		// the time is up, we'll see if anyone else has requested registration of the point
+		// broadcast out the registration request (to secure the label) and wait for everyone
+		// to acknowledge it. Any federate that has a prior claim on the label will veto the
+		// request, in which case we can fail right away. Once everyone has had their say,
+		// we'll also check to see if anyone else has requested registration of the point
 		SyncRegistrationRequest registrationRequest = new SyncRegistrationRequest( label );
 		registrationRequest.setSourceFederate( lrcState.getFederateHandle() );
 		logger.debug( "PENDING Register synchronization point ["+label+"] by ["+moniker()+"]" );
-		connection.broadcastAndSleep( registrationRequest );
+		Map<Integer,String> vetoes = connection.broadcastAndWait( registrationRequest );
+		if( vetoes.isEmpty() == false )
+		{
+			// FAIL, someone else had a prior claim on the point. Each veto names the federate
+			// that won the label, which isn't necessarily the federate that sent the veto
+			for( String veto : vetoes.values() )
+			{
+				int winner = SyncRegistrationRequest.getVetoRegistrant( veto );
+				if( winner != -1 )
+					syncPoint.requestedRegistration( winner );
+			}
+
+			String veto = vetoes.values().iterator().next();
+			queueFailure( label, SyncRegistrationRequest.getVetoMessage(veto) );
+			syncPoint.setStatus( SyncPoint.Status.PENDING );
+			veto();
+		}
 
 		// first, check to see if the point has been announced in the mean time!
 		if( syncPoint.getStatus() == SyncPoint.Status.ANNOUNCED )
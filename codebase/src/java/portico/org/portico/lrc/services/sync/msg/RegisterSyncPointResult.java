@@ -14,6 +14,8 @@
  */
 package org.portico.lrc.services.sync.msg;
 
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 /**
@@ -42,6 +44,12 @@ public class RegisterSyncPointResult extends PorticoMessage
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
 
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected RegisterSyncPointResult()
+	{
+		super();
+	}
+
 	public RegisterSyncPointResult( boolean status, String label )
 	{
 		this.label = label;
@@ -121,6 +129,27 @@ public class RegisterSyncPointResult extends PorticoMessage
 			return "Registration FAILURE: label=" + label + ", reason=" + failureReason;
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeString( this.label );
+		output.writeString( this.failureReason );
+		output.writeBytes( this.tag );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.label = input.readString();
+		this.failureReason = input.readString();
+		this.tag = input.readBytes();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
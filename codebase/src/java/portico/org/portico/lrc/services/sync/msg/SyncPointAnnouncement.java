@@ -18,6 +18,8 @@ import java.util.HashSet;
 import java.util.Set;
 
 import org.portico.lrc.services.sync.data.SyncPoint;
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 /**
@@ -41,6 +43,12 @@ public class SyncPointAnnouncement extends PorticoMessage
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected SyncPointAnnouncement()
+	{
+		super();
+	}
+
 	public SyncPointAnnouncement( String label, byte[] tag )
 	{
 		this.label = label;
@@ -133,6 +141,27 @@ public class SyncPointAnnouncement extends PorticoMessage
 		return true;
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeString( this.label );
+		output.writeBytes( this.tag );
+		output.writeIntCollection( this.federates );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.label = input.readString();
+		this.tag = input.readBytes();
+		this.federates = input.readIntSet();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -16,6 +16,8 @@ package org.portico.lrc.services.sync.msg;
 
 import java.util.HashSet;
 
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 /**
@@ -44,6 +46,12 @@ public class SyncRegistrationRequest extends PorticoMessage
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
 
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected SyncRegistrationRequest()
+	{
+		super();
+	}
+
 	public SyncRegistrationRequest( String label )
 	{
 		this.label = label;
@@ -85,7 +93,68 @@ public class SyncRegistrationRequest extends PorticoMessage
 		return true;
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeString( this.label );
+		output.writeIntCollection( this.federates );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.label = input.readString();
+		this.federates = input.readIntSet();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
+	/**
+	 * Create the reason a federate gives when it vetoes a registration request because some other
+	 * federate has the prior claim on the label. The reason is all the requesting federate gets
+	 * back, so it is led by the handle of the federate that won, followed by the message for the
+	 * user. Use {@link #getVetoRegistrant(String)} and {@link #getVetoMessage(String)} to pull
+	 * them back out.
+	 */
+	public static String createVeto( int registrant, String message )
+	{
+		return registrant+":"+message;
+	}
+
+	/**
+	 * @return the handle of the federate that won the label according to the given veto, or
+	 *         <code>-1</code> if the veto doesn't name one
+	 */
+	public static int getVetoRegistrant( String veto )
+	{
+		int separator = veto.indexOf( ':' );
+		if( separator == -1 )
+			return -1;
+
+		try
+		{
+			return Integer.parseInt( veto.substring(0,separator) );
+		}
+		catch( NumberFormatException nfe )
+		{
+			return -1;
+		}
+	}
+
+	/**
+	 * @return the part of the given veto that is meant for the user
+	 */
+	public static String getVetoMessage( String veto )
+	{
+		if( getVetoRegistrant(veto) == -1 )
+			return veto;
+		else
+			return veto.substring( veto.indexOf(':')+1 );
+	}
 }
@@ -0,0 +1,229 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.services.time.data;
+
+import java.util.Arrays;
+
+/**
+ * An indexed min-heap of federate LBTS values, keyed by federate handle. The {@link TimeManager}
+ * keeps one entry in here for each regulating federate so that it can find the federation LBTS
+ * (the lowest of them) without looking at every federate each time one of them changes.
+ * <p/>
+ * Everything is stored in primitive arrays. As well as the heap itself, we keep the position of
+ * each federate in the heap, indexed by federate handle, so that a change to the value for any
+ * federate is an O(log n) operation. Federate handles are handed out in sequence from a small
+ * number, so the position array stays about as big as the federation.
+ * <p/>
+ * This class is not thread safe. The {@link TimeManager} looks after that.
+ */
+class LBTSHeap
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final int INITIAL_CAPACITY = 16;
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private int[] federates;  // heap order, federates[0] has the lowest value
+	private double[] values;  // values[i] is the value for federates[i]
+	private int[] positions;  // index is federate handle, value is heap index+1 (0 if not present)
+	private int size;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	protected LBTSHeap()
+	{
+		this.federates = new int[INITIAL_CAPACITY];
+		this.values = new double[INITIAL_CAPACITY];
+		this.positions = new int[INITIAL_CAPACITY];
+		this.size = 0;
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	/**
+	 * Set the value for the given federate, adding it to the heap if it isn't already there.
+	 */
+	public void set( int federate, double value )
+	{
+		if( federate < 0 )
+			throw new IllegalArgumentException( "Invalid federate handle: "+federate );
+
+		int index = indexOf( federate );
+		if( index == -1 )
+		{
+			// new entry, put it on the end and move it up
+			if( size == federates.length )
+			{
+				federates = Arrays.copyOf( federates, size*2 );
+				values = Arrays.copyOf( values, size*2 );
+			}
+
+			ensurePosition( federate );
+			index = size++;
+			place( index, federate, value );
+			siftUp( index );
+		}
+		else
+		{
+			double old = values[index];
+			values[index] = value;
+			if( value < old )
+				siftUp( index );
+			else if( value > old )
+				siftDown( index );
+		}
+	}
+
+	/**
+	 * Remove the given federate from the heap. Does nothing if it isn't in there.
+	 */
+	public void remove( int federate )
+	{
+		int index = indexOf( federate );
+		if( index == -1 )
+			return;
+
+		positions[federate] = 0;
+		--size;
+		if( index == size )
+			return;
+
+		// move the last entry into the hole and put it where it belongs
+		place( index, federates[size], values[size] );
+		siftDown( index );
+		siftUp( index );
+	}
+
+	/**
+	 * @return The lowest value in the heap, or {@link Double#MAX_VALUE} if it is empty
+	 */
+	public double min()
+	{
+		return size == 0 ? Double.MAX_VALUE : values[0];
+	}
+
+	/**
+	 * @return The lowest value in the heap ignoring the given federate, or
+	 *         {@link Double#MAX_VALUE} if there isn't one. If that federate is at the top of the
+	 *         heap, the next lowest must be one of its children.
+	 */
+	public double minExcluding( int federate )
+	{
+		if( size == 0 || federates[0] != federate )
+			return min();
+
+		double lowest = Double.MAX_VALUE;
+		if( size > 1 )
+			lowest = values[1];
+		if( size > 2 && values[2] < lowest )
+			lowest = values[2];
+
+		return lowest;
+	}
+
+	public boolean contains( int federate )
+	{
+		return indexOf( federate ) != -1;
+	}
+
+	public int size()
+	{
+		return this.size;
+	}
+
+	public void clear()
+	{
+		Arrays.fill( positions, 0 );
+		this.size = 0;
+	}
+
+	////////////////////////////////////////////////////////////
+	////////////////////// Helper Methods //////////////////////
+	////////////////////////////////////////////////////////////
+	private int indexOf( int federate )
+	{
+		if( federate < 0 || federate >= positions.length )
+			return -1;
+		else
+			return positions[federate]-1;
+	}
+
+	private void ensurePosition( int federate )
+	{
+		if( federate < positions.length )
+			return;
+
+		int newLength = positions.length;
+		while( newLength <= federate )
+			newLength *= 2;
+
+		positions = Arrays.copyOf( positions, newLength );
+	}
+
+	private void place( int index, int federate, double value )
+	{
+		federates[index] = federate;
+		values[index] = value;
+		positions[federate] = index+1;
+	}
+
+	private void siftUp( int index )
+	{
+		int federate = federates[index];
+		double value = values[index];
+		while( index > 0 )
+		{
+			int parent = (index-1) >>> 1;
+			if( values[parent] <= value )
+				break;
+
+			place( index, federates[parent], values[parent] );
+			index = parent;
+		}
+
+		place( index, federate, value );
+	}
+
+	private void siftDown( int index )
+	{
+		int federate = federates[index];
+		double value = values[index];
+		int half = size >>> 1;
+		while( index < half )
+		{
+			int child = (index << 1) + 1;
+			int right = child + 1;
+			if( right < size && values[right] < values[child] )
+				child = right;
+
+			if( value <= values[child] )
+				break;
+
+			place( index, federates[child], values[child] );
+			index = child;
+		}
+
+		place( index, federate, value );
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
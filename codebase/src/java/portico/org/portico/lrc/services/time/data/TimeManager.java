@@ -59,7 +59,8 @@ public class TimeManager implements SaveRestoreTarget
 	private Map<Integer,TimeStatus> timeStatus;
 	private Set<Integer>            regulating;
 	private Set<Integer>            constrained;
-	private double                  lbts;
+	private LBTSHeap                lbtsHeap;
+	private volatile double         lbts; // cached, readable without locking
 
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
@@ -69,6 +70,7 @@ public class TimeManager implements SaveRestoreTarget
 		this.timeStatus  = new HashMap<Integer,TimeStatus>();
 		this.regulating  = new HashSet<Integer>();
 		this.constrained = new HashSet<Integer>();
+		this.lbtsHeap    = new LBTSHeap();
 		this.lbts        = Double.MAX_VALUE;
 	}
 	
@@ -83,31 +85,39 @@ public class TimeManager implements SaveRestoreTarget
 	 * will determine the LBTS for *the federation* (that is, the lowest relevant LBTS of any
 	 * federate). Once it is been determined, the <code>lbts</code> property of the manager will
 	 * be set to the value. The new federation-lbts will be returned.
+	 * <p/>
+	 * This rebuilds the LBTS heap from scratch. When only a single federate has changed, use
+	 * {@link #updateLBTS(int)} instead.
 	 */
-	public double recalculateLBTS()
+	public synchronized double recalculateLBTS()
 	{
-		// if there are no regulating federates, reset the LBTS
-		if( this.regulating.size() == 0 )
-		{
-			this.lbts = Double.MAX_VALUE;
-			// the removal of all regulating federates might mean advances are possible for
-			// constrained federates, thus we should return true
-			return this.lbts;
-		}
-			
-		// there are regulating federates, process them for a possible change
-		double lowestLBTS = Double.MAX_VALUE;
+		lbtsHeap.clear();
 		for( Integer federateHandle : regulating )
-		{
-			TimeStatus status = timeStatus.get( federateHandle );
-			if( status.lbts < lowestLBTS )
-				lowestLBTS = status.lbts;
-		}
-		
-		// reset the current federation LBTS
-		if( this.lbts != lowestLBTS )
-			this.lbts = lowestLBTS;
-		
+			lbtsHeap.set( federateHandle, timeStatus.get(federateHandle).lbts );
+
+		// if there are no regulating federates this will reset the LBTS, which might mean
+		// that advances are possible for constrained federates
+		this.lbts = lbtsHeap.min();
+		return this.lbts;
+	}
+
+	/**
+	 * Re-read the LBTS of the given federate from its {@link TimeStatus} and update the LBTS for
+	 * *the federation* to account for any change. If the federate is no longer regulating (or no
+	 * longer in the federation) it is dropped from the calculation. This only has to look at the
+	 * one federate rather than all of them, so should be called in preference to
+	 * {@link #recalculateLBTS()} whenever the status of a single federate has been altered.
+	 *
+	 * @return The new federation-lbts
+	 */
+	public synchronized double updateLBTS( int federate )
+	{
+		if( regulating.contains(federate) )
+			lbtsHeap.set( federate, timeStatus.get(federate).lbts );
+		else
+			lbtsHeap.remove( federate );
+
+		this.lbts = lbtsHeap.min();
 		return this.lbts;
 	}
 	
@@ -156,7 +166,7 @@ public class TimeManager implements SaveRestoreTarget
 		
 		// if this federate is regulating, recalculate the federation-wide LBTS
 		if( ts.regulating == TimeStatus.TriState.ON )
-			recalculateLBTS();
+			updateLBTS( federate );
 	}
 	
 	/**
@@ -186,7 +196,7 @@ public class TimeManager implements SaveRestoreTarget
 		TimeStatus ts = timeStatus.get( federate );
 		ts.lookahead = newLookahead;
 		ts.lbts = ts.currentTime + ts.lookahead;
-		recalculateLBTS();
+		updateLBTS( federate );
 	}
 	
 	/**
@@ -198,15 +208,36 @@ public class TimeManager implements SaveRestoreTarget
 		return timeStatus.get(federate).lbts;
 	}
 
+	/**
+	 * Set the LBTS for a specific federate directly and update the federation-wide LBTS. This is
+	 * only for federates whose LBTS isn't just their current or requested time plus lookahead,
+	 * such as those using the null-message time advance mode.
+	 */
+	public void setLBTS( int federate, double lbts )
+	{
+		timeStatus.get(federate).lbts = lbts;
+		updateLBTS( federate );
+	}
+
 	/**
 	 * Return the <b>federation-wide</b> LBTS. This is equal o the lowest LBTS of all regulating
-	 * federates.
+	 * federates. The value is cached, so this is safe to call without holding any locks.
 	 */
 	public double getLBTS()
 	{
 		return lbts;
 	}
 	
+	/**
+	 * Return the greatest available logical time (GALT) for the given federate. This is the
+	 * lowest LBTS of all the regulating federates <i>other than</i> the given one: the federate
+	 * can't receive a message with a timestamp lower than this from anyone.
+	 */
+	public synchronized double getGALT( int federate )
+	{
+		return lbtsHeap.minExcluding( federate );
+	}
+
 	/**
 	 * @return <code>true</code> if the given federate has an outstanding time advancement
 	 * request, <code>false</code> otherwise. 
@@ -250,12 +281,12 @@ public class TimeManager implements SaveRestoreTarget
 		regulating.add( federate );
 		
 		// this could affect the LBTS, recalculate it
-		recalculateLBTS();
+		updateLBTS( federate );
 	}
 	
 	/**
 	 * This method will disable regulation for the given federate (removing it from the appropriate
-	 * cache). It will then call {@link #recalculateLBTS()} to update the current LBTS for the
+	 * cache). It will then call {@link #updateLBTS(int)} to update the current LBTS for the
 	 * federation. Following a call to this method, some checks to see if any previously waiting
 	 * federates can now receive an advance grant is necessary.
 	 */
@@ -267,7 +298,7 @@ public class TimeManager implements SaveRestoreTarget
 		regulating.remove( federate );
 
 		// this could affect the LBTS, recalculate it
-		recalculateLBTS();
+		updateLBTS( federate );
 	}
 	
 	public boolean isRegulating( int federate )
@@ -314,7 +345,7 @@ public class TimeManager implements SaveRestoreTarget
 		constrained.add( federate );
 
 		// this could affect the LBTS, recalculate it
-		recalculateLBTS();
+		updateLBTS( federate );
 	}
 	
 	/**
@@ -331,7 +362,7 @@ public class TimeManager implements SaveRestoreTarget
 		constrained.remove( federate );
 		
 		// this could affect the LBTS, recalculate it
-		recalculateLBTS();
+		updateLBTS( federate );
 	}
 	
 	public boolean isConstrained( int federate )
@@ -387,7 +418,7 @@ public class TimeManager implements SaveRestoreTarget
 		if( existingStatus.regulating == TimeStatus.TriState.ON )
 		{
 			regulating.add( federate );
-			recalculateLBTS();
+			updateLBTS( federate );
 		}
 	}
 	
@@ -403,7 +434,7 @@ public class TimeManager implements SaveRestoreTarget
 		constrained.remove( federate );
 
 		// this could affect the LBTS, recalculate it
-		recalculateLBTS();
+		updateLBTS( federate );
 	}
 
 	public String toString()
@@ -457,6 +488,9 @@ public class TimeManager implements SaveRestoreTarget
 		this.timeStatus = (Map<Integer,TimeStatus>)input.readObject();
 		this.regulating = (Set<Integer>)input.readObject();
 		this.constrained = (Set<Integer>)input.readObject();
+
+		// rebuild the heap from the restored status, but keep the LBTS as it was saved
+		recalculateLBTS();
 		this.lbts = input.readDouble();
 	}
 
@@ -19,6 +19,9 @@ import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
+
 /**
  * This class contains a bunch of information outlining the current time related status of a
  * particular federate. Once instance exists for each federate inside the {@link TimeManager}.
@@ -45,6 +48,7 @@ public class TimeStatus implements Externalizable
 	protected double   lookahead     = 0.0;          // the lookahead value for the federate
 	protected double   lbts          = 0.0;          // the federate-lbts (requested time+lookahead)
 	protected boolean  asynchronous  = false;        // should "HLA messages" be delivered with TAR?
+	protected boolean  nextEvent     = false;        // is the request a null-message mode NER/NMR?
 
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
@@ -88,6 +92,11 @@ public class TimeStatus implements Externalizable
 		// if there is no pending advancement, we're not ready
 		if( advancing == TAR.NONE || advancing == TAR.PROVISIONAL )
 			return false;
+
+		// null-message next event requests are only ever granted by the LRC of the requesting
+		// federate, it is the only one that knows what is in its queue
+		if( nextEvent )
+			return false;
 		
 		// if we're not constrained we can advance all we want
 		if( !isConstrained() )
@@ -110,6 +119,21 @@ public class TimeStatus implements Externalizable
 		this.advancing = TAR.REQUESTED;
 	}
 
+	/**
+	 * Modifies the state to reflect a next event (or next message) request made while in the
+	 * null-message time advance mode. Unlike {@link #timeAdvanceRequested(double)}, the LBTS of
+	 * the federate is left alone. The federate could be granted to any time up to the one it
+	 * requested (as soon as the next message arrives), so until that is known it can't promise
+	 * anything more than it already has. Its LBTS is raised later as the guarantees from the
+	 * rest of the federation come in.
+	 */
+	public void nextEventRequested( double requestedTime )
+	{
+		this.requestedTime = requestedTime;
+		this.advancing = TAR.REQUESTED;
+		this.nextEvent = true;
+	}
+
 	/**
 	 * Sets the advancing status to {@link TAR#NONE}. This should be called for local federates
 	 * just after their callback has been delivered. The given time is what the curren time is
@@ -120,6 +144,7 @@ public class TimeStatus implements Externalizable
 		this.advancing = TAR.NONE;
 		this.currentTime = newTime;
 		this.requestedTime = newTime;
+		this.nextEvent = false;
 	}
 
 	///////////////////////////////////////////////////////////////////////////////////////////
@@ -174,6 +199,15 @@ public class TimeStatus implements Externalizable
 	{
 		return advancing;
 	}
+
+	/**
+	 * @return <code>true</code> if the outstanding advance request is a next event request made
+	 *         in the null-message time advance mode (see {@link #nextEventRequested(double)})
+	 */
+	public boolean isNextEventRequest()
+	{
+		return nextEvent;
+	}
 	
 	/**
 	 * This method returns <code>true</code> if the federate is currently waiting for a time
@@ -263,6 +297,7 @@ public class TimeStatus implements Externalizable
 		newStatus.requestedTime = requestedTime;
 		newStatus.lookahead = lookahead;
 		newStatus.lbts = lbts;
+		newStatus.nextEvent = nextEvent;
 		return newStatus;
 	}
 	
@@ -299,6 +334,7 @@ public class TimeStatus implements Externalizable
 		this.lookahead = input.readDouble();
 		this.lbts = input.readDouble();
 		this.asynchronous = input.readBoolean();
+		this.nextEvent = input.readBoolean();
 	}
 	
 	public void writeExternal( ObjectOutput output ) throws IOException
@@ -311,6 +347,36 @@ public class TimeStatus implements Externalizable
 		output.writeDouble( this.lookahead );
 		output.writeDouble( this.lbts );
 		output.writeBoolean( this.asynchronous );
+		output.writeBoolean( this.nextEvent );
+	}
+
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	public void marshal( MessageOutput output )
+	{
+		output.writeByte( this.constrained.ordinal() );
+		output.writeByte( this.regulating.ordinal() );
+		output.writeByte( this.advancing.ordinal() );
+		output.writeDouble( this.currentTime );
+		output.writeDouble( this.requestedTime );
+		output.writeDouble( this.lookahead );
+		output.writeDouble( this.lbts );
+		output.writeBoolean( this.asynchronous );
+		output.writeBoolean( this.nextEvent );
+	}
+
+	public void unmarshal( MessageInput input )
+	{
+		this.constrained = TriState.values()[input.readByte()];
+		this.regulating = TriState.values()[input.readByte()];
+		this.advancing = TAR.values()[input.readByte()];
+		this.currentTime = input.readDouble();
+		this.requestedTime = input.readDouble();
+		this.lookahead = input.readDouble();
+		this.lbts = input.readDouble();
+		this.asynchronous = input.readBoolean();
+		this.nextEvent = input.readBoolean();
 	}
 
 	//----------------------------------------------------------
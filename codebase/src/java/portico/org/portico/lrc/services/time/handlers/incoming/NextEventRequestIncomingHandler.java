@@ -0,0 +1,83 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.services.time.handlers.incoming;
+
+import java.util.Map;
+
+import org.portico.lrc.LRCMessageHandler;
+import org.portico.lrc.services.time.msg.NextEventRequest;
+import org.portico.utils.messaging.MessageContext;
+import org.portico.utils.messaging.MessageHandler;
+
+/**
+ * Next event requests are only sent out by federates using the null-message time advance mode.
+ * Everyone else just records that the federate is waiting. Its grant is worked out by its own
+ * LRC (which is the only one that knows what is in its queue) and is announced later through a
+ * {@link org.portico.lrc.services.time.msg.NullMessage NullMessage}.
+ */
+@MessageHandler(modules="lrc-base",
+                keywords={"lrc13","lrcjava1","lrc1516","lrc1516e"},
+                sinks="incoming",
+                messages=NextEventRequest.class)
+public class NextEventRequestIncomingHandler extends LRCMessageHandler
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	public void initialize( Map<String,Object> properties )
+	{
+		super.initialize( properties );
+	}
+	
+	public void process( MessageContext context ) throws Exception
+	{
+		NextEventRequest request = context.getRequest( NextEventRequest.class, this );
+		int federate = request.getSourceFederate();
+		double time = request.getTime();
+
+		// check to make sure we know about the source federate
+		vetoIfSourceNotJoined( federate );
+
+		if( logger.isDebugEnabled() )
+		{
+			logger.debug( "Federate ["+moniker(federate)+"] requests NEXT EVENT up to time ["+
+			              time+"]" );
+		}
+
+		// only record the request if it IS NOT us, if it is, the outgoing handler did it
+		if( federate != federateHandle() )
+			timeManager.getTimeStatus(federate).nextEventRequested( time );
+
+		// if it is us, we might be able to go right away
+		checkNextEventRequest();
+		context.success();
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -0,0 +1,100 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.services.time.handlers.incoming;
+
+import java.util.Map;
+
+import org.portico.lrc.LRCMessageHandler;
+import org.portico.lrc.services.time.data.TimeStatus;
+import org.portico.lrc.services.time.msg.NullMessage;
+import org.portico.utils.messaging.MessageContext;
+import org.portico.utils.messaging.MessageHandler;
+
+/**
+ * Records the new LBTS (and, if it was granted, the new time) of a remote federate using the
+ * null-message time advance mode. As its LBTS has gone up, a dummy advance is then queued so
+ * that we can see whether anyone can now be granted.
+ */
+@MessageHandler(modules="lrc-base",
+                keywords={"lrc13","lrcjava1","lrc1516","lrc1516e"},
+                sinks="incoming",
+                messages=NullMessage.class)
+public class NullMessageIncomingHandler extends LRCMessageHandler
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	public void initialize( Map<String,Object> properties )
+	{
+		super.initialize( properties );
+	}
+	
+	public void process( MessageContext context ) throws Exception
+	{
+		NullMessage request = context.getRequest( NullMessage.class, this );
+		int federate = request.getSourceFederate();
+
+		// we sent it, we already know
+		if( federate == federateHandle() )
+		{
+			context.success();
+			return;
+		}
+
+		// check to make sure we know about the source federate
+		vetoIfSourceNotJoined( federate );
+
+		TimeStatus status = timeManager.getTimeStatus( federate );
+		if( request.isGrant() )
+		{
+			if( logger.isDebugEnabled() )
+			{
+				logger.debug( "ADVANCE (GRANTED) for federate ["+moniker(federate)+
+				              "] to time ["+request.getTime()+"] (next event)" );
+			}
+
+			status.advanceGrantCallbackProcessed( request.getTime() );
+		}
+		else if( logger.isTraceEnabled() )
+		{
+			logger.trace( "Null message from federate ["+moniker(federate)+"], lbts="+
+			              request.getLbts() );
+		}
+
+		if( status.isRegulating() )
+		{
+			timeManager.setLBTS( federate, request.getLbts() );
+			queueDummyAdvance();
+		}
+
+		context.success();
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -74,7 +74,7 @@ public class TimeAdvanceGrantedIncomingHandler extends LRCMessageHandler
 		// everything after this point is ONLY FOR THE LOCAL FEDERATE //
 		////////////////////////////////////////////////////////////////
 		vetoUnlessForUs( request );
-		
+		lrc.getMetrics().timeAdvanceGranted( newTime );
 	}
 
 	//----------------------------------------------------------
@@ -62,6 +62,7 @@ public class TimeAdvanceRequestIncomingHandler extends LRCMessageHandler
 		{
 			timeManager.recalculateLBTS();
 			issueAllPossibleAdvances();
+			checkNextEventRequest();
 			context.success();
 			return;
 		}
@@ -80,7 +81,7 @@ public class TimeAdvanceRequestIncomingHandler extends LRCMessageHandler
 			// us, we will have already set this in the outgoing handler.
 			status.timeAdvanceRequested( newTime );
 		}
-		double federationLbts = timeManager.recalculateLBTS();
+		double federationLbts = timeManager.updateLBTS( federate );
 		
 		//////////////////////////////////
 		// Is the federate CONSTRAINED? //
@@ -136,6 +137,7 @@ public class TimeAdvanceRequestIncomingHandler extends LRCMessageHandler
 		if( status.isRegulating() )
 		{
 			issueAllPossibleAdvances();
+			checkNextEventRequest();
 		}
 		else
 		{
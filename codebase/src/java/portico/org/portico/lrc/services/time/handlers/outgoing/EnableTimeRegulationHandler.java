@@ -100,11 +100,11 @@ public class EnableTimeRegulationHandler extends LRCMessageHandler
 			logger.info( "PENDING Enable time regulation PENDING for ["+moniker()+"]" );
 
 		// notify everyone else
-		//   We use sendAndWaitTimeoutOK here because we want to give EVERYBODY a chance to
-		//   get the message first. it is important that they know about our regulating status
-		//   as quickly as possible so that they factor us in when considering time advances.
-		//   This gives some time for them to receive the message and then get it into their queue.
-		connection.broadcastAndSleep( request );
+		//   We use broadcastAndWait here because we want EVERYBODY to get the message first.
+		//   It is important that they know about our regulating status as quickly as possible
+		//   so that they factor us in when considering time advances. Once it returns, each of
+		//   them has acknowledged the message and got it into their queue.
+		connection.broadcastAndWait( request );
 		context.success();
 	}
 
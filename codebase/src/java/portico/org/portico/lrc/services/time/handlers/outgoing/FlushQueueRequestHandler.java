@@ -65,6 +65,8 @@ public class FlushQueueRequestHandler extends LRCMessageHandler
 		if( logger.isDebugEnabled() )
 			logger.debug( "REQUEST Flush queue, time threshold="+maxTime );
 
+		lrc.getMetrics().timeAdvanceRequested( maxTime );
+
 		// flush the queue
 		double grantTime = lrc.tickFlush( maxTime );
 		
@@ -17,6 +17,8 @@ package org.portico.lrc.services.time.handlers.outgoing;
 import java.util.Map;
 
 import org.portico.lrc.LRCMessageHandler;
+import org.portico.lrc.compat.JFederationTimeAlreadyPassed;
+import org.portico.lrc.services.time.data.TimeStatus;
 import org.portico.lrc.services.time.msg.NextEventRequest;
 import org.portico.lrc.services.time.msg.TimeAdvanceRequest;
 import org.portico.utils.messaging.PorticoMessage;
@@ -65,6 +67,29 @@ public class NextEventRequestHandler extends LRCMessageHandler
 		if( logger.isDebugEnabled() )
 			logger.debug( "REQUEST Next event request for ["+moniker()+"]: time="+time );
 
+		// in the null-message mode we work out the grant time as messages arrive rather than
+		// now, so we tell everyone we're waiting and the incoming handlers take it from there.
+		// if we're not constrained, nothing can arrive with a timestamp so we'll get the time
+		// we asked for. that's just a regular time advance request, so we leave it as one
+		TimeStatus ourStatus = timeStatus();
+		if( lrc.isNullMessageTimeAdvance() && ourStatus.isConstrained() )
+		{
+			if( time <= ourStatus.getCurrentTime() )
+				throw new JFederationTimeAlreadyPassed( "Time " + time + " has already passed" );
+
+			ourStatus.nextEventRequested( time );
+			lrc.getMetrics().timeAdvanceRequested( time );
+			if( logger.isInfoEnabled() )
+			{
+				logger.info( "PENDING Requested next event for ["+moniker()+"] up to ["+time+
+				             "], waiting for grant..." );
+			}
+
+			connection.broadcast( request );
+			context.success();
+			return;
+		}
+
 		// find out the timestamp of the next TSO event and if it is smaller than the requested
 		// time, reset the requested time to be the time of that event
 		PorticoMessage next = lrcState.getQueue().peekTSO();
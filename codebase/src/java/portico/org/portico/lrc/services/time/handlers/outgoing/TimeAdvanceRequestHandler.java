@@ -75,6 +75,7 @@ public class TimeAdvanceRequestHandler extends LRCMessageHandler
 
 		// set the status
 		ourStatus.timeAdvanceRequested( time );
+		lrc.getMetrics().timeAdvanceRequested( time );
 
 		// notify everyone else
 		if( logger.isInfoEnabled() )
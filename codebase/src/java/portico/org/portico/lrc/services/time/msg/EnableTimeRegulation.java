@@ -14,6 +14,8 @@
  */
 package org.portico.lrc.services.time.msg;
 
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 public class EnableTimeRegulation extends PorticoMessage
@@ -33,6 +35,12 @@ public class EnableTimeRegulation extends PorticoMessage
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
 
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected EnableTimeRegulation()
+	{
+		super();
+	}
+
 	public EnableTimeRegulation( double federateTime, double lookahead )
 	{
 		this.federateTime = federateTime;
@@ -63,6 +71,25 @@ public class EnableTimeRegulation extends PorticoMessage
     	this.lookahead = lookahead;
     }
 	
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeDouble( this.federateTime );
+		output.writeDouble( this.lookahead );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.federateTime = input.readDouble();
+		this.lookahead = input.readDouble();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -14,6 +14,8 @@
  */
 package org.portico.lrc.services.time.msg;
 
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 public class FlushQueueRequest extends PorticoMessage
@@ -32,6 +34,12 @@ public class FlushQueueRequest extends PorticoMessage
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
 
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected FlushQueueRequest()
+	{
+		super();
+	}
+
 	public FlushQueueRequest( double time )
 	{
 		setTime( time );
@@ -66,6 +74,23 @@ public class FlushQueueRequest extends PorticoMessage
 		return true;
 	}
 	
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeDouble( this.time );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.time = input.readDouble();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -14,6 +14,8 @@
  */
 package org.portico.lrc.services.time.msg;
 
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 public class ModifyLookahead extends PorticoMessage
@@ -32,6 +34,12 @@ public class ModifyLookahead extends PorticoMessage
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
 
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected ModifyLookahead()
+	{
+		super();
+	}
+
 	public ModifyLookahead( double lookahead )
 	{
 		this.lookahead = lookahead;
@@ -51,6 +59,23 @@ public class ModifyLookahead extends PorticoMessage
 		this.lookahead = lookahead;
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeDouble( this.lookahead );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.lookahead = input.readDouble();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
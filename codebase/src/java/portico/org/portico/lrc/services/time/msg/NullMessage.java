@@ -0,0 +1,119 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.services.time.msg;
+
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
+import org.portico.utils.messaging.PorticoMessage;
+
+/**
+ * Sent by a federate using the null-message time advance mode while it is waiting on a next
+ * event (or next message) request. It carries the new LBTS of the sender: a promise that it won't
+ * send anything with a timestamp lower than that. These messages are only sent when the promise
+ * goes up, which lets the other federates in the federation be granted further ahead without
+ * waiting for the sender to be granted first.
+ * <p/>
+ * As nobody else can work out when a federate in that mode is granted, the sender also uses this
+ * message to tell everyone when it has been granted, and to what time. In that case
+ * {@link #isGrant()} returns <code>true</code> and {@link #getTime()} is the time granted to.
+ */
+public class NullMessage extends PorticoMessage
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final long serialVersionUID = 98121116105109L;
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private double lbts;
+	private boolean grant;
+	private double time;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	/** Only used when unmarshaling off the wire, see {@link #unmarshal(MessageInput)} */
+	protected NullMessage()
+	{
+		super();
+	}
+
+	/**
+	 * Create a null message that just raises the LBTS of the sender
+	 */
+	public NullMessage( double lbts )
+	{
+		this.lbts = lbts;
+		this.grant = false;
+	}
+
+	/**
+	 * Create a null message that says the sender was granted to the given time, with the given
+	 * LBTS (which will be that time plus lookahead)
+	 */
+	public NullMessage( double time, double lbts )
+	{
+		this.lbts = lbts;
+		this.grant = true;
+		this.time = time;
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+
+	public double getLbts()
+	{
+		return this.lbts;
+	}
+
+	public boolean isGrant()
+	{
+		return this.grant;
+	}
+
+	public double getTime()
+	{
+		return this.time;
+	}
+
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeDouble( this.lbts );
+		output.writeBoolean( this.grant );
+		output.writeDouble( this.time );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.lbts = input.readDouble();
+		this.grant = input.readBoolean();
+		this.time = input.readDouble();
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -19,6 +19,8 @@ import java.io.ObjectInput;
 import java.io.ObjectOutput;
 
 import org.portico.lrc.PorticoConstants;
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
 import org.portico.utils.messaging.PorticoMessage;
 
 public class TimeAdvanceRequest extends PorticoMessage
@@ -112,6 +114,25 @@ public class TimeAdvanceRequest extends PorticoMessage
 		output.writeBoolean( this.tara );
 	}
 
+	/////////////////////////////////////////////////////////////
+	////////////////// Wire Marshaling Methods //////////////////
+	/////////////////////////////////////////////////////////////
+	@Override
+	public void marshal( MessageOutput output )
+	{
+		super.marshal( output );
+		output.writeDouble( this.time );
+		output.writeBoolean( this.tara );
+	}
+
+	@Override
+	public void unmarshal( MessageInput input )
+	{
+		super.unmarshal( input );
+		this.time = input.readDouble();
+		this.tara = input.readBoolean();
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
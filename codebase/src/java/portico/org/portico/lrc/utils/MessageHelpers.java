@@ -14,15 +14,9 @@
  */
 package org.portico.lrc.utils;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-
-import org.portico.lrc.LRC;
-import org.portico.lrc.services.object.msg.SendInteraction;
-import org.portico.lrc.services.object.msg.UpdateAttributes;
+import org.portico.utils.messaging.MessageInput;
+import org.portico.utils.messaging.MessageOutput;
+import org.portico.utils.messaging.MessagingException;
 import org.portico.utils.messaging.PorticoMessage;
 
 public class MessageHelpers
@@ -30,6 +24,19 @@ public class MessageHelpers
 	//----------------------------------------------------------
 	//                    STATIC VARIABLES
 	//----------------------------------------------------------
+	/** First byte of every deflated message. Bump if the framing ever changes. */
+	private static final byte WIRE_FORMAT = (byte)0xB1;
+
+	/** Per-thread reusable buffers so that deflate/inflate don't churn the heap */
+	private static final ThreadLocal<MessageOutput> OUTPUT = new ThreadLocal<MessageOutput>()
+	{
+		protected MessageOutput initialValue() { return new MessageOutput(); }
+	};
+
+	private static final ThreadLocal<MessageInput> INPUT = new ThreadLocal<MessageInput>()
+	{
+		protected MessageInput initialValue() { return new MessageInput(); }
+	};
 
 	//----------------------------------------------------------
 	//                   INSTANCE VARIABLES
@@ -116,144 +123,89 @@ public class MessageHelpers
 	/////////////////////////// Message Inflation/Deflation Methods ///////////////////////////
 	///////////////////////////////////////////////////////////////////////////////////////////
 	/**
-	 * This method will take the given object and turn it into a <code>byte[]</code>
+	 * This method will take the given message and turn it into a <code>byte[]</code>
 	 * that can be sent across a network connection, stored on some medium or used in whatever way
 	 * an application wants to use it. To turn this bit-blob back into something useful, the
 	 * {@link #inflate(byte[],Class)} method can be used.
 	 * <p/>
-	 * <b>Note:</b> If the message supports manual marshaling (where the reflection-based
-	 * serialization is ignored, instead providing total control to the message class), then
-	 * that process will be used in preference (resulting in
-	 * {@link PorticoMessage#marshal(java.io.ObjectOutput)} being called). This should not be
-	 * used unless you know what you are doing and have added the message id to the hardcoded
-	 * private method {@link #manuallyUnmarshal(ObjectInputStream, LRC)}).
+	 * Java serialization is not used. The message is written into a per-thread reusable
+	 * {@link MessageOutput} as a one byte format marker, the short type id the class is registered
+	 * with in the {@link MessageRegistry} and then whatever the message writes in its
+	 * {@link PorticoMessage#marshal(MessageOutput)} method. The only allocation is the final
+	 * right-sized <code>byte[]</code> that is returned.
 	 */
 	public static byte[] deflate( PorticoMessage message )
 	{
-		// create the output stream with the given size (or resizable if -1 is provided)
-		ByteArrayOutputStream baos = new ByteArrayOutputStream();
-		
-		// do the deflation
+		int typeId = MessageRegistry.getTypeId( message.getClass() );
+		if( typeId == MessageRegistry.UNKNOWN )
+		{
+			throw new RuntimeException( "couldn't convert message ["+message.getClass()+
+			                            "] into byte[]: type not registered with MessageRegistry" );
+		}
+
+		MessageOutput output = OUTPUT.get();
+		output.reset();
 		try
 		{
-			ObjectOutputStream oos = new ObjectOutputStream( baos );
-			if( message.supportsManualMarshal() )
-			{
-				// Use the manual marshalling method. First, write the signal that we are doing
-				// do, then write the id of the message we are serializing (hashcode of its name),
-				// then let the message write itself
-				oos.writeBoolean( true );
-				oos.writeInt( message.getClass().getSimpleName().hashCode() );
-				message.marshal( oos );
-			}
-			else
-			{
-				// use the simple way of doing things, just write the message itself to the stream
-				oos.writeBoolean( false );
-				oos.writeObject( message );
-			}
-			
-			return baos.toByteArray();
+			output.writeByte( WIRE_FORMAT );
+			output.writeShort( typeId );
+			message.marshal( output );
+			return output.toByteArray();
 		}
-		catch( IOException ioex )
+		catch( RuntimeException re )
 		{
 			throw new RuntimeException( "couldn't convert message ["+
-			                            message.getClass()+"] into byte[]", ioex );
+			                            message.getClass()+"] into byte[]", re );
+		}
+		finally
+		{
+			output.reset();
 		}
 	}
 
 	/**
-	 * This method will take the given data and convert it into a Java object. After doing so,
-	 * it will attempt to cast the object to the given type before returning it.
-	 * <p/>
-	 * <b>Note:</b> If the message supports manual unmarshaling (where the reflection-based
-	 * deserialization is ignored, instead providing total control to the message class), then
-	 * that process will be used in preference (resulting in
-	 * {@link PorticoMessage#unmarshal(java.io.ObjectInput)} being called). This should not be
-	 * used unless you know what you are doing and have added the message id to the hardcoded
-	 * private method {@link #manuallyUnmarshal(ObjectInputStream, LRC)}).
+	 * This method will take the given data and convert it into a {@link PorticoMessage}. After
+	 * doing so, it will attempt to cast the object to the given type before returning it. If the
+	 * data doesn't contain a valid message, a <code>RuntimeException</code> is thrown.
 	 */
 	public static <T> T inflate( byte[] data, Class<T> expectedType )
 	{
-		return inflate( data, expectedType, null );
+		return inflate( data, 0, data.length, expectedType );
 	}
-	
+
 	/**
-	 * This method will take the given data and convert it into a Java object. After doing so,
-	 * it will attempt to cast the object to the given type before returning it. It also accepts
-	 * a filter that will be passed on to the message if it uses manual marshalling. That filter
-	 * can be used by the message to short-circuit potentially expensive inflation if it isn't
-	 * needed (however the filter determines that).
+	 * Same as {@link #inflate(byte[], Class)}, but the message is read from the given range
+	 * of the data rather than all of it, so any header in front of it doesn't have to be stripped
+	 * off with a copy first.
 	 * <p/>
-	 * <b>Note:</b> If the message supports manual unmarshaling (where the reflection-based
-	 * deserialization is ignored, instead providing total control to the message class), then
-	 * that process will be used in preference (resulting in
-	 * {@link PorticoMessage#unmarshal(java.io.ObjectInput)} being called). This should not be
-	 * used unless you know what you are doing and have added the message id to the hardcoded
-	 * private method {@link #manuallyUnmarshal(ObjectInputStream, LRC)}).
+	 * Messages may keep views over the data they were read from rather than copying values out
+	 * of it (see {@link MessageInput#readByteBuffer()}), so the data must not be modified once
+	 * it has been inflated.
 	 */
-	public static <T> T inflate( byte[] data, Class<T> expectedType, LRC lrc )
+	public static <T> T inflate( byte[] data,
+	                             int offset,
+	                             int length,
+	                             Class<T> expectedType )
 	{
+		MessageInput input = INPUT.get();
 		try
 		{
-			ByteArrayInputStream bais = new ByteArrayInputStream( data );
-			ObjectInputStream ois = new ObjectInputStream( bais );
-			// find out whether of not manual marshaling was used
-			boolean manuallyMarshaled = ois.readBoolean();
-			if( manuallyMarshaled )
-			{
-				// create a new message from the specified id and let it unmarshal itself
-				PorticoMessage message = manuallyUnmarshal( ois, lrc );
-				return expectedType.cast( message ); // this is null safe
-				
-				//PorticoMessage message = newMessageForId( ois.readInt() );
-				//message.unmarshal( ois );
-				//return expectedType.cast( message );
-			}
-			else
-			{
-				// phew, a sane person wrote this! use the default unmarhal
-				Object theObject = ois.readObject();
-				return expectedType.cast( theObject );
-			}
+			input.reset( data, offset, length );
+			byte format = input.readByte();
+			if( format != WIRE_FORMAT )
+				throw new MessagingException( "Unknown wire format marker: "+format );
+
+			PorticoMessage message = MessageRegistry.newMessage( input.readShort() );
+			message.unmarshal( input );
+			return expectedType.cast( message ); // this is null safe
 		}
 		catch( Exception e )
 		{
 			throw new RuntimeException( "couldn't convert byte[] into PorticoMessage", e );
-		}		
-	}
-	
-	/**
-	 * This method will create the appropriate Portico message type based on data from the provided
-	 * input stream. It uses the {@link LRC} to determine whether or not it should bother inflating
-	 * the message at all. For example, for UpdateAttributes message, it won't bother if the object
-	 * the update relates to hasn't been discovered by the local federate (if we were interested,
-	 * we would have discovered it).
-	 */
-	private static PorticoMessage manuallyUnmarshal( ObjectInputStream ois, LRC lrc ) throws Exception
-	{
-		int messageType = ois.readInt();
-		if( messageType == -1720820960 ) // "UpdateAttributes".hashCode()
-		{
-			int objectId = ois.readInt();
-			
-			UpdateAttributes update = new UpdateAttributes();
-			update.setObjectId( objectId );
-			update.unmarshal( ois );
-			return update;
-		}
-		else if( messageType == -1918248630 ) // "SendInteraction".hashCode()
-		{
-			int interactionId = ois.readInt();
-			
-			SendInteraction interaction = new SendInteraction();
-			interaction.setInteractionId( interactionId );
-			interaction.unmarshal( ois );
-			return interaction;
 		}
-		else
+		finally
 		{
-			throw new RuntimeException( "Unknown manually marshaled message: class id="+messageType );
+			input.clear();
 		}
 	}
 	
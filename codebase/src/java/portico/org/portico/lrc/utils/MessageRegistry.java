@@ -0,0 +1,325 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.utils;
+
+import java.lang.reflect.Constructor;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.portico.lrc.services.ddm.msg.AssociateRegion;
+import org.portico.lrc.services.ddm.msg.CreateRegion;
+import org.portico.lrc.services.ddm.msg.DeleteRegion;
+import org.portico.lrc.services.ddm.msg.ModifyRegion;
+import org.portico.lrc.services.ddm.msg.UnassociateRegion;
+import org.portico.lrc.services.federation.msg.CreateFederation;
+import org.portico.lrc.services.federation.msg.DestroyFederation;
+import org.portico.lrc.services.federation.msg.JoinFederation;
+import org.portico.lrc.services.federation.msg.ListFederations;
+import org.portico.lrc.services.federation.msg.ResignFederation;
+import org.portico.lrc.services.federation.msg.RoleCall;
+import org.portico.lrc.services.federation.msg.RoleCallObjects;
+import org.portico.lrc.services.object.msg.AttributeTransportResponse;
+import org.portico.lrc.services.object.msg.ChangeAttributeTransport;
+import org.portico.lrc.services.object.msg.ChangeInteractionTransport;
+import org.portico.lrc.services.object.msg.DeleteObject;
+import org.portico.lrc.services.object.msg.DiscoverObject;
+import org.portico.lrc.services.object.msg.InteractionTransportResponse;
+import org.portico.lrc.services.object.msg.LocalDelete;
+import org.portico.lrc.services.object.msg.QueryAttributeTransport;
+import org.portico.lrc.services.object.msg.QueryInteractionTransport;
+import org.portico.lrc.services.object.msg.RegisterObject;
+import org.portico.lrc.services.object.msg.RequestClassUpdate;
+import org.portico.lrc.services.object.msg.RequestObjectUpdate;
+import org.portico.lrc.services.object.msg.ReserveObjectName;
+import org.portico.lrc.services.object.msg.ReserveObjectNameResult;
+import org.portico.lrc.services.object.msg.SendInteraction;
+import org.portico.lrc.services.object.msg.UpdateAttributes;
+import org.portico.lrc.services.ownership.msg.AttributeAcquire;
+import org.portico.lrc.services.ownership.msg.AttributeDivest;
+import org.portico.lrc.services.ownership.msg.AttributeRelease;
+import org.portico.lrc.services.ownership.msg.AttributesUnavailable;
+import org.portico.lrc.services.ownership.msg.CancelAcquire;
+import org.portico.lrc.services.ownership.msg.CancelConfirmation;
+import org.portico.lrc.services.ownership.msg.CancelDivest;
+import org.portico.lrc.services.ownership.msg.DivestConfirmation;
+import org.portico.lrc.services.ownership.msg.OwnershipAcquired;
+import org.portico.lrc.services.ownership.msg.QueryOwnership;
+import org.portico.lrc.services.ownership.msg.QueryOwnershipResponse;
+import org.portico.lrc.services.pubsub.msg.PublishInteractionClass;
+import org.portico.lrc.services.pubsub.msg.PublishObjectClass;
+import org.portico.lrc.services.pubsub.msg.SubscribeInteractionClass;
+import org.portico.lrc.services.pubsub.msg.SubscribeObjectClass;
+import org.portico.lrc.services.pubsub.msg.UnpublishInteractionClass;
+import org.portico.lrc.services.pubsub.msg.UnpublishObjectClass;
+import org.portico.lrc.services.pubsub.msg.UnsubscribeInteractionClass;
+import org.portico.lrc.services.pubsub.msg.UnsubscribeObjectClass;
+import org.portico.lrc.services.saverestore.msg.RestoreBegun;
+import org.portico.lrc.services.saverestore.msg.RestoreComplete;
+import org.portico.lrc.services.saverestore.msg.RestoreFederation;
+import org.portico.lrc.services.saverestore.msg.RestoreInitiate;
+import org.portico.lrc.services.saverestore.msg.RestoreRequest;
+import org.portico.lrc.services.saverestore.msg.RestoreRequestResult;
+import org.portico.lrc.services.saverestore.msg.SaveBegun;
+import org.portico.lrc.services.saverestore.msg.SaveComplete;
+import org.portico.lrc.services.saverestore.msg.SaveRequest;
+import org.portico.lrc.services.sync.msg.RegisterSyncPointResult;
+import org.portico.lrc.services.sync.msg.SyncPointAchieved;
+import org.portico.lrc.services.sync.msg.SyncPointAnnouncement;
+import org.portico.lrc.services.sync.msg.SyncRegistrationRequest;
+import org.portico.lrc.services.time.msg.DisableAsynchronousDelivery;
+import org.portico.lrc.services.time.msg.DisableTimeConstrained;
+import org.portico.lrc.services.time.msg.DisableTimeRegulation;
+import org.portico.lrc.services.time.msg.EnableAsynchronousDelivery;
+import org.portico.lrc.services.time.msg.EnableTimeConstrained;
+import org.portico.lrc.services.time.msg.EnableTimeRegulation;
+import org.portico.lrc.services.time.msg.FlushQueueRequest;
+import org.portico.lrc.services.time.msg.ModifyLookahead;
+import org.portico.lrc.services.time.msg.NextEventRequest;
+import org.portico.lrc.services.time.msg.NullMessage;
+import org.portico.lrc.services.time.msg.QueryGalt;
+import org.portico.lrc.services.time.msg.TimeAdvanceGrant;
+import org.portico.lrc.services.time.msg.TimeAdvanceRequest;
+import org.portico.utils.messaging.MessagingException;
+import org.portico.utils.messaging.PorticoMessage;
+
+/**
+ * Every {@link PorticoMessage} type that can be put on the wire by {@link MessageHelpers} needs a
+ * numeric type id. That id is written at the front of the message so the receiver knows which
+ * class to create before asking it to {@link PorticoMessage#unmarshal unmarshal} itself. This
+ * class holds that mapping.
+ * <p/>
+ * The ids are part of the wire format. Once allocated they must not change or be re-used, or
+ * federates from different builds won't be able to talk to one another. Ids are loosely grouped
+ * by service area so there is room to add new messages alongside their siblings. Plugins that
+ * define their own messages should call {@link #register(int, Class)} with an id of 1000 or more.
+ */
+public class MessageRegistry
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	/** Returned by {@link #getTypeId(Class)} for types that haven't been registered */
+	public static final int UNKNOWN = -1;
+
+	private static final ConcurrentHashMap<Class<?>,Short> ids;
+	private static volatile Constructor<?>[] constructors;
+
+	static
+	{
+		ids = new ConcurrentHashMap<Class<?>,Short>();
+		constructors = new Constructor<?>[256];
+
+		// Federation Management        1-19
+		register( 1,   CreateFederation.class );
+		register( 2,   DestroyFederation.class );
+		register( 3,   JoinFederation.class );
+		register( 4,   ResignFederation.class );
+		register( 5,   ListFederations.class );
+		register( 6,   RoleCall.class );
+		register( 7,   RoleCallObjects.class );
+
+		// Object Management            20-39
+		register( 20,  UpdateAttributes.class );
+		register( 21,  SendInteraction.class );
+		register( 22,  RegisterObject.class );
+		register( 23,  DiscoverObject.class );
+		register( 24,  DeleteObject.class );
+		register( 25,  LocalDelete.class );
+		register( 26,  RequestClassUpdate.class );
+		register( 27,  RequestObjectUpdate.class );
+		register( 28,  ReserveObjectName.class );
+		register( 29,  ReserveObjectNameResult.class );
+		register( 30,  ChangeAttributeTransport.class );
+		register( 31,  ChangeInteractionTransport.class );
+		register( 32,  QueryAttributeTransport.class );
+		register( 33,  QueryInteractionTransport.class );
+		register( 34,  AttributeTransportResponse.class );
+		register( 35,  InteractionTransportResponse.class );
+
+		// Ownership Management         40-59
+		register( 40,  AttributeAcquire.class );
+		register( 41,  AttributeDivest.class );
+		register( 42,  AttributeRelease.class );
+		register( 43,  AttributesUnavailable.class );
+		register( 44,  CancelAcquire.class );
+		register( 45,  CancelConfirmation.class );
+		register( 46,  CancelDivest.class );
+		register( 47,  DivestConfirmation.class );
+		register( 48,  OwnershipAcquired.class );
+		register( 49,  QueryOwnership.class );
+		register( 50,  QueryOwnershipResponse.class );
+
+		// Declaration Management       60-79
+		register( 60,  PublishObjectClass.class );
+		register( 61,  UnpublishObjectClass.class );
+		register( 62,  SubscribeObjectClass.class );
+		register( 63,  UnsubscribeObjectClass.class );
+		register( 64,  PublishInteractionClass.class );
+		register( 65,  UnpublishInteractionClass.class );
+		register( 66,  SubscribeInteractionClass.class );
+		register( 67,  UnsubscribeInteractionClass.class );
+
+		// Data Distribution Management 80-99
+		register( 80,  CreateRegion.class );
+		register( 81,  ModifyRegion.class );
+		register( 82,  DeleteRegion.class );
+		register( 83,  AssociateRegion.class );
+		register( 84,  UnassociateRegion.class );
+
+		// Synchronization Points       100-119
+		register( 100, SyncRegistrationRequest.class );
+		register( 101, RegisterSyncPointResult.class );
+		register( 102, SyncPointAnnouncement.class );
+		register( 103, SyncPointAchieved.class );
+
+		// Time Management              120-149
+		register( 120, EnableTimeRegulation.class );
+		register( 121, DisableTimeRegulation.class );
+		register( 122, EnableTimeConstrained.class );
+		register( 123, DisableTimeConstrained.class );
+		register( 124, EnableAsynchronousDelivery.class );
+		register( 125, DisableAsynchronousDelivery.class );
+		register( 126, TimeAdvanceRequest.class );
+		register( 127, TimeAdvanceGrant.class );
+		register( 128, NextEventRequest.class );
+		register( 129, FlushQueueRequest.class );
+		register( 130, ModifyLookahead.class );
+		register( 131, QueryGalt.class );
+		register( 132, NullMessage.class );
+
+		// Save/Restore                 150-169
+		register( 150, SaveRequest.class );
+		register( 151, SaveBegun.class );
+		register( 152, SaveComplete.class );
+		register( 153, RestoreRequest.class );
+		register( 154, RestoreRequestResult.class );
+		register( 155, RestoreBegun.class );
+		register( 156, RestoreInitiate.class );
+		register( 157, RestoreComplete.class );
+		register( 158, RestoreFederation.class );
+	}
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	private MessageRegistry()
+	{
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+	/**
+	 * Register the given message type against the given id. The class must have a no-arg
+	 * constructor (it need not be public). An exception is thrown if the id is already taken
+	 * by a different class, or is outside the range 0-32767.
+	 */
+	public static synchronized void register( int id, Class<? extends PorticoMessage> type )
+	{
+		if( id < 0 || id > Short.MAX_VALUE )
+			throw new MessagingException( "Message type id out of range: "+id );
+
+		Constructor<?>[] current = constructors;
+		if( id < current.length && current[id] != null &&
+			current[id].getDeclaringClass() != type )
+		{
+			throw new MessagingException( "Message type id ["+id+"] already registered to "+
+			                              current[id].getDeclaringClass().getName() );
+		}
+
+		Constructor<? extends PorticoMessage> constructor;
+		try
+		{
+			constructor = type.getDeclaredConstructor();
+			constructor.setAccessible( true );
+		}
+		catch( Exception e )
+		{
+			throw new MessagingException( "Message type ["+type.getName()+
+			                              "] needs a no-arg constructor", e );
+		}
+
+		// copy-on-write so lookups never need to lock
+		Constructor<?>[] updated = current;
+		if( id >= current.length )
+		{
+			updated = new Constructor<?>[Math.max(id+1,current.length*2)];
+			System.arraycopy( current, 0, updated, 0, current.length );
+		}
+		else
+		{
+			updated = current.clone();
+		}
+
+		updated[id] = constructor;
+		constructors = updated;
+		ids.put( type, (short)id );
+	}
+
+	/**
+	 * @return The id registered for the given type, or {@link #UNKNOWN} if it has none
+	 */
+	public static int getTypeId( Class<?> type )
+	{
+		Short id = ids.get( type );
+		return id == null ? UNKNOWN : id;
+	}
+
+	/**
+	 * @return Every message type that has been registered, keyed and ordered by its id
+	 */
+	@SuppressWarnings("unchecked")
+	public static Map<Integer,Class<? extends PorticoMessage>> getRegisteredTypes()
+	{
+		Map<Integer,Class<? extends PorticoMessage>> types =
+			new TreeMap<Integer,Class<? extends PorticoMessage>>();
+		for( Map.Entry<Class<?>,Short> entry : ids.entrySet() )
+			types.put( (int)entry.getValue(), (Class<? extends PorticoMessage>)entry.getKey() );
+
+		return Collections.unmodifiableMap( types );
+	}
+
+	/**
+	 * Create a new, empty instance of the message type registered against the given id, ready
+	 * to have {@link PorticoMessage#unmarshal unmarshal} called on it.
+	 *
+	 * @throws MessagingException If there is nothing registered for the id
+	 */
+	public static PorticoMessage newMessage( int id ) throws MessagingException
+	{
+		Constructor<?>[] current = constructors;
+		if( id < 0 || id >= current.length || current[id] == null )
+			throw new MessagingException( "Unknown message type id: "+id );
+
+		try
+		{
+			return (PorticoMessage)current[id].newInstance();
+		}
+		catch( Exception e )
+		{
+			throw new MessagingException( "Couldn't create message for type id "+id, e );
+		}
+	}
+}
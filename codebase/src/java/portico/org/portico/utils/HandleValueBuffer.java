@@ -0,0 +1,198 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Packs a set of handles and values (plus the tag that goes with them) into a single direct
+ * {@link ByteBuffer} so that they can be passed between Java and the C++ bindings in one JNI call.
+ * Without this, every update or interaction crossing the JNI boundary needs an <code>int[]</code>,
+ * a <code>byte[][]</code> and a <code>byte[]</code> per value created, filled and released on one
+ * side or the other.
+ * <p/>
+ * The layout of the buffer is as follows (all ints are in native byte order, with no padding):
+ * <pre>
+ *   int count
+ *   count * { int handle, int length, byte[length] value }
+ *   int tagLength
+ *   byte[tagLength] tag
+ * </pre>
+ * A length of -1 stands for a null value or tag. The C++ bindings read and write exactly the same
+ * layout (see <code>JniUtils</code> in the 1516e binding and <code>JavaRTI</code> in the 1.3
+ * binding), so any change here must be made there as well.
+ * <p/>
+ * For calls going from Java to C++, the buffer is taken from {@link #begin(int, int)}. There is one
+ * buffer per thread, which is reused from call to call and only replaced when a bigger one is
+ * needed. The contents are only valid until the next time the same thread packs a set of values.
+ * For calls coming from C++, the buffer is provided by the C++ side (it keeps one per thread in the
+ * same way) and is read using {@link #readValues(ByteBuffer)} and {@link #readTag(ByteBuffer)}.
+ */
+public class HandleValueBuffer
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final int MINIMUM_CAPACITY = 4096;
+
+	private static final ThreadLocal<ByteBuffer> BUFFERS = new ThreadLocal<ByteBuffer>();
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	private HandleValueBuffer()
+	{
+		// static helpers only
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+	/**
+	 * @return The number of bytes needed to pack the given number of values, with the given total
+	 *         length, along with the given tag
+	 */
+	public static int sizeOf( int count, int valueBytes, byte[] tag )
+	{
+		return 4 + (count * 8) + valueBytes + 4 + (tag == null ? 0 : tag.length);
+	}
+
+	/**
+	 * Get this thread's buffer ready to be packed with the given number of values, making sure it
+	 * can hold at least <code>size</code> bytes (see {@link #sizeOf(int, int, byte[])}). The count
+	 * is written before the buffer is returned. Follow this with a call to
+	 * {@link #putValue(ByteBuffer, int, byte[])} for each value and then one to
+	 * {@link #putTag(ByteBuffer, byte[])}.
+	 */
+	public static ByteBuffer begin( int count, int size )
+	{
+		ByteBuffer buffer = BUFFERS.get();
+		if( buffer == null || buffer.capacity() < size )
+		{
+			int capacity = MINIMUM_CAPACITY;
+			while( capacity < size )
+				capacity <<= 1;
+
+			buffer = ByteBuffer.allocateDirect( capacity ).order( ByteOrder.nativeOrder() );
+			BUFFERS.set( buffer );
+		}
+
+		buffer.clear();
+		buffer.putInt( count );
+		return buffer;
+	}
+
+	public static void putValue( ByteBuffer buffer, int handle, byte[] value )
+	{
+		buffer.putInt( handle );
+		if( value == null )
+		{
+			buffer.putInt( -1 );
+		}
+		else
+		{
+			buffer.putInt( value.length );
+			buffer.put( value );
+		}
+	}
+
+	/**
+	 * Write the tag into the buffer, which finishes it off, and return the buffer
+	 */
+	public static ByteBuffer putTag( ByteBuffer buffer, byte[] tag )
+	{
+		if( tag == null )
+		{
+			buffer.putInt( -1 );
+		}
+		else
+		{
+			buffer.putInt( tag.length );
+			buffer.put( tag );
+		}
+
+		return buffer;
+	}
+
+	/**
+	 * Pack the given values and tag into this thread's buffer and return it
+	 */
+	public static ByteBuffer write( HandleValueMap values, byte[] tag )
+	{
+		int valueBytes = 0;
+		for( int i = 0; i < values.size(); i++ )
+		{
+			byte[] value = values.valueAt( i );
+			if( value != null )
+				valueBytes += value.length;
+		}
+
+		ByteBuffer buffer = begin( values.size(), sizeOf(values.size(),valueBytes,tag) );
+		for( int i = 0; i < values.size(); i++ )
+			putValue( buffer, values.handleAt(i), values.valueAt(i) );
+
+		return putTag( buffer, tag );
+	}
+
+	/**
+	 * Read the handles and values from the start of a buffer passed over from C++. The values
+	 * are copied out of the buffer, so the returned map remains valid after the buffer is reused.
+	 * The buffer is left positioned at the tag, ready for {@link #readTag(ByteBuffer)}.
+	 */
+	public static HandleValueMap readValues( ByteBuffer buffer )
+	{
+		buffer.order( ByteOrder.nativeOrder() );
+		buffer.clear();
+
+		int count = buffer.getInt();
+		HandleValueMap values = new HandleValueMap( count );
+		for( int i = 0; i < count; i++ )
+		{
+			int handle = buffer.getInt();
+			values.put( handle, readBytes(buffer) );
+		}
+
+		return values;
+	}
+
+	/**
+	 * Read the tag that follows the values in a buffer. Must be called after
+	 * {@link #readValues(ByteBuffer)}.
+	 */
+	public static byte[] readTag( ByteBuffer buffer )
+	{
+		return readBytes( buffer );
+	}
+
+	private static byte[] readBytes( ByteBuffer buffer )
+	{
+		int length = buffer.getInt();
+		if( length == -1 )
+			return null;
+
+		byte[] bytes = new byte[length];
+		buffer.get( bytes );
+		return bytes;
+	}
+}
@@ -0,0 +1,490 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.utils;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A compact map of attribute or parameter handles to their values. This is what attribute
+ * updates and interactions carry their values around in, from the ambassador the federate calls
+ * through the LRC messages to the callback at the other end.
+ * <p/>
+ * The handles are kept in a sorted <code>int[]</code> with the values in a matching array, so
+ * there is no boxing of handles and no entry object per value. Lookups are a binary search, which
+ * for the handful of values in a typical update is as quick as hashing. The <code>int</code>
+ * based methods ({@link #get(int)}, {@link #put(int, byte[])}, {@link #handleAt(int)},
+ * {@link #valueAt(int)}, ...) should be used wherever possible. The <code>Map</code> interface
+ * is there so that the map can be handed to code that wants one, but it boxes keys as it goes.
+ * <p/>
+ * Values can also be added as views over a larger buffer (see {@link #putSlice(int, ByteBuffer)}).
+ * This is how maps are filled when a message is read off the wire. Such values are only copied
+ * out into their own <code>byte[]</code> when they are first asked for.
+ * <p/>
+ * Instances are NOT thread safe, not even for reading when they contain slices.
+ */
+public class HandleValueMap extends AbstractMap<Integer,byte[]> implements Serializable
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final long serialVersionUID = 98121116105109L;
+
+	private static final int DEFAULT_CAPACITY = 8;
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private int[] handles;
+	private byte[][] values;
+	private transient ByteBuffer[] slices; // only created if slices are put in the map
+	private int size;
+	private transient int modifications;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	public HandleValueMap()
+	{
+		this( DEFAULT_CAPACITY );
+	}
+
+	public HandleValueMap( int capacity )
+	{
+		this.handles = new int[capacity];
+		this.values = new byte[capacity][];
+		this.slices = null;
+		this.size = 0;
+		this.modifications = 0;
+	}
+
+	/**
+	 * Create a new map containing the same handles and values as the given map. If the given
+	 * map is a <code>HandleValueMap</code>, this is just a copy of its arrays. The values
+	 * themselves are not copied.
+	 */
+	public HandleValueMap( Map<Integer,byte[]> other )
+	{
+		this( Math.max(other.size(),DEFAULT_CAPACITY) );
+		if( other instanceof HandleValueMap )
+		{
+			HandleValueMap map = (HandleValueMap)other;
+			System.arraycopy( map.handles, 0, this.handles, 0, map.size );
+			System.arraycopy( map.values, 0, this.values, 0, map.size );
+			if( map.slices != null )
+			{
+				this.slices = new ByteBuffer[handles.length];
+				System.arraycopy( map.slices, 0, this.slices, 0, map.size );
+			}
+
+			this.size = map.size;
+		}
+		else
+		{
+			for( Map.Entry<Integer,byte[]> entry : other.entrySet() )
+				put( entry.getKey().intValue(), entry.getValue() );
+		}
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	/**
+	 * @return The index that the given handle is at, or <code>(-(insertion point)-1)</code> if
+	 *         it isn't in the map (as per <code>Arrays.binarySearch()</code>)
+	 */
+	private int indexOf( int handle )
+	{
+		// values are usually added in order, so check the end before searching
+		if( size == 0 || handle > handles[size-1] )
+			return -(size+1);
+
+		return Arrays.binarySearch( handles, 0, size, handle );
+	}
+
+	/**
+	 * Find the slot for the given handle, opening one up in the right place if the handle isn't
+	 * already in the map, and return its index.
+	 */
+	private int slotFor( int handle )
+	{
+		int index = indexOf( handle );
+		if( index >= 0 )
+			return index;
+
+		index = -(index+1);
+		if( size == handles.length )
+		{
+			int capacity = Math.max( DEFAULT_CAPACITY, size << 1 );
+			this.handles = Arrays.copyOf( handles, capacity );
+			this.values = Arrays.copyOf( values, capacity );
+			if( slices != null )
+				this.slices = Arrays.copyOf( slices, capacity );
+		}
+
+		if( index < size )
+		{
+			System.arraycopy( handles, index, handles, index+1, size-index );
+			System.arraycopy( values, index, values, index+1, size-index );
+			if( slices != null )
+				System.arraycopy( slices, index, slices, index+1, size-index );
+		}
+
+		handles[index] = handle;
+		values[index] = null;
+		if( slices != null )
+			slices[index] = null;
+
+		size++;
+		modifications++;
+		return index;
+	}
+
+	private void removeAt( int index )
+	{
+		int moved = size-index-1;
+		if( moved > 0 )
+		{
+			System.arraycopy( handles, index+1, handles, index, moved );
+			System.arraycopy( values, index+1, values, index, moved );
+			if( slices != null )
+				System.arraycopy( slices, index+1, slices, index, moved );
+		}
+
+		size--;
+		values[size] = null;
+		if( slices != null )
+			slices[size] = null;
+
+		modifications++;
+	}
+
+	////////////////////////////////////////////////////////////
+	/////////////////// Primitive Map Methods //////////////////
+	////////////////////////////////////////////////////////////
+	@Override
+	public int size()
+	{
+		return size;
+	}
+
+	public boolean containsHandle( int handle )
+	{
+		return indexOf(handle) >= 0;
+	}
+
+	/**
+	 * @return The value for the given handle, or null if it isn't in the map
+	 */
+	public byte[] get( int handle )
+	{
+		int index = indexOf( handle );
+		return index < 0 ? null : valueAt( index );
+	}
+
+	/**
+	 * Store the value for the given handle, returning the value it replaced (if any)
+	 */
+	public byte[] put( int handle, byte[] value )
+	{
+		int index = indexOf( handle );
+		byte[] existing = index < 0 ? null : valueAt( index );
+		if( index < 0 )
+			index = slotFor( handle );
+		else if( slices != null )
+			slices[index] = null;
+
+		values[index] = value;
+		return existing;
+	}
+
+	/**
+	 * Store a view over a larger buffer as the value for the given handle. Nothing is copied
+	 * until the value is asked for, at which point the remaining bytes of the slice are copied
+	 * into a new <code>byte[]</code>. The buffer the slice is taken from must not be changed
+	 * while it is in the map. A null slice is stored as a null value.
+	 */
+	public void putSlice( int handle, ByteBuffer slice )
+	{
+		int index = slotFor( handle );
+		if( slices == null )
+			this.slices = new ByteBuffer[handles.length];
+
+		values[index] = null;
+		slices[index] = slice;
+	}
+
+	/**
+	 * Put every handle and value from the given map into this one, replacing the values of any
+	 * handles that are already here. Values that are still slices in the other map are carried
+	 * over as slices, so nothing is copied out of them. The other map isn't changed.
+	 */
+	public void putAll( HandleValueMap other )
+	{
+		for( int i = 0; i < other.size; i++ )
+		{
+			// look at the slice first, if it has been copied out since, the value is set
+			ByteBuffer slice = other.slices == null ? null : other.slices[i];
+			int index = slotFor( other.handles[i] );
+			if( slice != null )
+			{
+				if( slices == null )
+					this.slices = new ByteBuffer[handles.length];
+
+				values[index] = null;
+				slices[index] = slice;
+			}
+			else
+			{
+				values[index] = other.values[i];
+				if( slices != null )
+					slices[index] = null;
+			}
+		}
+	}
+
+	/**
+	 * Remove the given handle from the map, returning its value (if it had one)
+	 */
+	public byte[] remove( int handle )
+	{
+		int index = indexOf( handle );
+		if( index < 0 )
+			return null;
+
+		byte[] existing = valueAt( index );
+		removeAt( index );
+		return existing;
+	}
+
+	@Override
+	public void clear()
+	{
+		Arrays.fill( values, 0, size, null );
+		if( slices != null )
+			Arrays.fill( slices, 0, size, null );
+
+		this.size = 0;
+		this.modifications++;
+	}
+
+	/**
+	 * @return The handle at the given index. Handles are held in ascending order, so indexes run
+	 *         from 0 to <code>size()-1</code> in handle order.
+	 */
+	public int handleAt( int index )
+	{
+		if( index >= size )
+			throw new IndexOutOfBoundsException( "index: "+index+", size: "+size );
+
+		return handles[index];
+	}
+
+	/**
+	 * @return The value at the given index (see {@link #handleAt(int)})
+	 */
+	public byte[] valueAt( int index )
+	{
+		if( index >= size )
+			throw new IndexOutOfBoundsException( "index: "+index+", size: "+size );
+
+		byte[] value = values[index];
+		if( value == null && slices != null && slices[index] != null )
+		{
+			value = new byte[slices[index].remaining()];
+			slices[index].duplicate().get( value );
+			values[index] = value;
+			slices[index] = null;
+		}
+
+		return value;
+	}
+
+	/**
+	 * @return A copy of the handles in the map, in ascending order
+	 */
+	public int[] getHandles()
+	{
+		return Arrays.copyOf( handles, size );
+	}
+
+	////////////////////////////////////////////////////////////
+	////////////////////// Map Interface ///////////////////////
+	////////////////////////////////////////////////////////////
+	@Override
+	public boolean containsKey( Object key )
+	{
+		return (key instanceof Integer) && containsHandle( (Integer)key );
+	}
+
+	@Override
+	public byte[] get( Object key )
+	{
+		return (key instanceof Integer) ? get( ((Integer)key).intValue() ) : null;
+	}
+
+	@Override
+	public byte[] put( Integer key, byte[] value )
+	{
+		return put( key.intValue(), value );
+	}
+
+	@Override
+	public byte[] remove( Object key )
+	{
+		return (key instanceof Integer) ? remove( ((Integer)key).intValue() ) : null;
+	}
+
+	@Override
+	public Set<Map.Entry<Integer,byte[]>> entrySet()
+	{
+		return new EntrySet();
+	}
+
+	private void writeObject( ObjectOutputStream output ) throws IOException
+	{
+		// slices aren't written, so bring them into the values first
+		for( int i = 0; i < size; i++ )
+			valueAt( i );
+
+		output.defaultWriteObject();
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+	/**
+	 * Returns the given map if it is already a <code>HandleValueMap</code>, otherwise a new
+	 * <code>HandleValueMap</code> containing its contents. Null is returned as null.
+	 */
+	public static HandleValueMap from( Map<Integer,byte[]> map )
+	{
+		if( map == null || map instanceof HandleValueMap )
+			return (HandleValueMap)map;
+		else
+			return new HandleValueMap( map );
+	}
+
+	////////////////////////////////////////////////////////////////////////////////////////
+	////////////////////////////// Inner Class: Map Views //////////////////////////////////
+	////////////////////////////////////////////////////////////////////////////////////////
+	private class EntrySet extends AbstractSet<Map.Entry<Integer,byte[]>>
+	{
+		@Override
+		public int size()
+		{
+			return size;
+		}
+
+		@Override
+		public Iterator<Map.Entry<Integer,byte[]>> iterator()
+		{
+			return new EntryIterator();
+		}
+	}
+
+	private class EntryIterator implements Iterator<Map.Entry<Integer,byte[]>>
+	{
+		private int next = 0;
+		private int last = -1;
+		private int expectedModifications = modifications;
+
+		public boolean hasNext()
+		{
+			return next < size;
+		}
+
+		public Map.Entry<Integer,byte[]> next()
+		{
+			if( expectedModifications != modifications )
+				throw new ConcurrentModificationException();
+			if( next >= size )
+				throw new NoSuchElementException();
+
+			this.last = next++;
+			return new Entry( handles[last] );
+		}
+
+		public void remove()
+		{
+			if( last == -1 )
+				throw new IllegalStateException();
+			if( expectedModifications != modifications )
+				throw new ConcurrentModificationException();
+
+			removeAt( last );
+			this.next = last;
+			this.last = -1;
+			this.expectedModifications = modifications;
+		}
+	}
+
+	private class Entry implements Map.Entry<Integer,byte[]>
+	{
+		private int handle;
+		public Entry( int handle )
+		{
+			this.handle = handle;
+		}
+
+		public Integer getKey()
+		{
+			return handle;
+		}
+
+		public byte[] getValue()
+		{
+			return get( handle );
+		}
+
+		public byte[] setValue( byte[] value )
+		{
+			return put( handle, value );
+		}
+
+		@Override
+		public boolean equals( Object other )
+		{
+			if( other instanceof Map.Entry == false )
+				return false;
+
+			Map.Entry<?,?> entry = (Map.Entry<?,?>)other;
+			return getKey().equals(entry.getKey()) && getValue() == entry.getValue();
+		}
+
+		@Override
+		public int hashCode()
+		{
+			byte[] value = getValue();
+			return handle ^ (value == null ? 0 : value.hashCode());
+		}
+
+		@Override
+		public String toString()
+		{
+			return handle+"="+getValue();
+		}
+	}
+}
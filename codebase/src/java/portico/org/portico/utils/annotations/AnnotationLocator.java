@@ -48,14 +48,16 @@ public class AnnotationLocator
 	//                   INSTANCE VARIABLES
 	//----------------------------------------------------------
 	private Logger logger;
+	private ClassLoader loader; // used to load the classes we find
 
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
 
-	private AnnotationLocator()
+	private AnnotationLocator( ClassLoader loader )
 	{
 		this.logger = LogManager.getFormatterLogger( "portico.container" );
+		this.loader = loader;
 	}
 	
 	//----------------------------------------------------------
@@ -73,8 +75,7 @@ public class AnnotationLocator
 		Set<Class<?>> classesWithAnnotation = new HashSet<Class<?>>();
 		
 		// check each of the URLs on the classpath
-		URLClassLoader systemLoader = (URLClassLoader)ClassLoader.getSystemClassLoader();
-		for( URL currentURL : systemLoader.getURLs() )
+		for( URL currentURL : getClasspath() )
 		{
 			classesWithAnnotation.addAll( _locateClassesWithAnnotation(annotation, currentURL) );
 		}
@@ -130,7 +131,7 @@ public class AnnotationLocator
 		for( String filename : filenames )
 		{
 			String className = pathToClassName( filename );
-			classesWithAnnotation.add( Class.forName(className) );
+			classesWithAnnotation.add( Class.forName(className,true,loader) );
 		}
 		
 		logger.trace( "(Annotation) Finished scanning ["+urlToSearch+"] for annotation ["+
@@ -143,6 +144,25 @@ public class AnnotationLocator
 	////////////////////////////////////////////////////////////////////////////////////////////
 	////////////////////////////////// Private Helper Methods //////////////////////////////////
 	////////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Get the locations on the system classpath. The system class loader is only a
+	 * {@link URLClassLoader} up to Java 8, so if it isn't one we fall back to the
+	 * <code>java.class.path</code> system property.
+	 */
+	private URL[] getClasspath() throws Exception
+	{
+		ClassLoader systemLoader = ClassLoader.getSystemClassLoader();
+		if( systemLoader instanceof URLClassLoader )
+			return ((URLClassLoader)systemLoader).getURLs();
+
+		String[] paths = System.getProperty("java.class.path","").split( File.pathSeparator );
+		URL[] urls = new URL[paths.length];
+		for( int i = 0; i < paths.length; i++ )
+			urls[i] = new File(paths[i]).toURI().toURL();
+
+		return urls;
+	}
+
 	/**
 	 * Returns true if the given location points to a jar file
 	 */
@@ -373,7 +393,7 @@ public class AnnotationLocator
 	public static Set<Class<?>> locateClassesWithAnnotation( Class<? extends Annotation> annotation )
 		throws Exception
 	{
-		return new AnnotationLocator()._locateClassesWithAnnotation( annotation );
+		return new AnnotationLocator(getDefaultLoader())._locateClassesWithAnnotation( annotation );
 	}
 
 	/**
@@ -406,6 +426,24 @@ public class AnnotationLocator
 	                                                         URL urlToSearch )
 		throws Exception
 	{
-		return new AnnotationLocator()._locateClassesWithAnnotation( annotation, urlToSearch );
+		return locateClassesWithAnnotation( annotation, urlToSearch, getDefaultLoader() );
+	}
+
+	/**
+	 * Same as {@link #locateClassesWithAnnotation(Class, URL)}, except that the classes that are
+	 * found are loaded with the given class loader. Use this when searching locations that aren't
+	 * on the classpath (such as plugin directories), passing a loader that can see them.
+	 */
+	public static Set<Class<?>> locateClassesWithAnnotation( Class<? extends Annotation> annotation,
+	                                                         URL urlToSearch,
+	                                                         ClassLoader loader )
+		throws Exception
+	{
+		return new AnnotationLocator(loader)._locateClassesWithAnnotation( annotation, urlToSearch );
+	}
+
+	private static ClassLoader getDefaultLoader()
+	{
+		return AnnotationLocator.class.getClassLoader();
 	}
 }
@@ -4,9 +4,9 @@
  *   This file is part of portico.
  *
  *   portico is free software; you can redistribute it and/or modify
- *   it under the terms of the Common Developer and Distribution License (CDDL) 
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
  *   as published by Sun Microsystems. For more information see the LICENSE file.
- *   
+ *
  *   Use of this software is strictly AT YOUR OWN RISK!!!
  *   If something bad happens you do not have permission to come crying to me.
  *   (that goes for your lawyer as well)
@@ -14,74 +14,239 @@
  */
 package org.portico.utils.annotations;
 
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
 import java.io.InputStream;
 
-import org.objectweb.asm.AnnotationVisitor;
-import org.objectweb.asm.ClassReader;
-
 /**
  * This class handles the bytecode inspector that will look at the bytes for a class file and
- * attempt to determine if the class contained within declares a particular annotation. This
- * makes use of the ASM library for bytecode interpretation.
+ * attempt to determine if the class contained within declares a particular annotation.
+ * <p/>
+ * It used to sit on top of the ASM library, but the version we had couldn't read the class files
+ * produced by newer compilers. All we need is the list of class-level annotations, so rather than
+ * chase ASM versions we just read the class file directly: skip over the constant pool (keeping
+ * the strings), fields and methods, then look through the class attributes for the annotations.
+ * The format is described in chapter 4 of the Java Virtual Machine Specification.
  */
-public class AnnotationParser extends EmptyVisitor
+public class AnnotationParser
 {
 	//----------------------------------------------------------
 	//                    STATIC VARIABLES
 	//----------------------------------------------------------
+	private static final int MAGIC = 0xCAFEBABE;
+
+	// constant pool tags
+	private static final int CONSTANT_Utf8               = 1;
+	private static final int CONSTANT_Integer            = 3;
+	private static final int CONSTANT_Float              = 4;
+	private static final int CONSTANT_Long               = 5;
+	private static final int CONSTANT_Double             = 6;
+	private static final int CONSTANT_Class              = 7;
+	private static final int CONSTANT_String             = 8;
+	private static final int CONSTANT_Fieldref           = 9;
+	private static final int CONSTANT_Methodref          = 10;
+	private static final int CONSTANT_InterfaceMethodref = 11;
+	private static final int CONSTANT_NameAndType        = 12;
+	private static final int CONSTANT_MethodHandle       = 15;
+	private static final int CONSTANT_MethodType         = 16;
+	private static final int CONSTANT_Dynamic            = 17;
+	private static final int CONSTANT_InvokeDynamic      = 18;
+	private static final int CONSTANT_Module             = 19;
+	private static final int CONSTANT_Package            = 20;
 
 	//----------------------------------------------------------
 	//                   INSTANCE VARIABLES
 	//----------------------------------------------------------
 	private String targetAnnotation;
-	private boolean found;
+	private DataInputStream input;
+	private String[] strings; // the Utf8 entries from the constant pool, by index
 
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
 	//----------------------------------------------------------
 
-	private AnnotationParser( String targetAnnotation )
+	private AnnotationParser( InputStream classBytes, String targetAnnotation )
 	{
+		this.input = new DataInputStream( new BufferedInputStream(classBytes) );
 		this.targetAnnotation = targetAnnotation;
-		this.found = false;
 	}
 
 	//----------------------------------------------------------
 	//                    INSTANCE METHODS
 	//----------------------------------------------------------
+	private boolean parse() throws IOException
+	{
+		if( input.readInt() != MAGIC )
+			return false;
+
+		skip( 4 );                          // minor and major version
+		readConstantPool();
+		skip( 6 );                          // access flags, this class, super class
+		skip( 2 * input.readUnsignedShort() ); // interfaces
+		skipMembers();                      // fields
+		skipMembers();                      // methods
+
+		// the class attributes, which is where the annotations live
+		int attributeCount = input.readUnsignedShort();
+		for( int i = 0; i < attributeCount; i++ )
+		{
+			String name = strings[input.readUnsignedShort()];
+			int length = input.readInt();
+			if( "RuntimeVisibleAnnotations".equals(name) ||
+			    "RuntimeInvisibleAnnotations".equals(name) )
+			{
+				int annotationCount = input.readUnsignedShort();
+				for( int j = 0; j < annotationCount; j++ )
+				{
+					if( targetAnnotation.equals(strings[input.readUnsignedShort()]) )
+						return true;
+
+					skipAnnotationValues();
+				}
+			}
+			else
+			{
+				skip( length );
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Read through the constant pool, keeping hold of the Utf8 entries so that we can resolve
+	 * the attribute and annotation names that refer to them.
+	 */
+	private void readConstantPool() throws IOException
+	{
+		int count = input.readUnsignedShort();
+		this.strings = new String[count];
+		for( int i = 1; i < count; i++ )
+		{
+			int tag = input.readUnsignedByte();
+			switch( tag )
+			{
+				case CONSTANT_Utf8:
+					strings[i] = input.readUTF();
+					break;
+				case CONSTANT_Class:
+				case CONSTANT_String:
+				case CONSTANT_MethodType:
+				case CONSTANT_Module:
+				case CONSTANT_Package:
+					skip( 2 );
+					break;
+				case CONSTANT_MethodHandle:
+					skip( 3 );
+					break;
+				case CONSTANT_Integer:
+				case CONSTANT_Float:
+				case CONSTANT_Fieldref:
+				case CONSTANT_Methodref:
+				case CONSTANT_InterfaceMethodref:
+				case CONSTANT_NameAndType:
+				case CONSTANT_Dynamic:
+				case CONSTANT_InvokeDynamic:
+					skip( 4 );
+					break;
+				case CONSTANT_Long:
+				case CONSTANT_Double:
+					// these take up two entries in the pool
+					skip( 8 );
+					i++;
+					break;
+				default:
+					throw new IOException( "Unknown constant pool tag ["+tag+"] at index "+i );
+			}
+		}
+	}
+
+	/**
+	 * Skip the fields or methods table, including all their attributes
+	 */
+	private void skipMembers() throws IOException
+	{
+		int count = input.readUnsignedShort();
+		for( int i = 0; i < count; i++ )
+		{
+			skip( 6 ); // access flags, name, descriptor
+			int attributeCount = input.readUnsignedShort();
+			for( int j = 0; j < attributeCount; j++ )
+			{
+				skip( 2 );
+				skip( input.readInt() );
+			}
+		}
+	}
 
-	public AnnotationVisitor visitAnnotation( String name, boolean visible )
+	/**
+	 * Skip the element-value pairs of an annotation whose type we have just read
+	 */
+	private void skipAnnotationValues() throws IOException
 	{
-		if( name.equals(targetAnnotation) )
-			this.found = true;
-		
-		return this;
+		int pairs = input.readUnsignedShort();
+		for( int i = 0; i < pairs; i++ )
+		{
+			skip( 2 ); // element name
+			skipElementValue();
+		}
+	}
+
+	private void skipElementValue() throws IOException
+	{
+		int tag = input.readUnsignedByte();
+		switch( tag )
+		{
+			case 'e':
+				skip( 4 ); // enum type and constant name
+				break;
+			case '@':
+				skip( 2 ); // annotation type
+				skipAnnotationValues();
+				break;
+			case '[':
+				int count = input.readUnsignedShort();
+				for( int i = 0; i < count; i++ )
+					skipElementValue();
+				break;
+			default:
+				skip( 2 ); // constant value or class
+				break;
+		}
+	}
+
+	private void skip( int bytes ) throws IOException
+	{
+		while( bytes > 0 )
+		{
+			int skipped = input.skipBytes( bytes );
+			if( skipped <= 0 )
+			{
+				// skipBytes() doesn't tell us about the end of the stream, read() will
+				if( input.read() == -1 )
+					throw new EOFException( "Unexpected end of class file" );
+
+				skipped = 1;
+			}
+
+			bytes -= skipped;
+		}
 	}
 
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
 	/**
-	 * Will process the class file linked to the input stream and search it to see if the
-	 * annotation provided is anywhere to be found. If the annotation has been declared, 
-	 * <code>true</code> will be returned. If it hasn't <code>false</code> will be returned.
-	 * <p/>
-	 * <b>NOTE:</b> Always remember to close your input streams when you're finished with them.
-	 * This method won't do it for you!
-	 * 
-	 * @param classBytes An input stream pointing to the bytes.
-	 * @param annotationString The internal java name for the annotation class that you are
-	 *                         searching for. E.g. "Lcom/lbf/commons/component/Component;"
-	 * @return <code>true</code> if the annotation is declared, <code>false</code> otherwise
-	 * @throws Exception If there is a problem reading the class or processing it
+	 * Returns true if the class file in the given stream declares the given class-level
+	 * annotation. The annotation should be given in its internal form (for example,
+	 * "Lorg/portico/utils/messaging/MessageHandler;"). The stream is not closed.
 	 */
 	public static boolean parseForAnnotation( InputStream classBytes, String annotationString )
 		throws Exception
-	{	
-		ClassReader reader = new ClassReader( classBytes );
-		AnnotationParser parser = new AnnotationParser( annotationString );
-		reader.accept( parser, ClassReader.EXPAND_FRAMES );
-		return parser.found;
+	{
+		return new AnnotationParser(classBytes,annotationString).parse();
 	}
 
 }
@@ -56,18 +56,25 @@ import org.portico.lrc.services.ddm.handlers.outgoing.ModifyRegionHandler;
 import org.portico.lrc.services.ddm.handlers.outgoing.UnassociateRegionHandler;
 import org.portico.lrc.services.federation.handlers.incoming.ResignNotificationHandler;
 import org.portico.lrc.services.federation.handlers.incoming.RoleCallHandler;
+import org.portico.lrc.services.federation.handlers.incoming.RoleCallObjectsHandler;
 import org.portico.lrc.services.federation.handlers.outgoing.CreateFederationHandler;
 import org.portico.lrc.services.federation.handlers.outgoing.DestroyFederationHandler;
 import org.portico.lrc.services.federation.handlers.outgoing.JoinFederationHandler;
 import org.portico.lrc.services.federation.handlers.outgoing.ResignFederationHandler;
+import org.portico.lrc.services.object.handlers.incoming.ChangeAttributeTransportIncomingHandler;
+import org.portico.lrc.services.object.handlers.incoming.ChangeInteractionTransportIncomingHandler;
 import org.portico.lrc.services.object.handlers.incoming.DiscoverObjectHandler;
 import org.portico.lrc.services.object.handlers.incoming.ReceiveInteractionHandler;
 import org.portico.lrc.services.object.handlers.incoming.ReflectAttributesHandler;
 import org.portico.lrc.services.object.handlers.incoming.RemoveObjectHandler;
 import org.portico.lrc.services.object.handlers.incoming.RequestClassUpdateIncomingHandler;
 import org.portico.lrc.services.object.handlers.incoming.RequestObjectUpdateIncomingHandler;
+import org.portico.lrc.services.object.handlers.outgoing.ChangeAttributeTransportHandler;
+import org.portico.lrc.services.object.handlers.outgoing.ChangeInteractionTransportHandler;
 import org.portico.lrc.services.object.handlers.outgoing.DeleteObjectHandler;
 import org.portico.lrc.services.object.handlers.outgoing.LocalDeleteHandler;
+import org.portico.lrc.services.object.handlers.outgoing.QueryAttributeTransportHandler;
+import org.portico.lrc.services.object.handlers.outgoing.QueryInteractionTransportHandler;
 import org.portico.lrc.services.object.handlers.outgoing.RegisterObjectHandler;
 import org.portico.lrc.services.object.handlers.outgoing.RequestClassUpdateHandler;
 import org.portico.lrc.services.object.handlers.outgoing.RequestObjectUpdateHandler;
@@ -122,6 +129,8 @@ import org.portico.lrc.services.time.handlers.incoming.DisableRegulationIncoming
 import org.portico.lrc.services.time.handlers.incoming.EnableConstrainedIncomingHandler;
 import org.portico.lrc.services.time.handlers.incoming.EnableRegulationIncomingHandler;
 import org.portico.lrc.services.time.handlers.incoming.ModifyLookaheadIncomingHandler;
+import org.portico.lrc.services.time.handlers.incoming.NextEventRequestIncomingHandler;
+import org.portico.lrc.services.time.handlers.incoming.NullMessageIncomingHandler;
 import org.portico.lrc.services.time.handlers.incoming.TimeAdvanceGrantedIncomingHandler;
 import org.portico.lrc.services.time.handlers.incoming.TimeAdvanceRequestIncomingHandler;
 import org.portico.lrc.services.time.handlers.outgoing.DisableAsyncDeliveryHandler;
@@ -190,6 +199,7 @@ public class HandlerRegistry
 		// Incoming
 		register( ResignNotificationHandler.class );
 		register( RoleCallHandler.class );
+		register( RoleCallObjectsHandler.class );
 		register( org.portico.lrc.services.sync.handlers.incoming.SyncAchievedHandler.class );
 		register( SyncAnnounceHandler.class );
 		register( SyncRegistrationRequestHandler.class );
@@ -221,8 +231,12 @@ public class HandlerRegistry
 		// Object Management   ////////////////////////////////
 		///////////////////////////////////////////////////////
 		// Outgoing
+		register( ChangeAttributeTransportHandler.class );
+		register( ChangeInteractionTransportHandler.class );
 		register( DeleteObjectHandler.class );
 		register( LocalDeleteHandler.class );
+		register( QueryAttributeTransportHandler.class );
+		register( QueryInteractionTransportHandler.class );
 		register( RegisterObjectHandler.class );
 		register( RequestClassUpdateHandler.class );
 		register( RequestObjectUpdateHandler.class );
@@ -231,6 +245,8 @@ public class HandlerRegistry
 		register( UpdateAttributesHandler.class );
 		
 		// Incoming
+		register( ChangeAttributeTransportIncomingHandler.class );
+		register( ChangeInteractionTransportIncomingHandler.class );
 		register( DiscoverObjectHandler.class );
 		register( ReceiveInteractionHandler.class );
 		register( ReflectAttributesHandler.class );
@@ -260,6 +276,8 @@ public class HandlerRegistry
 		register( EnableConstrainedIncomingHandler.class );
 		register( EnableRegulationIncomingHandler.class );
 		register( ModifyLookaheadIncomingHandler.class );
+		register( NextEventRequestIncomingHandler.class );
+		register( NullMessageIncomingHandler.class );
 		register( TimeAdvanceGrantedIncomingHandler.class );
 		register( TimeAdvanceRequestIncomingHandler.class );
 
@@ -365,11 +383,13 @@ public class HandlerRegistry
 	{
 		register( org.portico.impl.hla1516e.handlers.AssumptionRequestCallbackHandler.class );
 		register( org.portico.impl.hla1516e.handlers.AttributeOwnershipQueryCallbackHandler.class );
+		register( org.portico.impl.hla1516e.handlers.AttributeTransportCallbackHandler.class );
 		register( org.portico.impl.hla1516e.handlers.AttributesAcquiredCallbackHandler.class );
 		register( org.portico.impl.hla1516e.handlers.AttributesUnavailableCallbackHandler.class );
 		register( org.portico.impl.hla1516e.handlers.CancelOwnershipRequestCallbackHandler.class );
 		register( org.portico.impl.hla1516e.handlers.DiscoverObjectCallbackHandler.class );
 		register( org.portico.impl.hla1516e.handlers.InitiateSaveCallbackHandler.class );
+		register( org.portico.impl.hla1516e.handlers.InteractionTransportCallbackHandler.class );
 		register( ObjectNameReservationCallbackHandler.class );
 		register( org.portico.impl.hla1516e.handlers.ProvideUpdateCallbackHandler.class );
 		register( org.portico.impl.hla1516e.handlers.ReceiveInteractionCallbackHandler.class );
@@ -425,6 +445,25 @@ public class HandlerRegistry
 		}
 	}
 
+	/**
+	 * Add the handlers from the given modules to the registry. If we already have a module of
+	 * the same name, the handlers are combined into it. This is used to bring in the handlers
+	 * that are found in plugin directories, which (unlike the handlers that ship with Portico)
+	 * can't be registered ahead of time.
+	 * 
+	 * @param additional The modules to add to the registry
+	 */
+	public void addModules( Collection<Module> additional )
+	{
+		for( Module module : additional )
+		{
+			if( modules.containsKey(module.getName()) )
+				modules.get(module.getName()).combine( module );
+			else
+				modules.put( module.getName(), module );
+		}
+	}
+
 	//////////////////////////////////////////////////////////////////////////////////
 	/// Accessor and Mutator Methods   ///////////////////////////////////////////////
 	//////////////////////////////////////////////////////////////////////////////////
@@ -36,6 +36,7 @@ public class MessageContext implements Externalizable
 	//----------------------------------------------------------
 	private PorticoMessage request;
 	private ResponseMessage response;
+	private transient Object attachment;
 
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
@@ -103,6 +104,27 @@ public class MessageContext implements Externalizable
 		return type.cast( this.request );
 	}
 	
+	/**
+	 * Attach something worked out while processing the request that later handlers in the chain
+	 * need (the attributes of an update the local federate is interested in, for example). This
+	 * is kept in the context rather than in the request so that a request can be shared by a
+	 * number of federates in the same JVM (see {@link PorticoMessage#isShareable()}). It is not
+	 * serialized.
+	 */
+	public void setAttachment( Object attachment )
+	{
+		this.attachment = attachment;
+	}
+
+	/**
+	 * @return The object attached with {@link #setAttachment(Object)} cast to the given type, or
+	 *         <code>null</code> if there isn't one
+	 */
+	public <T> T getAttachment( Class<T> type )
+	{
+		return type.cast( this.attachment );
+	}
+
 	////////////////////////////////////////////////////////////
 	///////////////// Response Handling Methods ////////////////
 	////////////////////////////////////////////////////////////
@@ -0,0 +1,302 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.utils.messaging;
+
+import java.io.ByteArrayInputStream;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+/**
+ * The reading side of {@link MessageOutput}. Wraps a received byte[] and lets a
+ * {@link PorticoMessage} pull its values back out in the order it wrote them (see
+ * {@link PorticoMessage#unmarshal(MessageInput)}).
+ * <p/>
+ * Reading past the end of the data results in a <code>java.nio.BufferUnderflowException</code>.
+ * Instances can be reused by calling {@link #reset(byte[])}. They are NOT thread safe.
+ */
+public class MessageInput
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final ByteBuffer EMPTY = ByteBuffer.allocate( 0 );
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private ByteBuffer buffer;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	public MessageInput()
+	{
+		this.buffer = EMPTY;
+	}
+
+	public MessageInput( byte[] data )
+	{
+		this();
+		reset( data );
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	/**
+	 * Point this input at a new set of data, with the read position at the start.
+	 */
+	public void reset( byte[] data )
+	{
+		this.buffer = ByteBuffer.wrap( data );
+	}
+
+	/**
+	 * Point this input at the given range of a set of data, with the read position at the start
+	 * of the range. Saves having to copy the data out when it is preceded by some other header.
+	 */
+	public void reset( byte[] data, int offset, int length )
+	{
+		this.buffer = ByteBuffer.wrap( data, offset, length ).slice();
+	}
+
+	/**
+	 * Drop the reference to the data that was last read so that it can be collected.
+	 */
+	public void clear()
+	{
+		this.buffer = EMPTY;
+	}
+
+	/**
+	 * @return The number of bytes left to read
+	 */
+	public int remaining()
+	{
+		return buffer.remaining();
+	}
+
+	////////////////////////////////////////////////////////////////////////////////////////
+	///////////////////////////////// Primitive Read Methods /////////////////////////////////
+	////////////////////////////////////////////////////////////////////////////////////////
+	public byte readByte()
+	{
+		return buffer.get();
+	}
+
+	public boolean readBoolean()
+	{
+		return buffer.get() != 0;
+	}
+
+	public short readShort()
+	{
+		return buffer.getShort();
+	}
+
+	public int readInt()
+	{
+		return buffer.getInt();
+	}
+
+	public long readLong()
+	{
+		return buffer.getLong();
+	}
+
+	public double readDouble()
+	{
+		return buffer.getDouble();
+	}
+
+	////////////////////////////////////////////////////////////////////////////////////////
+	////////////////////////////////// Complex Read Methods //////////////////////////////////
+	////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Read a length-prefixed byte[] as written by {@link MessageOutput#writeBytes(byte[])}
+	 */
+	public byte[] readBytes()
+	{
+		int length = readLength();
+		if( length == -1 )
+			return null;
+
+		byte[] value = new byte[length];
+		buffer.get( value );
+		return value;
+	}
+
+	/**
+	 * Read a length-prefixed byte[] as written by {@link MessageOutput#writeBytes(byte[])}, but
+	 * rather than copying it out, return a buffer that is a view over that section of the data
+	 * this input was reset with. The position of the returned buffer is zero and its limit is the
+	 * length of the value.
+	 * <p/>
+	 * Nothing is copied, so the returned buffer is only valid for as long as the data this input
+	 * was reset with is left alone. It should be treated as read-only. Use
+	 * {@link #toByteArray(ByteBuffer)} to get the value out when it is actually needed.
+	 */
+	public ByteBuffer readByteBuffer()
+	{
+		int length = readLength();
+		if( length == -1 )
+			return null;
+
+		ByteBuffer value = buffer.slice();
+		value.limit( length );
+		buffer.position( buffer.position()+length );
+		return value;
+	}
+
+	/**
+	 * Read a UTF-8 string as written by {@link MessageOutput#writeString(String)}
+	 */
+	public String readString()
+	{
+		int length = readLength();
+		if( length == -1 )
+			return null;
+
+		String value = new String( buffer.array(),
+		                           buffer.arrayOffset()+buffer.position(),
+		                           length,
+		                           StandardCharsets.UTF_8 );
+		buffer.position( buffer.position()+length );
+		return value;
+	}
+
+	public String[] readStringArray()
+	{
+		int count = readLength();
+		if( count == -1 )
+			return null;
+
+		String[] values = new String[count];
+		for( int i = 0; i < count; i++ )
+			values[i] = readString();
+
+		return values;
+	}
+
+	public int[] readIntArray()
+	{
+		int count = readCount( 4 );
+		if( count == -1 )
+			return null;
+
+		int[] values = new int[count];
+		for( int i = 0; i < count; i++ )
+			values[i] = buffer.getInt();
+
+		return values;
+	}
+
+	/**
+	 * Read a collection of ints written by {@link MessageOutput#writeIntCollection} into a
+	 * <code>HashSet</code>.
+	 */
+	public HashSet<Integer> readIntSet()
+	{
+		int count = readCount( 4 );
+		if( count == -1 )
+			return null;
+
+		HashSet<Integer> values = new HashSet<Integer>( (int)(count/0.75f)+1 );
+		for( int i = 0; i < count; i++ )
+			values.add( buffer.getInt() );
+
+		return values;
+	}
+
+	/**
+	 * Read a collection of ints written by {@link MessageOutput#writeIntCollection} into an
+	 * <code>ArrayList</code>, preserving order.
+	 */
+	public ArrayList<Integer> readIntList()
+	{
+		int count = readCount( 4 );
+		if( count == -1 )
+			return null;
+
+		ArrayList<Integer> values = new ArrayList<Integer>( count );
+		for( int i = 0; i < count; i++ )
+			values.add( buffer.getInt() );
+
+		return values;
+	}
+
+	/**
+	 * Reverse of {@link MessageOutput#writeSerializable(java.io.Serializable)}. Escape hatch
+	 * only, see the notes on that method.
+	 */
+	public <T> T readSerializable( Class<T> expectedType )
+	{
+		byte[] blob = readBytes();
+		if( blob == null )
+			return null;
+
+		try
+		{
+			ObjectInputStream ois = new ObjectInputStream( new ByteArrayInputStream(blob) );
+			return expectedType.cast( ois.readObject() );
+		}
+		catch( Exception e )
+		{
+			throw new MessagingException( "Couldn't deserialize ["+expectedType+"]", e );
+		}
+	}
+
+	/**
+	 * Read a length prefix and make sure it is sane before anyone tries to allocate with it.
+	 * Garbage data will generally fail here rather than with an OutOfMemoryError.
+	 */
+	private int readLength()
+	{
+		return readCount( 1 );
+	}
+
+	private int readCount( int elementSize )
+	{
+		int count = buffer.getInt();
+		if( count < -1 || (long)count*elementSize > buffer.remaining() )
+		{
+			throw new MessagingException( "Invalid length prefix ["+count+"] with "+
+			                              buffer.remaining()+"b remaining" );
+		}
+
+		return count;
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+	/**
+	 * Copy the remaining contents of a buffer returned by {@link #readByteBuffer()} into a new
+	 * byte[]. The position of the given buffer is not changed. Null is allowed and will return
+	 * null.
+	 */
+	public static byte[] toByteArray( ByteBuffer value )
+	{
+		if( value == null )
+			return null;
+
+		byte[] bytes = new byte[value.remaining()];
+		value.duplicate().get( bytes );
+		return bytes;
+	}
+}
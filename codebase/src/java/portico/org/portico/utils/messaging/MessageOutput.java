@@ -0,0 +1,269 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.utils.messaging;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * A growable, reusable binary buffer that {@link PorticoMessage}s write themselves into when
+ * they are being prepared for the wire (see {@link PorticoMessage#marshal(MessageOutput)}).
+ * <p/>
+ * Unlike an <code>ObjectOutputStream</code>, there is no stream header, block-data framing or
+ * class descriptor information written. Values are written raw in network (big-endian) order
+ * and it is up to the reader to know what it is reading. Variable length values (strings,
+ * byte[] and collections) are prefixed with an int length, where a length of <code>-1</code>
+ * signals a <code>null</code> value.
+ * <p/>
+ * Instances are intended to be reused. Call {@link #reset()} before writing a new message and
+ * {@link #toByteArray()} to extract the written contents. Instances are NOT thread safe, the
+ * {@link org.portico.lrc.utils.MessageHelpers} keep one per thread.
+ */
+public class MessageOutput
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	/** Size we start at and shrink back to if a single message blew the buffer out */
+	private static final int DEFAULT_SIZE = 1024;
+
+	/** Anything above this is released on reset rather than hanging around per-thread */
+	private static final int RETAIN_LIMIT = 1024 * 1024;
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private ByteBuffer buffer;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+	public MessageOutput()
+	{
+		this( DEFAULT_SIZE );
+	}
+
+	public MessageOutput( int initialSize )
+	{
+		this.buffer = ByteBuffer.allocate( initialSize );
+	}
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	/**
+	 * Rewind the buffer so that it can be reused. If a previous message caused the buffer to
+	 * grow beyond a sensible size, it is dropped and a default sized one put in its place.
+	 */
+	public void reset()
+	{
+		if( buffer.capacity() > RETAIN_LIMIT )
+			this.buffer = ByteBuffer.allocate( DEFAULT_SIZE );
+		else
+			this.buffer.clear();
+	}
+
+	/**
+	 * @return The number of bytes that have been written since the last reset
+	 */
+	public int size()
+	{
+		return buffer.position();
+	}
+
+	/**
+	 * @return A copy of everything written since the last reset, sized exactly
+	 */
+	public byte[] toByteArray()
+	{
+		byte[] data = new byte[buffer.position()];
+		System.arraycopy( buffer.array(), 0, data, 0, data.length );
+		return data;
+	}
+
+	/**
+	 * Make sure there is space for at least the given number of additional bytes, growing the
+	 * underlying buffer if there isn't.
+	 */
+	private void ensureCapacity( int required )
+	{
+		if( buffer.remaining() >= required )
+			return;
+
+		int newSize = Math.max( buffer.capacity() << 1, buffer.position()+required );
+		ByteBuffer bigger = ByteBuffer.allocate( newSize );
+		buffer.flip();
+		bigger.put( buffer );
+		this.buffer = bigger;
+	}
+
+	////////////////////////////////////////////////////////////////////////////////////////
+	///////////////////////////////// Primitive Write Methods ////////////////////////////////
+	////////////////////////////////////////////////////////////////////////////////////////
+	public void writeByte( int value )
+	{
+		ensureCapacity( 1 );
+		buffer.put( (byte)value );
+	}
+
+	public void writeBoolean( boolean value )
+	{
+		ensureCapacity( 1 );
+		buffer.put( value ? (byte)1 : (byte)0 );
+	}
+
+	public void writeShort( int value )
+	{
+		ensureCapacity( 2 );
+		buffer.putShort( (short)value );
+	}
+
+	public void writeInt( int value )
+	{
+		ensureCapacity( 4 );
+		buffer.putInt( value );
+	}
+
+	public void writeLong( long value )
+	{
+		ensureCapacity( 8 );
+		buffer.putLong( value );
+	}
+
+	public void writeDouble( double value )
+	{
+		ensureCapacity( 8 );
+		buffer.putDouble( value );
+	}
+
+	////////////////////////////////////////////////////////////////////////////////////////
+	////////////////////////////////// Complex Write Methods /////////////////////////////////
+	////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Writes a length-prefixed byte[]. Null is allowed and will be read back as null.
+	 */
+	public void writeBytes( byte[] value )
+	{
+		if( value == null )
+		{
+			writeInt( -1 );
+			return;
+		}
+
+		ensureCapacity( 4+value.length );
+		buffer.putInt( value.length );
+		buffer.put( value );
+	}
+
+	/**
+	 * Writes the string as length-prefixed UTF-8. Null is allowed and will be read back as null.
+	 * There is no 64k limit like there is with <code>DataOutput.writeUTF()</code>.
+	 */
+	public void writeString( String value )
+	{
+		if( value == null )
+			writeInt( -1 );
+		else
+			writeBytes( value.getBytes(StandardCharsets.UTF_8) );
+	}
+
+	/**
+	 * Writes a count-prefixed array of strings. Null is allowed and will be read back as null.
+	 */
+	public void writeStringArray( String[] values )
+	{
+		if( values == null )
+		{
+			writeInt( -1 );
+			return;
+		}
+
+		writeInt( values.length );
+		for( String value : values )
+			writeString( value );
+	}
+
+	/**
+	 * Writes a count-prefixed array of ints. Null is allowed and will be read back as null.
+	 */
+	public void writeIntArray( int[] values )
+	{
+		if( values == null )
+		{
+			writeInt( -1 );
+			return;
+		}
+
+		ensureCapacity( 4+(values.length*4) );
+		buffer.putInt( values.length );
+		for( int value : values )
+			buffer.putInt( value );
+	}
+
+	/**
+	 * Writes a count-prefixed set of ints taken from the given collection (handle sets and the
+	 * like). Null is allowed and will be read back as null.
+	 */
+	public void writeIntCollection( Collection<Integer> values )
+	{
+		if( values == null )
+		{
+			writeInt( -1 );
+			return;
+		}
+
+		ensureCapacity( 4+(values.size()*4) );
+		buffer.putInt( values.size() );
+		for( Integer value : values )
+			buffer.putInt( value );
+	}
+
+	/**
+	 * <b>Escape hatch only.</b> Writes the given object using standard Java serialization,
+	 * prefixed with the length of the resulting blob. This exists for the handful of heavy,
+	 * infrequent structures (FOM modules) that are not worth hand-coding a wire format for.
+	 * Do not use this for anything that goes out in steady-state traffic.
+	 */
+	public void writeSerializable( Serializable value )
+	{
+		if( value == null )
+		{
+			writeInt( -1 );
+			return;
+		}
+
+		try
+		{
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			ObjectOutputStream oos = new ObjectOutputStream( baos );
+			oos.writeObject( value );
+			oos.close();
+			writeBytes( baos.toByteArray() );
+		}
+		catch( IOException ioex )
+		{
+			throw new MessagingException( "Couldn't serialize ["+value.getClass()+"]", ioex );
+		}
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -531,12 +531,25 @@ public class Module
 	 *                 collection will not be altered, a new, updated collection will be returned
 	 */
 	public static Collection<Module> findModules( URL location ) throws JConfigurationException
+	{
+		return findModules( location, Module.class.getClassLoader() );
+	}
+
+	/**
+	 * The same as {@link #findModules(URL)}, except that any handler classes that are found will
+	 * be loaded with the given class loader. Use this when scanning a location that isn't on the
+	 * classpath, such as a plugin directory.
+	 */
+	public static Collection<Module> findModules( URL location, ClassLoader loader )
+		throws JConfigurationException
 	{
 		try
 		{
 			// locate all the classes with the annotation
 			Set<Class<?>> classes =
-				AnnotationLocator.locateClassesWithAnnotation( MessageHandler.class, location );
+				AnnotationLocator.locateClassesWithAnnotation( MessageHandler.class,
+				                                               location,
+				                                               loader );
 			// sort them into modules
 			return sortIntoModules( classes );
 		}
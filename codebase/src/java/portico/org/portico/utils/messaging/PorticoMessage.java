@@ -51,7 +51,8 @@ import org.portico.lrc.utils.MessageHelpers;
  * </code>, it does provide implementations of the required methods so that subclasses can call
  * them if they want to (thus removing the need to handle the parent class data). It also
  * implements private writeObject and readObject methods for faster serialization where a child
- * class is not Externalizable.
+ * class is not Externalizable. These are only used when messages are written as part of a save.
+ * Messages sent over the network go through {@link #marshal(MessageOutput)} instead.
  */
 public class PorticoMessage implements Serializable, Cloneable
 {
@@ -191,6 +192,30 @@ public class PorticoMessage implements Serializable, Cloneable
 		this.immediate = value;
 	}
 
+	/**
+	 * Returns <code>true</code> if this message can be delivered on a best-effort basis. That is,
+	 * a connection is free to send it in a way that doesn't guarantee delivery (no retransmission
+	 * if it is lost, no flow control). Connections that can't make use of this just send it as
+	 * they do every other message. Defaults to <code>false</code>, messages that can go out best
+	 * effort override this.
+	 */
+	public boolean isBestEffort()
+	{
+		return false;
+	}
+
+	/**
+	 * Returns <code>true</code> if the incoming handlers never change this message, so that a
+	 * connection delivering it to a number of federates in the same JVM can give each of them the
+	 * same instance rather than a clone. Anything a handler works out for the local federate has
+	 * to go into the {@link MessageContext} instead (see {@link MessageContext#setAttachment(Object)}).
+	 * Defaults to <code>false</code>, messages that are safe to share override this.
+	 */
+	public boolean isShareable()
+	{
+		return false;
+	}
+
 	/**
 	 * Returns the simple (non-qualified) name of the implementation class.
 	 */
@@ -269,55 +294,37 @@ public class PorticoMessage implements Serializable, Cloneable
 	}
 
 	/////////////////////////////////////////////////////////////////////////////////////////
-	/////////////////////////////// Manual Marshaling Methods ///////////////////////////////
+	///////////////////////////////// Wire Marshaling Methods ////////////////////////////////
 	/////////////////////////////////////////////////////////////////////////////////////////
 	/**
-	 * If message types support manual marshaling, they should override this method to return
-	 * <code>true</code>. By default it returns <code>false</code> and the automatic serialization
-	 * mechanisms will be used by the {@link MessageHelpers}. If this method returns
-	 * <code>true</code>, the {@link #marshal(ObjectOutput)} and {@link #unmarshal(ObjectInput)}
-	 * methods will be used for optimized performance. PLEASE: only use this if you absolutely
-	 * have to.
-	 * <p/>
-	 * <b>NOTE:</b> For this to work successfully, each message class must have a unique id (so
-	 * that on unmarhsal, an appropriate instance can be created). Thus, there must be an entry
-	 * for the class in the MessageHelpers.newMessageForId() private method. This method is hard
-	 * coded so that you can really only make use of this facility if really, really want it. Yes,
-	 * it's not clean or elegant, but that's also half the point in this case. Don't use this!
-	 */
-	public boolean supportsManualMarshal()
-	{
-		return false;
-	}
-	
-	/**
-	 * <i><b>NOTE</b>: These methods are provided to bypass the typical serialization process used
-	 * to convert messages into byte[]'s for sending. Unless absolute, extreme, total performance
-	 * is needed for a particular message, these methods should not be used. They are only for
-	 * those methods that are high-volume (like interactions and reflections). These methods as
-	 * they exist here do nothing, they are designed to be overridden by the subclass. By
-	 * declaring them here, they can be invoked on a generic PorticoMessage, hence the reason they
-	 * exist. See {@link MessageHelpers#deflate(PorticoMessage)}.</i>
+	 * Write this message into the given buffer for sending across the wire. This is the path
+	 * used by {@link MessageHelpers#deflate(PorticoMessage)}, and it does NOT use Java
+	 * serialization. This default implementation writes the values common to all messages.
+	 * Subclasses that carry their own state must override this, call the super version FIRST
+	 * and then write their own values. They must also override {@link #unmarshal(MessageInput)}
+	 * to read the values back in the same order.
 	 * <p/>
-	 * This method will marshal our local values into the given buffer.
+	 * Each message type must also have an id registered with the
+	 * {@link org.portico.lrc.utils.MessageRegistry} so the receiver knows what to create.
 	 */
-	public void marshal( ObjectOutput buffer ) throws IOException
+	public void marshal( MessageOutput output )
 	{
+		output.writeInt( sourceFederate );
+		output.writeInt( targetFederate );
+		output.writeDouble( timestamp );
+		output.writeBoolean( immediate );
 	}
 	
 	/**
-	 * <i><b>NOTE</b>: These methods are provided to bypass the typical serialization process used
-	 * to convert messages into byte[]'s for sending. Unless absolute, extreme, total performance
-	 * is needed for a particular message, these methods should not be used. They are only for
-	 * those methods that are high-volume (like interactions and reflections). These methods as
-	 * they exist here do nothing, they are designed to be overridden by the subclass. By
-	 * declaring them here, they can be invoked on a generic PorticoMessage, hence the reason they
-	 * exist. See {@link MessageHelpers#inflate(byte[],Class)}.</i>
-	 * <p/>
-	 * This method will unmarshal our local values from given buffer.
+	 * Reverse of {@link #marshal(MessageOutput)}. Read the values for this message back from
+	 * the given buffer. Subclasses overriding this must call the super version FIRST.
 	 */
-	public void unmarshal( ObjectInput buffer ) throws IOException, ClassNotFoundException
+	public void unmarshal( MessageInput input )
 	{
+		this.sourceFederate = input.readInt();
+		this.targetFederate = input.readInt();
+		this.timestamp = input.readDouble();
+		this.immediate = input.readBoolean();
 	}
 	
 	//----------------------------------------------------------
@@ -14,8 +14,6 @@
  */
 package hlaunit;
 
-import java.io.File;
-
 import org.portico.bindings.jgroups.Configuration;
 import org.portico.bindings.jvm.JVMConnection;
 import org.portico.lrc.PorticoConstants;
@@ -88,12 +86,6 @@ public class CommonSetup
 		System.setProperty( PorticoConstants.PROPERTY_PORTICO_LOG_LEVEL, loglevel );
 		System.setProperty( PorticoConstants.PROPERTY_CONTAINER_LOG_LEVEL, "FATAL" );
 		
-		/////////////////////////////////////////////////////////////////////////////
-		// set up the plugins directory, otherwise the handlers might not be found //
-		/////////////////////////////////////////////////////////////////////////////
-		File plugindir = new File( System.getProperty("user.dir") + "/build/java/portico/classes" );
-		System.setProperty( PorticoConstants.PROPERTY_PLUGIN_PATH, plugindir.getAbsolutePath() );
-		
 		try
 		{
 			/////////////////////////////////////////////////////////////////
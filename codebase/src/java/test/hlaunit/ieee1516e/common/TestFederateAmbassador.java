@@ -23,6 +23,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.Vector;
 
+import org.portico.impl.hla1516e.BatchFederateAmbassador;
+import org.portico.impl.hla1516e.Reflection;
 import org.portico.impl.hla1516e.types.HLA1516eAttributeHandleSet;
 import org.testng.Assert;
 
@@ -30,6 +32,7 @@ import hla.rti1516e.AttributeHandle;
 import hla.rti1516e.AttributeHandleSet;
 import hla.rti1516e.AttributeHandleValueMap;
 import hla.rti1516e.CallbackModel;
+import hla.rti1516e.FederateHandle;
 import hla.rti1516e.FederateHandleSet;
 import hla.rti1516e.InteractionClassHandle;
 import hla.rti1516e.LogicalTime;
@@ -49,6 +52,7 @@ import hlaunit.CommonSetup;
  * timeout the doco for any methods, you'll know I now mean that default value.
  */
 public class TestFederateAmbassador extends NullFederateAmbassador
+                                    implements BatchFederateAmbassador
 {
 	//----------------------------------------------------------
 	//                    STATIC VARIABLES
@@ -75,9 +79,14 @@ public class TestFederateAmbassador extends NullFederateAmbassador
 	protected HashSet<Integer> roRemoved;
 	protected HashSet<Integer> tsoRemoved;
 	protected HashMap<Integer,Set<Integer>> updatesRequested;
+	protected HashMap<String,TransportationTypeHandle> attributeTransports; // "object:attribute"
+	protected HashMap<Integer,TransportationTypeHandle> interactionTransports;
 	
 	protected List<TestInteraction> roInteractions;
 	protected List<TestInteraction> tsoInteractions;
+	
+	public int reflectionBatches; // number of times we've been given a batch of reflections
+	public int batchedReflections; // number of reflections we've been given in those batches
 
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
@@ -133,7 +142,7 @@ public class TestFederateAmbassador extends NullFederateAmbassador
 			{
 				try
 				{
-					this.wait( getTimeout() );
+					this.wait( CommonSetup.TIMEOUT );
 				}
 				catch( InterruptedException ie )
 				{
@@ -172,9 +181,13 @@ public class TestFederateAmbassador extends NullFederateAmbassador
 		this.roRemoved = new HashSet<Integer>();
 		this.tsoRemoved = new HashSet<Integer>();
 		this.updatesRequested = new HashMap<Integer,Set<Integer>>();
+		this.attributeTransports = new HashMap<String,TransportationTypeHandle>();
+		this.interactionTransports = new HashMap<Integer,TransportationTypeHandle>();
 		
 		this.roInteractions = new Vector<TestInteraction>();
 		this.tsoInteractions = new Vector<TestInteraction>();
+		this.reflectionBatches = 0;
+		this.batchedReflections = 0;
 	}
 	
 	//////////////////////////////////////////////////////////////////////////////////////////
@@ -822,6 +835,30 @@ public class TestFederateAmbassador extends NullFederateAmbassador
 		}
 	}
 
+	/**
+	 * This method will block until a confirmation or report of the transportation type of the
+	 * given attribute of the given object has been received, returning the transportation type.
+	 * If it doesn't come through before the timeout, a TimeoutException is thrown.
+	 */
+	public TransportationTypeHandle waitForAttributeTransport( int objectHandle,
+	                                                           int attributeHandle )
+	{
+		String key = objectHandle+":"+attributeHandle;
+		long finishTime = getTimeout();
+		while( attributeTransports.containsKey(key) == false )
+		{
+			if( finishTime < System.currentTimeMillis() )
+			{
+				throw new TimeoutException( "Timeout waiting for transportation type of attribute ["+
+				                            attributeHandle+"] of instance ["+objectHandle+"]" );
+			}
+			
+			waitForEvent();
+		}
+		
+		return this.attributeTransports.remove( key );
+	}
+
 	///////////////////////////////////////////////////////////////////////////////////////////
 	/////////////////////////////// Interaction Helper Methods ////////////////////////////////
 	///////////////////////////////////////////////////////////////////////////////////////////
@@ -1045,6 +1082,28 @@ public class TestFederateAmbassador extends NullFederateAmbassador
 		waitForTSOInteractionTimeout( iHandle );
 	}
 
+	/**
+	 * This method will block until a confirmation or report of the transportation type of the
+	 * given interaction class has been received, returning the transportation type. If it doesn't
+	 * come through before the timeout, a TimeoutException is thrown.
+	 */
+	public TransportationTypeHandle waitForInteractionTransport( int classHandle )
+	{
+		long finishTime = getTimeout();
+		while( interactionTransports.containsKey(classHandle) == false )
+		{
+			if( finishTime < System.currentTimeMillis() )
+			{
+				throw new TimeoutException( "Timeout waiting for transportation type of interaction "+
+				                            "class ["+classHandle+"]" );
+			}
+			
+			waitForEvent();
+		}
+		
+		return this.interactionTransports.remove( classHandle );
+	}
+
 	///////////////////////////////////////////////////////////////////////////////////////////
 	/////////////////////////////////// Time Helper Methods ///////////////////////////////////
 	///////////////////////////////////////////////////////////////////////////////////////////
@@ -1374,6 +1433,52 @@ public class TestFederateAmbassador extends NullFederateAmbassador
 		}
 	}
 
+	/////////////////////////////////////////////////////////////////////////
+	/////////////////////// Transportation Type Methods /////////////////////
+	/////////////////////////////////////////////////////////////////////////
+	@Override
+	public void confirmAttributeTransportationTypeChange( ObjectInstanceHandle theObject,
+	                                                      AttributeHandleSet theAttributes,
+	                                                      TransportationTypeHandle theTransport )
+	{
+		int objectHandle = TypeFactory.getObjectHandle( theObject );
+		for( AttributeHandle attHandle : theAttributes )
+		{
+			int attributeHandle = TypeFactory.getAttributeHandle( attHandle );
+			attributeTransports.put( objectHandle+":"+attributeHandle, theTransport );
+		}
+		
+		notifyEventListeners();
+	}
+
+	@Override
+	public void reportAttributeTransportationType( ObjectInstanceHandle theObject,
+	                                               AttributeHandle theAttribute,
+	                                               TransportationTypeHandle theTransport )
+	{
+		int objectHandle = TypeFactory.getObjectHandle( theObject );
+		int attributeHandle = TypeFactory.getAttributeHandle( theAttribute );
+		attributeTransports.put( objectHandle+":"+attributeHandle, theTransport );
+		notifyEventListeners();
+	}
+
+	@Override
+	public void confirmInteractionTransportationTypeChange( InteractionClassHandle theInteraction,
+	                                                        TransportationTypeHandle theTransport )
+	{
+		interactionTransports.put( TypeFactory.getInteractionHandle(theInteraction), theTransport );
+		notifyEventListeners();
+	}
+
+	@Override
+	public void reportInteractionTransportationType( FederateHandle theFederate,
+	                                                 InteractionClassHandle theInteraction,
+	                                                 TransportationTypeHandle theTransport )
+	{
+		interactionTransports.put( TypeFactory.getInteractionHandle(theInteraction), theTransport );
+		notifyEventListeners();
+	}
+
 	/////////////////////////////////////////////////////////////////////////
 	//////////////////////////// Reflect Methods ////////////////////////////
 	/////////////////////////////////////////////////////////////////////////
@@ -1441,6 +1546,39 @@ public class TestFederateAmbassador extends NullFederateAmbassador
 		                             time, receivedOrder, reflectInfo );
 	}
 
+	/**
+	 * Portico extension. Records that a batch arrived and then handles each reflection just as
+	 * if it had come through the regular callbacks.
+	 */
+	public void reflectAttributeValues( List<Reflection> reflections )
+	{
+		++reflectionBatches;
+		batchedReflections += reflections.size();
+		for( Reflection reflection : reflections )
+		{
+			if( reflection.isTimestamped() )
+			{
+				reflectAttributeValues( reflection.getObjectHandle(),
+				                        reflection.getAttributes(),
+				                        reflection.getTag(),
+				                        reflection.getSentOrder(),
+				                        reflection.getTransport(),
+				                        reflection.getTime(),
+				                        reflection.getReceivedOrder(),
+				                        reflection.getSupplementalInfo() );
+			}
+			else
+			{
+				reflectAttributeValues( reflection.getObjectHandle(),
+				                        reflection.getAttributes(),
+				                        reflection.getTag(),
+				                        reflection.getSentOrder(),
+				                        reflection.getTransport(),
+				                        reflection.getSupplementalInfo() );
+			}
+		}
+	}
+
 	/////////////////////////////////////////////////////////////////////////
 	////////////////////////// Interaction Methods //////////////////////////
 	/////////////////////////////////////////////////////////////////////////
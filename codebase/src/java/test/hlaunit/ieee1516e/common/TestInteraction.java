@@ -52,7 +52,8 @@ public class TestInteraction
 		// get the parameters //
 		try
 		{
-			this.parameters = HLA1516eParameterHandleValueMap.toJavaMap( given );
+			this.parameters =
+				new HashMap<Integer,byte[]>( HLA1516eParameterHandleValueMap.toJavaMap(given) );
 		}
 		catch( Exception e )
 		{
@@ -0,0 +1,334 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package hlaunit.ieee1516e.ddm;
+
+import static hlaunit.ieee1516e.common.TypeFactory.*;
+
+import java.net.URL;
+
+import hla.rti1516e.AttributeHandle;
+import hla.rti1516e.AttributeHandleValueMap;
+import hla.rti1516e.AttributeRegionAssociation;
+import hla.rti1516e.AttributeSetRegionSetPairList;
+import hla.rti1516e.DimensionHandle;
+import hla.rti1516e.DimensionHandleSet;
+import hla.rti1516e.InteractionClassHandle;
+import hla.rti1516e.ObjectClassHandle;
+import hla.rti1516e.ObjectInstanceHandle;
+import hla.rti1516e.RTIambassador;
+import hla.rti1516e.RangeBounds;
+import hla.rti1516e.RegionHandle;
+import hla.rti1516e.RegionHandleSet;
+import hla.rti1516e.exceptions.InvalidRangeBound;
+import hla.rti1516e.exceptions.InvalidRegionContext;
+import hla.rti1516e.exceptions.RegionDoesNotContainSpecifiedDimension;
+import hla.rti1516e.exceptions.RegionNotCreatedByThisFederate;
+import hlaunit.ieee1516e.common.Abstract1516eTest;
+import hlaunit.ieee1516e.common.TestFederate;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@Test(sequential=true, groups={"DataDistributionTest", "ddm"})
+public class DataDistributionTest extends Abstract1516eTest
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final String DRINK = "HLAobjectRoot.Food.Drink";
+	private static final String SERVED =
+		"HLAinteractionRoot.CustomerTransactions.FoodServed.MainCourseServed";
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private TestFederate secondFederate;
+	private TestFederate thirdFederate;
+
+	private ObjectClassHandle drinkHandle;
+	private AttributeHandle cupsHandle;
+	private DimensionHandle quantityHandle;
+	private DimensionHandle flavorHandle;
+	private DimensionHandle waiterHandle;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@BeforeClass(alwaysRun=true)
+	public void beforeClass()
+	{
+		super.beforeClass();
+		secondFederate = new TestFederate( "secondFederate", this );
+		thirdFederate = new TestFederate( "thirdFederate", this );
+	}
+
+	@BeforeMethod(alwaysRun=true)
+	public void beforeMethod() throws Exception
+	{
+		defaultFederate.quickCreateWithModules( new URL[]{
+			ClassLoader.getSystemResource( "fom/ieee1516e/HLAstandardMIM.xml" ),
+			ClassLoader.getSystemResource( "fom/ieee1516e/restaurant/RestaurantProcesses.xml" ),
+			ClassLoader.getSystemResource( "fom/ieee1516e/restaurant/RestaurantFood.xml" ),
+			ClassLoader.getSystemResource( "fom/ieee1516e/restaurant/RestaurantDrinks.xml" )
+		} );
+
+		defaultFederate.quickJoin();
+		secondFederate.quickJoin();
+		thirdFederate.quickJoin();
+
+		RTIambassador rtiamb = defaultFederate.rtiamb;
+		drinkHandle = rtiamb.getObjectClassHandle( DRINK );
+		cupsHandle = rtiamb.getAttributeHandle( drinkHandle, "NumberCups" );
+		quantityHandle = rtiamb.getDimensionHandle( "BarQuantity" );
+		flavorHandle = rtiamb.getDimensionHandle( "SodaFlavor" );
+		waiterHandle = rtiamb.getDimensionHandle( "WaiterId" );
+	}
+
+	@AfterMethod(alwaysRun=true)
+	public void afterMethod()
+	{
+		thirdFederate.quickResign();
+		secondFederate.quickResign();
+		defaultFederate.quickResign();
+		defaultFederate.quickDestroy();
+	}
+
+	@AfterClass(alwaysRun=true)
+	public void afterClass()
+	{
+		super.afterClass();
+	}
+
+	//////////////////////////////////////////////////////////////////////////////////////////
+	///////////////////////////////////// Helper Methods /////////////////////////////////////
+	//////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Create a region in the BarQuantity dimension for the given federate with the given bounds,
+	 * committing it before returning.
+	 */
+	private RegionHandle createRegion( TestFederate federate, long lower, long upper )
+		throws Exception
+	{
+		return createRegion( federate, quantityHandle, lower, upper );
+	}
+
+	private RegionHandle createRegion( TestFederate federate,
+	                                   DimensionHandle dimension,
+	                                   long lower,
+	                                   long upper )
+		throws Exception
+	{
+		RTIambassador rtiamb = federate.rtiamb;
+		DimensionHandleSet dimensions = rtiamb.getDimensionHandleSetFactory().create();
+		dimensions.add( dimension );
+		RegionHandle region = rtiamb.createRegion( dimensions );
+		rtiamb.setRangeBounds( region, dimension, new RangeBounds(lower,upper) );
+		rtiamb.commitRegionModifications( newRegionSet(federate,region) );
+		return region;
+	}
+
+	private RegionHandleSet newRegionSet( TestFederate federate, RegionHandle region )
+		throws Exception
+	{
+		RegionHandleSet set = federate.rtiamb.getRegionHandleSetFactory().create();
+		set.add( region );
+		return set;
+	}
+
+	/**
+	 * Pair the NumberCups attribute of Drink with the given region
+	 */
+	private AttributeSetRegionSetPairList newPairList( TestFederate federate, RegionHandle region )
+		throws Exception
+	{
+		RTIambassador rtiamb = federate.rtiamb;
+		AttributeSetRegionSetPairList list =
+			rtiamb.getAttributeSetRegionSetPairListFactory().create( 1 );
+		list.add( new AttributeRegionAssociation(newAttributeSet(getAttributeHandle(cupsHandle)),
+		                                         newRegionSet(federate,region)) );
+		return list;
+	}
+
+	//////////////////////////////////////////////////////////////////////////////////////////
+	////////////////////////////// Region Support Service Tests //////////////////////////////
+	//////////////////////////////////////////////////////////////////////////////////////////
+	@Test
+	public void testDimensionSupportServices() throws Exception
+	{
+		RTIambassador rtiamb = defaultFederate.rtiamb;
+		Assert.assertEquals( rtiamb.getDimensionName(quantityHandle), "BarQuantity" );
+		Assert.assertEquals( rtiamb.getDimensionUpperBound(quantityHandle), 25 );
+		Assert.assertEquals( rtiamb.getDimensionUpperBound(flavorHandle), 3 );
+
+		DimensionHandleSet available =
+			rtiamb.getAvailableDimensionsForClassAttribute( drinkHandle, cupsHandle );
+		Assert.assertEquals( available.size(), 1 );
+		Assert.assertTrue( available.contains(quantityHandle) );
+	}
+
+	@Test
+	public void testRangeBounds() throws Exception
+	{
+		RTIambassador rtiamb = defaultFederate.rtiamb;
+		DimensionHandleSet dimensions = rtiamb.getDimensionHandleSetFactory().create();
+		dimensions.add( quantityHandle );
+		RegionHandle region = rtiamb.createRegion( dimensions );
+
+		// new regions cover the whole dimension
+		Assert.assertEquals( rtiamb.getDimensionHandleSet(region), dimensions );
+		Assert.assertEquals( rtiamb.getRangeBounds(region,quantityHandle), new RangeBounds(0,25) );
+
+		rtiamb.setRangeBounds( region, quantityHandle, new RangeBounds(5,10) );
+		Assert.assertEquals( rtiamb.getRangeBounds(region,quantityHandle), new RangeBounds(5,10) );
+
+		// bounds past the end of the dimension or the wrong way around
+		try
+		{
+			rtiamb.setRangeBounds( region, quantityHandle, new RangeBounds(0,26) );
+			expectedException( InvalidRangeBound.class );
+		}
+		catch( InvalidRangeBound irb )
+		{
+			// success!
+		}
+
+		try
+		{
+			rtiamb.setRangeBounds( region, quantityHandle, new RangeBounds(10,5) );
+			expectedException( InvalidRangeBound.class );
+		}
+		catch( InvalidRangeBound irb )
+		{
+			// success!
+		}
+
+		// a dimension the region wasn't created with
+		try
+		{
+			rtiamb.getRangeBounds( region, flavorHandle );
+			expectedException( RegionDoesNotContainSpecifiedDimension.class );
+		}
+		catch( RegionDoesNotContainSpecifiedDimension rdncsd )
+		{
+			// success!
+		}
+	}
+
+	@Test
+	public void testRegionNotCreatedByThisFederate() throws Exception
+	{
+		RegionHandle region = createRegion( defaultFederate, 0, 10 );
+		try
+		{
+			secondFederate.rtiamb.commitRegionModifications( newRegionSet(secondFederate,region) );
+			expectedException( RegionNotCreatedByThisFederate.class );
+		}
+		catch( RegionNotCreatedByThisFederate rncbtf )
+		{
+			// success!
+		}
+	}
+
+	@Test
+	public void testSubscribeWithRegionInInvalidContext() throws Exception
+	{
+		// NumberCups doesn't have the SodaFlavor dimension available to it
+		RTIambassador rtiamb = secondFederate.rtiamb;
+		DimensionHandleSet dimensions = rtiamb.getDimensionHandleSetFactory().create();
+		dimensions.add( flavorHandle );
+		RegionHandle region = rtiamb.createRegion( dimensions );
+		try
+		{
+			rtiamb.subscribeObjectClassAttributesWithRegions( drinkHandle,
+			                                                  newPairList(secondFederate,region) );
+			expectedException( InvalidRegionContext.class );
+		}
+		catch( InvalidRegionContext irc )
+		{
+			// success!
+		}
+	}
+
+	//////////////////////////////////////////////////////////////////////////////////////////
+	///////////////////////////////// Region Filtering Tests /////////////////////////////////
+	//////////////////////////////////////////////////////////////////////////////////////////
+	@Test
+	public void testUpdatesOnlyReachOverlappingRegions() throws Exception
+	{
+		// register a drink with an update region covering [0,10)
+		RegionHandle updateRegion = createRegion( defaultFederate, 0, 10 );
+		defaultFederate.quickPublish( DRINK, "NumberCups" );
+		ObjectInstanceHandle object = defaultFederate.rtiamb.registerObjectInstanceWithRegions(
+			drinkHandle, newPairList(defaultFederate,updateRegion) );
+		int objectHandle = getObjectHandle( object );
+
+		// one federate subscribes with a region that overlaps, the other with one that doesn't
+		RegionHandle overlapping = createRegion( secondFederate, 5, 15 );
+		secondFederate.rtiamb.subscribeObjectClassAttributesWithRegions(
+			drinkHandle, newPairList(secondFederate,overlapping) );
+		RegionHandle elsewhere = createRegion( thirdFederate, 20, 25 );
+		thirdFederate.rtiamb.subscribeObjectClassAttributesWithRegions(
+			drinkHandle, newPairList(thirdFederate,elsewhere) );
+
+		AttributeHandleValueMap values = newAttributeMap();
+		values.put( cupsHandle, "3".getBytes() );
+		defaultFederate.rtiamb.updateAttributeValues( object, values, null );
+
+		secondFederate.fedamb.waitForROUpdate( objectHandle );
+		thirdFederate.fedamb.waitForROUpdateTimeout( objectHandle );
+
+		// move the third federate's region over the update region, it should now get updates
+		thirdFederate.rtiamb.setRangeBounds( elsewhere, quantityHandle, new RangeBounds(0,25) );
+		thirdFederate.rtiamb.commitRegionModifications( newRegionSet(thirdFederate,elsewhere) );
+		defaultFederate.rtiamb.updateAttributeValues( object, values, null );
+		thirdFederate.fedamb.waitForROUpdate( objectHandle );
+	}
+
+	@Test
+	public void testInteractionsOnlyReachOverlappingRegions() throws Exception
+	{
+		InteractionClassHandle servedHandle =
+			defaultFederate.rtiamb.getInteractionClassHandle( SERVED );
+		defaultFederate.quickPublish( SERVED );
+
+		RegionHandle overlapping = createRegion( secondFederate, waiterHandle, 0, 5 );
+		secondFederate.rtiamb.subscribeInteractionClassWithRegions(
+			servedHandle, newRegionSet(secondFederate,overlapping) );
+		RegionHandle elsewhere = createRegion( thirdFederate, waiterHandle, 10, 20 );
+		thirdFederate.rtiamb.subscribeInteractionClassWithRegions(
+			servedHandle, newRegionSet(thirdFederate,elsewhere) );
+
+		RegionHandle sendRegion = createRegion( defaultFederate, waiterHandle, 2, 3 );
+		defaultFederate.rtiamb.sendInteractionWithRegions( servedHandle,
+		                                                   newParameterMap(),
+		                                                   newRegionSet(defaultFederate,sendRegion),
+		                                                   null );
+
+		secondFederate.fedamb.waitForROInteraction( SERVED );
+		thirdFederate.fedamb.waitForROInteractionTimeout( SERVED );
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
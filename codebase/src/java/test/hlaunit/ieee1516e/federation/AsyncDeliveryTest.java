@@ -0,0 +1,177 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package hlaunit.ieee1516e.federation;
+
+import hlaunit.ieee1516e.common.Abstract1516eTest;
+import hlaunit.ieee1516e.common.TestFederate;
+import hlaunit.ieee1516e.common.TestObject;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.portico.bindings.jvm.JVMConnection;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Runs a federation over the JVM binding with each federate getting its messages on a delivery
+ * thread of its own, and checks that federates coming and going while others are sending doesn't
+ * break the senders or stop messages getting through to the federates that stay.
+ */
+@Test(sequential=true, groups={"AsyncDeliveryTest", "federationManagement"})
+public class AsyncDeliveryTest extends Abstract1516eTest
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final int CHURN_ROUNDS = 100;
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private String previousSetting;
+	private TestFederate secondFederate;
+	private TestFederate churnFederate;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@Override
+	@BeforeClass(alwaysRun=true)
+	public void beforeClass()
+	{
+		// the broadcaster picks this up when the federation is created
+		this.previousSetting = System.setProperty( JVMConnection.PROP_JVM_ASYNC_DELIVERY, "true" );
+
+		super.beforeClass();
+		this.secondFederate = new TestFederate( "secondFederate", this );
+		this.churnFederate = new TestFederate( "churnFederate", this );
+	}
+
+	@BeforeMethod(alwaysRun=true)
+	public void beforeMethod()
+	{
+		defaultFederate.quickCreate();
+		defaultFederate.quickJoin();
+		secondFederate.quickJoin();
+		defaultFederate.quickPublish( "ObjectRoot.A", "aa" );
+		secondFederate.quickSubscribe( "ObjectRoot.A", "aa" );
+	}
+
+	@AfterMethod(alwaysRun=true)
+	public void afterMethod()
+	{
+		churnFederate.quickResignTolerant();
+		secondFederate.quickResign();
+		defaultFederate.quickResign();
+		defaultFederate.quickDestroy();
+	}
+
+	@Override
+	@AfterClass(alwaysRun=true)
+	public void afterClass()
+	{
+		super.afterClass();
+		if( previousSetting == null )
+			System.clearProperty( JVMConnection.PROP_JVM_ASYNC_DELIVERY );
+		else
+			System.setProperty( JVMConnection.PROP_JVM_ASYNC_DELIVERY, previousSetting );
+	}
+
+	//////////////////////////////////////////////////////////////////////////////////////////
+	////////////////////////////////////// Test Methods //////////////////////////////////////
+	//////////////////////////////////////////////////////////////////////////////////////////
+
+	//////////////////////////////////////////////
+	// TEST: testDeliveryWhileFederatesResign() //
+	//////////////////////////////////////////////
+	/**
+	 * One federate keeps updating an object while another keeps joining, subscribing to it and
+	 * resigning. None of the updates should fail because the federate left part way through one,
+	 * and the federate that stays should still get the last of them.
+	 */
+	@Test
+	public void testDeliveryWhileFederatesResign() throws Exception
+	{
+		final int objectHandle = defaultFederate.quickRegister( "ObjectRoot.A" );
+		secondFederate.fedamb.waitForDiscovery( objectHandle );
+
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		Thread churner = new Thread( () -> {
+			try
+			{
+				for( int round = 0; round < CHURN_ROUNDS; round++ )
+				{
+					churnFederate.quickJoin();
+					churnFederate.quickSubscribe( "ObjectRoot.A", "aa" );
+					churnFederate.quickResign();
+				}
+			}
+			catch( Throwable throwable )
+			{
+				failure.set( throwable );
+			}
+		}, "churner" );
+		churner.start();
+
+		// keep sending for as long as the federate is coming and going
+		int sent = 0;
+		while( churner.isAlive() )
+			reflect( objectHandle, ++sent );
+
+		churner.join();
+		if( failure.get() != null )
+			Assert.fail( "Churning federate failed: "+failure.get().getMessage(), failure.get() );
+
+		// the federate that stayed should get the last update
+		reflect( objectHandle, ++sent );
+		String expected = "aa"+sent;
+		long finishTime = System.currentTimeMillis() + 5000;
+		while( expected.equals(valueOf(objectHandle)) == false &&
+		       System.currentTimeMillis() < finishTime )
+		{
+			secondFederate.quickTick();
+		}
+
+		Assert.assertEquals( valueOf(objectHandle), expected );
+	}
+
+	private void reflect( int objectHandle, int count )
+	{
+		Map<String,byte[]> values = new HashMap<String,byte[]>();
+		values.put( "aa", ("aa"+count).getBytes() );
+		defaultFederate.quickReflect( objectHandle, values, "tag".getBytes() );
+	}
+
+	private String valueOf( int objectHandle )
+	{
+		TestObject instance = secondFederate.fedamb.getInstances().get( objectHandle );
+		byte[] value = instance.getAttributeValue( secondFederate.quickACHandle("ObjectRoot.A","aa") );
+		return value == null ? null : new String( value );
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -21,7 +21,9 @@ import hla.rti1516e.exceptions.FederationExecutionDoesNotExist;
 import hla.rti1516e.exceptions.RTIinternalError;
 import hlaunit.ieee1516e.common.Abstract1516eTest;
 import hlaunit.ieee1516e.common.TestFederate;
+import hlaunit.ieee1516e.common.TestObject;
 
+import org.portico.lrc.LRCProperties;
 import org.testng.Assert;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.AfterMethod;
@@ -420,6 +422,45 @@ public class JoinFederationTest extends Abstract1516eTest
 		secondFederate.quickOCHandle( "HLAobjectRoot.Food.SideDish.Corn" );
 	}
 	
+	////////////////////////////////////////////////////////////////////////////////////////////
+	// Late Joiner State ///////////////////////////////////////////////////////////////////////
+	////////////////////////////////////////////////////////////////////////////////////////////
+
+	/////////////////////////////////////////////////////////
+	// TEST: testJoinFederationDiscoversExistingObjects() //
+	/////////////////////////////////////////////////////////
+	@Test
+	public void testJoinFederationDiscoversExistingObjects()
+	{
+		// register more objects than fit in a single chunk of state for the joiner
+		int chunkSize = LRCProperties.LRC_ROLECALL_CHUNK_SIZE;
+		LRCProperties.LRC_ROLECALL_CHUNK_SIZE = 2;
+		try
+		{
+			defaultFederate.quickJoin();
+			defaultFederate.quickPublish( "ObjectRoot.A", "aa", "ab" );
+			int[] objects = new int[5];
+			for( int i = 0; i < objects.length; i++ )
+				objects[i] = defaultFederate.quickRegister( "ObjectRoot.A", "existing"+i );
+
+			// join late and subscribe, we should find out about all of them
+			secondFederate.quickJoin();
+			secondFederate.quickSubscribe( "ObjectRoot.A", "aa", "ab", "ac" );
+			for( int i = 0; i < objects.length; i++ )
+			{
+				secondFederate.fedamb.waitForDiscovery( objects[i] );
+				TestObject discovered = secondFederate.fedamb.getInstances().get( objects[i] );
+				Assert.assertEquals( discovered.getName(), "existing"+i );
+			}
+		}
+		finally
+		{
+			LRCProperties.LRC_ROLECALL_CHUNK_SIZE = chunkSize;
+			// clean up for the next test, removing the objects so we can resign //
+			defaultFederate.quickResign();
+		}
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
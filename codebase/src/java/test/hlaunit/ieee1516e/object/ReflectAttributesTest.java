@@ -28,6 +28,7 @@ import hlaunit.ieee1516e.common.TestFederate;
 import hlaunit.ieee1516e.common.TestObject;
 import hlaunit.ieee1516e.common.TypeFactory;
 
+import org.portico.impl.hla1516e.Rti1516eAmbassadorEx;
 import org.testng.Assert;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.AfterMethod;
@@ -444,6 +445,54 @@ public class ReflectAttributesTest extends Abstract1516eTest
 	{
 		log( "Requires Onwership. Not Yet Implemented." );
 	}
+
+	//////////////////////////////////////////////////
+	// TEST: (valid) testROUpdateDeliveredInBatch() //
+	//////////////////////////////////////////////////
+	/**
+	 * With a callback batch size set, reflections that are all waiting when the federate ticks
+	 * should turn up together through the Portico batch callback rather than one at a time.
+	 */
+	@Test
+	public void testROUpdateDeliveredInBatch()
+	{
+		// do any necessary setup
+		int oHandle = defaultFederate.quickRegister( "ObjectRoot.A.B" );
+		secondFederate.fedamb.waitForDiscovery( oHandle );
+		Rti1516eAmbassadorEx secondAmbassador = (Rti1516eAmbassadorEx)secondFederate.rtiamb;
+		secondAmbassador.setCallbackBatchSize( 100 );
+
+		try
+		{
+			// send a bunch of updates before the second federate gets to tick
+			ObjectInstanceHandle handle = getObjectHandle( oHandle );
+			for( int i = 0; i < 10; i++ )
+				defaultFederate.rtiamb.updateAttributeValues( handle, updateSet, tag );
+	
+			// tick until they have all come through
+			long finishTime = System.currentTimeMillis() + 5000;
+			while( secondFederate.fedamb.batchedReflections < 10 &&
+			       System.currentTimeMillis() < finishTime )
+			{
+				secondFederate.quickTick();
+			}
+
+			// make sure they came through in batches, and not one reflection to each
+			Assert.assertEquals( secondFederate.fedamb.batchedReflections, 10,
+			                     "Reflections were not delivered in a batch" );
+			Assert.assertTrue( secondFederate.fedamb.reflectionBatches < 10,
+			                   "Each reflection was delivered in a batch of its own" );
+			checkSecondFederateAttributes( secondFederate.fedamb.getInstances().get(oHandle) );
+		}
+		catch( Exception e )
+		{
+			Assert.fail( "Exception during valid RO attribute update: " + e.getMessage(), e );
+		}
+		finally
+		{
+			secondAmbassador.setCallbackBatchSize( 1 );
+		}
+	}
 	
 	//////////////////////////////////////////////////////////////////////////////////////////
 	////////////////////////////// Timestamp Order Test Methods //////////////////////////////
@@ -0,0 +1,256 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package hlaunit.ieee1516e.object;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import hlaunit.ieee1516e.common.Abstract1516eTest;
+import hlaunit.ieee1516e.common.TestFederate;
+
+import org.portico.impl.hla1516e.Rti1516eAmbassadorEx;
+import org.portico.lrc.LRC;
+import org.portico.lrc.metrics.MessageTypeMetrics;
+import org.portico.lrc.services.object.data.InterestManager;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Updates and interactions are only sent to the federates that subscribe to them (see
+ * {@link InterestManager#getSubscribersOfAttributes(int, Set)}). These tests count what each
+ * federate's connection actually hands it (rather than the callbacks, which the receiving LRC
+ * would filter anyway) to make sure the others are left out, and that the sender keeps up as
+ * federates subscribe and unsubscribe.
+ */
+@Test(sequential=true, groups={"SubscriberRoutingTest", "reflectAttributes", "objectManagement"})
+public class SubscriberRoutingTest extends Abstract1516eTest
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private TestFederate secondFederate;
+	private TestFederate thirdFederate;
+
+	private int aHandle, aaHandle, abHandle;
+	private int xHandle;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@BeforeClass(alwaysRun=true)
+	public void beforeClass()
+	{
+		super.beforeClass();
+		secondFederate = new TestFederate( "secondFederate", this );
+		thirdFederate = new TestFederate( "thirdFederate", this );
+	}
+
+	@BeforeMethod(alwaysRun=true)
+	public void beforeMethod()
+	{
+		defaultFederate.quickCreate();
+		defaultFederate.quickJoin();
+		secondFederate.quickJoin();
+		thirdFederate.quickJoin();
+
+		aHandle  = defaultFederate.quickOCHandle( "ObjectRoot.A" );
+		aaHandle = defaultFederate.quickACHandle( "ObjectRoot.A", "aa" );
+		abHandle = defaultFederate.quickACHandle( "ObjectRoot.A", "ab" );
+		xHandle  = defaultFederate.quickICHandle( "InteractionRoot.X" );
+
+		// the default federate sends, the second federate listens, the third doesn't (yet)
+		defaultFederate.quickPublish( "ObjectRoot.A", "aa", "ab" );
+		defaultFederate.quickPublish( "InteractionRoot.X" );
+		secondFederate.quickSubscribe( "ObjectRoot.A", "aa", "ab" );
+		secondFederate.quickSubscribe( "InteractionRoot.X" );
+	}
+
+	@AfterMethod(alwaysRun=true)
+	public void afterMethod()
+	{
+		thirdFederate.quickResign();
+		secondFederate.quickResign();
+		defaultFederate.quickResign();
+		defaultFederate.quickDestroy();
+	}
+
+	@AfterClass(alwaysRun=true)
+	public void afterClass()
+	{
+		super.afterClass();
+	}
+
+	//////////////////////////////////////////////////////////////////////////////////////////
+	///////////////////////////////////// Helper Methods /////////////////////////////////////
+	//////////////////////////////////////////////////////////////////////////////////////////
+	private LRC lrc( TestFederate federate )
+	{
+		return ((Rti1516eAmbassadorEx)federate.rtiamb).getHelper().getLrc();
+	}
+
+	/**
+	 * @return The number of messages of the given type the connection of the federate has
+	 *         handed to it from other federates
+	 */
+	private long received( TestFederate federate, String messageType )
+	{
+		MessageTypeMetrics metrics = lrc(federate).getMetrics().getMessageTypes().get(messageType);
+		return metrics == null ? 0 : metrics.getReceived();
+	}
+
+	/**
+	 * @return The federates the default federate would send an update of aa and ab to
+	 */
+	private Set<Integer> attributeTargets()
+	{
+		Set<Integer> attributes = new HashSet<Integer>();
+		attributes.add( aaHandle );
+		attributes.add( abHandle );
+		InterestManager interests = lrc(defaultFederate).getState().getInterestManager();
+		return interests.getSubscribersOfAttributes( aHandle, attributes );
+	}
+
+	/**
+	 * @return The federates the default federate would send an X interaction to
+	 */
+	private Set<Integer> interactionTargets()
+	{
+		InterestManager interests = lrc(defaultFederate).getState().getInterestManager();
+		return interests.getSubscribersOfInteraction( xHandle );
+	}
+
+	/**
+	 * Reflect aa and ab for the given object and send an X interaction from the default
+	 * federate, then wait for the second federate to get both. Anything also sent to the third
+	 * federate would have been sent at the same time, so it will have arrived by then too.
+	 */
+	private void sendAndWaitForSecond( int objectHandle )
+	{
+		defaultFederate.quickReflect( objectHandle, "aa", "ab" );
+		defaultFederate.quickSend( "InteractionRoot.X" );
+		secondFederate.fedamb.waitForROUpdate( objectHandle );
+		secondFederate.fedamb.waitForROInteraction( xHandle );
+		thirdFederate.quickTick();
+	}
+
+	////////////////////////////////////////////////////////////////////////////////////////
+	///////////////////////////////// Routing Test Methods /////////////////////////////////
+	////////////////////////////////////////////////////////////////////////////////////////
+	////////////////////////////////////////////////
+	// TEST: testNonSubscriberIsNotSentAnything() //
+	////////////////////////////////////////////////
+	@Test
+	public void testNonSubscriberIsNotSentAnything()
+	{
+		int objectHandle = defaultFederate.quickRegister( "ObjectRoot.A" );
+		secondFederate.fedamb.waitForDiscovery( objectHandle );
+
+		// the sender only knows about the second federate
+		Assert.assertTrue( attributeTargets().contains(secondFederate.federateHandle) );
+		Assert.assertFalse( attributeTargets().contains(thirdFederate.federateHandle) );
+		Assert.assertFalse( interactionTargets().contains(thirdFederate.federateHandle) );
+
+		long secondUpdates = received( secondFederate, "UpdateAttributes" );
+		long thirdUpdates = received( thirdFederate, "UpdateAttributes" );
+		long thirdInteractions = received( thirdFederate, "SendInteraction" );
+		sendAndWaitForSecond( objectHandle );
+
+		Assert.assertEquals( received(secondFederate,"UpdateAttributes"), secondUpdates+1 );
+		Assert.assertEquals( received(thirdFederate,"UpdateAttributes"), thirdUpdates,
+		                     "Federate that doesn't subscribe was sent an update" );
+		Assert.assertEquals( received(thirdFederate,"SendInteraction"), thirdInteractions,
+		                     "Federate that doesn't subscribe was sent an interaction" );
+	}
+
+	////////////////////////////////////////////////////
+	// TEST: testLateSubscriberStartsGettingUpdates() //
+	////////////////////////////////////////////////////
+	@Test
+	public void testLateSubscriberStartsGettingUpdates()
+	{
+		// register before the third federate has any interest
+		int objectHandle = defaultFederate.quickRegister( "ObjectRoot.A" );
+		secondFederate.fedamb.waitForDiscovery( objectHandle );
+		sendAndWaitForSecond( objectHandle );
+
+		// subscribe, the sender should know straight away
+		thirdFederate.quickSubscribe( "ObjectRoot.A", "aa", "ab" );
+		thirdFederate.quickSubscribe( "InteractionRoot.X" );
+		thirdFederate.fedamb.waitForDiscovery( objectHandle );
+		Assert.assertTrue( attributeTargets().contains(thirdFederate.federateHandle) );
+		Assert.assertTrue( interactionTargets().contains(thirdFederate.federateHandle) );
+
+		defaultFederate.quickReflect( objectHandle, "aa", "ab" );
+		defaultFederate.quickSend( "InteractionRoot.X" );
+		thirdFederate.fedamb.waitForROUpdate( objectHandle );
+		thirdFederate.fedamb.waitForROInteraction( xHandle );
+	}
+
+	//////////////////////////////////////////
+	// TEST: testUnsubscribeStopsDelivery() //
+	//////////////////////////////////////////
+	@Test
+	public void testUnsubscribeStopsDelivery() throws Exception
+	{
+		thirdFederate.quickSubscribe( "ObjectRoot.A", "aa", "ab" );
+		thirdFederate.quickSubscribe( "InteractionRoot.X" );
+		int objectHandle = defaultFederate.quickRegister( "ObjectRoot.A" );
+		secondFederate.fedamb.waitForDiscovery( objectHandle );
+		thirdFederate.fedamb.waitForDiscovery( objectHandle );
+
+		// unsubscribing isn't acknowledged, so wait for the sender to hear about it
+		thirdFederate.quickUnsubscribe( "ObjectRoot.A" );
+		thirdFederate.rtiamb.unsubscribeInteractionClass(
+			thirdFederate.rtiamb.getInteractionClassHandle("InteractionRoot.X") );
+		long deadline = System.currentTimeMillis() + 5000;
+		while( (attributeTargets().contains(thirdFederate.federateHandle) ||
+		        interactionTargets().contains(thirdFederate.federateHandle)) &&
+		       System.currentTimeMillis() < deadline )
+		{
+			defaultFederate.quickTick();
+		}
+
+		Assert.assertFalse( attributeTargets().contains(thirdFederate.federateHandle),
+		                    "Sender still has the attribute subscription after unsubscribe" );
+		Assert.assertFalse( interactionTargets().contains(thirdFederate.federateHandle),
+		                    "Sender still has the interaction subscription after unsubscribe" );
+
+		long thirdUpdates = received( thirdFederate, "UpdateAttributes" );
+		long thirdInteractions = received( thirdFederate, "SendInteraction" );
+		sendAndWaitForSecond( objectHandle );
+
+		Assert.assertEquals( received(thirdFederate,"UpdateAttributes"), thirdUpdates,
+		                     "Federate that unsubscribed was still sent an update" );
+		Assert.assertEquals( received(thirdFederate,"SendInteraction"), thirdInteractions,
+		                     "Federate that unsubscribed was still sent an interaction" );
+		thirdFederate.fedamb.waitForROUpdateTimeout( objectHandle );
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -0,0 +1,262 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package hlaunit.ieee1516e.object;
+
+import static hlaunit.ieee1516e.common.TypeFactory.*;
+
+import hla.rti1516e.TransportationTypeHandle;
+import hla.rti1516e.exceptions.AttributeNotOwned;
+import hla.rti1516e.exceptions.InteractionClassNotPublished;
+import hla.rti1516e.exceptions.InvalidTransportationName;
+import hlaunit.ieee1516e.common.Abstract1516eTest;
+import hlaunit.ieee1516e.common.TestFederate;
+
+import org.portico.impl.hla1516e.types.HLA1516eHandle;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@Test(sequential=true, groups={"TransportationTypeTest", "transportationType", "objectManagement"})
+public class TransportationTypeTest extends Abstract1516eTest
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private int aHandle, aaHandle, abHandle;
+	private int xHandle;
+
+	private TestFederate secondFederate;
+
+	private TransportationTypeHandle reliable;
+	private TransportationTypeHandle bestEffort;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@Override
+	@BeforeClass(alwaysRun=true)
+	public void beforeClass()
+	{
+		super.beforeClass();
+
+		this.secondFederate = new TestFederate( "secondFederate", this );
+	}
+
+	@BeforeMethod(alwaysRun=true)
+	public void beforeMethod()
+	{
+		defaultFederate.quickCreate();
+		defaultFederate.quickJoin();
+		this.secondFederate.quickJoin();
+
+		// get the FOM handles //
+		aHandle  = defaultFederate.quickOCHandle( "ObjectRoot.A" );
+		aaHandle = defaultFederate.quickACHandle( "ObjectRoot.A", "aa" );
+		abHandle = defaultFederate.quickACHandle( "ObjectRoot.A", "ab" );
+		xHandle  = defaultFederate.quickICHandle( "InteractionRoot.X" );
+
+		try
+		{
+			reliable = defaultFederate.rtiamb.getTransportationTypeHandle( "HLAreliable" );
+			bestEffort = defaultFederate.rtiamb.getTransportationTypeHandle( "HLAbestEffort" );
+		}
+		catch( Exception e )
+		{
+			Assert.fail( "Exception fetching transportation type handles", e );
+		}
+	}
+
+	@AfterMethod(alwaysRun=true)
+	public void afterMethod()
+	{
+		defaultFederate.quickResign();
+		secondFederate.quickResign();
+		defaultFederate.quickDestroy();
+	}
+
+	@Override
+	@AfterClass(alwaysRun=true)
+	public void afterClass()
+	{
+		super.afterClass();
+	}
+
+	//////////////////////////////////////////////////////////////////////////////////////////
+	///////////////////////////// Transportation Type Test Methods ///////////////////////////
+	//////////////////////////////////////////////////////////////////////////////////////////
+	/////////////////////////////////////////////////
+	// TEST: testGetTransportationTypeHandleName() //
+	/////////////////////////////////////////////////
+	@Test
+	public void testGetTransportationTypeHandleName() throws Exception
+	{
+		Assert.assertFalse( reliable.equals(bestEffort) );
+		Assert.assertEquals( defaultFederate.rtiamb.getTransportationTypeName(reliable),
+		                     "HLAreliable" );
+		Assert.assertEquals( defaultFederate.rtiamb.getTransportationTypeName(bestEffort),
+		                     "HLAbestEffort" );
+
+		try
+		{
+			defaultFederate.rtiamb.getTransportationTypeHandle( "HLAsomethingElse" );
+			expectedException( InvalidTransportationName.class );
+		}
+		catch( InvalidTransportationName itn )
+		{
+			// success!
+		}
+		catch( Exception e )
+		{
+			wrongException( e, InvalidTransportationName.class );
+		}
+	}
+
+	//////////////////////////////////////////////////////////
+	// TEST: testRequestAttributeTransportationTypeChange() //
+	//////////////////////////////////////////////////////////
+	@Test
+	public void testRequestAttributeTransportationTypeChange() throws Exception
+	{
+		defaultFederate.quickPublish( aHandle, aaHandle, abHandle );
+		secondFederate.quickSubscribe( aHandle, aaHandle, abHandle );
+		int oHandle = defaultFederate.quickRegister( aHandle );
+		secondFederate.fedamb.waitForDiscovery( oHandle );
+
+		// change the transport and make sure we get the confirmation
+		defaultFederate.rtiamb.requestAttributeTransportationTypeChange( getObjectHandle(oHandle),
+		                                                                 newAttributeSet(aaHandle),
+		                                                                 bestEffort );
+		TransportationTypeHandle confirmed =
+			defaultFederate.fedamb.waitForAttributeTransport( oHandle, aaHandle );
+		Assert.assertEquals( confirmed, bestEffort );
+
+		// updates should still get through
+		defaultFederate.quickReflect( oHandle, aaHandle, abHandle );
+		secondFederate.fedamb.waitForROUpdate( oHandle );
+
+		// the other federate should now see the change when it asks
+		secondFederate.rtiamb.queryAttributeTransportationType( getObjectHandle(oHandle),
+		                                                        getAttributeHandle(aaHandle) );
+		Assert.assertEquals( secondFederate.fedamb.waitForAttributeTransport(oHandle,aaHandle),
+		                     bestEffort );
+
+		secondFederate.rtiamb.queryAttributeTransportationType( getObjectHandle(oHandle),
+		                                                        getAttributeHandle(abHandle) );
+		Assert.assertEquals( secondFederate.fedamb.waitForAttributeTransport(oHandle,abHandle),
+		                     reliable );
+	}
+
+	//////////////////////////////////////////////////////////////////////
+	// TEST: testRequestAttributeTransportationTypeChangeWhenNotOwned() //
+	//////////////////////////////////////////////////////////////////////
+	@Test
+	public void testRequestAttributeTransportationTypeChangeWhenNotOwned() throws Exception
+	{
+		defaultFederate.quickPublish( aHandle, aaHandle, abHandle );
+		secondFederate.quickSubscribe( aHandle, aaHandle, abHandle );
+		int oHandle = defaultFederate.quickRegister( aHandle );
+		secondFederate.fedamb.waitForDiscovery( oHandle );
+
+		try
+		{
+			secondFederate.rtiamb.requestAttributeTransportationTypeChange(
+			    getObjectHandle(oHandle),
+			    newAttributeSet(aaHandle),
+			    bestEffort );
+			expectedException( AttributeNotOwned.class );
+		}
+		catch( AttributeNotOwned ano )
+		{
+			// success!
+		}
+		catch( Exception e )
+		{
+			wrongException( e, AttributeNotOwned.class );
+		}
+	}
+
+	////////////////////////////////////////////////////////////
+	// TEST: testRequestInteractionTransportationTypeChange() //
+	////////////////////////////////////////////////////////////
+	@Test
+	public void testRequestInteractionTransportationTypeChange() throws Exception
+	{
+		defaultFederate.quickPublish( "InteractionRoot.X" );
+		secondFederate.quickSubscribe( "InteractionRoot.X" );
+
+		// change the transport and make sure we get the confirmation
+		defaultFederate.rtiamb.requestInteractionTransportationTypeChange(
+		    getInteractionHandle(xHandle),
+		    bestEffort );
+		Assert.assertEquals( defaultFederate.fedamb.waitForInteractionTransport(xHandle),
+		                     bestEffort );
+
+		// interactions should still get through
+		defaultFederate.quickSend( "InteractionRoot.X" );
+		secondFederate.fedamb.waitForROInteraction( xHandle );
+
+		// the other federate should now see the change when it asks
+		secondFederate.rtiamb.queryInteractionTransportationType(
+		    new HLA1516eHandle(defaultFederate.federateHandle),
+		    getInteractionHandle(xHandle) );
+		Assert.assertEquals( secondFederate.fedamb.waitForInteractionTransport(xHandle),
+		                     bestEffort );
+
+		// but it only applies to interactions sent by the federate that asked for the change
+		secondFederate.rtiamb.queryInteractionTransportationType(
+		    new HLA1516eHandle(secondFederate.federateHandle),
+		    getInteractionHandle(xHandle) );
+		Assert.assertEquals( secondFederate.fedamb.waitForInteractionTransport(xHandle),
+		                     reliable );
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// TEST: testRequestInteractionTransportationTypeChangeWhenNotPublished() //
+	////////////////////////////////////////////////////////////////////////////
+	@Test
+	public void testRequestInteractionTransportationTypeChangeWhenNotPublished()
+	{
+		try
+		{
+			defaultFederate.rtiamb.requestInteractionTransportationTypeChange(
+			    getInteractionHandle(xHandle),
+			    bestEffort );
+			expectedException( InteractionClassNotPublished.class );
+		}
+		catch( InteractionClassNotPublished icnp )
+		{
+			// success!
+		}
+		catch( Exception e )
+		{
+			wrongException( e, InteractionClassNotPublished.class );
+		}
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -17,6 +17,14 @@ package hlaunit.ieee1516e.support;
 import hlaunit.ieee1516e.common.Abstract1516eTest;
 import hlaunit.ieee1516e.common.TestFederate;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.portico.impl.hla1516e.Rti1516eAmbassadorEx;
+import org.portico.lrc.LRC;
+import org.testng.Assert;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeClass;
@@ -110,6 +118,59 @@ public class CallbacksTest extends Abstract1516eTest
 		secondFederate.fedamb.waitForROUpdate( objectHandle );
 	}
 
+	/////////////////////////////////////////////////////////////////
+	// TEST: testEnableDisableCallbacksWithImmediateOnExecutor() //
+	/////////////////////////////////////////////////////////////////
+	/**
+	 * Same as above, but with the second federate getting its callbacks immediately, delivered on
+	 * an executor of our own. Updates that arrive while callbacks are disabled should be delivered
+	 * as soon as they are enabled again, without anyone ticking.
+	 */
+	@Test
+	public void testEnableDisableCallbacksWithImmediateOnExecutor() throws Exception
+	{
+		// have the second federate's callbacks delivered on an executor that counts its tasks
+		final AtomicInteger tasks = new AtomicInteger( 0 );
+		final ExecutorService service = Executors.newSingleThreadExecutor();
+		Executor executor = new Executor()
+		{
+			public void execute( Runnable command )
+			{
+				tasks.incrementAndGet();
+				service.execute( command );
+			}
+		};
+
+		Rti1516eAmbassadorEx rtiamb = (Rti1516eAmbassadorEx)secondFederate.rtiamb;
+		LRC lrc = rtiamb.getHelper().getLrc();
+		rtiamb.setCallbackExecutor( executor );
+		lrc.enableImmediateCallbackProcessing();
+		try
+		{
+			// set up the publication and subscription interests
+			defaultFederate.quickPublish( "ObjectRoot.A", "aa" );
+			secondFederate.quickSubscribe( "ObjectRoot.A", "aa" );
+			int objectHandle = defaultFederate.quickRegister( "ObjectRoot.A" );
+			secondFederate.fedamb.waitForDiscovery( objectHandle );
+			Assert.assertTrue( tasks.get() > 0, "Callbacks were not delivered on the executor" );
+
+			// disable callbacks and ensure updates don't get through
+			secondFederate.rtiamb.disableCallbacks();
+			defaultFederate.quickReflect( objectHandle, "aa" );
+			secondFederate.fedamb.waitForROUpdateTimeout( objectHandle );
+
+			// re-enable callbacks, the update we held back should come through on its own
+			secondFederate.rtiamb.enableCallbacks();
+			secondFederate.fedamb.waitForROUpdate( objectHandle );
+		}
+		finally
+		{
+			lrc.disableImmediateCallbackProcessing();
+			rtiamb.setCallbackExecutor( null );
+			service.shutdown();
+		}
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
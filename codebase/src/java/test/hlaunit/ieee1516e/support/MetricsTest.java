@@ -0,0 +1,125 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package hlaunit.ieee1516e.support;
+
+import hlaunit.ieee1516e.common.Abstract1516eTest;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.portico.impl.hla1516e.Rti1516eAmbassadorEx;
+import org.portico.lrc.metrics.LRCMetrics;
+import org.portico.lrc.metrics.MessageTypeMetrics;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Checks that the LRC metrics are published over JMX while a federate is joined and that
+ * they record what the federate gets up to.
+ */
+@Test(sequential=true, groups={"MetricsTest", "metrics", "supportServices"})
+public class MetricsTest extends Abstract1516eTest
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@Override
+	@BeforeClass(alwaysRun=true)
+	public void beforeClass()
+	{
+		super.beforeClass();
+	}
+
+	@BeforeMethod(alwaysRun=true)
+	public void beforeMethod()
+	{
+		defaultFederate.quickCreate();
+		defaultFederate.quickJoin();
+	}
+
+	@AfterMethod(alwaysRun=true)
+	public void afterMethod()
+	{
+		defaultFederate.quickResignTolerant();
+		defaultFederate.quickDestroy();
+	}
+
+	@Override
+	@AfterClass(alwaysRun=true)
+	public void afterClass()
+	{
+		super.afterClass();
+	}
+
+	//////////////////////////////////////////////////////////////////////////////////////////
+	////////////////////////////////////// Test Methods //////////////////////////////////////
+	//////////////////////////////////////////////////////////////////////////////////////////
+
+	/////////////////////////////////////////
+	// TEST: testMetricsPublishedOverJmx() //
+	/////////////////////////////////////////
+	@Test
+	public void testMetricsPublishedOverJmx() throws Exception
+	{
+		Rti1516eAmbassadorEx rtiamb = (Rti1516eAmbassadorEx)defaultFederate.rtiamb;
+		LRCMetrics metrics = rtiamb.getHelper().getLrc().getMetrics();
+		ObjectName name = metrics.getObjectName();
+		Assert.assertNotNull( name, "Metrics were not registered with the MBean server on join" );
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		Assert.assertEquals( server.getAttribute(name,"FederateName"),
+		                     defaultFederate.federateName );
+
+		// advance, which should show up as a granted time advance and at least one tick
+		defaultFederate.quickAdvanceAndWait( 10.0 );
+		Assert.assertEquals( server.getAttribute(name,"TimeAdvanceCount"), 1L );
+		Assert.assertEquals( server.getAttribute(name,"TimeAdvancePending"), false );
+		Assert.assertTrue( (Long)server.getAttribute(name,"TickMessageCount") > 0,
+		                   "Ticks that processed the grant were not recorded" );
+
+		// the request we sent should be counted against its type
+		MessageTypeMetrics requests = metrics.getMessageTypes().get( "TimeAdvanceRequest" );
+		Assert.assertNotNull( requests, "Sent time advance request was not recorded" );
+		Assert.assertEquals( requests.getSent(), 1L );
+		Assert.assertNotNull( server.getAttribute(name,"MessageTypes") );
+
+		// resign, and the metrics should go away
+		defaultFederate.quickResign();
+		Assert.assertFalse( server.isRegistered(name), "Metrics still registered after resign" );
+		Assert.assertNull( metrics.getObjectName() );
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
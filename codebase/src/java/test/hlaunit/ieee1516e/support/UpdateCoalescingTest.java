@@ -0,0 +1,210 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package hlaunit.ieee1516e.support;
+
+import hlaunit.ieee1516e.common.Abstract1516eTest;
+import hlaunit.ieee1516e.common.TestFederate;
+import hlaunit.ieee1516e.common.TestObject;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.portico.impl.hla1516e.Rti1516eAmbassadorEx;
+import org.portico.lrc.LRCMessageQueue;
+import org.portico.lrc.metrics.LRCMetrics;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import hla.rti1516e.AttributeHandleSet;
+import hla.rti1516e.ObjectClassHandle;
+
+/**
+ * Checks that receive order reflections are coalesced in the queue of a federate that has asked
+ * for it, keeping the latest value of each attribute, and that attributes that haven't been
+ * configured are never lost.
+ */
+@Test(sequential=true, groups={"UpdateCoalescingTest", "supportServices"})
+public class UpdateCoalescingTest extends Abstract1516eTest
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private TestFederate secondFederate;
+	private Rti1516eAmbassadorEx rtiamb;
+	private ObjectClassHandle aClass;
+	private int objectHandle;
+	private int aaHandle;
+	private int abHandle;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@Override
+	@BeforeClass(alwaysRun=true)
+	public void beforeClass()
+	{
+		super.beforeClass();
+		this.secondFederate = new TestFederate( "secondFederate", this );
+	}
+
+	@BeforeMethod(alwaysRun=true)
+	public void beforeMethod() throws Exception
+	{
+		defaultFederate.quickCreate();
+		defaultFederate.quickJoin();
+		secondFederate.quickJoin();
+
+		defaultFederate.quickPublish( "ObjectRoot.A", "aa", "ab" );
+		secondFederate.quickSubscribe( "ObjectRoot.A", "aa", "ab" );
+		this.objectHandle = defaultFederate.quickRegister( "ObjectRoot.A" );
+		secondFederate.fedamb.waitForDiscovery( objectHandle );
+
+		this.rtiamb = (Rti1516eAmbassadorEx)secondFederate.rtiamb;
+		this.aClass = rtiamb.getObjectClassHandle( "ObjectRoot.A" );
+		this.aaHandle = secondFederate.quickACHandle( "ObjectRoot.A", "aa" );
+		this.abHandle = secondFederate.quickACHandle( "ObjectRoot.A", "ab" );
+	}
+
+	@AfterMethod(alwaysRun=true)
+	public void afterMethod()
+	{
+		secondFederate.quickResign();
+		defaultFederate.quickResign();
+		defaultFederate.quickDestroy();
+	}
+
+	@Override
+	@AfterClass(alwaysRun=true)
+	public void afterClass()
+	{
+		super.afterClass();
+	}
+
+	/**
+	 * Have the default federate reflect the given attribute/value pairs for the object
+	 */
+	private void reflect( String... attributesAndValues )
+	{
+		Map<String,byte[]> values = new HashMap<String,byte[]>();
+		for( int i = 0; i < attributesAndValues.length; i += 2 )
+			values.put( attributesAndValues[i], attributesAndValues[i+1].getBytes() );
+
+		defaultFederate.quickReflect( objectHandle, values, "tag".getBytes() );
+	}
+
+	/**
+	 * Wait for the second federate to have coalesced the given number of reflections
+	 */
+	private void waitForCoalesced( LRCMetrics metrics, long count ) throws Exception
+	{
+		long finishTime = System.currentTimeMillis() + 5000;
+		while( metrics.getCoalescedUpdateCount() < count &&
+		       System.currentTimeMillis() < finishTime )
+		{
+			Thread.sleep( 10 );
+		}
+
+		Assert.assertEquals( metrics.getCoalescedUpdateCount(), count,
+		                     "Reflections were not coalesced" );
+	}
+
+	private String valueOf( int attributeHandle )
+	{
+		TestObject instance = secondFederate.fedamb.getInstances().get( objectHandle );
+		return new String( instance.getAttributeValue(attributeHandle) );
+	}
+
+	//////////////////////////////////////////////////////////////////////////////////////////
+	////////////////////////////////////// Test Methods //////////////////////////////////////
+	//////////////////////////////////////////////////////////////////////////////////////////
+
+	////////////////////////////////////
+	// TEST: testCoalesceWholeClass() //
+	////////////////////////////////////
+	@Test
+	public void testCoalesceWholeClass() throws Exception
+	{
+		LRCMetrics metrics = rtiamb.getHelper().getLrc().getMetrics();
+		LRCMessageQueue queue = rtiamb.getHelper().getState().getQueue();
+		Assert.assertFalse( rtiamb.isUpdateCoalescing(aClass) );
+		rtiamb.setUpdateCoalescing( aClass, null );
+		Assert.assertTrue( rtiamb.isUpdateCoalescing(aClass) );
+
+		// three updates without ticking should leave one reflection in the queue
+		int queued = queue.getSize();
+		reflect( "aa", "aa1" );
+		reflect( "aa", "aa2", "ab", "ab2" );
+		reflect( "aa", "aa3" );
+		waitForCoalesced( metrics, 2 );
+		Assert.assertEquals( queue.getSize(), queued+1 );
+
+		// and it should have the latest value of each attribute
+		secondFederate.fedamb.waitForROUpdate( objectHandle );
+		Assert.assertEquals( valueOf(aaHandle), "aa3" );
+		Assert.assertEquals( valueOf(abHandle), "ab2" );
+
+		// once it has been delivered, the next update shouldn't be merged into anything
+		rtiamb.clearUpdateCoalescing( aClass );
+		Assert.assertFalse( rtiamb.isUpdateCoalescing(aClass) );
+		reflect( "aa", "aa4" );
+		reflect( "aa", "aa5" );
+		secondFederate.fedamb.waitForROUpdate( objectHandle );
+		Assert.assertEquals( metrics.getCoalescedUpdateCount(), 2L );
+	}
+
+	////////////////////////////////////////
+	// TEST: testCoalesceSomeAttributes() //
+	////////////////////////////////////////
+	@Test
+	public void testCoalesceSomeAttributes() throws Exception
+	{
+		LRCMetrics metrics = rtiamb.getHelper().getLrc().getMetrics();
+		LRCMessageQueue queue = rtiamb.getHelper().getState().getQueue();
+		AttributeHandleSet attributes = rtiamb.getAttributeHandleSetFactory().create();
+		attributes.add( rtiamb.getAttributeHandle(aClass,"aa") );
+		rtiamb.setUpdateCoalescing( aClass, attributes );
+
+		// "aa" can be merged, but a second value for "ab" can't, so it has to start a new
+		// reflection that the last update is merged into instead
+		int queued = queue.getSize();
+		reflect( "aa", "aa1", "ab", "ab1" );
+		reflect( "aa", "aa2" );
+		reflect( "ab", "ab3" );
+		reflect( "aa", "aa4" );
+		waitForCoalesced( metrics, 2 );
+		Assert.assertEquals( queue.getSize(), queued+2 );
+
+		// the first reflection has the first value of "ab" and the second the last of both
+		secondFederate.quickTick();
+		Assert.assertEquals( valueOf(aaHandle), "aa4" );
+		Assert.assertEquals( valueOf(abHandle), "ab3" );
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -0,0 +1,248 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package hlaunit.ieee1516e.support;
+
+import hlaunit.ieee1516e.common.Abstract1516eTest;
+import hlaunit.ieee1516e.common.TestFederate;
+import hlaunit.ieee1516e.common.TestObject;
+import static hlaunit.ieee1516e.common.TypeFactory.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import hla.rti1516e.AttributeHandle;
+import hla.rti1516e.AttributeHandleSet;
+import hla.rti1516e.ObjectClassHandle;
+import hla.rti1516e.RTIambassador;
+import hla.rti1516e.exceptions.InvalidUpdateRateDesignator;
+
+/**
+ * Checks that the update rate designators in the FOM can be looked up, and that a federate that
+ * subscribes with one doesn't get reflections of an attribute more often than it asked for.
+ */
+@Test(sequential=true, groups={"UpdateRateTest", "supportServices"})
+public class UpdateRateTest extends Abstract1516eTest
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private TestFederate secondFederate;
+	private RTIambassador rtiamb;
+	private ObjectClassHandle aClass;
+	private AttributeHandle aaHandle;
+	private AttributeHandle abHandle;
+	private AttributeHandleSet attributes;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@Override
+	@BeforeClass(alwaysRun=true)
+	public void beforeClass()
+	{
+		super.beforeClass();
+		this.secondFederate = new TestFederate( "secondFederate", this );
+	}
+
+	@BeforeMethod(alwaysRun=true)
+	public void beforeMethod() throws Exception
+	{
+		defaultFederate.quickCreate();
+		defaultFederate.quickJoin();
+		secondFederate.quickJoin();
+		defaultFederate.quickPublish( "ObjectRoot.A", "aa", "ab" );
+
+		this.rtiamb = secondFederate.rtiamb;
+		this.aClass = rtiamb.getObjectClassHandle( "ObjectRoot.A" );
+		this.aaHandle = rtiamb.getAttributeHandle( aClass, "aa" );
+		this.abHandle = rtiamb.getAttributeHandle( aClass, "ab" );
+		this.attributes = rtiamb.getAttributeHandleSetFactory().create();
+		attributes.add( aaHandle );
+		attributes.add( abHandle );
+	}
+
+	@AfterMethod(alwaysRun=true)
+	public void afterMethod()
+	{
+		secondFederate.quickResign();
+		defaultFederate.quickResign();
+		defaultFederate.quickDestroy();
+	}
+
+	@Override
+	@AfterClass(alwaysRun=true)
+	public void afterClass()
+	{
+		super.afterClass();
+	}
+
+	/**
+	 * Have the default federate reflect the given attribute/value pairs for the object
+	 */
+	private void reflect( int objectHandle, String... attributesAndValues )
+	{
+		Map<String,byte[]> values = new HashMap<String,byte[]>();
+		for( int i = 0; i < attributesAndValues.length; i += 2 )
+			values.put( attributesAndValues[i], attributesAndValues[i+1].getBytes() );
+
+		defaultFederate.quickReflect( objectHandle, values, "tag".getBytes() );
+	}
+
+	private String valueOf( int objectHandle, AttributeHandle attribute )
+	{
+		TestObject instance = secondFederate.fedamb.getInstances().get( objectHandle );
+		byte[] value = instance.getAttributeValue( getAttributeHandle(attribute) );
+		return value == null ? null : new String( value );
+	}
+
+	/**
+	 * Tick the second federate until it has been given the expected value of the attribute
+	 */
+	private void waitForValue( int objectHandle, AttributeHandle attribute, String expected )
+	{
+		long finishTime = System.currentTimeMillis() + 5000;
+		while( expected.equals(valueOf(objectHandle,attribute)) == false &&
+		       System.currentTimeMillis() < finishTime )
+		{
+			secondFederate.quickTick();
+		}
+
+		Assert.assertEquals( valueOf(objectHandle,attribute), expected );
+	}
+
+	//////////////////////////////////////////////////////////////////////////////////////////
+	////////////////////////////////////// Test Methods //////////////////////////////////////
+	//////////////////////////////////////////////////////////////////////////////////////////
+
+	////////////////////////////////////
+	// TEST: testGetUpdateRateValue() //
+	////////////////////////////////////
+	@Test
+	public void testGetUpdateRateValue() throws Exception
+	{
+		Assert.assertEquals( rtiamb.getUpdateRateValue("Slow"), 1.0 );
+		Assert.assertEquals( rtiamb.getUpdateRateValue("Fast"), 60.0 );
+	}
+
+	/////////////////////////////////////////////////////////
+	// TEST: testGetUpdateRateValueWithUnknownDesignator() //
+	/////////////////////////////////////////////////////////
+	@Test
+	public void testGetUpdateRateValueWithUnknownDesignator()
+	{
+		try
+		{
+			rtiamb.getUpdateRateValue( "Unknown" );
+			expectedException( InvalidUpdateRateDesignator.class );
+		}
+		catch( InvalidUpdateRateDesignator iurd )
+		{
+			// success!
+		}
+		catch( Exception e )
+		{
+			wrongException( e, InvalidUpdateRateDesignator.class );
+		}
+	}
+
+	//////////////////////////////////////////////////////////
+	// TEST: testSubscribeWithDesignatorLimitsReflections() //
+	//////////////////////////////////////////////////////////
+	@Test
+	public void testSubscribeWithDesignatorLimitsReflections() throws Exception
+	{
+		rtiamb.subscribeObjectClassAttributes( aClass, attributes, "Slow" );
+		int objectHandle = defaultFederate.quickRegister( "ObjectRoot.A" );
+		secondFederate.fedamb.waitForDiscovery( objectHandle );
+		Assert.assertEquals(
+		    rtiamb.getUpdateRateValueForAttribute(getObjectHandle(objectHandle),aaHandle), 1.0 );
+
+		// the first update goes straight through, but "aa" is sent again too soon after it.
+		// each attribute is limited on its own though, so "ab" should still get through
+		reflect( objectHandle, "aa", "aa1" );
+		reflect( objectHandle, "aa", "aa2", "ab", "ab2" );
+		waitForValue( objectHandle, abHandle, "ab2" );
+		Assert.assertEquals( valueOf(objectHandle,aaHandle), "aa1" );
+		reflect( objectHandle, "aa", "aa3" );
+		secondFederate.quickTick();
+		Assert.assertEquals( valueOf(objectHandle,aaHandle), "aa1" );
+
+		// once the period is up, the latest value should get through
+		Thread.sleep( 1000 );
+		reflect( objectHandle, "aa", "aa4" );
+		waitForValue( objectHandle, aaHandle, "aa4" );
+	}
+
+	//////////////////////////////////////////////////////
+	// TEST: testSubscribeWithoutDesignatorHasNoLimit() //
+	//////////////////////////////////////////////////////
+	@Test
+	public void testSubscribeWithoutDesignatorHasNoLimit() throws Exception
+	{
+		// subscribing again without a designator should take the limit away
+		rtiamb.subscribeObjectClassAttributes( aClass, attributes, "Slow" );
+		rtiamb.subscribeObjectClassAttributes( aClass, attributes );
+		int objectHandle = defaultFederate.quickRegister( "ObjectRoot.A" );
+		secondFederate.fedamb.waitForDiscovery( objectHandle );
+		Assert.assertEquals(
+		    rtiamb.getUpdateRateValueForAttribute(getObjectHandle(objectHandle),aaHandle), 0.0 );
+
+		reflect( objectHandle, "aa", "aa1" );
+		secondFederate.fedamb.waitForROUpdate( objectHandle );
+		reflect( objectHandle, "aa", "aa2" );
+		secondFederate.fedamb.waitForROUpdate( objectHandle );
+		Assert.assertEquals( valueOf(objectHandle,aaHandle), "aa2" );
+	}
+
+	/////////////////////////////////////////////////////
+	// TEST: testSubscribeWithUnknownDesignatorFails() //
+	/////////////////////////////////////////////////////
+	@Test
+	public void testSubscribeWithUnknownDesignatorFails()
+	{
+		try
+		{
+			rtiamb.subscribeObjectClassAttributes( aClass, attributes, "Unknown" );
+			expectedException( InvalidUpdateRateDesignator.class );
+		}
+		catch( InvalidUpdateRateDesignator iurd )
+		{
+			// success!
+		}
+		catch( Exception e )
+		{
+			wrongException( e, InvalidUpdateRateDesignator.class );
+		}
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -21,6 +21,10 @@ import hlaunit.ieee1516e.common.Abstract1516eTest;
 import hlaunit.ieee1516e.common.TestFederate;
 import hlaunit.ieee1516e.common.TypeFactory;
 
+import org.portico.impl.hla1516e.Rti1516eAmbassadorEx;
+import org.portico.lrc.LRC;
+import org.portico.lrc.services.sync.data.SyncPoint;
+import org.portico.lrc.services.sync.data.SyncPointManager;
 import org.testng.Assert;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.AfterMethod;
@@ -88,6 +92,11 @@ public class RegisterSyncPointTest extends Abstract1516eTest
 		defaultFederate.quickDestroy();
 	}
 	
+	private LRC lrc( TestFederate federate )
+	{
+		return ((Rti1516eAmbassadorEx)federate.rtiamb).getHelper().getLrc();
+	}
+
 	//////////////////////////////////////////////////////////////////////////////////////////
 	////////////////////////////////////// Test Methods //////////////////////////////////////
 	//////////////////////////////////////////////////////////////////////////////////////////
@@ -474,6 +483,37 @@ public class RegisterSyncPointTest extends Abstract1516eTest
 		}
 	}
 	
+	/////////////////////////////////////////////////////
+	// TEST: testRegisterSyncPointVetoedByPriorClaim() //
+	/////////////////////////////////////////////////////
+	@Test
+	public void testRegisterSyncPointVetoedByPriorClaim()
+	{
+		// setup: give the default federate a claim on the label that the second federate knows
+		// nothing about, as if they both tried to register it at the same moment. The default
+		// federate joined first, so it has the lower handle and should win
+		SyncPointManager claims = lrc(defaultFederate).getState().getSyncPointManager();
+		claims.registerPoint( pointOne, tag, null, defaultFederate.federateHandle );
+
+		// the second federate only finds out when the default federate vetoes its request
+		try
+		{
+			secondFederate.rtiamb.registerFederationSynchronizationPoint( pointOne, tag );
+			secondFederate.fedamb.waitForSyncResult( pointOne, false );
+		}
+		catch( Exception e )
+		{
+			Assert.fail( "Invalid exception while registering sync point claimed by another", e );
+		}
+
+		// the veto names the federate that won, which should now be recorded as the registrant
+		SyncPoint point = lrc(secondFederate).getState().getSyncPointManager().getPoint( pointOne );
+		Assert.assertNotNull( point, "Vetoed sync point was not kept" );
+		Assert.assertEquals( point.getRegistrant(), defaultFederate.federateHandle,
+		                     "Registrant named in the veto was not recorded" );
+		Assert.assertEquals( point.getStatus(), SyncPoint.Status.PENDING );
+	}
+	
 	//////////////////////////////////////////////////////////////
 	// TEST: testRegisterGroupSyncPointFromUnjoinedFederate() //
 	//////////////////////////////////////////////////////////////
@@ -26,6 +26,8 @@ import hlaunit.ieee1516e.common.Abstract1516eTest;
 import hlaunit.ieee1516e.common.TestFederate;
 import hlaunit.ieee1516e.common.TypeFactory;
 
+import org.portico.impl.hla1516e.Rti1516eAmbassadorEx;
+import org.testng.Assert;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeClass;
@@ -598,6 +600,80 @@ public class TimeNextMessageRequestTest extends Abstract1516eTest
 		constrainedFederate.fedamb.waitForTimeAdvance( 100.0 );
 	}
 
+	@Test
+	public void testNmrWithNullMessagesGrantsToArrivingEvent()
+	{
+		Rti1516eAmbassadorEx constrainedAmbassador =
+			(Rti1516eAmbassadorEx)constrainedFederate.rtiamb;
+		constrainedAmbassador.setNullMessageTimeAdvance( true );
+
+		try
+		{
+			// event is waiting at time 5.0
+			constrainedFederate.quickNextEventRequest( 10.0 );
+			constrainedFederate.fedamb.waitForTSOInteraction( "InteractionRoot.X" );
+			constrainedFederate.fedamb.waitForTimeAdvance( 5.0 );
+
+			// nothing is queued now, and the regulating federate could still send at 10.0
+			constrainedFederate.quickNextEventRequest( 20.0 );
+			constrainedFederate.fedamb.waitForTimeAdvanceTimeout( 10.0 );
+
+			// send an event in after the request was made, we should be granted to its time
+			// rather than the time we asked for
+			regulatingFederate.quickSend( "InteractionRoot.X", null, null, 12.0 );
+			regulatingFederate.quickAdvanceAndWait( 20.0 );
+			constrainedFederate.fedamb.waitForTSOInteraction( "InteractionRoot.X" );
+			constrainedFederate.fedamb.waitForTimeAdvance( 12.0 );
+			Assert.assertEquals( constrainedFederate.fedamb.logicalTime, 12.0 );
+		}
+		finally
+		{
+			constrainedAmbassador.setNullMessageTimeAdvance( false );
+		}
+	}
+
+	@Test
+	public void testNmrWithNullMessagesBetweenRegulatingFederates()
+	{
+		// make them both regulating and constrained so they each hold the other up
+		defaultFederate.quickEnableRegulating( 1.0 );
+		defaultFederate.quickEnableConstrained();
+		regulatingFederate.quickEnableConstrained();
+
+		Rti1516eAmbassadorEx defaultAmbassador = (Rti1516eAmbassadorEx)defaultFederate.rtiamb;
+		Rti1516eAmbassadorEx regulatingAmbassador =
+			(Rti1516eAmbassadorEx)regulatingFederate.rtiamb;
+		defaultAmbassador.setNullMessageTimeAdvance( true );
+		regulatingAmbassador.setNullMessageTimeAdvance( true );
+
+		try
+		{
+			// neither knows when the other will next send anything, so they have to trade
+			// null messages until each can see that the other won't send anything before 20.0
+			defaultFederate.quickNextEventRequest( 20.0 );
+			regulatingFederate.quickNextEventRequest( 20.0 );
+			for( int i = 0; i < 100; i++ )
+			{
+				if( defaultFederate.fedamb.logicalTime >= 20.0 &&
+					regulatingFederate.fedamb.logicalTime >= 20.0 )
+				{
+					break;
+				}
+
+				defaultFederate.quickTick();
+				regulatingFederate.quickTick();
+			}
+
+			Assert.assertEquals( defaultFederate.fedamb.logicalTime, 20.0 );
+			Assert.assertEquals( regulatingFederate.fedamb.logicalTime, 20.0 );
+		}
+		finally
+		{
+			defaultAmbassador.setNullMessageTimeAdvance( false );
+			regulatingAmbassador.setNullMessageTimeAdvance( false );
+		}
+	}
+
 	@Test(enabled=false)
 	public void testNmrResetsWhenAllResign()
 	{
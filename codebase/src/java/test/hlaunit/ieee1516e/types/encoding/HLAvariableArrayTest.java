@@ -19,6 +19,7 @@ import java.io.IOException;
 import java.util.Arrays;
 
 import org.portico.impl.hla1516e.types.encoding.HLA1516eEncoderFactory;
+import org.portico.impl.hla1516e.types.encoding.HLA1516eVariableArray;
 import org.testng.Assert;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
@@ -730,6 +731,76 @@ public class HLAvariableArrayTest extends Abstract1516eTest
 		}
 	}
 	
+    /////////////////////////////////////////////
+    // testHLAvariableArrayDecodeReusesElements() //
+    /////////////////////////////////////////////
+	@Test
+	public void testHLAvariableArrayDecodeReusesElements()
+	{
+		HLAvariableArray<HLAfloat32BE> data =
+			this.encoderFactory.createHLAvariableArray( this.floatFactory, wrapFloatData(EMPTY) );
+
+		try
+		{
+			data.decode( THREE_FLOATS_BIN );
+			HLAfloat32BE first = data.get( 0 );
+
+			// Decoding again should write into the elements we already have
+			data.decode( THREE_FLOATS_BIN );
+			Assert.assertSame( data.get(0), first );
+			Assert.assertEquals( data.get(0).getValue(), THREE_FLOATS[0] );
+		}
+		catch( Exception e )
+		{
+			// FAIL: Did not expect an exception
+			unexpectedException( "Decoding a HLAvariableArray twice", e );
+		}
+	}
+
+    ////////////////////////////////////////
+    // testHLAvariableArrayViewDecoding() //
+    ////////////////////////////////////////
+	@Test
+	public void testHLAvariableArrayViewDecoding()
+	{
+		HLAvariableArray<HLAfloat32BE> data =
+			this.encoderFactory.createHLAvariableArray( this.floatFactory, wrapFloatData(EMPTY) );
+		((HLA1516eVariableArray<HLAfloat32BE>)data).setViewDecoding( true );
+
+		try
+		{
+			byte[] buffer = Arrays.copyOf( THREE_FLOATS_BIN, THREE_FLOATS_BIN.length );
+			data.decode( buffer );
+			Assert.assertEquals( data.size(), THREE_FLOATS.length );
+
+			// Re-encoding an untouched view should give us back the same bytes
+			Assert.assertEquals( data.toByteArray(), THREE_FLOATS_BIN );
+
+			// Elements are decoded when they are asked for
+			for( int i = 0 ; i < THREE_FLOATS.length ; ++i )
+				Assert.assertEquals( data.get(i).getValue(), THREE_FLOATS[i] );
+
+			// Once decoded, elements no longer depend on the source buffer
+			Arrays.fill( buffer, (byte)0 );
+			data.get(1).setValue( 1.0f );
+			Assert.assertEquals( data.get(0).getValue(), THREE_FLOATS[0] );
+			Assert.assertEquals( data.get(2).getValue(), THREE_FLOATS[2] );
+
+			// Elements without a fixed encoded length are decoded as normal
+			HLAvariableArray<HLAASCIIstring> strings =
+				this.encoderFactory.createHLAvariableArray( this.stringFactory );
+			((HLA1516eVariableArray<HLAASCIIstring>)strings).setViewDecoding( true );
+			strings.decode( THREE_STRINGS_BIN );
+			for( int i = 0 ; i < THREE_STRINGS.length ; ++i )
+				Assert.assertEquals( strings.get(i).getValue(), THREE_STRINGS[i] );
+		}
+		catch( Exception e )
+		{
+			// FAIL: Did not expect an exception
+			unexpectedException( "View decoding a HLAvariableArray", e );
+		}
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
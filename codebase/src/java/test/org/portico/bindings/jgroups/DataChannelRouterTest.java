@@ -0,0 +1,332 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.bindings.jgroups;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.portico.bindings.jvm.JVMConnection;
+import org.portico.impl.hla1516e.Rti1516eAmbassador;
+import org.portico.lrc.LRC;
+import org.portico.lrc.LRCMessageQueue;
+import org.portico.lrc.PorticoConstants;
+import org.portico.lrc.model.ObjectModel;
+import org.portico.lrc.services.object.msg.DiscoverObject;
+import org.portico.lrc.services.object.msg.SendInteraction;
+import org.portico.lrc.services.object.msg.UpdateAttributes;
+import org.portico.utils.messaging.PorticoMessage;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import hla.rti1516e.CallbackModel;
+import hla.rti1516e.NullFederateAmbassador;
+import hla.rti1516e.ResignAction;
+import hla.rti1516e.RtiFactoryFactory;
+
+/**
+ * Checks which data channel the {@link DataChannelRouter} picks for each class, that it falls
+ * back to the main channel when a data channel isn't connected, and that updates which come in
+ * over a data channel ahead of the discovery for their object are held until it arrives.
+ * <p/>
+ * The router only needs an LRC for its FOM, repository and queue, so one is joined to a
+ * federation over the JVM binding. None of the data channels are connected.
+ */
+@Test(sequential=true, groups={"DataChannelRouterTest","jgroups"})
+public class DataChannelRouterTest
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final String FEDERATION = "DataChannelRouterTest";
+	private static final int UNKNOWN_OBJECT = 999999;
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private Rti1516eAmbassador rtiamb;
+	private LRC lrc;
+	private ObjectModel fom;
+	private Federation federation;
+	private DataChannelRouter router;
+	private long previousTimeout;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@BeforeClass(alwaysRun=true)
+	public void beforeClass() throws Exception
+	{
+		// whatever binding the tests are running on, the LRC is only here to hold state
+		String previousConnection = System.getProperty( PorticoConstants.PROPERTY_CONNECTION );
+		System.setProperty( PorticoConstants.PROPERTY_CONNECTION,
+		                    JVMConnection.class.getCanonicalName() );
+		try
+		{
+			this.rtiamb = (Rti1516eAmbassador)RtiFactoryFactory.getRtiFactory().getRtiAmbassador();
+		}
+		finally
+		{
+			if( previousConnection == null )
+				System.clearProperty( PorticoConstants.PROPERTY_CONNECTION );
+			else
+				System.setProperty( PorticoConstants.PROPERTY_CONNECTION, previousConnection );
+		}
+
+		rtiamb.connect( new NullFederateAmbassador(), CallbackModel.HLA_EVOKED );
+		rtiamb.createFederationExecution( FEDERATION,
+		                                  ClassLoader.getSystemResource("fom/ieee1516e/testfom.xml") );
+		rtiamb.joinFederationExecution( "router", "TestFederate", FEDERATION );
+		this.lrc = rtiamb.getHelper().getLrc();
+		this.fom = lrc.getState().getFOM();
+		this.previousTimeout = Configuration.RESPONSE_TIMEOUT;
+	}
+
+	@BeforeMethod(alwaysRun=true)
+	public void beforeMethod()
+	{
+		this.federation = new Federation( FEDERATION );
+		this.federation.joinedLRC = lrc;
+		this.router = newRouter( "ObjectRoot.A, InteractionRoot.X", "*" );
+
+		// start each test with nothing in the queue
+		LRCMessageQueue queue = lrc.getState().getQueue();
+		while( queue.poll() != null );
+	}
+
+	@AfterMethod(alwaysRun=true)
+	public void afterMethod()
+	{
+		Configuration.RESPONSE_TIMEOUT = previousTimeout;
+	}
+
+	@AfterClass(alwaysRun=true)
+	public void afterClass() throws Exception
+	{
+		rtiamb.resignFederationExecution( ResignAction.DELETE_OBJECTS );
+		rtiamb.destroyFederationExecution( FEDERATION );
+		rtiamb.disconnect();
+	}
+
+	/**
+	 * Create a router configured with one data channel for each of the given class lists
+	 */
+	private DataChannelRouter newRouter( String... classLists )
+	{
+		StringBuilder names = new StringBuilder();
+		for( int i = 0; i < classLists.length; i++ )
+		{
+			names.append( i == 0 ? "" : "," ).append( "channel"+i );
+			System.setProperty( Configuration.PROP_JGROUPS_DATA_CHANNEL_PREFIX+"channel"+i,
+			                    classLists[i] );
+		}
+
+		System.setProperty( Configuration.PROP_JGROUPS_DATA_CHANNELS, names.toString() );
+		try
+		{
+			return new DataChannelRouter( federation );
+		}
+		finally
+		{
+			System.clearProperty( Configuration.PROP_JGROUPS_DATA_CHANNELS );
+			for( int i = 0; i < classLists.length; i++ )
+				System.clearProperty( Configuration.PROP_JGROUPS_DATA_CHANNEL_PREFIX+"channel"+i );
+		}
+	}
+
+	private UpdateAttributes update( int objectHandle, String value )
+	{
+		HashMap<Integer,byte[]> attributes = new HashMap<Integer,byte[]>();
+		attributes.put( fom.getObjectClass("ObjectRoot.A").getAttributeHandle("aa"),
+		                value.getBytes() );
+		return new UpdateAttributes( objectHandle, new byte[0], attributes );
+	}
+
+	private DiscoverObject discover( int objectHandle )
+	{
+		DiscoverObject discover = new DiscoverObject();
+		discover.setObjectHandle( objectHandle );
+		discover.setClassHandle( fom.getObjectClass("ObjectRoot.A").getHandle() );
+		discover.setObjectName( "object"+objectHandle );
+		return discover;
+	}
+
+	private List<PorticoMessage> drainQueue()
+	{
+		List<PorticoMessage> messages = new ArrayList<PorticoMessage>();
+		LRCMessageQueue queue = lrc.getState().getQueue();
+		for( PorticoMessage message = queue.poll(); message != null; message = queue.poll() )
+			messages.add( message );
+
+		return messages;
+	}
+
+	//////////////////////////////////////////////////////////////////////////////////////////
+	////////////////////////////////////// Test Methods //////////////////////////////////////
+	//////////////////////////////////////////////////////////////////////////////////////////
+
+	///////////////////////////////////
+	// TEST: testObjectClassRoutes() //
+	///////////////////////////////////
+	@Test
+	public void testObjectClassRoutes()
+	{
+		// configured classes, and their subclasses, go to the channel they were given
+		int aClass = fom.getObjectClass( "ObjectRoot.A" ).getHandle();
+		int bClass = fom.getObjectClass( "ObjectRoot.A.B" ).getHandle();
+		Assert.assertEquals( router.routeObjectClass(fom,aClass), 0 );
+		Assert.assertEquals( router.routeObjectClass(fom,bClass), 0 );
+
+		// everything else goes to the wildcard channel
+		int otherClass = fom.getObjectClass( "ObjectRoot.BestEffortTest" ).getHandle();
+		Assert.assertEquals( router.routeObjectClass(fom,otherClass), 1 );
+
+		// and without a wildcard, stays on the main channel
+		DataChannelRouter noWildcard = newRouter( "ObjectRoot.A.B" );
+		Assert.assertEquals( noWildcard.routeObjectClass(fom,bClass), 0 );
+		Assert.assertEquals( noWildcard.routeObjectClass(fom,aClass), -1 );
+		Assert.assertEquals( noWildcard.routeObjectClass(fom,otherClass), -1 );
+	}
+
+	////////////////////////////////////////
+	// TEST: testInteractionClassRoutes() //
+	////////////////////////////////////////
+	@Test
+	public void testInteractionClassRoutes()
+	{
+		int xClass = fom.getInteractionClass( "InteractionRoot.X" ).getHandle();
+		int zClass = fom.getInteractionClass( "InteractionRoot.X.Y.Z" ).getHandle();
+		int otherClass = fom.getInteractionClass( "InteractionRoot" ).getHandle();
+		Assert.assertEquals( router.routeInteractionClass(fom,xClass), 0 );
+		Assert.assertEquals( router.routeInteractionClass(fom,zClass), 0 );
+		Assert.assertEquals( router.routeInteractionClass(fom,otherClass), 1 );
+
+		DataChannelRouter noWildcard = newRouter( "InteractionRoot.X" );
+		Assert.assertEquals( noWildcard.routeInteractionClass(fom,otherClass), -1 );
+	}
+
+	///////////////////////////////////////////////////
+	// TEST: testUnconnectedChannelUsesMainChannel() //
+	///////////////////////////////////////////////////
+	@Test
+	public void testUnconnectedChannelUsesMainChannel()
+	{
+		// the class has a channel, but it isn't connected, so the message stays on the main one
+		int xClass = fom.getInteractionClass( "InteractionRoot.X" ).getHandle();
+		SendInteraction interaction =
+			new SendInteraction( xClass, new byte[0], new HashMap<Integer,byte[]>() );
+		Assert.assertFalse( router.isActive() );
+		Assert.assertNull( router.route(interaction) );
+
+		// as do messages when nothing is configured at all
+		Assert.assertNull( newRouter().route(interaction) );
+	}
+
+	////////////////////////////////////////////
+	// TEST: testUpdatesHeldUntilDiscovered() //
+	////////////////////////////////////////////
+	@Test
+	public void testUpdatesHeldUntilDiscovered()
+	{
+		// updates for an object we haven't heard of are held back
+		UpdateAttributes first = update( UNKNOWN_OBJECT, "first" );
+		UpdateAttributes second = update( UNKNOWN_OBJECT, "second" );
+		router.receive( first, lrc );
+		router.receive( second, lrc );
+		Assert.assertEquals( router.getHeldUpdateCount(), 2 );
+		Assert.assertEquals( lrc.getState().getQueue().getSize(), 0 );
+
+		// once the discovery is in the queue they go in behind it, in the order they arrived
+		DiscoverObject discover = discover( UNKNOWN_OBJECT );
+		lrc.getState().getQueue().offer( discover );
+		router.discoveryReceived( UNKNOWN_OBJECT, lrc );
+		Assert.assertEquals( router.getHeldUpdateCount(), 0 );
+
+		// and later ones aren't held, even though the LRC hasn't processed the discovery yet
+		UpdateAttributes third = update( UNKNOWN_OBJECT, "third" );
+		router.receive( third, lrc );
+		Assert.assertEquals( router.getHeldUpdateCount(), 0 );
+
+		List<PorticoMessage> queued = drainQueue();
+		Assert.assertEquals( queued.size(), 4 );
+		Assert.assertSame( queued.get(0), discover );
+		Assert.assertSame( queued.get(1), first );
+		Assert.assertSame( queued.get(2), second );
+		Assert.assertSame( queued.get(3), third );
+	}
+
+	///////////////////////////////////////////
+	// TEST: testOtherMessagesAreNeverHeld() //
+	///////////////////////////////////////////
+	@Test
+	public void testOtherMessagesAreNeverHeld()
+	{
+		int xClass = fom.getInteractionClass( "InteractionRoot.X" ).getHandle();
+		SendInteraction interaction =
+			new SendInteraction( xClass, new byte[0], new HashMap<Integer,byte[]>() );
+		router.receive( interaction, lrc );
+		Assert.assertEquals( router.getHeldUpdateCount(), 0 );
+		Assert.assertSame( lrc.getState().getQueue().poll(), interaction );
+	}
+
+	/////////////////////////////////////////////////
+	// TEST: testHeldUpdatesReleasedAfterTimeout() //
+	/////////////////////////////////////////////////
+	@Test
+	public void testHeldUpdatesReleasedAfterTimeout() throws Exception
+	{
+		// if the discovery never comes, the updates are passed on for the LRC to deal with
+		Configuration.RESPONSE_TIMEOUT = 10;
+		UpdateAttributes first = update( UNKNOWN_OBJECT, "first" );
+		router.receive( first, lrc );
+		Assert.assertEquals( router.getHeldUpdateCount(), 1 );
+
+		Thread.sleep( 50 );
+		UpdateAttributes second = update( UNKNOWN_OBJECT, "second" );
+		router.receive( second, lrc );
+		Assert.assertEquals( router.getHeldUpdateCount(), 0 );
+
+		List<PorticoMessage> queued = drainQueue();
+		Assert.assertEquals( queued.size(), 2 );
+		Assert.assertSame( queued.get(0), first );
+		Assert.assertSame( queued.get(1), second );
+	}
+
+	/////////////////////////////////////////////
+	// TEST: testUpdatesHeldAgainAfterDelete() //
+	/////////////////////////////////////////////
+	@Test
+	public void testUpdatesHeldAgainAfterDelete()
+	{
+		// once the object is deleted, updates for it are no longer let straight through
+		lrc.getState().getQueue().offer( discover(UNKNOWN_OBJECT) );
+		router.discoveryReceived( UNKNOWN_OBJECT, lrc );
+		router.deleteReceived( UNKNOWN_OBJECT );
+		router.receive( update(UNKNOWN_OBJECT,"late"), lrc );
+		Assert.assertEquals( router.getHeldUpdateCount(), 1 );
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -0,0 +1,164 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.bindings.jgroups;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Checks that a {@link PendingRequest} collects the acks and vetoes from the federates it is
+ * waiting on, and gives up after the timeout if one of them never answers.
+ */
+@Test(groups={"PendingRequestTest","jgroups"})
+public class PendingRequestTest
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	private PendingRequest newRequest( Integer... awaiting )
+	{
+		return new PendingRequest( 1, new HashSet<Integer>(Arrays.asList(awaiting)) );
+	}
+
+	/**
+	 * Acknowledge the request on behalf of the given federate from another thread, after a
+	 * short delay, the way the JGroups receiver threads would
+	 */
+	private void ackLater( PendingRequest request, int federate, String veto )
+	{
+		Thread thread = new Thread( "ack-"+federate )
+		{
+			public void run()
+			{
+				try
+				{
+					Thread.sleep( 50 );
+					request.acknowledged( federate, veto );
+				}
+				catch( InterruptedException ie )
+				{
+					// the test will time out
+				}
+			}
+		};
+
+		thread.start();
+	}
+
+	/////////////////////////////////
+	// TEST: testAllAcknowledged() //
+	/////////////////////////////////
+	@Test
+	public void testAllAcknowledged() throws Exception
+	{
+		PendingRequest request = newRequest( 2, 3 );
+		ackLater( request, 2, null );
+		ackLater( request, 3, null );
+
+		Assert.assertTrue( request.await(5000), "Timed out with every federate acknowledging" );
+		Assert.assertTrue( request.getAwaiting().isEmpty() );
+		Assert.assertTrue( request.getVetoes().isEmpty() );
+	}
+
+	/////////////////////////////////////
+	// TEST: testVetoReturnedWithAck() //
+	/////////////////////////////////////
+	@Test
+	public void testVetoReturnedWithAck() throws Exception
+	{
+		PendingRequest request = newRequest( 2, 3 );
+		ackLater( request, 2, "1:point already registered by [first]" );
+		ackLater( request, 3, null );
+
+		Assert.assertTrue( request.await(5000) );
+		Map<Integer,String> vetoes = request.getVetoes();
+		Assert.assertEquals( vetoes.size(), 1 );
+		Assert.assertEquals( vetoes.get(2), "1:point already registered by [first]" );
+	}
+
+	//////////////////////////////////////////////
+	// TEST: testTimeoutWhenFederateNeverAcks() //
+	//////////////////////////////////////////////
+	@Test
+	public void testTimeoutWhenFederateNeverAcks() throws Exception
+	{
+		PendingRequest request = newRequest( 2, 3 );
+		ackLater( request, 2, "vetoed" );
+
+		long started = System.currentTimeMillis();
+		Assert.assertFalse( request.await(200), "Finished waiting without hearing from 3" );
+		Assert.assertTrue( System.currentTimeMillis()-started >= 150,
+		                   "Gave up well before the timeout" );
+
+		// we still know who didn't answer, and what the ones that did said
+		Set<Integer> awaiting = request.getAwaiting();
+		Assert.assertEquals( awaiting.size(), 1 );
+		Assert.assertTrue( awaiting.contains(3) );
+		Assert.assertEquals( request.getVetoes().get(2), "vetoed" );
+	}
+
+	//////////////////////////////////////////////
+	// TEST: testDepartedFederateNotWaitedFor() //
+	//////////////////////////////////////////////
+	@Test
+	public void testDepartedFederateNotWaitedFor() throws Exception
+	{
+		PendingRequest request = newRequest( 2, 3 );
+		ackLater( request, 2, null );
+		new Thread( () -> request.federateDeparted(3) ).start();
+
+		Assert.assertTrue( request.await(5000) );
+		Assert.assertTrue( request.getVetoes().isEmpty() );
+	}
+
+	//////////////////////////////////////////
+	// TEST: testAcksFromOthersAreIgnored() //
+	//////////////////////////////////////////
+	@Test
+	public void testAcksFromOthersAreIgnored() throws Exception
+	{
+		// an ack from someone we aren't waiting on doesn't count, and neither does its veto
+		PendingRequest request = newRequest( 2 );
+		request.acknowledged( 9, "vetoed" );
+		Assert.assertFalse( request.await(10) );
+
+		// nor does a second ack from someone who has already answered
+		request.acknowledged( 2, null );
+		request.acknowledged( 2, "vetoed" );
+		Assert.assertTrue( request.await(10) );
+		Assert.assertTrue( request.getVetoes().isEmpty() );
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
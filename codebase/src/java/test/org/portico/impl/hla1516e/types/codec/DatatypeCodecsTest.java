@@ -0,0 +1,359 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.impl.hla1516e.types.codec;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.portico.impl.hla1516e.types.encoding.HLA1516eEncoderFactory;
+import org.portico.lrc.model.datatype.Alternative;
+import org.portico.lrc.model.datatype.ArrayType;
+import org.portico.lrc.model.datatype.BasicType;
+import org.portico.lrc.model.datatype.Endianness;
+import org.portico.lrc.model.datatype.EnumeratedType;
+import org.portico.lrc.model.datatype.Enumerator;
+import org.portico.lrc.model.datatype.Field;
+import org.portico.lrc.model.datatype.FixedRecordType;
+import org.portico.lrc.model.datatype.NaType;
+import org.portico.lrc.model.datatype.SimpleType;
+import org.portico.lrc.model.datatype.VariantRecordType;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import hla.rti1516e.encoding.DecoderException;
+import hla.rti1516e.encoding.EncoderException;
+import hla.rti1516e.encoding.HLAfixedArray;
+import hla.rti1516e.encoding.HLAfixedRecord;
+import hla.rti1516e.encoding.HLAfloat64BE;
+import hla.rti1516e.encoding.HLAvariableArray;
+
+@Test(groups={"DatatypeCodecsTest","datatype","encoding"})
+public class DatatypeCodecsTest
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final BasicType INT16LE = new BasicType( "HLAinteger16LE", 16, Endianness.LITTLE );
+	private static final BasicType INT32BE = new BasicType( "HLAinteger32BE", 32, Endianness.BIG );
+	private static final BasicType FLOAT32BE = new BasicType( "HLAfloat32BE", 32, Endianness.BIG );
+	private static final BasicType FLOAT64BE = new BasicType( "HLAfloat64BE", 64, Endianness.BIG );
+	private static final BasicType FLOAT64LE = new BasicType( "HLAfloat64LE", 64, Endianness.LITTLE );
+	private static final BasicType OCTET = new BasicType( "HLAoctet", 8, Endianness.BIG );
+	private static final BasicType OCTETPAIR = new BasicType( "HLAoctetPairBE", 16, Endianness.BIG );
+
+	private static final EnumeratedType BOOLEAN =
+		new EnumeratedType( "HLAboolean", INT32BE, "HLAfalse", "HLAtrue" );
+	private static final ArrayType ASCII_STRING =
+		new ArrayType( "HLAASCIIstring", new SimpleType("HLAASCIIchar",OCTET) );
+	private static final ArrayType UNICODE_STRING =
+		new ArrayType( "HLAunicodeString", new SimpleType("HLAunicodeChar",OCTETPAIR) );
+	private static final ArrayType OPAQUE =
+		new ArrayType( "HLAopaqueData", new SimpleType("HLAbyte",OCTET) );
+
+	// a cut down RPR-FOM spatial structure
+	private static final FixedRecordType ORIENTATION =
+		new FixedRecordType( "OrientationStruct",
+		                     new Field("Psi", FLOAT32BE),
+		                     new Field("Theta", FLOAT32BE),
+		                     new Field("Phi", FLOAT32BE) );
+	private static final FixedRecordType SPATIAL =
+		new FixedRecordType( "SpatialStruct",
+		                     new Field("WorldLocation", new ArrayType("WorldLocationStruct",FLOAT64BE,3)),
+		                     new Field("IsFrozen", BOOLEAN),
+		                     new Field("Orientation", ORIENTATION),
+		                     new Field("Marking", ASCII_STRING) );
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private HLA1516eEncoderFactory factory = new HLA1516eEncoderFactory();
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	/**
+	 * A record given as a map of field values should encode to exactly the bytes the same
+	 * record assembled from the encoder factory's DataElements does, and decode back.
+	 */
+	@Test
+	public void testMapMatchesEncoderFactory() throws Exception
+	{
+		FixedRecordType type =
+			new FixedRecordType( "Mixed",
+			                     new Field("Short", INT16LE),
+			                     new Field("Double", FLOAT64LE),
+			                     new Field("Unicode", UNICODE_STRING),
+			                     new Field("Ascii", ASCII_STRING),
+			                     new Field("Flag", BOOLEAN),
+			                     new Field("Opaque", OPAQUE) );
+
+		HLAfixedRecord record = factory.createHLAfixedRecord();
+		record.add( factory.createHLAinteger16LE((short)-2) );
+		record.add( factory.createHLAfloat64LE(12.5) );
+		record.add( factory.createHLAunicodeString("Hello World") );
+		record.add( factory.createHLAASCIIstring("Hi") );
+		record.add( factory.createHLAboolean(true) );
+		record.add( factory.createHLAopaqueData(new byte[]{ 1, 2, 3 }) );
+
+		Map<String,Object> value = new HashMap<String,Object>();
+		value.put( "Short", -2 );  // any Number will do when encoding
+		value.put( "Double", 12.5 );
+		value.put( "Unicode", "Hello World" );
+		value.put( "Ascii", "Hi" );
+		value.put( "Flag", true );
+		value.put( "Opaque", new byte[]{ 1, 2, 3 } );
+
+		@SuppressWarnings("unchecked")
+		DatatypeCodec<Map<String,Object>> codec =
+			(DatatypeCodec<Map<String,Object>>)DatatypeCodecs.forDatatype( type );
+		byte[] expected = record.toByteArray();
+		Assert.assertEquals( codec.encode(value), expected );
+		Assert.assertEquals( codec.getEncodedLength(value), expected.length );
+
+		Map<String,Object> decoded = codec.decode( expected );
+		Assert.assertEquals( decoded.keySet().toArray(),
+		                     new String[]{ "Short", "Double", "Unicode", "Ascii", "Flag", "Opaque" } );
+		Assert.assertEquals( decoded.get("Short"), (short)-2 );
+		Assert.assertEquals( decoded.get("Double"), 12.5 );
+		Assert.assertEquals( decoded.get("Unicode"), "Hello World" );
+		Assert.assertEquals( decoded.get("Ascii"), "Hi" );
+		Assert.assertEquals( decoded.get("Flag"), Boolean.TRUE );
+		Assert.assertEquals( (byte[])decoded.get("Opaque"), new byte[]{ 1, 2, 3 } );
+	}
+
+	/**
+	 * Records bound to a Java class should read and write its fields, including primitive
+	 * fields, arrays of primitives and nested records, with the same bytes as the map codec.
+	 */
+	@Test
+	public void testBoundClass() throws Exception
+	{
+		DatatypeCodec<Spatial> codec = DatatypeCodecs.forClass( SPATIAL, Spatial.class );
+		Assert.assertEquals( codec.getValueType(), Spatial.class );
+
+		Spatial spatial = new Spatial();
+		spatial.WorldLocation = new double[]{ 1.5, -2.5, 1e6 };
+		spatial.IsFrozen = true;
+		spatial.Orientation = new Orientation();
+		spatial.Orientation.Psi = 0.25f;
+		spatial.Orientation.Phi = -3f;
+		spatial.Marking = "Tank 1";
+
+		// the encoder factory agrees on the location
+		HLAfixedArray<HLAfloat64BE> location =
+			factory.createHLAfixedArray( factory.createHLAfloat64BE(1.5),
+			                             factory.createHLAfloat64BE(-2.5),
+			                             factory.createHLAfloat64BE(1e6) );
+		byte[] bytes = codec.encode( spatial );
+		Assert.assertEquals( Arrays.copyOf(bytes,location.getEncodedLength()),
+		                     location.toByteArray() );
+
+		// and so does the map codec on the whole record
+		@SuppressWarnings("unchecked")
+		Map<String,Object> asMap = (Map<String,Object>)DatatypeCodecs.forDatatype(SPATIAL).decode( bytes );
+		Assert.assertEquals( asMap.get("WorldLocation"), Arrays.asList(1.5, -2.5, 1e6) );
+		Assert.assertEquals( ((Map<?,?>)asMap.get("Orientation")).get("Psi"), 0.25f );
+
+		Spatial decoded = codec.decode( ByteBuffer.wrap(bytes) );
+		Assert.assertTrue( Arrays.equals(decoded.WorldLocation,spatial.WorldLocation) );
+		Assert.assertTrue( decoded.IsFrozen );
+		Assert.assertEquals( decoded.Orientation.Psi, 0.25f );
+		Assert.assertEquals( decoded.Orientation.Theta, 0f );
+		Assert.assertEquals( decoded.Orientation.Phi, -3f );
+		Assert.assertEquals( decoded.Marking, "Tank 1" );
+	}
+
+	/**
+	 * Variable arrays of records can be read as a list of maps or an array of bound objects,
+	 * and are encoded the same way as an HLAvariableArray of HLAfixedRecords.
+	 */
+	@Test
+	public void testArrayOfRecords() throws Exception
+	{
+		ArrayType type = new ArrayType( "OrientationArray", ORIENTATION );
+		HLAvariableArray<HLAfixedRecord> array =
+			factory.createHLAvariableArray( null, newOrientation(1f), newOrientation(2f) );
+
+		DatatypeCodec<Orientation[]> codec = DatatypeCodecs.forClass( type, Orientation[].class );
+		Orientation[] decoded = codec.decode( array.toByteArray() );
+		Assert.assertEquals( decoded.length, 2 );
+		Assert.assertEquals( decoded[1].Psi, 2f );
+		Assert.assertEquals( decoded[1].Phi, 2f );
+		Assert.assertEquals( codec.encode(decoded), array.toByteArray() );
+
+		List<?> asList = (List<?>)DatatypeCodecs.forDatatype( type ).decode( array.toByteArray() );
+		Assert.assertEquals( ((Map<?,?>)asList.get(0)).get("Theta"), 1f );
+	}
+
+	private HLAfixedRecord newOrientation( float value )
+	{
+		HLAfixedRecord record = factory.createHLAfixedRecord();
+		for( int i = 0; i < 3; i++ )
+			record.add( factory.createHLAfloat32BE(value) );
+
+		return record;
+	}
+
+	/**
+	 * The discriminant selects the alternative, with HLAother catching everything else and
+	 * alternatives without a datatype carrying nothing but the discriminant.
+	 */
+	@Test
+	public void testVariantRecord() throws Exception
+	{
+		EnumeratedType kind = new EnumeratedType( "Kind", INT32BE, "None", "Number", "Text", "Other" );
+		VariantRecordType type =
+			new VariantRecordType( "Variant",
+			                       "Kind",
+			                       kind,
+			                       Arrays.asList(new Alternative("Empty", NaType.INSTANCE, kind.valueOf("None")),
+			                                     new Alternative("Number", FLOAT64BE, kind.valueOf("Number")),
+			                                     new Alternative("Text", ASCII_STRING, Enumerator.HLA_OTHER)) );
+
+		@SuppressWarnings("unchecked")
+		DatatypeCodec<Map<String,Object>> codec =
+			(DatatypeCodec<Map<String,Object>>)DatatypeCodecs.forDatatype( type );
+
+		Map<String,Object> value = new HashMap<String,Object>();
+		value.put( "Kind", kind.valueOf("Number") );
+		value.put( "Number", 2.0 );
+		byte[] bytes = codec.encode( value );
+		byte[] expected = ByteBuffer.allocate(12).putInt(1).putDouble(2.0).array();
+		Assert.assertEquals( bytes, expected );
+		Assert.assertEquals( codec.decode(bytes), value );
+
+		value.clear();
+		value.put( "Kind", kind.valueOf("None") );
+		Assert.assertEquals( codec.encode(value), new byte[]{ 0, 0, 0, 0 } );
+		Assert.assertEquals( codec.decode(new byte[]{ 0, 0, 0, 0 }), value );
+
+		value.put( "Kind", kind.valueOf("Other") );
+		value.put( "Text", "x" );
+		Assert.assertEquals( codec.decode(codec.encode(value)), value );
+	}
+
+	/**
+	 * Bad values and bad bytes should come back as EncoderException and DecoderException, and
+	 * classes that can't be bound should be rejected when the codec is built.
+	 */
+	@Test
+	public void testErrors() throws Exception
+	{
+		@SuppressWarnings("unchecked")
+		DatatypeCodec<Map<String,Object>> codec =
+			(DatatypeCodec<Map<String,Object>>)DatatypeCodecs.forDatatype( ORIENTATION );
+
+		// missing field
+		Map<String,Object> value = new HashMap<String,Object>();
+		value.put( "Psi", 1f );
+		try
+		{
+			codec.encode( value );
+			Assert.fail( "Expected EncoderException for missing fields" );
+		}
+		catch( EncoderException ee )
+		{
+			// expected
+		}
+
+		// not enough room in the buffer
+		value.put( "Theta", 1f );
+		value.put( "Phi", 1f );
+		try
+		{
+			codec.encode( value, ByteBuffer.allocate(11) );
+			Assert.fail( "Expected EncoderException for a short buffer" );
+		}
+		catch( EncoderException ee )
+		{
+			// expected
+		}
+
+		// too few bytes
+		try
+		{
+			codec.decode( new byte[11] );
+			Assert.fail( "Expected DecoderException for too few bytes" );
+		}
+		catch( DecoderException de )
+		{
+			// expected
+		}
+
+		// wrong element count for a fixed array
+		DatatypeCodec<double[]> location =
+			DatatypeCodecs.forClass( new ArrayType("Location",FLOAT64BE,3), double[].class );
+		try
+		{
+			location.encode( new double[2] );
+			Assert.fail( "Expected EncoderException for the wrong element count" );
+		}
+		catch( EncoderException ee )
+		{
+			// expected
+		}
+
+		// a class without all the fields
+		try
+		{
+			DatatypeCodecs.forClass( SPATIAL, Orientation.class );
+			Assert.fail( "Expected IllegalArgumentException binding a class without the fields" );
+		}
+		catch( IllegalArgumentException iae )
+		{
+			// expected
+		}
+
+		// a datatype with no encoding
+		try
+		{
+			DatatypeCodecs.forDatatype( NaType.INSTANCE );
+			Assert.fail( "Expected IllegalArgumentException for the NA datatype" );
+		}
+		catch( IllegalArgumentException iae )
+		{
+			// expected
+		}
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+
+	///////////////////////////////////////////////////////////////////////////////////
+	///////////////////////////////// Private Classes /////////////////////////////////
+	///////////////////////////////////////////////////////////////////////////////////
+	public static class Spatial
+	{
+		public double[] WorldLocation;
+		public boolean IsFrozen;
+		public Orientation Orientation;
+		public String Marking;
+	}
+
+	public static class Orientation
+	{
+		public float Psi;
+		public float Theta;
+		public float Phi;
+	}
+}
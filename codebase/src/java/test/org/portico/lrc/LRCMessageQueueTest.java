@@ -0,0 +1,402 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.portico.bindings.jvm.JVMConnection;
+import org.portico.impl.hla1516e.Rti1516eAmbassador;
+import org.portico.lrc.services.object.msg.DiscoverObject;
+import org.portico.lrc.services.object.msg.UpdateAttributes;
+import org.portico.lrc.services.time.data.TimeStatus;
+import org.portico.lrc.services.time.data.TimeStatus.TriState;
+import org.portico.utils.messaging.PorticoMessage;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import hla.rti1516e.CallbackModel;
+import hla.rti1516e.NullFederateAmbassador;
+import hla.rti1516e.ResignAction;
+import hla.rti1516e.RtiFactoryFactory;
+
+/**
+ * Drives the {@link LRCMessageQueue} from several offering threads at once while another takes
+ * from it, and checks the release rules for receive order and timestamp order messages.
+ * <p/>
+ * The queue gets the time status of the federate from the LRC state, so an LRC is joined to a
+ * federation over the JVM binding. Each test uses a fresh queue over the state of that LRC, and
+ * puts the time status back the way it found it when it is done.
+ */
+@Test(sequential=true, groups={"LRCMessageQueueTest","utils"})
+public class LRCMessageQueueTest
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final String FEDERATION = "LRCMessageQueueTest";
+	private static final int PRODUCERS = 4;
+	private static final int PER_PRODUCER = 2500;
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private Rti1516eAmbassador rtiamb;
+	private LRC lrc;
+	private TimeStatus timeStatus;
+	private TimeStatus previousStatus;
+	private LRCMessageQueue queue;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@BeforeClass(alwaysRun=true)
+	public void beforeClass() throws Exception
+	{
+		// whatever binding the tests are running on, the LRC is only here to hold state
+		String previousConnection = System.getProperty( PorticoConstants.PROPERTY_CONNECTION );
+		System.setProperty( PorticoConstants.PROPERTY_CONNECTION,
+		                    JVMConnection.class.getCanonicalName() );
+		try
+		{
+			this.rtiamb = (Rti1516eAmbassador)RtiFactoryFactory.getRtiFactory().getRtiAmbassador();
+		}
+		finally
+		{
+			if( previousConnection == null )
+				System.clearProperty( PorticoConstants.PROPERTY_CONNECTION );
+			else
+				System.setProperty( PorticoConstants.PROPERTY_CONNECTION, previousConnection );
+		}
+
+		rtiamb.connect( new NullFederateAmbassador(), CallbackModel.HLA_EVOKED );
+		rtiamb.createFederationExecution( FEDERATION,
+		                                  ClassLoader.getSystemResource("fom/ieee1516e/testfom.xml") );
+		rtiamb.joinFederationExecution( "queue", "TestFederate", FEDERATION );
+		this.lrc = rtiamb.getHelper().getLrc();
+		this.timeStatus = lrc.getState().getTimeStatus();
+	}
+
+	@BeforeMethod(alwaysRun=true)
+	public void beforeMethod()
+	{
+		this.previousStatus = timeStatus.copy();
+		this.queue = new LRCMessageQueue( lrc.getState() );
+	}
+
+	@AfterMethod(alwaysRun=true)
+	public void afterMethod()
+	{
+		timeStatus.setConstrained( previousStatus.getConstrained() );
+		timeStatus.setAsynchronous( previousStatus.isAsynchronous() );
+		timeStatus.setRequestedTime( previousStatus.getRequestedTime() );
+	}
+
+	@AfterClass(alwaysRun=true)
+	public void afterClass() throws Exception
+	{
+		rtiamb.resignFederationExecution( ResignAction.DELETE_OBJECTS );
+		rtiamb.destroyFederationExecution( FEDERATION );
+		rtiamb.disconnect();
+	}
+
+	/**
+	 * Create a reflection whose object handle records which producer sent it, and in what order
+	 */
+	private UpdateAttributes update( int producer, int sequence, double time )
+	{
+		return new UpdateAttributes( producer*PER_PRODUCER+sequence,
+		                             new byte[0],
+		                             new HashMap<Integer,byte[]>(),
+		                             time );
+	}
+
+	private UpdateAttributes update( int producer, int sequence )
+	{
+		return update( producer, sequence, PorticoConstants.NULL_TIME );
+	}
+
+	/**
+	 * Start a thread for each producer that waits for the gate to open, then passes each of its
+	 * sequence numbers to the given offerer.
+	 */
+	private List<Thread> startProducers( CountDownLatch gate, Offerer offerer )
+	{
+		List<Thread> producers = new ArrayList<Thread>();
+		for( int i = 0; i < PRODUCERS; i++ )
+		{
+			final int producer = i;
+			Thread thread = new Thread( "producer-"+producer )
+			{
+				public void run()
+				{
+					try
+					{
+						gate.await();
+						for( int sequence = 0; sequence < PER_PRODUCER; sequence++ )
+							offerer.offer( producer, sequence );
+					}
+					catch( InterruptedException ie )
+					{
+						// the test will fail on the count
+					}
+				}
+			};
+
+			thread.start();
+			producers.add( thread );
+		}
+
+		return producers;
+	}
+
+	private void joinAll( List<Thread> threads ) throws InterruptedException
+	{
+		for( Thread thread : threads )
+		{
+			thread.join( 10000 );
+			Assert.assertFalse( thread.isAlive(), thread.getName()+" did not finish" );
+		}
+	}
+
+	////////////////////////////////////////////////////////////////////////////////////////
+	///////////////////////////////// Offer and Poll Tests /////////////////////////////////
+	////////////////////////////////////////////////////////////////////////////////////////
+	////////////////////////////////////////
+	// TEST: testConcurrentOfferAndPoll() //
+	////////////////////////////////////////
+	@Test
+	public void testConcurrentOfferAndPoll() throws Exception
+	{
+		// take from the queue while the producers offer to it, checking each producer's
+		// messages come out in the order it offered them and that the size never goes negative
+		final int total = PRODUCERS * PER_PRODUCER;
+		final int[] lastSeen = new int[PRODUCERS];
+		final AtomicInteger received = new AtomicInteger( 0 );
+		final AtomicInteger outOfOrder = new AtomicInteger( 0 );
+		final AtomicInteger lowestSize = new AtomicInteger( 0 );
+		final AtomicBoolean running = new AtomicBoolean( true );
+		Arrays.fill( lastSeen, -1 );
+
+		Thread consumer = new Thread( "consumer" )
+		{
+			public void run()
+			{
+				long deadline = System.currentTimeMillis() + 10000;
+				while( received.get() < total && System.currentTimeMillis() < deadline )
+				{
+					PorticoMessage message = queue.poll( TimeUnit.MILLISECONDS.toNanos(100) );
+					if( message == null )
+						continue;
+
+					int handle = ((UpdateAttributes)message).getObjectId();
+					int producer = handle / PER_PRODUCER;
+					if( handle % PER_PRODUCER != lastSeen[producer]+1 )
+						outOfOrder.incrementAndGet();
+
+					lastSeen[producer] = handle % PER_PRODUCER;
+					received.incrementAndGet();
+				}
+			}
+		};
+
+		Thread watcher = new Thread( "watcher" )
+		{
+			public void run()
+			{
+				while( running.get() )
+				{
+					int size = queue.getSize();
+					if( size < lowestSize.get() )
+						lowestSize.set( size );
+				}
+			}
+		};
+
+		CountDownLatch gate = new CountDownLatch( 1 );
+		consumer.start();
+		watcher.start();
+		List<Thread> producers = startProducers( gate, (producer,sequence) ->
+			queue.offer(update(producer,sequence)) );
+		gate.countDown();
+
+		joinAll( producers );
+		consumer.join( 15000 );
+		running.set( false );
+		watcher.join();
+
+		Assert.assertEquals( received.get(), total, "Wrong number of messages taken" );
+		Assert.assertEquals( outOfOrder.get(), 0, "Messages from one producer were reordered" );
+		Assert.assertEquals( lowestSize.get(), 0, "Queue size was negative" );
+		Assert.assertEquals( queue.getSize(), 0 );
+		Assert.assertTrue( queue.isEmpty() );
+		Assert.assertNull( queue.poll() );
+	}
+
+	//////////////////////////////////////////
+	// TEST: testDrainToStopsAtNonMessage() //
+	//////////////////////////////////////////
+	@Test
+	public void testDrainToStopsAtNonMessage()
+	{
+		queue.offer( update(0,0) );
+		queue.offer( update(0,1) );
+		queue.offer( new DiscoverObject() );
+		queue.offer( update(0,2) );
+		queue.offer( update(0,3) );
+
+		// the discovery could change what is releasable, so the batch must end with it
+		List<PorticoMessage> sink = new ArrayList<PorticoMessage>();
+		Assert.assertEquals( queue.drainTo(sink,10), 3 );
+		Assert.assertEquals( ((UpdateAttributes)sink.get(0)).getObjectId(), 0 );
+		Assert.assertEquals( ((UpdateAttributes)sink.get(1)).getObjectId(), 1 );
+		Assert.assertTrue( sink.get(2) instanceof DiscoverObject );
+		Assert.assertEquals( queue.getSize(), 2 );
+
+		// the maximum is respected
+		sink.clear();
+		Assert.assertEquals( queue.drainTo(sink,1), 1 );
+		Assert.assertEquals( ((UpdateAttributes)sink.get(0)).getObjectId(), 2 );
+		Assert.assertEquals( queue.drainTo(sink,10), 1 );
+		Assert.assertEquals( ((UpdateAttributes)sink.get(1)).getObjectId(), 3 );
+		Assert.assertEquals( queue.drainTo(sink,10), 0 );
+		Assert.assertTrue( queue.isEmpty() );
+	}
+
+	////////////////////////////////////////////////////////////////////////////////////////
+	///////////////////////////////// Release Rule Tests ///////////////////////////////////
+	////////////////////////////////////////////////////////////////////////////////////////
+	/////////////////////////////////////////////
+	// TEST: testHeldMessagesReleasedInOrder() //
+	/////////////////////////////////////////////
+	@Test
+	public void testHeldMessagesReleasedInOrder() throws Exception
+	{
+		// constrained, not asynchronous and not advancing: only non-messages can come out
+		timeStatus.setConstrained( TriState.ON );
+		timeStatus.setAsynchronous( false );
+		Assert.assertFalse( timeStatus.isAdvanceRequestOutstanding() );
+
+		CountDownLatch gate = new CountDownLatch( 1 );
+		List<Thread> producers = startProducers( gate, (producer,sequence) -> {
+			queue.offer( update(producer,sequence) );
+			if( sequence % 100 == 0 )
+				queue.offer( new DiscoverObject() );
+		});
+		gate.countDown();
+
+		// take the discoveries while the reflections pile up behind them
+		int discoveries = 0;
+		long deadline = System.currentTimeMillis() + 10000;
+		int expected = PRODUCERS * (PER_PRODUCER/100);
+		while( discoveries < expected && System.currentTimeMillis() < deadline )
+		{
+			PorticoMessage message = queue.poll();
+			if( message == null )
+				continue;
+
+			Assert.assertTrue( message instanceof DiscoverObject, "Released a held reflection" );
+			++discoveries;
+		}
+
+		joinAll( producers );
+		Assert.assertEquals( discoveries, expected );
+		Assert.assertNull( queue.poll() );
+		Assert.assertEquals( queue.getSize(), PRODUCERS*PER_PRODUCER );
+
+		// once asynchronous delivery is on, the held reflections come out in the order they went in
+		timeStatus.setAsynchronous( true );
+		int[] lastSeen = new int[PRODUCERS];
+		Arrays.fill( lastSeen, -1 );
+		for( int i = 0; i < PRODUCERS*PER_PRODUCER; i++ )
+		{
+			UpdateAttributes update = (UpdateAttributes)queue.poll();
+			Assert.assertNotNull( update );
+			int producer = update.getObjectId() / PER_PRODUCER;
+			Assert.assertEquals( update.getObjectId() % PER_PRODUCER, lastSeen[producer]+1 );
+			lastSeen[producer] = update.getObjectId() % PER_PRODUCER;
+		}
+
+		Assert.assertNull( queue.poll() );
+		Assert.assertTrue( queue.isEmpty() );
+	}
+
+	/////////////////////////////////////////
+	// TEST: testTSOMessagesSortedOnPoll() //
+	/////////////////////////////////////////
+	@Test
+	public void testTSOMessagesSortedOnPoll() throws Exception
+	{
+		// each producer offers its own slice of the times, so they arrive interleaved
+		timeStatus.setConstrained( TriState.ON );
+		timeStatus.setRequestedTime( PER_PRODUCER*PRODUCERS/2 - 0.5 );
+
+		CountDownLatch gate = new CountDownLatch( 1 );
+		List<Thread> producers = startProducers( gate, (producer,sequence) ->
+			queue.offer(update(producer,sequence,sequence*PRODUCERS+producer)) );
+		gate.countDown();
+		joinAll( producers );
+
+		int total = PRODUCERS * PER_PRODUCER;
+		Assert.assertEquals( queue.getTSOSize(), total );
+		Assert.assertEquals( queue.getSize(), total );
+		Assert.assertEquals( queue.peekTSO().getTimestamp(), 0.0 );
+
+		// only up to the requested time is released, lowest first
+		for( int i = 0; i < total/2; i++ )
+		{
+			PorticoMessage message = queue.poll();
+			Assert.assertNotNull( message );
+			Assert.assertEquals( message.getTimestamp(), (double)i );
+		}
+
+		Assert.assertNull( queue.poll() );
+		Assert.assertEquals( queue.getTSOSize(), total/2 );
+
+		// move the requested time on and the rest follow
+		timeStatus.setRequestedTime( total );
+		List<PorticoMessage> sink = new ArrayList<PorticoMessage>();
+		Assert.assertEquals( queue.drainTo(sink,total), total/2 );
+		for( int i = 0; i < sink.size(); i++ )
+			Assert.assertEquals( sink.get(i).getTimestamp(), (double)(total/2+i) );
+
+		Assert.assertTrue( queue.isEmpty() );
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+	/////////////////////////////////////////////////////////////////////////////////////////
+	////////////////////////////////// Private Inner Class //////////////////////////////////
+	/////////////////////////////////////////////////////////////////////////////////////////
+	private interface Offerer
+	{
+		public void offer( int producer, int sequence );
+	}
+}
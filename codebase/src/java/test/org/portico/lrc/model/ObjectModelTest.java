@@ -0,0 +1,144 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.portico.utils.fom.FomParser;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Makes sure that the name lookups an {@link ObjectModel} does with its index once it is locked
+ * find exactly the same things as the lookups it does by walking the model when unlocked.
+ */
+@Test(groups={"ObjectModelTest","utils"})
+public class ObjectModelTest
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final String[] MODULES = { "fom/ieee1516e/HLAstandardMIM.xml",
+	                                          "fom/ieee1516e/restaurant/RestaurantProcesses.xml",
+	                                          "fom/ieee1516e/restaurant/RestaurantFood.xml",
+	                                          "fom/ieee1516e/restaurant/RestaurantDrinks.xml" };
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private ObjectModel model;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@BeforeMethod
+	public void beforeMethod() throws Exception
+	{
+		List<ObjectModel> modules = new ArrayList<ObjectModel>();
+		for( String module : MODULES )
+			modules.add( FomParser.parse(ClassLoader.getSystemResource(module)) );
+
+		this.model = ModelMerger.merge( modules );
+		ObjectModel.mommify( model );
+	}
+
+	@Test
+	public void testIndexedLookupsMatchUnindexed() throws Exception
+	{
+		List<Object> unlocked = lookupEverything();
+		model.lock();
+		Assert.assertNotNull( model.getIndex() );
+		Assert.assertEquals( lookupEverything(), unlocked );
+	}
+
+	@Test
+	public void testIndexRebuiltAfterChange() throws Exception
+	{
+		model.lock();
+		OCMetadata drink = model.getObjectClass( "HLAobjectRoot.Food.Drink" );
+		Assert.assertEquals( drink.getAttributeHandle("Ounces"), ObjectModel.INVALID_HANDLE );
+
+		// the model is locked, but attributes can still be added to the classes in it
+		ACMetadata ounces = model.newAttribute( "Ounces", null );
+		drink.addAttribute( ounces );
+		Assert.assertEquals( drink.getAttributeHandle("Ounces"), ounces.getHandle() );
+		Assert.assertEquals( model.findAttributeName(ounces.getHandle()), "Ounces" );
+
+		// merging more modules in rebuilds the index (and leaves the model locked)
+		List<ObjectModel> extensions = new ArrayList<ObjectModel>();
+		extensions.add( FomParser.parse(ClassLoader.getSystemResource(
+		                "fom/ieee1516e/restaurant/RestaurantSoup.xml")) );
+		ModelMerger.merge( model, extensions );
+		Assert.assertTrue( model.isLocked() );
+		Assert.assertNotNull( model.getObjectClass("Food.Appetizers.Soup.ClamChowder.Manhattan") );
+	}
+
+	/**
+	 * Look up every class, attribute, parameter and dimension in the model by each of the
+	 * names it can be found by, and return all the results in the order they were found.
+	 */
+	private List<Object> lookupEverything()
+	{
+		List<Object> found = new ArrayList<Object>();
+		for( OCMetadata oc : model.getAllObjectClasses() )
+		{
+			found.add( model.getObjectClass(oc.getQualifiedName()) );
+			found.add( model.getObjectClass(oc.getQualifiedName().toUpperCase()) );
+			found.add( model.getObjectClass(oc.getLocalName()) );
+			for( ACMetadata attribute : oc.getAllAttributes() )
+			{
+				found.add( oc.getAttributeHandle(attribute.getName()) );
+				found.add( model.getAttributeClass(oc.getHandle(),attribute.getName()) );
+				found.add( model.findAttributeName(attribute.getHandle()) );
+			}
+			found.add( oc.getAttributeHandle("HLAprivilegeToDelete") );
+			found.add( oc.getAttributeHandle("NoSuchAttribute") );
+		}
+
+		for( ICMetadata ic : model.getAllInteractionClasses() )
+		{
+			found.add( model.getInteractionClass(ic.getQualifiedName()) );
+			found.add( model.getInteractionClass(ic.getLocalName().toLowerCase()) );
+			for( PCMetadata parameter : ic.getAllParameters() )
+			{
+				found.add( ic.getParameterHandle(parameter.getName()) );
+				found.add( model.findParameterName(parameter.getHandle()) );
+			}
+			found.add( ic.getParameterHandle("NoSuchParameter") );
+		}
+
+		Space space = model.getSpace( ObjectModel.DIMENSIONS_SPACE.toLowerCase() );
+		found.add( space );
+		for( Dimension dimension : space.getDimensions() )
+		{
+			found.add( space.getDimension(dimension.getName()) );
+			found.add( space.getDimensionHandle(dimension.getName().toUpperCase()) );
+		}
+
+		found.add( model.getObjectClass("NoSuchClass") );
+		found.add( model.getInteractionClass("NoSuchClass") );
+		return found;
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -0,0 +1,199 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.services.object.data;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.portico.lrc.model.Dimension;
+import org.portico.lrc.model.RegionInstance;
+import org.portico.lrc.model.Space;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Makes sure the overlapping regions the {@link RegionStore} finds with its index are always
+ * the same as those found by comparing each region directly, as regions come and go and change.
+ */
+@Test(groups={"RegionStoreTest","utils"})
+public class RegionStoreTest
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final long SPACE_SIZE = 10000;
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private RegionStore store;
+	private Space space;
+	private Space otherSpace;
+	private Random random;
+	private int nextToken;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@BeforeMethod
+	public void beforeMethod()
+	{
+		this.store = new RegionStore( null );
+		this.space = new Space( "TestSpace", 1 );
+		this.space.addDimension( new Dimension("x",1) );
+		this.space.addDimension( new Dimension("y",2) );
+		this.otherSpace = new Space( "OtherSpace", 2 );
+		this.otherSpace.addDimension( new Dimension("z",3) );
+		this.random = new Random( 42 );
+		this.nextToken = 1;
+	}
+
+	@Test
+	public void testOverlapsMatchDirectComparison() throws Exception
+	{
+		List<RegionInstance> added = new ArrayList<RegionInstance>();
+		for( int i = 0; i < 500; i++ )
+		{
+			RegionInstance region = createRegion( space, 1+random.nextInt(3) );
+			store.addRegion( region );
+			added.add( region );
+		}
+
+		// regions in another space never overlap with ours
+		for( int i = 0; i < 50; i++ )
+			store.addRegion( createRegion(otherSpace,1) );
+
+		checkOverlaps( added );
+
+		// move some around and take some away
+		for( int i = 0; i < 200; i++ )
+		{
+			RegionInstance region = added.get( random.nextInt(added.size()) );
+			RegionInstance newValues = createRegion( space, region.getSize() );
+			newValues.setToken( region.getToken() );
+			store.updateRegion( region, newValues );
+		}
+
+		for( int i = 0; i < 200; i++ )
+			store.removeRegion( added.remove(random.nextInt(added.size())) );
+
+		checkOverlaps( added );
+
+		// remove the rest and make sure nothing is left behind
+		for( RegionInstance region : added )
+			store.removeRegion( region.getToken() );
+
+		Assert.assertTrue( store.getOverlappingRegions(createRegion(space,1)).isEmpty() );
+	}
+
+	@Test
+	public void testFindOverlappingRegionInCandidates() throws Exception
+	{
+		RegionInstance region = createRegion( space, 1, 0, 100 );
+		RegionInstance overlapping = createRegion( space, 1, 50, 150 );
+		RegionInstance touching = createRegion( space, 1, 100, 200 );
+		store.addRegion( region );
+		store.addRegion( overlapping );
+		store.addRegion( touching );
+
+		// the upper bound is not inclusive, so the regions that just touch don't overlap
+		Set<RegionInstance> candidates = new HashSet<RegionInstance>();
+		candidates.add( touching );
+		Assert.assertNull( store.findOverlappingRegion(region,candidates,null) );
+
+		// make sure the index gets used as well as the direct comparison
+		for( int i = 0; i < 10; i++ )
+		{
+			RegionInstance faraway = createRegion( space, 1, 5000, 6000 );
+			store.addRegion( faraway );
+			candidates.add( faraway );
+		}
+		Assert.assertNull( store.findOverlappingRegion(region,candidates,null) );
+
+		candidates.add( overlapping );
+		Assert.assertSame( store.findOverlappingRegion(region,candidates,null), overlapping );
+	}
+
+	private void checkOverlaps( List<RegionInstance> regions )
+	{
+		for( RegionInstance region : regions )
+		{
+			Set<Integer> expected = new TreeSet<Integer>();
+			for( RegionInstance other : regions )
+			{
+				if( region.overlapsWith(other) )
+					expected.add( other.getToken() );
+			}
+
+			Set<Integer> found = new TreeSet<Integer>();
+			for( RegionInstance other : store.getOverlappingRegions(region) )
+				found.add( other.getToken() );
+
+			Assert.assertEquals( found, expected, "Wrong overlaps for "+region.toVerboseString() );
+		}
+	}
+
+	/**
+	 * Create a region with extents of a random size in random places
+	 */
+	private RegionInstance createRegion( Space space, int extents ) throws Exception
+	{
+		RegionInstance region = new RegionInstance( 1, nextToken++, space, extents );
+		for( int i = 0; i < extents; i++ )
+		{
+			for( Dimension dimension : space.getDimensions() )
+			{
+				long lower = (long)random.nextInt( (int)SPACE_SIZE );
+				long upper = Math.min( SPACE_SIZE, lower + random.nextInt(500) );
+				region.setRangeLowerBound( i, dimension.getHandle(), lower );
+				region.setRangeUpperBound( i, dimension.getHandle(), upper );
+			}
+		}
+
+		return region;
+	}
+
+	/**
+	 * Create a region with the same bounds for every dimension of every extent
+	 */
+	private RegionInstance createRegion( Space space, int extents, long lower, long upper )
+		throws Exception
+	{
+		RegionInstance region = new RegionInstance( 1, nextToken++, space, extents );
+		for( int i = 0; i < extents; i++ )
+		{
+			for( Dimension dimension : space.getDimensions() )
+			{
+				region.setRangeLowerBound( i, dimension.getHandle(), lower );
+				region.setRangeUpperBound( i, dimension.getHandle(), upper );
+			}
+		}
+
+		return region;
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -0,0 +1,79 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.services.sync.msg;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Checks that the winning registrant and the message survive the trip through a veto created
+ * by {@link SyncRegistrationRequest#createVeto(int, String)}, and that vetoes which don't name
+ * a registrant are passed through untouched.
+ */
+@Test(groups={"SyncRegistrationRequestTest","utils"})
+public class SyncRegistrationRequestTest
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@Test
+	public void testVetoRoundTrip()
+	{
+		String veto = SyncRegistrationRequest.createVeto( 3, "point already registered by [a]" );
+		Assert.assertEquals( SyncRegistrationRequest.getVetoRegistrant(veto), 3 );
+		Assert.assertEquals( SyncRegistrationRequest.getVetoMessage(veto),
+		                     "point already registered by [a]" );
+	}
+
+	@Test
+	public void testVetoMessageContainingSeparator()
+	{
+		// only the first separator belongs to the veto, the message can have its own
+		String veto = SyncRegistrationRequest.createVeto( 12, "registered by [a:b]: sorry" );
+		Assert.assertEquals( SyncRegistrationRequest.getVetoRegistrant(veto), 12 );
+		Assert.assertEquals( SyncRegistrationRequest.getVetoMessage(veto),
+		                     "registered by [a:b]: sorry" );
+	}
+
+	@Test
+	public void testVetoWithoutRegistrant()
+	{
+		// e.g. the name of an exception, passed back when a handler failed without a message
+		Assert.assertEquals( SyncRegistrationRequest.getVetoRegistrant("JRTIinternalError"), -1 );
+		Assert.assertEquals( SyncRegistrationRequest.getVetoMessage("JRTIinternalError"),
+		                     "JRTIinternalError" );
+
+		// a separator with no handle in front of it isn't a registrant either
+		Assert.assertEquals( SyncRegistrationRequest.getVetoRegistrant("federate:gone"), -1 );
+		Assert.assertEquals( SyncRegistrationRequest.getVetoMessage("federate:gone"),
+		                     "federate:gone" );
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
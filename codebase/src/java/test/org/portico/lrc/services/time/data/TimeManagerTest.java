@@ -0,0 +1,129 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.lrc.services.time.data;
+
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Makes sure the federation LBTS the {@link TimeManager} keeps up to date as federates change
+ * is always the lowest LBTS of the regulating federates.
+ */
+@Test(groups={"TimeManagerTest","utils"})
+public class TimeManagerTest
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+	private TimeManager manager;
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@BeforeMethod
+	public void beforeMethod()
+	{
+		this.manager = new TimeManager();
+		for( int i = 1; i <= 5; i++ )
+			manager.joinedFederation( i, null );
+	}
+
+	@Test
+	public void testLBTSWithNoRegulatingFederates()
+	{
+		Assert.assertEquals( manager.getLBTS(), Double.MAX_VALUE );
+		manager.enableConstrained( 1 );
+		Assert.assertEquals( manager.getLBTS(), Double.MAX_VALUE );
+	}
+
+	@Test
+	public void testLBTSFollowsRegulatingFederates()
+	{
+		manager.enableRegulating( 1, 10.0, 1.0 );
+		manager.enableRegulating( 2, 5.0, 1.0 );
+		manager.enableRegulating( 3, 20.0, 5.0 );
+		Assert.assertEquals( manager.getLBTS(), 6.0 );
+
+		// move the lowest federate past the others
+		manager.setCurrentTime( 2, 30.0 );
+		Assert.assertEquals( manager.getLBTS(), 11.0 );
+
+		// drop the lowest federate's lookahead below the others
+		manager.setLookahead( 3, 0.0 );
+		manager.setCurrentTime( 3, 2.0 );
+		Assert.assertEquals( manager.getLBTS(), 2.0 );
+
+		// take it out of the picture
+		manager.disableRegulating( 3 );
+		Assert.assertEquals( manager.getLBTS(), 11.0 );
+		manager.resignedFederation( 1 );
+		Assert.assertEquals( manager.getLBTS(), 31.0 );
+		manager.disableRegulating( 2 );
+		Assert.assertEquals( manager.getLBTS(), Double.MAX_VALUE );
+	}
+
+	@Test
+	public void testLBTSMatchesFullRecalculation()
+	{
+		Random random = new Random( 42 );
+		for( int i = 1; i <= 5; i++ )
+			manager.enableRegulating( i, random.nextInt(100), 1.0 );
+
+		for( int i = 0; i < 1000; i++ )
+		{
+			int federate = random.nextInt(5) + 1;
+			switch( random.nextInt(4) )
+			{
+				case 0:
+					manager.getTimeStatus(federate).timeAdvanceRequested( random.nextInt(100) );
+					manager.updateLBTS( federate );
+					break;
+				case 1:
+					manager.setLookahead( federate, random.nextInt(10) );
+					break;
+				case 2:
+					if( manager.isRegulating(federate) )
+						manager.disableRegulating( federate );
+					else
+						manager.enableRegulating( federate, random.nextInt(100), 1.0 );
+					break;
+				default:
+					manager.setCurrentTime( federate, random.nextInt(100) );
+					break;
+			}
+
+			double expected = Double.MAX_VALUE;
+			for( Integer handle : manager.getRegulatingFederates() )
+				expected = Math.min( expected, manager.getLBTS(handle) );
+
+			Assert.assertEquals( manager.getLBTS(), expected );
+		}
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
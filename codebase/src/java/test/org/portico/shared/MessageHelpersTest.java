@@ -14,15 +14,40 @@
  */
 package org.portico.shared;
 
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import org.portico.impl.hla13.fomparser.FOM;
 import org.portico.lrc.model.ACMetadata;
+import org.portico.lrc.model.Dimension;
+import org.portico.lrc.model.Extent;
 import org.portico.lrc.model.ICMetadata;
 import org.portico.lrc.model.OCMetadata;
 import org.portico.lrc.model.ObjectModel;
 import org.portico.lrc.model.PCMetadata;
+import org.portico.lrc.model.RegionInstance;
+import org.portico.lrc.model.Space;
 import org.portico.lrc.services.federation.msg.CreateFederation;
 import org.portico.lrc.services.federation.msg.DestroyFederation;
+import org.portico.lrc.services.federation.msg.RoleCallObjects;
+import org.portico.lrc.services.object.msg.SendInteraction;
+import org.portico.lrc.services.object.msg.UpdateAttributes;
 import org.portico.lrc.utils.MessageHelpers;
+import org.portico.lrc.utils.MessageRegistry;
+import org.portico.utils.HandleValueMap;
+import org.portico.utils.messaging.PorticoMessage;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -33,9 +58,13 @@ public class MessageHelpersTest
 	//                    STATIC VARIABLES
 	//----------------------------------------------------------
 
+	/** How many elements to put in each array and collection we fill in */
+	private static final int ELEMENTS = 2;
+
 	//----------------------------------------------------------
 	//                   INSTANCE VARIABLES
 	//----------------------------------------------------------
+	private int seed; // bumped for every value we make up, so that no two fields share one
 
 	//----------------------------------------------------------
 	//                      CONSTRUCTORS
@@ -62,43 +91,7 @@ public class MessageHelpersTest
 		ObjectModel iModel = inflated.getModel();
 		Assert.assertNotNull( iModel );
 		
-		// validate the object classes
-		for( OCMetadata originalClass : model.getAllObjectClasses() )
-		{
-			OCMetadata inflatedClass = iModel.getObjectClass( originalClass.getHandle() );
-			Assert.assertEquals( inflatedClass.getQualifiedName(),
-			                     originalClass.getQualifiedName() );
-			
-			for( ACMetadata originalAttribute : originalClass.getDeclaredAttributes() )
-			{
-				ACMetadata inflatedAttribute = inflatedClass.getAttribute( originalAttribute.getHandle() );
-				Assert.assertEquals( inflatedAttribute.getName(),
-				                     originalAttribute.getName() );
-				Assert.assertEquals( inflatedAttribute.getOrder(),
-				                     originalAttribute.getOrder() );
-				//Assert.assertEquals( inflatedAttribute.getSpace(),
-				//                     originalAttribute.getSpace() );
-				Assert.assertEquals( inflatedAttribute.getTransport(),
-				                     originalAttribute.getTransport() );
-			}
-		}
-		
-		// validate the interaction classes
-		for( ICMetadata originalClass : model.getAllInteractionClasses() )
-		{
-			ICMetadata inflatedClass = iModel.getInteractionClass( originalClass.getHandle() );
-			Assert.assertEquals( inflatedClass.getQualifiedName(),
-			                     originalClass.getQualifiedName() );
-			Assert.assertEquals( inflatedClass.getOrder(), originalClass.getOrder() );
-			Assert.assertEquals( inflatedClass.getTransport(), originalClass.getTransport() );
-			
-			for( PCMetadata originalParameter : originalClass.getDeclaredParameters() )
-			{
-				PCMetadata inflatedParameter = inflatedClass.getParameter( originalParameter.getHandle() );
-				Assert.assertEquals( inflatedParameter.getName(),
-				                     originalParameter.getName() );
-			}
-		}
+		assertSameModel( model, iModel );
 	}
 	
 	/**
@@ -138,6 +131,383 @@ public class MessageHelpersTest
 		Assert.assertEquals( inflated.getFederationName(), request.getFederationName() );
 	}
 
+	/**
+	 * Make sure that an attribute update survives the trip with its binary tag and values intact,
+	 * including bytes that aren't valid characters and empty values.
+	 */
+	@Test
+	public void testDeflateThenInflateUpdate() throws Exception
+	{
+		byte[] tag = new byte[]{ (byte)0xff, 0, (byte)0x80, 42 };
+		HashMap<Integer,byte[]> attributes = new HashMap<Integer,byte[]>();
+		attributes.put( 1, new byte[]{ (byte)0xc3, (byte)0x28, 0, 0 } );
+		attributes.put( 2, new byte[0] );
+
+		UpdateAttributes original = new UpdateAttributes( 77, tag, attributes, 1.5 );
+		original.setSourceFederate( 3 );
+		byte[] deflated = MessageHelpers.deflate( original );
+
+		UpdateAttributes inflated = MessageHelpers.inflate( deflated, UpdateAttributes.class );
+		Assert.assertEquals( inflated.getObjectId(), 77 );
+		Assert.assertEquals( inflated.getSourceFederate(), 3 );
+		Assert.assertEquals( inflated.getTimestamp(), 1.5 );
+		Assert.assertEquals( inflated.getTag(), tag );
+		Assert.assertEquals( inflated.getAttributes().size(), 2 );
+		Assert.assertEquals( inflated.getAttributes().get(1), attributes.get(1) );
+		Assert.assertEquals( inflated.getAttributes().get(2), attributes.get(2) );
+	}
+
+	/**
+	 * Inflate an interaction from the middle of a larger buffer (as we do with ack requests) and
+	 * make sure its values are read from where they sit rather than the start of the buffer. The
+	 * tag is bigger than the 64k that writeUTF() used to limit us to.
+	 */
+	@Test
+	public void testInflateInteractionFromOffset() throws Exception
+	{
+		byte[] tag = new byte[70000];
+		for( int i = 0; i < tag.length; i++ )
+			tag[i] = (byte)i;
+
+		HashMap<Integer,byte[]> parameters = new HashMap<Integer,byte[]>();
+		parameters.put( 5, new byte[]{ (byte)0xfe, 1, 2 } );
+		parameters.put( 6, null );
+		byte[] data = MessageHelpers.deflate( new SendInteraction(12,tag,parameters) );
+
+		byte[] padded = new byte[data.length+8];
+		System.arraycopy( data, 0, padded, 4, data.length );
+		SendInteraction inflated = MessageHelpers.inflate( padded,
+		                                                   4,
+		                                                   data.length,
+		                                                   SendInteraction.class );
+		Assert.assertEquals( inflated.getInteractionId(), 12 );
+		Assert.assertEquals( inflated.getParameterHandles(), parameters.keySet() );
+		Assert.assertEquals( inflated.getParameterValue(5), parameters.get(5) );
+		Assert.assertNull( inflated.getParameterValue(6) );
+		Assert.assertNull( inflated.getParameterValue(7) );
+		Assert.assertEquals( inflated.getTag(), tag );
+		Assert.assertEquals( inflated.getParameters().get(5), parameters.get(5) );
+	}
+
+	/**
+	 * Every message type in the registry should come back from a round trip with the same value
+	 * in every field it sends. The hlaunit suites run over the JVM binding, which never turns
+	 * messages into bytes, so this is the only place most of the message codecs get run. Each
+	 * field is given a different value that isn't its default, so a codec that misses a field,
+	 * or reads two back in the wrong order, won't get away with it.
+	 */
+	@Test
+	public void testEveryRegisteredTypeRoundTrips() throws Exception
+	{
+		ObjectModel model = FOM.parseFOM( ClassLoader.getSystemResource("fom/testfom.fed") );
+		Map<Integer,Class<? extends PorticoMessage>> types = MessageRegistry.getRegisteredTypes();
+		Assert.assertFalse( types.isEmpty() );
+
+		for( Class<? extends PorticoMessage> type : types.values() )
+		{
+			PorticoMessage original = MessageRegistry.newMessage( MessageRegistry.getTypeId(type) );
+			populate( original, type, model );
+
+			PorticoMessage inflated = null;
+			try
+			{
+				byte[] deflated = MessageHelpers.deflate( original );
+				inflated = MessageHelpers.inflate( deflated, PorticoMessage.class );
+			}
+			catch( RuntimeException re )
+			{
+				Assert.fail( "Round trip failed for "+type.getSimpleName(), re );
+			}
+
+			Assert.assertSame( inflated.getClass(), type );
+			readThroughGetters( inflated );
+			assertSameFields( type.getSimpleName(), original, inflated, type );
+		}
+	}
+
+	////////////////////////////////////////////////////////////////////////////////////////
+	//////////////////////////////// Round Trip Helpers ////////////////////////////////////
+	////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Give every field of the target that gets sent (everything that isn't static or transient)
+	 * a value, including those it inherits.
+	 */
+	private void populate( Object target, Class<?> type, ObjectModel model ) throws Exception
+	{
+		for( Field field : sentFields(type) )
+			field.set( target, sample(field.getGenericType(),model) );
+
+		// the count says how many entries of its arrays to send
+		if( target instanceof RoleCallObjects )
+		{
+			Field count = RoleCallObjects.class.getDeclaredField( "count" );
+			count.setAccessible( true );
+			count.setInt( target, ELEMENTS );
+		}
+	}
+
+	/**
+	 * Make up a value of the given type that won't be the same as any other we have made
+	 */
+	private Object sample( Type type, ObjectModel model ) throws Exception
+	{
+		int next = ++seed;
+		Type[] arguments = new Type[0];
+		Class<?> raw;
+		if( type instanceof ParameterizedType )
+		{
+			arguments = ((ParameterizedType)type).getActualTypeArguments();
+			raw = (Class<?>)((ParameterizedType)type).getRawType();
+		}
+		else
+		{
+			raw = (Class<?>)type;
+		}
+
+		if( raw == int.class || raw == Integer.class )
+			return next;
+		else if( raw == long.class || raw == Long.class )
+			return (long)next << 33;
+		else if( raw == short.class || raw == Short.class )
+			return (short)next;
+		else if( raw == byte.class || raw == Byte.class )
+			return (byte)(next * -37);
+		else if( raw == double.class || raw == Double.class )
+			return next + 0.25;
+		else if( raw == boolean.class || raw == Boolean.class )
+			return true;
+		else if( raw == String.class )
+			return "value"+next;
+		else if( raw.isEnum() )
+		{
+			// stay away from the first constant, it's usually the default
+			Object[] constants = raw.getEnumConstants();
+			return constants.length == 1 ? constants[0] : constants[1 + next % (constants.length-1)];
+		}
+		else if( raw.isArray() )
+		{
+			Object array = Array.newInstance( raw.getComponentType(), ELEMENTS );
+			for( int i = 0; i < ELEMENTS; i++ )
+				Array.set( array, i, sample(raw.getComponentType(),model) );
+			return array;
+		}
+		else if( raw == HandleValueMap.class )
+		{
+			HandleValueMap map = new HandleValueMap();
+			for( int i = 0; i < ELEMENTS; i++ )
+				map.put( (Integer)sample(int.class,model), (byte[])sample(byte[].class,model) );
+			return map;
+		}
+		else if( Set.class.isAssignableFrom(raw) )
+		{
+			Set<Object> set = new HashSet<Object>();
+			for( int i = 0; i < ELEMENTS; i++ )
+				set.add( sample(arguments[0],model) );
+			return set;
+		}
+		else if( Collection.class.isAssignableFrom(raw) )
+		{
+			List<Object> list = new ArrayList<Object>();
+			for( int i = 0; i < ELEMENTS; i++ )
+				list.add( sample(arguments[0],model) );
+			return list;
+		}
+		else if( Map.class.isAssignableFrom(raw) )
+		{
+			Map<Object,Object> map = new HashMap<Object,Object>();
+			for( int i = 0; i < ELEMENTS; i++ )
+				map.put( sample(arguments[0],model), sample(arguments[1],model) );
+			return map;
+		}
+		else if( raw == ObjectModel.class )
+		{
+			return model;
+		}
+		else if( raw == RegionInstance.class )
+		{
+			Space space = model.getAllSpaces().iterator().next();
+			RegionInstance region = new RegionInstance( next, next+1, space, ELEMENTS );
+			for( int i = 0; i < ELEMENTS; i++ )
+			{
+				for( Dimension dimension : space.getDimensions() )
+				{
+					region.setRangeLowerBound( i, dimension.getHandle(), ++seed );
+					region.setRangeUpperBound( i, dimension.getHandle(), ++seed * 100 );
+				}
+			}
+			return region;
+		}
+		else
+		{
+			// something of our own with a no-arg constructor, fill it in the same way
+			Constructor<?> constructor = raw.getDeclaredConstructor();
+			constructor.setAccessible( true );
+			Object value = constructor.newInstance();
+			populate( value, raw, model );
+			return value;
+		}
+	}
+
+	/**
+	 * Some values are only read out of the received bytes when they are first asked for, so ask
+	 * for everything the way a federate would before we go looking at the fields.
+	 */
+	private void readThroughGetters( PorticoMessage message ) throws Exception
+	{
+		for( Method method : message.getClass().getMethods() )
+		{
+			if( method.getParameterCount() == 0 &&
+			    Modifier.isStatic(method.getModifiers()) == false &&
+			    (method.getName().startsWith("get") || method.getName().startsWith("is")) )
+			{
+				method.invoke( message );
+			}
+		}
+	}
+
+	/**
+	 * Check that every field that gets sent has the same value in both objects
+	 */
+	private void assertSameFields( String path, Object expected, Object actual, Class<?> type )
+		throws Exception
+	{
+		for( Field field : sentFields(type) )
+		{
+			assertSameValue( path+"."+field.getName(), field.get(expected), field.get(actual) );
+		}
+	}
+
+	private void assertSameValue( String path, Object expected, Object actual ) throws Exception
+	{
+		if( expected == null )
+		{
+			Assert.assertNull( actual, path );
+			return;
+		}
+
+		Assert.assertNotNull( actual, path );
+		if( expected.getClass().isArray() )
+		{
+			Assert.assertEquals( Array.getLength(actual), Array.getLength(expected), path );
+			for( int i = 0; i < Array.getLength(expected); i++ )
+				assertSameValue( path+"["+i+"]", Array.get(expected,i), Array.get(actual,i) );
+		}
+		else if( expected instanceof ObjectModel )
+		{
+			assertSameModel( (ObjectModel)expected, (ObjectModel)actual );
+		}
+		else if( expected instanceof RegionInstance )
+		{
+			RegionInstance region = (RegionInstance)expected;
+			RegionInstance other = (RegionInstance)actual;
+			Assert.assertEquals( other.getToken(), region.getToken(), path );
+			Assert.assertEquals( other.getFederateHandle(), region.getFederateHandle(), path );
+			Assert.assertEquals( other.getSpaceHandle(), region.getSpaceHandle(), path );
+			Assert.assertEquals( other.getSize(), region.getSize(), path );
+			for( int i = 0; i < region.getSize(); i++ )
+			{
+				Extent extent = region.getExtent( i );
+				for( Integer dimension : extent.getAllRanges().keySet() )
+				{
+					Assert.assertEquals( other.getRangeLowerBound(i,dimension),
+					                     region.getRangeLowerBound(i,dimension), path );
+					Assert.assertEquals( other.getRangeUpperBound(i,dimension),
+					                     region.getRangeUpperBound(i,dimension), path );
+				}
+			}
+		}
+		else if( expected instanceof Map )
+		{
+			Map<?,?> map = (Map<?,?>)expected;
+			Assert.assertEquals( ((Map<?,?>)actual).keySet(), map.keySet(), path );
+			for( Object key : map.keySet() )
+				assertSameValue( path+"["+key+"]", map.get(key), ((Map<?,?>)actual).get(key) );
+		}
+		else if( expected instanceof List )
+		{
+			List<?> list = (List<?>)expected;
+			Assert.assertEquals( ((List<?>)actual).size(), list.size(), path );
+			for( int i = 0; i < list.size(); i++ )
+				assertSameValue( path+"["+i+"]", list.get(i), ((List<?>)actual).get(i) );
+		}
+		else if( expected.getClass().getName().startsWith("org.portico") &&
+		         expected.getClass().isEnum() == false )
+		{
+			assertSameFields( path, expected, actual, expected.getClass() );
+		}
+		else
+		{
+			Assert.assertEquals( actual, expected, path );
+		}
+	}
+
+	/**
+	 * @return Every field of the type (and its parents) that is sent, made accessible
+	 */
+	private List<Field> sentFields( Class<?> type )
+	{
+		List<Field> fields = new ArrayList<Field>();
+		for( Class<?> current = type; current != Object.class; current = current.getSuperclass() )
+		{
+			for( Field field : current.getDeclaredFields() )
+			{
+				int modifiers = field.getModifiers();
+				if( Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) )
+					continue;
+
+				field.setAccessible( true );
+				fields.add( field );
+			}
+		}
+
+		return fields;
+	}
+
+	/**
+	 * Make sure the inflated model has the same object and interaction classes as the original,
+	 * with the same attributes and parameters.
+	 */
+	private void assertSameModel( ObjectModel model, ObjectModel iModel )
+	{
+		// validate the object classes
+		for( OCMetadata originalClass : model.getAllObjectClasses() )
+		{
+			OCMetadata inflatedClass = iModel.getObjectClass( originalClass.getHandle() );
+			Assert.assertEquals( inflatedClass.getQualifiedName(),
+			                     originalClass.getQualifiedName() );
+			
+			for( ACMetadata originalAttribute : originalClass.getDeclaredAttributes() )
+			{
+				ACMetadata inflatedAttribute = inflatedClass.getAttribute( originalAttribute.getHandle() );
+				Assert.assertEquals( inflatedAttribute.getName(),
+				                     originalAttribute.getName() );
+				Assert.assertEquals( inflatedAttribute.getOrder(),
+				                     originalAttribute.getOrder() );
+				//Assert.assertEquals( inflatedAttribute.getSpace(),
+				//                     originalAttribute.getSpace() );
+				Assert.assertEquals( inflatedAttribute.getTransport(),
+				                     originalAttribute.getTransport() );
+			}
+		}
+		
+		// validate the interaction classes
+		for( ICMetadata originalClass : model.getAllInteractionClasses() )
+		{
+			ICMetadata inflatedClass = iModel.getInteractionClass( originalClass.getHandle() );
+			Assert.assertEquals( inflatedClass.getQualifiedName(),
+			                     originalClass.getQualifiedName() );
+			Assert.assertEquals( inflatedClass.getOrder(), originalClass.getOrder() );
+			Assert.assertEquals( inflatedClass.getTransport(), originalClass.getTransport() );
+			
+			for( PCMetadata originalParameter : originalClass.getDeclaredParameters() )
+			{
+				PCMetadata inflatedParameter = inflatedClass.getParameter( originalParameter.getHandle() );
+				Assert.assertEquals( inflatedParameter.getName(),
+				                     originalParameter.getName() );
+			}
+		}
+	}
+
 	//----------------------------------------------------------
 	//                     STATIC METHODS
 	//----------------------------------------------------------
@@ -0,0 +1,188 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * The C++ bindings read and write the buffers packed by {@link HandleValueBuffer} directly
+ * through their address, so these tests pin the layout down byte for byte: the offset of each
+ * handle, length and value, the -1 length used for nulls, and the native byte order.
+ */
+@Test(groups={"HandleValueBufferTest","utils"})
+public class HandleValueBufferTest
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final byte[] TWO   = new byte[]{ 2, 2 };
+	private static final byte[] THREE = new byte[]{ 3, 3, 3 };
+	private static final byte[] TAG   = new byte[]{ 't', 'a', 'g' };
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	private HandleValueMap values()
+	{
+		HandleValueMap values = new HandleValueMap();
+		values.put( 5, TWO );
+		values.put( 9, null );
+		values.put( 70000, THREE );
+		return values;
+	}
+
+	private void assertBytes( ByteBuffer buffer, int offset, byte[] expected )
+	{
+		for( int i = 0; i < expected.length; i++ )
+			Assert.assertEquals( buffer.get(offset+i), expected[i], "Byte "+(offset+i) );
+	}
+
+	/**
+	 * Read the buffer the way the C++ side does: as ints at fixed offsets in native order
+	 */
+	@Test
+	public void testLayoutWrittenForNative()
+	{
+		ByteBuffer buffer = HandleValueBuffer.write( values(), TAG );
+		Assert.assertTrue( buffer.isDirect(), "C++ can only get the address of a direct buffer" );
+		Assert.assertEquals( buffer.order(), ByteOrder.nativeOrder() );
+
+		ByteBuffer raw = buffer.duplicate().order( ByteOrder.nativeOrder() );
+		Assert.assertEquals( raw.getInt(0), 3 );      // count
+
+		Assert.assertEquals( raw.getInt(4), 5 );      // handle
+		Assert.assertEquals( raw.getInt(8), 2 );      // length
+		assertBytes( raw, 12, TWO );                  // value
+
+		Assert.assertEquals( raw.getInt(14), 9 );     // handle
+		Assert.assertEquals( raw.getInt(18), -1 );    // null value, no bytes follow
+
+		Assert.assertEquals( raw.getInt(22), 70000 ); // handle (needs more than two bytes)
+		Assert.assertEquals( raw.getInt(26), 3 );     // length
+		assertBytes( raw, 30, THREE );                // value
+
+		Assert.assertEquals( raw.getInt(33), 3 );     // tag length
+		assertBytes( raw, 37, TAG );                  // tag
+
+		// everything written is accounted for, with no padding anywhere
+		Assert.assertEquals( buffer.position(), 40 );
+		Assert.assertEquals( HandleValueBuffer.sizeOf(3,5,TAG), 40 );
+	}
+
+	@Test
+	public void testNullAndEmpty()
+	{
+		ByteBuffer buffer = HandleValueBuffer.write( new HandleValueMap(), null );
+		Assert.assertEquals( buffer.getInt(0), 0 );   // count
+		Assert.assertEquals( buffer.getInt(4), -1 );  // null tag
+		Assert.assertEquals( buffer.position(), HandleValueBuffer.sizeOf(0,0,null) );
+
+		buffer = HandleValueBuffer.write( new HandleValueMap(), new byte[0] );
+		Assert.assertEquals( buffer.getInt(4), 0 );   // empty tag isn't null
+	}
+
+	/**
+	 * Pack a buffer the way the C++ side does, and make sure the Java side reads it back
+	 */
+	@Test
+	public void testLayoutReadFromNative()
+	{
+		ByteBuffer buffer = ByteBuffer.allocateDirect( 64 ).order( ByteOrder.nativeOrder() );
+		buffer.putInt( 0, 2 );
+		buffer.putInt( 4, 70000 );
+		buffer.putInt( 8, 3 );
+		buffer.put( 12, (byte)3 ).put( 13, (byte)3 ).put( 14, (byte)3 );
+		buffer.putInt( 15, 9 );
+		buffer.putInt( 19, -1 );
+		buffer.putInt( 23, 3 );
+		buffer.put( 27, (byte)'t' ).put( 28, (byte)'a' ).put( 29, (byte)'g' );
+
+		// the C++ side leaves the position wherever it likes, reading starts at the front
+		buffer.position( 50 );
+		HandleValueMap values = HandleValueBuffer.readValues( buffer );
+		Assert.assertEquals( values.size(), 2 );
+		Assert.assertEquals( values.get(70000), THREE );
+		Assert.assertTrue( values.containsHandle(9) );
+		Assert.assertNull( values.get(9) );
+		Assert.assertEquals( HandleValueBuffer.readTag(buffer), TAG );
+		Assert.assertEquals( buffer.position(), 30 );
+	}
+
+	@Test
+	public void testRoundTrip()
+	{
+		HandleValueMap expected = values();
+		ByteBuffer buffer = HandleValueBuffer.write( expected, TAG );
+		HandleValueMap values = HandleValueBuffer.readValues( buffer );
+		byte[] tag = HandleValueBuffer.readTag( buffer );
+
+		Assert.assertEquals( values.size(), expected.size() );
+		for( int i = 0; i < expected.size(); i++ )
+		{
+			Assert.assertEquals( values.handleAt(i), expected.handleAt(i) );
+			Assert.assertEquals( values.valueAt(i), expected.valueAt(i) );
+		}
+
+		Assert.assertEquals( tag, TAG );
+
+		// what was read is a copy, so it survives the buffer being reused
+		HandleValueBuffer.write( new HandleValueMap(), null );
+		Assert.assertEquals( values.get(70000), THREE );
+	}
+
+	@Test
+	public void testBufferReusedAndGrown()
+	{
+		// small buffers are reused from call to call on the same thread
+		ByteBuffer first = HandleValueBuffer.begin( 1, 16 );
+		ByteBuffer second = HandleValueBuffer.begin( 1, 32 );
+		Assert.assertSame( second, first );
+		Assert.assertEquals( second.position(), 4 );  // count is already written
+
+		// a bigger one replaces it, and keeps the order C++ expects
+		int size = first.capacity() + 1;
+		ByteBuffer grown = HandleValueBuffer.begin( 1, size );
+		Assert.assertNotSame( grown, first );
+		Assert.assertTrue( grown.capacity() >= size );
+		Assert.assertTrue( grown.isDirect() );
+		Assert.assertEquals( grown.order(), ByteOrder.nativeOrder() );
+
+		// a big value still lands where it should
+		byte[] big = new byte[size];
+		big[size-1] = 42;
+		HandleValueMap values = new HandleValueMap();
+		values.put( 1, big );
+		ByteBuffer buffer = HandleValueBuffer.write( values, TAG );
+		Assert.assertEquals( buffer.getInt(8), size );
+		Assert.assertEquals( buffer.get(12+size-1), (byte)42 );
+		Assert.assertEquals( buffer.getInt(12+size), TAG.length );
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
@@ -0,0 +1,189 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.utils;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.portico.impl.hla1516e.types.HLA1516eAttributeHandleValueMap;
+import org.portico.impl.hla1516e.types.HLA1516eHandle;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import hla.rti1516e.AttributeHandle;
+
+@Test(groups={"HandleValueMapTest","utils"})
+public class HandleValueMapTest
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+	private static final byte[] ONE   = new byte[]{ 1 };
+	private static final byte[] TWO   = new byte[]{ 2, 2 };
+	private static final byte[] THREE = new byte[]{ 3, 3, 3 };
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	/**
+	 * The map should behave the same as a HashMap with the same contents, no matter what order
+	 * the values are put in, and keep its handles in order.
+	 */
+	@Test
+	public void testBehavesAsMap()
+	{
+		HandleValueMap map = new HandleValueMap( 1 );
+		Map<Integer,byte[]> expected = new HashMap<Integer,byte[]>();
+		int[] handles = { 30, 10, 20, 50, 40, 10 };
+		for( int handle : handles )
+		{
+			byte[] value = new byte[]{ (byte)handle };
+			Assert.assertEquals( map.put(handle,value), expected.put(handle,value) );
+		}
+
+		Assert.assertEquals( map, expected );
+		Assert.assertTrue( Arrays.equals(map.getHandles(),new int[]{ 10, 20, 30, 40, 50 }) );
+		Assert.assertNull( map.get(15) );
+		Assert.assertNull( map.get("10") );
+
+		// remove through the primitive method, the map method and an iterator
+		Assert.assertEquals( map.remove(30), expected.remove(30) );
+		Assert.assertEquals( map.remove((Object)Integer.valueOf(10)), expected.remove(10) );
+		Iterator<Map.Entry<Integer,byte[]>> iterator = map.entrySet().iterator();
+		while( iterator.hasNext() )
+		{
+			if( iterator.next().getKey() == 40 )
+				iterator.remove();
+		}
+		expected.remove( 40 );
+
+		Assert.assertEquals( map, expected );
+		Assert.assertEquals( map.handleAt(0), 20 );
+		Assert.assertEquals( map.handleAt(1), 50 );
+	}
+
+	/**
+	 * Values put in as slices of a larger buffer should only be copied out when asked for, and
+	 * should survive the map being copied.
+	 */
+	@Test
+	public void testSlices()
+	{
+		ByteBuffer received = ByteBuffer.wrap( new byte[]{ 9, 1, 2, 2, 3, 3, 3, 9 } );
+		HandleValueMap map = new HandleValueMap();
+		map.putSlice( 1, slice(received,1,1) );
+		map.putSlice( 3, slice(received,4,3) );
+		map.putSlice( 2, slice(received,2,2) );
+		map.putSlice( 4, null );
+
+		HandleValueMap copy = new HandleValueMap( map );
+		Assert.assertEquals( map.get(1), ONE );
+		Assert.assertEquals( map.get(2), TWO );
+		Assert.assertEquals( map.valueAt(2), THREE );
+		Assert.assertNull( map.get(4) );
+		Assert.assertTrue( map.containsHandle(4) );
+
+		// the copy should get its own values out of the slices
+		Assert.assertEquals( copy.get(3), THREE );
+		Assert.assertNotSame( copy.get(3), map.get(3) );
+
+		// replacing a slice with a value should leave no trace of the slice
+		map.put( 2, ONE );
+		Assert.assertEquals( map.get(2), ONE );
+		Assert.assertEquals( copy.get(2), TWO );
+	}
+
+	/**
+	 * Putting one map into another should replace existing values, add the new ones in handle
+	 * order and carry slices across without copying them out of the source map.
+	 */
+	@Test
+	public void testPutAll()
+	{
+		ByteBuffer received = ByteBuffer.wrap( new byte[]{ 9, 2, 2, 3, 3, 3, 9 } );
+		HandleValueMap newer = new HandleValueMap();
+		newer.putSlice( 2, slice(received,1,2) );
+		newer.put( 4, ONE );
+
+		HandleValueMap map = new HandleValueMap( 1 );
+		map.put( 3, THREE );
+		map.put( 2, ONE );
+		map.putSlice( 4, slice(received,3,3) );
+		map.putAll( newer );
+
+		Assert.assertTrue( Arrays.equals(map.getHandles(),new int[]{ 2, 3, 4 }) );
+		Assert.assertEquals( map.get(2), TWO );
+		Assert.assertSame( map.get(3), THREE );
+		Assert.assertSame( map.get(4), ONE );
+
+		// the source map should still have its slice
+		Assert.assertEquals( newer.get(2), TWO );
+		Assert.assertNotSame( newer.get(2), map.get(2) );
+	}
+
+	/**
+	 * The 1516e map wraps a HandleValueMap that may be shared, so changing it should leave the
+	 * wrapped map alone.
+	 */
+	@Test
+	public void testHLA1516eMapCopiesOnWrite() throws Exception
+	{
+		HandleValueMap shared = new HandleValueMap();
+		shared.put( 1, ONE );
+		shared.put( 2, TWO );
+
+		HLA1516eAttributeHandleValueMap wrapper = new HLA1516eAttributeHandleValueMap( shared );
+		AttributeHandle one = new HLA1516eHandle( 1 );
+		Assert.assertEquals( wrapper.size(), 2 );
+		Assert.assertSame( wrapper.get(one), ONE );
+		Assert.assertEquals( wrapper.getValueReference(one).array(), ONE );
+
+		wrapper.put( new HLA1516eHandle(3), THREE );
+		wrapper.remove( one );
+		Assert.assertEquals( wrapper.size(), 2 );
+		Assert.assertNull( wrapper.get(one) );
+		Assert.assertEquals( shared.size(), 2 );
+		Assert.assertSame( shared.get(1), ONE );
+
+		// what we hand over to the LRC shouldn't change if the federate reuses its map
+		HandleValueMap sent = HLA1516eAttributeHandleValueMap.toJavaMap( wrapper );
+		wrapper.clear();
+		Assert.assertTrue( Arrays.equals(sent.getHandles(),new int[]{ 2, 3 }) );
+	}
+
+	private ByteBuffer slice( ByteBuffer buffer, int offset, int length )
+	{
+		ByteBuffer slice = buffer.duplicate();
+		slice.position( offset );
+		slice = slice.slice();
+		slice.limit( length );
+		return slice;
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}
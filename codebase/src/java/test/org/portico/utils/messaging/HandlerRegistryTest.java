@@ -0,0 +1,95 @@
+/*
+ *   Copyright 2018 The Portico Project
+ *
+ *   This file is part of portico.
+ *
+ *   portico is free software; you can redistribute it and/or modify
+ *   it under the terms of the Common Developer and Distribution License (CDDL)
+ *   as published by Sun Microsystems. For more information see the LICENSE file.
+ *
+ *   Use of this software is strictly AT YOUR OWN RISK!!!
+ *   If something bad happens you do not have permission to come crying to me.
+ *   (that goes for your lawyer as well)
+ *
+ */
+package org.portico.utils.messaging;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.portico.utils.annotations.AnnotationLocator;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * The {@link HandlerRegistry} lists the handlers that ship with Portico by hand rather than
+ * scanning for them at startup. These tests scan the Portico classes for handlers (once, here,
+ * at build time) to make sure none have been left out of that list.
+ */
+@Test(groups={"HandlerRegistryTest","utils"})
+public class HandlerRegistryTest
+{
+	//----------------------------------------------------------
+	//                    STATIC VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                   INSTANCE VARIABLES
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                      CONSTRUCTORS
+	//----------------------------------------------------------
+
+	//----------------------------------------------------------
+	//                    INSTANCE METHODS
+	//----------------------------------------------------------
+	@Test
+	public void testRegistryContainsEveryHandler() throws Exception
+	{
+		Set<Class<?>> scanned = AnnotationLocator.locateClassesWithAnnotation( MessageHandler.class,
+		                                                                       getPorticoLocation() );
+		Assert.assertFalse( scanned.isEmpty(), "Didn't find any handlers to compare against" );
+
+		Set<Class<?>> missing = new HashSet<Class<?>>( scanned );
+		missing.removeAll( getRegisteredHandlers(new HandlerRegistry().getAllModules()) );
+		Assert.assertTrue( missing.isEmpty(), "Handlers missing from HandlerRegistry: "+missing );
+	}
+
+	@Test
+	public void testAddModulesCombinesWithExisting() throws Exception
+	{
+		// scanning the Portico classes with a separate loader (the way plugin locations are
+		// scanned) should find the classes we already have and not add anything new
+		HandlerRegistry registry = new HandlerRegistry();
+		int before = getRegisteredHandlers( registry.getAllModules() ).size();
+		int modules = registry.getAllModules().size();
+
+		ClassLoader loader = new URLClassLoader( new URL[]{ getPorticoLocation() },
+		                                         getClass().getClassLoader() );
+		registry.addModules( Module.findModules(getPorticoLocation(),loader) );
+		Assert.assertEquals( getRegisteredHandlers(registry.getAllModules()).size(), before );
+		Assert.assertEquals( registry.getAllModules().size(), modules );
+	}
+
+	private URL getPorticoLocation()
+	{
+		return HandlerRegistry.class.getProtectionDomain().getCodeSource().getLocation();
+	}
+
+	private Set<Class<?>> getRegisteredHandlers( Collection<Module> modules )
+	{
+		Set<Class<?>> handlers = new HashSet<Class<?>>();
+		for( Module module : modules )
+			handlers.addAll( module.getAllHandlers() );
+
+		return handlers;
+	}
+
+	//----------------------------------------------------------
+	//                     STATIC METHODS
+	//----------------------------------------------------------
+}